@@ -240,13 +240,24 @@ final class ImmutableJsonArray extends AbstractJsonValue implements JsonArray {
     @Immutable
     static final class SoftReferencedValueList {
 
-        private final String jsonArrayStringRepresentation;
+        @Nullable private final List<JsonValue> strongValues;
+        @Nullable private String jsonArrayStringRepresentation;
         private int hashCode;
         private SoftReference<List<JsonValue>> valuesReference;
 
-        private SoftReferencedValueList(final List<JsonValue> jsonValueList, final String stringRepresentation) {
+        private SoftReferencedValueList(final List<JsonValue> jsonValueList,
+                @Nullable final String stringRepresentation) {
+
+            final List<JsonValue> values = Collections.unmodifiableList(new ArrayList<>(jsonValueList));
+            if (null != stringRepresentation) {
+                // the values can be restored from the string representation thus they may be garbage collected
+                strongValues = null;
+                valuesReference = new SoftReference<>(values);
+            } else {
+                strongValues = values;
+                valuesReference = new SoftReference<>(null);
+            }
             jsonArrayStringRepresentation = stringRepresentation;
-            valuesReference = new SoftReference<>(Collections.unmodifiableList(new ArrayList<>(jsonValueList)));
             hashCode = 0;
         }
 
@@ -261,10 +272,7 @@ final class ImmutableJsonArray extends AbstractJsonValue implements JsonArray {
         static SoftReferencedValueList of(final List<JsonValue> jsonValueList,
                 @Nullable final String stringRepresentation) {
 
-            if (null != stringRepresentation) {
-                return new SoftReferencedValueList(jsonValueList, stringRepresentation);
-            }
-            return new SoftReferencedValueList(jsonValueList, createStringRepresentation(jsonValueList));
+            return new SoftReferencedValueList(jsonValueList, stringRepresentation);
         }
 
         private static String createStringRepresentation(final Iterable<JsonValue> jsonValues) {
@@ -312,9 +320,12 @@ final class ImmutableJsonArray extends AbstractJsonValue implements JsonArray {
         }
 
         private List<JsonValue> values() {
+            if (null != strongValues) {
+                return strongValues;
+            }
             List<JsonValue> result = valuesReference.get();
             if (null == result) {
-                result = parseToList(jsonArrayStringRepresentation);
+                result = parseToList(asJsonArrayString());
                 valuesReference = new SoftReference<>(result);
             }
             return result;
@@ -343,12 +354,16 @@ final class ImmutableJsonArray extends AbstractJsonValue implements JsonArray {
                 return false;
             }
             final SoftReferencedValueList that = (SoftReferencedValueList) o;
-            if (jsonArrayStringRepresentation.equals(that.jsonArrayStringRepresentation)) {
-                return true;
-            } else if (jsonArrayStringRepresentation.length() == that.jsonArrayStringRepresentation.length()) {
-                return Objects.equals(values(), that.values());
+            final String stringRepresentation = jsonArrayStringRepresentation;
+            final String thatStringRepresentation = that.jsonArrayStringRepresentation;
+            if (null != stringRepresentation && null != thatStringRepresentation) {
+                if (stringRepresentation.equals(thatStringRepresentation)) {
+                    return true;
+                } else if (stringRepresentation.length() != thatStringRepresentation.length()) {
+                    return false;
+                }
             }
-            return false;
+            return Objects.equals(values(), that.values());
         }
 
         @Override
@@ -362,7 +377,12 @@ final class ImmutableJsonArray extends AbstractJsonValue implements JsonArray {
         }
 
         String asJsonArrayString() {
-            return jsonArrayStringRepresentation;
+            String result = jsonArrayStringRepresentation;
+            if (null == result) {
+                result = createStringRepresentation(values());
+                jsonArrayStringRepresentation = result;
+            }
+            return result;
         }
 
     }
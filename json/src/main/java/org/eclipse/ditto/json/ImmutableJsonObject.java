@@ -94,6 +94,22 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         return new ImmutableJsonObject(SoftReferencedFieldMap.of(fields, stringRepresentation));
     }
 
+    /**
+     * Returns a new {@code ImmutableJsonObject} instance which is backed by the given UTF-8 encoded JSON object.
+     * The bytes must not be changed afterwards.
+     *
+     * @param utf8Source the bytes containing the JSON object.
+     * @param offset the index of the opening brace of the JSON object.
+     * @param length the length of the JSON object in bytes.
+     * @param fields the already parsed fields of the JSON object or {@code null} if they should be parsed on access.
+     * @return the new JSON object.
+     */
+    static ImmutableJsonObject of(final byte[] utf8Source, final int offset, final int length,
+            @Nullable final Map<String, JsonField> fields) {
+
+        return new ImmutableJsonObject(SoftReferencedFieldMap.of(utf8Source, offset, length, fields));
+    }
+
     @Override
     public JsonObject setValue(final CharSequence key, final int value) {
         return setValue(key, JsonValue.of(value));
@@ -349,7 +365,7 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
     }
 
     @SuppressWarnings("unchecked")
-    private static JsonObject filterByTrie(final JsonObject self, final JsonFieldSelectorTrie trie) {
+    static JsonObject filterByTrie(final JsonObject self, final JsonFieldSelectorTrie trie) {
         if (trie.isEmpty()) {
             return self;
         }
@@ -490,6 +506,9 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         if (this == o) {
             return true;
         }
+        if (o instanceof IndexedJsonObject) {
+            return o.equals(this);
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -511,13 +530,46 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
     @Immutable
     static final class SoftReferencedFieldMap {
 
-        private final String jsonObjectStringRepresentation;
+        @Nullable private final Map<String, JsonField> strongFields;
+        @Nullable private final byte[] utf8Source;
+        private final int utf8Offset;
+        private final int utf8Length;
+        @Nullable private String jsonObjectStringRepresentation;
         private int hashCode;
         private SoftReference<Map<String, JsonField>> fieldsReference;
 
-        private SoftReferencedFieldMap(final Map<String, JsonField> jsonFieldMap, final String stringRepresentation) {
+        private SoftReferencedFieldMap(final Map<String, JsonField> jsonFieldMap,
+                @Nullable final String stringRepresentation) {
+
+            final Map<String, JsonField> fields = jsonFieldMap instanceof PersistentFieldMap
+                    ? jsonFieldMap
+                    : Collections.unmodifiableMap(new LinkedHashMap<>(jsonFieldMap));
+            if (null != stringRepresentation) {
+                // the fields can be restored from the string representation thus they may be garbage collected
+                strongFields = null;
+                fieldsReference = new SoftReference<>(fields);
+            } else {
+                strongFields = fields;
+                fieldsReference = new SoftReference<>(null);
+            }
+            utf8Source = null;
+            utf8Offset = 0;
+            utf8Length = 0;
             jsonObjectStringRepresentation = stringRepresentation;
-            fieldsReference = new SoftReference<>(Collections.unmodifiableMap(new LinkedHashMap<>(jsonFieldMap)));
+            hashCode = 0;
+        }
+
+        private SoftReferencedFieldMap(final byte[] utf8Source, final int utf8Offset, final int utf8Length,
+                @Nullable final Map<String, JsonField> jsonFieldMap) {
+
+            strongFields = null;
+            this.utf8Source = utf8Source;
+            this.utf8Offset = utf8Offset;
+            this.utf8Length = utf8Length;
+            fieldsReference = new SoftReference<>(null != jsonFieldMap
+                    ? Collections.unmodifiableMap(jsonFieldMap)
+                    : null);
+            jsonObjectStringRepresentation = null;
             hashCode = 0;
         }
 
@@ -532,10 +584,23 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         static SoftReferencedFieldMap of(final Map<String, JsonField> jsonFieldMap,
                 @Nullable final String stringRepresentation) {
 
-            if (null != stringRepresentation) {
-                return new SoftReferencedFieldMap(jsonFieldMap, stringRepresentation);
-            }
-            return new SoftReferencedFieldMap(jsonFieldMap, createStringRepresentation(jsonFieldMap));
+            return new SoftReferencedFieldMap(jsonFieldMap, stringRepresentation);
+        }
+
+        /**
+         * Returns a field map which is backed by the given UTF-8 encoded JSON object. If the fields are not known
+         * yet, or after they were garbage collected, they are parsed from the bytes on access.
+         *
+         * @param utf8Source the bytes containing the JSON object.
+         * @param utf8Offset the index of the opening brace of the JSON object.
+         * @param utf8Length the length of the JSON object in bytes.
+         * @param jsonFieldMap the already parsed fields or {@code null}.
+         * @return the field map.
+         */
+        static SoftReferencedFieldMap of(final byte[] utf8Source, final int utf8Offset, final int utf8Length,
+                @Nullable final Map<String, JsonField> jsonFieldMap) {
+
+            return new SoftReferencedFieldMap(utf8Source, utf8Offset, utf8Length, jsonFieldMap);
         }
 
         private static String createStringRepresentation(final Map<String, JsonField> jsonFieldMap) {
@@ -570,25 +635,27 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         }
 
         SoftReferencedFieldMap put(final String key, final JsonField value) {
-            final Map<String, JsonField> fieldsCopy = copyFields();
-            fieldsCopy.put(key, value);
-            return of(fieldsCopy);
+            return of(persistentFields().with(key, value));
         }
 
-        private Map<String, JsonField> copyFields() {
-            return new LinkedHashMap<>(fields());
+        /*
+         * Modifications are applied to a persistent map which shares the unchanged fields with the original one.
+         * Only the first modification of a JSON object which was parsed or built from a plain map copies the fields.
+         */
+        private PersistentFieldMap persistentFields() {
+            return PersistentFieldMap.of(fields());
         }
 
         SoftReferencedFieldMap putAll(final Iterable<JsonField> jsonFields) {
-            final Map<String, JsonField> fieldsCopy = copyFields();
-            jsonFields.forEach(jsonField -> fieldsCopy.put(jsonField.getKeyName(), jsonField));
-            return of(fieldsCopy);
+            PersistentFieldMap result = persistentFields();
+            for (final JsonField jsonField : jsonFields) {
+                result = result.with(jsonField.getKeyName(), jsonField);
+            }
+            return of(result);
         }
 
         SoftReferencedFieldMap remove(final String key) {
-            final Map<String, JsonField> fieldsCopy = copyFields();
-            fieldsCopy.remove(key);
-            return of(fieldsCopy);
+            return of(persistentFields().without(key));
         }
 
         Stream<JsonField> getStream() {
@@ -600,9 +667,17 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         }
 
         private Map<String, JsonField> fields() {
+            if (null != strongFields) {
+                return strongFields;
+            }
             Map<String, JsonField> result = fieldsReference.get();
             if (null == result) {
-                result = parseToMap(jsonObjectStringRepresentation);
+                if (null != utf8Source) {
+                    result = Collections.unmodifiableMap(Utf8JsonParser.parseFields(utf8Source, utf8Offset,
+                            utf8Length));
+                } else {
+                    result = parseToMap(asJsonObjectString());
+                }
                 fieldsReference = new SoftReference<>(result);
             }
             return result;
@@ -623,12 +698,16 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
                 return false;
             }
             final SoftReferencedFieldMap that = (SoftReferencedFieldMap) o;
-            if (jsonObjectStringRepresentation.equals(that.jsonObjectStringRepresentation)) {
-                return true;
-            } else if (jsonObjectStringRepresentation.length() == that.jsonObjectStringRepresentation.length()) {
-                return Objects.equals(fields(), that.fields());
+            final String stringRepresentation = jsonObjectStringRepresentation;
+            final String thatStringRepresentation = that.jsonObjectStringRepresentation;
+            if (null != stringRepresentation && null != thatStringRepresentation) {
+                if (stringRepresentation.equals(thatStringRepresentation)) {
+                    return true;
+                } else if (stringRepresentation.length() != thatStringRepresentation.length()) {
+                    return false;
+                }
             }
-            return false;
+            return Objects.equals(fields(), that.fields());
         }
 
         @Override
@@ -642,7 +721,12 @@ final class ImmutableJsonObject extends AbstractJsonValue implements JsonObject
         }
 
         String asJsonObjectString() {
-            return jsonObjectStringRepresentation;
+            String result = jsonObjectStringRepresentation;
+            if (null == result) {
+                result = createStringRepresentation(fields());
+                jsonObjectStringRepresentation = result;
+            }
+            return result;
         }
 
     }
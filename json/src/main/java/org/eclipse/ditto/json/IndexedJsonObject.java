@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable JSON object which is backed by its UTF-8 encoded serialized form and an index of its members.
+ * <p>
+ * In contrast to {@link ImmutableJsonObject} this object does not keep a map of its parsed fields which could be
+ * garbage collected and then would have to be restored by parsing the whole document again. Instead only the keys and
+ * the byte positions of the member values are kept. Retrieving a value parses only the addressed subtree; nested JSON
+ * objects are indexed in turn and kept by their parent, thus accessing values by pointer never re-parses the document.
+ * </p>
+ * <p>
+ * Methods which would alter the state of this object return an {@link ImmutableJsonObject} with the altered state.
+ * </p>
+ */
+@Immutable
+final class IndexedJsonObject extends AbstractJsonValue implements JsonObject {
+
+    private static final JsonKey ROOT_KEY = JsonKey.of("/");
+
+    private final byte[] utf8Source;
+    private final int offset;
+    private final int length;
+    private final JsonKey[] keys;
+    private final int[] valueBounds;
+    private final int[] slots;
+    private final boolean compact;
+    private final JsonObject[] childObjects;
+    private int hashCode;
+
+    private IndexedJsonObject(final byte[] utf8Source, final MemberIndex memberIndex) {
+        this.utf8Source = utf8Source;
+        offset = memberIndex.offset;
+        length = memberIndex.length;
+
+        final int memberCount = memberIndex.keys.length;
+        final JsonKey[] uniqueKeys = new JsonKey[memberCount];
+        final int[] uniqueValueBounds = new int[2 * memberCount];
+        slots = new int[slotCountFor(memberCount)];
+        int uniqueCount = 0;
+        for (int i = 0; i < memberCount; i++) {
+            final JsonKey key = memberIndex.keys[i];
+            final int slot = findSlot(slots, uniqueKeys, key.toString());
+            final int memberPosition;
+            if (0 == slots[slot]) {
+                memberPosition = uniqueCount++;
+                uniqueKeys[memberPosition] = key;
+                slots[slot] = memberPosition + 1;
+            } else {
+                // duplicate key: the first position is kept while the last value wins
+                memberPosition = slots[slot] - 1;
+            }
+            uniqueValueBounds[2 * memberPosition] = memberIndex.valueBounds[2 * i];
+            uniqueValueBounds[2 * memberPosition + 1] = memberIndex.valueBounds[2 * i + 1];
+        }
+        keys = uniqueCount == memberCount ? uniqueKeys : Arrays.copyOf(uniqueKeys, uniqueCount);
+        valueBounds = uniqueCount == memberCount ? uniqueValueBounds
+                : Arrays.copyOf(uniqueValueBounds, 2 * uniqueCount);
+        compact = memberIndex.compact && uniqueCount == memberCount;
+        childObjects = new JsonObject[uniqueCount];
+        hashCode = 0;
+    }
+
+    /**
+     * Returns a new {@code IndexedJsonObject} which is backed by the JSON object contained in the given UTF-8
+     * encoded bytes. The bytes must not be changed afterwards.
+     *
+     * @param utf8Source the bytes containing the JSON object.
+     * @param offset the index of the first byte of the JSON object; leading and trailing whitespace is ignored.
+     * @param length the number of bytes of the JSON object.
+     * @return the new JSON object.
+     * @throws JsonParseException if the bytes do not contain a valid JSON object.
+     */
+    static IndexedJsonObject of(final byte[] utf8Source, final int offset, final int length) {
+        return new IndexedJsonObject(utf8Source, Utf8JsonParser.indexMembers(utf8Source, offset, length));
+    }
+
+    private static int slotCountFor(final int memberCount) {
+        int result = 2;
+        while (result < 2 * memberCount) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    private static int findSlot(final int[] slots, final JsonKey[] keys, final String keyName) {
+        final int mask = slots.length - 1;
+        final int hash = keyName.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (0 != slots[slot] && !keys[slots[slot] - 1].toString().equals(keyName)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int indexOf(final CharSequence key) {
+        return slots[findSlot(slots, keys, key.toString())] - 1;
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final int value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final long value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final double value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final boolean value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final String value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public JsonObject setValue(final CharSequence key, final JsonValue value) {
+        return toImmutableJsonObject().setValue(key, value);
+    }
+
+    @Override
+    public <T> JsonObject set(final JsonFieldDefinition<T> fieldDefinition, @Nullable final T value) {
+        return toImmutableJsonObject().set(fieldDefinition, value);
+    }
+
+    @Override
+    public JsonObject set(final JsonField field) {
+        return toImmutableJsonObject().set(field);
+    }
+
+    @Override
+    public JsonObject setAll(final Iterable<JsonField> jsonFields) {
+        return toImmutableJsonObject().setAll(jsonFields);
+    }
+
+    @Override
+    public boolean contains(final CharSequence key) {
+        requireNonNull(key, "The key or pointer to check the existence of a value for must not be null!");
+
+        final JsonPointer pointer = JsonPointer.of(key);
+        final Optional<JsonKey> rootKey = pointer.getRoot();
+        if (1 >= pointer.getLevelCount()) {
+            return rootKey.filter(k -> 0 <= indexOf(k)).isPresent();
+        }
+        return rootKey.flatMap(this::getValueForKey)
+                .map(jsonValue -> !jsonValue.isObject() || jsonValue.asObject().contains(pointer.nextLevel()))
+                .orElse(false);
+    }
+
+    @Override
+    public JsonObject get(final JsonPointer pointer) {
+        requireNonNull(pointer, "The JSON pointer must not be null!");
+
+        if (pointer.isEmpty()) {
+            return this;
+        }
+
+        final JsonKey rootKey = pointer.getRoot().orElse(ROOT_KEY);
+        final Optional<JsonValue> rootKeyValue = getValueForKey(rootKey);
+        if (!rootKeyValue.isPresent()) {
+            return ImmutableJsonObject.empty();
+        }
+
+        JsonValue resultValue = rootKeyValue.get();
+        if (1 < pointer.getLevelCount() && resultValue.isObject()) {
+            final JsonPointer nextPointerLevel = pointer.nextLevel();
+            final JsonObject jsonObject = resultValue.asObject();
+            if (!nextPointerLevel.getRoot().filter(jsonObject::contains).isPresent()) {
+                return ImmutableJsonObject.empty();
+            }
+            resultValue = jsonObject.get(nextPointerLevel);
+        }
+        final JsonField resultField = JsonField.newInstance(rootKey, resultValue);
+        return ImmutableJsonObject.of(Collections.singletonMap(resultField.getKeyName(), resultField));
+    }
+
+    @Override
+    public JsonObject get(final JsonFieldDefinition fieldDefinition) {
+        requireNonNull(fieldDefinition, "The JSON field definition which supplies the pointer must not be null!");
+        return get(fieldDefinition.getPointer());
+    }
+
+    @Override
+    public JsonObject get(final JsonFieldSelector fieldSelector) {
+        requireNonNull(fieldSelector, "The JSON field selector must not be null!");
+
+        if (isEmpty()) {
+            return this;
+        }
+
+        final List<JsonPointer> pointersContainedInThis = fieldSelector.getPointers()
+                .stream()
+                .filter(this::contains)
+                .collect(Collectors.toList());
+
+        if (pointersContainedInThis.isEmpty()) {
+            return ImmutableJsonObject.empty();
+        }
+        return ImmutableJsonObject.filterByTrie(this, JsonFieldSelectorTrie.of(pointersContainedInThis));
+    }
+
+    @Override
+    public Optional<JsonValue> getValue(final CharSequence key) {
+        requireNonNull(key, "The key or pointer of the value to be retrieved must not be null!");
+        return getValueForPointer(JsonPointer.of(key));
+    }
+
+    private Optional<JsonValue> getValueForPointer(final JsonPointer pointer) {
+        final int levelCount = pointer.getLevelCount();
+        if (0 == levelCount) {
+            return Optional.of(this);
+        }
+        final Optional<JsonValue> rootValue = getValueForKey(pointer.getRoot().orElse(ROOT_KEY));
+        if (1 == levelCount) {
+            return rootValue;
+        }
+        return rootValue.filter(JsonValue::isObject)
+                .map(JsonValue::asObject)
+                .flatMap(jsonObject -> jsonObject.getValue(pointer.nextLevel()));
+    }
+
+    private Optional<JsonValue> getValueForKey(final CharSequence key) {
+        final int memberPosition = indexOf(key);
+        return 0 <= memberPosition ? Optional.of(getMemberValue(memberPosition)) : Optional.empty();
+    }
+
+    private JsonValue getMemberValue(final int memberPosition) {
+        final int valueStart = valueBounds[2 * memberPosition];
+        final int valueLength = valueBounds[2 * memberPosition + 1] - valueStart;
+        if ('{' != utf8Source[valueStart]) {
+            return Utf8JsonParser.parseValue(utf8Source, valueStart, valueLength);
+        }
+        JsonObject result = childObjects[memberPosition];
+        if (null == result) {
+            // the value was already validated while indexing this object, thus indexing it cannot fail
+            result = 2 == valueLength ? ImmutableJsonObject.empty() : of(utf8Source, valueStart, valueLength);
+            childObjects[memberPosition] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public <T> Optional<T> getValue(final JsonFieldDefinition<T> fieldDefinition) {
+        requireNonNull(fieldDefinition, "The JSON field definition which supplies the pointer must not be null!");
+        return getValueForPointer(fieldDefinition.getPointer()).map(fieldDefinition::mapValue);
+    }
+
+    @Override
+    public <T> T getValueOrThrow(final JsonFieldDefinition<T> fieldDefinition) {
+        return getValue(fieldDefinition).orElseThrow(() -> new JsonMissingFieldException(fieldDefinition));
+    }
+
+    @Override
+    public JsonObject remove(final CharSequence key) {
+        requireNonNull(key, "The key or pointer of the field to be removed must not be null!");
+        if (!contains(key)) {
+            return this;
+        }
+        return toImmutableJsonObject().remove(key);
+    }
+
+    @Override
+    public List<JsonKey> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    @Override
+    public Optional<JsonField> getField(final CharSequence key) {
+        requireNonNull(key, "The key or pointer of the field to be retrieved must not be null!");
+
+        final JsonPointer pointer = JsonPointer.of(key);
+        final Optional<JsonField> rootField = pointer.getRoot()
+                .flatMap(rootKey -> getValueForKey(rootKey).map(value -> JsonField.newInstance(rootKey, value)));
+        if (1 >= pointer.getLevelCount()) {
+            return rootField;
+        }
+        return rootField.map(JsonField::getValue)
+                .filter(JsonValue::isObject)
+                .map(JsonValue::asObject)
+                .flatMap(jsonObject -> jsonObject.getField(pointer.nextLevel()));
+    }
+
+    @Override
+    public boolean isObject() {
+        return true;
+    }
+
+    @Override
+    public JsonObject asObject() {
+        return this;
+    }
+
+    @Override
+    public Iterator<JsonField> iterator() {
+        return getFields().iterator();
+    }
+
+    @Override
+    public Stream<JsonField> stream() {
+        return getFields().stream();
+    }
+
+    private List<JsonField> getFields() {
+        final List<JsonField> result = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            result.add(JsonField.newInstance(keys[i], getMemberValue(i)));
+        }
+        return result;
+    }
+
+    private Map<String, JsonField> getFieldMap() {
+        final Map<String, JsonField> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            result.put(keys[i].toString(), JsonField.newInstance(keys[i], getMemberValue(i)));
+        }
+        return result;
+    }
+
+    private static Map<String, JsonField> getFieldMap(final JsonObject jsonObject) {
+        final Map<String, JsonField> result = new LinkedHashMap<>();
+        jsonObject.forEach(jsonField -> result.put(jsonField.getKeyName(), jsonField));
+        return result;
+    }
+
+    private ImmutableJsonObject toImmutableJsonObject() {
+        return ImmutableJsonObject.of(utf8Source, offset, length, getFieldMap());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == keys.length;
+    }
+
+    @Override
+    public int getSize() {
+        return keys.length;
+    }
+
+    /**
+     * Indicates whether the given object is a JSON object with the same fields as this object. In contrast to
+     * {@link ImmutableJsonObject} an {@code IndexedJsonObject} is also equal to an {@code ImmutableJsonObject} with
+     * the same fields.
+     *
+     * @param o the object to be compared with this object.
+     * @return {@code true} if {@code o} is a JSON object with equal fields.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof IndexedJsonObject) {
+            final IndexedJsonObject that = (IndexedJsonObject) o;
+            if (hasSameSource(that)) {
+                return true;
+            }
+            return keys.length == that.keys.length && getFieldMap().equals(that.getFieldMap());
+        }
+        if (o instanceof ImmutableJsonObject) {
+            final ImmutableJsonObject that = (ImmutableJsonObject) o;
+            return keys.length == that.getSize() && getFieldMap().equals(getFieldMap(that));
+        }
+        return false;
+    }
+
+    private boolean hasSameSource(final IndexedJsonObject that) {
+        if (length != that.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (utf8Source[offset + i] != that.utf8Source[that.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (0 == result) {
+            // has to be the same as the hash code of an ImmutableJsonObject with the same fields
+            result = getFieldMap().hashCode();
+            hashCode = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (compact) {
+            return new String(utf8Source, offset, length, StandardCharsets.UTF_8);
+        }
+        return stream().map(JsonField::toString).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * The result of indexing a UTF-8 encoded JSON object: the keys of its members in document order and the start
+     * (inclusive) and end (exclusive) byte positions of their values.
+     */
+    @Immutable
+    static final class MemberIndex {
+
+        private final int offset;
+        private final int length;
+        private final JsonKey[] keys;
+        private final int[] valueBounds;
+        private final boolean compact;
+
+        /**
+         * Constructs a new {@code MemberIndex} object.
+         *
+         * @param offset the index of the opening brace of the JSON object.
+         * @param length the length of the JSON object in bytes.
+         * @param keys the keys of the members in document order.
+         * @param valueBounds the start and end position of each member's value, i. e. twice as many as keys.
+         * @param compact whether the JSON object contains no insignificant whitespace.
+         */
+        MemberIndex(final int offset, final int length, final JsonKey[] keys, final int[] valueBounds,
+                final boolean compact) {
+
+            this.offset = offset;
+            this.length = length;
+            this.keys = keys;
+            this.valueBounds = valueBounds;
+            this.compact = compact;
+        }
+
+    }
+
+}
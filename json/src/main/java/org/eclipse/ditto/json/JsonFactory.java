@@ -15,6 +15,8 @@ package org.eclipse.ditto.json;
 import static java.util.Objects.requireNonNull;
 
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
@@ -193,6 +195,48 @@ public final class JsonFactory {
         return JsonValueParser.fromReader().apply(reader);
     }
 
+    /**
+     * Reads the given UTF-8 encoded bytes and creates a JSON value based on the read data without decoding the bytes
+     * to a string first. Nested JSON objects of the returned value are parsed on access only.
+     * <p>
+     * <em>As the returned JSON value may refer to {@code utf8Bytes}, the array must not be modified afterwards.</em>
+     * </p>
+     *
+     * @param utf8Bytes the UTF-8 encoded JSON document to read.
+     * @return a JSON value representing the read document. This value can be a JSON literal, a JSON object and so on.
+     * @throws NullPointerException if {@code utf8Bytes} is {@code null}.
+     * @throws JsonParseException if {@code utf8Bytes} is empty or if it is no valid JSON.
+     */
+    public static JsonValue readFrom(final byte[] utf8Bytes) {
+        requireNonNull(utf8Bytes, "The JSON bytes to read from must not be null!");
+        if (0 == utf8Bytes.length) {
+            throw new JsonParseException("The JSON bytes to read from must not be empty!");
+        }
+
+        return Utf8JsonParser.parseValue(utf8Bytes, 0, utf8Bytes.length);
+    }
+
+    /**
+     * Reads the remaining UTF-8 encoded bytes of the given buffer and creates a JSON value based on the read data
+     * without decoding the bytes to a string first. Nested JSON objects of the returned value are parsed on access only.
+     * The position of the buffer is not changed.
+     * <p>
+     * As buffers are usually re-used, the remaining bytes are copied once.
+     * </p>
+     *
+     * @param utf8Buffer the buffer containing the UTF-8 encoded JSON document to read.
+     * @return a JSON value representing the read document. This value can be a JSON literal, a JSON object and so on.
+     * @throws NullPointerException if {@code utf8Buffer} is {@code null}.
+     * @throws JsonParseException if {@code utf8Buffer} has no remaining bytes or if they are no valid JSON.
+     */
+    public static JsonValue readFrom(final ByteBuffer utf8Buffer) {
+        requireNonNull(utf8Buffer, "The JSON buffer to read from must not be null!");
+        final byte[] utf8Bytes = new byte[utf8Buffer.remaining()];
+        utf8Buffer.duplicate().get(utf8Bytes);
+
+        return readFrom(utf8Bytes);
+    }
+
     /**
      * Returns a new mutable builder for a {@code JsonObject}.
      *
@@ -253,6 +297,48 @@ public final class JsonFactory {
         }
     }
 
+    /**
+     * Creates a JSON object from the given string which keeps the serialized form of the object and an index of its
+     * members instead of a map of parsed fields. Getting a value by pointer or a field selection from the returned
+     * object parses only the addressed values. This is beneficial for large JSON objects which are kept in memory for a
+     * long time and of which only parts are accessed.
+     *
+     * @param jsonString the string that represents the JSON object.
+     * @return the JSON object that has been created from the string.
+     * @throws NullPointerException if {@code jsonString} is {@code null}.
+     * @throws IllegalArgumentException if {@code jsonString} is empty.
+     * @throws JsonParseException if {@code jsonString} does not contain a valid JSON object.
+     */
+    public static JsonObject newIndexedObject(final String jsonString) {
+        requireNonNull(jsonString, "The JSON string to create a JSON object from must not be null!");
+
+        return newIndexedObject(jsonString.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a JSON object from the given UTF-8 encoded bytes which keeps the bytes and an index of the object's
+     * members instead of a map of parsed fields. Getting a value by pointer or a field selection from the returned
+     * object parses only the addressed values.
+     * <p>
+     * <em>As the returned JSON object refers to {@code utf8Bytes}, the array must not be modified afterwards.</em>
+     * </p>
+     *
+     * @param utf8Bytes the UTF-8 encoded JSON object.
+     * @return the JSON object that has been created from the bytes.
+     * @throws NullPointerException if {@code utf8Bytes} is {@code null}.
+     * @throws IllegalArgumentException if {@code utf8Bytes} is empty.
+     * @throws JsonParseException if {@code utf8Bytes} does not contain a valid JSON object.
+     * @see #newIndexedObject(String)
+     */
+    public static JsonObject newIndexedObject(final byte[] utf8Bytes) {
+        requireNonNull(utf8Bytes, "The JSON bytes to create a JSON object from must not be null!");
+        if (0 == utf8Bytes.length) {
+            throw new IllegalArgumentException("The JSON bytes to create a JSON object from must not be empty!");
+        }
+
+        return IndexedJsonObject.of(utf8Bytes, 0, utf8Bytes.length);
+    }
+
     private static boolean isJsonNullLiteralString(final String s) {
         return "null".equals(s);
     }
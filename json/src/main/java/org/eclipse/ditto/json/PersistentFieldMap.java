@@ -0,0 +1,676 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A persistent map of JSON fields by their key names which preserves the insertion order of the keys.
+ * <p>
+ * {@link #with(String, JsonField)} and {@link #without(String)} return a new map which shares all unchanged parts with
+ * this map, thus they take <em>O(log n)</em> time and memory instead of copying all fields. Keys are indexed by a
+ * hash array mapped trie; the insertion order is kept by a trie of fields indexed by their insertion position in which
+ * removed fields leave a hole until the map is compacted.
+ * </p>
+ * <p>
+ * The map itself is unmodifiable, i. e. all mutating methods of {@link Map} throw an
+ * {@link UnsupportedOperationException}.
+ * </p>
+ */
+@Immutable
+final class PersistentFieldMap extends AbstractMap<String, JsonField> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final PersistentFieldMap EMPTY = new PersistentFieldMap(BitmapNode.EMPTY, EMPTY_ARRAY, 0, 0, 0);
+
+    private static final int EQUAL = 1;
+    private static final int NOT_EQUAL = 0;
+    private static final int UNKNOWN = -1;
+
+    private final Node keyIndex;
+    private final Object[] order;
+    private final int orderShift;
+    private final int orderCount;
+    private final int size;
+
+    private PersistentFieldMap(final Node keyIndex, final Object[] order, final int orderShift, final int orderCount,
+            final int size) {
+
+        this.keyIndex = keyIndex;
+        this.order = order;
+        this.orderShift = orderShift;
+        this.orderCount = orderCount;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty persistent field map.
+     *
+     * @return the empty map.
+     */
+    static PersistentFieldMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a persistent field map with the fields of the given map in the iteration order of the given map.
+     *
+     * @param fields the fields by their key names.
+     * @return the persistent map which is {@code fields} itself if it is already persistent.
+     */
+    static PersistentFieldMap of(final Map<String, JsonField> fields) {
+        if (fields instanceof PersistentFieldMap) {
+            return (PersistentFieldMap) fields;
+        }
+        final Entry[] entries = new Entry[fields.size()];
+        int position = 0;
+        for (final Map.Entry<String, JsonField> field : fields.entrySet()) {
+            entries[position] = new Entry(field.getKey(), field.getValue(), position);
+            position++;
+        }
+        return of(entries);
+    }
+
+    private static PersistentFieldMap of(final Entry[] entries) {
+        if (0 == entries.length) {
+            return EMPTY;
+        }
+
+        // build the order trie bottom up
+        Object[] nodes = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            nodes[i] = entries[i].field;
+        }
+        int shift = 0;
+        while (true) {
+            final Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = Arrays.copyOfRange(nodes, i << BITS, Math.min(nodes.length, (i + 1) << BITS));
+            }
+            if (1 == parents.length) {
+                return new PersistentFieldMap(buildNode(entries, 0), (Object[]) parents[0], shift, entries.length,
+                        entries.length);
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+    }
+
+    private static Node buildNode(final Entry[] entries, final int shift) {
+        if (haveSameHash(entries)) {
+            return new CollisionNode(entries[0].hash, entries);
+        }
+        final int[] counts = new int[WIDTH];
+        for (final Entry entry : entries) {
+            counts[bucket(entry.hash, shift)]++;
+        }
+        int bitmap = 0;
+        int childCount = 0;
+        final Entry[][] buckets = new Entry[WIDTH][];
+        for (int i = 0; i < WIDTH; i++) {
+            if (0 < counts[i]) {
+                bitmap |= 1 << i;
+                buckets[i] = new Entry[counts[i]];
+                counts[i] = 0;
+                childCount++;
+            }
+        }
+        for (final Entry entry : entries) {
+            final int bucket = bucket(entry.hash, shift);
+            buckets[bucket][counts[bucket]++] = entry;
+        }
+        final Object[] children = new Object[childCount];
+        int childIndex = 0;
+        for (final Entry[] bucketEntries : buckets) {
+            if (null != bucketEntries) {
+                children[childIndex++] = 1 == bucketEntries.length
+                        ? bucketEntries[0]
+                        : buildNode(bucketEntries, shift + BITS);
+            }
+        }
+        return new BitmapNode(bitmap, children);
+    }
+
+    private static boolean haveSameHash(final Entry[] entries) {
+        for (int i = 1; i < entries.length; i++) {
+            if (entries[i].hash != entries[0].hash) {
+                return false;
+            }
+        }
+        return 1 < entries.length;
+    }
+
+    private static int bucket(final int hash, final int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static int hash(final String key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a map which contains the given field in addition to the fields of this map. If this map already
+     * contains a field with the same key name, the field is replaced at its position.
+     *
+     * @param keyName the key name of the field.
+     * @param field the field.
+     * @return the new map or this map if it already contains the same field.
+     */
+    PersistentFieldMap with(final String keyName, final JsonField field) {
+        final int hash = hash(keyName);
+        final Entry existing = keyIndex.find(0, hash, keyName);
+        if (null != existing) {
+            if (existing.field == field) {
+                return this;
+            }
+            final Entry replacement = new Entry(keyName, hash, field, existing.position);
+            return new PersistentFieldMap(keyIndex.with(0, replacement),
+                    setInOrder(order, orderShift, existing.position, field), orderShift, orderCount, size);
+        }
+
+        final Entry entry = new Entry(keyName, hash, field, orderCount);
+        Object[] newOrder = order;
+        int newOrderShift = orderShift;
+        if (orderCount == 1 << (orderShift + BITS)) {
+            newOrder = new Object[]{order};
+            newOrderShift += BITS;
+        }
+        return new PersistentFieldMap(keyIndex.with(0, entry),
+                appendToOrder(newOrder, newOrderShift, orderCount, field), newOrderShift, orderCount + 1, size + 1);
+    }
+
+    /**
+     * Returns a map which contains the fields of this map except the field with the given key name.
+     *
+     * @param keyName the key name of the field to be removed.
+     * @return the new map or this map if it does not contain a field with the key name.
+     */
+    PersistentFieldMap without(final String keyName) {
+        final int hash = hash(keyName);
+        final Entry existing = keyIndex.find(0, hash, keyName);
+        if (null == existing) {
+            return this;
+        }
+        if (1 == size) {
+            return EMPTY;
+        }
+        final Node newKeyIndex = keyIndex.without(0, hash, keyName);
+        final PersistentFieldMap result = new PersistentFieldMap(null != newKeyIndex ? newKeyIndex : BitmapNode.EMPTY,
+                setInOrder(order, orderShift, existing.position, null), orderShift, orderCount, size - 1);
+
+        // compact if the holes of removed fields outnumber the fields
+        final int holes = orderCount - result.size;
+        return holes > Math.max(WIDTH, result.size) ? result.compact() : result;
+    }
+
+    private PersistentFieldMap compact() {
+        final Entry[] entries = new Entry[size];
+        int position = 0;
+        for (int i = 0; i < orderCount; i++) {
+            final JsonField field = (JsonField) getFromOrder(order, orderShift, i);
+            if (null != field) {
+                entries[position] = new Entry(field.getKeyName(), field, position);
+                position++;
+            }
+        }
+        return of(entries);
+    }
+
+    @Nullable
+    private static Object getFromOrder(final Object[] root, final int shift, final int position) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[bucket(position, level)];
+        }
+        return node[position & MASK];
+    }
+
+    private static Object[] setInOrder(final Object[] node, final int level, final int position,
+            @Nullable final Object value) {
+
+        final Object[] result = node.clone();
+        final int index = bucket(position, level);
+        if (0 == level) {
+            result[index] = value;
+        } else {
+            result[index] = setInOrder((Object[]) node[index], level - BITS, position, value);
+        }
+        return result;
+    }
+
+    private static Object[] appendToOrder(final Object[] node, final int level, final int position,
+            final Object value) {
+
+        final int index = bucket(position, level);
+        final Object[] result = Arrays.copyOf(node, Math.max(node.length, index + 1));
+        if (0 == level) {
+            result[index] = value;
+        } else {
+            final Object[] child = index < node.length ? (Object[]) node[index] : EMPTY_ARRAY;
+            result[index] = appendToOrder(child, level - BITS, position, value);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != getOrNull(key);
+    }
+
+    @Override
+    @Nullable
+    public JsonField get(final Object key) {
+        return getOrNull(key);
+    }
+
+    @Nullable
+    private JsonField getOrNull(@Nullable final Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String keyName = (String) key;
+        final Entry entry = keyIndex.find(0, hash(keyName), keyName);
+        return null != entry ? entry.field : null;
+    }
+
+    @Override
+    public Collection<JsonField> values() {
+        return new AbstractCollection<JsonField>() {
+            @Override
+            public Iterator<JsonField> iterator() {
+                return new FieldIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonField>> entrySet() {
+        return new AbstractSet<Map.Entry<String, JsonField>>() {
+            @Override
+            public Iterator<Map.Entry<String, JsonField>> iterator() {
+                final FieldIterator fieldIterator = new FieldIterator();
+                return new Iterator<Map.Entry<String, JsonField>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return fieldIterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, JsonField> next() {
+                        final JsonField field = fieldIterator.next();
+                        return new SimpleImmutableEntry<>(field.getKeyName(), field);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Compares the given object with this map like specified by {@link Map#equals(Object)}. Comparing two persistent
+     * maps skips all parts which are shared by both maps.
+     *
+     * @param o the object to be compared with this map.
+     * @return {@code true} if {@code o} is a map with equal fields.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PersistentFieldMap) {
+            final PersistentFieldMap that = (PersistentFieldMap) o;
+            if (size != that.size) {
+                return false;
+            }
+            final int result = compare(keyIndex, that.keyIndex);
+            if (UNKNOWN != result) {
+                return EQUAL == result;
+            }
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Compares two children at the same position of two key tries. A set bit of a bitmap node implies that there is
+     * at least one field below it, thus different bitmaps or different keys of entries at the same position imply
+     * that the maps are not equal.
+     */
+    private static int compare(final Object child, final Object otherChild) {
+        if (child == otherChild) {
+            return EQUAL;
+        }
+        if (child instanceof Entry && otherChild instanceof Entry) {
+            final Entry entry = (Entry) child;
+            final Entry otherEntry = (Entry) otherChild;
+            return entry.key.equals(otherEntry.key) && entry.field.equals(otherEntry.field) ? EQUAL : NOT_EQUAL;
+        }
+        if (child instanceof BitmapNode && otherChild instanceof BitmapNode) {
+            final BitmapNode node = (BitmapNode) child;
+            final BitmapNode otherNode = (BitmapNode) otherChild;
+            if (node.bitmap != otherNode.bitmap) {
+                return NOT_EQUAL;
+            }
+            for (int i = 0; i < node.children.length; i++) {
+                final int result = compare(node.children[i], otherNode.children[i]);
+                if (EQUAL != result) {
+                    return result;
+                }
+            }
+            return EQUAL;
+        }
+        if (child instanceof CollisionNode && otherChild instanceof CollisionNode) {
+            final CollisionNode node = (CollisionNode) child;
+            final CollisionNode otherNode = (CollisionNode) otherChild;
+            if (node.entries.length != otherNode.entries.length) {
+                return NOT_EQUAL;
+            }
+            for (final Entry entry : node.entries) {
+                final Entry otherEntry = otherNode.find(0, entry.hash, entry.key);
+                if (null == otherEntry || !entry.field.equals(otherEntry.field)) {
+                    return NOT_EQUAL;
+                }
+            }
+            return EQUAL;
+        }
+        return UNKNOWN;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (final JsonField field : values()) {
+            result += field.getKeyName().hashCode() ^ field.hashCode();
+        }
+        return result;
+    }
+
+    private final class FieldIterator implements Iterator<JsonField> {
+
+        private int position;
+        @Nullable private JsonField next;
+
+        private FieldIterator() {
+            position = 0;
+            next = advance();
+        }
+
+        @Nullable
+        private JsonField advance() {
+            while (position < orderCount) {
+                final Object field = getFromOrder(order, orderShift, position++);
+                if (null != field) {
+                    return (JsonField) field;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        @Override
+        public JsonField next() {
+            final JsonField result = next;
+            if (null == result) {
+                throw new NoSuchElementException();
+            }
+            next = advance();
+            return result;
+        }
+
+    }
+
+    @Immutable
+    private static final class Entry {
+
+        private final String key;
+        private final int hash;
+        private final JsonField field;
+        private final int position;
+
+        private Entry(final String key, final JsonField field, final int position) {
+            this(key, hash(key), field, position);
+        }
+
+        private Entry(final String key, final int hash, final JsonField field, final int position) {
+            this.key = key;
+            this.hash = hash;
+            this.field = field;
+            this.position = position;
+        }
+
+    }
+
+    @Immutable
+    private abstract static class Node {
+
+        @Nullable
+        abstract Entry find(int shift, int hash, String key);
+
+        abstract Node with(int shift, Entry entry);
+
+        /**
+         * Returns the node without the entry for the key, or {@code null} if the node would be empty.
+         */
+        @Nullable
+        abstract Node without(int shift, int hash, String key);
+
+    }
+
+    /**
+     * A node whose children are entries or nodes; each set bit of the bitmap stands for one child.
+     */
+    @Immutable
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, EMPTY_ARRAY);
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private BitmapNode(final int bitmap, final Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int indexOf(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Nullable
+        @Override
+        Entry find(final int shift, final int hash, final String key) {
+            final int bit = 1 << bucket(hash, shift);
+            if (0 == (bitmap & bit)) {
+                return null;
+            }
+            final Object child = children[indexOf(bit)];
+            if (child instanceof Entry) {
+                final Entry entry = (Entry) child;
+                return entry.key.equals(key) ? entry : null;
+            }
+            return ((Node) child).find(shift + BITS, hash, key);
+        }
+
+        @Override
+        Node with(final int shift, final Entry entry) {
+            final int bit = 1 << bucket(entry.hash, shift);
+            final int index = indexOf(bit);
+            if (0 == (bitmap & bit)) {
+                final Object[] newChildren = new Object[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = entry;
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, newChildren);
+            }
+            final Object child = children[index];
+            final Object newChild;
+            if (child instanceof Entry) {
+                final Entry existing = (Entry) child;
+                if (existing.key.equals(entry.key)) {
+                    newChild = entry;
+                } else if (existing.hash == entry.hash) {
+                    newChild = new CollisionNode(entry.hash, new Entry[]{existing, entry});
+                } else {
+                    newChild = EMPTY.with(shift + BITS, existing).with(shift + BITS, entry);
+                }
+            } else {
+                newChild = ((Node) child).with(shift + BITS, entry);
+            }
+            final Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode(bitmap, newChildren);
+        }
+
+        @Nullable
+        @Override
+        Node without(final int shift, final int hash, final String key) {
+            final int bit = 1 << bucket(hash, shift);
+            if (0 == (bitmap & bit)) {
+                return this;
+            }
+            final int index = indexOf(bit);
+            final Object child = children[index];
+            final Object newChild;
+            if (child instanceof Entry) {
+                newChild = ((Entry) child).key.equals(key) ? null : child;
+            } else {
+                newChild = ((Node) child).without(shift + BITS, hash, key);
+            }
+            if (child == newChild) {
+                return this;
+            }
+            if (null != newChild) {
+                final Object[] newChildren = children.clone();
+                newChildren[index] = newChild;
+                return new BitmapNode(bitmap, newChildren);
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newChildren = new Object[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            return new BitmapNode(bitmap ^ bit, newChildren);
+        }
+
+    }
+
+    /**
+     * A node for entries whose keys have the same hash.
+     */
+    @Immutable
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Entry[] entries;
+
+        private CollisionNode(final int hash, final Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(final String key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Nullable
+        @Override
+        Entry find(final int shift, final int hash, final String key) {
+            if (this.hash != hash) {
+                return null;
+            }
+            final int index = indexOf(key);
+            return 0 <= index ? entries[index] : null;
+        }
+
+        @Override
+        Node with(final int shift, final Entry entry) {
+            if (hash != entry.hash) {
+                // the new entry diverges from the colliding ones at this or a deeper level
+                return new BitmapNode(1 << bucket(hash, shift), new Object[]{this}).with(shift, entry);
+            }
+            final int index = indexOf(entry.key);
+            final Entry[] newEntries;
+            if (0 <= index) {
+                newEntries = entries.clone();
+                newEntries[index] = entry;
+            } else {
+                newEntries = Arrays.copyOf(entries, entries.length + 1);
+                newEntries[entries.length] = entry;
+            }
+            return new CollisionNode(hash, newEntries);
+        }
+
+        @Nullable
+        @Override
+        Node without(final int shift, final int hash, final String key) {
+            final int index = this.hash == hash ? indexOf(key) : -1;
+            if (0 > index) {
+                return this;
+            }
+            if (1 == entries.length) {
+                return null;
+            }
+            final Entry[] newEntries = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index + 1, newEntries, index, newEntries.length - index);
+            return new CollisionNode(hash, newEntries);
+        }
+
+    }
+
+}
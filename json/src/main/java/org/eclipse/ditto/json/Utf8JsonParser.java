@@ -0,0 +1,693 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A pull parser which reads JSON directly from UTF-8 encoded bytes, i. e. without decoding the whole input to a
+ * {@code String} first.
+ * <p>
+ * Compared to {@link JsonValueParser} this parser
+ * <ul>
+ *     <li>does not build the string representations of the parsed JSON objects and arrays,</li>
+ *     <li>interns frequently used keys like {@code thingId}, {@code attributes} or {@code features} as well as keys
+ *     which are repeated within and across parsed documents and</li>
+ *     <li>only materialises nested JSON objects on access. A nested object is validated when it is skipped, thus
+ *     materialising it later on cannot fail.</li>
+ * </ul>
+ * As nested objects keep a reference to the parsed bytes, the bytes must not be changed after parsing.
+ * </p>
+ */
+@NotThreadSafe
+final class Utf8JsonParser {
+
+    private static final KeyTable WELL_KNOWN_KEYS = KeyTable.of(
+            "thingId", "policyId", "attributes", "features", "properties", "definition", "acl",
+            "_revision", "_modified", "_created", "_namespace", "_policy", "__schemaVersion", "__lifecycle",
+            "entries", "subjects", "resources", "grant", "revoke", "READ", "WRITE", "type", "value", "path",
+            "topic", "headers", "status", "payload", "dittoHeaders", "correlation-id", "content-type"
+    );
+
+    /*
+     * Shared by all parsers so that keys are interned across documents and across lazily parsed nested objects.
+     */
+    private static final KeyTable REPEATED_KEYS = new KeyTable(1024);
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+    private boolean whitespaceSkipped;
+
+    private Utf8JsonParser(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        limit = offset + length;
+        position = offset;
+        whitespaceSkipped = false;
+    }
+
+    /**
+     * Parses the given UTF-8 encoded bytes to a JSON value.
+     *
+     * @param bytes the bytes to be parsed.
+     * @param offset the index of the first byte to be parsed.
+     * @param length the number of bytes to be parsed.
+     * @return the parsed JSON value.
+     * @throws JsonParseException if the bytes do not contain a valid JSON value.
+     */
+    static JsonValue parseValue(final byte[] bytes, final int offset, final int length) {
+        final Utf8JsonParser parser = new Utf8JsonParser(bytes, offset, length);
+        try {
+            parser.skipWhitespace();
+            final JsonValue result;
+            if ('{' == parser.peek()) {
+                final int start = parser.position;
+                final Map<String, JsonField> fields = parser.readFields();
+                result = ImmutableJsonObject.of(bytes, start, parser.position - start, fields);
+            } else {
+                result = parser.readValue();
+            }
+            parser.skipWhitespace();
+            if (parser.position < parser.limit) {
+                throw parser.newUnexpectedCharacterException();
+            }
+            return result;
+        } catch (final StackOverflowError e) {
+            throw newTooDeeplyNestedException(e);
+        }
+    }
+
+    private static JsonParseException newTooDeeplyNestedException(final StackOverflowError e) {
+        return JsonParseException.newBuilder()
+                .message("Failed to parse JSON bytes as they are nested too deeply!")
+                .cause(e)
+                .build();
+    }
+
+    /**
+     * Parses the fields of the JSON object which is contained in the given UTF-8 encoded bytes.
+     *
+     * @param bytes the bytes to be parsed.
+     * @param offset the index of the opening brace of the JSON object.
+     * @param length the number of bytes to be parsed.
+     * @return the fields of the JSON object in document order.
+     * @throws JsonParseException if the bytes do not contain a valid JSON object.
+     */
+    static Map<String, JsonField> parseFields(final byte[] bytes, final int offset, final int length) {
+        final Utf8JsonParser parser = new Utf8JsonParser(bytes, offset, length);
+        return parser.readFields();
+    }
+
+    /**
+     * Indexes the members of the JSON object which is contained in the given UTF-8 encoded bytes. The keys are read
+     * while the values are only validated and their byte positions are recorded.
+     *
+     * @param bytes the bytes to be indexed.
+     * @param offset the index of the first byte to be indexed; may be whitespace.
+     * @param length the number of bytes to be indexed.
+     * @return the member index of the JSON object.
+     * @throws JsonParseException if the bytes do not contain a valid JSON object.
+     */
+    static IndexedJsonObject.MemberIndex indexMembers(final byte[] bytes, final int offset, final int length) {
+        final Utf8JsonParser parser = new Utf8JsonParser(bytes, offset, length);
+        try {
+            parser.skipWhitespace();
+            parser.whitespaceSkipped = false;
+            final int start = parser.position;
+            final IndexedJsonObject.MemberIndex result = parser.readMemberIndex(start);
+            parser.skipWhitespace();
+            if (parser.position < parser.limit) {
+                throw parser.newUnexpectedCharacterException();
+            }
+            return result;
+        } catch (final StackOverflowError e) {
+            throw newTooDeeplyNestedException(e);
+        }
+    }
+
+    private IndexedJsonObject.MemberIndex readMemberIndex(final int start) {
+        expect('{');
+        final List<JsonKey> keys = new ArrayList<>();
+        int[] valueBounds = new int[16];
+        skipWhitespace();
+        if ('}' == peek()) {
+            position++;
+        } else {
+            do {
+                skipWhitespace();
+                final JsonKey key = readKey();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                final int valueStart = position;
+                skipValue();
+                final int memberIndex = keys.size();
+                if (valueBounds.length < 2 * (memberIndex + 1)) {
+                    valueBounds = Arrays.copyOf(valueBounds, 2 * valueBounds.length);
+                }
+                valueBounds[2 * memberIndex] = valueStart;
+                valueBounds[2 * memberIndex + 1] = position;
+                keys.add(key);
+                skipWhitespace();
+            } while (readSeparatorOrEnd('}'));
+        }
+        final JsonKey[] keyArray = keys.toArray(new JsonKey[0]);
+        return new IndexedJsonObject.MemberIndex(start, position - start, keyArray,
+                Arrays.copyOf(valueBounds, 2 * keyArray.length), !whitespaceSkipped);
+    }
+
+    private JsonValue readValue() {
+        skipWhitespace();
+        final byte b = peek();
+        switch (b) {
+            case '{':
+                return readLazyObject();
+            case '[':
+                return ImmutableJsonArray.of(readValues());
+            case '"':
+                return ImmutableJsonString.of(readString());
+            case 't':
+                readLiteral("true");
+                return ImmutableJsonBoolean.TRUE;
+            case 'f':
+                readLiteral("false");
+                return ImmutableJsonBoolean.FALSE;
+            case 'n':
+                readLiteral("null");
+                return ImmutableJsonNull.getInstance();
+            default:
+                if ('-' == b || isDigit(b)) {
+                    return readNumber();
+                }
+                throw newUnexpectedCharacterException();
+        }
+    }
+
+    private JsonValue readLazyObject() {
+        final int start = position;
+        skipObject();
+        final int length = position - start;
+        if (2 == length) {
+            return ImmutableJsonObject.empty();
+        }
+        return ImmutableJsonObject.of(bytes, start, length, null);
+    }
+
+    private Map<String, JsonField> readFields() {
+        skipWhitespace();
+        expect('{');
+        final Map<String, JsonField> result = new LinkedHashMap<>();
+        skipWhitespace();
+        if ('}' == peek()) {
+            position++;
+            return result;
+        }
+        do {
+            skipWhitespace();
+            final JsonKey key = readKey();
+            skipWhitespace();
+            expect(':');
+            final JsonValue value = readValue();
+            result.put(key.toString(), ImmutableJsonField.newInstance(key, value));
+            skipWhitespace();
+        } while (readSeparatorOrEnd('}'));
+        return result;
+    }
+
+    private List<JsonValue> readValues() {
+        skipWhitespace();
+        expect('[');
+        final List<JsonValue> result = new ArrayList<>();
+        skipWhitespace();
+        if (']' == peek()) {
+            position++;
+            return result;
+        }
+        do {
+            result.add(readValue());
+            skipWhitespace();
+        } while (readSeparatorOrEnd(']'));
+        return result;
+    }
+
+    private boolean readSeparatorOrEnd(final char end) {
+        final byte b = peek();
+        position++;
+        if (',' == b) {
+            return true;
+        } else if (end == b) {
+            return false;
+        }
+        position--;
+        throw newUnexpectedCharacterException();
+    }
+
+    private JsonKey readKey() {
+        if ('"' != peek()) {
+            throw newUnexpectedCharacterException();
+        }
+        final int start = position + 1;
+        final int end = findEndOfPlainString(start);
+        if (0 > end) {
+            // key contains escape sequences or control characters
+            return JsonFactory.newKey(readString());
+        }
+        position = end + 1;
+
+        final JsonKey wellKnownKey = WELL_KNOWN_KEYS.get(bytes, start, end);
+        if (null != wellKnownKey) {
+            return wellKnownKey;
+        }
+        JsonKey result = REPEATED_KEYS.get(bytes, start, end);
+        if (null == result) {
+            result = JsonFactory.newKey(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            REPEATED_KEYS.put(bytes, start, end, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the closing quote of the string starting at {@code start} if the string contains neither
+     * escape sequences nor control characters, else {@code -1}.
+     */
+    private int findEndOfPlainString(final int start) {
+        for (int i = start; i < limit; i++) {
+            final byte b = bytes[i];
+            if ('"' == b) {
+                return i;
+            } else if ('\\' == b || (0 <= b && b < 0x20)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private String readString() {
+        expect('"');
+        final int start = position;
+        final int plainEnd = findEndOfPlainString(start);
+        if (0 <= plainEnd) {
+            position = plainEnd + 1;
+            return new String(bytes, start, plainEnd - start, StandardCharsets.UTF_8);
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder();
+        int runStart = position;
+        while (true) {
+            final byte b = next();
+            if ('"' == b) {
+                appendRun(stringBuilder, runStart, position - 1);
+                return stringBuilder.toString();
+            } else if ('\\' == b) {
+                appendRun(stringBuilder, runStart, position - 1);
+                stringBuilder.append(readEscapedChar());
+                runStart = position;
+            } else if (0 <= b && b < 0x20) {
+                position--;
+                throw newUnexpectedCharacterException();
+            }
+        }
+    }
+
+    private void appendRun(final StringBuilder stringBuilder, final int start, final int end) {
+        if (start < end) {
+            stringBuilder.append(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+
+    private char readEscapedChar() {
+        final byte b = next();
+        switch (b) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) b;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int result = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(next(), 16);
+                    if (0 > digit) {
+                        position--;
+                        throw newUnexpectedCharacterException();
+                    }
+                    result = (result << 4) | digit;
+                }
+                return (char) result;
+            default:
+                position--;
+                throw newUnexpectedCharacterException();
+        }
+    }
+
+    private JsonNumber readNumber() {
+        final int start = position;
+        final boolean negative = '-' == peek();
+        if (negative) {
+            position++;
+        }
+        long integral = 0;
+        int digits = 0;
+        if ('0' == peek()) {
+            position++;
+            digits++;
+        } else {
+            while (position < limit && isDigit(bytes[position])) {
+                integral = integral * 10 + (bytes[position] - '0');
+                position++;
+                digits++;
+            }
+        }
+        if (0 == digits) {
+            throw newUnexpectedCharacterException();
+        }
+
+        boolean decimal = false;
+        if (position < limit && '.' == bytes[position]) {
+            decimal = true;
+            position++;
+            skipDigits();
+        }
+        if (position < limit && ('e' == bytes[position] || 'E' == bytes[position])) {
+            decimal = true;
+            position++;
+            if (position < limit && ('+' == bytes[position] || '-' == bytes[position])) {
+                position++;
+            }
+            skipDigits();
+        }
+
+        if (decimal) {
+            return ImmutableJsonDouble.of(Double.parseDouble(asciiString(start, position)));
+        } else if (digits > MAX_LONG_DIGITS) {
+            return parseLongOrThrow(asciiString(start, position));
+        }
+        final long value = negative ? -integral : integral;
+        if (Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE) {
+            return ImmutableJsonInt.of((int) value);
+        }
+        return ImmutableJsonLong.of(value);
+    }
+
+    private void skipDigits() {
+        final int start = position;
+        while (position < limit && isDigit(bytes[position])) {
+            position++;
+        }
+        if (start == position) {
+            throw newUnexpectedCharacterException();
+        }
+    }
+
+    private static JsonNumber parseLongOrThrow(final String numberString) {
+        try {
+            return ImmutableJsonLong.of(Long.parseLong(numberString));
+        } catch (final NumberFormatException e) {
+            throw JsonParseException.newBuilder()
+                    .message(MessageFormat.format("The number <{0}> is out of range!", numberString))
+                    .cause(e)
+                    .build();
+        }
+    }
+
+    private String asciiString(final int start, final int end) {
+        return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private void readLiteral(final String literal) {
+        final int length = literal.length();
+        for (int i = 0; i < length; i++) {
+            if (literal.charAt(i) != next()) {
+                position--;
+                throw newUnexpectedCharacterException();
+            }
+        }
+    }
+
+    /*
+     * Methods for skipping values. They validate the skipped value without allocating any objects.
+     */
+
+    private void skipValue() {
+        skipWhitespace();
+        final byte b = peek();
+        switch (b) {
+            case '{':
+                skipObject();
+                break;
+            case '[':
+                skipArray();
+                break;
+            case '"':
+                skipString();
+                break;
+            case 't':
+                readLiteral("true");
+                break;
+            case 'f':
+                readLiteral("false");
+                break;
+            case 'n':
+                readLiteral("null");
+                break;
+            default:
+                if ('-' == b || isDigit(b)) {
+                    skipNumber();
+                } else {
+                    throw newUnexpectedCharacterException();
+                }
+        }
+    }
+
+    private void skipObject() {
+        expect('{');
+        skipWhitespace();
+        if ('}' == peek()) {
+            position++;
+            return;
+        }
+        do {
+            skipWhitespace();
+            if ('"' != peek()) {
+                throw newUnexpectedCharacterException();
+            }
+            skipString();
+            skipWhitespace();
+            expect(':');
+            skipValue();
+            skipWhitespace();
+        } while (readSeparatorOrEnd('}'));
+    }
+
+    private void skipArray() {
+        expect('[');
+        skipWhitespace();
+        if (']' == peek()) {
+            position++;
+            return;
+        }
+        do {
+            skipValue();
+            skipWhitespace();
+        } while (readSeparatorOrEnd(']'));
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            final byte b = next();
+            if ('"' == b) {
+                return;
+            } else if ('\\' == b) {
+                readEscapedChar();
+            } else if (0 <= b && b < 0x20) {
+                position--;
+                throw newUnexpectedCharacterException();
+            }
+        }
+    }
+
+    private void skipNumber() {
+        if ('-' == peek()) {
+            position++;
+        }
+        if ('0' == peek()) {
+            position++;
+        } else {
+            skipDigits();
+        }
+        if (position < limit && '.' == bytes[position]) {
+            position++;
+            skipDigits();
+        }
+        if (position < limit && ('e' == bytes[position] || 'E' == bytes[position])) {
+            position++;
+            if (position < limit && ('+' == bytes[position] || '-' == bytes[position])) {
+                position++;
+            }
+            skipDigits();
+        }
+    }
+
+    /*
+     * Basic cursor operations.
+     */
+
+    private void skipWhitespace() {
+        final int start = position;
+        while (position < limit) {
+            final byte b = bytes[position];
+            if (' ' != b && '\t' != b && '\n' != b && '\r' != b) {
+                break;
+            }
+            position++;
+        }
+        if (start != position) {
+            whitespaceSkipped = true;
+        }
+    }
+
+    private byte peek() {
+        if (position >= limit) {
+            throw newUnexpectedEndException();
+        }
+        return bytes[position];
+    }
+
+    private byte next() {
+        final byte result = peek();
+        position++;
+        return result;
+    }
+
+    private void expect(final char expected) {
+        if (expected != peek()) {
+            throw newUnexpectedCharacterException();
+        }
+        position++;
+    }
+
+    private static boolean isDigit(final byte b) {
+        return '0' <= b && b <= '9';
+    }
+
+    private JsonParseException newUnexpectedCharacterException() {
+        if (position >= limit) {
+            return newUnexpectedEndException();
+        }
+        final String msgPattern = "Unexpected character <{0}> at byte position <{1}>!";
+        return JsonParseException.newBuilder()
+                .message(MessageFormat.format(msgPattern, (char) (bytes[position] & 0xFF), position))
+                .build();
+    }
+
+    private JsonParseException newUnexpectedEndException() {
+        return JsonParseException.newBuilder()
+                .message(MessageFormat.format("Unexpected end of input at byte position <{0}>!", position))
+                .build();
+    }
+
+    /**
+     * Hash table which maps UTF-8 encoded key bytes to JSON keys without decoding the bytes. Colliding entries simply
+     * replace each other as the table is only a cache. As entries are immutable and replaced atomically, the table
+     * may be used by multiple threads without synchronization.
+     */
+    private static final class KeyTable {
+
+        private final Entry[] entries;
+        private final int mask;
+
+        private KeyTable(final int size) {
+            entries = new Entry[size];
+            mask = size - 1;
+        }
+
+        private static KeyTable of(final String... keys) {
+            final KeyTable result = new KeyTable(256);
+            for (final String key : keys) {
+                final byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+                result.put(utf8, 0, utf8.length, JsonFactory.newKey(key));
+            }
+            return result;
+        }
+
+        @Nullable
+        private JsonKey get(final byte[] bytes, final int start, final int end) {
+            final Entry entry = entries[hash(bytes, start, end) & mask];
+            if (null != entry && entry.matches(bytes, start, end)) {
+                return entry.key;
+            }
+            return null;
+        }
+
+        private void put(final byte[] bytes, final int start, final int end, final JsonKey key) {
+            final byte[] keyBytes = new byte[end - start];
+            System.arraycopy(bytes, start, keyBytes, 0, keyBytes.length);
+            entries[hash(bytes, start, end) & mask] = new Entry(keyBytes, key);
+        }
+
+        private static int hash(final byte[] bytes, final int start, final int end) {
+            int result = 0x811C9DC5;
+            for (int i = start; i < end; i++) {
+                result = (result ^ bytes[i]) * 0x01000193;
+            }
+            return result ^ (result >>> 16);
+        }
+
+        private static final class Entry {
+
+            private final byte[] keyBytes;
+            private final JsonKey key;
+
+            private Entry(final byte[] keyBytes, final JsonKey key) {
+                this.keyBytes = keyBytes;
+                this.key = key;
+            }
+
+            private boolean matches(final byte[] bytes, final int start, final int end) {
+                if (keyBytes.length != end - start) {
+                    return false;
+                }
+                for (int i = 0; i < keyBytes.length; i++) {
+                    if (keyBytes[i] != bytes[start + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mutabilitydetector.unittesting.AllowedReason.assumingFields;
+import static org.mutabilitydetector.unittesting.AllowedReason.provided;
+import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
+import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link IndexedJsonObject}.
+ */
+public final class IndexedJsonObjectTest {
+
+    private static final String THING_JSON = "{\"thingId\":\"org.eclipse.ditto:myThing\"," +
+            "\"attributes\":{\"manufacturer\":\"ACME\",\"location\":{\"latitude\":47.68,\"longitude\":9.38}}," +
+            "\"features\":{\"lamp\":{\"properties\":{\"on\":true,\"brightness\":75,\"tags\":[\"a\",{\"b\":1}]}}," +
+            "\"sensor\":{\"properties\":{\"value\":null,\"unit\":\"°C\"}}}," +
+            "\"_revision\":42,\"empty\":{}}";
+
+    @Test
+    public void assertImmutability() {
+        assertInstancesOf(IndexedJsonObject.class,
+                areImmutable(),
+                provided(JsonKey.class, JsonObject.class).areAlsoImmutable(),
+                assumingFields("utf8Source", "keys", "valueBounds", "slots")
+                        .areNotModifiedAndDoNotEscape(),
+                assumingFields("childObjects", "hashCode")
+                        .areModifiedAsPartOfAnUnobservableCachingStrategy());
+    }
+
+    @Test
+    public void equalsObjectParsedFromStringAndViceVersa() {
+        final JsonObject expected = JsonFactory.newObject(THING_JSON);
+
+        final JsonObject actual = JsonFactory.newIndexedObject(THING_JSON);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(expected).isEqualTo(actual);
+        assertThat(actual.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(actual).isEqualTo(JsonFactory.newIndexedObject(THING_JSON));
+        assertThat(actual).isNotEqualTo(expected.setValue("_revision", 43));
+    }
+
+    @Test
+    public void compactObjectKeepsItsStringRepresentation() {
+        assertThat(JsonFactory.newIndexedObject(THING_JSON).toString()).isEqualTo(THING_JSON);
+    }
+
+    @Test
+    public void stringRepresentationOfObjectWithWhitespaceIsCompact() {
+        final JsonObject actual = JsonFactory.newIndexedObject(" { \"a\" : [ 1 , 2 ] ,\n \"b\" : { \"c\" : \"d\" } } ");
+
+        assertThat(actual.toString()).isEqualTo("{\"a\":[1,2],\"b\":{\"c\":\"d\"}}");
+    }
+
+    @Test
+    public void getValueByPointer() {
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+
+        assertThat(underTest.getValue("features/lamp/properties/brightness")).contains(JsonValue.of(75));
+        assertThat(underTest.getValue("features/lamp/properties/tags/1")).isEmpty();
+        assertThat(underTest.getValue("features/sensor/properties/value")).contains(JsonValue.nullLiteral());
+        assertThat(underTest.getValue("features/lamp/properties/tags")).contains(
+                JsonFactory.newArray("[\"a\",{\"b\":1}]"));
+        assertThat(underTest.getValue("features/missing/properties")).isEmpty();
+        assertThat(underTest.getValue("thingId/foo")).isEmpty();
+        assertThat(underTest.getValue("empty")).contains(JsonFactory.newObject());
+        assertThat(underTest.getValue("")).contains(underTest);
+    }
+
+    @Test
+    public void nestedObjectsAreIndexedOnlyOnce() {
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+
+        assertThat(underTest.getValue("features").orElse(null))
+                .isInstanceOf(IndexedJsonObject.class)
+                .isSameAs(underTest.getValue("features").orElse(null));
+    }
+
+    @Test
+    public void containsBehavesLikeImmutableJsonObject() {
+        final JsonObject expected = JsonFactory.newObject(THING_JSON);
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+
+        for (final String pointer : new String[]{"thingId", "features/lamp/properties/on", "features/lamp/foo",
+                "missing", "thingId/foo", "attributes/location/latitude", "/"}) {
+            assertThat(underTest.contains(pointer)).as(pointer).isEqualTo(expected.contains(pointer));
+        }
+    }
+
+    @Test
+    public void getByPointerAndFieldSelectorBehavesLikeImmutableJsonObject() {
+        final JsonObject expected = JsonFactory.newObject(THING_JSON);
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+        final JsonFieldSelector fieldSelector =
+                JsonFactory.newFieldSelector("thingId,attributes/location,features/lamp/properties/on,missing",
+                        JsonFactory.newParseOptionsBuilder().withoutUrlDecoding().build());
+
+        assertThat(underTest.get(JsonPointer.of("features/sensor/properties/unit")))
+                .isEqualTo(expected.get(JsonPointer.of("features/sensor/properties/unit")));
+        assertThat(underTest.get(JsonPointer.of("features/sensor/missing")))
+                .isEqualTo(expected.get(JsonPointer.of("features/sensor/missing")));
+        assertThat(underTest.get(fieldSelector)).isEqualTo(expected.get(fieldSelector));
+        assertThat(underTest.getField("attributes/manufacturer")).isEqualTo(
+                expected.getField("attributes/manufacturer"));
+    }
+
+    @Test
+    public void keysSizeAndIterationFollowDocumentOrder() {
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+
+        assertThat(underTest.getKeys()).containsExactly(JsonKey.of("thingId"), JsonKey.of("attributes"),
+                JsonKey.of("features"), JsonKey.of("_revision"), JsonKey.of("empty"));
+        assertThat(underTest.getSize()).isEqualTo(5);
+        assertThat(underTest).containsExactlyElementsOf(JsonFactory.newObject(THING_JSON));
+    }
+
+    @Test
+    public void modificationsReturnImmutableJsonObject() {
+        final JsonObject underTest = JsonFactory.newIndexedObject(THING_JSON);
+
+        final JsonObject modified = underTest.setValue("features/lamp/properties/on", false)
+                .remove("attributes");
+
+        assertThat(modified).isEqualTo(JsonFactory.newObject(THING_JSON)
+                .setValue("features/lamp/properties/on", false)
+                .remove("attributes"));
+        assertThat(underTest.remove("missing")).isSameAs(underTest);
+    }
+
+    @Test
+    public void duplicateKeysKeepFirstPositionAndLastValue() {
+        final JsonObject underTest = JsonFactory.newIndexedObject("{\"a\":1,\"b\":2,\"a\":3}");
+
+        assertThat(underTest.getSize()).isEqualTo(2);
+        assertThat(underTest.getValue("a")).contains(JsonValue.of(3));
+        assertThat(underTest.toString()).isEqualTo("{\"a\":3,\"b\":2}");
+    }
+
+    @Test
+    public void invalidJsonCausesJsonParseException() {
+        assertThatExceptionOfType(JsonParseException.class)
+                .isThrownBy(() -> JsonFactory.newIndexedObject("[1, 2]"));
+        assertThatExceptionOfType(JsonParseException.class)
+                .isThrownBy(() -> JsonFactory.newIndexedObject("{\"a\": {\"b\": tru}}"));
+        assertThatExceptionOfType(JsonParseException.class)
+                .isThrownBy(() -> JsonFactory.newIndexedObject("{\"a\": 1} 2"));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> JsonFactory.newIndexedObject(""));
+    }
+
+}
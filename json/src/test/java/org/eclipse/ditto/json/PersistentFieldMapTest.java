@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PersistentFieldMap}.
+ */
+public final class PersistentFieldMapTest {
+
+    @Test
+    public void behavesLikeLinkedHashMapForRandomModifications() {
+        final Random random = new Random(4711);
+        final Map<String, JsonField> expected = new LinkedHashMap<>();
+        PersistentFieldMap underTest = PersistentFieldMap.empty();
+
+        for (int i = 0; i < 20_000; i++) {
+            final String key = "key" + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                underTest = underTest.without(key);
+            } else {
+                final JsonField field = field(key, i);
+                expected.put(key, field);
+                underTest = underTest.with(key, field);
+            }
+        }
+
+        assertThat(underTest).isEqualTo(expected);
+        assertThat(expected).isEqualTo(underTest);
+        assertThat(underTest.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(new ArrayList<>(underTest.values())).containsExactlyElementsOf(expected.values());
+        assertThat(PersistentFieldMap.of(expected)).isEqualTo(underTest);
+    }
+
+    @Test
+    public void replacingAFieldKeepsItsPosition() {
+        final PersistentFieldMap underTest = PersistentFieldMap.empty()
+                .with("a", field("a", 1))
+                .with("b", field("b", 2))
+                .with("a", field("a", 3));
+
+        assertThat(underTest.values()).containsExactly(field("a", 3), field("b", 2));
+    }
+
+    @Test
+    public void modificationsDoNotChangeTheOriginalMap() {
+        final Map<String, JsonField> fields = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            fields.put("key" + i, field("key" + i, i));
+        }
+        final PersistentFieldMap original = PersistentFieldMap.of(fields);
+
+        final PersistentFieldMap modified = original.with("key50", field("key50", -1)).without("key7");
+
+        assertThat(original).isEqualTo(fields);
+        assertThat(modified).hasSize(99).doesNotContainKey("key7").containsEntry("key50", field("key50", -1));
+        assertThat(modified).isNotEqualTo(original);
+        assertThat(original.without("missing")).isSameAs(original);
+    }
+
+    @Test
+    public void keysWithCollidingHashCodesAreSupported() {
+        // "Aa" and "BB" have the same hash code
+        final Map<String, JsonField> expected = new LinkedHashMap<>();
+        expected.put("Aa", field("Aa", 1));
+        expected.put("BB", field("BB", 2));
+        expected.put("AaAa", field("AaAa", 3));
+        expected.put("BBBB", field("BBBB", 4));
+        expected.put("AaBB", field("AaBB", 5));
+        PersistentFieldMap underTest = PersistentFieldMap.empty();
+        for (final JsonField field : expected.values()) {
+            underTest = underTest.with(field.getKeyName(), field);
+        }
+
+        assertThat(underTest).isEqualTo(expected).isEqualTo(PersistentFieldMap.of(expected));
+        assertThat(underTest.without("Aa")).doesNotContainKey("Aa").containsKey("BB").hasSize(4);
+        assertThat(underTest.without("Aa").without("BB").without("AaAa").without("BBBB").without("AaBB")).isEmpty();
+    }
+
+    @Test
+    public void removingManyFieldsCompactsTheMap() {
+        PersistentFieldMap underTest = PersistentFieldMap.empty();
+        for (int i = 0; i < 1_000; i++) {
+            underTest = underTest.with("key" + i, field("key" + i, i));
+        }
+        for (int i = 0; i < 990; i++) {
+            underTest = underTest.without("key" + i);
+        }
+        underTest = underTest.with("new", field("new", 0));
+
+        final List<String> keys = new ArrayList<>(underTest.keySet());
+        assertThat(keys).containsExactly("key990", "key991", "key992", "key993", "key994", "key995", "key996",
+                "key997", "key998", "key999", "new");
+    }
+
+    @Test
+    public void mapIsUnmodifiable() {
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> PersistentFieldMap.empty().put("a", field("a", 1)));
+    }
+
+    @Test
+    public void modifyingJsonObjectKeepsUnchangedFields() {
+        final JsonObject original = JsonFactory.newObject("{\"a\":{\"b\":1,\"c\":{\"d\":2}},\"e\":3}");
+
+        final JsonObject modified = original.setValue("/a/b", 4).remove("e").setValue("f", 5);
+
+        assertThat(modified.toString()).isEqualTo("{\"a\":{\"b\":4,\"c\":{\"d\":2}},\"f\":5}");
+        assertThat(modified.getValue("a/c")).containsSame(original.getValue("a/c").orElse(null));
+        assertThat(modified.setValue("/a/b", 1).setValue("e", 3).remove("f")).isEqualTo(original);
+    }
+
+    private static JsonField field(final String key, final int value) {
+        return JsonField.newInstance(key, JsonValue.of(value));
+    }
+
+}
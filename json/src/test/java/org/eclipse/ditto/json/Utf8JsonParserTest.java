@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Utf8JsonParser}.
+ */
+public final class Utf8JsonParserTest {
+
+    private static final String THING_JSON = "{\n" +
+            "  \"thingId\": \"org.eclipse.ditto:myThing\",\n" +
+            "  \"policyId\": \"org.eclipse.ditto:myPolicy\",\n" +
+            "  \"attributes\": {\"manufacturer\": \"ACME\", \"serial\": 1234567890123, \"size\": -17},\n" +
+            "  \"features\": {\n" +
+            "    \"lamp\": {\"properties\": {\"on\": true, \"brightness\": 0.75, \"color\": null}},\n" +
+            "    \"sensor\": {\"properties\": {\"values\": [1, 2.5e3, -0, {\"nested\": []}], \"unit\": \"°C\"}}\n" +
+            "  },\n" +
+            "  \"escaped\": \"quote\\\" backslash\\\\ slash\\/ tab\\t newline\\n unicode\\u00e4 \\ud83d\\ude00\",\n" +
+            "  \"emoji 😀\": \"Grüße\",\n" +
+            "  \"empty\": {}\n" +
+            "}";
+
+    @Test
+    public void parsedObjectEqualsObjectParsedFromString() {
+        final JsonValue expected = JsonFactory.readFrom(THING_JSON);
+
+        final JsonValue actual = parse(THING_JSON);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.hashCode()).isEqualTo(expected.hashCode());
+    }
+
+    @Test
+    public void stringRepresentationIsCompact() {
+        final String json = "{ \"a\" : [ 1 , { \"b\" : \"c\" } ] , \"d\" : { } }";
+
+        final JsonValue actual = parse(json);
+
+        assertThat(actual.toString()).isEqualTo("{\"a\":[1,{\"b\":\"c\"}],\"d\":{}}");
+    }
+
+    @Test
+    public void nestedObjectsAreAccessibleViaPointer() {
+        final JsonObject actual = parse(THING_JSON).asObject();
+
+        assertThat(actual.getValue("features/lamp/properties/brightness")).contains(JsonValue.of(0.75));
+        assertThat(actual.getValue("features/sensor/properties/values")).contains(
+                JsonFactory.newArray("[1, 2500.0, 0, {\"nested\": []}]"));
+        assertThat(actual.getValue("escaped").map(JsonValue::asString)).contains(
+                "quote\" backslash\\ slash/ tab\t newline\n unicode\u00e4 \ud83d\ude00");
+    }
+
+    @Test
+    public void numbersAreParsedToTheirNarrowestType() {
+        final JsonArray actual = parse("[0, -1, 2147483647, 2147483648, -9223372036854775808, 1.5, 1e2]").asArray();
+
+        assertThat(actual.get(0).filter(JsonValue::isInt)).isPresent();
+        assertThat(actual.get(1).filter(JsonValue::isInt)).isPresent();
+        assertThat(actual.get(2).filter(JsonValue::isInt)).isPresent();
+        assertThat(actual.get(3).filter(JsonValue::isInt)).isEmpty();
+        assertThat(actual.get(3).filter(JsonValue::isLong)).isPresent();
+        assertThat(actual.get(4).map(JsonValue::asLong)).contains(Long.MIN_VALUE);
+        assertThat(actual.get(5).filter(JsonValue::isDouble)).isPresent();
+        assertThat(actual.get(6).map(JsonValue::asDouble)).contains(100.0);
+    }
+
+    @Test
+    public void parseLiterals() {
+        assertThat(parse(" true ")).isEqualTo(JsonValue.of(true));
+        assertThat(parse("false")).isEqualTo(JsonValue.of(false));
+        assertThat(parse("null")).isEqualTo(JsonValue.nullLiteral());
+        assertThat(parse("\"string\"")).isEqualTo(JsonValue.of("string"));
+    }
+
+    @Test
+    public void wellKnownKeysAreInterned() {
+        final JsonObject first = parse("{\"thingId\": \"a\"}").asObject();
+        final JsonObject second = parse("{\"thingId\": \"b\"}").asObject();
+
+        assertThat(first.getKeys().get(0)).isSameAs(second.getKeys().get(0));
+    }
+
+    @Test
+    public void repeatedKeysAreInterned() {
+        final JsonArray actual = parse("[{\"unit\": 1}, {\"unit\": 2}]").asArray();
+        final JsonKey firstKey = actual.get(0).map(JsonValue::asObject).map(o -> o.getKeys().get(0)).orElse(null);
+        final JsonKey secondKey = actual.get(1).map(JsonValue::asObject).map(o -> o.getKeys().get(0)).orElse(null);
+
+        assertThat(firstKey).isEqualTo(JsonKey.of("unit")).isSameAs(secondKey);
+    }
+
+    @Test
+    public void duplicateKeysKeepFirstPositionAndLastValue() {
+        final JsonObject actual = parse("{\"a\": 1, \"b\": 2, \"a\": 3}").asObject();
+
+        assertThat(actual.toString()).isEqualTo("{\"a\":3,\"b\":2}");
+    }
+
+    @Test
+    public void readFromByteBufferDoesNotChangeItsPosition() {
+        final ByteBuffer buffer = ByteBuffer.wrap(THING_JSON.getBytes(StandardCharsets.UTF_8));
+
+        final JsonValue actual = JsonFactory.readFrom(buffer);
+
+        assertThat(actual).isEqualTo(JsonFactory.readFrom(THING_JSON));
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    public void invalidNestedObjectIsDetectedWhileParsing() {
+        assertInvalid("{\"a\": {\"b\": tru}}");
+        assertInvalid("{\"a\": {\"b\": 01}}");
+        assertInvalid("{\"a\": {\"b\": \"\\x\"}}");
+        assertInvalid("{\"a\": {\"b\": [1,]}}");
+        assertInvalid("{\"a\": {\"b\": 1}");
+    }
+
+    @Test
+    public void invalidTopLevelValuesCauseJsonParseException() {
+        assertInvalid("");
+        assertInvalid("{");
+        assertInvalid("{\"a\" 1}");
+        assertInvalid("{\"a\": 1,}");
+        assertInvalid("[1 2]");
+        assertInvalid("\"unterminated");
+        assertInvalid("\"control\ncharacter\"");
+        assertInvalid("-");
+        assertInvalid("1.");
+        assertInvalid("1e");
+        assertInvalid("99999999999999999999");
+        assertInvalid("{} {}");
+    }
+
+    private static JsonValue parse(final String json) {
+        return JsonFactory.readFrom(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(final String json) {
+        assertThatExceptionOfType(JsonParseException.class).isThrownBy(() -> parse(json));
+    }
+
+}
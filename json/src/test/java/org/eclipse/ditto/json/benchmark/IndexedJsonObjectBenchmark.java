@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonFieldSelector;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmark comparing the JSON object created by {@link JsonFactory#newIndexedObject(String)} with the one
+ * created by {@link JsonFactory#newObject(String)}.
+ * <p>
+ * The {@code ...Cold} benchmarks create the object from its string for each invocation and thus show the cost of
+ * accessing a value of an object whose parsed fields were garbage collected.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class IndexedJsonObjectBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final JsonFieldSelector FIELD_SELECTOR =
+            JsonFactory.newFieldSelector("thingId,attributes/location,features/feature1/properties/status",
+                    JsonFactory.newParseOptionsBuilder().withoutUrlDecoding().build());
+
+    @Param({"1", "16", "128", "1024"})
+    public int sizeInKiB;
+
+    private String thingString;
+    private JsonObject immutableJsonObject;
+    private JsonObject indexedJsonObject;
+
+    @Setup
+    public void setUp() {
+        thingString = ThingPayloads.thingOfSize(sizeInKiB).toString();
+        immutableJsonObject = JsonFactory.newObject(thingString);
+        indexedJsonObject = JsonFactory.newIndexedObject(thingString);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<JsonValue> getValueImmutable() {
+        return immutableJsonObject.getValue(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<JsonValue> getValueIndexed() {
+        return indexedJsonObject.getValue(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<JsonValue> getValueImmutableCold() {
+        return JsonFactory.newObject(thingString).getValue(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<JsonValue> getValueIndexedCold() {
+        return JsonFactory.newIndexedObject(thingString).getValue(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean containsImmutable() {
+        return immutableJsonObject.contains(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean containsIndexed() {
+        return indexedJsonObject.contains(ThingPayloads.FIRST_FEATURE_PROPERTY);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject getFieldSelectorImmutable() {
+        return immutableJsonObject.get(FIELD_SELECTOR);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject getFieldSelectorIndexed() {
+        return indexedJsonObject.get(FIELD_SELECTOR);
+    }
+
+}
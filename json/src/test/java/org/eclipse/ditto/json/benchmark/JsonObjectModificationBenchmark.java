@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmark for successive modifications of a large JSON object. The {@code ...WithBuilder} benchmarks copy all
+ * fields for each modification like {@code ImmutableJsonObject} did before it was backed by a persistent map.
+ */
+@State(Scope.Benchmark)
+public class JsonObjectModificationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    @Param({"10", "1000", "10000"})
+    public int numberOfFields;
+
+    private String[] keys;
+    private JsonObject jsonObject;
+    private int modificationCount;
+
+    @Setup
+    public void setUp() {
+        keys = new String[numberOfFields];
+        final JsonObjectBuilder builder = JsonFactory.newObjectBuilder();
+        for (int i = 0; i < numberOfFields; i++) {
+            keys[i] = "property" + i;
+            builder.set(keys[i], JsonFactory.newObjectBuilder().set("value", i).build());
+        }
+        jsonObject = builder.build();
+        modificationCount = 0;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject setValue() {
+        jsonObject = jsonObject.setValue(nextKey(), JsonValue.of(modificationCount));
+        return jsonObject;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject setValueWithBuilder() {
+        jsonObject = jsonObject.toBuilder().set(nextKey(), JsonValue.of(modificationCount)).build();
+        return jsonObject;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject setNestedValue() {
+        jsonObject = jsonObject.setValue("/" + nextKey() + "/value", JsonValue.of(modificationCount));
+        return jsonObject;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject removeAndSetValue() {
+        final String key = nextKey();
+        final JsonValue value = jsonObject.getValue(key).orElse(JsonValue.nullLiteral());
+        jsonObject = jsonObject.remove(key).setValue(key, value);
+        return jsonObject;
+    }
+
+    private String nextKey() {
+        modificationCount++;
+        return keys[modificationCount % numberOfFields];
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.json.benchmark;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+
+/**
+ * Creates realistic Thing JSON payloads of a requested size for benchmarks.
+ */
+final class ThingPayloads {
+
+    /**
+     * Pointer of a property of the first feature which is contained in every created payload.
+     */
+    static final String FIRST_FEATURE_PROPERTY = "features/feature0/properties/temperature/value";
+
+    private ThingPayloads() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates the JSON of a Thing whose string representation has at least the given size.
+     *
+     * @param sizeInKiB the minimum size of the returned JSON in KiB.
+     * @return the Thing JSON.
+     */
+    static JsonObject thingOfSize(final int sizeInKiB) {
+        final int minimumSize = sizeInKiB * 1024;
+        final JsonObject attributes = JsonFactory.newObjectBuilder()
+                .set("manufacturer", "ACME demo corp.")
+                .set("location", JsonFactory.newObject("{\"latitude\": 47.68, \"longitude\": 9.38}"))
+                .set("serialNumber", 1234567890123L)
+                .build();
+        JsonObject features = JsonFactory.newObject();
+        JsonObject thing = newThing(attributes, features);
+        int featureIndex = 0;
+        while (thing.toString().length() < minimumSize) {
+            features = features.setValue("feature" + featureIndex, newFeature(featureIndex));
+            thing = newThing(attributes, features);
+            featureIndex++;
+        }
+        return thing;
+    }
+
+    private static JsonObject newThing(final JsonObject attributes, final JsonObject features) {
+        return JsonFactory.newObjectBuilder()
+                .set("thingId", "org.eclipse.ditto.benchmark:thing-4711")
+                .set("policyId", "org.eclipse.ditto.benchmark:thing-4711")
+                .set("attributes", attributes)
+                .set("features", features)
+                .set("_revision", 42L)
+                .set("_modified", "2018-11-13T10:15:30.000Z")
+                .build();
+    }
+
+    private static JsonObject newFeature(final int featureIndex) {
+        final JsonObjectBuilder properties = JsonFactory.newObjectBuilder()
+                .set("temperature", JsonFactory.newObjectBuilder()
+                        .set("value", 20.5 + featureIndex)
+                        .set("unit", "°C")
+                        .set("lastUpdate", "2018-11-13T10:15:30.000Z")
+                        .build())
+                .set("status", JsonFactory.newObjectBuilder()
+                        .set("active", featureIndex % 2 == 0)
+                        .set("errorCount", featureIndex)
+                        .set("message", "Everything is fine with feature " + featureIndex)
+                        .build());
+        return JsonFactory.newObjectBuilder()
+                .set("definition", JsonFactory.newArrayBuilder().add("org.eclipse.ditto:sensor:1.0.0").build())
+                .set("properties", properties.build())
+                .build();
+    }
+
+}
@@ -15,13 +15,12 @@ package org.eclipse.ditto.model.base.headers;
 import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 
 import java.util.AbstractMap;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
@@ -32,20 +31,22 @@ import org.eclipse.ditto.json.JsonObject;
 import org.eclipse.ditto.json.JsonObjectBuilder;
 import org.eclipse.ditto.json.JsonValue;
 import org.eclipse.ditto.model.base.auth.AuthorizationContext;
-import org.eclipse.ditto.model.base.auth.AuthorizationModelFactory;
-import org.eclipse.ditto.model.base.auth.AuthorizationSubject;
 import org.eclipse.ditto.model.base.headers.entitytag.EntityTag;
 import org.eclipse.ditto.model.base.headers.entitytag.EntityTagMatchers;
 import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
 
 /**
  * Abstract immutable implementation of {@link DittoHeaders} which is heavily based on {@link AbstractMap}.
+ * <p>
+ * The headers are kept in an immutable map with fixed slots for the {@link DittoHeaderDefinition}s which is shared
+ * with the headers and builders derived from this object instead of being copied.
+ * </p>
  */
 @Immutable
 @SuppressWarnings("squid:S2160")
 public abstract class AbstractDittoHeaders extends AbstractMap<String, String> implements DittoHeaders {
 
-    private final Map<String, String> headers;
+    private final ImmutableHeaderMap headers;
 
     /**
      * Constructs a new {@code AbstractDittoHeaders} object.
@@ -55,7 +56,16 @@ public abstract class AbstractDittoHeaders extends AbstractMap<String, String> i
      */
     protected AbstractDittoHeaders(final Map<String, String> headers) {
         checkNotNull(headers, "headers map");
-        this.headers = Collections.unmodifiableMap(new HashMap<>(headers));
+        this.headers = ImmutableHeaderMap.of(headers);
+    }
+
+    /**
+     * Returns the map of the headers which may be shared with other headers or builders.
+     *
+     * @return the map.
+     */
+    final ImmutableHeaderMap getHeaderMap() {
+        return headers;
     }
 
     @Override
@@ -64,6 +74,9 @@ public abstract class AbstractDittoHeaders extends AbstractMap<String, String> i
     }
 
     protected Optional<String> getStringForDefinition(final HeaderDefinition definition) {
+        if (definition instanceof DittoHeaderDefinition) {
+            return Optional.ofNullable(headers.get((DittoHeaderDefinition) definition));
+        }
         return Optional.ofNullable(headers.get(definition.getKey()));
     }
 
@@ -86,10 +99,7 @@ public abstract class AbstractDittoHeaders extends AbstractMap<String, String> i
 
     @Override
     public List<String> getAuthorizationSubjects() {
-        final JsonArray jsonValueArray = getJsonArrayForDefinition(DittoHeaderDefinition.AUTHORIZATION_SUBJECTS);
-        return jsonValueArray.stream()
-                .map(JsonValue::asString)
-                .collect(Collectors.toList());
+        return new ArrayList<>(headers.getAuthorizationSubjects());
     }
 
     protected JsonArray getJsonArrayForDefinition(final HeaderDefinition definition) {
@@ -100,19 +110,12 @@ public abstract class AbstractDittoHeaders extends AbstractMap<String, String> i
 
     @Override
     public AuthorizationContext getAuthorizationContext() {
-        final List<AuthorizationSubject> authSubjects = getAuthorizationSubjects()
-                .stream()
-                .map(AuthorizationModelFactory::newAuthSubject)
-                .collect(Collectors.toList());
-        return AuthorizationModelFactory.newAuthContext(authSubjects);
+        return headers.getAuthorizationContext();
     }
 
     @Override
     public Set<String> getReadSubjects() {
-        final JsonArray jsonValueArray = getJsonArrayForDefinition(DittoHeaderDefinition.READ_SUBJECTS);
-        return jsonValueArray.stream()
-                .map(JsonValue::asString)
-                .collect(Collectors.toSet());
+        return new HashSet<>(headers.getReadSubjects());
     }
 
     @Override
@@ -214,6 +217,21 @@ public abstract class AbstractDittoHeaders extends AbstractMap<String, String> i
         throw newUnsupportedOperationException();
     }
 
+    @Override
+    public String get(final Object key) {
+        return headers.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return headers.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return headers.size();
+    }
+
     @Nonnull
     @Override
     public Set<Entry<String, String>> entrySet() {
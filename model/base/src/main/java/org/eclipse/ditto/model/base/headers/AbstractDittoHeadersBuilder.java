@@ -17,12 +17,13 @@ import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotEmpty
 import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -45,9 +46,12 @@ import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
 public abstract class AbstractDittoHeadersBuilder<S extends AbstractDittoHeadersBuilder, R extends DittoHeaders>
         implements DittoHeadersBuilder<S, R> {
 
+    private static final Collection<HeaderDefinition> DITTO_HEADER_DEFINITIONS =
+            Collections.unmodifiableList(Arrays.asList(DittoHeaderDefinition.values()));
+
     protected final S myself;
-    private final Map<String, String> headers;
-    private final Collection<HeaderDefinition> definitions;
+    private final ImmutableHeaderMap.Builder headers;
+    private final Collection<HeaderDefinition> specificDefinitions;
 
     /**
      * Constructs a new {@code AbstractDittoHeadersBuilder} object.
@@ -65,11 +69,19 @@ public abstract class AbstractDittoHeadersBuilder<S extends AbstractDittoHeaders
 
         checkNotNull(initialHeaders, "initial headers");
         checkNotNull(definitions, "header definitions");
-        validateValueTypes(initialHeaders, definitions);
         myself = (S) selfType.cast(this);
-        headers = new HashMap<>(initialHeaders);
-        this.definitions = new HashSet<>(definitions);
-        Collections.addAll(this.definitions, DittoHeaderDefinition.values());
+        specificDefinitions = new ArrayList<>(definitions.size());
+        for (final HeaderDefinition definition : definitions) {
+            if (!(definition instanceof DittoHeaderDefinition)) {
+                specificDefinitions.add(definition);
+            }
+        }
+        final ImmutableHeaderMap initialHeaderMap = ImmutableHeaderMap.of(initialHeaders);
+        if (!initialHeaderMap.areWellKnownValuesValidated()) {
+            validateValueTypes(initialHeaderMap, DITTO_HEADER_DEFINITIONS);
+        }
+        validateValueTypes(initialHeaderMap, specificDefinitions);
+        headers = ImmutableHeaderMap.Builder.of(initialHeaderMap);
     }
 
     /**
@@ -98,7 +110,7 @@ public abstract class AbstractDittoHeadersBuilder<S extends AbstractDittoHeaders
             result.put(jsonField.getKeyName(), stringValue);
         });
 
-        return result;
+        return ImmutableHeaderMap.of(result);
     }
 
     @Override
@@ -258,17 +270,23 @@ public abstract class AbstractDittoHeadersBuilder<S extends AbstractDittoHeaders
     }
 
     protected void validateValueType(final CharSequence key, final CharSequence value) {
-        definitions.stream()
-                .filter(definition -> Objects.equals(definition.getKey(), key))
-                .findAny()
-                .ifPresent(definition -> definition.validateValue(value));
+        final Optional<HeaderDefinition> dittoHeaderDefinition = DittoHeaderDefinition.forKey(key.toString());
+        if (dittoHeaderDefinition.isPresent()) {
+            dittoHeaderDefinition.get().validateValue(value);
+        } else {
+            specificDefinitions.stream()
+                    .filter(definition -> Objects.equals(definition.getKey(), key.toString()))
+                    .findAny()
+                    .ifPresent(definition -> definition.validateValue(value));
+        }
     }
 
     @Override
     public S putHeaders(final Map<String, String> headers) {
         checkNotNull(headers, "headers");
-        validateValueTypes(headers, definitions);
-        this.headers.putAll(headers);
+        validateValueTypes(headers, DITTO_HEADER_DEFINITIONS);
+        validateValueTypes(headers, specificDefinitions);
+        headers.forEach(this.headers::put);
         return myself;
     }
 
@@ -288,7 +306,7 @@ public abstract class AbstractDittoHeadersBuilder<S extends AbstractDittoHeaders
 
     @Override
     public R build() {
-        final ImmutableDittoHeaders dittoHeaders = ImmutableDittoHeaders.of(headers);
+        final ImmutableDittoHeaders dittoHeaders = ImmutableDittoHeaders.of(headers.build());
         return doBuild(dittoHeaders);
     }
 
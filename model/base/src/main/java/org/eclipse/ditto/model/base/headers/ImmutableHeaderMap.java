@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.base.headers;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.base.auth.AuthorizationModelFactory;
+
+/**
+ * Immutable map of header key-value-pairs which keeps the values of the {@link DittoHeaderDefinition}s in fixed
+ * slots of an array and all other headers in a separate map.
+ * <p>
+ * Instances are never copied when they are wrapped by {@link AbstractDittoHeaders}; a {@link Builder} shares the
+ * slots and the other headers of its source until they are modified. The authorization subjects, the authorization
+ * context and the read subjects are parsed when they are requested for the first time and then kept for the lifetime
+ * of the instance.
+ * </p>
+ */
+@Immutable
+final class ImmutableHeaderMap extends AbstractMap<String, String> {
+
+    private static final DittoHeaderDefinition[] DEFINITIONS = DittoHeaderDefinition.values();
+    private static final Map<String, DittoHeaderDefinition> DEFINITIONS_BY_KEY = new HashMap<>();
+
+    static {
+        for (final DittoHeaderDefinition definition : DEFINITIONS) {
+            DEFINITIONS_BY_KEY.put(definition.getKey(), definition);
+        }
+    }
+
+    private static final ImmutableHeaderMap EMPTY =
+            new ImmutableHeaderMap(new String[DEFINITIONS.length], Collections.emptyMap(), true);
+
+    private final String[] wellKnownValues;
+    private final Map<String, String> otherHeaders;
+    private final boolean wellKnownValuesValidated;
+
+    // lazily parsed values; computing them more than once on concurrent access is harmless
+    @Nullable private volatile List<String> authorizationSubjects;
+    @Nullable private volatile AuthorizationContext authorizationContext;
+    @Nullable private volatile Set<String> readSubjects;
+
+    private ImmutableHeaderMap(final String[] wellKnownValues, final Map<String, String> otherHeaders,
+            final boolean wellKnownValuesValidated) {
+
+        this.wellKnownValues = wellKnownValues;
+        this.otherHeaders = otherHeaders;
+        this.wellKnownValuesValidated = wellKnownValuesValidated;
+        authorizationSubjects = null;
+        authorizationContext = null;
+        readSubjects = null;
+    }
+
+    /**
+     * Returns an instance of {@code ImmutableHeaderMap} containing the specified headers. The specified map is
+     * returned as it is if it is already an {@code ImmutableHeaderMap}; the map of {@link AbstractDittoHeaders} is
+     * shared.
+     *
+     * @param headers the key-value-pairs of the result.
+     * @return the instance.
+     */
+    static ImmutableHeaderMap of(final Map<String, String> headers) {
+        if (headers instanceof ImmutableHeaderMap) {
+            return (ImmutableHeaderMap) headers;
+        }
+        if (headers instanceof AbstractDittoHeaders) {
+            return ((AbstractDittoHeaders) headers).getHeaderMap();
+        }
+        if (headers.isEmpty()) {
+            return EMPTY;
+        }
+        final String[] wellKnownValues = new String[DEFINITIONS.length];
+        final Map<String, String> otherHeaders = new HashMap<>();
+        headers.forEach((key, value) -> {
+            final DittoHeaderDefinition definition = DEFINITIONS_BY_KEY.get(key);
+            if (null != definition) {
+                wellKnownValues[definition.ordinal()] = value;
+            } else {
+                otherHeaders.put(key, value);
+            }
+        });
+        return new ImmutableHeaderMap(wellKnownValues, unmodifiableOrEmpty(otherHeaders), false);
+    }
+
+    private static Map<String, String> unmodifiableOrEmpty(final Map<String, String> map) {
+        return map.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the value of the specified definition.
+     *
+     * @param definition the definition.
+     * @return the value or {@code null} if this map contains no value for {@code definition}.
+     */
+    @Nullable
+    String get(final DittoHeaderDefinition definition) {
+        return wellKnownValues[definition.ordinal()];
+    }
+
+    /**
+     * Indicates whether the values of all {@link DittoHeaderDefinition}s of this map were validated.
+     *
+     * @return {@code true} if the values of the well-known headers were validated.
+     */
+    boolean areWellKnownValuesValidated() {
+        return wellKnownValuesValidated;
+    }
+
+    /**
+     * Returns the parsed value of the {@link DittoHeaderDefinition#AUTHORIZATION_SUBJECTS} header.
+     *
+     * @return the unmodifiable list of authorization subjects.
+     */
+    List<String> getAuthorizationSubjects() {
+        List<String> result = authorizationSubjects;
+        if (null == result) {
+            result = Collections.unmodifiableList(parseStringArray(DittoHeaderDefinition.AUTHORIZATION_SUBJECTS)
+                    .collect(Collectors.toList()));
+            authorizationSubjects = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the authorization context of the authorization subjects.
+     *
+     * @return the authorization context.
+     */
+    AuthorizationContext getAuthorizationContext() {
+        AuthorizationContext result = authorizationContext;
+        if (null == result) {
+            result = AuthorizationModelFactory.newAuthContext(getAuthorizationSubjects().stream()
+                    .map(AuthorizationModelFactory::newAuthSubject)
+                    .collect(Collectors.toList()));
+            authorizationContext = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parsed value of the {@link DittoHeaderDefinition#READ_SUBJECTS} header.
+     *
+     * @return the unmodifiable set of read subjects.
+     */
+    Set<String> getReadSubjects() {
+        Set<String> result = readSubjects;
+        if (null == result) {
+            result = Collections.unmodifiableSet(parseStringArray(DittoHeaderDefinition.READ_SUBJECTS)
+                    .collect(Collectors.toSet()));
+            readSubjects = result;
+        }
+        return result;
+    }
+
+    private Stream<String> parseStringArray(final DittoHeaderDefinition definition) {
+        final String value = get(definition);
+        if (null == value) {
+            return Stream.empty();
+        }
+        return JsonFactory.newArray(value).stream().map(JsonValue::asString);
+    }
+
+    @Override
+    @Nullable
+    public String get(final Object key) {
+        final DittoHeaderDefinition definition = DEFINITIONS_BY_KEY.get(key);
+        return null != definition ? get(definition) : otherHeaders.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != get(key);
+    }
+
+    @Override
+    public int size() {
+        int result = otherHeaders.size();
+        for (final String value : wellKnownValues) {
+            if (null != value) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return ImmutableHeaderMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    /**
+     * Iterates the entries of the well-known headers in the order of their definitions and then the other headers.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private final Iterator<Entry<String, String>> otherHeadersIterator = otherHeaders.entrySet().iterator();
+        private int nextSlot = findSlot(0);
+
+        private int findSlot(final int startSlot) {
+            int slot = startSlot;
+            while (slot < wellKnownValues.length && null == wellKnownValues[slot]) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < wellKnownValues.length || otherHeadersIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (nextSlot < wellKnownValues.length) {
+                final Entry<String, String> entry =
+                        new SimpleImmutableEntry<>(DEFINITIONS[nextSlot].getKey(), wellKnownValues[nextSlot]);
+                nextSlot = findSlot(nextSlot + 1);
+                return entry;
+            }
+            if (otherHeadersIterator.hasNext()) {
+                return otherHeadersIterator.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+    }
+
+    /**
+     * Mutable builder of {@code ImmutableHeaderMap}s which copies the slots or the other headers of its source only
+     * when they are modified. All maps built by a builder are regarded as validated.
+     */
+    @NotThreadSafe
+    static final class Builder {
+
+        @Nullable private ImmutableHeaderMap built;
+        private String[] wellKnownValues;
+        private Map<String, String> otherHeaders;
+        private boolean wellKnownValuesShared;
+        private boolean otherHeadersShared;
+
+        private Builder(final ImmutableHeaderMap source) {
+            built = source.wellKnownValuesValidated ? source : null;
+            wellKnownValues = source.wellKnownValues;
+            otherHeaders = source.otherHeaders;
+            wellKnownValuesShared = true;
+            otherHeadersShared = true;
+        }
+
+        /**
+         * Returns a builder initialized with the specified headers.
+         *
+         * @param headers the initial key-value-pairs.
+         * @return the builder.
+         */
+        static Builder of(final Map<String, String> headers) {
+            return new Builder(ImmutableHeaderMap.of(headers));
+        }
+
+        /**
+         * Returns the value of the specified key.
+         *
+         * @param key the key.
+         * @return the value or {@code null}.
+         */
+        @Nullable
+        String get(final String key) {
+            final DittoHeaderDefinition definition = DEFINITIONS_BY_KEY.get(key);
+            return null != definition ? wellKnownValues[definition.ordinal()] : otherHeaders.get(key);
+        }
+
+        /**
+         * Associates the specified value with the specified key.
+         *
+         * @param key the key.
+         * @param value the value.
+         */
+        void put(final String key, final String value) {
+            final DittoHeaderDefinition definition = DEFINITIONS_BY_KEY.get(key);
+            if (null != definition) {
+                final int slot = definition.ordinal();
+                if (!value.equals(wellKnownValues[slot])) {
+                    ownWellKnownValues()[slot] = value;
+                }
+            } else if (!value.equals(otherHeaders.get(key))) {
+                ownOtherHeaders().put(key, value);
+            }
+        }
+
+        /**
+         * Removes the value of the specified key.
+         *
+         * @param key the key.
+         */
+        void remove(final String key) {
+            final DittoHeaderDefinition definition = DEFINITIONS_BY_KEY.get(key);
+            if (null != definition) {
+                final int slot = definition.ordinal();
+                if (null != wellKnownValues[slot]) {
+                    ownWellKnownValues()[slot] = null;
+                }
+            } else if (otherHeaders.containsKey(key)) {
+                ownOtherHeaders().remove(key);
+            }
+        }
+
+        private String[] ownWellKnownValues() {
+            built = null;
+            if (wellKnownValuesShared) {
+                wellKnownValues = wellKnownValues.clone();
+                wellKnownValuesShared = false;
+            }
+            return wellKnownValues;
+        }
+
+        private Map<String, String> ownOtherHeaders() {
+            built = null;
+            if (otherHeadersShared) {
+                otherHeaders = new HashMap<>(otherHeaders);
+                otherHeadersShared = false;
+            }
+            return otherHeaders;
+        }
+
+        /**
+         * Builds the map. If nothing was modified since the builder was created from a validated map or since the
+         * last build, the same instance is returned.
+         *
+         * @return the map.
+         */
+        ImmutableHeaderMap build() {
+            if (null == built) {
+                built = new ImmutableHeaderMap(wellKnownValues,
+                        otherHeadersShared ? otherHeaders : unmodifiableOrEmpty(otherHeaders), true);
+                otherHeaders = built.otherHeaders;
+                wellKnownValuesShared = true;
+                otherHeadersShared = true;
+            }
+            return built;
+        }
+
+        @Override
+        public String toString() {
+            return new ImmutableHeaderMap(wellKnownValues, otherHeaders, false).toString();
+        }
+
+    }
+
+}
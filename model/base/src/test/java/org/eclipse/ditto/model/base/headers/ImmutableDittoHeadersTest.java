@@ -15,6 +15,7 @@ package org.eclipse.ditto.model.base.headers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.entry;
+import static org.mutabilitydetector.unittesting.AllowedReason.provided;
 import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
 import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
 
@@ -66,7 +67,8 @@ public final class ImmutableDittoHeadersTest {
 
     @Test
     public void assertImmutability() {
-        assertInstancesOf(ImmutableDittoHeaders.class, areImmutable());
+        assertInstancesOf(ImmutableDittoHeaders.class, areImmutable(),
+                provided(ImmutableHeaderMap.class).isAlsoImmutable());
     }
 
     @Test
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.base.headers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ImmutableHeaderMap}.
+ */
+public final class ImmutableHeaderMapTest {
+
+    private static final String AUTHORIZATION_SUBJECTS = "[\"Foo\",\"Bar\"]";
+
+    @Test
+    public void behavesLikeHashMapWithSameEntries() {
+        final Map<String, String> expected = createHeaders();
+
+        final ImmutableHeaderMap underTest = ImmutableHeaderMap.of(expected);
+
+        assertThat(underTest).isEqualTo(expected);
+        assertThat(expected).isEqualTo(underTest);
+        assertThat(underTest.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(underTest).hasSize(expected.size());
+        assertThat(underTest.get(DittoHeaderDefinition.CORRELATION_ID.getKey())).isEqualTo("correlationId");
+        assertThat(underTest.get("custom-header")).isEqualTo("custom");
+        assertThat(underTest.containsKey(DittoHeaderDefinition.SOURCE.getKey())).isFalse();
+    }
+
+    @Test
+    public void unmodifiedBuilderSharesBuiltMap() {
+        final ImmutableHeaderMap built = ImmutableHeaderMap.Builder.of(createHeaders()).build();
+
+        final ImmutableHeaderMap.Builder underTest = ImmutableHeaderMap.Builder.of(built);
+        underTest.put(DittoHeaderDefinition.CORRELATION_ID.getKey(), "correlationId");
+
+        assertThat(underTest.build()).isSameAs(built);
+    }
+
+    @Test
+    public void modifyingBuilderDoesNotChangeSource() {
+        final Map<String, String> expected = createHeaders();
+        final ImmutableHeaderMap source = ImmutableHeaderMap.Builder.of(expected).build();
+
+        final ImmutableHeaderMap.Builder underTest = ImmutableHeaderMap.Builder.of(source);
+        underTest.put(DittoHeaderDefinition.CORRELATION_ID.getKey(), "otherCorrelationId");
+        underTest.put("other-custom-header", "other");
+        underTest.remove("custom-header");
+        final ImmutableHeaderMap modified = underTest.build();
+        underTest.remove(DittoHeaderDefinition.CORRELATION_ID.getKey());
+
+        assertThat(source).isEqualTo(expected);
+        assertThat(modified.get(DittoHeaderDefinition.CORRELATION_ID)).isEqualTo("otherCorrelationId");
+        assertThat(modified).containsEntry("other-custom-header", "other").doesNotContainKey("custom-header");
+        assertThat(underTest.build()).doesNotContainKey(DittoHeaderDefinition.CORRELATION_ID.getKey());
+    }
+
+    @Test
+    public void parsesAuthorizationSubjectsOnce() {
+        final ImmutableHeaderMap underTest = ImmutableHeaderMap.of(createHeaders());
+
+        final List<String> authorizationSubjects = underTest.getAuthorizationSubjects();
+
+        assertThat(authorizationSubjects).containsExactly("Foo", "Bar");
+        assertThat(underTest.getAuthorizationSubjects()).isSameAs(authorizationSubjects);
+        assertThat(underTest.getAuthorizationContext().getAuthorizationSubjectIds()).containsExactly("Foo", "Bar");
+        assertThat(underTest.getReadSubjects()).isEmpty();
+    }
+
+    @Test
+    public void dittoHeadersReturnCopiesOfParsedSubjects() {
+        final DittoHeaders underTest = DittoHeaders.of(createHeaders());
+
+        underTest.getAuthorizationSubjects().add("Baz");
+        underTest.getReadSubjects().add("Baz");
+
+        assertThat(underTest.getAuthorizationSubjects()).containsExactly("Foo", "Bar");
+        assertThat(underTest.getReadSubjects()).isEmpty();
+    }
+
+    @Test
+    public void headersOfUnchangedBuilderShareMap() {
+        final DittoHeaders dittoHeaders = DittoHeaders.newBuilder(createHeaders()).build();
+
+        final DittoHeaders underTest = dittoHeaders.toBuilder().build();
+
+        assertThat(((AbstractDittoHeaders) underTest).getHeaderMap())
+                .isSameAs(((AbstractDittoHeaders) dittoHeaders).getHeaderMap());
+        assertThat(underTest).isEqualTo(dittoHeaders);
+    }
+
+    private static Map<String, String> createHeaders() {
+        final Map<String, String> result = new HashMap<>();
+        result.put(DittoHeaderDefinition.CORRELATION_ID.getKey(), "correlationId");
+        result.put(DittoHeaderDefinition.AUTHORIZATION_SUBJECTS.getKey(), AUTHORIZATION_SUBJECTS);
+        result.put(DittoHeaderDefinition.RESPONSE_REQUIRED.getKey(), "true");
+        result.put("custom-header", "custom");
+        return result;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.base.headers.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the header round trip of a command: the gateway builds the headers, every hop serializes and
+ * deserializes them, the concierge adds the read subjects and the things service reads the authorization context.
+ */
+@State(Scope.Benchmark)
+public class DittoHeadersBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final List<String> AUTHORIZATION_SUBJECTS =
+            Arrays.asList("nginx:ditto", "google:110853593862316580412", "ditto:connection");
+    private static final List<String> READ_SUBJECTS = Arrays.asList("nginx:ditto", "google:110853593862316580412");
+
+    private DittoHeaders dittoHeaders;
+
+    @Setup
+    public void setup() {
+        dittoHeaders = buildHeaders();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public DittoHeaders buildHeaders() {
+        return DittoHeaders.newBuilder()
+                .correlationId("4f1bd5a4-dd0e-4d8c-9d8e-0f1bd0c5d8f3")
+                .authorizationSubjects(AUTHORIZATION_SUBJECTS)
+                .schemaVersion(JsonSchemaVersion.V_2)
+                .source("nginx:ditto")
+                .contentType("application/json")
+                .putHeader("x-forwarded-for", "10.0.0.1")
+                .build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public DittoHeaders serializationRoundTrip() {
+        return DittoHeaders.newBuilder(dittoHeaders.toJson()).build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public void commandRoundTrip(final Blackhole blackhole) {
+        // gateway -> concierge
+        final DittoHeaders atConcierge = DittoHeaders.newBuilder(dittoHeaders.toJson()).build();
+        blackhole.consume(atConcierge.getAuthorizationContext());
+        final DittoHeaders enforced = atConcierge.toBuilder().readSubjects(READ_SUBJECTS).build();
+
+        // concierge -> things
+        final DittoHeaders atThings = DittoHeaders.newBuilder(enforced.toJson()).build();
+        final AuthorizationContext authorizationContext = atThings.getAuthorizationContext();
+        blackhole.consume(authorizationContext);
+        blackhole.consume(atThings.getCorrelationId());
+        final DittoHeaders responseHeaders = atThings.toBuilder().responseRequired(false).build();
+
+        // things -> search updater and gateway
+        blackhole.consume(responseHeaders.getReadSubjects());
+        blackhole.consume(responseHeaders.toBuilder().removeHeader("x-forwarded-for").build());
+        blackhole.consume(Collections.unmodifiableMap(responseHeaders));
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.trie;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Immutable form of a {@link GrantRevokeIndex} with interned subject IDs and permissions encoded as bit masks.
+ * <p>
+ * Each subject mentioned in the index is a row with a mask of its granted and a mask of its revoked permissions. The
+ * weights of the permission-subject pairs are stored row by row with one column per permission of the policy.
+ */
+@Immutable
+final class CompiledGrantRevokeIndex {
+
+    private final int[] subjects;
+    private final long[] grantMasks;
+    private final long[] revokeMasks;
+    private final int[] grantWeights;
+    private final int[] revokeWeights;
+    private final long grantedPermissions;
+    private final int permissionCount;
+
+    private CompiledGrantRevokeIndex(final int[] subjects, final long[] grantMasks, final long[] revokeMasks,
+            final int[] grantWeights, final int[] revokeWeights, final long grantedPermissions,
+            final int permissionCount) {
+
+        this.subjects = subjects;
+        this.grantMasks = grantMasks;
+        this.revokeMasks = revokeMasks;
+        this.grantWeights = grantWeights;
+        this.revokeWeights = revokeWeights;
+        this.grantedPermissions = grantedPermissions;
+        this.permissionCount = permissionCount;
+    }
+
+    /**
+     * Compiles a {@code GrantRevokeIndex}.
+     *
+     * @param grantRevokeIndex the index to compile.
+     * @param symbolTable the symbols of the policy.
+     * @return the compiled index.
+     */
+    static CompiledGrantRevokeIndex compile(final GrantRevokeIndex grantRevokeIndex,
+            final PolicySymbolTable symbolTable) {
+
+        final PermissionSubjectsMap granted = grantRevokeIndex.getGranted();
+        final PermissionSubjectsMap revoked = grantRevokeIndex.getRevoked();
+
+        final Set<Integer> subjectSet = new TreeSet<>();
+        granted.values().forEach(subjectWeights -> addSubjectIndices(subjectWeights, symbolTable, subjectSet));
+        revoked.values().forEach(subjectWeights -> addSubjectIndices(subjectWeights, symbolTable, subjectSet));
+        final int[] subjects = subjectSet.stream().mapToInt(Integer::intValue).toArray();
+
+        final int permissionCount = symbolTable.getPermissionCount();
+        final long[] grantMasks = new long[subjects.length];
+        final long[] revokeMasks = new long[subjects.length];
+        final int[] grantWeights = new int[subjects.length * permissionCount];
+        final int[] revokeWeights = new int[subjects.length * permissionCount];
+        fill(granted, symbolTable, subjects, grantMasks, grantWeights);
+        fill(revoked, symbolTable, subjects, revokeMasks, revokeWeights);
+
+        return new CompiledGrantRevokeIndex(subjects, grantMasks, revokeMasks, grantWeights, revokeWeights,
+                symbolTable.getPermissionMask(granted.keySet()), permissionCount);
+    }
+
+    private static void addSubjectIndices(final Map<String, Integer> subjectWeights,
+            final PolicySymbolTable symbolTable, final Set<Integer> subjectIndices) {
+
+        subjectWeights.keySet().forEach(subjectId -> subjectIndices.add(symbolTable.getSubjectIndex(subjectId)));
+    }
+
+    private static void fill(final PermissionSubjectsMap permissionSubjectsMap, final PolicySymbolTable symbolTable,
+            final int[] subjects, final long[] masks, final int[] weights) {
+
+        final int permissionCount = symbolTable.getPermissionCount();
+        permissionSubjectsMap.forEach((permission, subjectWeights) -> {
+            final int ordinal = symbolTable.getPermissionOrdinal(permission);
+            subjectWeights.forEach((subjectId, weight) -> {
+                final int row = Arrays.binarySearch(subjects, symbolTable.getSubjectIndex(subjectId));
+                masks[row] |= 1L << ordinal;
+                weights[row * permissionCount + ordinal] = weight;
+            });
+        });
+    }
+
+    /**
+     * Check whether each of the given permissions is granted to some of the given subjects such that none of the
+     * permissions is revoked from any of the subjects with the same or a greater weight.
+     *
+     * @param subjectIndices sorted integers of the subjects to check.
+     * @param permissionMask mask of the permissions to check.
+     * @return result of the check.
+     * @see GrantRevokeIndex#hasPermissions(java.util.Set, java.util.Collection)
+     */
+    boolean hasPermissions(final int[] subjectIndices, final long permissionMask) {
+        if (0L == permissionMask) {
+            return false;
+        }
+        long grantedMask = 0L;
+        int grantWeight = Integer.MIN_VALUE;
+        boolean isRevoked = false;
+        int revokeWeight = Integer.MIN_VALUE;
+        for (final int subjectIndex : subjectIndices) {
+            final int row = Arrays.binarySearch(subjects, subjectIndex);
+            if (0 <= row) {
+                final long rowGrantMask = grantMasks[row] & permissionMask;
+                if (0L != rowGrantMask) {
+                    grantedMask |= rowGrantMask;
+                    grantWeight = Math.max(grantWeight, getMaxWeight(grantWeights, row, rowGrantMask));
+                }
+                final long rowRevokeMask = revokeMasks[row] & permissionMask;
+                if (0L != rowRevokeMask) {
+                    isRevoked = true;
+                    revokeWeight = Math.max(revokeWeight, getMaxWeight(revokeWeights, row, rowRevokeMask));
+                }
+            }
+        }
+        return grantedMask == permissionMask && (!isRevoked || revokeWeight < grantWeight);
+    }
+
+    private int getMaxWeight(final int[] weights, final int row, final long mask) {
+        int result = Integer.MIN_VALUE;
+        long remainingMask = mask;
+        while (0L != remainingMask) {
+            final int ordinal = Long.numberOfTrailingZeros(remainingMask);
+            result = Math.max(result, weights[row * permissionCount + ordinal]);
+            remainingMask &= remainingMask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the subject IDs for whom all of the given permissions are granted. Like
+     * {@link GrantRevokeIndex#getGrantedSubjectIds(java.util.Set)}, permissions which are granted to nobody at this
+     * resource are ignored.
+     *
+     * @param permissionMask mask of the permissions to check.
+     * @param symbolTable the symbols of the policy.
+     * @return the granted subject IDs.
+     */
+    Set<String> getGrantedSubjectIds(final long permissionMask, final PolicySymbolTable symbolTable) {
+        final long relevantMask = permissionMask & grantedPermissions;
+        final int[] matches = new int[subjects.length];
+        int count = 0;
+        if (0L != relevantMask) {
+            for (int row = 0; row < subjects.length; row++) {
+                if ((grantMasks[row] & relevantMask) == relevantMask) {
+                    matches[count++] = subjects[row];
+                }
+            }
+        }
+        return symbolTable.getSubjectIds(matches, count);
+    }
+
+    /**
+     * Returns the subject IDs for whom any of the given permissions are revoked.
+     *
+     * @param permissionMask mask of the permissions to check.
+     * @param symbolTable the symbols of the policy.
+     * @return the revoked subject IDs.
+     */
+    Set<String> getRevokedSubjectIds(final long permissionMask, final PolicySymbolTable symbolTable) {
+        final int[] matches = new int[subjects.length];
+        int count = 0;
+        for (int row = 0; row < subjects.length; row++) {
+            if (0L != (revokeMasks[row] & permissionMask)) {
+                matches[count++] = subjects[row];
+            }
+        }
+        return symbolTable.getSubjectIds(matches, count);
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.trie;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.json.JsonArray;
+import org.eclipse.ditto.json.JsonArrayBuilder;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonField;
+import org.eclipse.ditto.json.JsonFieldDefinition;
+import org.eclipse.ditto.json.JsonKey;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonValue;
+
+/**
+ * Immutable trie node which combines the nodes at the same location of the inherited trie, the bottom-up grant trie
+ * and the bottom-up revoke trie of a policy. The children of a node are stored in an array sorted by their keys.
+ */
+@Immutable
+final class CompiledPolicyTrie {
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final CompiledPolicyTrie[] NO_CHILDREN = new CompiledPolicyTrie[0];
+
+    private static final int UNKNOWN = 0;
+    private static final int GRANTED = 1;
+    private static final int NOT_GRANTED = 2;
+
+    private final String[] childKeys;
+    private final CompiledPolicyTrie[] children;
+    private final CompiledGrantRevokeIndex inherited;
+    private final CompiledGrantRevokeIndex bottomUpGrant;
+    private final CompiledGrantRevokeIndex bottomUpRevoke;
+
+    private CompiledPolicyTrie(final String[] childKeys, final CompiledPolicyTrie[] children,
+            final CompiledGrantRevokeIndex inherited, final CompiledGrantRevokeIndex bottomUpGrant,
+            final CompiledGrantRevokeIndex bottomUpRevoke) {
+
+        this.childKeys = childKeys;
+        this.children = children;
+        this.inherited = inherited;
+        this.bottomUpGrant = bottomUpGrant;
+        this.bottomUpRevoke = bottomUpRevoke;
+    }
+
+    /**
+     * Compiles the three tries used for policy enforcement. The tries must have the same shape, which is the case for
+     * a transitive closure and the bottom-up tries derived from it.
+     *
+     * @param inheritedTrie the transitive closure of the raw policy trie.
+     * @param bottomUpGrantTrie the bottom-up grant trie of {@code inheritedTrie}.
+     * @param bottomUpRevokeTrie the bottom-up revoke trie of {@code inheritedTrie}.
+     * @param symbolTable the symbols of the policy.
+     * @return the compiled trie.
+     */
+    static CompiledPolicyTrie compile(final PolicyTrie inheritedTrie, final PolicyTrie bottomUpGrantTrie,
+            final PolicyTrie bottomUpRevokeTrie, final PolicySymbolTable symbolTable) {
+
+        final Map<JsonKey, PolicyTrie> inheritedChildren = inheritedTrie.getChildren();
+        final String[] childKeys;
+        final CompiledPolicyTrie[] children;
+        if (inheritedChildren.isEmpty()) {
+            childKeys = NO_KEYS;
+            children = NO_CHILDREN;
+        } else {
+            final Map<JsonKey, PolicyTrie> bottomUpGrantChildren = bottomUpGrantTrie.getChildren();
+            final Map<JsonKey, PolicyTrie> bottomUpRevokeChildren = bottomUpRevokeTrie.getChildren();
+            final JsonKey[] sortedKeys = inheritedChildren.keySet().toArray(new JsonKey[0]);
+            Arrays.sort(sortedKeys, (key1, key2) -> key1.toString().compareTo(key2.toString()));
+            childKeys = new String[sortedKeys.length];
+            children = new CompiledPolicyTrie[sortedKeys.length];
+            for (int i = 0; i < sortedKeys.length; i++) {
+                final JsonKey key = sortedKeys[i];
+                childKeys[i] = key.toString();
+                children[i] = compile(inheritedChildren.get(key), bottomUpGrantChildren.get(key),
+                        bottomUpRevokeChildren.get(key), symbolTable);
+            }
+        }
+
+        return new CompiledPolicyTrie(childKeys, children,
+                CompiledGrantRevokeIndex.compile(inheritedTrie.getGrantRevokeIndex(), symbolTable),
+                CompiledGrantRevokeIndex.compile(bottomUpGrantTrie.getGrantRevokeIndex(), symbolTable),
+                CompiledGrantRevokeIndex.compile(bottomUpRevokeTrie.getGrantRevokeIndex(), symbolTable));
+    }
+
+    /**
+     * Returns the child with the given key.
+     *
+     * @param childKey the key of the child.
+     * @return the child or {@code null} if this node has no child with the given key.
+     */
+    @Nullable
+    CompiledPolicyTrie getChild(final JsonKey childKey) {
+        final int index = Arrays.binarySearch(childKeys, childKey.toString());
+        return 0 <= index ? children[index] : null;
+    }
+
+    /**
+     * Returns the grant-revoke-index of the inherited trie at this node.
+     *
+     * @return the inherited grant-revoke-index.
+     */
+    CompiledGrantRevokeIndex getInherited() {
+        return inherited;
+    }
+
+    /**
+     * Returns the grant-revoke-index of the bottom-up grant trie at this node.
+     *
+     * @return the bottom-up grant-revoke-index.
+     */
+    CompiledGrantRevokeIndex getBottomUpGrant() {
+        return bottomUpGrant;
+    }
+
+    /**
+     * Returns the grant-revoke-index of the bottom-up revoke trie at this node.
+     *
+     * @return the bottom-up grant-revoke-index.
+     */
+    CompiledGrantRevokeIndex getBottomUpRevoke() {
+        return bottomUpRevoke;
+    }
+
+    /**
+     * Filters JSON fields by the inherited grants and revokes of this node and its descendants.
+     *
+     * @param jsonFields the fields to filter.
+     * @param subjectIndices sorted integers of the subjects to check.
+     * @param permissionMask mask of the permissions to check.
+     * @return the visible fields.
+     * @see PolicyTrie#buildJsonView(Iterable, java.util.Set, org.eclipse.ditto.model.policies.Permissions)
+     */
+    JsonObject buildJsonView(final Iterable<JsonField> jsonFields, final int[] subjectIndices,
+            final long permissionMask) {
+
+        return buildJsonView(this, jsonFields, subjectIndices, permissionMask);
+    }
+
+    /*
+     * A field without a trie node of its own is filtered by the grant-revoke-index of its parent. Every value below it
+     * is checked against that index, so the field is either visible or invisible as a whole.
+     */
+    private static JsonObject buildJsonView(final CompiledPolicyTrie node,
+            final Iterable<JsonField> jsonFields,
+            final int[] subjectIndices,
+            final long permissionMask) {
+
+        if (jsonFields instanceof JsonObject && ((JsonObject) jsonFields).isNull()) {
+            return (JsonObject) jsonFields;
+        }
+
+        final JsonObjectBuilder outputObjectBuilder = JsonFactory.newObjectBuilder();
+        int isGranted = UNKNOWN;
+        for (final JsonField field : jsonFields) {
+            final CompiledPolicyTrie child = node.getChild(field.getKey());
+            final JsonValue jsonView;
+            if (null != child) {
+                jsonView = getViewForJsonValueOrNull(child, field.getValue(), subjectIndices, permissionMask);
+            } else {
+                if (UNKNOWN == isGranted) {
+                    isGranted = node.inherited.hasPermissions(subjectIndices, permissionMask) ? GRANTED : NOT_GRANTED;
+                }
+                jsonView = GRANTED == isGranted ? field.getValue() : null;
+            }
+            if (null != jsonView) {
+                final Optional<JsonFieldDefinition> definitionOptional = field.getDefinition();
+                if (definitionOptional.isPresent()) {
+                    outputObjectBuilder.set(definitionOptional.get(), jsonView);
+                } else {
+                    outputObjectBuilder.set(field.getKey(), jsonView);
+                }
+            }
+        }
+
+        return outputObjectBuilder.build();
+    }
+
+    @Nullable
+    private static JsonValue getViewForJsonValueOrNull(final CompiledPolicyTrie node,
+            final JsonValue jsonValue,
+            final int[] subjectIndices,
+            final long permissionMask) {
+
+        final CompiledGrantRevokeIndex index = node.inherited;
+        final JsonValue result;
+        if (0 == node.children.length) {
+            result = index.hasPermissions(subjectIndices, permissionMask) ? jsonValue : null;
+        } else if (jsonValue.isObject()) {
+            final JsonObject candidate = buildJsonView(node, jsonValue.asObject(), subjectIndices, permissionMask);
+            result = !candidate.isEmpty() || index.hasPermissions(subjectIndices, permissionMask) ? candidate : null;
+        } else if (jsonValue.isArray()) {
+            final JsonArray candidate = getViewForJsonArray(node, jsonValue.asArray(), subjectIndices, permissionMask);
+            result = !candidate.isEmpty() || index.hasPermissions(subjectIndices, permissionMask) ? candidate : null;
+        } else if (index.hasPermissions(subjectIndices, permissionMask)) {
+            result = jsonValue;
+        } else {
+            result = null;
+        }
+
+        return result;
+    }
+
+    private static JsonArray getViewForJsonArray(final CompiledPolicyTrie node,
+            final Iterable<JsonValue> jsonArray,
+            final int[] subjectIndices,
+            final long permissionMask) {
+
+        final JsonArrayBuilder arrayBuilder = JsonFactory.newArrayBuilder();
+        for (final JsonValue value : jsonArray) {
+            final JsonValue view = getViewForJsonValueOrNull(node, value, subjectIndices, permissionMask);
+            if (null != view) {
+                arrayBuilder.add(view);
+            }
+        }
+        return arrayBuilder.build();
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.trie;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonField;
+import org.eclipse.ditto.json.JsonKey;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.enforcers.EffectedSubjectIds;
+import org.eclipse.ditto.model.enforcers.Enforcer;
+import org.eclipse.ditto.model.enforcers.ImmutableEffectedSubjectIds;
+import org.eclipse.ditto.model.policies.Permissions;
+import org.eclipse.ditto.model.policies.Policy;
+import org.eclipse.ditto.model.policies.PolicyEntry;
+import org.eclipse.ditto.model.policies.ResourceKey;
+
+/**
+ * Immutable variant of {@link TrieBasedPolicyEnforcer} which may be shared between threads.
+ * <p>
+ * The inherited trie, the bottom-up grant trie and the bottom-up revoke trie of a policy are computed exactly like in
+ * {@code TrieBasedPolicyEnforcer} and then compiled into a single trie whose nodes hold all three grant-revoke-indices.
+ * Subject IDs are interned to integers and permissions are encoded as bits of a {@code long} mask, so that permission
+ * checks only compare integers and do not allocate any collections. The enforcement results are the same as those of
+ * {@code TrieBasedPolicyEnforcer}.
+ */
+@Immutable
+public final class CompiledTrieBasedPolicyEnforcer implements Enforcer {
+
+    private final PolicySymbolTable symbolTable;
+    private final CompiledPolicyTrie root;
+
+    private CompiledTrieBasedPolicyEnforcer(final PolicySymbolTable symbolTable, final CompiledPolicyTrie root) {
+        this.symbolTable = symbolTable;
+        this.root = root;
+    }
+
+    /**
+     * Constructs a compiled trie-based policy enforcer from a policy.
+     *
+     * @param policy The policy to interpret.
+     * @return The policy enforcer.
+     * @throws NullPointerException if {@code policy} is {@code null}.
+     * @throws IllegalArgumentException if {@code policy} mentions more than 63 distinct permissions.
+     */
+    public static CompiledTrieBasedPolicyEnforcer newInstance(final Policy policy) {
+        return compile(checkNotNull(policy, "policy to interpret"));
+    }
+
+    private static CompiledTrieBasedPolicyEnforcer compile(final Iterable<PolicyEntry> policy) {
+        final PolicyTrie inheritedTrie = PolicyTrie.fromPolicy(policy).getTransitiveClosure();
+        final PolicyTrie bottomUpGrantTrie = inheritedTrie.getBottomUpGrantTrie();
+        final PolicyTrie bottomUpRevokeTrie = inheritedTrie.getBottomUpRevokeTrie();
+        final PolicySymbolTable symbolTable =
+                PolicySymbolTable.of(Arrays.asList(inheritedTrie, bottomUpGrantTrie, bottomUpRevokeTrie));
+
+        return new CompiledTrieBasedPolicyEnforcer(symbolTable,
+                CompiledPolicyTrie.compile(inheritedTrie, bottomUpGrantTrie, bottomUpRevokeTrie, symbolTable));
+    }
+
+    @Override
+    public boolean hasUnrestrictedPermissions(final ResourceKey resourceKey,
+            final AuthorizationContext authorizationContext,
+            final Permissions permissions) {
+
+        checkResourceKey(resourceKey);
+        checkPermissions(permissions);
+        final int[] subjectIndices = getSubjectIndices(authorizationContext);
+        final CompiledGrantRevokeIndex grantRevokeIndex = seekWithFallback(resourceKey, false);
+
+        return grantRevokeIndex.hasPermissions(subjectIndices, symbolTable.getPermissionMask(permissions));
+    }
+
+    @Override
+    public boolean hasPartialPermissions(final ResourceKey resourceKey, final AuthorizationContext authorizationContext,
+            final Permissions permissions) {
+
+        checkResourceKey(resourceKey);
+        checkPermissions(permissions);
+        final int[] subjectIndices = getSubjectIndices(authorizationContext);
+        final CompiledGrantRevokeIndex grantRevokeIndex = seekWithFallback(resourceKey, true);
+
+        return grantRevokeIndex.hasPermissions(subjectIndices, symbolTable.getPermissionMask(permissions));
+    }
+
+    @Override
+    public EffectedSubjectIds getSubjectIdsWithPermission(final ResourceKey resourceKey,
+            final Permissions permissions) {
+
+        checkResourceKey(resourceKey);
+        checkPermissions(permissions);
+        final CompiledGrantRevokeIndex grantRevokeIndex =
+                seekToLeastAncestor(PolicyTrie.getJsonKeyIterator(resourceKey)).getInherited();
+        final long permissionMask = symbolTable.getPermissionMask(permissions);
+
+        return ImmutableEffectedSubjectIds.of(grantRevokeIndex.getGrantedSubjectIds(permissionMask, symbolTable),
+                grantRevokeIndex.getRevokedSubjectIds(permissionMask, symbolTable));
+    }
+
+    @Override
+    public Set<String> getSubjectIdsWithPartialPermission(final ResourceKey resourceKey,
+            final Permissions permissions) {
+
+        checkResourceKey(resourceKey);
+        checkPermissions(permissions);
+        final CompiledGrantRevokeIndex grantRevokeIndex = seekWithFallback(resourceKey, true);
+
+        return grantRevokeIndex.getGrantedSubjectIds(symbolTable.getPermissionMask(permissions), symbolTable);
+    }
+
+    @Override
+    public JsonObject buildJsonView(final ResourceKey resourceKey,
+            final Iterable<JsonField> jsonFields,
+            final AuthorizationContext authorizationContext,
+            final Permissions permissions) {
+
+        checkResourceKey(resourceKey);
+        checkNotNull(jsonFields, "JSON fields");
+        checkPermissions(permissions);
+
+        final int[] subjectIndices = getSubjectIndices(authorizationContext);
+
+        if (null != root.getChild(JsonKey.of(resourceKey.getResourceType()))) {
+            final CompiledPolicyTrie start = seekToLeastAncestor(PolicyTrie.getJsonKeyIterator(resourceKey));
+            return start.buildJsonView(jsonFields, subjectIndices, symbolTable.getPermissionMask(permissions));
+        } else {
+            return JsonFactory.newObject();
+        }
+    }
+
+    private static void checkResourceKey(final ResourceKey resourceKey) {
+        checkNotNull(resourceKey, "resource key");
+    }
+
+    private static void checkPermissions(final Permissions permissions) {
+        checkNotNull(permissions, "permissions to check");
+    }
+
+    private int[] getSubjectIndices(final AuthorizationContext authorizationContext) {
+        checkNotNull(authorizationContext, "Authorization Context");
+        return symbolTable.getSubjectIndices(authorizationContext);
+    }
+
+    /**
+     * Returns the bottom-up grant-revoke-index of the node whose path from root matches the given resource key exactly
+     * if it exists, otherwise the inherited grant-revoke-index of the node whose path from root matches the resource key
+     * the best.
+     *
+     * @param resourceKey Pointer to a resource.
+     * @param bottomUpGrant whether to return the bottom-up grant index or the bottom-up revoke index on exact match.
+     * @return The grant-revoke-index.
+     */
+    private CompiledGrantRevokeIndex seekWithFallback(final ResourceKey resourceKey, final boolean bottomUpGrant) {
+        final Iterator<JsonKey> path = PolicyTrie.getJsonKeyIterator(resourceKey);
+        CompiledPolicyTrie node = root;
+        while (path.hasNext()) {
+            final CompiledPolicyTrie child = node.getChild(path.next());
+            if (null == child) {
+                return node.getInherited();
+            }
+            node = child;
+        }
+        return bottomUpGrant ? node.getBottomUpGrant() : node.getBottomUpRevoke();
+    }
+
+    private CompiledPolicyTrie seekToLeastAncestor(final Iterator<JsonKey> path) {
+        CompiledPolicyTrie node = root;
+        while (path.hasNext()) {
+            final CompiledPolicyTrie child = node.getChild(path.next());
+            if (null == child) {
+                return node;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.trie;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.base.auth.AuthorizationSubject;
+
+/**
+ * Interns the subject IDs and permissions of a policy: each subject ID is mapped to an integer and each permission is
+ * mapped to a bit of a {@code long} mask.
+ */
+@Immutable
+final class PolicySymbolTable {
+
+    /**
+     * Maximum number of distinct permissions of a policy. The highest bit of a permission mask is reserved for
+     * permissions which are not mentioned in the policy.
+     */
+    static final int MAX_PERMISSIONS = Long.SIZE - 1;
+
+    /**
+     * Bit of a permission mask representing all permissions which are not mentioned in the policy.
+     */
+    static final long UNKNOWN_PERMISSION = 1L << MAX_PERMISSIONS;
+
+    private static final int[] NO_SUBJECTS = new int[0];
+
+    private final String[] subjectIds;
+    private final Map<String, Integer> subjectIndices;
+    private final Map<String, Integer> permissionOrdinals;
+
+    private PolicySymbolTable(final String[] subjectIds, final Map<String, Integer> subjectIndices,
+            final Map<String, Integer> permissionOrdinals) {
+
+        this.subjectIds = subjectIds;
+        this.subjectIndices = subjectIndices;
+        this.permissionOrdinals = permissionOrdinals;
+    }
+
+    /**
+     * Collects all subject IDs and permissions mentioned in the given tries. Subject IDs and permissions are numbered
+     * in their natural order.
+     *
+     * @param policyTries the tries to collect symbols from.
+     * @return the symbol table.
+     * @throws IllegalArgumentException if the tries mention more than {@link #MAX_PERMISSIONS} distinct permissions.
+     */
+    static PolicySymbolTable of(final Collection<PolicyTrie> policyTries) {
+        final Set<String> subjects = new TreeSet<>();
+        final Set<String> permissions = new TreeSet<>();
+        policyTries.forEach(policyTrie -> collectSymbols(policyTrie, subjects, permissions));
+
+        if (permissions.size() > MAX_PERMISSIONS) {
+            final String msgTemplate = "A compiled policy supports at most <{0}> distinct permissions but got <{1}>!";
+            throw new IllegalArgumentException(MessageFormat.format(msgTemplate, MAX_PERMISSIONS, permissions.size()));
+        }
+
+        final String[] subjectIds = subjects.toArray(new String[0]);
+        return new PolicySymbolTable(subjectIds, number(subjects), number(permissions));
+    }
+
+    private static void collectSymbols(final PolicyTrie policyTrie, final Set<String> subjects,
+            final Set<String> permissions) {
+
+        final GrantRevokeIndex grantRevokeIndex = policyTrie.getGrantRevokeIndex();
+        collectSymbols(grantRevokeIndex.getGranted(), subjects, permissions);
+        collectSymbols(grantRevokeIndex.getRevoked(), subjects, permissions);
+        policyTrie.getChildren().values().forEach(child -> collectSymbols(child, subjects, permissions));
+    }
+
+    private static void collectSymbols(final PermissionSubjectsMap permissionSubjectsMap, final Set<String> subjects,
+            final Set<String> permissions) {
+
+        permissionSubjectsMap.forEach((permission, subjectWeights) -> {
+            permissions.add(permission);
+            subjects.addAll(subjectWeights.keySet());
+        });
+    }
+
+    private static Map<String, Integer> number(final Collection<String> symbols) {
+        final Map<String, Integer> result = new HashMap<>(symbols.size() * 2);
+        for (final String symbol : symbols) {
+            result.put(symbol, result.size());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the number of distinct permissions of the policy.
+     *
+     * @return the number of permissions.
+     */
+    int getPermissionCount() {
+        return permissionOrdinals.size();
+    }
+
+    /**
+     * Returns the integer of a subject ID of the policy.
+     *
+     * @param subjectId the subject ID.
+     * @return the integer of {@code subjectId} or {@code -1} if the policy does not mention it.
+     */
+    int getSubjectIndex(final String subjectId) {
+        final Integer result = subjectIndices.get(subjectId);
+        return null != result ? result : -1;
+    }
+
+    /**
+     * Returns the subject ID of an integer obtained by {@link #getSubjectIndex(String)}.
+     *
+     * @param subjectIndex the integer.
+     * @return the subject ID.
+     */
+    String getSubjectId(final int subjectIndex) {
+        return subjectIds[subjectIndex];
+    }
+
+    /**
+     * Returns the ordinal of a permission of the policy, i. e. the index of its bit in a permission mask.
+     *
+     * @param permission the permission.
+     * @return the ordinal of {@code permission} or {@code -1} if the policy does not mention it.
+     */
+    int getPermissionOrdinal(final String permission) {
+        final Integer result = permissionOrdinals.get(permission);
+        return null != result ? result : -1;
+    }
+
+    /**
+     * Converts permissions to a mask. All permissions which are not mentioned in the policy are represented by
+     * {@link #UNKNOWN_PERMISSION}.
+     *
+     * @param permissions the permissions to convert.
+     * @return the permission mask.
+     */
+    long getPermissionMask(final Iterable<String> permissions) {
+        long result = 0L;
+        for (final String permission : permissions) {
+            final int ordinal = getPermissionOrdinal(permission);
+            result |= ordinal < 0 ? UNKNOWN_PERMISSION : 1L << ordinal;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sorted integers of those subjects of an authorization context which are mentioned in the policy.
+     *
+     * @param authorizationContext the authorization context.
+     * @return the sorted subject integers.
+     */
+    int[] getSubjectIndices(final AuthorizationContext authorizationContext) {
+        final int size = authorizationContext.getSize();
+        if (0 == size) {
+            return NO_SUBJECTS;
+        }
+        final int[] result = new int[size];
+        int count = 0;
+        for (final AuthorizationSubject authorizationSubject : authorizationContext) {
+            final int subjectIndex = getSubjectIndex(authorizationSubject.getId());
+            if (0 <= subjectIndex) {
+                result[count++] = subjectIndex;
+            }
+        }
+        Arrays.sort(result, 0, count);
+        return count == size ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Resolves subject integers to a mutable set of subject IDs.
+     *
+     * @param subjectIndices the subject integers.
+     * @param count the number of subject integers to resolve.
+     * @return the subject IDs.
+     */
+    Set<String> getSubjectIds(final int[] subjectIndices, final int count) {
+        final Set<String> result = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            result.add(subjectIds[subjectIndices[i]]);
+        }
+        return result;
+    }
+
+}
@@ -17,9 +17,9 @@ import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -28,8 +28,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
-import org.eclipse.ditto.json.JsonArray;
-import org.eclipse.ditto.json.JsonCollectors;
+import org.eclipse.ditto.json.JsonArrayBuilder;
 import org.eclipse.ditto.json.JsonFactory;
 import org.eclipse.ditto.json.JsonField;
 import org.eclipse.ditto.json.JsonFieldDefinition;
@@ -220,6 +219,15 @@ final class PolicyTrie {
         return new PolicyTrie(newGrantRevokeMap, newChildren);
     }
 
+    /**
+     * Returns an unmodifiable view of the children of this node.
+     *
+     * @return The children of this node by their keys.
+     */
+    Map<JsonKey, PolicyTrie> getChildren() {
+        return Collections.unmodifiableMap(children);
+    }
+
     /**
      * Returns whether a child exists for the given key.
      *
@@ -230,19 +238,33 @@ final class PolicyTrie {
         return children.containsKey(childKey);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Builds the view of JSON fields located at this node in a single pass over the fields and this trie. Fields
+     * without a node of their own inherit the grants and revokes of their parent, so they are taken or dropped as a
+     * whole without visiting their content.
+     *
+     * @param jsonFields The fields to filter.
+     * @param subjectIds The subject IDs to check.
+     * @param permissions The permissions to check.
+     * @return The view of the fields.
+     */
     JsonObject buildJsonView(final Iterable<JsonField> jsonFields, final Set<String> subjectIds,
             final Permissions permissions) {
 
-        final PolicyTrie defaultPolicyTrie = new PolicyTrie(grantRevokeIndex, Collections.emptyMap());
+        return buildJsonView(jsonFields, new ViewPermissions(subjectIds, permissions));
+    }
 
+    private JsonObject buildJsonView(final Iterable<JsonField> jsonFields, final ViewPermissions viewPermissions) {
         if (jsonFields instanceof JsonObject && ((JsonObject) jsonFields).isNull()) {
             return (JsonObject) jsonFields;
         }
 
         final JsonObjectBuilder outputObjectBuilder = JsonFactory.newObjectBuilder();
         for (final JsonField field : jsonFields) {
-            final JsonValue jsonView = getViewForJsonFieldOrNull(field, defaultPolicyTrie, subjectIds, permissions);
+            final PolicyTrie child = children.get(field.getKey());
+            final JsonValue jsonView = null != child
+                    ? child.getViewForJsonValueOrNull(field.getValue(), viewPermissions)
+                    : getViewForInheritingJsonValueOrNull(field.getValue(), viewPermissions);
             if (null != jsonView) {
                 final Optional<JsonFieldDefinition> definitionOptional = field.getDefinition();
                 if (definitionOptional.isPresent()) {
@@ -257,25 +279,15 @@ final class PolicyTrie {
     }
 
     @Nullable
-    private JsonValue getViewForJsonFieldOrNull(final JsonField jsonField,
-            final PolicyTrie defaultPolicyTrie,
-            final Set<String> subjectIds,
-            final Permissions permissions) {
-
-        final PolicyTrie relevantTrie = children.getOrDefault(jsonField.getKey(), defaultPolicyTrie);
-        return relevantTrie.getViewForJsonValueOrNull(jsonField.getValue(), subjectIds, permissions);
-    }
-
-    @Nullable
-    private JsonValue getViewForJsonValueOrNull(final JsonValue jsonValue, final Set<String> subjectIds,
-            final Permissions permissions) {
-
+    private JsonValue getViewForJsonValueOrNull(final JsonValue jsonValue, final ViewPermissions viewPermissions) {
         final JsonValue result;
-        if (jsonValue.isObject()) {
-            result = getViewForJsonObjectOrNull(jsonValue.asObject(), subjectIds, permissions);
+        if (children.isEmpty()) {
+            result = getViewForInheritingJsonValueOrNull(jsonValue, viewPermissions);
+        } else if (jsonValue.isObject()) {
+            result = filterCandidate(buildJsonView(jsonValue.asObject(), viewPermissions), viewPermissions);
         } else if (jsonValue.isArray()) {
-            result = getViewForJsonArrayOrNull(jsonValue.asArray(), subjectIds, permissions);
-        } else if (grantRevokeIndex.hasPermissions(subjectIds, permissions)) {
+            result = getViewForJsonArrayOrNull(jsonValue.asArray(), viewPermissions);
+        } else if (viewPermissions.isGranted(this)) {
             result = jsonValue;
         } else {
             result = null;
@@ -284,33 +296,41 @@ final class PolicyTrie {
         return result;
     }
 
+    /*
+     * Every value below a JSON value without a trie node of its own is checked against the grant-revoke-index of this
+     * node. Thus either all scalar values below it are visible and the view is the value itself, or none is visible
+     * and all containers below it are filtered out because they are empty.
+     */
     @Nullable
-    private JsonValue getViewForJsonObjectOrNull(final Iterable<JsonField> jsonObject, final Set<String> subjectIds,
-            final Permissions permissions) {
+    private JsonValue getViewForInheritingJsonValueOrNull(final JsonValue jsonValue,
+            final ViewPermissions viewPermissions) {
 
-        return filterCandidate(buildJsonView(jsonObject, subjectIds, permissions), subjectIds, permissions);
+        return viewPermissions.isGranted(this) ? jsonValue : null;
     }
 
     @Nullable
     private <T extends JsonValue & JsonValueContainer> T filterCandidate(final T candidate,
-            final Set<String> subjectIds, final Collection<String> permissions) {
+            final ViewPermissions viewPermissions) {
 
-        if (!candidate.isEmpty() || grantRevokeIndex.hasPermissions(subjectIds, permissions)) {
+        if (!candidate.isEmpty() || viewPermissions.isGranted(this)) {
             return candidate;
         }
         return null;
     }
 
     @Nullable
-    private JsonValue getViewForJsonArrayOrNull(final JsonValueContainer<JsonValue> jsonArray,
-            final Set<String> subjectIds, final Permissions permissions) {
-
-        final JsonArray candidate = jsonArray.stream()
-                .map(value -> getViewForJsonValueOrNull(value, subjectIds, permissions))
-                .filter(Objects::nonNull)
-                .collect(JsonCollectors.valuesToArray());
+    private JsonValue getViewForJsonArrayOrNull(final Iterable<JsonValue> jsonArray,
+            final ViewPermissions viewPermissions) {
+
+        final JsonArrayBuilder candidateBuilder = JsonFactory.newArrayBuilder();
+        for (final JsonValue value : jsonArray) {
+            final JsonValue view = getViewForJsonValueOrNull(value, viewPermissions);
+            if (null != view) {
+                candidateBuilder.add(view);
+            }
+        }
 
-        return filterCandidate(candidate, subjectIds, permissions);
+        return filterCandidate(candidateBuilder.build(), viewPermissions);
     }
 
     /**
@@ -363,4 +383,27 @@ final class PolicyTrie {
         return result;
     }
 
+    /**
+     * Permission check of a JSON view which evaluates the grant-revoke-index of each trie node at most once.
+     */
+    @NotThreadSafe
+    private static final class ViewPermissions {
+
+        private final Set<String> subjectIds;
+        private final Permissions permissions;
+        private final Map<PolicyTrie, Boolean> results;
+
+        private ViewPermissions(final Set<String> subjectIds, final Permissions permissions) {
+            this.subjectIds = subjectIds;
+            this.permissions = permissions;
+            results = new IdentityHashMap<>();
+        }
+
+        private boolean isGranted(final PolicyTrie policyTrie) {
+            return results.computeIfAbsent(policyTrie,
+                    node -> node.grantRevokeIndex.hasPermissions(subjectIds, permissions));
+        }
+
+    }
+
 }
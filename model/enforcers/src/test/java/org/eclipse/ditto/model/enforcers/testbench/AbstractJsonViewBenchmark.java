@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.testbench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.enforcers.testbench.algorithms.PolicyAlgorithm;
+import org.eclipse.ditto.model.enforcers.testbench.scenarios.Scenario;
+import org.eclipse.ditto.model.policies.Permissions;
+import org.eclipse.ditto.model.policies.PoliciesModelFactory;
+import org.eclipse.ditto.model.policies.PoliciesResourceType;
+import org.eclipse.ditto.model.policies.Policy;
+import org.eclipse.ditto.model.policies.PolicyBuilder;
+import org.eclipse.ditto.model.policies.ResourceKey;
+import org.eclipse.ditto.model.policies.SubjectIssuer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building JSON views of Things with many features for subjects with mixed grants and revokes.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractJsonViewBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final String SUBJECT_OWNER = "sid_owner";
+    private static final String SUBJECT_FEATURE_READER = "sid_feature_reader";
+    private static final String SUBJECT_ATTRIBUTE_READER = "sid_attribute_reader";
+
+    private static final ResourceKey THING_ROOT = PoliciesResourceType.thingResource("/");
+    private static final Permissions READ = Permissions.newInstance("READ");
+
+    @Param({"10", "100", "1000"})
+    public int featureCount;
+
+    private PolicyAlgorithm policyAlgorithm;
+    private JsonObject thing;
+    private AuthorizationContext owner;
+    private AuthorizationContext featureReader;
+    private AuthorizationContext attributeReader;
+
+    @Setup
+    public void setup() {
+        policyAlgorithm = getPolicyAlgorithm(createPolicy(featureCount));
+        thing = createThing(featureCount);
+        owner = Scenario.newAuthorizationContext(SUBJECT_OWNER);
+        featureReader = Scenario.newAuthorizationContext(SUBJECT_FEATURE_READER);
+        attributeReader = Scenario.newAuthorizationContext(SUBJECT_ATTRIBUTE_READER);
+    }
+
+    /**
+     * Returns the PolicyAlgorithm to use for the benchmarks defined in this abstract class.
+     *
+     * @return the PolicyAlgorithm to use.
+     */
+    protected abstract PolicyAlgorithm getPolicyAlgorithm(final Policy policy);
+
+    /**
+     * The owner may read everything except the private properties of every 10th feature.
+     */
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject buildJsonViewForOwner() {
+        return policyAlgorithm.buildJsonView(THING_ROOT, thing, owner, READ);
+    }
+
+    /**
+     * The feature reader may read all features except every 5th feature, of which only the public properties are
+     * readable.
+     */
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject buildJsonViewForFeatureReader() {
+        return policyAlgorithm.buildJsonView(THING_ROOT, thing, featureReader, READ);
+    }
+
+    /**
+     * The attribute reader may read the attributes only, so all features are filtered out.
+     */
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public JsonObject buildJsonViewForAttributeReader() {
+        return policyAlgorithm.buildJsonView(THING_ROOT, thing, attributeReader, READ);
+    }
+
+    private static Policy createPolicy(final int featureCount) {
+        PolicyBuilder.LabelScoped policyBuilder = PoliciesModelFactory.newPolicyBuilder("benchmark:jsonView")
+                .forLabel("owner")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_OWNER)
+                .setGrantedPermissions(THING_ROOT, "READ", "WRITE")
+                .forLabel("owner-private-revoked")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_OWNER);
+        for (int i = 0; i < featureCount; i += 10) {
+            policyBuilder = policyBuilder.setRevokedPermissions(
+                    PoliciesResourceType.thingResource("/features/feature" + i + "/properties/private"), "READ");
+        }
+
+        policyBuilder = policyBuilder.forLabel("feature-reader")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_FEATURE_READER)
+                .setGrantedPermissions(PoliciesResourceType.thingResource("/features"), "READ")
+                .forLabel("feature-reader-revoked")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_FEATURE_READER);
+        for (int i = 0; i < featureCount; i += 5) {
+            policyBuilder = policyBuilder.setRevokedPermissions(
+                    PoliciesResourceType.thingResource("/features/feature" + i), "READ");
+        }
+        policyBuilder = policyBuilder.forLabel("feature-reader-public")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_FEATURE_READER);
+        for (int i = 0; i < featureCount; i += 5) {
+            policyBuilder = policyBuilder.setGrantedPermissions(
+                    PoliciesResourceType.thingResource("/features/feature" + i + "/properties/public"), "READ");
+        }
+
+        return policyBuilder.forLabel("attribute-reader")
+                .setSubject(SubjectIssuer.GOOGLE, SUBJECT_ATTRIBUTE_READER)
+                .setGrantedPermissions(PoliciesResourceType.thingResource("/attributes"), "READ")
+                .build();
+    }
+
+    private static JsonObject createThing(final int featureCount) {
+        final JsonObjectBuilder featuresBuilder = JsonFactory.newObjectBuilder();
+        for (int i = 0; i < featureCount; i++) {
+            featuresBuilder.set("feature" + i, JsonFactory.newObjectBuilder()
+                    .set("definition", JsonFactory.newArrayBuilder().add("org.eclipse.ditto:feature:1.0.0").build())
+                    .set("properties", JsonFactory.newObjectBuilder()
+                            .set("public", JsonFactory.newObjectBuilder()
+                                    .set("value", i)
+                                    .set("unit", "°C")
+                                    .build())
+                            .set("private", JsonFactory.newObjectBuilder()
+                                    .set("serial", "SN-" + i)
+                                    .set("calibration", JsonFactory.newArrayBuilder().add(1.0, 0.5, 0.25).build())
+                                    .build())
+                            .set("status", JsonFactory.newObjectBuilder()
+                                    .set("connected", true)
+                                    .set("lastSeen", "2017-11-11T08:39:05Z")
+                                    .build())
+                            .build())
+                    .build());
+        }
+
+        return JsonFactory.newObjectBuilder()
+                .set("thingId", "benchmark:thing")
+                .set("policyId", "benchmark:jsonView")
+                .set("attributes", JsonFactory.newObjectBuilder()
+                        .set("manufacturer", "ACME")
+                        .set("location", JsonFactory.newObjectBuilder()
+                                .set("latitude", 47.68)
+                                .set("longitude", 9.38)
+                                .build())
+                        .build())
+                .set("features", featuresBuilder.build())
+                .build();
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.enforcers.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mutabilitydetector.unittesting.AllowedReason.assumingFields;
+import static org.mutabilitydetector.unittesting.AllowedReason.provided;
+import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
+import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.model.base.auth.AuthorizationContext;
+import org.eclipse.ditto.model.base.auth.AuthorizationModelFactory;
+import org.eclipse.ditto.model.base.auth.AuthorizationSubject;
+import org.eclipse.ditto.model.policies.EffectedPermissions;
+import org.eclipse.ditto.model.policies.Permissions;
+import org.eclipse.ditto.model.policies.PoliciesModelFactory;
+import org.eclipse.ditto.model.policies.Policy;
+import org.eclipse.ditto.model.policies.PolicyBuilder;
+import org.eclipse.ditto.model.policies.ResourceKey;
+import org.eclipse.ditto.model.policies.SubjectType;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CompiledTrieBasedPolicyEnforcer}.
+ */
+public final class CompiledTrieBasedPolicyEnforcerTest {
+
+    private static final List<ResourceKey> RESOURCE_KEYS = Arrays.asList(
+            ResourceKey.newInstance("thing", "/"),
+            ResourceKey.newInstance("thing", "/attributes"),
+            ResourceKey.newInstance("thing", "/attributes/public"),
+            ResourceKey.newInstance("thing", "/attributes/private/secret"),
+            ResourceKey.newInstance("thing", "/features/lamp/properties"),
+            ResourceKey.newInstance("thing", "/unknown/path"),
+            ResourceKey.newInstance("policy", "/"),
+            ResourceKey.newInstance("message", "/"));
+
+    private static final List<AuthorizationContext> AUTHORIZATION_CONTEXTS = Arrays.asList(
+            AuthorizationModelFactory.emptyAuthContext(),
+            AuthorizationContext.newInstance(AuthorizationSubject.newInstance("dummy:owner")),
+            AuthorizationContext.newInstance(AuthorizationSubject.newInstance("dummy:reader")),
+            AuthorizationContext.newInstance(AuthorizationSubject.newInstance("dummy:reader"),
+                    AuthorizationSubject.newInstance("dummy:writer")),
+            AuthorizationContext.newInstance(AuthorizationSubject.newInstance("dummy:stranger")));
+
+    private static final List<Permissions> PERMISSIONS = Arrays.asList(
+            Permissions.none(),
+            Permissions.newInstance("READ"),
+            Permissions.newInstance("WRITE"),
+            Permissions.newInstance("READ", "WRITE"),
+            Permissions.newInstance("READ", "EXECUTE"));
+
+    private static final JsonObject THING = JsonFactory.newObject("{\"thingId\":\"ns:thing\"," +
+            "\"attributes\":{\"public\":{\"a\":1,\"b\":[1,{\"c\":2}]},\"private\":{\"secret\":42,\"other\":true}}," +
+            "\"features\":{\"lamp\":{\"properties\":{\"on\":true}},\"sensor\":{\"properties\":{\"value\":3}}}}");
+
+    @Test
+    public void assertImmutability() {
+        assertInstancesOf(CompiledTrieBasedPolicyEnforcer.class,
+                areImmutable(),
+                provided(PolicySymbolTable.class, CompiledPolicyTrie.class).areAlsoImmutable());
+        assertInstancesOf(PolicySymbolTable.class,
+                areImmutable(),
+                assumingFields("subjectIds").areNotModifiedAndDoNotEscape(),
+                assumingFields("subjectIndices", "permissionOrdinals")
+                        .areSafelyCopiedUnmodifiableCollectionsWithImmutableElements());
+        assertInstancesOf(CompiledPolicyTrie.class,
+                areImmutable(),
+                provided(CompiledGrantRevokeIndex.class).areAlsoImmutable(),
+                assumingFields("childKeys", "children").areNotModifiedAndDoNotEscape());
+        assertInstancesOf(CompiledGrantRevokeIndex.class,
+                areImmutable(),
+                assumingFields("subjects", "grantMasks", "revokeMasks", "grantWeights", "revokeWeights")
+                        .areNotModifiedAndDoNotEscape());
+    }
+
+    @Test
+    public void evaluatesLikeTrieBasedPolicyEnforcer() {
+        final Policy policy = policy();
+        final TrieBasedPolicyEnforcer expected = TrieBasedPolicyEnforcer.newInstance(policy);
+        final CompiledTrieBasedPolicyEnforcer underTest = CompiledTrieBasedPolicyEnforcer.newInstance(policy);
+
+        for (final ResourceKey resourceKey : RESOURCE_KEYS) {
+            for (final Permissions permissions : PERMISSIONS) {
+                final String description = resourceKey + " " + permissions;
+                assertThat(underTest.getSubjectIdsWithPermission(resourceKey, permissions))
+                        .as(description)
+                        .isEqualTo(expected.getSubjectIdsWithPermission(resourceKey, permissions));
+                assertThat(underTest.getSubjectIdsWithPartialPermission(resourceKey, permissions))
+                        .as(description)
+                        .isEqualTo(expected.getSubjectIdsWithPartialPermission(resourceKey, permissions));
+
+                for (final AuthorizationContext context : AUTHORIZATION_CONTEXTS) {
+                    final String contextDescription = description + " " + context;
+                    assertThat(underTest.hasUnrestrictedPermissions(resourceKey, context, permissions))
+                            .as(contextDescription)
+                            .isEqualTo(expected.hasUnrestrictedPermissions(resourceKey, context, permissions));
+                    assertThat(underTest.hasPartialPermissions(resourceKey, context, permissions))
+                            .as(contextDescription)
+                            .isEqualTo(expected.hasPartialPermissions(resourceKey, context, permissions));
+                    assertThat(underTest.buildJsonView(resourceKey, THING, context, permissions))
+                            .as(contextDescription)
+                            .isEqualTo(expected.buildJsonView(resourceKey, THING, context, permissions));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void buildJsonViewOfNullObjectReturnsNullObject() {
+        final CompiledTrieBasedPolicyEnforcer underTest = CompiledTrieBasedPolicyEnforcer.newInstance(policy());
+
+        final JsonObject createdJsonView = underTest.buildJsonView(ResourceKey.newInstance("thing", "/"),
+                JsonFactory.nullObject(),
+                AuthorizationContext.newInstance(AuthorizationSubject.newInstance("dummy:owner")),
+                Permissions.newInstance("READ"));
+
+        assertThat(createdJsonView).isEqualTo(JsonFactory.nullObject());
+    }
+
+    @Test
+    public void policyWithTooManyPermissionsIsRejected() {
+        final PolicyBuilder.LabelScoped policyBuilder = PoliciesModelFactory.newPolicyBuilder("namespace:id")
+                .forLabel("DEFAULT")
+                .setSubject("dummy:owner", SubjectType.GENERATED);
+        for (int i = 0; i < 64; i++) {
+            policyBuilder.setGrantedPermissions("thing", JsonPointer.of("/attributes/a" + i),
+                    Permissions.newInstance("PERMISSION" + i));
+        }
+        final Policy policy = policyBuilder.build();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> CompiledTrieBasedPolicyEnforcer.newInstance(policy));
+    }
+
+    private static Policy policy() {
+        return PoliciesModelFactory.newPolicyBuilder("namespace:id")
+                .forLabel("OWNER")
+                .setSubject("dummy:owner", SubjectType.GENERATED)
+                .setGrantedPermissions("thing", JsonPointer.of("/"), Permissions.newInstance("READ", "WRITE"))
+                .setGrantedPermissions("policy", JsonPointer.of("/"), Permissions.newInstance("READ", "WRITE"))
+                .forLabel("READER")
+                .setSubject("dummy:reader", SubjectType.GENERATED)
+                .setGrantedPermissions("thing", JsonPointer.of("/"), Permissions.newInstance("READ"))
+                .setRevokedPermissions("thing", JsonPointer.of("/attributes/private"), Permissions.newInstance("READ"))
+                .forLabel("WRITER")
+                .setSubject("dummy:writer", SubjectType.GENERATED)
+                .setPermissions(ResourceKey.newInstance("thing", "/attributes/private/secret"),
+                        EffectedPermissions.newInstance(Permissions.newInstance("READ", "WRITE"),
+                                Permissions.none()))
+                .setRevokedPermissions("thing", JsonPointer.of("/features/lamp"), Permissions.newInstance("WRITE"))
+                .build();
+    }
+
+}
@@ -15,6 +15,7 @@ package org.eclipse.ditto.model.messages;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.data.MapEntry.entry;
+import static org.mutabilitydetector.unittesting.AllowedReason.provided;
 import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
 import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
 
@@ -65,7 +66,8 @@ public final class ImmutableMessageHeadersTest {
 
     @Test
     public void assertImmutability() {
-        assertInstancesOf(ImmutableMessageHeaders.class, areImmutable());
+        assertInstancesOf(ImmutableMessageHeaders.class, areImmutable(),
+                provided("org.eclipse.ditto.model.base.headers.ImmutableHeaderMap").isAlsoImmutable());
     }
 
     @Test
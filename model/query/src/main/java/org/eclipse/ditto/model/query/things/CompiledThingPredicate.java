@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.query.things;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.things.Thing;
+
+/**
+ * Java {@link Predicate} of {@link Thing}s compiled from {@link Criteria}. It evaluates to the same results as the
+ * predicate created by {@link ThingPredicateVisitor#apply(Criteria)}, but is created only once per criteria and may be
+ * shared between threads.
+ */
+@Immutable
+public final class CompiledThingPredicate implements Predicate<Thing> {
+
+    private final ThingPredicateCompiler.Node root;
+
+    private CompiledThingPredicate(final ThingPredicateCompiler.Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles the given criteria.
+     *
+     * @param criteria the criteria to compile.
+     * @return the compiled predicate.
+     * @throws NullPointerException if {@code criteria} is {@code null}.
+     */
+    public static CompiledThingPredicate of(final Criteria criteria) {
+        return new CompiledThingPredicate(ThingPredicateCompiler.compile(checkNotNull(criteria, "criteria")));
+    }
+
+    @Override
+    public boolean test(final Thing thing) {
+        return root.test(new ThingPredicateCompiler.ThingFields(thing));
+    }
+
+}
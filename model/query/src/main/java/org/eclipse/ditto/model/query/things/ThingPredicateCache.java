@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.query.things;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
+import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
+import org.eclipse.ditto.model.things.Thing;
+
+/**
+ * Cache of {@link CompiledThingPredicate}s by RQL filter string. Filter strings which cannot be parsed are not cached.
+ * If the cache is full, an arbitrary entry is evicted to make room for a new one.
+ */
+@ThreadSafe
+public final class ThingPredicateCache {
+
+    private final QueryFilterCriteriaFactory queryFilterCriteriaFactory;
+    private final int maximumSize;
+    private final Map<String, CompiledThingPredicate> predicates;
+
+    private ThingPredicateCache(final QueryFilterCriteriaFactory queryFilterCriteriaFactory, final int maximumSize) {
+        this.queryFilterCriteriaFactory = queryFilterCriteriaFactory;
+        this.maximumSize = maximumSize;
+        predicates = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a cache which parses filter strings with a {@link ModelBasedThingsFieldExpressionFactory}.
+     *
+     * @param maximumSize the maximum number of cached predicates.
+     * @return the cache.
+     * @throws IllegalArgumentException if {@code maximumSize} is not positive.
+     */
+    public static ThingPredicateCache newInstance(final int maximumSize) {
+        return newInstance(new QueryFilterCriteriaFactory(new CriteriaFactoryImpl(),
+                new ModelBasedThingsFieldExpressionFactory()), maximumSize);
+    }
+
+    /**
+     * Creates a cache which parses filter strings with the given factory.
+     *
+     * @param queryFilterCriteriaFactory the factory to parse filter strings with.
+     * @param maximumSize the maximum number of cached predicates.
+     * @return the cache.
+     * @throws NullPointerException if {@code queryFilterCriteriaFactory} is {@code null}.
+     * @throws IllegalArgumentException if {@code maximumSize} is not positive.
+     */
+    public static ThingPredicateCache newInstance(final QueryFilterCriteriaFactory queryFilterCriteriaFactory,
+            final int maximumSize) {
+
+        checkNotNull(queryFilterCriteriaFactory, "query filter criteria factory");
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive but was <" + maximumSize + ">!");
+        }
+        return new ThingPredicateCache(queryFilterCriteriaFactory, maximumSize);
+    }
+
+    /**
+     * Returns the compiled predicate of a filter string, parsing and compiling the filter if it is not cached.
+     *
+     * @param filter the RQL filter string.
+     * @param dittoHeaders the headers to use for the exception if the filter string cannot be parsed.
+     * @return the predicate.
+     * @throws NullPointerException if any argument is {@code null}.
+     * @throws org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException if the filter string cannot be
+     * mapped to a valid criterion.
+     */
+    public Predicate<Thing> getPredicate(final String filter, final DittoHeaders dittoHeaders) {
+        checkNotNull(filter, "filter");
+        checkNotNull(dittoHeaders, "Ditto Headers");
+
+        final CompiledThingPredicate cachedPredicate = predicates.get(filter);
+        if (null != cachedPredicate) {
+            return cachedPredicate;
+        }
+        final CompiledThingPredicate predicate =
+                CompiledThingPredicate.of(queryFilterCriteriaFactory.filterCriteria(filter, dittoHeaders));
+        evictIfFull();
+        final CompiledThingPredicate previousPredicate = predicates.putIfAbsent(filter, predicate);
+        return null != previousPredicate ? previousPredicate : predicate;
+    }
+
+    private void evictIfFull() {
+        final Iterator<String> filters = predicates.keySet().iterator();
+        while (predicates.size() >= maximumSize && filters.hasNext()) {
+            filters.next();
+            filters.remove();
+        }
+    }
+
+}
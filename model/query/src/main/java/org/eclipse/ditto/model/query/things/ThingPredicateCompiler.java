@@ -0,0 +1,641 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.query.things;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.eclipse.ditto.json.JsonKey;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.query.criteria.visitors.CriteriaVisitor;
+import org.eclipse.ditto.model.query.criteria.visitors.PredicateVisitor;
+import org.eclipse.ditto.model.query.expression.ExistsFieldExpression;
+import org.eclipse.ditto.model.query.expression.FilterFieldExpression;
+import org.eclipse.ditto.model.query.expression.visitors.ExistsFieldExpressionVisitor;
+import org.eclipse.ditto.model.query.expression.visitors.FilterFieldExpressionVisitor;
+import org.eclipse.ditto.model.things.Feature;
+import org.eclipse.ditto.model.things.Thing;
+
+/**
+ * Compiles {@link Criteria} into a tree of {@link Node}s which evaluate to the same results as the predicates created by
+ * {@link ThingPredicateVisitor}. JSON pointers, constants and regular expressions are resolved once at compile time and
+ * the operands of boolean operators are ordered by their estimated evaluation cost, so that cheap operands
+ * short-circuit expensive ones. Attributes, feature properties and the Thing ID are read from the Thing directly; the
+ * JSON representation of the Thing is only created for other fields.
+ */
+@Immutable
+final class ThingPredicateCompiler implements CriteriaVisitor<ThingPredicateCompiler.Node> {
+
+    private static final ThingPredicateCompiler INSTANCE = new ThingPredicateCompiler();
+
+    private static final int FIELD_COST = 1;
+    private static final int LIKE_COST = 2;
+    private static final int FULL_JSON_COST = 3;
+    private static final int FEATURE_SCAN_COST = 4;
+
+    private static final JsonKey ATTRIBUTES = Thing.JsonFields.ATTRIBUTES.getPointer().getRoot()
+            .orElseThrow(IllegalStateException::new);
+    private static final JsonKey FEATURES = Thing.JsonFields.FEATURES.getPointer().getRoot()
+            .orElseThrow(IllegalStateException::new);
+    private static final JsonKey PROPERTIES = Feature.JsonFields.PROPERTIES.getPointer().getRoot()
+            .orElseThrow(IllegalStateException::new);
+    private static final JsonPointer THING_ID = Thing.JsonFields.ID.getPointer();
+
+    private static final Comparator<Node> BY_COST = Comparator.comparingInt(Node::getCost);
+
+    private static final Node ANY = new Node(0) {
+        @Override
+        boolean test(final ThingFields thingFields) {
+            return true;
+        }
+    };
+
+    private ThingPredicateCompiler() {
+        // only internally instantiable
+    }
+
+    /**
+     * Compiles the given criteria.
+     *
+     * @param criteria the criteria to compile.
+     * @return the root of the compiled criteria.
+     */
+    static Node compile(final Criteria criteria) {
+        return criteria.accept(INSTANCE);
+    }
+
+    @Override
+    public Node visitAnd(final Stream<Node> conjuncts) {
+        final Node[] operands = sortByCost(conjuncts);
+        return new Node(sumOfCosts(operands)) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                for (final Node operand : operands) {
+                    if (!operand.test(thingFields)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public Node visitAny() {
+        return ANY;
+    }
+
+    @Override
+    public Node visitExists(final ExistsFieldExpression fieldExpression) {
+        return fieldExpression.acceptExistsVisitor(ExistsVisitor.INSTANCE);
+    }
+
+    @Override
+    public Node visitField(final FilterFieldExpression fieldExpression,
+            final org.eclipse.ditto.model.query.criteria.Predicate predicate) {
+
+        return fieldExpression.acceptFilterVisitor(new FilterVisitor(predicate.accept(ValuePredicateVisitor.INSTANCE)));
+    }
+
+    @Override
+    public Node visitNor(final Stream<Node> negativeDisjoints) {
+        final Node[] operands = sortByCost(negativeDisjoints);
+        return new Node(sumOfCosts(operands)) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                for (final Node operand : operands) {
+                    if (operand.test(thingFields)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public Node visitOr(final Stream<Node> disjoints) {
+        final Node[] operands = sortByCost(disjoints);
+        return new Node(sumOfCosts(operands)) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                for (final Node operand : operands) {
+                    if (operand.test(thingFields)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    private static Node[] sortByCost(final Stream<Node> operands) {
+        return operands.sorted(BY_COST).toArray(Node[]::new);
+    }
+
+    private static int sumOfCosts(final Node[] operands) {
+        int result = 0;
+        for (final Node operand : operands) {
+            result += operand.getCost();
+        }
+        return result;
+    }
+
+    private static Node fieldNode(final JsonPointer pointer, final ValuePredicate valuePredicate) {
+        final FieldAccessor fieldAccessor = FieldAccessor.of(pointer);
+        return new Node(fieldAccessor.getCost() + valuePredicate.getCost()) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                return valuePredicate.test(fieldAccessor.get(thingFields));
+            }
+        };
+    }
+
+    private static Node existsNode(final JsonPointer pointer) {
+        final FieldAccessor fieldAccessor = FieldAccessor.of(pointer);
+        return new Node(fieldAccessor.getCost()) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                return null != fieldAccessor.get(thingFields);
+            }
+        };
+    }
+
+    private static Node anyFeatureHasPropertyNode(final String property) {
+        final JsonPointer propertyPointer = JsonPointer.of(property);
+        return new Node(FEATURE_SCAN_COST) {
+            @Override
+            boolean test(final ThingFields thingFields) {
+                return thingFields.thing.getFeatures()
+                        .filter(features -> features.stream()
+                                .anyMatch(feature -> feature.getProperty(propertyPointer).isPresent()))
+                        .isPresent();
+            }
+        };
+    }
+
+    /**
+     * A compiled criteria or operand of a criteria.
+     */
+    @Immutable
+    abstract static class Node {
+
+        private final int cost;
+
+        private Node(final int cost) {
+            this.cost = cost;
+        }
+
+        /**
+         * Evaluates this node for a Thing.
+         *
+         * @param thingFields the JSON representations of the Thing.
+         * @return the result of the evaluation.
+         */
+        abstract boolean test(ThingFields thingFields);
+
+        /**
+         * Returns the estimated cost of evaluating this node.
+         *
+         * @return the cost.
+         */
+        int getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * The JSON representations of a Thing, created on first access.
+     */
+    @NotThreadSafe
+    static final class ThingFields {
+
+        private final Thing thing;
+        @Nullable private JsonObject fullJson;
+        @Nullable private JsonObject regularJson;
+
+        /**
+         * @param thing the Thing to represent.
+         */
+        ThingFields(final Thing thing) {
+            this.thing = thing;
+        }
+
+        private JsonObject getFullJson() {
+            if (null == fullJson) {
+                fullJson = thing.toJson(p -> true);
+            }
+            return fullJson;
+        }
+
+        private JsonObject getRegularJson() {
+            if (null == regularJson) {
+                regularJson = thing.toJson();
+            }
+            return regularJson;
+        }
+    }
+
+    private static final class ExistsVisitor implements ExistsFieldExpressionVisitor<Node> {
+
+        private static final ExistsVisitor INSTANCE = new ExistsVisitor();
+
+        @Override
+        public Node visitAttribute(final String key) {
+            return existsNode(JsonPointer.of("/attributes/" + key));
+        }
+
+        @Override
+        public Node visitFeature(final String featureId) {
+            return new Node(FIELD_COST) {
+                @Override
+                boolean test(final ThingFields thingFields) {
+                    return thingFields.thing.getFeatures()
+                            .flatMap(features -> features.getFeature(featureId))
+                            .isPresent();
+                }
+            };
+        }
+
+        @Override
+        public Node visitFeatureIdProperty(final String featureId, final String property) {
+            return existsNode(JsonPointer.of("/features/" + featureId + "/properties/" + property));
+        }
+
+        @Override
+        public Node visitFeatureProperty(final String property) {
+            return anyFeatureHasPropertyNode(property);
+        }
+
+        @Override
+        public Node visitSimple(final String fieldName) {
+            final JsonPointer pointer = JsonPointer.of(fieldName);
+            if (THING_ID.equals(pointer)) {
+                return existsNode(pointer);
+            }
+            return new Node(FULL_JSON_COST) {
+                @Override
+                boolean test(final ThingFields thingFields) {
+                    return thingFields.getRegularJson().getValue(pointer).isPresent();
+                }
+            };
+        }
+    }
+
+    private static final class FilterVisitor implements FilterFieldExpressionVisitor<Node> {
+
+        private final ValuePredicate valuePredicate;
+
+        private FilterVisitor(final ValuePredicate valuePredicate) {
+            this.valuePredicate = valuePredicate;
+        }
+
+        @Override
+        public Node visitAttribute(final String key) {
+            return fieldNode(JsonPointer.of("/attributes/" + key), valuePredicate);
+        }
+
+        @Override
+        public Node visitFeatureIdProperty(final String featureId, final String property) {
+            return fieldNode(JsonPointer.of("/features/" + featureId + "/properties/" + property), valuePredicate);
+        }
+
+        @Override
+        public Node visitFeatureProperty(final String property) {
+            // like FilterThingPredicateVisitor, only checks whether some feature has the property
+            return anyFeatureHasPropertyNode(property);
+        }
+
+        @Override
+        public Node visitSimple(final String fieldName) {
+            return fieldNode(JsonPointer.of(fieldName), valuePredicate);
+        }
+
+        @Override
+        public Node visitAcl() {
+            return fieldNode(JsonPointer.of("/acl"), valuePredicate);
+        }
+
+        @Override
+        public Node visitGlobalReads() {
+            return ANY; // not relevant for Thing Predicates
+        }
+    }
+
+    /**
+     * Reads the value of a field of a Thing.
+     */
+    @Immutable
+    private abstract static class FieldAccessor {
+
+        private final int cost;
+
+        private FieldAccessor(final int cost) {
+            this.cost = cost;
+        }
+
+        /**
+         * Creates an accessor for a pointer into the JSON representation of a Thing including its special fields.
+         *
+         * @param pointer the pointer.
+         * @return the accessor.
+         */
+        private static FieldAccessor of(final JsonPointer pointer) {
+            final JsonKey root = pointer.getRoot().orElse(null);
+            final int levelCount = pointer.getLevelCount();
+            if (ATTRIBUTES.equals(root) && 1 < levelCount) {
+                final JsonPointer attributePointer = pointer.nextLevel();
+                return new FieldAccessor(FIELD_COST) {
+                    @Nullable
+                    @Override
+                    JsonValue get(final ThingFields thingFields) {
+                        return thingFields.thing.getAttributes()
+                                .flatMap(attributes -> attributes.getValue(attributePointer))
+                                .orElse(null);
+                    }
+                };
+            } else if (FEATURES.equals(root) && 3 < levelCount &&
+                    pointer.get(2).filter(PROPERTIES::equals).isPresent()) {
+                final String featureId = pointer.get(1).map(JsonKey::toString).orElseThrow(IllegalStateException::new);
+                final JsonPointer propertyPointer = pointer.getSubPointer(3).orElseThrow(IllegalStateException::new);
+                return new FieldAccessor(FIELD_COST) {
+                    @Nullable
+                    @Override
+                    JsonValue get(final ThingFields thingFields) {
+                        return thingFields.thing.getFeatures()
+                                .flatMap(features -> features.getFeature(featureId))
+                                .flatMap(feature -> feature.getProperty(propertyPointer))
+                                .orElse(null);
+                    }
+                };
+            } else if (THING_ID.equals(pointer)) {
+                return new FieldAccessor(FIELD_COST) {
+                    @Nullable
+                    @Override
+                    JsonValue get(final ThingFields thingFields) {
+                        return thingFields.thing.getId().map(JsonValue::of).orElse(null);
+                    }
+                };
+            } else {
+                return new FieldAccessor(FULL_JSON_COST) {
+                    @Nullable
+                    @Override
+                    JsonValue get(final ThingFields thingFields) {
+                        return thingFields.getFullJson().getValue(pointer).orElse(null);
+                    }
+                };
+            }
+        }
+
+        /**
+         * Returns the value of the field.
+         *
+         * @param thingFields the Thing.
+         * @return the value or {@code null} if the field is absent.
+         */
+        @Nullable
+        abstract JsonValue get(ThingFields thingFields);
+
+        private int getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Predicate on the value of a field which is {@code null} if the field is absent.
+     */
+    @Immutable
+    private abstract static class ValuePredicate {
+
+        private final int cost;
+
+        private ValuePredicate(final int cost) {
+            this.cost = cost;
+        }
+
+        abstract boolean test(@Nullable JsonValue value);
+
+        private int getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Converts constants once like {@link ThingPredicatePredicateVisitor} does for every evaluation.
+     */
+    private static final class ValuePredicateVisitor implements PredicateVisitor<ValuePredicate> {
+
+        private static final ValuePredicateVisitor INSTANCE = new ValuePredicateVisitor();
+
+        @Override
+        public ValuePredicate visitEq(@Nullable final Object value) {
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return isEqual(value, jsonValue);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitNe(@Nullable final Object value) {
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return !isEqual(value, jsonValue);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitGe(final Object value) {
+            final ComparableConstant constant = ComparableConstant.of(value);
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return constant.matches(jsonValue, result -> result >= 0);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitGt(final Object value) {
+            final ComparableConstant constant = ComparableConstant.of(value);
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return constant.matches(jsonValue, result -> result > 0);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitLe(final Object value) {
+            final ComparableConstant constant = ComparableConstant.of(value);
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return constant.matches(jsonValue, result -> result <= 0);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitLt(final Object value) {
+            final ComparableConstant constant = ComparableConstant.of(value);
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return constant.matches(jsonValue, result -> result < 0);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitIn(final List<?> values) {
+            final Set<?> valueSet = new HashSet<>(values);
+            return new ValuePredicate(FIELD_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    final Object javaValue = mapJsonValueToJava(jsonValue);
+                    return null != javaValue && valueSet.contains(javaValue);
+                }
+            };
+        }
+
+        @Override
+        public ValuePredicate visitLike(final String value) {
+            final Pattern pattern = Pattern.compile(value);
+            return new ValuePredicate(LIKE_COST) {
+                @Override
+                boolean test(@Nullable final JsonValue jsonValue) {
+                    return null != jsonValue && jsonValue.isString() &&
+                            pattern.matcher(jsonValue.asString()).matches();
+                }
+            };
+        }
+
+        private static boolean isEqual(@Nullable final Object value, @Nullable final JsonValue jsonValue) {
+            final Object javaValue = mapJsonValueToJava(jsonValue);
+            return null != javaValue && javaValue.equals(value);
+        }
+
+        /*
+         * Same mapping as ThingPredicatePredicateVisitor#mapJsonValueToJava.
+         */
+        @Nullable
+        private static Object mapJsonValueToJava(@Nullable final JsonValue jsonValue) {
+            final Object result;
+            if (null == jsonValue) {
+                result = null;
+            } else if (jsonValue.isString()) {
+                result = jsonValue.asString();
+            } else if (jsonValue.isBoolean()) {
+                result = jsonValue.asBoolean();
+            } else if (jsonValue.isNumber()) {
+                if (jsonValue.isLong()) {
+                    result = jsonValue.asLong();
+                } else {
+                    result = jsonValue.asDouble();
+                }
+            } else {
+                result = null; // filtering null, arrays and objects is not supported
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The constant of a comparison with the conversions of {@code ThingPredicatePredicateVisitor#compare} applied
+     * in advance.
+     */
+    @Immutable
+    private static final class ComparableConstant {
+
+        @Nullable private final Comparable<?> comparable;
+        @Nullable private final BigDecimal parsedString;
+
+        private ComparableConstant(@Nullable final Comparable<?> comparable, @Nullable final BigDecimal parsedString) {
+            this.comparable = comparable;
+            this.parsedString = parsedString;
+        }
+
+        private static ComparableConstant of(@Nullable final Object value) {
+            if (!(value instanceof Comparable)) {
+                return new ComparableConstant(null, null);
+            }
+            final Comparable<?> comparable = asNumber((Comparable<?>) value);
+            BigDecimal parsedString = null;
+            if (comparable instanceof String) {
+                try {
+                    parsedString = new BigDecimal((String) comparable);
+                } catch (final NumberFormatException e) {
+                    // the string is compared as string
+                }
+            }
+            return new ComparableConstant(comparable, parsedString);
+        }
+
+        /**
+         * Compares the value of a field with this constant.
+         *
+         * @param jsonValue the value of the field or {@code null} if it is absent.
+         * @param resultPredicate the predicate on the result of comparing the field value to this constant.
+         * @return whether the field value is comparable to this constant and the result satisfies the predicate.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private boolean matches(@Nullable final JsonValue jsonValue, final IntPredicate resultPredicate) {
+            final Object javaValue = ValuePredicateVisitor.mapJsonValueToJava(jsonValue);
+            if (null == comparable || !(javaValue instanceof Comparable)) {
+                return false;
+            }
+            final Comparable comparableObj = asNumber((Comparable<?>) javaValue);
+            if (null != parsedString && comparableObj instanceof BigDecimal) {
+                return resultPredicate.test(comparableObj.compareTo(parsedString));
+            } else if (comparable instanceof BigDecimal && comparableObj instanceof String) {
+                try {
+                    final BigDecimal parsedObj = new BigDecimal((String) comparableObj);
+                    return resultPredicate.test(parsedObj.compareTo((BigDecimal) comparable));
+                } catch (final NumberFormatException e) {
+                    // continue trying
+                }
+            }
+
+            if (comparable.getClass().equals(comparableObj.getClass())) {
+                // only compare same classes:
+                return resultPredicate.test(comparableObj.compareTo(comparable));
+            } else {
+                // as a fallback, for different types, compare by their string representation:
+                return resultPredicate.test(comparableObj.toString().compareTo(comparable.toString()));
+            }
+        }
+
+        private static Comparable<?> asNumber(final Comparable<?> comparable) {
+            return comparable instanceof Number ? new BigDecimal(comparable.toString()) : comparable;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.query.things;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mutabilitydetector.unittesting.AllowedReason.provided;
+import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
+import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
+import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
+import org.eclipse.ditto.model.things.FeatureProperties;
+import org.eclipse.ditto.model.things.Thing;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CompiledThingPredicate} and {@link ThingPredicateCache}.
+ */
+public final class CompiledThingPredicateTest {
+
+    private static final QueryFilterCriteriaFactory queryFilterCriteriaFactory =
+            new QueryFilterCriteriaFactory(new CriteriaFactoryImpl(), new ModelBasedThingsFieldExpressionFactory());
+
+    private static final List<Thing> THINGS = Arrays.asList(
+            Thing.newBuilder().setId("org.eclipse.ditto:thing1")
+                    .setAttribute(JsonPointer.of("anInteger"), JsonValue.of(42))
+                    .setAttribute(JsonPointer.of("aDouble"), JsonValue.of(22.26))
+                    .setAttribute(JsonPointer.of("aString"), JsonValue.of("ccc_string"))
+                    .setAttribute(JsonPointer.of("aNumericString"), JsonValue.of("17"))
+                    .setAttribute(JsonPointer.of("aBoolean"), JsonValue.of(true))
+                    .setAttribute(JsonPointer.of("nested/value"), JsonValue.of(3))
+                    .setFeature("foo", FeatureProperties.newBuilder()
+                            .set(JsonPointer.of("temperature"), JsonValue.of(21.5))
+                            .set(JsonPointer.of("unit"), JsonValue.of("celsius"))
+                            .build())
+                    .build(),
+            Thing.newBuilder().setId("org.eclipse.ditto:thing2")
+                    .setAttribute(JsonPointer.of("anInteger"), JsonValue.of(21))
+                    .setAttribute(JsonPointer.of("aDouble"), JsonValue.of(44.52))
+                    .setAttribute(JsonPointer.of("aString"), JsonValue.of("aaa_string"))
+                    .setAttribute(JsonPointer.of("aNumericString"), JsonValue.of("abc"))
+                    .setAttribute(JsonPointer.of("aBoolean"), JsonValue.of(false))
+                    .setFeature("bar", FeatureProperties.newBuilder()
+                            .set(JsonPointer.of("temperature"), JsonValue.of(-3))
+                            .build())
+                    .build(),
+            Thing.newBuilder().setId("com.acme:thing3").build());
+
+    private static final List<String> FILTERS = Arrays.asList(
+            "eq(thingId,\"org.eclipse.ditto:thing1\")",
+            "ne(thingId,\"org.eclipse.ditto:thing1\")",
+            "eq(attributes/anInteger,42)",
+            "eq(attributes/anInteger,42.0)",
+            "ne(attributes/anInteger,42)",
+            "gt(attributes/anInteger,30)",
+            "ge(attributes/anInteger,21)",
+            "lt(attributes/aDouble,30.5)",
+            "le(attributes/aDouble,44.52)",
+            "gt(attributes/aString,\"bbb\")",
+            "gt(attributes/aNumericString,10)",
+            "lt(attributes/anInteger,\"30\")",
+            "gt(attributes/aBoolean,false)",
+            "in(attributes/aString,\"ccc_string\",\"ddd_string\")",
+            "in(attributes/anInteger,1,21)",
+            "like(attributes/aString,\"c*\")",
+            "like(attributes/aString,\"*a_str*\")",
+            "eq(attributes/aBoolean,true)",
+            "eq(attributes/nested/value,3)",
+            "exists(attributes/nested)",
+            "exists(attributes/missing)",
+            "exists(features/foo)",
+            "exists(features/foo/properties/unit)",
+            "exists(features/*/properties/temperature)",
+            "eq(features/foo/properties/unit,\"celsius\")",
+            "gt(features/bar/properties/temperature,-5)",
+            "exists(thingId)",
+            "eq(_namespace,\"org.eclipse.ditto\")",
+            "exists(_namespace)",
+            "and(exists(attributes/anInteger),like(attributes/aString,\"*string\"),gt(attributes/anInteger,30))",
+            "or(eq(attributes/anInteger,21),exists(features/foo),eq(thingId,\"com.acme:thing3\"))",
+            "not(or(eq(attributes/anInteger,21),exists(features/foo)))",
+            "and(or(gt(attributes/aDouble,40),lt(attributes/aDouble,25)),not(eq(attributes/aBoolean,false)))");
+
+    @Test
+    public void assertImmutability() {
+        assertInstancesOf(CompiledThingPredicate.class,
+                areImmutable(),
+                provided(ThingPredicateCompiler.Node.class).isAlsoImmutable());
+    }
+
+    @Test
+    public void evaluatesLikeThingPredicateVisitor() {
+        for (final String filter : FILTERS) {
+            final Criteria criteria = queryFilterCriteriaFactory.filterCriteria(filter, DittoHeaders.empty());
+            final CompiledThingPredicate underTest = CompiledThingPredicate.of(criteria);
+            for (final Thing thing : THINGS) {
+                assertThat(underTest.test(thing))
+                        .as("Filtering <%s> with '%s'", thing.getId().orElse(null), filter)
+                        .isEqualTo(ThingPredicateVisitor.apply(criteria).test(thing));
+            }
+        }
+    }
+
+    @Test
+    public void cacheReturnsSamePredicateForSameFilter() {
+        final ThingPredicateCache underTest = ThingPredicateCache.newInstance(10);
+        final String filter = "gt(attributes/anInteger,30)";
+
+        final Predicate<Thing> predicate = underTest.getPredicate(filter, DittoHeaders.empty());
+
+        assertThat(underTest.getPredicate(filter, DittoHeaders.empty())).isSameAs(predicate);
+        assertThat(predicate.test(THINGS.get(0))).isTrue();
+        assertThat(predicate.test(THINGS.get(1))).isFalse();
+    }
+
+    @Test
+    public void cacheEvictsEntriesWhenFull() {
+        final ThingPredicateCache underTest = ThingPredicateCache.newInstance(1);
+        final Predicate<Thing> predicate = underTest.getPredicate("exists(features/foo)", DittoHeaders.empty());
+
+        underTest.getPredicate("exists(features/bar)", DittoHeaders.empty());
+
+        assertThat(underTest.getPredicate("exists(features/foo)", DittoHeaders.empty())).isNotSameAs(predicate);
+    }
+
+    @Test
+    public void cacheThrowsExceptionForInvalidFilter() {
+        final ThingPredicateCache underTest = ThingPredicateCache.newInstance(10);
+
+        assertThatExceptionOfType(InvalidRqlExpressionException.class)
+                .isThrownBy(() -> underTest.getPredicate("eq(attributes/a", DittoHeaders.empty()));
+    }
+
+}
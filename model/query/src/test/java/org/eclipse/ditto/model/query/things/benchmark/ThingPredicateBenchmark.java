@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.query.things.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
+import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
+import org.eclipse.ditto.model.query.things.CompiledThingPredicate;
+import org.eclipse.ditto.model.query.things.ModelBasedThingsFieldExpressionFactory;
+import org.eclipse.ditto.model.query.things.ThingPredicateCache;
+import org.eclipse.ditto.model.query.things.ThingPredicateVisitor;
+import org.eclipse.ditto.model.things.FeatureProperties;
+import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.model.things.ThingBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks evaluating RQL filters on Things by visiting the criteria, by parsing and visiting the filter string for
+ * every Thing, by a compiled predicate and by a cached compiled predicate.
+ */
+@State(Scope.Benchmark)
+public class ThingPredicateBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final int FEATURE_COUNT = 20;
+
+    @Param({"eq(attributes/manufacturer,\"ACME\")",
+            "and(exists(features/feature3),gt(features/feature3/properties/temperature,20)," +
+                    "like(attributes/location,\"Bldg*\"))",
+            "or(eq(attributes/manufacturer,\"Foo\"),in(attributes/serial,\"a\",\"b\",\"c\"),not(exists(features/x)))"})
+    public String filter;
+
+    private QueryFilterCriteriaFactory queryFilterCriteriaFactory;
+    private ThingPredicateCache thingPredicateCache;
+    private Criteria criteria;
+    private CompiledThingPredicate compiledThingPredicate;
+    private Thing thing;
+
+    @Setup
+    public void setup() {
+        queryFilterCriteriaFactory =
+                new QueryFilterCriteriaFactory(new CriteriaFactoryImpl(), new ModelBasedThingsFieldExpressionFactory());
+        thingPredicateCache = ThingPredicateCache.newInstance(queryFilterCriteriaFactory, 100);
+        criteria = queryFilterCriteriaFactory.filterCriteria(filter, DittoHeaders.empty());
+        compiledThingPredicate = CompiledThingPredicate.of(criteria);
+        thing = createThing();
+    }
+
+    /**
+     * The current evaluation of stream filters, which parse the filter once and visit the criteria for each Thing.
+     */
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean visitCriteria() {
+        return ThingPredicateVisitor.apply(criteria).test(thing);
+    }
+
+    /**
+     * The current evaluation of connection target filters, which parse the filter for each Thing.
+     */
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean parseAndVisitCriteria() {
+        return ThingPredicateVisitor.apply(queryFilterCriteriaFactory.filterCriteria(filter, DittoHeaders.empty()))
+                .test(thing);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean compiledPredicate() {
+        return compiledThingPredicate.test(thing);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public boolean cachedPredicate() {
+        return thingPredicateCache.getPredicate(filter, DittoHeaders.empty()).test(thing);
+    }
+
+    private static Thing createThing() {
+        ThingBuilder.FromScratch thingBuilder = Thing.newBuilder()
+                .setId("org.eclipse.ditto:benchmark")
+                .setAttribute(JsonPointer.of("manufacturer"), JsonValue.of("ACME"))
+                .setAttribute(JsonPointer.of("location"), JsonValue.of("Bldg 7, Room 42"))
+                .setAttribute(JsonPointer.of("serial"), JsonValue.of("c"));
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            thingBuilder = thingBuilder.setFeature("feature" + i, FeatureProperties.newBuilder()
+                    .set(JsonPointer.of("temperature"), JsonValue.of(15 + i))
+                    .set(JsonPointer.of("unit"), JsonValue.of("celsius"))
+                    .build());
+        }
+        return thingBuilder.build();
+    }
+
+}
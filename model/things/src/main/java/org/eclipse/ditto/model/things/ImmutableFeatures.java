@@ -16,7 +16,6 @@ import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -233,7 +232,8 @@ final class ImmutableFeatures implements Features {
 
     @Override
     public Iterator<Feature> iterator() {
-        return new HashSet<>(features.values()).iterator();
+        // the view prevents removal without hashing each feature like copying the features to a set would do
+        return Collections.unmodifiableCollection(features.values()).iterator();
     }
 
     @Override
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.model.things.benchmark;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.model.things.ThingsModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmark for applying feature property modifications to a Thing the way the event strategies of the Things
+ * persistence do, i. e. via {@link Thing#toBuilder()}, and directly via {@link Thing#setFeatureProperty}.
+ * Each invocation modifies another property of the Thing resulting from the previous invocation like a sequence of
+ * {@code FeaturePropertyModified} events does.
+ * <p>
+ * Run this benchmark on the commit before the introduction of the persistent field map of {@code ImmutableJsonObject}
+ * to get the numbers for copying all properties on each modification.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class ThingEventApplicationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final String THING_ID = "org.eclipse.ditto.benchmark:myThing";
+    private static final String FEATURE_ID = "sensors";
+
+    @Param({"10", "1000", "10000"})
+    public int numberOfProperties;
+
+    private JsonPointer[] propertyPointers;
+    private Thing thing;
+    private long revision;
+
+    @Setup
+    public void setUp() {
+        propertyPointers = new JsonPointer[numberOfProperties];
+        final JsonObjectBuilder properties = JsonFactory.newObjectBuilder();
+        for (int i = 0; i < numberOfProperties; i++) {
+            final String group = "group" + (i % 10);
+            propertyPointers[i] = JsonPointer.of(group + "/sensor" + i + "/value");
+            properties.set(propertyPointers[i], JsonValue.of(i));
+            properties.set(JsonPointer.of(group + "/sensor" + i + "/unit"), JsonValue.of("°C"));
+        }
+        thing = Thing.newBuilder()
+                .setId(THING_ID)
+                .setPolicyId(THING_ID)
+                .setFeature(ThingsModelFactory.newFeature(FEATURE_ID,
+                        ThingsModelFactory.newFeatureProperties(properties.build())))
+                .setRevision(0L)
+                .build();
+        revision = 0L;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Thing applyFeaturePropertyModifiedWithCopyBuilder() {
+        revision++;
+        thing = thing.toBuilder()
+                .setFeatureProperty(FEATURE_ID, nextPropertyPointer(), JsonValue.of(revision))
+                .setRevision(revision)
+                .setModified(Instant.EPOCH)
+                .build();
+        return thing;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Thing applyFeaturePropertyModifiedToThing() {
+        revision++;
+        thing = thing.setFeatureProperty(FEATURE_ID, nextPropertyPointer(), JsonValue.of(revision));
+        return thing;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Thing applyFeaturePropertyDeletedAndModifiedWithCopyBuilder() {
+        revision++;
+        final JsonPointer propertyPointer = nextPropertyPointer();
+        thing = thing.toBuilder()
+                .removeFeatureProperty(FEATURE_ID, propertyPointer)
+                .setFeatureProperty(FEATURE_ID, propertyPointer, JsonValue.of(revision))
+                .setRevision(revision)
+                .build();
+        return thing;
+    }
+
+    private JsonPointer nextPropertyPointer() {
+        return propertyPointers[(int) (revision % numberOfProperties)];
+    }
+
+}
@@ -17,12 +17,12 @@ import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
 
 import org.eclipse.ditto.json.JsonArray;
 import org.eclipse.ditto.json.JsonFieldSelector;
+import org.eclipse.ditto.json.JsonKey;
 import org.eclipse.ditto.json.JsonParseException;
 import org.eclipse.ditto.json.JsonPointer;
 import org.eclipse.ditto.json.JsonValue;
@@ -319,31 +319,30 @@ abstract class AbstractAdapter<T extends Jsonifiable> implements Adapter<T> {
 
     /**
      * Utility class for matching {@link Payload} path.
+     * <p>
+     * The known schemes are compiled into a trie over the levels of a path; a path is matched by walking it once from
+     * the root. A level is looked up by its key first and falls back to the wildcard child which matches any key. If
+     * the path leaves the trie or ends at a level without a scheme, the nearest ancestor level which matches any
+     * number of further levels (like {@code /attributes/.*}) determines the entity name.
+     * </p>
      */
     static final class PathMatcher {
 
-        static final Map<String, Pattern> PATTERNS = new HashMap<>();
-
-        static {
-            PATTERNS.put("thing", Pattern.compile("^/$"));
-            PATTERNS.put("acl", Pattern.compile("^/acl$"));
-            PATTERNS.put("aclEntry", Pattern.compile("^/acl/[^/]*$"));
-            PATTERNS.put("policyId", Pattern.compile("^/policyId$"));
-            PATTERNS.put("policy", Pattern.compile("^/_policy"));
-            PATTERNS.put("policyEntries", Pattern.compile("^/_policy/entries$"));
-            PATTERNS.put("policyEntry", Pattern.compile("^/_policy/entries/.*$"));
-            PATTERNS.put("policyEntrySubjects", Pattern.compile("^/_policy/entries/[^/]*/subjects$"));
-            PATTERNS.put("policyEntrySubject", Pattern.compile("^/_policy/entries/[^/]*/subjects/.*$"));
-            PATTERNS.put("policyEntryResources", Pattern.compile("^/_policy/entries/[^/]*/resources$"));
-            PATTERNS.put("policyEntryResource", Pattern.compile("^/_policy/entries/[^/]*/resources/.*$"));
-            PATTERNS.put("attributes", Pattern.compile("^/attributes$"));
-            PATTERNS.put("attribute", Pattern.compile("^/attributes/.*$"));
-            PATTERNS.put("features", Pattern.compile("^/features$"));
-            PATTERNS.put("feature", Pattern.compile("^/features/[^/]*$"));
-            PATTERNS.put("featureDefinition", Pattern.compile("^/features/[^/]*/definition$"));
-            PATTERNS.put("featureProperties", Pattern.compile("^/features/[^/]*/properties$"));
-            PATTERNS.put("featureProperty", Pattern.compile("^/features/[^/]*/properties/.*$"));
-        }
+        private static final PathNode ROOT = new PathNode("thing", null)
+                .child("acl", new PathNode("acl", null)
+                        .wildcard(new PathNode("aclEntry", null)))
+                .child("policyId", new PathNode("policyId", null))
+                .child("_policy", new PathNode("policy", null)
+                        .child("entries", new PathNode("policyEntries", "policyEntry")
+                                .wildcard(new PathNode("policyEntry", null)
+                                        .child("subjects", new PathNode("policyEntrySubjects", "policyEntrySubject"))
+                                        .child("resources",
+                                                new PathNode("policyEntryResources", "policyEntryResource")))))
+                .child("attributes", new PathNode("attributes", "attribute"))
+                .child("features", new PathNode("features", null)
+                        .wildcard(new PathNode("feature", null)
+                                .child("definition", new PathNode("featureDefinition", null))
+                                .child("properties", new PathNode("featureProperties", "featureProperty"))));
 
         private PathMatcher() {
             throw new AssertionError();
@@ -357,18 +356,63 @@ abstract class AbstractAdapter<T extends Jsonifiable> implements Adapter<T> {
          * @throws UnknownPathException if {@code path} matched no known scheme.
          */
         static String match(final JsonPointer path) {
-            final Predicate<Map.Entry<String, Pattern>> pathMatchesPattern = entry -> {
-                final Pattern pattern = entry.getValue();
-                final Matcher matcher = pattern.matcher(path);
-                return matcher.matches();
-            };
-
-            return PATTERNS.entrySet()
-                    .stream()
-                    .filter(pathMatchesPattern)
-                    .findFirst()
-                    .map(Map.Entry::getKey)
-                    .orElseThrow(() -> UnknownPathException.newBuilder(path).build());
+            PathNode node = ROOT;
+            String descendantsName = null;
+            for (final JsonKey key : path) {
+                if (null != node.descendantsName) {
+                    descendantsName = node.descendantsName;
+                }
+                node = node.getChild(key.toString());
+                if (null == node) {
+                    break;
+                }
+            }
+
+            final String name = null != node && null != node.name ? node.name : descendantsName;
+            if (null == name) {
+                throw UnknownPathException.newBuilder(path).build();
+            }
+            return name;
+        }
+
+    }
+
+    /**
+     * A level of the trie of {@link PathMatcher}. The trie is built once and not modified afterwards.
+     */
+    private static final class PathNode {
+
+        @Nullable private final String name;
+        @Nullable private final String descendantsName;
+        private final Map<String, PathNode> children;
+        @Nullable private PathNode wildcardChild;
+
+        /**
+         * @param name the entity name of a path ending at this level or {@code null} if no scheme ends here.
+         * @param descendantsName the entity name of a path continuing below this level where no more specific scheme
+         * matches or {@code null}.
+         */
+        private PathNode(@Nullable final String name, @Nullable final String descendantsName) {
+            this.name = name;
+            this.descendantsName = descendantsName;
+            children = new HashMap<>();
+            wildcardChild = null;
+        }
+
+        private PathNode child(final String key, final PathNode child) {
+            children.put(key, child);
+            return this;
+        }
+
+        private PathNode wildcard(final PathNode child) {
+            wildcardChild = child;
+            return this;
+        }
+
+        @Nullable
+        private PathNode getChild(final String key) {
+            final PathNode child = children.get(key);
+            return null != child ? child : wildcardChild;
         }
 
     }
@@ -12,7 +12,6 @@
  */
 package org.eclipse.ditto.protocoladapter;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +27,7 @@ import org.eclipse.ditto.model.base.headers.DittoHeaders;
  */
 public final class ProtocolFactory {
 
+    private static final int TOPIC_PATH_CRITERION_LEVEL = 4;
 
     private ProtocolFactory() {
         throw new AssertionError();
@@ -85,45 +85,65 @@ public final class ProtocolFactory {
      * @throws NullPointerException if {@code path} is {@code null}.
      * @throws UnknownTopicPathException if {@code path} is no valid {@code TopicPath}.
      */
-    @SuppressWarnings({"squid:S1166"})
     public static TopicPath newTopicPath(final String path) {
-        final String[] parts = path.split("/");
+        final String[] parts = new String[TOPIC_PATH_CRITERION_LEVEL + 1];
+        int segmentStart = 0;
+        for (int level = 0; level < parts.length; level++) {
+            if (segmentStart > path.length()) {
+                throw UnknownTopicPathException.newBuilder(path).build();
+            }
+            final int segmentEnd = segmentEnd(path, segmentStart);
+            parts[level] = path.substring(segmentStart, segmentEnd);
+            segmentStart = segmentEnd + 1;
+        }
+        final boolean hasRemainder = segmentStart <= path.length();
 
-        try {
-            final String namespace = parts[0];
-            final String id = parts[1];
-            final TopicPath.Group group =
-                    TopicPath.Group.forName(parts[2])
-                            .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
-            final TopicPath.Channel channel =
-                    TopicPath.Channel.forName(parts[3])
-                            .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
-            final TopicPath.Criterion criterion =
-                    TopicPath.Criterion.forName(parts[4])
-                            .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
+        final String namespace = parts[0];
+        final String id = parts[1];
+        final TopicPath.Group group =
+                TopicPath.Group.forName(parts[2])
+                        .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
+        final TopicPath.Channel channel =
+                TopicPath.Channel.forName(parts[3])
+                        .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
+        final TopicPath.Criterion criterion =
+                TopicPath.Criterion.forName(parts[TOPIC_PATH_CRITERION_LEVEL])
+                        .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
 
-            switch (criterion) {
-                case COMMANDS:
-                case EVENTS:
-                    // commands and events Path always contain an ID:
-                    final TopicPath.Action action =
-                            TopicPath.Action.forName(parts[5])
-                                    .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
-                    return ImmutableTopicPath.of(namespace, id, group, channel, criterion, action);
-                case ERRORS:
-                    // errors Path does neither contain an "action":
-                    return ImmutableTopicPath.of(namespace, id, group, channel, criterion);
-                case MESSAGES:
-                    // messages Path always contain a subject:
-                    final String[] subjectParts = Arrays.copyOfRange(parts, 5, parts.length);
-                    final String subject = String.join("/", (CharSequence[]) subjectParts);
-                    return ImmutableTopicPath.of(namespace, id, group, channel, criterion, subject);
-                default:
+        switch (criterion) {
+            case COMMANDS:
+            case EVENTS:
+                // commands and events Path always contain an ID:
+                if (!hasRemainder) {
                     throw UnknownTopicPathException.newBuilder(path).build();
-            }
-        } catch (final ArrayIndexOutOfBoundsException e) {
-            throw UnknownTopicPathException.newBuilder(path).build();
+                }
+                final TopicPath.Action action =
+                        TopicPath.Action.forName(path.substring(segmentStart, segmentEnd(path, segmentStart)))
+                                .orElseThrow(() -> UnknownTopicPathException.newBuilder(path).build());
+                return ImmutableTopicPath.of(namespace, id, group, channel, criterion, action);
+            case ERRORS:
+                // errors Path does neither contain an "action":
+                return ImmutableTopicPath.of(namespace, id, group, channel, criterion);
+            case MESSAGES:
+                // messages Path always contain a subject:
+                final String subject = hasRemainder ? stripTrailingSlashes(path.substring(segmentStart)) : "";
+                return ImmutableTopicPath.of(namespace, id, group, channel, criterion, subject);
+            default:
+                throw UnknownTopicPathException.newBuilder(path).build();
+        }
+    }
+
+    private static int segmentEnd(final String path, final int segmentStart) {
+        final int slashIndex = path.indexOf('/', segmentStart);
+        return slashIndex < 0 ? path.length() : slashIndex;
+    }
+
+    private static String stripTrailingSlashes(final String s) {
+        int end = s.length();
+        while (end > 0 && s.charAt(end - 1) == '/') {
+            end--;
         }
+        return s.substring(0, end);
     }
 
     /**
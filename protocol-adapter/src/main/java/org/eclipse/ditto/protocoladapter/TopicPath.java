@@ -14,7 +14,6 @@ package org.eclipse.ditto.protocoladapter;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 /**
  * Represents the path of a topic for the Ditto Protocol.
@@ -132,9 +131,12 @@ public interface TopicPath {
          * @return the optional Group.
          */
         public static Optional<Group> forName(final String name) {
-            return Stream.of(values()) //
-                    .filter(a -> Objects.equals(a.getName(), name)) //
-                    .findFirst();
+            for (final Group value : values()) {
+                if (Objects.equals(value.getName(), name)) {
+                    return Optional.of(value);
+                }
+            }
+            return Optional.empty();
         }
 
         /**
@@ -181,9 +183,12 @@ public interface TopicPath {
          * @return the optional Criterion.
          */
         public static Optional<Criterion> forName(final String name) {
-            return Stream.of(values()) //
-                    .filter(a -> Objects.equals(a.getName(), name)) //
-                    .findFirst();
+            for (final Criterion value : values()) {
+                if (Objects.equals(value.getName(), name)) {
+                    return Optional.of(value);
+                }
+            }
+            return Optional.empty();
         }
 
         /**
@@ -224,9 +229,12 @@ public interface TopicPath {
          * @return the optional Channel.
          */
         public static Optional<Channel> forName(final String name) {
-            return Stream.of(values()) //
-                    .filter(a -> Objects.equals(a.getName(), name)) //
-                    .findFirst();
+            for (final Channel value : values()) {
+                if (Objects.equals(value.getName(), name)) {
+                    return Optional.of(value);
+                }
+            }
+            return Optional.empty();
         }
 
         /**
@@ -278,9 +286,12 @@ public interface TopicPath {
          * @return the optional Action.
          */
         public static Optional<Action> forName(final String name) {
-            return Stream.of(values()) //
-                    .filter(a -> Objects.equals(a.getName(), name)) //
-                    .findFirst();
+            for (final Action value : values()) {
+                if (Objects.equals(value.getName(), name)) {
+                    return Optional.of(value);
+                }
+            }
+            return Optional.empty();
         }
 
         /**
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.protocoladapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.eclipse.ditto.json.JsonPointer;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AbstractAdapter.PathMatcher}.
+ */
+public final class PathMatcherTest {
+
+    /** */
+    @Test
+    public void matchesThingPaths() {
+        assertMatch("/", "thing");
+        assertMatch("/acl", "acl");
+        assertMatch("/acl/user", "aclEntry");
+        assertMatch("/policyId", "policyId");
+        assertMatch("/attributes", "attributes");
+        assertMatch("/attributes/location", "attribute");
+        assertMatch("/attributes/location/latitude", "attribute");
+        assertMatch("/features", "features");
+        assertMatch("/features/features", "feature");
+        assertMatch("/features/lamp/definition", "featureDefinition");
+        assertMatch("/features/lamp/properties", "featureProperties");
+        assertMatch("/features/lamp/properties/on", "featureProperty");
+        assertMatch("/features/properties/properties/definition/x", "featureProperty");
+    }
+
+    /** */
+    @Test
+    public void matchesInlinePolicyPaths() {
+        assertMatch("/_policy", "policy");
+        assertMatch("/_policy/entries", "policyEntries");
+        assertMatch("/_policy/entries/owner", "policyEntry");
+        assertMatch("/_policy/entries/owner/subjects", "policyEntrySubjects");
+        assertMatch("/_policy/entries/owner/subjects/google:user", "policyEntrySubject");
+        assertMatch("/_policy/entries/owner/resources", "policyEntryResources");
+        assertMatch("/_policy/entries/owner/resources/thing:~1features", "policyEntryResource");
+        assertMatch("/_policy/entries/owner/other", "policyEntry");
+    }
+
+    /** */
+    @Test
+    public void unknownPathsAreRejected() {
+        assertUnknown("/unknown");
+        assertUnknown("/acl/user/extra");
+        assertUnknown("/policyId/extra");
+        assertUnknown("/_policy/unknown");
+        assertUnknown("/features/lamp/unknown");
+        assertUnknown("/features/lamp/definition/extra");
+    }
+
+    private static void assertMatch(final String path, final String expectedName) {
+        assertThat(AbstractAdapter.PathMatcher.match(JsonPointer.of(path))).as(path).isEqualTo(expectedName);
+    }
+
+    private static void assertUnknown(final String path) {
+        assertThatExceptionOfType(UnknownPathException.class)
+                .as(path)
+                .isThrownBy(() -> AbstractAdapter.PathMatcher.match(JsonPointer.of(path)));
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.protocoladapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ProtocolFactory}.
+ */
+public final class ProtocolFactoryTest {
+
+    /** */
+    @Test
+    public void parseCommandsTopicPath() {
+        final TopicPath topicPath =
+                ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things/twin/commands/modify");
+
+        assertThat(topicPath).isEqualTo(ImmutableTopicPath.of("org.eclipse.ditto.test", "myThing",
+                TopicPath.Group.THINGS, TopicPath.Channel.TWIN, TopicPath.Criterion.COMMANDS,
+                TopicPath.Action.MODIFY));
+    }
+
+    /** */
+    @Test
+    public void parseErrorsTopicPath() {
+        final TopicPath topicPath = ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things/live/errors");
+
+        assertThat(topicPath).isEqualTo(ImmutableTopicPath.of("org.eclipse.ditto.test", "myThing",
+                TopicPath.Group.THINGS, TopicPath.Channel.LIVE, TopicPath.Criterion.ERRORS));
+    }
+
+    /** */
+    @Test
+    public void parseMessagesTopicPathWithSlashesInSubject() {
+        final TopicPath topicPath =
+                ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things/live/messages/a/b//c/");
+
+        assertThat(topicPath.getSubject()).contains("a/b//c");
+    }
+
+    /** */
+    @Test
+    public void parseMessagesTopicPathWithoutSubject() {
+        final TopicPath topicPath =
+                ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things/live/messages");
+
+        assertThat(topicPath.getSubject()).contains("");
+    }
+
+    /** */
+    @Test
+    public void commandsTopicPathWithoutActionIsRejected() {
+        assertThatExceptionOfType(UnknownTopicPathException.class)
+                .isThrownBy(() -> ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things/twin/commands"));
+    }
+
+    /** */
+    @Test
+    public void incompleteTopicPathIsRejected() {
+        assertThatExceptionOfType(UnknownTopicPathException.class)
+                .isThrownBy(() -> ProtocolFactory.newTopicPath("org.eclipse.ditto.test/myThing/things"));
+    }
+
+    /** */
+    @Test
+    public void unknownActionIsRejected() {
+        assertThatExceptionOfType(UnknownTopicPathException.class)
+                .isThrownBy(() -> ProtocolFactory.newTopicPath(
+                        "org.eclipse.ditto.test/myThing/things/twin/commands/unknown"));
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.protocoladapter.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.protocoladapter.Adaptable;
+import org.eclipse.ditto.protocoladapter.DittoProtocolAdapter;
+import org.eclipse.ditto.protocoladapter.ProtocolFactory;
+import org.eclipse.ditto.signals.base.Signal;
+import org.eclipse.ditto.signals.commands.things.modify.ModifyAttribute;
+import org.eclipse.ditto.signals.commands.things.modify.ModifyFeatureProperty;
+import org.eclipse.ditto.signals.commands.things.modify.ModifyFeaturePropertyResponse;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveAttributeResponse;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveFeatureResponse;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThing;
+import org.eclipse.ditto.signals.events.things.AttributeModified;
+import org.eclipse.ditto.signals.events.things.FeaturePropertyModified;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks converting a mix of thing commands, events and command responses from and to {@link Adaptable}s, as the
+ * websocket and connectivity endpoints do for every message.
+ */
+@State(Scope.Benchmark)
+public class DittoProtocolAdapterBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final String THING_ID = "org.eclipse.ditto:benchmark";
+    private static final String FEATURE_ID = "lamp";
+    private static final JsonPointer PROPERTY_POINTER = JsonPointer.of("status/on");
+    private static final JsonPointer ATTRIBUTE_POINTER = JsonPointer.of("location/room");
+
+    private DittoProtocolAdapter protocolAdapter;
+    private List<Signal<?>> signals;
+    private List<Adaptable> adaptables;
+    private List<String> topicPaths;
+
+    @Setup
+    public void setup() {
+        protocolAdapter = DittoProtocolAdapter.newInstance();
+        final DittoHeaders dittoHeaders = DittoHeaders.newBuilder().correlationId("benchmark").build();
+        signals = Arrays.asList(
+                ModifyFeatureProperty.of(THING_ID, FEATURE_ID, PROPERTY_POINTER, JsonValue.of(true), dittoHeaders),
+                ModifyAttribute.of(THING_ID, ATTRIBUTE_POINTER, JsonValue.of("42"), dittoHeaders),
+                RetrieveThing.of(THING_ID, dittoHeaders),
+                FeaturePropertyModified.of(THING_ID, FEATURE_ID, PROPERTY_POINTER, JsonValue.of(false), 7L,
+                        dittoHeaders),
+                AttributeModified.of(THING_ID, ATTRIBUTE_POINTER, JsonValue.of("43"), 8L, dittoHeaders),
+                ModifyFeaturePropertyResponse.modified(THING_ID, FEATURE_ID, PROPERTY_POINTER, dittoHeaders),
+                RetrieveAttributeResponse.of(THING_ID, ATTRIBUTE_POINTER, JsonValue.of("42"), dittoHeaders),
+                RetrieveFeatureResponse.of(THING_ID, FEATURE_ID, JsonFactory.newObjectBuilder()
+                        .set("properties", JsonFactory.newObjectBuilder().set("on", true).build())
+                        .build(), dittoHeaders));
+        adaptables = new ArrayList<>(signals.size());
+        topicPaths = new ArrayList<>(signals.size());
+        for (final Signal<?> signal : signals) {
+            final Adaptable adaptable = protocolAdapter.toAdaptable(signal);
+            adaptables.add(adaptable);
+            topicPaths.add(adaptable.getTopicPath().getPath());
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public void fromAdaptable(final Blackhole blackhole) {
+        for (final Adaptable adaptable : adaptables) {
+            blackhole.consume(protocolAdapter.fromAdaptable(adaptable));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public void toAdaptable(final Blackhole blackhole) {
+        for (final Signal<?> signal : signals) {
+            blackhole.consume(protocolAdapter.toAdaptable(signal));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public void parseTopicPath(final Blackhole blackhole) {
+        for (final String topicPath : topicPaths) {
+            blackhole.consume(ProtocolFactory.newTopicPath(topicPath));
+        }
+    }
+
+}
@@ -55,6 +55,18 @@ public final class AclEnforcerCacheLoader implements AsyncCacheLoader<EntityId,
      * @param thingsShardRegionProxy the shard-region-proxy.
      */
     public AclEnforcerCacheLoader(final Duration askTimeout, final ActorRef thingsShardRegionProxy) {
+        this(askTimeout, thingsShardRegionProxy, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param askTimeout the ask-timeout for communicating with the shard-region-proxy.
+     * @param thingsShardRegionProxy the shard-region-proxy.
+     * @param retriever the retriever to coalesce concurrent loads with, or {@code null} to ask for each load.
+     */
+    public AclEnforcerCacheLoader(final Duration askTimeout, final ActorRef thingsShardRegionProxy,
+            @Nullable final CoalescingRetriever retriever) {
         requireNonNull(askTimeout);
         requireNonNull(thingsShardRegionProxy);
 
@@ -62,8 +74,13 @@ public final class AclEnforcerCacheLoader implements AsyncCacheLoader<EntityId,
         final Function<Object, Entry<Enforcer>> responseTransformer =
                 AclEnforcerCacheLoader::handleSudoRetrieveThingResponse;
 
-        this.delegate = ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, thingsShardRegionProxy,
-                commandCreator, responseTransformer);
+        if (retriever != null) {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, thingsShardRegionProxy,
+                    commandCreator, responseTransformer, retriever);
+        } else {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, thingsShardRegionProxy,
+                    commandCreator, responseTransformer);
+        }
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.eclipse.ditto.services.models.concierge.EntityId;
@@ -54,16 +55,19 @@ public final class ActorAskCacheLoader<V, T> implements AsyncCacheLoader<EntityI
     private final Function<String, ActorRef> entityRegionProvider;
     private final Map<String, Function<String, T>> commandCreatorMap;
     private final Map<String, Function<Object, Entry<V>>> responseTransformerMap;
+    @Nullable private final CoalescingRetriever retriever;
 
     private ActorAskCacheLoader(final Duration askTimeout,
             final Function<String, ActorRef> entityRegionProvider,
             final Map<String, Function<String, T>> commandCreatorMap,
-            final Map<String, Function<Object, Entry<V>>> responseTransformerMap) {
+            final Map<String, Function<Object, Entry<V>>> responseTransformerMap,
+            @Nullable final CoalescingRetriever retriever) {
         this.askTimeoutMillis = requireNonNull(askTimeout).toMillis();
         this.entityRegionProvider = requireNonNull(entityRegionProvider);
         this.commandCreatorMap = Collections.unmodifiableMap(new HashMap<>(requireNonNull(commandCreatorMap)));
         this.responseTransformerMap =
                 Collections.unmodifiableMap(new HashMap<>(requireNonNull(responseTransformerMap)));
+        this.retriever = retriever;
     }
 
     /**
@@ -79,7 +83,8 @@ public final class ActorAskCacheLoader<V, T> implements AsyncCacheLoader<EntityI
             final Function<String, ActorRef> entityRegionProvider,
             final Map<String, Function<String, Command>> commandCreatorMap,
             final Map<String, Function<Object, Entry<V>>> responseTransformerMap) {
-        return new ActorAskCacheLoader<>(askTimeout, entityRegionProvider, commandCreatorMap, responseTransformerMap);
+        return new ActorAskCacheLoader<>(askTimeout, entityRegionProvider, commandCreatorMap, responseTransformerMap,
+                null);
     }
 
     /**
@@ -107,6 +112,35 @@ public final class ActorAskCacheLoader<V, T> implements AsyncCacheLoader<EntityI
                 Collections.singletonMap(resourceType, responseTransformer));
     }
 
+    /**
+     * Constructs an {@link ActorAskCacheLoader} with a sharded entity region which supports a single resource type
+     * and retrieves entities with batches of a {@link CoalescingRetriever}.
+     *
+     * @param askTimeout the ask timeout.
+     * @param resourceType the resource type.
+     * @param entityRegion the entity region.
+     * @param commandCreator function for creating a load-command by an entity id (without resource type).
+     * @param responseTransformer function for mapping a load-response to an {@link Entry}.
+     * @param retriever the retriever to coalesce concurrent loads with.
+     */
+    public static <V> ActorAskCacheLoader<V, Command> forShard(final Duration askTimeout,
+            final String resourceType,
+            final ActorRef entityRegion,
+            final Function<String, Command> commandCreator,
+            final Function<Object, Entry<V>> responseTransformer,
+            final CoalescingRetriever retriever) {
+        requireNonNull(resourceType);
+        requireNonNull(entityRegion);
+        requireNonNull(commandCreator);
+        requireNonNull(responseTransformer);
+        requireNonNull(retriever);
+        return new ActorAskCacheLoader<>(askTimeout,
+                EntityRegionMap.singleton(resourceType, entityRegion),
+                Collections.singletonMap(resourceType, commandCreator),
+                Collections.singletonMap(resourceType, responseTransformer),
+                retriever);
+    }
+
     /**
      * Constructs an {@link ActorAskCacheLoader} with PubSub which supports multiple resource types.
      *
@@ -121,7 +155,7 @@ public final class ActorAskCacheLoader<V, T> implements AsyncCacheLoader<EntityI
             final Map<String, Function<String, DistributedPubSubMediator.Send>> commandCreatorMap,
             final Map<String, Function<Object, Entry<V>>> responseTransformerMap) {
         return new ActorAskCacheLoader<>(askTimeout, (unused) -> pubSubMediator, commandCreatorMap,
-                responseTransformerMap);
+                responseTransformerMap, null);
     }
 
     /**
@@ -161,9 +195,10 @@ public final class ActorAskCacheLoader<V, T> implements AsyncCacheLoader<EntityI
         }, executor).thenCompose(command -> {
             final ActorRef entityRegion = getEntityRegion(key.getResourceType());
             LOGGER.debug("Going to retrieve cache entry for key <{}> with command <{}>: ", key, command);
-            return PatternsCS.ask(entityRegion, command, askTimeoutMillis)
-                    .thenApply(response -> transformResponse(resourceType, response))
-                    .toCompletableFuture();
+            final CompletableFuture<Object> response = retriever != null
+                    ? retriever.retrieve(entityRegion, key, () -> command)
+                    : PatternsCS.ask(entityRegion, command, askTimeoutMillis).toCompletableFuture();
+            return response.thenApply(r -> transformResponse(resourceType, r));
         });
     }
 
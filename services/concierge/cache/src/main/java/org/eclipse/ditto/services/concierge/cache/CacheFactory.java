@@ -14,14 +14,18 @@ package org.eclipse.ditto.services.concierge.cache;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 
 import org.eclipse.ditto.services.concierge.util.config.CacheConfigReader;
 import org.eclipse.ditto.services.utils.cache.Cache;
 import org.eclipse.ditto.services.utils.cache.CaffeineCache;
+import org.eclipse.ditto.services.utils.cache.entry.Entry;
 
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 /**
  * Creates a cache configured by a {@link CacheConfigReader}.
@@ -70,7 +74,10 @@ public final class CacheFactory {
         requireNonNull(cacheConfigReader);
         requireNonNull(cacheName);
 
-        return CaffeineCache.of(caffeine(cacheConfigReader, executor), cacheLoader, cacheName);
+        final Caffeine<Object, Object> caffeine = caffeine(cacheConfigReader, executor);
+        // refreshing needs a cache loader
+        cacheConfigReader.refreshAfterWrite().ifPresent(caffeine::refreshAfterWrite);
+        return CaffeineCache.of(caffeine, cacheLoader, cacheName);
     }
 
 
@@ -78,9 +85,50 @@ public final class CacheFactory {
             final Executor executor) {
         final Caffeine<Object, Object> caffeine = Caffeine.newBuilder();
         caffeine.maximumSize(cacheConfigReader.maximumSize());
-        caffeine.expireAfterWrite(cacheConfigReader.expireAfterWrite());
+        final Duration expireAfterWrite = cacheConfigReader.expireAfterWrite();
+        final Optional<Duration> expireAfterWriteNonexistent = cacheConfigReader.expireAfterWriteNonexistent();
+        if (expireAfterWriteNonexistent.isPresent()) {
+            caffeine.expireAfter(new EntryExpiry(expireAfterWrite, expireAfterWriteNonexistent.get()));
+        } else {
+            caffeine.expireAfterWrite(expireAfterWrite);
+        }
         caffeine.executor(executor);
         return caffeine;
     }
 
+    /**
+     * Expires {@link Entry}s of nonexistent entities after a separate duration; all other values expire after write.
+     */
+    static final class EntryExpiry implements Expiry<Object, Object> {
+
+        private final long expireAfterWriteNanos;
+        private final long expireAfterWriteNonexistentNanos;
+
+        EntryExpiry(final Duration expireAfterWrite, final Duration expireAfterWriteNonexistent) {
+            expireAfterWriteNanos = expireAfterWrite.toNanos();
+            expireAfterWriteNonexistentNanos = expireAfterWriteNonexistent.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(final Object key, final Object value, final long currentTime) {
+            return isNonexistentEntry(value) ? expireAfterWriteNonexistentNanos : expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final Object key, final Object value, final long currentTime,
+                final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final Object key, final Object value, final long currentTime,
+                final long currentDuration) {
+            return currentDuration;
+        }
+
+        private static boolean isNonexistentEntry(final Object value) {
+            return value instanceof Entry && !((Entry<?>) value).exists();
+        }
+    }
+
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.ditto.services.models.concierge.EntityId;
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
+import org.eclipse.ditto.services.utils.metrics.instruments.counter.Counter;
+import org.eclipse.ditto.services.utils.metrics.instruments.histogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.Scheduler;
+import akka.pattern.PatternsCS;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Coalesces concurrent retrievals of entities from entity regions. Retrievals requested within a short window are
+ * collected into a batch which is dispatched per entity region once the window elapses or the batch is full.
+ * Retrievals of the same entity from the same region within a batch share a single ask, e.g. when the thing-id cache
+ * and the ACL-enforcer cache miss the same Thing after a cache flush.
+ * <p>
+ * Cluster sharding addresses each entity individually, so a batch still results in one ask per distinct entity.
+ * </p>
+ */
+@ThreadSafe
+public final class CoalescingRetriever {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingRetriever.class);
+
+    private static final String METRIC_PREFIX = "cache_retrieval_";
+    private static final String RETRIEVER_NAME_TAG = "retriever_name";
+
+    private final long askTimeoutMillis;
+    private final FiniteDuration window;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final ExecutionContext executionContext;
+
+    private final Histogram batchSize;
+    private final Counter coalescedRetrievals;
+    private final Counter savedAskTimeMillis;
+
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private Map<RetrievalKey, PendingRetrieval> batch = new LinkedHashMap<>();
+
+    private CoalescingRetriever(final String name, final Duration askTimeout, final Duration window,
+            final int maxBatchSize, final Scheduler scheduler, final ExecutionContext executionContext) {
+
+        askTimeoutMillis = askTimeout.toMillis();
+        this.window = FiniteDuration.apply(window.toNanos(), TimeUnit.NANOSECONDS);
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.executionContext = executionContext;
+        batchSize = DittoMetrics.histogram(METRIC_PREFIX + "batch-size").tag(RETRIEVER_NAME_TAG, name);
+        coalescedRetrievals = DittoMetrics.counter(METRIC_PREFIX + "coalesced").tag(RETRIEVER_NAME_TAG, name);
+        savedAskTimeMillis =
+                DittoMetrics.counter(METRIC_PREFIX + "saved-ask-time-ms").tag(RETRIEVER_NAME_TAG, name);
+    }
+
+    /**
+     * Creates a {@code CoalescingRetriever}.
+     *
+     * @param name the name of the retriever. Used as metric label.
+     * @param askTimeout the ask timeout for each retrieval.
+     * @param window how long to collect retrievals before a batch is dispatched.
+     * @param maxBatchSize the number of distinct retrievals after which a batch is dispatched before the window
+     * elapses.
+     * @param scheduler the scheduler to dispatch batches with.
+     * @param executionContext the execution context to dispatch batches in.
+     * @return the retriever.
+     * @throws IllegalArgumentException if {@code window} is not positive or {@code maxBatchSize} is less than 1.
+     */
+    public static CoalescingRetriever of(final String name, final Duration askTimeout, final Duration window,
+            final int maxBatchSize, final Scheduler scheduler, final ExecutionContext executionContext) {
+
+        requireNonNull(name);
+        requireNonNull(askTimeout);
+        requireNonNull(window);
+        requireNonNull(scheduler);
+        requireNonNull(executionContext);
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The window must be positive, but it is " + window);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be positive, but it is " + maxBatchSize);
+        }
+        return new CoalescingRetriever(name, askTimeout, window, maxBatchSize, scheduler, executionContext);
+    }
+
+    /**
+     * Retrieves an entity by asking its entity region with the next batch.
+     *
+     * @param entityRegion the entity region.
+     * @param key the ID of the entity.
+     * @param commandSupplier creates the retrieve command; only called if the entity is not yet retrieved with the
+     * next batch.
+     * @return future response of the entity region.
+     */
+    public CompletableFuture<Object> retrieve(final ActorRef entityRegion, final EntityId key,
+            final Supplier<?> commandSupplier) {
+
+        final RetrievalKey retrievalKey = new RetrievalKey(entityRegion, key);
+        final Map<RetrievalKey, PendingRetrieval> fullBatch;
+        final PendingRetrieval pendingRetrieval;
+        synchronized (lock) {
+            final PendingRetrieval existingRetrieval = batch.get(retrievalKey);
+            if (existingRetrieval != null) {
+                existingRetrieval.coalesced++;
+                return existingRetrieval.future;
+            }
+            pendingRetrieval = new PendingRetrieval(commandSupplier.get());
+            batch.put(retrievalKey, pendingRetrieval);
+            if (batch.size() >= maxBatchSize) {
+                fullBatch = takeBatch();
+            } else {
+                fullBatch = null;
+                if (batch.size() == 1) {
+                    scheduler.scheduleOnce(window, this::dispatchPendingBatch, executionContext);
+                }
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return pendingRetrieval.future;
+    }
+
+    private void dispatchPendingBatch() {
+        final Map<RetrievalKey, PendingRetrieval> pendingBatch;
+        synchronized (lock) {
+            pendingBatch = takeBatch();
+        }
+        dispatch(pendingBatch);
+    }
+
+    // call only while holding the lock
+    private Map<RetrievalKey, PendingRetrieval> takeBatch() {
+        final Map<RetrievalKey, PendingRetrieval> takenBatch = batch;
+        batch = new LinkedHashMap<>();
+        return takenBatch;
+    }
+
+    private void dispatch(final Map<RetrievalKey, PendingRetrieval> batchToDispatch) {
+        if (batchToDispatch.isEmpty()) {
+            // the batch was dispatched already because it was full
+            return;
+        }
+        batchSize.record((long) batchToDispatch.size());
+        LOGGER.debug("Dispatching batch of <{}> retrievals.", batchToDispatch.size());
+        batchToDispatch.forEach(this::ask);
+    }
+
+    private void ask(final RetrievalKey retrievalKey, final PendingRetrieval pendingRetrieval) {
+        final long startNanos = System.nanoTime();
+        PatternsCS.ask(retrievalKey.entityRegion, pendingRetrieval.command, askTimeoutMillis)
+                .whenComplete((response, error) -> {
+                    // no retrieval can be added to a dispatched batch, reading the counter is safe now
+                    final int coalesced = pendingRetrieval.getCoalesced();
+                    if (coalesced > 0) {
+                        coalescedRetrievals.increment(coalesced);
+                        savedAskTimeMillis.increment(
+                                coalesced * TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    }
+                    if (error != null) {
+                        pendingRetrieval.future.completeExceptionally(error);
+                    } else {
+                        pendingRetrieval.future.complete(response);
+                    }
+                });
+    }
+
+    private final class PendingRetrieval {
+
+        private final Object command;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        // guarded by lock
+        private int coalesced = 0;
+
+        private PendingRetrieval(final Object command) {
+            this.command = command;
+        }
+
+        private int getCoalesced() {
+            synchronized (lock) {
+                return coalesced;
+            }
+        }
+    }
+
+    private static final class RetrievalKey {
+
+        private final ActorRef entityRegion;
+        private final EntityId entityId;
+
+        private RetrievalKey(final ActorRef entityRegion, final EntityId entityId) {
+            this.entityRegion = entityRegion;
+            this.entityId = entityId;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RetrievalKey that = (RetrievalKey) o;
+            return Objects.equals(entityRegion, that.entityRegion) && Objects.equals(entityId, that.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityRegion, entityId);
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.eclipse.ditto.model.enforcers.Enforcer;
@@ -52,6 +53,18 @@ public final class PolicyEnforcerCacheLoader implements AsyncCacheLoader<EntityI
      * @param policiesShardRegionProxy the shard-region-proxy.
      */
     public PolicyEnforcerCacheLoader(final Duration askTimeout, final ActorRef policiesShardRegionProxy) {
+        this(askTimeout, policiesShardRegionProxy, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param askTimeout the ask-timeout for communicating with the shard-region-proxy.
+     * @param policiesShardRegionProxy the shard-region-proxy.
+     * @param retriever the retriever to coalesce concurrent loads with, or {@code null} to ask for each load.
+     */
+    public PolicyEnforcerCacheLoader(final Duration askTimeout, final ActorRef policiesShardRegionProxy,
+            @Nullable final CoalescingRetriever retriever) {
         requireNonNull(askTimeout);
         requireNonNull(policiesShardRegionProxy);
 
@@ -59,8 +72,13 @@ public final class PolicyEnforcerCacheLoader implements AsyncCacheLoader<EntityI
         final Function<Object, Entry<Enforcer>> responseTransformer =
                 PolicyEnforcerCacheLoader::handleSudoRetrievePolicyResponse;
 
-        this.delegate = ActorAskCacheLoader.forShard(askTimeout, PolicyCommand.RESOURCE_TYPE, policiesShardRegionProxy,
-                commandCreator, responseTransformer);
+        if (retriever != null) {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, PolicyCommand.RESOURCE_TYPE,
+                    policiesShardRegionProxy, commandCreator, responseTransformer, retriever);
+        } else {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, PolicyCommand.RESOURCE_TYPE,
+                    policiesShardRegionProxy, commandCreator, responseTransformer);
+        }
     }
 
     @Override
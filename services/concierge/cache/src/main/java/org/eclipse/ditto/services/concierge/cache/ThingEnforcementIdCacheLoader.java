@@ -19,6 +19,7 @@ import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.eclipse.ditto.model.things.AccessControlList;
@@ -51,13 +52,29 @@ public final class ThingEnforcementIdCacheLoader implements AsyncCacheLoader<Ent
      * @param shardRegionProxy the shard-region-proxy.
      */
     public ThingEnforcementIdCacheLoader(final Duration askTimeout, final ActorRef shardRegionProxy) {
+        this(askTimeout, shardRegionProxy, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param askTimeout the ask-timeout for communicating with the shard-region-proxy.
+     * @param shardRegionProxy the shard-region-proxy.
+     * @param retriever the retriever to coalesce concurrent loads with, or {@code null} to ask for each load.
+     */
+    public ThingEnforcementIdCacheLoader(final Duration askTimeout, final ActorRef shardRegionProxy,
+            @Nullable final CoalescingRetriever retriever) {
         final Function<String, Command> commandCreator = ThingCommandFactory::sudoRetrieveThing;
         final Function<Object, Entry<EntityId>> responseTransformer =
                 ThingEnforcementIdCacheLoader::handleSudoRetrieveThingResponse;
 
-        this.delegate =
-                ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, shardRegionProxy, commandCreator,
-                        responseTransformer);
+        if (retriever != null) {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, shardRegionProxy,
+                    commandCreator, responseTransformer, retriever);
+        } else {
+            this.delegate = ActorAskCacheLoader.forShard(askTimeout, ThingCommand.RESOURCE_TYPE, shardRegionProxy,
+                    commandCreator, responseTransformer);
+        }
     }
 
     @Override
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.services.models.concierge.EntityId;
+import org.eclipse.ditto.signals.commands.things.ThingCommand;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link CoalescingRetriever}.
+ */
+public final class CoalescingRetrieverTest {
+
+    private static final Duration ASK_TIMEOUT = Duration.ofSeconds(5L);
+    private static final EntityId THING_1 = EntityId.of(ThingCommand.RESOURCE_TYPE, "my.namespace:thing1");
+    private static final EntityId THING_2 = EntityId.of(ThingCommand.RESOURCE_TYPE, "my.namespace:thing2");
+
+    private static ActorSystem system;
+
+    @BeforeClass
+    public static void beforeClass() {
+        system = ActorSystem.create();
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        if (system != null) {
+            TestKit.shutdownActorSystem(system);
+        }
+    }
+
+    @Test
+    public void concurrentRetrievalsOfSameEntityShareOneAsk() throws Exception {
+        new TestKit(system) {{
+            final CoalescingRetriever underTest = createRetriever(Duration.ofMillis(100L), 10);
+
+            final CompletableFuture<Object> first = underTest.retrieve(getRef(), THING_1, () -> "retrieve-1");
+            final CompletableFuture<Object> second = underTest.retrieve(getRef(), THING_1, () -> "retrieve-1-again");
+
+            expectMsg("retrieve-1");
+            reply("response-1");
+            expectNoMessage();
+
+            assertThat(first.get(3L, TimeUnit.SECONDS)).isEqualTo("response-1");
+            assertThat(second.get(3L, TimeUnit.SECONDS)).isEqualTo("response-1");
+        }};
+    }
+
+    @Test
+    public void fullBatchIsDispatchedBeforeWindowElapses() throws Exception {
+        new TestKit(system) {{
+            final CoalescingRetriever underTest = createRetriever(Duration.ofMinutes(1L), 2);
+
+            final CompletableFuture<Object> first = underTest.retrieve(getRef(), THING_1, () -> "retrieve-1");
+            final CompletableFuture<Object> second = underTest.retrieve(getRef(), THING_2, () -> "retrieve-2");
+
+            expectMsg("retrieve-1");
+            reply("response-1");
+            expectMsg("retrieve-2");
+            reply("response-2");
+
+            assertThat(first.get(3L, TimeUnit.SECONDS)).isEqualTo("response-1");
+            assertThat(second.get(3L, TimeUnit.SECONDS)).isEqualTo("response-2");
+        }};
+    }
+
+    @Test
+    public void entityIsRetrievedAgainInNextBatch() throws Exception {
+        new TestKit(system) {{
+            final CoalescingRetriever underTest = createRetriever(Duration.ofMillis(50L), 10);
+
+            final CompletableFuture<Object> first = underTest.retrieve(getRef(), THING_1, () -> "retrieve-1");
+            expectMsg("retrieve-1");
+            reply("response-1");
+            assertThat(first.get(3L, TimeUnit.SECONDS)).isEqualTo("response-1");
+
+            final CompletableFuture<Object> second = underTest.retrieve(getRef(), THING_1, () -> "retrieve-1-again");
+            expectMsg("retrieve-1-again");
+            reply("response-1-again");
+            assertThat(second.get(3L, TimeUnit.SECONDS)).isEqualTo("response-1-again");
+        }};
+    }
+
+    private static CoalescingRetriever createRetriever(final Duration window, final int maxBatchSize) {
+        return CoalescingRetriever.of("test", ASK_TIMEOUT, window, maxBatchSize, system.scheduler(),
+                system.dispatcher());
+    }
+
+}
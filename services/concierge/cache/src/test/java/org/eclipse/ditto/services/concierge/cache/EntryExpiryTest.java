@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.eclipse.ditto.services.models.concierge.EntityId;
+import org.eclipse.ditto.services.utils.cache.entry.Entry;
+import org.eclipse.ditto.signals.commands.things.ThingCommand;
+import org.junit.Test;
+
+/**
+ * Tests {@link CacheFactory.EntryExpiry}.
+ */
+public final class EntryExpiryTest {
+
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(15L);
+    private static final Duration EXPIRE_AFTER_WRITE_NONEXISTENT = Duration.ofMinutes(1L);
+    private static final EntityId KEY = EntityId.of(ThingCommand.RESOURCE_TYPE, "my.namespace:thing");
+
+    private final CacheFactory.EntryExpiry underTest =
+            new CacheFactory.EntryExpiry(EXPIRE_AFTER_WRITE, EXPIRE_AFTER_WRITE_NONEXISTENT);
+
+    @Test
+    public void existentEntryExpiresAfterWrite() {
+        assertThat(underTest.expireAfterCreate(KEY, Entry.of(1L, KEY), 0L))
+                .isEqualTo(EXPIRE_AFTER_WRITE.toNanos());
+        assertThat(underTest.expireAfterUpdate(KEY, Entry.of(2L, KEY), 0L, 1L))
+                .isEqualTo(EXPIRE_AFTER_WRITE.toNanos());
+    }
+
+    @Test
+    public void nonexistentEntryExpiresAfterSeparateDuration() {
+        assertThat(underTest.expireAfterCreate(KEY, Entry.nonexistent(), 0L))
+                .isEqualTo(EXPIRE_AFTER_WRITE_NONEXISTENT.toNanos());
+        assertThat(underTest.expireAfterUpdate(KEY, Entry.nonexistent(), 0L, 1L))
+                .isEqualTo(EXPIRE_AFTER_WRITE_NONEXISTENT.toNanos());
+    }
+
+    @Test
+    public void readDoesNotChangeExpiry() {
+        assertThat(underTest.expireAfterRead(KEY, Entry.nonexistent(), 0L, 42L)).isEqualTo(42L);
+    }
+
+}
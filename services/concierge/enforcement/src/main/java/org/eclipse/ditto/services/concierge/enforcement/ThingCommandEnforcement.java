@@ -654,7 +654,7 @@ public final class ThingCommandEnforcement extends AbstractEnforcement<ThingComm
      * @param enforcer the enforcer.
      * @return response with view on entity restricted by enforcer..
      */
-    private static <T extends ThingQueryCommandResponse> T buildJsonViewForThingQueryCommandResponse(
+    static <T extends ThingQueryCommandResponse> T buildJsonViewForThingQueryCommandResponse(
             final ThingQueryCommandResponse<T> response,
             final Enforcer enforcer) {
 
@@ -730,7 +730,7 @@ public final class ThingCommandEnforcement extends AbstractEnforcement<ThingComm
      * @param policyId ID of the deleted policy.
      * @return an appropriate error.
      */
-    private static DittoRuntimeException errorForExistingThingWithDeletedPolicy(
+    static DittoRuntimeException errorForExistingThingWithDeletedPolicy(
             final ThingCommand thingCommand,
             final String thingId,
             final String policyId) {
@@ -763,7 +763,7 @@ public final class ThingCommandEnforcement extends AbstractEnforcement<ThingComm
      * @param thingCommand the command.
      * @return the error.
      */
-    private static DittoRuntimeException errorForThingCommand(final ThingCommand thingCommand) {
+    static DittoRuntimeException errorForThingCommand(final ThingCommand thingCommand) {
         final CommandToExceptionRegistry<ThingCommand, DittoRuntimeException> registry =
                 thingCommand instanceof ThingModifyCommand
                         ? ThingCommandToModifyExceptionRegistry.getInstance()
@@ -777,7 +777,7 @@ public final class ThingCommandEnforcement extends AbstractEnforcement<ThingComm
      * @param enforcerKeyEntry cache key entry of an enforcer.
      * @return whether it is based on an access control list and requires special handling.
      */
-    private static boolean isAclEnforcer(final Entry<EntityId> enforcerKeyEntry) {
+    static boolean isAclEnforcer(final Entry<EntityId> enforcerKeyEntry) {
         return enforcerKeyEntry.exists() &&
                 Objects.equals(ThingCommand.RESOURCE_TYPE, enforcerKeyEntry.getValueOrThrow().getResourceType());
     }
@@ -1088,7 +1088,7 @@ public final class ThingCommandEnforcement extends AbstractEnforcement<ThingComm
      * @param command the thing query command.
      * @return whether it is necessary to retrieve the thing's policy.
      */
-    private static boolean shouldRetrievePolicyWithThing(final ThingCommand command) {
+    static boolean shouldRetrievePolicyWithThing(final ThingCommand command) {
         final RetrieveThing retrieveThing = (RetrieveThing) command;
         final boolean isNotV1 = JsonSchemaVersion.V_1 != command.getImplementedSchemaVersion();
         return isNotV1 && retrieveThing.getSelectedFields().filter(selector ->
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.enforcement;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
+import org.eclipse.ditto.model.base.headers.WithDittoHeaders;
+import org.eclipse.ditto.model.base.json.Jsonifiable;
+import org.eclipse.ditto.model.enforcers.Enforcer;
+import org.eclipse.ditto.services.models.concierge.EntityId;
+import org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThing;
+import org.eclipse.ditto.services.utils.cache.Cache;
+import org.eclipse.ditto.services.utils.cache.entry.Entry;
+import org.eclipse.ditto.signals.commands.base.Command;
+import org.eclipse.ditto.signals.commands.base.exceptions.GatewayInternalErrorException;
+import org.eclipse.ditto.signals.commands.things.ThingCommand;
+import org.eclipse.ditto.signals.commands.things.ThingErrorResponse;
+import org.eclipse.ditto.signals.commands.things.exceptions.ThingUnavailableException;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThing;
+import org.eclipse.ditto.signals.commands.things.query.ThingQueryCommandResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import akka.actor.ActorRef;
+import akka.pattern.AskTimeoutException;
+import akka.pattern.PatternsCS;
+
+/**
+ * Retrieves groups of Things for {@code RetrieveThings} and {@code SudoRetrieveThings} without passing each
+ * {@link RetrieveThing} through an enforcer actor. The enforcers of the Things of a group are looked up in the caches
+ * concurrently, one lookup per Thing; concurrent cache misses are coalesced into retrieval batches by the cache
+ * loaders. The commands are sent directly to the things shard region and the responses are enforced against the
+ * cached enforcers.
+ * <p>
+ * {@code RetrieveThing} commands which select the inlined policy or belong to the live channel are not supported; they
+ * have to be enforced by the enforcer actors.
+ * </p>
+ */
+public final class ThingsBatchRetriever {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThingsBatchRetriever.class);
+
+    private final ActorRef thingsShardRegion;
+    private final EnforcerRetriever enforcerRetriever;
+    private final Function<WithDittoHeaders, CompletionStage<WithDittoHeaders>> preEnforcer;
+    private final Duration askTimeout;
+    private final Executor enforcementExecutor;
+
+    private ThingsBatchRetriever(final ActorRef thingsShardRegion,
+            final EnforcerRetriever enforcerRetriever,
+            final Function<WithDittoHeaders, CompletionStage<WithDittoHeaders>> preEnforcer,
+            final Duration askTimeout,
+            final Executor enforcementExecutor) {
+
+        this.thingsShardRegion = thingsShardRegion;
+        this.enforcerRetriever = enforcerRetriever;
+        this.preEnforcer = preEnforcer;
+        this.askTimeout = askTimeout;
+        this.enforcementExecutor = enforcementExecutor;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param thingsShardRegion the things shard region.
+     * @param thingIdCache the id-cache for Things.
+     * @param policyEnforcerCache the policy-enforcer-cache.
+     * @param aclEnforcerCache the acl-enforcer-cache.
+     * @param preEnforcer the function executed on each command before enforcement, may be {@code null}.
+     * @param askTimeout the duration to wait for the things shard region.
+     * @param enforcementExecutor the executor to enforce the responses on.
+     * @return the instance.
+     */
+    public static ThingsBatchRetriever of(final ActorRef thingsShardRegion,
+            final Cache<EntityId, Entry<EntityId>> thingIdCache,
+            final Cache<EntityId, Entry<Enforcer>> policyEnforcerCache,
+            final Cache<EntityId, Entry<Enforcer>> aclEnforcerCache,
+            @Nullable final Function<WithDittoHeaders, CompletionStage<WithDittoHeaders>> preEnforcer,
+            final Duration askTimeout,
+            final Executor enforcementExecutor) {
+
+        return new ThingsBatchRetriever(requireNonNull(thingsShardRegion),
+                PolicyOrAclEnforcerRetrieverFactory.create(thingIdCache, policyEnforcerCache, aclEnforcerCache),
+                preEnforcer != null ? preEnforcer : CompletableFuture::completedFuture,
+                requireNonNull(askTimeout),
+                requireNonNull(enforcementExecutor));
+    }
+
+    /**
+     * Checks whether a command retrieving a single Thing can be retrieved in a group.
+     *
+     * @param command the {@code RetrieveThing} or {@code SudoRetrieveThing} command.
+     * @return whether the command is supported by {@link #retrieve(List)}.
+     */
+    public static boolean isApplicable(final Command<?> command) {
+        if (command instanceof RetrieveThing) {
+            final RetrieveThing retrieveThing = (RetrieveThing) command;
+            return !LiveSignalEnforcement.isLiveSignal(retrieveThing) &&
+                    !ThingCommandEnforcement.shouldRetrievePolicyWithThing(retrieveThing);
+        }
+        return command instanceof SudoRetrieveThing;
+    }
+
+    /**
+     * Retrieves a group of Things. {@code RetrieveThing} commands are authorized and their responses are restricted
+     * by the enforcers of the Things; {@code SudoRetrieveThing} commands are not enforced.
+     *
+     * @param commands the commands to retrieve the Things with, each accepted by {@link #isApplicable(Command)}.
+     * @return future of the responses in the order of {@code commands}: the response of the things shard region or a
+     * {@code DittoRuntimeException} for each command. It never completes exceptionally.
+     */
+    public CompletionStage<List<Jsonifiable<?>>> retrieve(final List<? extends Command<?>> commands) {
+        final List<CompletableFuture<Jsonifiable<?>>> responses = commands.stream()
+                .map(command -> preEnforcer.apply(command)
+                        .thenCompose(preEnforced -> retrieveSingle((Command<?>) preEnforced))
+                        .exceptionally(error -> toError(error, command))
+                        .toCompletableFuture())
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> responses.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletionStage<Jsonifiable<?>> retrieveSingle(final Command<?> command) {
+        if (command instanceof RetrieveThing) {
+            return enforceAndRetrieve((RetrieveThing) command);
+        }
+        return askThingsShardRegion(command, Function.identity());
+    }
+
+    private CompletionStage<Jsonifiable<?>> enforceAndRetrieve(final RetrieveThing retrieveThing) {
+        final EntityId entityId = EntityId.of(ThingCommand.RESOURCE_TYPE, retrieveThing.getThingId());
+        final CompletableFuture<CompletionStage<Jsonifiable<?>>> authorized = new CompletableFuture<>();
+        return enforcerRetriever.retrieve(entityId, (enforcerKeyEntry, enforcerEntry) ->
+                authorized.complete(authorizeAndRetrieve(retrieveThing, enforcerKeyEntry, enforcerEntry)))
+                // the enforcer retriever does not call back if a cache did not deliver a value
+                .thenCompose(done -> authorized.getNow(CompletableFuture.completedFuture(unavailable(retrieveThing))));
+    }
+
+    private CompletionStage<Jsonifiable<?>> authorizeAndRetrieve(final RetrieveThing retrieveThing,
+            final Entry<EntityId> enforcerKeyEntry,
+            final Entry<Enforcer> enforcerEntry) {
+
+        if (!enforcerEntry.exists()) {
+            final DittoRuntimeException error = enforcerKeyEntry.exists()
+                    ? ThingCommandEnforcement.errorForExistingThingWithDeletedPolicy(retrieveThing,
+                    retrieveThing.getThingId(), enforcerKeyEntry.getValueOrThrow().getId())
+                    : ThingCommandEnforcement.errorForThingCommand(retrieveThing);
+            return CompletableFuture.completedFuture(error);
+        }
+
+        final Enforcer enforcer = enforcerEntry.getValueOrThrow();
+        if (ThingCommandEnforcement.isAclEnforcer(enforcerKeyEntry)) {
+            return ThingCommandEnforcement.authorizeByAcl(enforcer, retrieveThing)
+                    .map(command -> askThingsShardRegion(command, Function.identity()))
+                    .orElseGet(() -> CompletableFuture.completedFuture(
+                            ThingCommandEnforcement.errorForThingCommand(retrieveThing)));
+        }
+        return ThingCommandEnforcement.authorizeByPolicy(enforcer, retrieveThing)
+                .map(command -> askThingsShardRegion(command, response -> buildJsonView(response, enforcer)))
+                .orElseGet(() -> CompletableFuture.completedFuture(
+                        ThingCommandEnforcement.errorForThingCommand(retrieveThing)));
+    }
+
+    private CompletionStage<Jsonifiable<?>> askThingsShardRegion(final Command<?> command,
+            final Function<Jsonifiable<?>, Jsonifiable<?>> viewBuilder) {
+
+        return PatternsCS.ask(thingsShardRegion, command, askTimeout.toMillis())
+                .handleAsync((response, error) -> toResponse(command, response, error, viewBuilder),
+                        enforcementExecutor);
+    }
+
+    private static Jsonifiable<?> toResponse(final Command<?> command,
+            @Nullable final Object response,
+            @Nullable final Throwable error,
+            final Function<Jsonifiable<?>, Jsonifiable<?>> viewBuilder) {
+
+        if (response instanceof ThingErrorResponse) {
+            return ((ThingErrorResponse) response).getDittoRuntimeException();
+        } else if (response instanceof DittoRuntimeException) {
+            return (DittoRuntimeException) response;
+        } else if (response instanceof Jsonifiable) {
+            return viewBuilder.apply((Jsonifiable<?>) response);
+        } else if (AbstractEnforcement.isAskTimeoutException(response, error)) {
+            return unavailable(command);
+        } else if (error != null) {
+            return toError(error, command);
+        } else {
+            LOGGER.error("Unexpected response retrieving <{}>: <{}>", command.getId(), response);
+            return GatewayInternalErrorException.newBuilder().dittoHeaders(command.getDittoHeaders()).build();
+        }
+    }
+
+    private static Jsonifiable<?> buildJsonView(final Jsonifiable<?> response, final Enforcer enforcer) {
+        if (response instanceof ThingQueryCommandResponse) {
+            final ThingQueryCommandResponse<?> thingQueryCommandResponse = (ThingQueryCommandResponse<?>) response;
+            return ThingCommandEnforcement.buildJsonViewForThingQueryCommandResponse(thingQueryCommandResponse,
+                    enforcer);
+        }
+        return response;
+    }
+
+    private static DittoRuntimeException unavailable(final Command<?> command) {
+        return ThingUnavailableException.newBuilder(command.getId())
+                .dittoHeaders(command.getDittoHeaders())
+                .build();
+    }
+
+    private static DittoRuntimeException toError(final Throwable error, final Command<?> command) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof DittoRuntimeException) {
+            return (DittoRuntimeException) cause;
+        } else if (cause instanceof AskTimeoutException) {
+            return unavailable(command);
+        }
+        LOGGER.error("Unexpected error retrieving <{}>: {}", command.getId(), cause.getMessage(), cause);
+        return GatewayInternalErrorException.newBuilder()
+                .cause(cause)
+                .dittoHeaders(command.getDittoHeaders())
+                .build();
+    }
+
+}
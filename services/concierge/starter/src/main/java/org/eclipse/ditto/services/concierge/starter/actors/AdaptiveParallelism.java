@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.starter.actors;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
+
+/**
+ * Limits how many asynchronous tasks run concurrently. The limit adapts to the observed latency of the tasks by
+ * additive increase and multiplicative decrease: each task completed within the target latency raises it by
+ * {@code 1 / limit}, a slower task halves it, at most once for all tasks started before the last decrease. The limit
+ * starts at and never exceeds the maximum and never falls below {@code 1}.
+ */
+@ThreadSafe
+final class AdaptiveParallelism {
+
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final Gauge limitGauge;
+
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private double limit;
+    private int running = 0;
+    private long lastDecreaseNanos;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxLimit the maximum number of concurrently running tasks.
+     * @param targetLatency the latency up to which the limit is increased.
+     * @param limitGauge gauge to report the current limit to.
+     * @throws IllegalArgumentException if {@code maxLimit} is not positive.
+     */
+    AdaptiveParallelism(final int maxLimit, final Duration targetLatency, final Gauge limitGauge) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("The maximum parallelism must be positive but was " + maxLimit);
+        }
+        this.maxLimit = maxLimit;
+        targetLatencyNanos = targetLatency.toNanos();
+        this.limitGauge = limitGauge;
+        limit = maxLimit;
+        lastDecreaseNanos = System.nanoTime();
+        limitGauge.set((long) maxLimit);
+    }
+
+    /**
+     * Runs a task as soon as the number of running tasks is below the limit.
+     *
+     * @param task supplier starting the task.
+     * @param <T> type of the task's result.
+     * @return future completed with the result of the task.
+     */
+    <T> CompletionStage<T> run(final Supplier<? extends CompletionStage<T>> task) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Runnable start = () -> start(task, result);
+        final boolean startNow;
+        synchronized (this) {
+            startNow = running < (int) limit;
+            if (startNow) {
+                running++;
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    /**
+     * @return the current limit of concurrently running tasks.
+     */
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    private <T> void start(final Supplier<? extends CompletionStage<T>> task, final CompletableFuture<T> result) {
+        final long startNanos = System.nanoTime();
+        CompletionStage<T> stage;
+        try {
+            stage = task.get();
+        } catch (final RuntimeException e) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
+        stage.whenComplete((value, error) -> {
+            // start waiting tasks outside of the lock
+            completed(startNanos).forEach(Runnable::run);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private synchronized List<Runnable> completed(final long startNanos) {
+        final long nowNanos = System.nanoTime();
+        running--;
+        if (nowNanos - startNanos <= targetLatencyNanos) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } else if (startNanos - lastDecreaseNanos >= 0) {
+            limit = Math.max(1.0, limit / 2);
+            lastDecreaseNanos = nowNanos;
+        }
+        limitGauge.set((long) limit);
+
+        final List<Runnable> toStart = new ArrayList<>();
+        while (running < (int) limit && !waiting.isEmpty()) {
+            running++;
+            toStart.add(waiting.poll());
+        }
+        return toStart;
+    }
+
+}
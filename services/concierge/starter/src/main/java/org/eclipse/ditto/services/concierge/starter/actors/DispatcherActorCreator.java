@@ -17,6 +17,9 @@ import static org.eclipse.ditto.services.models.thingsearch.ThingsSearchConstant
 
 import java.util.Objects;
 
+import javax.annotation.Nullable;
+
+import org.eclipse.ditto.services.concierge.enforcement.ThingsBatchRetriever;
 import org.eclipse.ditto.services.concierge.util.config.AbstractConciergeConfigReader;
 import org.eclipse.ditto.services.concierge.util.config.ConciergeConfigReader;
 import org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThings;
@@ -64,10 +67,26 @@ public final class DispatcherActorCreator {
     public static Props props(final ConciergeConfigReader configReader, final ActorRef pubSubMediator,
             final ActorRef enforcerShardRegion) {
 
+        return props(configReader, pubSubMediator, enforcerShardRegion, (ThingsBatchRetriever) null);
+    }
+
+    /**
+     * Create Akka actor configuration Props object without pre-enforcer.
+     *
+     * @param configReader the configReader for the concierge service.
+     * @param pubSubMediator Akka pub-sub mediator.
+     * @param enforcerShardRegion shard region of enforcer actors.
+     * @param thingsBatchRetriever retriever of groups of Things for {@code RetrieveThings} and
+     * {@code SudoRetrieveThings} or {@code null} to retrieve each Thing via {@code enforcerShardRegion}.
+     * @return the Props object.
+     */
+    public static Props props(final ConciergeConfigReader configReader, final ActorRef pubSubMediator,
+            final ActorRef enforcerShardRegion, @Nullable final ThingsBatchRetriever thingsBatchRetriever) {
+
         return GraphActor.partial(actorContext -> {
             DispatcherActorCreator.initActor(actorContext.self(), pubSubMediator);
             return DispatcherActorCreator.dispatchGraph(actorContext, configReader, pubSubMediator,
-                    enforcerShardRegion);
+                    enforcerShardRegion, thingsBatchRetriever);
         });
     }
 
@@ -89,7 +108,7 @@ public final class DispatcherActorCreator {
             return Flow.<WithSender>create()
                     .via(preEnforcer)
                     .via(DispatcherActorCreator.dispatchGraph(actorContext, configReader, pubSubMediator,
-                            enforcerShardRegion));
+                            enforcerShardRegion, null));
         });
     }
 
@@ -100,17 +119,20 @@ public final class DispatcherActorCreator {
      * @param configReader the configReader for the concierge service.
      * @param pubSubMediator Akka pub-sub mediator.
      * @param enforcerShardRegion shard region of enforcer actors.
+     * @param thingsBatchRetriever retriever of groups of Things, may be {@code null}.
      * @return Akka stream graph to dispatch {@code RetrieveThings} and {@code ThingSearchCommand}.
      */
     private static Graph<FlowShape<WithSender, WithSender>, NotUsed> dispatchGraph(
             final AbstractActor.ActorContext actorContext,
             final AbstractConciergeConfigReader configReader,
             final ActorRef pubSubMediator,
-            final ActorRef enforcerShardRegion) {
+            final ActorRef enforcerShardRegion,
+            @Nullable final ThingsBatchRetriever thingsBatchRetriever) {
 
         return Flow.<WithSender>create()
                 .via(DispatcherActorCreator.dispatchSearchCommands(pubSubMediator))
-                .via(DispatcherActorCreator.dispatchRetrieveThings(actorContext, configReader, enforcerShardRegion));
+                .via(DispatcherActorCreator.dispatchRetrieveThings(actorContext, configReader, enforcerShardRegion,
+                        thingsBatchRetriever));
     }
 
     /**
@@ -170,14 +192,16 @@ public final class DispatcherActorCreator {
      * @param actorContext context of the dispatcher actor.
      * @param configReader the configReader for the concierge service.
      * @param enforcerShardRegion shard region of enforcer actors.
+     * @param thingsBatchRetriever retriever of groups of Things, may be {@code null}.
      * @return Akka stream graph that forwards relevant commands to the enforcer shard region.
      */
     private static Graph<FlowShape<WithSender, WithSender>, NotUsed> dispatchRetrieveThings(
             final ActorContext actorContext,
             final AbstractConciergeConfigReader configReader,
-            final ActorRef enforcerShardRegion) {
+            final ActorRef enforcerShardRegion,
+            @Nullable final ThingsBatchRetriever thingsBatchRetriever) {
 
-        final Props props = ThingsAggregatorActor.props(configReader, enforcerShardRegion);
+        final Props props = ThingsAggregatorActor.props(configReader, enforcerShardRegion, thingsBatchRetriever);
         final ActorRef thingsAggregatorActor = actorContext.actorOf(props, ThingsAggregatorActor.ACTOR_NAME);
 
         return GraphDSL.create(builder -> {
@@ -12,12 +12,18 @@
  */
 package org.eclipse.ditto.services.concierge.starter.actors;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -25,11 +31,14 @@ import org.eclipse.ditto.json.JsonFieldSelector;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
 import org.eclipse.ditto.model.base.json.Jsonifiable;
 import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.services.concierge.enforcement.ThingsBatchRetriever;
 import org.eclipse.ditto.services.concierge.util.config.AbstractConciergeConfigReader;
 import org.eclipse.ditto.services.models.concierge.ConciergeWrapper;
 import org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThing;
 import org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThings;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.services.utils.cluster.ShardRegionExtractor;
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
 import org.eclipse.ditto.signals.commands.base.Command;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThing;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
@@ -49,6 +58,12 @@ import scala.concurrent.ExecutionContext;
 
 /**
  * Actor to aggregate the retrieved Things from persistence.
+ * <p>
+ * By default each Thing is retrieved by asking the enforcer actor of the Thing. If a {@link ThingsBatchRetriever} is
+ * given, the requested Thing IDs are split into windows of consecutive IDs instead; the IDs of a window are grouped by
+ * their things shard, so that each group is answered by one things-service instance, and each group is retrieved and
+ * enforced by the batch retriever. The number of groups in flight adapts to their observed latency.
+ * </p>
  */
 public final class ThingsAggregatorActor extends AbstractActor {
 
@@ -61,6 +76,8 @@ public final class ThingsAggregatorActor extends AbstractActor {
 
     private static final Pattern THING_ID_PATTERN = Pattern.compile(Thing.ID_REGEX);
 
+    private static final String BATCH_PARALLELISM_METRIC_NAME = "things_aggregator_batch_parallelism";
+
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
     private final ActorRef targetActor;
     private final ExecutionContext aggregatorDispatcher;
@@ -68,12 +85,33 @@ public final class ThingsAggregatorActor extends AbstractActor {
     private final int maxParallelism;
     private final ActorMaterializer actorMaterializer;
 
-    private ThingsAggregatorActor(final AbstractConciergeConfigReader configReader, final ActorRef targetActor) {
+    @Nullable private final ThingsBatchRetriever batchRetriever;
+    @Nullable private final ShardRegionExtractor shardRegionExtractor;
+    @Nullable private final AdaptiveParallelism batchParallelism;
+    private final int batchWindowSize;
+    private final int batchWindowsInFlight;
+
+    private ThingsAggregatorActor(final AbstractConciergeConfigReader configReader, final ActorRef targetActor,
+            @Nullable final ThingsBatchRetriever batchRetriever) {
         this.targetActor = targetActor;
         aggregatorDispatcher = getContext().system().dispatchers().lookup(AGGREGATOR_INTERNAL_DISPATCHER);
         retrieveSingleThingTimeout = configReader.thingsAggregatorSingleRetrieveThingTimeout();
         maxParallelism = configReader.thingsAggregatorMaxParallelism();
         actorMaterializer = ActorMaterializer.create(getContext());
+
+        this.batchRetriever = batchRetriever;
+        batchWindowSize = configReader.thingsAggregatorBatchRetrievalWindowSize();
+        batchWindowsInFlight = configReader.thingsAggregatorBatchRetrievalWindowsInFlight();
+        if (batchRetriever != null) {
+            shardRegionExtractor =
+                    ShardRegionExtractor.of(configReader.cluster().numberOfShards(), getContext().system());
+            batchParallelism = new AdaptiveParallelism(maxParallelism,
+                    configReader.thingsAggregatorBatchRetrievalTargetLatency(),
+                    DittoMetrics.gauge(BATCH_PARALLELISM_METRIC_NAME));
+        } else {
+            shardRegionExtractor = null;
+            batchParallelism = null;
+        }
     }
 
     /**
@@ -84,12 +122,27 @@ public final class ThingsAggregatorActor extends AbstractActor {
      * @return the Akka configuration Props object
      */
     public static Props props(final AbstractConciergeConfigReader configReader, final ActorRef targetActor) {
+        return props(configReader, targetActor, null);
+    }
+
+    /**
+     * Creates Akka configuration object Props for this ThingsAggregatorActor.
+     *
+     * @param configReader the configReader for the concierge service.
+     * @param targetActor the Actor selection to delegate "asks" for the aggregation to.
+     * @param batchRetriever the retriever of groups of Things or {@code null} to retrieve each Thing by asking
+     * {@code targetActor}.
+     * @return the Akka configuration Props object
+     */
+    public static Props props(final AbstractConciergeConfigReader configReader, final ActorRef targetActor,
+            @Nullable final ThingsBatchRetriever batchRetriever) {
+
         return Props.create(ThingsAggregatorActor.class, new Creator<ThingsAggregatorActor>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public ThingsAggregatorActor create() {
-                return new ThingsAggregatorActor(configReader, targetActor);
+                return new ThingsAggregatorActor(configReader, targetActor, batchRetriever);
             }
         }).withDispatcher(AGGREGATOR_INTERNAL_DISPATCHER);
     }
@@ -139,34 +192,92 @@ public final class ThingsAggregatorActor extends AbstractActor {
     private void retrieveThingsAndSendResult(final List<String> thingIds,
             @Nullable final JsonFieldSelector selectedFields,
             final Command<?> command, final ActorRef resultReceiver) {
-        final DittoHeaders dittoHeaders = command.getDittoHeaders();
 
-        final CompletionStage<?> commandResponseSource = Source.from(thingIds)
+        final List<Command<?>> retrieveCommands = thingIds.stream()
                 .filter(Objects::nonNull)
-                .filterNot(String::isEmpty)
+                .filter(thingId -> !thingId.isEmpty())
                 .filter(thingId -> THING_ID_PATTERN.matcher(thingId).matches())
-                .map(thingId -> {
-                    final Command<?> toBeWrapped;
-                    if (command instanceof RetrieveThings) {
-                        toBeWrapped = Optional.ofNullable(selectedFields)
-                                .map(sf -> RetrieveThing.getBuilder(thingId, dittoHeaders)
-                                        .withSelectedFields(sf)
-                                        .build())
-                                .orElse(RetrieveThing.of(thingId, dittoHeaders));
-                    } else {
-                        toBeWrapped = Optional.ofNullable(selectedFields)
-                                .map(sf -> SudoRetrieveThing.of(thingId, sf, dittoHeaders))
-                                .orElse(SudoRetrieveThing.of(thingId, dittoHeaders));
-                    }
-                    return ConciergeWrapper.wrapForEnforcer(toBeWrapped);
-                })
-                .ask(calculateParallelism(thingIds), targetActor, Jsonifiable.class,
+                .map(thingId -> createRetrieveCommand(thingId, selectedFields, command))
+                .collect(Collectors.toList());
+
+        final CompletionStage<?> commandResponseSource;
+        if (batchRetriever != null && retrieveCommands.stream().allMatch(ThingsBatchRetriever::isApplicable)) {
+            commandResponseSource = retrieveInBatches(retrieveCommands);
+        } else {
+            commandResponseSource = retrieveOneByOne(retrieveCommands, calculateParallelism(thingIds));
+        }
+
+        PatternsCS.pipe(commandResponseSource, aggregatorDispatcher)
+                .to(resultReceiver);
+    }
+
+    private static Command<?> createRetrieveCommand(final String thingId,
+            @Nullable final JsonFieldSelector selectedFields, final Command<?> command) {
+
+        final DittoHeaders dittoHeaders = command.getDittoHeaders();
+        if (command instanceof RetrieveThings) {
+            return Optional.ofNullable(selectedFields)
+                    .map(sf -> RetrieveThing.getBuilder(thingId, dittoHeaders)
+                            .withSelectedFields(sf)
+                            .build())
+                    .orElse(RetrieveThing.of(thingId, dittoHeaders));
+        } else {
+            return Optional.ofNullable(selectedFields)
+                    .map(sf -> SudoRetrieveThing.of(thingId, sf, dittoHeaders))
+                    .orElse(SudoRetrieveThing.of(thingId, dittoHeaders));
+        }
+    }
+
+    private CompletionStage<?> retrieveOneByOne(final List<Command<?>> retrieveCommands, final int parallelism) {
+        return Source.from(retrieveCommands)
+                .map(ConciergeWrapper::wrapForEnforcer)
+                .ask(parallelism, targetActor, Jsonifiable.class,
                         Timeout.apply(retrieveSingleThingTimeout.toMillis(), TimeUnit.MILLISECONDS))
                 .log("command-response", log)
                 .runWith(StreamRefs.sourceRef(), actorMaterializer);
+    }
 
-        PatternsCS.pipe(commandResponseSource, aggregatorDispatcher)
-                .to(resultReceiver);
+    private CompletionStage<?> retrieveInBatches(final List<Command<?>> retrieveCommands) {
+        return Source.from(retrieveCommands)
+                .grouped(batchWindowSize)
+                .mapAsync(batchWindowsInFlight, this::retrieveWindow)
+                .mapConcat(responses -> responses)
+                .log("command-response", log)
+                .runWith(StreamRefs.sourceRef(), actorMaterializer);
+    }
+
+    private CompletionStage<List<Jsonifiable<?>>> retrieveWindow(final List<Command<?>> window) {
+        // all Things of a shard are hosted by the same things-service instance
+        final Map<String, List<Integer>> indexesByShard = new LinkedHashMap<>();
+        for (int i = 0; i < window.size(); i++) {
+            indexesByShard.computeIfAbsent(shardRegionExtractor.shardId(window.get(i)), shardId -> new ArrayList<>())
+                    .add(i);
+        }
+
+        final Jsonifiable<?>[] responses = new Jsonifiable<?>[window.size()];
+        final CompletableFuture<?>[] groupRetrievals = indexesByShard.values()
+                .stream()
+                .map(indexes -> retrieveGroup(window, indexes, responses))
+                .toArray(CompletableFuture<?>[]::new);
+
+        return CompletableFuture.allOf(groupRetrievals)
+                .thenApply(done -> Arrays.asList(responses));
+    }
+
+    private CompletableFuture<Void> retrieveGroup(final List<Command<?>> window, final List<Integer> indexes,
+            final Jsonifiable<?>[] responses) {
+
+        final List<Command<?>> group = indexes.stream()
+                .map(window::get)
+                .collect(Collectors.toList());
+
+        return batchParallelism.run(() -> batchRetriever.retrieve(group))
+                .thenAccept(groupResponses -> {
+                    for (int i = 0; i < indexes.size(); i++) {
+                        responses[indexes.get(i)] = groupResponses.get(i);
+                    }
+                })
+                .toCompletableFuture();
     }
 
     private int calculateParallelism(final List<String> thingIds) {
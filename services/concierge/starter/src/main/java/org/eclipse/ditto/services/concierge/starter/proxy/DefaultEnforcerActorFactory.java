@@ -23,11 +23,14 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
+
 import org.eclipse.ditto.model.base.headers.WithDittoHeaders;
 import org.eclipse.ditto.model.enforcers.Enforcer;
 import org.eclipse.ditto.services.base.config.ServiceConfigReader;
 import org.eclipse.ditto.services.concierge.cache.AclEnforcerCacheLoader;
 import org.eclipse.ditto.services.concierge.cache.CacheFactory;
+import org.eclipse.ditto.services.concierge.cache.CoalescingRetriever;
 import org.eclipse.ditto.services.concierge.cache.PolicyEnforcerCacheLoader;
 import org.eclipse.ditto.services.concierge.cache.ThingEnforcementIdCacheLoader;
 import org.eclipse.ditto.services.concierge.cache.update.PolicyCacheUpdateActor;
@@ -36,6 +39,7 @@ import org.eclipse.ditto.services.concierge.enforcement.EnforcerActorCreator;
 import org.eclipse.ditto.services.concierge.enforcement.LiveSignalEnforcement;
 import org.eclipse.ditto.services.concierge.enforcement.PolicyCommandEnforcement;
 import org.eclipse.ditto.services.concierge.enforcement.ThingCommandEnforcement;
+import org.eclipse.ditto.services.concierge.enforcement.ThingsBatchRetriever;
 import org.eclipse.ditto.services.concierge.enforcement.placeholders.PlaceholderSubstitution;
 import org.eclipse.ditto.services.concierge.enforcement.validators.CommandWithOptionalEntityValidator;
 import org.eclipse.ditto.services.concierge.starter.actors.CachedNamespaceInvalidator;
@@ -71,6 +75,7 @@ public final class DefaultEnforcerActorFactory extends AbstractEnforcerActorFact
 
     private static final String ENFORCER_CACHE_METRIC_NAME_PREFIX = "ditto_authorization_enforcer_cache_";
     private static final String ID_CACHE_METRIC_NAME_PREFIX = "ditto_authorization_id_cache_";
+    private static final String RETRIEVER_METRIC_NAME_PREFIX = "ditto_authorization_retriever_";
 
     @Override
     public ActorRef startEnforcerActor(final ActorContext context, final ConciergeConfigReader configReader,
@@ -85,22 +90,26 @@ public final class DefaultEnforcerActorFactory extends AbstractEnforcerActorFact
         final ActorRef thingsShardRegionProxy = startProxy(actorSystem, configReader.cluster().numberOfShards(),
                 ThingsMessagingConstants.SHARD_REGION, ThingsMessagingConstants.CLUSTER_ROLE);
 
+        // the thing-id cache and the ACL-enforcer cache retrieve the same Things and share a retriever
+        final CoalescingRetriever thingsRetriever = createRetriever(actorSystem, configReader, "things");
+        final CoalescingRetriever policiesRetriever = createRetriever(actorSystem, configReader, "policies");
+
         final AsyncCacheLoader<EntityId, Entry<EntityId>> thingEnforcerIdCacheLoader =
-                new ThingEnforcementIdCacheLoader(askTimeout, thingsShardRegionProxy);
+                new ThingEnforcementIdCacheLoader(askTimeout, thingsShardRegionProxy, thingsRetriever);
         final Cache<EntityId, Entry<EntityId>> thingIdCache =
                 CacheFactory.createCache(thingEnforcerIdCacheLoader, configReader.caches().id(),
                         ID_CACHE_METRIC_NAME_PREFIX + ThingCommand.RESOURCE_TYPE,
                         actorSystem.dispatchers().lookup("thing-id-cache-dispatcher"));
 
         final AsyncCacheLoader<EntityId, Entry<Enforcer>> policyEnforcerCacheLoader =
-                new PolicyEnforcerCacheLoader(askTimeout, policiesShardRegionProxy);
+                new PolicyEnforcerCacheLoader(askTimeout, policiesShardRegionProxy, policiesRetriever);
         final Cache<EntityId, Entry<Enforcer>> policyEnforcerCache =
                 CacheFactory.createCache(policyEnforcerCacheLoader, configReader.caches().enforcer(),
                         ENFORCER_CACHE_METRIC_NAME_PREFIX + "policy",
                         actorSystem.dispatchers().lookup("policy-enforcer-cache-dispatcher"));
 
         final AsyncCacheLoader<EntityId, Entry<Enforcer>> aclEnforcerCacheLoader =
-                new AclEnforcerCacheLoader(askTimeout, thingsShardRegionProxy);
+                new AclEnforcerCacheLoader(askTimeout, thingsShardRegionProxy, thingsRetriever);
         final Cache<EntityId, Entry<Enforcer>> aclEnforcerCache =
                 CacheFactory.createCache(aclEnforcerCacheLoader, configReader.caches().enforcer(),
                         ENFORCER_CACHE_METRIC_NAME_PREFIX + "acl",
@@ -145,12 +154,29 @@ public final class DefaultEnforcerActorFactory extends AbstractEnforcerActorFact
                 ConciergeMessagingConstants.BLOCKED_NAMESPACES_UPDATER_NAME,
                 blockedNamespacesUpdaterProps);
 
-        context.actorOf(DispatcherActorCreator.props(configReader, pubSubMediator, enforcerShardRegion),
-                DispatcherActorCreator.ACTOR_NAME);
+        final ThingsBatchRetriever thingsBatchRetriever = configReader.thingsAggregatorBatchRetrievalEnabled()
+                ? ThingsBatchRetriever.of(thingsShardRegionProxy, thingIdCache, policyEnforcerCache,
+                        aclEnforcerCache, preEnforcer, enforcementAskTimeout, enforcerExecutor)
+                : null;
+        context.actorOf(DispatcherActorCreator.props(configReader, pubSubMediator, enforcerShardRegion,
+                thingsBatchRetriever), DispatcherActorCreator.ACTOR_NAME);
 
         return enforcerShardRegion;
     }
 
+    @Nullable
+    private static CoalescingRetriever createRetriever(final ActorSystem actorSystem,
+            final ConciergeConfigReader configReader, final String name) {
+
+        final Duration window = configReader.caches().retrievalBatchWindow();
+        if (window.isZero()) {
+            return null;
+        }
+        return CoalescingRetriever.of(RETRIEVER_METRIC_NAME_PREFIX + name, configReader.caches().askTimeout(),
+                window, configReader.caches().retrievalBatchMaxSize(), actorSystem.scheduler(),
+                actorSystem.dispatcher());
+    }
+
     private static Function<WithDittoHeaders, CompletionStage<WithDittoHeaders>> newPreEnforcer(
             final BlockedNamespaces blockedNamespaces,
             final PlaceholderSubstitution placeholderSubstitution) {
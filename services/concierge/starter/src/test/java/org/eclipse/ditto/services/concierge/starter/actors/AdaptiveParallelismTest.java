@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.starter.actors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
+import org.junit.Test;
+
+/**
+ * Tests {@link AdaptiveParallelism}.
+ */
+public final class AdaptiveParallelismTest {
+
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(50);
+
+    @Test
+    public void tasksBeyondTheLimitStartWhenRunningTasksComplete() {
+        final AdaptiveParallelism underTest = new AdaptiveParallelism(2, Duration.ofSeconds(10), gauge());
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final AtomicBoolean thirdStarted = new AtomicBoolean(false);
+
+        underTest.run(() -> first);
+        underTest.run(() -> second);
+        final CompletionStage<String> third = underTest.run(() -> {
+            thirdStarted.set(true);
+            return CompletableFuture.completedFuture("third");
+        });
+        assertThat(thirdStarted.get()).isFalse();
+
+        first.complete("first");
+        assertThat(thirdStarted.get()).isTrue();
+        assertThat(third.toCompletableFuture().join()).isEqualTo("third");
+    }
+
+    @Test
+    public void slowTasksHalveTheLimitOncePerRound() throws Exception {
+        final AdaptiveParallelism underTest = new AdaptiveParallelism(8, TARGET_LATENCY, gauge());
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+        final CompletableFuture<Void> second = new CompletableFuture<>();
+
+        underTest.run(() -> first);
+        underTest.run(() -> second);
+        exceedTargetLatency();
+        first.complete(null);
+        second.complete(null);
+        assertThat(underTest.getLimit()).isEqualTo(4);
+
+        final CompletableFuture<Void> third = new CompletableFuture<>();
+        underTest.run(() -> third);
+        exceedTargetLatency();
+        third.complete(null);
+        assertThat(underTest.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void fastTasksRaiseTheLimitUpToTheMaximum() throws Exception {
+        final AdaptiveParallelism underTest = new AdaptiveParallelism(4, TARGET_LATENCY, gauge());
+        final CompletableFuture<Void> slow = new CompletableFuture<>();
+        underTest.run(() -> slow);
+        exceedTargetLatency();
+        slow.complete(null);
+        assertThat(underTest.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 20; i++) {
+            underTest.run(() -> CompletableFuture.completedFuture(null));
+        }
+        assertThat(underTest.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void failedTasksReleaseTheirSlot() {
+        final AdaptiveParallelism underTest = new AdaptiveParallelism(1, Duration.ofSeconds(10), gauge());
+        final CompletionStage<Object> failed = underTest.run(() -> {
+            throw new IllegalStateException("expected");
+        });
+        assertThat(failed.toCompletableFuture()).isCompletedExceptionally();
+
+        final CompletionStage<String> next = underTest.run(() -> CompletableFuture.completedFuture("next"));
+        assertThat(next.toCompletableFuture().join()).isEqualTo("next");
+    }
+
+    private static void exceedTargetLatency() throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(TARGET_LATENCY.toMillis() + 10);
+    }
+
+    private static Gauge gauge() {
+        return DittoMetrics.gauge("adaptive_parallelism_test");
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.concierge.starter.actors.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.enforcers.Enforcer;
+import org.eclipse.ditto.model.enforcers.PolicyEnforcers;
+import org.eclipse.ditto.model.policies.PoliciesModelFactory;
+import org.eclipse.ditto.model.policies.PoliciesResourceType;
+import org.eclipse.ditto.model.policies.SubjectIssuer;
+import org.eclipse.ditto.services.concierge.enforcement.ThingsBatchRetriever;
+import org.eclipse.ditto.services.concierge.starter.actors.ThingsAggregatorActor;
+import org.eclipse.ditto.services.concierge.util.config.ConciergeConfigReader;
+import org.eclipse.ditto.services.models.concierge.EntityId;
+import org.eclipse.ditto.services.models.policies.Permission;
+import org.eclipse.ditto.services.utils.cache.Cache;
+import org.eclipse.ditto.services.utils.cache.CaffeineCache;
+import org.eclipse.ditto.services.utils.cache.entry.Entry;
+import org.eclipse.ditto.signals.base.ShardedMessageEnvelope;
+import org.eclipse.ditto.signals.commands.policies.PolicyCommand;
+import org.eclipse.ditto.signals.commands.things.ThingCommand;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThing;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThingResponse;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.PatternsCS;
+import akka.stream.ActorMaterializer;
+import akka.stream.SourceRef;
+import akka.stream.javadsl.Sink;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * JMH Benchmark of the {@link ThingsAggregatorActor} retrieving 10, 100 and 1000 Things, either one by one through
+ * the enforcer shard region or grouped by shard through a {@link ThingsBatchRetriever}. A mock shard region answers
+ * each retrieval after a fixed latency.
+ */
+@State(Scope.Benchmark)
+public class ThingsAggregatorBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final long RETRIEVAL_LATENCY_MS = 2L;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String SUBJECT = "benchmark-subject";
+
+    private static final Config CONFIG = ConfigFactory.parseString(
+            "akka.loglevel = WARNING\n" +
+                    "aggregator-internal-dispatcher {\n" +
+                    "  type = Dispatcher\n" +
+                    "  executor = \"fork-join-executor\"\n" +
+                    "}\n" +
+                    "ditto.mapping-strategy.implementation = " +
+                    "\"org.eclipse.ditto.services.concierge.util.ConciergeMappingStrategies\"\n" +
+                    "ditto.concierge.cluster.number-of-shards = 30\n" +
+                    "ditto.concierge.things-aggregator {\n" +
+                    "  single-retrieve-thing-timeout = 30s\n" +
+                    "  max-parallelism = 20\n" +
+                    "  batch-retrieval.window-size = 100\n" +
+                    "  batch-retrieval.target-latency = 200ms\n" +
+                    "}\n")
+            .withFallback(ConfigFactory.load());
+
+    @Param({"10", "100", "1000"})
+    public int numberOfThings;
+
+    @Param({"oneByOne", "batched"})
+    public String mode;
+
+    private ActorSystem actorSystem;
+    private ActorMaterializer materializer;
+    private ActorRef underTest;
+    private RetrieveThings retrieveThings;
+
+    @Setup
+    public void setUp() {
+        actorSystem = ActorSystem.create("ThingsAggregatorBenchmark", CONFIG);
+        materializer = ActorMaterializer.create(actorSystem);
+
+        final ConciergeConfigReader configReader = ConciergeConfigReader.from("concierge").apply(CONFIG);
+        final ActorRef shardRegion = actorSystem.actorOf(MockShardRegion.props(), "shardRegion");
+        final Props props = "batched".equals(mode)
+                ? ThingsAggregatorActor.props(configReader, shardRegion, newBatchRetriever(shardRegion))
+                : ThingsAggregatorActor.props(configReader, shardRegion);
+        underTest = actorSystem.actorOf(props, ThingsAggregatorActor.ACTOR_NAME);
+
+        final List<String> thingIds = IntStream.range(0, numberOfThings)
+                .mapToObj(i -> "benchmark:thing-" + i)
+                .collect(Collectors.toList());
+        retrieveThings = RetrieveThings.getBuilder(thingIds)
+                .dittoHeaders(DittoHeaders.newBuilder()
+                        .authorizationSubjects(SubjectIssuer.GOOGLE + ":" + SUBJECT)
+                        .build())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        actorSystem.terminate();
+        actorSystem.getWhenTerminated().toCompletableFuture().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public List<?> retrieveThings() throws Exception {
+        final SourceRef<?> sourceRef = (SourceRef<?>) PatternsCS.ask(underTest, retrieveThings, TIMEOUT.toMillis())
+                .toCompletableFuture()
+                .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        return sourceRef.getSource()
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private ThingsBatchRetriever newBatchRetriever(final ActorRef thingsShardRegion) {
+        // every Thing has its own policy which grants READ on the whole Thing to the benchmark subject
+        final Enforcer enforcer = PolicyEnforcers.defaultEvaluator(
+                PoliciesModelFactory.newPolicyBuilder("benchmark:policy")
+                        .forLabel("benchmark")
+                        .setSubject(SubjectIssuer.GOOGLE, SUBJECT)
+                        .setGrantedPermissions(PoliciesResourceType.thingResource(JsonPointer.empty()),
+                                Permission.READ)
+                        .build());
+        final Cache<EntityId, Entry<EntityId>> thingIdCache = CaffeineCache.of(Caffeine.newBuilder(),
+                (thingKey, executor) -> CompletableFuture.completedFuture(
+                        Entry.permanent(EntityId.of(PolicyCommand.RESOURCE_TYPE, thingKey.getId()))));
+        final Cache<EntityId, Entry<Enforcer>> policyEnforcerCache = CaffeineCache.of(Caffeine.newBuilder(),
+                (policyKey, executor) -> CompletableFuture.completedFuture(Entry.permanent(enforcer)));
+        final Cache<EntityId, Entry<Enforcer>> aclEnforcerCache = CaffeineCache.of(Caffeine.newBuilder(),
+                (aclKey, executor) -> CompletableFuture.completedFuture(Entry.nonexistent()));
+
+        return ThingsBatchRetriever.of(thingsShardRegion, thingIdCache, policyEnforcerCache, aclEnforcerCache, null,
+                TIMEOUT, actorSystem.dispatcher());
+    }
+
+    /**
+     * Answers {@code RetrieveThing} commands, sent directly or wrapped for the enforcer shard region, after a fixed
+     * latency.
+     */
+    private static final class MockShardRegion extends AbstractActor {
+
+        private static Props props() {
+            return Props.create(MockShardRegion.class, MockShardRegion::new);
+        }
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder()
+                    .match(RetrieveThing.class, retrieveThing ->
+                            reply(retrieveThing.getThingId(), retrieveThing.getDittoHeaders()))
+                    .match(ShardedMessageEnvelope.class, envelope ->
+                            reply(envelope.getMessage().getValueOrThrow(ThingCommand.JsonFields.JSON_THING_ID),
+                                    envelope.getDittoHeaders()))
+                    .build();
+        }
+
+        private void reply(final String thingId, final DittoHeaders dittoHeaders) {
+            final JsonObject thing = JsonObject.newBuilder()
+                    .set("thingId", thingId)
+                    .set("attributes", JsonObject.newBuilder().set("benchmark", true).build())
+                    .build();
+            getContext().getSystem().scheduler().scheduleOnce(
+                    FiniteDuration.apply(RETRIEVAL_LATENCY_MS, TimeUnit.MILLISECONDS), getSender(),
+                    RetrieveThingResponse.of(thingId, thing, dittoHeaders), getContext().getDispatcher(), getSelf());
+        }
+
+    }
+
+}
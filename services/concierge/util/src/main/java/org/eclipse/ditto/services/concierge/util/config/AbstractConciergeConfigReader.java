@@ -34,6 +34,22 @@ public abstract class AbstractConciergeConfigReader extends AbstractServiceConfi
     private static final String PATH_THINGS_AGGREGATOR_MAX_PARALLELISM =
             PATH_PREFIX_THINGS_AGGREGATOR + "max-parallelism";
 
+    private static final String PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_ENABLED =
+            PATH_PREFIX_THINGS_AGGREGATOR + "batch-retrieval.enabled";
+
+    private static final String PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOW_SIZE =
+            PATH_PREFIX_THINGS_AGGREGATOR + "batch-retrieval.window-size";
+
+    private static final String PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_TARGET_LATENCY =
+            PATH_PREFIX_THINGS_AGGREGATOR + "batch-retrieval.target-latency";
+
+    private static final String PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOWS_IN_FLIGHT =
+            PATH_PREFIX_THINGS_AGGREGATOR + "batch-retrieval.windows-in-flight";
+
+    private static final int DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOW_SIZE = 100;
+    private static final Duration DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_TARGET_LATENCY = Duration.ofMillis(200);
+    private static final int DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOWS_IN_FLIGHT = 2;
+
 
     protected AbstractConciergeConfigReader(final Config config, final String serviceName) {
         super(config, serviceName);
@@ -76,4 +92,46 @@ public abstract class AbstractConciergeConfigReader extends AbstractServiceConfi
         return config.getInt(PATH_THINGS_AGGREGATOR_MAX_PARALLELISM);
     }
 
+    /**
+     * Retrieve whether the {@code ThingsAggregatorActor} retrieves the Things grouped by their shards and enforces
+     * them in batches instead of sending each {@code RetrieveThing} through an enforcer actor.
+     *
+     * @return whether batch retrieval is enabled.
+     */
+    public boolean thingsAggregatorBatchRetrievalEnabled() {
+        return getIfPresent(PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_ENABLED, config::getBoolean).orElse(false);
+    }
+
+    /**
+     * Retrieve how many consecutive Thing IDs of a request are grouped by their shards at once in batch retrieval.
+     *
+     * @return the number of Thing IDs grouped at once.
+     */
+    public int thingsAggregatorBatchRetrievalWindowSize() {
+        return getIfPresent(PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOW_SIZE, config::getInt)
+                .orElse(DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOW_SIZE);
+    }
+
+    /**
+     * Retrieve the latency of a group retrieval up to which the {@code ThingsAggregatorActor} increases the number of
+     * groups in flight in batch retrieval; slower groups decrease it.
+     *
+     * @return the target latency of a group retrieval.
+     */
+    public Duration thingsAggregatorBatchRetrievalTargetLatency() {
+        return getIfPresent(PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_TARGET_LATENCY, config::getDuration)
+                .orElse(DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_TARGET_LATENCY);
+    }
+
+    /**
+     * Retrieve how many windows of Thing IDs of a request the {@code ThingsAggregatorActor} retrieves concurrently in
+     * batch retrieval.
+     *
+     * @return the number of windows in flight per request.
+     */
+    public int thingsAggregatorBatchRetrievalWindowsInFlight() {
+        return getIfPresent(PATH_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOWS_IN_FLIGHT, config::getInt)
+                .orElse(DEFAULT_THINGS_AGGREGATOR_BATCH_RETRIEVAL_WINDOWS_IN_FLIGHT);
+    }
+
 }
@@ -13,6 +13,7 @@
 package org.eclipse.ditto.services.concierge.util.config;
 
 import java.time.Duration;
+import java.util.Optional;
 
 import org.eclipse.ditto.services.utils.config.AbstractConfigReader;
 
@@ -25,6 +26,8 @@ public final class CacheConfigReader extends AbstractConfigReader {
 
     private static final String PATH_MAXIMUM_SIZE = "maximum-size";
     private static final String PATH_EXPIRE_AFTER_WRITE = "expire-after-write";
+    private static final String PATH_EXPIRE_AFTER_WRITE_NONEXISTENT = "expire-after-write-nonexistent";
+    private static final String PATH_REFRESH_AFTER_WRITE = "refresh-after-write";
 
     private CacheConfigReader(final Config config) {
         super(config);
@@ -52,4 +55,23 @@ public final class CacheConfigReader extends AbstractConfigReader {
         return config.getDuration(PATH_EXPIRE_AFTER_WRITE);
     }
 
+    /**
+     * Retrieve duration after which a cache entry of a nonexistent entity expires.
+     *
+     * @return duration between write and expiration of nonexistent entries if it exists.
+     */
+    public Optional<Duration> expireAfterWriteNonexistent() {
+        return getIfPresent(PATH_EXPIRE_AFTER_WRITE_NONEXISTENT, config::getDuration);
+    }
+
+    /**
+     * Retrieve duration after which an accessed cache entry is reloaded in the background. The entry is served until
+     * the reload completes.
+     *
+     * @return duration between write and refresh if it exists.
+     */
+    public Optional<Duration> refreshAfterWrite() {
+        return getIfPresent(PATH_REFRESH_AFTER_WRITE, config::getDuration);
+    }
+
 }
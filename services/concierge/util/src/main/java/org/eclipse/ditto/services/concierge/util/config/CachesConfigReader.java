@@ -27,6 +27,8 @@ import com.typesafe.config.Config;
 public final class CachesConfigReader extends AbstractConfigReader {
 
     private static final Duration DEFAULT_ASK_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_RETRIEVAL_BATCH_WINDOW = Duration.ZERO;
+    private static final int DEFAULT_RETRIEVAL_BATCH_MAX_SIZE = 200;
 
     CachesConfigReader(final Config config) {
         super(config);
@@ -41,6 +43,24 @@ public final class CachesConfigReader extends AbstractConfigReader {
         return getIfPresent("ask-timeout", config::getDuration).orElse(DEFAULT_ASK_TIMEOUT);
     }
 
+    /**
+     * Retrieve how long cache misses are collected to be retrieved from the entity shard regions in one batch.
+     *
+     * @return the window of retrieval batches; zero if retrievals are not batched.
+     */
+    public Duration retrievalBatchWindow() {
+        return getIfPresent("retrieval-batch.window", config::getDuration).orElse(DEFAULT_RETRIEVAL_BATCH_WINDOW);
+    }
+
+    /**
+     * Retrieve the number of distinct entities after which a retrieval batch is dispatched before its window elapses.
+     *
+     * @return the maximum size of retrieval batches.
+     */
+    public int retrievalBatchMaxSize() {
+        return getIfPresent("retrieval-batch.max-size", config::getInt).orElse(DEFAULT_RETRIEVAL_BATCH_MAX_SIZE);
+    }
+
     /**
      * Retrieve config reader for the id cache.
      *
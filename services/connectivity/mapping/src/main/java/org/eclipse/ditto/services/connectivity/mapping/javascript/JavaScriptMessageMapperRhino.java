@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
@@ -25,9 +27,11 @@ import org.eclipse.ditto.services.connectivity.mapping.MessageMapper;
 import org.eclipse.ditto.services.connectivity.mapping.MessageMapperConfiguration;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 import org.mozilla.javascript.Context;
-import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
 
 import com.typesafe.config.Config;
 
@@ -48,8 +52,15 @@ final class JavaScriptMessageMapperRhino implements MessageMapper {
     private static final String CONFIG_JAVASCRIPT_MAX_SCRIPT_SIZE_BYTES = "javascript.maxScriptSizeBytes";
     private static final String CONFIG_JAVASCRIPT_MAX_SCRIPT_EXECUTION_TIME = "javascript.maxScriptExecutionTime";
     private static final String CONFIG_JAVASCRIPT_MAX_SCRIPT_STACK_DEPTH = "javascript.maxScriptStackDepth";
+    private static final String CONFIG_JAVASCRIPT_PRECOMPILE_SCRIPTS = "javascript.precompileScripts";
 
-    @Nullable private ContextFactory contextFactory;
+    /**
+     * The libraries and wrapper scripts are the same for all mappers, so they are compiled only once per JVM when
+     * scripts are precompiled. Compiled scripts do not hold any state and may be executed in any scope.
+     */
+    private static final ConcurrentMap<String, Script> COMPILED_LIBRARIES = new ConcurrentHashMap<>();
+
+    @Nullable private SandboxingContextFactory contextFactory;
     @Nullable private JavaScriptMessageMapperConfiguration configuration;
 
     private MappingFunction<ExternalMessage, Optional<Adaptable>> incomingMapping = DefaultIncomingMapping.get();
@@ -78,12 +89,15 @@ final class JavaScriptMessageMapperRhino implements MessageMapper {
         contextFactory = new SandboxingContextFactory(
                 mappingConfig.getDuration(CONFIG_JAVASCRIPT_MAX_SCRIPT_EXECUTION_TIME),
                 mappingConfig.getInt(CONFIG_JAVASCRIPT_MAX_SCRIPT_STACK_DEPTH));
+        final boolean precompileScripts = mappingConfig.hasPath(CONFIG_JAVASCRIPT_PRECOMPILE_SCRIPTS) &&
+                mappingConfig.getBoolean(CONFIG_JAVASCRIPT_PRECOMPILE_SCRIPTS);
 
         try {
             // create scope once and load the required libraries in order to get best performance:
             contextFactory.call(cx -> {
-                final Scriptable scope = cx.initSafeStandardObjects(); // that one disables "print, exit, quit", etc.
-                initLibraries(cx, scope);
+                // that one disables "print, exit, quit", etc.
+                final ScriptableObject scope = cx.initSafeStandardObjects();
+                initLibraries(cx, scope, precompileScripts);
                 return scope;
             });
         } catch (final RhinoException e) {
@@ -108,31 +122,22 @@ final class JavaScriptMessageMapperRhino implements MessageMapper {
         return outgoingMapping.apply(adaptable);
     }
 
-    private void initLibraries(final Context cx, final Scriptable scope) {
+    private void initLibraries(final Context cx, final ScriptableObject scope, final boolean precompileScripts) {
         if (getConfiguration().map(JavaScriptMessageMapperConfiguration::isLoadLongJS).orElse(false)) {
-            loadJavascriptLibrary(cx, scope, new InputStreamReader(getClass().getResourceAsStream(WEBJARS_LONG)),
-                    WEBJARS_LONG);
+            loadJavascriptLibrary(cx, scope, WEBJARS_LONG, precompileScripts);
         }
         if (getConfiguration().map(JavaScriptMessageMapperConfiguration::isLoadBytebufferJS).orElse(false)) {
-            loadJavascriptLibrary(cx, scope, new InputStreamReader(getClass().getResourceAsStream(WEBJARS_BYTEBUFFER)),
-                    WEBJARS_BYTEBUFFER);
+            loadJavascriptLibrary(cx, scope, WEBJARS_BYTEBUFFER, precompileScripts);
         }
 
-        loadJavascriptLibrary(cx, scope, new InputStreamReader(getClass().getResourceAsStream(DITTO_SCOPE_SCRIPT)),
-                DITTO_SCOPE_SCRIPT);
-        loadJavascriptLibrary(cx, scope, new InputStreamReader(getClass().getResourceAsStream(INCOMING_SCRIPT)),
-                INCOMING_SCRIPT);
-        loadJavascriptLibrary(cx, scope, new InputStreamReader(getClass().getResourceAsStream(OUTGOING_SCRIPT)),
-                OUTGOING_SCRIPT);
+        loadJavascriptLibrary(cx, scope, DITTO_SCOPE_SCRIPT, precompileScripts);
+        loadJavascriptLibrary(cx, scope, INCOMING_SCRIPT, precompileScripts);
+        loadJavascriptLibrary(cx, scope, OUTGOING_SCRIPT, precompileScripts);
 
         final String userIncomingScript = getConfiguration()
                 .flatMap(JavaScriptMessageMapperConfiguration::getIncomingScript)
                 .orElse("");
-        if (userIncomingScript.isEmpty()) {
-            // shortcut: the user defined an empty incoming mapping script -> assume that the ExternalMessage is in DittoProtocol
-            incomingMapping = DefaultIncomingMapping.get();
-        } else {
-            incomingMapping = new ScriptedIncomingMapping(contextFactory, scope);
+        if (!userIncomingScript.isEmpty()) {
             cx.evaluateString(scope, userIncomingScript,
                     JavaScriptMessageMapperConfigurationProperties.INCOMING_SCRIPT, 1, null);
         }
@@ -140,27 +145,70 @@ final class JavaScriptMessageMapperRhino implements MessageMapper {
         final String userOutgoingScript = getConfiguration()
                 .flatMap(JavaScriptMessageMapperConfiguration::getOutgoingScript)
                 .orElse("");
+        if (!userOutgoingScript.isEmpty()) {
+            cx.evaluateString(scope, userOutgoingScript,
+                    JavaScriptMessageMapperConfigurationProperties.OUTGOING_SCRIPT, 1, null);
+        }
+
+        if (precompileScripts) {
+            // the scope is shared by all threads mapping with this mapper, so nothing may be changed in it any more:
+            scope.sealObject();
+        }
+
+        if (userIncomingScript.isEmpty()) {
+            // shortcut: the user defined an empty incoming mapping script -> assume that the ExternalMessage is in DittoProtocol
+            incomingMapping = DefaultIncomingMapping.get();
+        } else if (precompileScripts) {
+            incomingMapping = new ScriptedIncomingMapping(contextFactory, scope,
+                    getFunction(scope, ScriptedIncomingMapping.INCOMING_FUNCTION_NAME));
+        } else {
+            incomingMapping = new ScriptedIncomingMapping(contextFactory, scope);
+        }
+
         if (userOutgoingScript.isEmpty()) {
             // shortcut: the user defined an empty outgoing mapping script -> send the Adaptable as DittoProtocol JSON
             outgoingMapping = DefaultOutgoingMapping.get();
+        } else if (precompileScripts) {
+            outgoingMapping = new ScriptedOutgoingMapping(contextFactory, scope,
+                    getFunction(scope, ScriptedOutgoingMapping.OUTGOING_FUNCTION_NAME));
         } else {
             outgoingMapping = new ScriptedOutgoingMapping(contextFactory, scope);
-            cx.evaluateString(scope, userOutgoingScript,
-                    JavaScriptMessageMapperConfigurationProperties.OUTGOING_SCRIPT, 1, null);
         }
     }
 
+    private static Function getFunction(final Scriptable scope, final String functionName) {
+        final Object function = ScriptableObject.getProperty(scope, functionName);
+        if (!(function instanceof Function)) {
+            throw new IllegalStateException("Function <" + functionName + "> is not defined");
+        }
+        return (Function) function;
+    }
+
     private Optional<JavaScriptMessageMapperConfiguration> getConfiguration() {
         return Optional.ofNullable(configuration);
     }
 
-    private void loadJavascriptLibrary(final Context cx, final Scriptable scope, final Reader reader,
-            final String libraryName) {
-
-        try {
-            cx.evaluateReader(scope, reader, libraryName, 1, null);
-        } catch (final IOException e) {
-            throw new IllegalStateException("Could not load script <" + libraryName + ">", e);
+    private void loadJavascriptLibrary(final Context cx, final Scriptable scope, final String libraryName,
+            final boolean precompileScripts) {
+
+        if (precompileScripts) {
+            COMPILED_LIBRARIES.computeIfAbsent(libraryName, name -> {
+                try (final Reader reader = openJavascriptLibrary(name)) {
+                    return cx.compileReader(reader, name, 1, null);
+                } catch (final IOException e) {
+                    throw new IllegalStateException("Could not load script <" + name + ">", e);
+                }
+            }).exec(cx, scope);
+        } else {
+            try {
+                cx.evaluateReader(scope, openJavascriptLibrary(libraryName), libraryName, 1, null);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not load script <" + libraryName + ">", e);
+            }
         }
     }
+
+    private Reader openJavascriptLibrary(final String libraryName) {
+        return new InputStreamReader(getClass().getResourceAsStream(libraryName));
+    }
 }
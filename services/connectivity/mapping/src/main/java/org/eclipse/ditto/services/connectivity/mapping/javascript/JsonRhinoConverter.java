@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.mapping.javascript;
+
+import javax.annotation.Nullable;
+
+import org.eclipse.ditto.json.JsonArray;
+import org.eclipse.ditto.json.JsonArrayBuilder;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonField;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonValue;
+import org.mozilla.javascript.Callable;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeArray;
+import org.mozilla.javascript.NativeJSON;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+
+/**
+ * Converts between Ditto JSON values and JavaScript objects of Rhino directly instead of serializing them to a JSON
+ * string and parsing them again. The conversion follows the rules of {@code JSON.stringify} and {@code JSON.parse};
+ * JavaScript objects which are neither plain objects nor arrays (e.g. dates or objects defining {@code toJSON}) are
+ * converted with {@code JSON.stringify}.
+ */
+final class JsonRhinoConverter {
+
+    private static final String TO_JSON = "toJSON";
+
+    private JsonRhinoConverter() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Converts a Ditto JSON value to the JavaScript value {@code JSON.parse} would return for it.
+     *
+     * @param cx the current Rhino context.
+     * @param scope the scope to create JavaScript objects in.
+     * @param jsonValue the JSON value to convert.
+     * @return the JavaScript value.
+     */
+    @Nullable
+    static Object toJavaScript(final Context cx, final Scriptable scope, final JsonValue jsonValue) {
+        if (jsonValue.isNull()) {
+            return null;
+        } else if (jsonValue.isBoolean()) {
+            return jsonValue.asBoolean();
+        } else if (jsonValue.isNumber()) {
+            return jsonValue.asDouble();
+        } else if (jsonValue.isString()) {
+            return jsonValue.asString();
+        } else if (jsonValue.isArray()) {
+            final JsonArray jsonArray = jsonValue.asArray();
+            final Object[] elements = new Object[jsonArray.getSize()];
+            int i = 0;
+            for (final JsonValue element : jsonArray) {
+                elements[i++] = toJavaScript(cx, scope, element);
+            }
+            return cx.newArray(scope, elements);
+        } else {
+            final Scriptable object = cx.newObject(scope);
+            for (final JsonField field : jsonValue.asObject()) {
+                final String key = field.getKeyName();
+                final Object value = toJavaScript(cx, scope, field.getValue());
+                final int index = toArrayIndex(key);
+                if (index >= 0) {
+                    object.put(index, object, value);
+                } else {
+                    object.put(key, object, value);
+                }
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Converts a JavaScript value to the Ditto JSON value {@code JSON.stringify} would serialize it to.
+     *
+     * @param cx the current Rhino context.
+     * @param scope the scope the JavaScript value was created in.
+     * @param value the JavaScript value to convert.
+     * @return the JSON value or {@code null} if {@code JSON.stringify} would omit the value, e.g. for functions.
+     */
+    @Nullable
+    static JsonValue toJsonValue(final Context cx, final Scriptable scope, @Nullable final Object value) {
+        if (value == null) {
+            return JsonFactory.nullLiteral();
+        } else if (Undefined.isUndefined(value) || value instanceof Callable) {
+            return null;
+        } else if (value instanceof Boolean) {
+            return JsonValue.of((Boolean) value);
+        } else if (value instanceof CharSequence) {
+            return JsonValue.of(value.toString());
+        } else if (value instanceof Number) {
+            return toJsonNumber(((Number) value).doubleValue());
+        } else if (value instanceof NativeArray && !hasToJson((Scriptable) value)) {
+            return toJsonArray(cx, scope, (NativeArray) value);
+        } else if (value instanceof NativeObject && !hasToJson((Scriptable) value)) {
+            return toJsonObject(cx, scope, (NativeObject) value);
+        }
+        final Object json = NativeJSON.stringify(cx, scope, value, null, null);
+        return Undefined.isUndefined(json) ? null : JsonFactory.readFrom(json.toString());
+    }
+
+    private static JsonArray toJsonArray(final Context cx, final Scriptable scope, final NativeArray array) {
+        final JsonArrayBuilder builder = JsonFactory.newArrayBuilder();
+        final long length = array.getLength();
+        for (int i = 0; i < length; i++) {
+            final Object element = array.get(i, array);
+            final JsonValue jsonElement =
+                    element == Scriptable.NOT_FOUND ? null : toJsonValue(cx, scope, element);
+            builder.add(jsonElement != null ? jsonElement : JsonFactory.nullLiteral());
+        }
+        return builder.build();
+    }
+
+    private static JsonObject toJsonObject(final Context cx, final Scriptable scope, final NativeObject object) {
+        final JsonObjectBuilder builder = JsonFactory.newObjectBuilder();
+        for (final Object id : object.getIds()) {
+            final Object value = id instanceof Integer
+                    ? object.get((Integer) id, object)
+                    : object.get(id.toString(), object);
+            final JsonValue jsonValue = toJsonValue(cx, scope, value);
+            if (jsonValue != null) {
+                // set as JsonKey, otherwise keys containing slashes would be interpreted as JSON pointers
+                builder.set(JsonFactory.newKey(id.toString()), jsonValue);
+            }
+        }
+        return builder.build();
+    }
+
+    private static JsonValue toJsonNumber(final double number) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            return JsonFactory.nullLiteral();
+        } else if (number == Math.rint(number) && number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+            final long longValue = (long) number;
+            return longValue == (int) longValue ? JsonValue.of((int) longValue) : JsonValue.of(longValue);
+        }
+        return JsonValue.of(number);
+    }
+
+    private static boolean hasToJson(final Scriptable object) {
+        return ScriptableObject.getProperty(object, TO_JSON) instanceof Callable;
+    }
+
+    private static int toArrayIndex(final String key) {
+        final int length = key.length();
+        if (length == 0 || length > 9 || (length > 1 && key.charAt(0) == '0')) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+}
@@ -16,6 +16,7 @@ import java.time.Duration;
 
 import org.mozilla.javascript.Callable;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextAction;
 import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.Scriptable;
 
@@ -36,6 +37,7 @@ final class SandboxingContextFactory extends ContextFactory {
 
     private final Duration maxScriptExecutionTime;
     private final int maxStackDepth;
+    private final ThreadLocal<Context> threadContexts = ThreadLocal.withInitial(this::makeContext);
 
     /**
      * Constructs a new ContextFactory for sandboxing Rhino executions.
@@ -60,6 +62,22 @@ final class SandboxingContextFactory extends ContextFactory {
         return cx;
     }
 
+    /**
+     * Calls the passed action with a Context which is kept for the current thread and reused by all of its calls
+     * instead of creating and configuring a new Context per call like {@link #call(ContextAction)} does.
+     *
+     * @param action the action to run.
+     * @return the result of the action.
+     */
+    Object callWithThreadContext(final ContextAction action) {
+        final Context cx = enterContext(threadContexts.get());
+        try {
+            return action.run(cx);
+        } finally {
+            Context.exit();
+        }
+    }
+
     @Override
     public boolean hasFeature(final Context cx, final int featureIndex) {
         switch (featureIndex) {
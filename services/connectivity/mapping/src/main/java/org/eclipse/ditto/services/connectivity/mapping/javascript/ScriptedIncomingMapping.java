@@ -19,13 +19,16 @@ import javax.annotation.Nullable;
 
 import org.eclipse.ditto.json.JsonFactory;
 import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonValue;
 import org.eclipse.ditto.model.base.exceptions.DittoJsonException;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
 import org.eclipse.ditto.model.connectivity.MessageMappingFailedException;
 import org.eclipse.ditto.protocoladapter.Adaptable;
 import org.eclipse.ditto.protocoladapter.ProtocolFactory;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.mozilla.javascript.ContextAction;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
 import org.mozilla.javascript.NativeJSON;
 import org.mozilla.javascript.NativeObject;
 import org.mozilla.javascript.RhinoException;
@@ -42,22 +45,39 @@ public class ScriptedIncomingMapping implements MappingFunction<ExternalMessage,
     private static final String EXTERNAL_MESSAGE_TEXT_PAYLOAD = "textPayload";
     private static final String EXTERNAL_MESSAGE_BYTE_PAYLOAD = "bytePayload";
 
-    private static final String INCOMING_FUNCTION_NAME = "mapToDittoProtocolMsgWrapper";
+    static final String INCOMING_FUNCTION_NAME = "mapToDittoProtocolMsgWrapper";
 
     @Nullable
     private ContextFactory contextFactory;
     @Nullable
     private Scriptable scope;
+    @Nullable
+    private Function mappingFunction;
 
     ScriptedIncomingMapping(@Nullable final ContextFactory contextFactory, @Nullable final Scriptable scope) {
         this.contextFactory = contextFactory;
         this.scope = scope;
     }
 
+    /**
+     * Creates a mapping which calls the already compiled wrapper function of the sealed {@code scope} with a Context
+     * kept per thread and converts the mapped message to JSON without serializing it to a JSON string.
+     *
+     * @param contextFactory the factory of the per thread Contexts.
+     * @param scope the sealed scope containing the mapping scripts.
+     * @param mappingFunction the compiled {@code mapToDittoProtocolMsgWrapper} function.
+     */
+    ScriptedIncomingMapping(final SandboxingContextFactory contextFactory, final Scriptable scope,
+            final Function mappingFunction) {
+        this.contextFactory = contextFactory;
+        this.scope = scope;
+        this.mappingFunction = mappingFunction;
+    }
+
     @Override
     public Optional<Adaptable> apply(final ExternalMessage message) {
         try {
-            return Optional.ofNullable((Adaptable) contextFactory.call(cx -> {
+            return Optional.ofNullable((Adaptable) call(cx -> {
                 final NativeObject headersObj = new NativeObject();
                 message.getHeaders().forEach((key, value) -> headersObj.put(key, headersObj, value));
 
@@ -66,9 +86,7 @@ public class ScriptedIncomingMapping implements MappingFunction<ExternalMessage,
                     final ByteBuffer byteBuffer = message.getBytePayload().get();
                     final byte[] array = byteBuffer.array();
                     bytePayload = new NativeArrayBuffer(array.length);
-                    for (int a = 0; a < array.length; a++) {
-                        bytePayload.getBuffer()[a] = array[a];
-                    }
+                    System.arraycopy(array, 0, bytePayload.getBuffer(), 0, array.length);
                 } else {
                     bytePayload = null;
                 }
@@ -82,8 +100,9 @@ public class ScriptedIncomingMapping implements MappingFunction<ExternalMessage,
                 externalMessage.put(EXTERNAL_MESSAGE_BYTE_PAYLOAD, externalMessage, bytePayload);
                 externalMessage.put(EXTERNAL_MESSAGE_CONTENT_TYPE, externalMessage, contentType);
 
-                final org.mozilla.javascript.Function
-                        mapToDittoProtocolMsgWrapper = (org.mozilla.javascript.Function) scope.get(INCOMING_FUNCTION_NAME, scope);
+                final Function mapToDittoProtocolMsgWrapper = mappingFunction != null
+                        ? mappingFunction
+                        : (Function) scope.get(INCOMING_FUNCTION_NAME, scope);
                 final Object result = mapToDittoProtocolMsgWrapper.call(cx, scope, scope, new Object[] {externalMessage});
 
                 if (result == null) {
@@ -91,6 +110,16 @@ public class ScriptedIncomingMapping implements MappingFunction<ExternalMessage,
                     return null;
                 }
 
+                if (mappingFunction != null) {
+                    return DittoJsonException.wrapJsonRuntimeException(() -> {
+                        final JsonValue dittoProtocolJson = JsonRhinoConverter.toJsonValue(cx, scope, result);
+                        final JsonObject jsonObject = dittoProtocolJson != null
+                                ? dittoProtocolJson.asObject()
+                                : JsonFactory.nullObject();
+                        return ProtocolFactory.jsonifiableAdaptableFromJson(jsonObject);
+                    });
+                }
+
                 final String dittoProtocolJsonStr = (String) NativeJSON.stringify(cx, scope, result, null, null);
 
                 return DittoJsonException.wrapJsonRuntimeException(() -> {
@@ -109,4 +138,12 @@ public class ScriptedIncomingMapping implements MappingFunction<ExternalMessage,
                     .build();
         }
     }
+
+    private Object call(final ContextAction action) {
+        if (mappingFunction != null) {
+            return ((SandboxingContextFactory) contextFactory).callWithThreadContext(action);
+        }
+        return contextFactory.call(action);
+    }
+
 }
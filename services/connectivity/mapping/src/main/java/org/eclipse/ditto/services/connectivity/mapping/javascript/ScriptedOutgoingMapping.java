@@ -37,7 +37,9 @@ import org.eclipse.ditto.services.models.connectivity.ExternalMessageBuilder;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
 import org.mozilla.javascript.Callable;
 import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextAction;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Function;
 import org.mozilla.javascript.NativeJSON;
 import org.mozilla.javascript.NativeObject;
 import org.mozilla.javascript.RhinoException;
@@ -55,28 +57,47 @@ public class ScriptedOutgoingMapping implements MappingFunction<Adaptable, Optio
     private static final String EXTERNAL_MESSAGE_TEXT_PAYLOAD = "textPayload";
     private static final String EXTERNAL_MESSAGE_BYTE_PAYLOAD = "bytePayload";
 
-    private static final String OUTGOING_FUNCTION_NAME = "mapFromDittoProtocolMsgWrapper";
+    static final String OUTGOING_FUNCTION_NAME = "mapFromDittoProtocolMsgWrapper";
 
     @Nullable
     private ContextFactory contextFactory;
     @Nullable
     private Scriptable scope;
+    @Nullable
+    private Function mappingFunction;
 
     ScriptedOutgoingMapping(@Nullable final ContextFactory contextFactory, @Nullable final Scriptable scope) {
         this.contextFactory = contextFactory;
         this.scope = scope;
     }
 
+    /**
+     * Creates a mapping which calls the already compiled wrapper function of the sealed {@code scope} with a Context
+     * kept per thread and passes the Ditto Protocol message in without serializing it to a JSON string.
+     *
+     * @param contextFactory the factory of the per thread Contexts.
+     * @param scope the sealed scope containing the mapping scripts.
+     * @param mappingFunction the compiled {@code mapFromDittoProtocolMsgWrapper} function.
+     */
+    ScriptedOutgoingMapping(final SandboxingContextFactory contextFactory, final Scriptable scope,
+            final Function mappingFunction) {
+        this.contextFactory = contextFactory;
+        this.scope = scope;
+        this.mappingFunction = mappingFunction;
+    }
+
     @Override
     public Optional<ExternalMessage> apply(final Adaptable adaptable) {
         try {
             final JsonifiableAdaptable jsonifiableAdaptable = ProtocolFactory.wrapAsJsonifiableAdaptable(adaptable);
-            return Optional.ofNullable((ExternalMessage) contextFactory.call(cx -> {
-                final Object dittoProtocolMessage =
-                        NativeJSON.parse(cx, scope, jsonifiableAdaptable.toJsonString(), new NullCallable());
-
-                final org.mozilla.javascript.Function
-                        mapFromDittoProtocolMsgWrapper = (org.mozilla.javascript.Function) scope.get(OUTGOING_FUNCTION_NAME, scope);
+            return Optional.ofNullable((ExternalMessage) call(cx -> {
+                final Object dittoProtocolMessage = mappingFunction != null
+                        ? JsonRhinoConverter.toJavaScript(cx, scope, jsonifiableAdaptable.toJson())
+                        : NativeJSON.parse(cx, scope, jsonifiableAdaptable.toJsonString(), new NullCallable());
+
+                final Function mapFromDittoProtocolMsgWrapper = mappingFunction != null
+                        ? mappingFunction
+                        : (Function) scope.get(OUTGOING_FUNCTION_NAME, scope);
                 final NativeObject result =
                         (NativeObject) mapFromDittoProtocolMsgWrapper.call(cx, scope, scope,
                                 new Object[]{dittoProtocolMessage});
@@ -134,6 +155,13 @@ public class ScriptedOutgoingMapping implements MappingFunction<Adaptable, Optio
         }
     }
 
+    private Object call(final ContextAction action) {
+        if (mappingFunction != null) {
+            return ((SandboxingContextFactory) contextFactory).callWithThreadContext(action);
+        }
+        return contextFactory.call(action);
+    }
+
     private static Optional<ByteBuffer> convertToByteBuffer(final Object obj) {
         if (obj instanceof NativeArrayBuffer) {
             return Optional.of(ByteBuffer.wrap(((NativeArrayBuffer) obj).getBuffer()));
@@ -50,6 +50,7 @@ import org.junit.Test;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
 
 /**
  * Tests the {@link JavaScriptMessageMapperRhino} by initializing different mapping templates and ensuring that they
@@ -85,6 +86,9 @@ public class JavaScriptMessageMapperRhinoTest {
             "        maxScriptStackDepth = 10\n" +
             "      }");
 
+    private static final Config MAPPING_CONFIG_PRECOMPILED =
+            MAPPING_CONFIG.withValue("javascript.precompileScripts", ConfigValueFactory.fromAnyRef(true));
+
 
     private static final String MAPPING_INCOMING_PLAIN =
             "function mapToDittoProtocolMsg(\n" +
@@ -310,6 +314,7 @@ public class JavaScriptMessageMapperRhinoTest {
     private static MessageMapper javaScriptRhinoMapperEmpty;
     private static MessageMapper javaScriptRhinoMapperBinary;
     private static MessageMapper javaScriptRhinoMapperDefault;
+    private static MessageMapper javaScriptRhinoMapperBinaryPrecompiled;
 
     @BeforeClass
     public static void setup() {
@@ -352,6 +357,16 @@ public class JavaScriptMessageMapperRhinoTest {
                         .build()
         );
 
+        javaScriptRhinoMapperBinaryPrecompiled = MessageMappers.createJavaScriptMessageMapper();
+        javaScriptRhinoMapperBinaryPrecompiled.configure(MAPPING_CONFIG_PRECOMPILED,
+                JavaScriptMessageMapperFactory
+                        .createJavaScriptMessageMapperConfigurationBuilder(Collections.emptyMap())
+                        .contentType(CONTENT_TYPE_BINARY)
+                        .incomingScript(MAPPING_INCOMING_BINARY)
+                        .outgoingScript(MAPPING_OUTGOING_BINARY)
+                        .build()
+        );
+
         javaScriptRhinoMapperDefault = MessageMappers.createJavaScriptMessageMapper();
         javaScriptRhinoMapperDefault.configure(MAPPING_CONFIG,
                 JavaScriptMessageMapperFactory
@@ -617,6 +632,40 @@ public class JavaScriptMessageMapperRhinoTest {
                 .contains(thingId);
     }
 
+    @Test
+    public void testPrecompiledBinaryJavascriptMapping() {
+        final String thingId = "org.eclipse.ditto:foo-bar-precompiled";
+        final String correlationId = UUID.randomUUID().toString();
+        final Thing newThing = Thing.newBuilder()
+                .setId(thingId)
+                .setAttributes(Attributes.newBuilder().set("foo", "bar").build())
+                .build();
+        final CreateThing createThing =
+                CreateThing.of(newThing, null, DittoHeaders.newBuilder().correlationId(correlationId).build());
+        final Adaptable adaptable = DittoProtocolAdapter.newInstance().toAdaptable(createThing);
+
+        final ExternalMessage rawMessage = javaScriptRhinoMapperBinaryPrecompiled.map(adaptable).get();
+
+        assertThat(rawMessage.findContentType()).contains(CONTENT_TYPE_BINARY);
+        assertThat(rawMessage.findHeader(HEADER_CORRELATION_ID)).contains(correlationId);
+        assertThat(rawMessage.getBytePayload()).map(buf -> byteBuffer2String(buf, StandardCharsets.UTF_8))
+                .contains(thingId);
+
+        final Map<String, String> headers = new HashMap<>();
+        headers.put(HEADER_CORRELATION_ID, correlationId);
+        headers.put(ExternalMessage.CONTENT_TYPE_HEADER, CONTENT_TYPE_BINARY);
+        final ExternalMessage message = ExternalMessageFactory.newExternalMessageBuilder(headers)
+                .withBytes(MAPPING_INCOMING_PAYLOAD_BYTES)
+                .build();
+
+        final Adaptable mappedAdaptable = javaScriptRhinoMapperBinaryPrecompiled.map(message).get();
+
+        assertThat(mappedAdaptable.getTopicPath().getId()).isEqualTo(MAPPING_INCOMING_ID);
+        assertThat(mappedAdaptable.getPayload().getPath().toString()).isEqualTo(MAPPING_INCOMING_PATH);
+        assertThat(mappedAdaptable.getPayload().getValue()).contains(JsonValue.of(MAPPING_INCOMING_PAYLOAD_STRING));
+        assertThat(mappedAdaptable.getHeaders().flatMap(DittoHeaders::getCorrelationId)).contains(correlationId);
+    }
+
     @Nullable
     private static String byteBuffer2String(@Nullable final ByteBuffer buf, Charset charset) {
         if (buf == null) {
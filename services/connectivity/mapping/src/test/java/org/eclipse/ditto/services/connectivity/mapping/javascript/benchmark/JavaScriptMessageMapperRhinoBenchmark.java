@@ -12,19 +12,28 @@
  */
 package org.eclipse.ditto.services.connectivity.mapping.javascript.benchmark;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.ditto.protocoladapter.Adaptable;
 import org.eclipse.ditto.services.connectivity.mapping.MessageMapper;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
 /**
  * JMH Benchmark for {@link org.eclipse.ditto.services.connectivity.mapping.javascript.JavaScriptMessageMapperRhino}
  * mappings.
+ * <p>
+ * The scenario benchmarks create and configure a new mapper for each message. {@link #mapPerConnection(Connection)}
+ * configures one mapper per connection and scenario up front and maps all messages with it, once with scripts
+ * evaluated per mapper and once with precompiled scripts.
+ * </p>
  */
 @State(Scope.Benchmark)
 public class JavaScriptMessageMapperRhinoBenchmark {
@@ -76,9 +85,45 @@ public class JavaScriptMessageMapperRhinoBenchmark {
         runScenario(scenario);
     }
 
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Optional<Adaptable> mapPerConnection(final Connection connection) {
+        return connection.messageMapper.map(connection.externalMessage);
+    }
+
     private void runScenario(final MapToDittoProtocolScenario scenario) {
         final MessageMapper messageMapper = scenario.getMessageMapper();
         final ExternalMessage externalMessage = scenario.getExternalMessage();
         messageMapper.map(externalMessage);
     }
+
+    /**
+     * The mapper of one connection, configured once for all mapped messages.
+     */
+    @State(Scope.Benchmark)
+    public static class Connection {
+
+        @Param({"SimpleMapTextPayloadToDitto", "Test1DecodeBinaryPayloadToDitto", "Test2ParseJsonPayloadToDitto",
+                "Test3FormatJsonPayloadToDitto", "Test4ConstructJsonPayloadToDitto", "Test5DecodeBinaryToDitto"})
+        public String scenario;
+
+        @Param({"false", "true"})
+        public boolean precompileScripts;
+
+        private MessageMapper messageMapper;
+        private ExternalMessage externalMessage;
+
+        @Setup
+        public void setUp() throws ReflectiveOperationException {
+            final MapToDittoProtocolScenario mapToDittoProtocolScenario = (MapToDittoProtocolScenario)
+                    Class.forName(Connection.class.getPackage().getName() + "." + scenario).newInstance();
+            messageMapper = mapToDittoProtocolScenario.getMessageMapper(precompileScripts
+                    ? MapToDittoProtocolScenario.MAPPING_CONFIG_PRECOMPILED
+                    : MapToDittoProtocolScenario.MAPPING_CONFIG);
+            externalMessage = mapToDittoProtocolScenario.getExternalMessage();
+        }
+
+    }
+
 }
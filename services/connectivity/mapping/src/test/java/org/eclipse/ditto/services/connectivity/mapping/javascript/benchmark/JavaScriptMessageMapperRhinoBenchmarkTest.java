@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.eclipse.ditto.json.JsonFactory;
 import org.eclipse.ditto.json.JsonValue;
 import org.eclipse.ditto.protocoladapter.Adaptable;
+import org.eclipse.ditto.protocoladapter.ProtocolFactory;
 import org.eclipse.ditto.protocoladapter.TopicPath;
 import org.eclipse.ditto.services.connectivity.mapping.MessageMapper;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
@@ -90,6 +91,30 @@ public class JavaScriptMessageMapperRhinoBenchmarkTest {
         assertThat(adaptable.getPayload().getValue()).contains(JsonFactory.readFrom("{\"temperature\":{\"properties\":{\"value\":25.43}},\"pressure\":{\"properties\":{\"value\":1015}},\"humidity\":{\"properties\":{\"value\":42}}}"));
     }
 
+    @Test
+    public void precompiledScriptsMapLikeEvaluatedScripts() {
+        final MapToDittoProtocolScenario[] scenarios = {
+                new SimpleMapTextPayloadToDitto(),
+                new Test1DecodeBinaryPayloadToDitto(),
+                new Test2ParseJsonPayloadToDitto(),
+                new Test3FormatJsonPayloadToDitto(),
+                new Test4ConstructJsonPayloadToDitto(),
+                new Test5DecodeBinaryToDitto()
+        };
+        for (final MapToDittoProtocolScenario scenario : scenarios) {
+            final MessageMapper precompiledMapper =
+                    scenario.getMessageMapper(MapToDittoProtocolScenario.MAPPING_CONFIG_PRECOMPILED);
+            final Adaptable expected = runScenario(scenario);
+
+            // map twice to reuse the context of the thread
+            for (int i = 0; i < 2; i++) {
+                final Adaptable adaptable = precompiledMapper.map(scenario.getExternalMessage()).get();
+                assertThat(ProtocolFactory.wrapAsJsonifiableAdaptable(adaptable).toJson())
+                        .isEqualTo(ProtocolFactory.wrapAsJsonifiableAdaptable(expected).toJson());
+            }
+        }
+    }
+
     private Adaptable runScenario(final MapToDittoProtocolScenario scenario) {
         final MessageMapper messageMapper = scenario.getMessageMapper();
         final ExternalMessage externalMessage = scenario.getExternalMessage();
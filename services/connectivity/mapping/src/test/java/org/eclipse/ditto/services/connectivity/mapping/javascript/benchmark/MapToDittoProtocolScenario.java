@@ -17,6 +17,7 @@ import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
 
 /**
  * Interface for scenarios mapping from an {@link ExternalMessage} to Ditto Protocol message.
@@ -29,7 +30,14 @@ public interface MapToDittoProtocolScenario {
             "        maxScriptStackDepth = 10\n" +
             "      }");
 
-    MessageMapper getMessageMapper();
+    Config MAPPING_CONFIG_PRECOMPILED = MAPPING_CONFIG.withValue("javascript.precompileScripts",
+            ConfigValueFactory.fromAnyRef(true));
+
+    default MessageMapper getMessageMapper() {
+        return getMessageMapper(MAPPING_CONFIG);
+    }
+
+    MessageMapper getMessageMapper(Config mappingConfig);
 
     ExternalMessage getExternalMessage();
 }
@@ -26,6 +26,8 @@ import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 
+import com.typesafe.config.Config;
+
 @State(Scope.Benchmark)
 public class Test1DecodeBinaryPayloadToDitto implements MapToDittoProtocolScenario {
 
@@ -93,9 +95,9 @@ public class Test1DecodeBinaryPayloadToDitto implements MapToDittoProtocolScenar
     }
 
     @Override
-    public MessageMapper getMessageMapper() {
+    public MessageMapper getMessageMapper(final Config mappingConfig) {
         final MessageMapper javaScriptRhinoMapperPlain = MessageMappers.createJavaScriptMessageMapper();
-        javaScriptRhinoMapperPlain.configure(MAPPING_CONFIG,
+        javaScriptRhinoMapperPlain.configure(mappingConfig,
                 JavaScriptMessageMapperFactory
                         .createJavaScriptMessageMapperConfigurationBuilder(Collections.emptyMap())
                         .contentType(CONTENT_TYPE)
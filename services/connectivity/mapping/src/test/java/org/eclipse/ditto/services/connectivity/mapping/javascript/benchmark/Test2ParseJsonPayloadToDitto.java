@@ -25,6 +25,8 @@ import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 
+import com.typesafe.config.Config;
+
 @State(Scope.Benchmark)
 public class Test2ParseJsonPayloadToDitto implements MapToDittoProtocolScenario {
 
@@ -138,9 +140,9 @@ public class Test2ParseJsonPayloadToDitto implements MapToDittoProtocolScenario
     }
 
     @Override
-    public MessageMapper getMessageMapper() {
+    public MessageMapper getMessageMapper(final Config mappingConfig) {
         final MessageMapper javaScriptRhinoMapperPlain = MessageMappers.createJavaScriptMessageMapper();
-        javaScriptRhinoMapperPlain.configure(MAPPING_CONFIG,
+        javaScriptRhinoMapperPlain.configure(mappingConfig,
                 JavaScriptMessageMapperFactory
                         .createJavaScriptMessageMapperConfigurationBuilder(Collections.emptyMap())
                         .contentType(CONTENT_TYPE)
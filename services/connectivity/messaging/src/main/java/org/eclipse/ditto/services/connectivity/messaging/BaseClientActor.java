@@ -84,9 +84,6 @@ import akka.actor.Props;
 import akka.actor.Status;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.pf.FSMStateFunctionBuilder;
-import akka.routing.DefaultResizer;
-import akka.routing.Resizer;
-import akka.routing.RoundRobinPool;
 import scala.concurrent.duration.Duration;
 import scala.concurrent.duration.FiniteDuration;
 import scala.util.Either;
@@ -797,8 +794,8 @@ public abstract class BaseClientActor extends AbstractFSM<BaseClientState, BaseC
     }
 
     /**
-     * Starts the {@link MessageMappingProcessorActor} responsible for payload transformation/mapping as child actor
-     * behind a (cluster node local) RoundRobin pool and a dynamic resizer from the current mapping context.
+     * Starts the {@link MessageMappingProcessorActor}s responsible for payload transformation/mapping as children of a
+     * {@link MessageMappingProcessorRouterActor} from the current mapping context.
      */
     protected Either<DittoRuntimeException, ActorRef> startMessageMappingProcessor() {
         final MappingContext mappingContext = stateData().getConnection().getMappingContext().orElse(null);
@@ -806,8 +803,8 @@ public abstract class BaseClientActor extends AbstractFSM<BaseClientState, BaseC
     }
 
     /**
-     * Starts the {@link MessageMappingProcessorActor} responsible for payload transformation/mapping as child actor
-     * behind a (cluster node local) RoundRobin pool and a dynamic resizer.
+     * Starts the {@link MessageMappingProcessorActor}s responsible for payload transformation/mapping as children of a
+     * {@link MessageMappingProcessorRouterActor} which partitions the messages across them.
      *
      * @param mappingContext the MappingContext containing information about how to map external messages
      */
@@ -830,19 +827,29 @@ public abstract class BaseClientActor extends AbstractFSM<BaseClientState, BaseC
             log.info("Configured for processing messages with the following MessageMapperRegistry: <{}>",
                     processor.getRegistry());
 
-            log.debug("Starting MessageMappingProcessorActor with pool size of <{}>.",
+            log.debug("Starting <{}> MessageMappingProcessorActors.",
                     connection.getProcessorPoolSize());
-            final Props props =
+            final Props workerProps =
                     MessageMappingProcessorActor.props(getPublisherActor(), conciergeForwarder, processor,
-                            connectionId());
-
-            final Resizer resizer = new DefaultResizer(1, connection.getProcessorPoolSize());
-            messageMappingProcessorActor = getContext().actorOf(new RoundRobinPool(1)
-                    .withDispatcher("message-mapping-processor-dispatcher")
-                    .withResizer(resizer)
-                    .props(props), nextChildActorName(MessageMappingProcessorActor.ACTOR_NAME));
+                            connectionId())
+                            .withDispatcher("message-mapping-processor-dispatcher");
+
+            final Config config = getContext().getSystem().settings().config();
+            final Props props = MessageMappingProcessorRouterActor.props(workerProps,
+                    connection.getProcessorPoolSize(),
+                    config.getString(ConfigKeys.Mapping.PARTITION_HEADER),
+                    config.getInt(ConfigKeys.Mapping.MAX_IN_FLIGHT),
+                    connectionId());
+            messageMappingProcessorActor =
+                    getContext().actorOf(props, nextChildActorName(MessageMappingProcessorRouterActor.ACTOR_NAME));
         } else {
             log.info("MessageMappingProcessor already instantiated: not initializing again.");
+            // the publisher may have been restarted since the mapping processor was started
+            final ActorRef publisherActor = getPublisherActor();
+            if (publisherActor != null) {
+                messageMappingProcessorActor.tell(
+                        MessageMappingProcessorRouterActor.ReplacePublisher.of(publisherActor), getSelf());
+            }
         }
         return Right.apply(messageMappingProcessorActor);
     }
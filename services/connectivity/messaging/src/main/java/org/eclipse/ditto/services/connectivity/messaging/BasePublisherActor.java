@@ -22,10 +22,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 
 import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.model.base.headers.DittoHeaderDefinition;
@@ -51,6 +55,7 @@ import org.eclipse.ditto.services.utils.config.ConfigUtil;
 import org.eclipse.ditto.signals.base.Signal;
 
 import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.pf.ReceiveBuilder;
 
@@ -72,6 +77,8 @@ public abstract class BasePublisherActor<T extends PublishTarget> extends Abstra
     private final ConnectionMetricsCollector responseDroppedCounter;
     private final ConnectionMetricsCollector responsePublishedCounter;
 
+    @Nullable private CompletionStage<Boolean> acceptance;
+    @Nullable private ActorRef publishSender;
 
     protected BasePublisherActor(final String connectionId, final List<Target> targets) {
         this.connectionId = checkNotNull(connectionId, "connectionId");
@@ -87,6 +94,45 @@ public abstract class BasePublisherActor<T extends PublishTarget> extends Abstra
 
     @Override
     public Receive createReceive() {
+        final Receive publishReceive = createPublishReceive();
+        return receiveBuilder()
+                .match(AwaitAcceptance.class, awaitAcceptance -> handleAwaitAcceptance(awaitAcceptance,
+                        publishReceive))
+                .build()
+                .orElse(publishReceive);
+    }
+
+    /**
+     * Returns the sender of the current message. While a signal of an {@link AwaitAcceptance} is published, this is
+     * the sender of the mapped signal rather than the one waiting for the acceptance, so that responses and errors of
+     * publishing reach the same actor as if the signal had been published without awaiting its acceptance.
+     *
+     * @return the sender.
+     */
+    @Override
+    public ActorRef getSender() {
+        return null != publishSender ? publishSender : super.getSender();
+    }
+
+    private void handleAwaitAcceptance(final AwaitAcceptance awaitAcceptance, final Receive publishReceive) {
+        final ActorRef sender = getSender();
+        final ActorRef self = getSelf();
+        final CompletionStage<Boolean> accepted;
+        acceptance = CompletableFuture.completedFuture(true);
+        publishSender = awaitAcceptance.getSender();
+        try {
+            publishReceive.onMessage().apply(awaitAcceptance.getSignal());
+        } finally {
+            accepted = acceptance;
+            acceptance = null;
+            publishSender = null;
+        }
+        whenAccepted().thenCombine(accepted, (previous, acceptedAll) ->
+                acceptedAll ? Acceptance.ACCEPTED : Acceptance.DROPPED)
+                .thenAccept(reply -> sender.tell(reply, self));
+    }
+
+    private Receive createPublishReceive() {
         final ReceiveBuilder receiveBuilder = receiveBuilder();
         preEnhancement(receiveBuilder);
 
@@ -199,6 +245,34 @@ public abstract class BasePublisherActor<T extends PublishTarget> extends Abstra
     protected abstract void publishMessage(@Nullable final Target target, final T publishTarget,
             final ExternalMessage message, final ConnectionMetricsCollector publishedConnector);
 
+    /**
+     * Reports whether a message passed to {@link #publishMessage} was accepted for publishing. Senders of an
+     * {@link AwaitAcceptance} are answered with {@link Acceptance#DROPPED} if any message published for it was not
+     * accepted. Publishers which buffer messages in a bounded queue report the outcome of each offer; messages whose
+     * outcome is not reported count as accepted.
+     *
+     * @param accepted the future outcome of publishing a message, which must not fail.
+     * @return the passed future.
+     */
+    protected final CompletionStage<Boolean> reportAcceptance(final CompletionStage<Boolean> accepted) {
+        if (acceptance != null) {
+            acceptance = acceptance.thenCombine(accepted,
+                    (acceptedBefore, acceptedNow) -> acceptedBefore && acceptedNow);
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns a future which completes as soon as all messages published so far were accepted for publishing. Senders
+     * of an {@link AwaitAcceptance} are answered when it completes. Publishers which buffer messages in a bounded queue
+     * override this to backpressure the message mapping; the default future is already completed.
+     *
+     * @return the future, which must not fail.
+     */
+    protected CompletionStage<Void> whenAccepted() {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * @return the logger to use.
      */
@@ -273,4 +347,89 @@ public abstract class BasePublisherActor<T extends PublishTarget> extends Abstra
         }).orElseGet(messageBuilder::build);
     }
 
+    /**
+     * Replies of a publisher to an {@link AwaitAcceptance}.
+     */
+    public enum Acceptance {
+
+        /**
+         * The publisher accepted the message for publishing after all messages before it were accepted or dropped.
+         */
+        ACCEPTED,
+
+        /**
+         * The publisher dropped the message for at least one of its targets, e.g. because its queue was full, after
+         * all messages before it were accepted or dropped.
+         */
+        DROPPED
+    }
+
+    /**
+     * Wraps a mapped message whose sender waits for an {@link Acceptance} before it considers the message handled.
+     */
+    @Immutable
+    public static final class AwaitAcceptance {
+
+        private final OutboundSignal.WithExternalMessage signal;
+        private final ActorRef sender;
+
+        private AwaitAcceptance(final OutboundSignal.WithExternalMessage signal, final ActorRef sender) {
+            this.signal = signal;
+            this.sender = sender;
+        }
+
+        /**
+         * Returns a request to publish the given mapped signal and to acknowledge its acceptance.
+         *
+         * @param signal the mapped signal to publish.
+         * @param sender the sender of the mapped signal, which receives the responses and errors of publishing it.
+         * @return the request.
+         * @throws NullPointerException if any argument is {@code null}.
+         */
+        public static AwaitAcceptance of(final OutboundSignal.WithExternalMessage signal, final ActorRef sender) {
+            return new AwaitAcceptance(checkNotNull(signal, "signal"), checkNotNull(sender, "sender"));
+        }
+
+        /**
+         * @return the mapped signal to publish.
+         */
+        public OutboundSignal.WithExternalMessage getSignal() {
+            return signal;
+        }
+
+        /**
+         * @return the sender of the mapped signal.
+         */
+        public ActorRef getSender() {
+            return sender;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final AwaitAcceptance that = (AwaitAcceptance) o;
+            return Objects.equals(signal, that.signal) &&
+                    Objects.equals(sender, that.sender);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(signal, sender);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [" +
+                    "signal=" + signal +
+                    ", sender=" + sender +
+                    "]";
+        }
+
+    }
+
 }
@@ -18,12 +18,14 @@ import static org.eclipse.ditto.model.connectivity.MetricType.MAPPED;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -61,6 +63,7 @@ import org.eclipse.ditto.model.placeholders.TopicPathPlaceholder;
 import org.eclipse.ditto.protocoladapter.TopicPath;
 import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectionMetricsCollector;
 import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectivityCounterRegistry;
+import org.eclipse.ditto.services.connectivity.util.ConfigKeys;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 import org.eclipse.ditto.services.models.connectivity.InboundExternalMessage;
 import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
@@ -81,6 +84,7 @@ import akka.cluster.pubsub.DistributedPubSubMediator;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.ReceiveBuilder;
+import akka.pattern.PatternsCS;
 
 /**
  * This Actor processes incoming {@link Signal}s and dispatches them via {@link DistributedPubSubMediator} to a consumer
@@ -95,8 +99,8 @@ public final class MessageMappingProcessorActor extends AbstractActor {
 
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
 
-    private final ActorRef publisherActor;
     private final Map<String, StartedTimer> timers;
+    private final Duration publisherAcceptanceTimeout;
 
     private final MessageMappingProcessor processor;
     private final String connectionId;
@@ -112,6 +116,8 @@ public final class MessageMappingProcessorActor extends AbstractActor {
     private final ConnectionMetricsCollector responseDroppedCounter;
     private ConnectionMetricsCollector responseMappedCounter;
 
+    private ActorRef publisherActor;
+
     private MessageMappingProcessorActor(final ActorRef publisherActor,
             final ActorRef conciergeForwarder,
             final MessageMappingProcessor processor,
@@ -122,6 +128,8 @@ public final class MessageMappingProcessorActor extends AbstractActor {
         this.processor = processor;
         this.connectionId = connectionId;
         timers = new ConcurrentHashMap<>();
+        publisherAcceptanceTimeout = getContext().getSystem().settings().config()
+                .getDuration(ConfigKeys.Mapping.PUBLISHER_ACCEPTANCE_TIMEOUT);
         placeholderSubstitution = new PlaceholderSubstitution();
         adjustHeaders = new AdjustHeaders(connectionId);
         mapHeaders = new ApplyHeaderMapping(log);
@@ -159,6 +167,10 @@ public final class MessageMappingProcessorActor extends AbstractActor {
     @Override
     public Receive createReceive() {
         return ReceiveBuilder.create()
+                .match(MessageMappingProcessorRouterActor.Routed.class, this::handleRouted)
+                .match(MessageMappingProcessorRouterActor.ReplacePublisher.class, this::replacePublisher)
+                .match(BasePublisherActor.Acceptance.class, this::handleAcceptance)
+                .match(AcceptanceFailed.class, this::handleAcceptanceFailed)
                 .match(ExternalMessage.class, this::handleInboundMessage)
                 .match(CommandResponse.class, this::handleCommandResponse)
                 .match(OutboundSignal.class, this::handleOutboundSignal)
@@ -172,6 +184,51 @@ public final class MessageMappingProcessorActor extends AbstractActor {
                 }).build();
     }
 
+    private void handleRouted(final MessageMappingProcessorRouterActor.Routed routed) {
+        final Object message = routed.getMessage();
+        boolean awaitingAcceptance = false;
+        try {
+            if (message instanceof ExternalMessage) {
+                handleInboundMessage((ExternalMessage) message);
+            } else if (message instanceof OutboundSignal) {
+                awaitingAcceptance = handleOutboundSignal((OutboundSignal) message, true);
+            } else if (message instanceof DittoRuntimeException) {
+                handleDittoRuntimeException((DittoRuntimeException) message);
+            } else {
+                log.warning("Unknown routed message: {}", message);
+            }
+        } finally {
+            // a published outbound signal is done as soon as the publisher accepted it
+            if (!awaitingAcceptance) {
+                completeMapping();
+            }
+        }
+    }
+
+    private void replacePublisher(final MessageMappingProcessorRouterActor.ReplacePublisher replacePublisher) {
+        log.debug("Passing mapped messages to new publisher <{}>.", replacePublisher.getPublisherActor());
+        publisherActor = replacePublisher.getPublisherActor();
+    }
+
+    private void handleAcceptance(final BasePublisherActor.Acceptance acceptance) {
+        if (acceptance == BasePublisherActor.Acceptance.DROPPED) {
+            LogUtil.enhanceLogWithCustomField(log, BaseClientData.MDC_CONNECTION_ID, connectionId);
+            log.debug("Publisher dropped a mapped message.");
+        }
+        completeMapping();
+    }
+
+    private void handleAcceptanceFailed(final AcceptanceFailed acceptanceFailed) {
+        LogUtil.enhanceLogWithCustomField(log, BaseClientData.MDC_CONNECTION_ID, connectionId);
+        log.warning("Publisher did not accept a mapped message, mapping the next one: {}",
+                acceptanceFailed.cause.getMessage());
+        completeMapping();
+    }
+
+    private void completeMapping() {
+        getContext().getParent().tell(MessageMappingProcessorRouterActor.MappingDone.INSTANCE, getSelf());
+    }
+
     private void handleInboundMessage(final ExternalMessage externalMessage) {
         ConditionChecker.checkNotNull(externalMessage);
         final String correlationId = externalMessage.getHeaders().get(DittoHeaderDefinition.CORRELATION_ID.getKey());
@@ -287,6 +344,18 @@ public final class MessageMappingProcessorActor extends AbstractActor {
     }
 
     private void handleOutboundSignal(final OutboundSignal outbound) {
+        handleOutboundSignal(outbound, false);
+    }
+
+    /**
+     * Maps an outbound signal and passes it to the publisher.
+     *
+     * @param outbound the signal to map.
+     * @param awaitAcceptance whether to ask the publisher for an {@link BasePublisherActor.Acceptance}.
+     * @return whether the publisher was asked for an acceptance, in which case the mapping is completed as soon as the
+     * publisher replied or the ask failed.
+     */
+    private boolean handleOutboundSignal(final OutboundSignal outbound, final boolean awaitAcceptance) {
         enhanceLogUtil(outbound.getSource());
         log.debug("Handling outbound signal: {}", outbound.getSource());
 
@@ -294,12 +363,26 @@ public final class MessageMappingProcessorActor extends AbstractActor {
                 .map(externalMessage -> replaceTargetAddressPlaceholders.apply(outbound, externalMessage));
 
         if (mappedOutboundSignal.isPresent()) {
+            if (awaitAcceptance) {
+                // a publisher which was stopped or is stuck does not block the mapping longer than the timeout
+                // any other reply, e.g. an error of publishing, completes the mapping as well
+                final CompletionStage<Object> acceptance = PatternsCS.ask(publisherActor,
+                        BasePublisherActor.AwaitAcceptance.of(mappedOutboundSignal.get(), getSender()),
+                        publisherAcceptanceTimeout.toMillis())
+                        .thenApply(reply -> reply instanceof BasePublisherActor.Acceptance
+                                ? reply
+                                : AcceptanceFailed.unexpectedReply(reply))
+                        .exceptionally(AcceptanceFailed::new);
+                PatternsCS.pipe(acceptance, getContext().dispatcher()).to(getSelf());
+                return true;
+            }
             publisherActor.forward(mappedOutboundSignal.get(), getContext());
         } else {
             log.debug("Message mapping returned null, message is dropped.");
             getCountersForOutboundSignal(outbound, connectionId, DROPPED)
                     .forEach(ConnectionMetricsCollector::recordSuccess);
         }
+        return false;
     }
 
     /**
@@ -428,6 +511,26 @@ public final class MessageMappingProcessorActor extends AbstractActor {
         }
     }
 
+    /**
+     * Tells a worker that the publisher did not reply to an {@link BasePublisherActor.AwaitAcceptance} in time or
+     * replied with something else than an {@link BasePublisherActor.Acceptance}.
+     */
+    private static final class AcceptanceFailed {
+
+        private final Throwable cause;
+
+        private AcceptanceFailed(final Throwable cause) {
+            this.cause = cause;
+        }
+
+        private static AcceptanceFailed unexpectedReply(final Object reply) {
+            return new AcceptanceFailed(reply instanceof Throwable
+                    ? (Throwable) reply
+                    : new IllegalStateException("Unexpected reply of publisher: " + reply));
+        }
+
+    }
+
     static final class PlaceholderSubstitution implements Function<ExternalMessage, ExternalMessage> {
 
         @Override
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
+import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
+import org.eclipse.ditto.services.utils.metrics.instruments.histogram.Histogram;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+
+/**
+ * Distributes the messages to map of one connection across a fixed number of {@link MessageMappingProcessorActor}
+ * workers. Messages are partitioned by a key: the Thing ID for outbound signals and, for inbound messages, the first
+ * available of:
+ * <ol>
+ * <li>the value of a configurable header identifying the device, e.g. {@code device_id} as set by Eclipse Hono,</li>
+ * <li>the partition key given by the consumer in an {@link AwaitAcceptance}, e.g. the MQTT topic or the Kafka record
+ * key,</li>
+ * <li>the source address of the message.</li>
+ * </ol>
+ * All messages of one key are mapped by the same worker and thus in the order they were received. Hence the messages
+ * of one device, and thus of the Things it updates, keep their order unless its messages are received by several
+ * sources.
+ * <p>
+ * The router counts the messages queued for each worker. Consumers which send their messages wrapped in an
+ * {@link AwaitAcceptance} are answered with {@link Acceptance#ACCEPTED} as soon as the worker of their message has less
+ * than the configured maximum number of messages in flight; they must not consume further messages before.
+ * </p>
+ */
+public final class MessageMappingProcessorRouterActor extends AbstractActor {
+
+    /**
+     * The name of this Actor in the ActorSystem.
+     */
+    public static final String ACTOR_NAME = "messageMappingProcessorRouter";
+
+    private static final String METRIC_PREFIX = "connectivity_message_mapping_";
+    private static final String CONNECTION_ID_TAG = "connection_id";
+    private static final String WORKER_TAG = "worker";
+
+    private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
+
+    private final String connectionId;
+    @Nullable private final String partitionHeader;
+    private final int maxInFlight;
+    private final List<Worker> workers;
+    private final Map<ActorRef, Worker> workersByRef;
+    private final Histogram mappingLatency;
+
+    private int roundRobinIndex = 0;
+
+    private MessageMappingProcessorRouterActor(final Props workerProps, final int numberOfWorkers,
+            final String partitionHeader, final int maxInFlight, final String connectionId) {
+
+        this.connectionId = connectionId;
+        this.partitionHeader = partitionHeader.isEmpty() ? null : partitionHeader;
+        this.maxInFlight = maxInFlight;
+        workers = new ArrayList<>(numberOfWorkers);
+        workersByRef = new HashMap<>();
+        for (int i = 0; i < numberOfWorkers; i++) {
+            final ActorRef workerRef = getContext().actorOf(workerProps, MessageMappingProcessorActor.ACTOR_NAME + i);
+            final Worker worker = new Worker(workerRef, DittoMetrics.gauge(METRIC_PREFIX + "queue_depth")
+                    .tag(CONNECTION_ID_TAG, connectionId)
+                    .tag(WORKER_TAG, i));
+            workers.add(worker);
+            workersByRef.put(workerRef, worker);
+        }
+        mappingLatency = DittoMetrics.histogram(METRIC_PREFIX + "latency_us").tag(CONNECTION_ID_TAG, connectionId);
+    }
+
+    /**
+     * Creates Akka configuration object for this actor.
+     *
+     * @param workerProps Props of the {@link MessageMappingProcessorActor} workers.
+     * @param numberOfWorkers how many workers to start.
+     * @param partitionHeader name of the header of inbound messages to partition them by or an empty string to
+     * partition them by the partition key of their consumer or their source address only.
+     * @param maxInFlight the maximum number of messages queued for a worker before consumers are backpressured.
+     * @param connectionId the connection id.
+     * @return the Akka configuration Props object.
+     * @throws NullPointerException if any argument is {@code null}.
+     * @throws IllegalArgumentException if {@code numberOfWorkers} or {@code maxInFlight} is not positive.
+     */
+    public static Props props(final Props workerProps, final int numberOfWorkers, final String partitionHeader,
+            final int maxInFlight, final String connectionId) {
+
+        checkNotNull(workerProps, "workerProps");
+        checkNotNull(partitionHeader, "partitionHeader");
+        checkNotNull(connectionId, "connectionId");
+        if (numberOfWorkers < 1) {
+            throw new IllegalArgumentException("The number of workers must be positive but was " + numberOfWorkers);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The maximum in-flight messages must be positive but was " +
+                    maxInFlight);
+        }
+
+        return Props.create(MessageMappingProcessorRouterActor.class,
+                new Creator<MessageMappingProcessorRouterActor>() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public MessageMappingProcessorRouterActor create() {
+                        return new MessageMappingProcessorRouterActor(workerProps, numberOfWorkers, partitionHeader,
+                                maxInFlight, connectionId);
+                    }
+                });
+    }
+
+    @Override
+    public void postStop() {
+        workers.forEach(worker -> worker.queueDepth.set(0L));
+    }
+
+    @Override
+    public Receive createReceive() {
+        return ReceiveBuilder.create()
+                .match(AwaitAcceptance.class, this::handleAwaitAcceptance)
+                .match(ExternalMessage.class, message -> route(message, keyOf(message, null)))
+                .match(OutboundSignal.class, signal -> route(signal, signal.getSource().getId()))
+                .match(DittoRuntimeException.class, exception -> route(exception, keyOf(exception)))
+                .match(MappingDone.class, done -> handleMappingDone())
+                .match(ReplacePublisher.class, replacePublisher ->
+                        workers.forEach(worker -> worker.ref.forward(replacePublisher, getContext())))
+                .matchAny(m -> {
+                    log.warning("Unknown message: {}", m);
+                    unhandled(m);
+                }).build();
+    }
+
+    private void handleAwaitAcceptance(final AwaitAcceptance awaitAcceptance) {
+        final ExternalMessage message = awaitAcceptance.getMessage();
+        final Worker worker = route(message, keyOf(message, awaitAcceptance.getPartitionKey().orElse(null)));
+        if (worker.enqueuedNanos.size() < maxInFlight) {
+            getSender().tell(Acceptance.ACCEPTED, getSelf());
+        } else {
+            worker.awaitingAcceptance.add(getSender());
+        }
+    }
+
+    private Worker route(final Object message, @Nullable final String key) {
+        final Worker worker = selectWorker(key);
+        worker.ref.forward(new Routed(message), getContext());
+        worker.enqueuedNanos.add(System.nanoTime());
+        worker.queueDepth.set((long) worker.enqueuedNanos.size());
+        return worker;
+    }
+
+    private Worker selectWorker(@Nullable final String key) {
+        final int index;
+        if (key != null) {
+            index = Math.floorMod(key.hashCode(), workers.size());
+        } else {
+            index = roundRobinIndex;
+            roundRobinIndex = (roundRobinIndex + 1) % workers.size();
+        }
+        return workers.get(index);
+    }
+
+    private void handleMappingDone() {
+        final Worker worker = workersByRef.get(getSender());
+        if (worker == null || worker.enqueuedNanos.isEmpty()) {
+            LogUtil.enhanceLogWithCustomField(log, BaseClientData.MDC_CONNECTION_ID, connectionId);
+            log.warning("Got unexpected mapping completion from <{}>.", getSender());
+            return;
+        }
+        final long enqueuedNanos = worker.enqueuedNanos.poll();
+        mappingLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enqueuedNanos));
+        worker.queueDepth.set((long) worker.enqueuedNanos.size());
+
+        final ActorRef awaiting = worker.awaitingAcceptance.poll();
+        if (awaiting != null) {
+            awaiting.tell(Acceptance.ACCEPTED, getSelf());
+        }
+    }
+
+    @Nullable
+    private String keyOf(final ExternalMessage message, @Nullable final String consumerPartitionKey) {
+        final Optional<String> partitionKey = partitionHeader != null
+                ? message.findHeader(partitionHeader)
+                : Optional.empty();
+        if (partitionKey.isPresent()) {
+            return partitionKey.get();
+        } else if (consumerPartitionKey != null) {
+            return consumerPartitionKey;
+        } else {
+            // messages of one address are mapped in order, at the expense of mapping them in parallel
+            return message.getSourceAddress().orElse(null);
+        }
+    }
+
+    @Nullable
+    private String keyOf(final DittoRuntimeException exception) {
+        final Optional<String> partitionKey = partitionHeader != null
+                ? Optional.ofNullable(exception.getDittoHeaders().get(partitionHeader))
+                : Optional.empty();
+        return partitionKey.orElseGet(() -> exception.getDittoHeaders().getCorrelationId().orElse(null));
+    }
+
+    /**
+     * Replies of the router to an {@link AwaitAcceptance}.
+     */
+    public enum Acceptance {
+
+        /**
+         * The message was passed to a worker which has capacity for further messages.
+         */
+        ACCEPTED
+    }
+
+    /**
+     * Wraps an inbound message whose sender waits for {@link Acceptance#ACCEPTED} before it consumes further
+     * messages.
+     */
+    @Immutable
+    public static final class AwaitAcceptance {
+
+        private final ExternalMessage message;
+        @Nullable private final String partitionKey;
+
+        private AwaitAcceptance(final ExternalMessage message, @Nullable final String partitionKey) {
+            this.message = message;
+            this.partitionKey = partitionKey;
+        }
+
+        /**
+         * Returns a request to map the given message and to acknowledge its acceptance.
+         *
+         * @param message the message to map.
+         * @return the request.
+         * @throws NullPointerException if {@code message} is {@code null}.
+         */
+        public static AwaitAcceptance of(final ExternalMessage message) {
+            return new AwaitAcceptance(checkNotNull(message, "message"), null);
+        }
+
+        /**
+         * Returns a request to map the given message in the order of all messages with the same partition key and to
+         * acknowledge its acceptance.
+         *
+         * @param message the message to map.
+         * @param partitionKey identifies the messages to keep in order if the message lacks the configured partition
+         * header, e.g. the MQTT topic it was published to.
+         * @return the request.
+         * @throws NullPointerException if any argument is {@code null}.
+         */
+        public static AwaitAcceptance of(final ExternalMessage message, final String partitionKey) {
+            return new AwaitAcceptance(checkNotNull(message, "message"), checkNotNull(partitionKey, "partitionKey"));
+        }
+
+        /**
+         * @return the message to map.
+         */
+        public ExternalMessage getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the partition key given by the consumer of the message, if any.
+         */
+        public Optional<String> getPartitionKey() {
+            return Optional.ofNullable(partitionKey);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final AwaitAcceptance that = (AwaitAcceptance) o;
+            return Objects.equals(message, that.message) && Objects.equals(partitionKey, that.partitionKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(message, partitionKey);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [message=" + message + ", partitionKey=" + partitionKey + "]";
+        }
+
+    }
+
+    /**
+     * A message passed to a worker by the router. The worker answers with {@link MappingDone} after it handled it.
+     */
+    static final class Routed {
+
+        private final Object message;
+
+        Routed(final Object message) {
+            this.message = message;
+        }
+
+        Object getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [message=" + message + "]";
+        }
+
+    }
+
+    /**
+     * Tells the router and its workers to pass mapped messages to a new publisher actor, e.g. after the client
+     * reconnected.
+     */
+    static final class ReplacePublisher {
+
+        private final ActorRef publisherActor;
+
+        private ReplacePublisher(final ActorRef publisherActor) {
+            this.publisherActor = publisherActor;
+        }
+
+        static ReplacePublisher of(final ActorRef publisherActor) {
+            return new ReplacePublisher(checkNotNull(publisherActor, "publisherActor"));
+        }
+
+        ActorRef getPublisherActor() {
+            return publisherActor;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [publisherActor=" + publisherActor + "]";
+        }
+
+    }
+
+    /**
+     * Tells the router that a worker finished handling a {@link Routed} message.
+     */
+    enum MappingDone {
+        INSTANCE
+    }
+
+    private static final class Worker {
+
+        private final ActorRef ref;
+        private final Gauge queueDepth;
+        private final Deque<Long> enqueuedNanos = new ArrayDeque<>();
+        private final Deque<ActorRef> awaitingAcceptance = new ArrayDeque<>();
+
+        private Worker(final ActorRef ref, final Gauge queueDepth) {
+            this.ref = ref;
+            this.queueDepth = queueDepth;
+        }
+
+    }
+
+}
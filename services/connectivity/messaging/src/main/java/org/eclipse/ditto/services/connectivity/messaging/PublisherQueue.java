@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
+import org.eclipse.ditto.services.utils.metrics.instruments.counter.Counter;
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
+
+import akka.Done;
+import akka.stream.QueueOfferResult;
+import akka.stream.javadsl.SourceQueueWithComplete;
+
+/**
+ * Feeds the messages of a publisher actor into its publishing stream, which is materialized from a
+ * {@link akka.stream.javadsl.Source#queue(int, akka.stream.OverflowStrategy)} with
+ * {@link akka.stream.OverflowStrategy#backpressure()}.
+ * <p>
+ * Such a queue accepts only one offer at a time. Messages published while an offer is pending wait in the order they
+ * were published until the stream accepts them; if the configured maximum number of messages is waiting, further
+ * messages are dropped. The number of waiting messages is reported as gauge {@code connectivity_publisher_queue_depth}
+ * and dropped messages are counted by {@code connectivity_publisher_dropped_messages}.
+ * </p>
+ *
+ * @param <T> the type of the stream elements.
+ */
+@ThreadSafe
+public final class PublisherQueue<T> {
+
+    private static final String METRIC_PREFIX = "connectivity_publisher_";
+    private static final String CONNECTION_ID_TAG = "connection_id";
+
+    private final SourceQueueWithComplete<T> queue;
+    private final int maxPendingOffers;
+    private final Gauge queueDepth;
+    private final Counter droppedMessages;
+    private final Deque<PendingOffer<T>> pendingOffers;
+
+    private CompletionStage<Boolean> lastOffer;
+
+    private PublisherQueue(final SourceQueueWithComplete<T> queue, final int maxPendingOffers,
+            final String connectionId) {
+
+        this.queue = queue;
+        this.maxPendingOffers = maxPendingOffers;
+        queueDepth = DittoMetrics.gauge(METRIC_PREFIX + "queue_depth").tag(CONNECTION_ID_TAG, connectionId);
+        droppedMessages = DittoMetrics.counter(METRIC_PREFIX + "dropped_messages").tag(CONNECTION_ID_TAG, connectionId);
+        pendingOffers = new ArrayDeque<>();
+        lastOffer = CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Returns a new {@code PublisherQueue} which offers to the given queue of a publishing stream.
+     *
+     * @param queue the materialized queue of the publishing stream.
+     * @param maxPendingOffers the maximum number of messages waiting to be accepted by the stream.
+     * @param connectionId the ID of the connection the publisher belongs to.
+     * @param <T> the type of the stream elements.
+     * @return the PublisherQueue.
+     * @throws NullPointerException if {@code queue} or {@code connectionId} is {@code null}.
+     * @throws IllegalArgumentException if {@code maxPendingOffers} is not positive.
+     */
+    public static <T> PublisherQueue<T> of(final SourceQueueWithComplete<T> queue, final int maxPendingOffers,
+            final String connectionId) {
+
+        checkNotNull(queue, "queue");
+        checkNotNull(connectionId, "connectionId");
+        if (maxPendingOffers < 1) {
+            throw new IllegalArgumentException("The maximum pending offers must be positive but was " +
+                    maxPendingOffers);
+        }
+        return new PublisherQueue<>(queue, maxPendingOffers, connectionId);
+    }
+
+    /**
+     * Offers an element to the publishing stream after all elements offered before it.
+     *
+     * @param element the element to publish.
+     * @return a future which completes with {@code true} as soon as the stream accepted the element or with
+     * {@code false} if the element was dropped. The future never fails.
+     */
+    public CompletionStage<Boolean> offer(final T element) {
+        final PendingOffer<T> pendingOffer = new PendingOffer<>(element);
+        final boolean offerNow;
+        synchronized (this) {
+            if (pendingOffers.size() >= maxPendingOffers) {
+                droppedMessages.increment();
+                return CompletableFuture.completedFuture(false);
+            }
+            offerNow = pendingOffers.isEmpty();
+            pendingOffers.add(pendingOffer);
+            queueDepth.set((long) pendingOffers.size());
+            lastOffer = pendingOffer.result;
+        }
+        if (offerNow) {
+            offerToStream(pendingOffer);
+        }
+        return pendingOffer.result;
+    }
+
+    /**
+     * Returns a future which completes as soon as all elements offered so far were accepted or dropped. Publishers
+     * use it to backpressure the message mapping.
+     *
+     * @return the future, which never fails.
+     */
+    public synchronized CompletionStage<Void> whenAccepted() {
+        return lastOffer.thenApply(accepted -> null);
+    }
+
+    /**
+     * Completes the publishing stream after the elements accepted so far were published.
+     */
+    public void complete() {
+        queue.complete();
+    }
+
+    /**
+     * @return a future which completes when the publishing stream completed or failed.
+     */
+    public CompletionStage<Done> watchCompletion() {
+        return queue.watchCompletion();
+    }
+
+    private void offerToStream(final PendingOffer<T> pendingOffer) {
+        CompletionStage<QueueOfferResult> offerResult;
+        try {
+            offerResult = queue.offer(pendingOffer.element);
+        } catch (final RuntimeException e) {
+            final CompletableFuture<QueueOfferResult> failedOffer = new CompletableFuture<>();
+            failedOffer.completeExceptionally(e);
+            offerResult = failedOffer;
+        }
+        offerResult.whenComplete((result, error) ->
+                onOfferCompleted(pendingOffer, error == null && result instanceof QueueOfferResult.Enqueued$));
+    }
+
+    private void onOfferCompleted(final PendingOffer<T> pendingOffer, final boolean accepted) {
+        if (!accepted) {
+            droppedMessages.increment();
+        }
+        final PendingOffer<T> nextOffer;
+        synchronized (this) {
+            pendingOffers.poll();
+            queueDepth.set((long) pendingOffers.size());
+            nextOffer = pendingOffers.peek();
+        }
+        pendingOffer.result.complete(accepted);
+        if (nextOffer != null) {
+            offerToStream(nextOffer);
+        }
+    }
+
+    private static final class PendingOffer<T> {
+
+        private final T element;
+        private final CompletableFuture<Boolean> result;
+
+        private PendingOffer(final T element) {
+            this.element = element;
+            result = new CompletableFuture<>();
+        }
+
+    }
+
+}
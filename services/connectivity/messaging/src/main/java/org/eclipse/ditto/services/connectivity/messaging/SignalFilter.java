@@ -25,18 +25,11 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 import org.eclipse.ditto.model.base.auth.AuthorizationContext;
-import org.eclipse.ditto.model.base.headers.DittoHeaders;
 import org.eclipse.ditto.model.connectivity.Connection;
 import org.eclipse.ditto.model.connectivity.FilteredTopic;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.model.connectivity.Topic;
-import org.eclipse.ditto.model.query.criteria.Criteria;
-import org.eclipse.ditto.model.query.criteria.CriteriaFactory;
-import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
-import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactory;
-import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
-import org.eclipse.ditto.model.query.things.ModelBasedThingsFieldExpressionFactory;
-import org.eclipse.ditto.model.query.things.ThingPredicateVisitor;
+import org.eclipse.ditto.model.query.things.ThingPredicateCache;
 import org.eclipse.ditto.protocoladapter.TopicPath;
 import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectivityCounterRegistry;
 import org.eclipse.ditto.signals.base.Signal;
@@ -60,7 +53,7 @@ import org.eclipse.ditto.signals.events.things.ThingEventToThingConverter;
 final class SignalFilter {
 
     private final Connection connection;
-    private final QueryFilterCriteriaFactory queryFilterCriteriaFactory;
+    private final ThingPredicateCache thingPredicateCache;
 
     /**
      * Constructs a new SignalFilter instance with the given {@code connection}.
@@ -69,10 +62,12 @@ final class SignalFilter {
      */
     SignalFilter(final Connection connection) {
         this.connection = connection;
-        final CriteriaFactory criteriaFactory = new CriteriaFactoryImpl();
-        final ThingsFieldExpressionFactory fieldExpressionFactory =
-                new ModelBasedThingsFieldExpressionFactory();
-        queryFilterCriteriaFactory = new QueryFilterCriteriaFactory(criteriaFactory, fieldExpressionFactory);
+        // the filters of a connection do not change, so its predicates are compiled only once
+        final long filterCount = connection.getTargets().stream()
+                .flatMap(target -> target.getTopics().stream())
+                .filter(FilteredTopic::hasFilter)
+                .count();
+        thingPredicateCache = ThingPredicateCache.newInstance((int) Math.max(1L, filterCount));
     }
 
     /**
@@ -132,24 +127,13 @@ final class SignalFilter {
 
             // currently only ThingEvents may be filtered
             return ThingEventToThingConverter.thingEventToThing((ThingEvent) signal)
-                    .filter(thing -> ThingPredicateVisitor.apply(parseCriteria(filter, signal.getDittoHeaders()))
-                            .test(thing)
-                    )
+                    .filter(thing -> thingPredicateCache.getPredicate(filter, signal.getDittoHeaders()).test(thing))
                     .isPresent();
         } else {
             return true;
         }
     }
 
-    /**
-     * @throws org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException if the filter string cannot be
-     * mapped to a
-     * valid criterion
-     */
-    private Criteria parseCriteria(final String filter, final DittoHeaders dittoHeaders) {
-        return queryFilterCriteriaFactory.filterCriteria(filter, dittoHeaders);
-    }
-
     private static Optional<Topic> topicFromSignal(final Signal<?> signal) {
         // only things as group supported
         final TopicPath.Group group = signal instanceof WithThingId ? TopicPath.Group.THINGS : null;
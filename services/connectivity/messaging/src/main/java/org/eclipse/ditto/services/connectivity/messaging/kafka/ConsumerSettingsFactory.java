@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging.kafka;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.ditto.model.connectivity.Connection;
+import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
+import org.eclipse.ditto.services.utils.config.ConfigUtil;
+
+import com.typesafe.config.Config;
+
+import akka.kafka.ConsumerSettings;
+
+/**
+ * Creates {@link akka.kafka.ConsumerSettings} from a given {@link org.eclipse.ditto.model.connectivity.Connection}
+ * configuration.
+ */
+final class ConsumerSettingsFactory {
+
+    /**
+     * Path of the default consumer configuration of akka-stream-kafka.
+     */
+    static final String DEFAULT_CONSUMER_CONFIG_PATH = "akka.kafka.consumer";
+
+    private static final Collection<KafkaSpecificConfig> SPECIFIC_CONFIGS =
+            Collections.unmodifiableList(Arrays.asList(KafkaAuthenticationSpecificConfig.getInstance(),
+                    KafkaBootstrapServerSpecificConfig.getInstance()));
+
+    private static final ConsumerSettingsFactory INSTANCE = new ConsumerSettingsFactory();
+    private static final Deserializer<String> KEY_DESERIALIZER = new StringDeserializer();
+    private static final Deserializer<byte[]> VALUE_DESERIALIZER = new ByteArrayDeserializer();
+
+    static ConsumerSettingsFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates the settings of the consumers of a connection. All consumers of the connection form one consumer group
+     * so that the partitions of the source topics are distributed among them.
+     *
+     * @param connection the Kafka connection.
+     * @param config the Kafka config reader.
+     * @param systemConfig the config of the actor system which contains the defaults of akka-stream-kafka.
+     * @return the consumer settings.
+     */
+    ConsumerSettings<String, byte[]> createConsumerSettings(final Connection connection,
+            final KafkaConfigReader config, final Config systemConfig) {
+        final Config consumerConfig = config.internalConsumerSettings()
+                .withFallback(systemConfig.getConfig(DEFAULT_CONSUMER_CONFIG_PATH));
+        ConsumerSettings<String, byte[]> settings =
+                ConsumerSettings.create(consumerConfig, KEY_DESERIALIZER, VALUE_DESERIALIZER);
+
+        settings = addMetadata(connection, settings);
+        settings = settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG,
+                ProducerSettingsFactory.getSecurityProtocol(connection));
+        settings = addSpecificConfigs(settings, connection);
+
+        return settings;
+    }
+
+    private ConsumerSettings<String, byte[]> addMetadata(final Connection connection,
+            final ConsumerSettings<String, byte[]> settings) {
+        // identify the connected Kafka client by the connectionId followed by the instance index, the consumers of
+        // all instances share the connectionId as group ID:
+        return settings.withProperty(CommonClientConfigs.CLIENT_ID_CONFIG, connection.getId() + "-" +
+                ConfigUtil.instanceIdentifier())
+                .withGroupId(connection.getId())
+                .withProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    }
+
+    private ConsumerSettings<String, byte[]> addSpecificConfigs(final ConsumerSettings<String, byte[]> settings,
+            final Connection connection) {
+        ConsumerSettings<String, byte[]> currentSettings = settings;
+        for (final KafkaSpecificConfig specificConfig : SPECIFIC_CONFIGS) {
+            currentSettings = specificConfig.apply(currentSettings, connection);
+        }
+        return currentSettings;
+    }
+
+}
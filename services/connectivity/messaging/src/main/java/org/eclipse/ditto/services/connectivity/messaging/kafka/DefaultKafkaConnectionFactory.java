@@ -12,26 +12,50 @@
  */
 package org.eclipse.ditto.services.connectivity.messaging.kafka;
 
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.TopicPartition;
 import org.eclipse.ditto.model.connectivity.Connection;
 import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
 
+import akka.Done;
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.japi.Pair;
+import akka.kafka.CommitterSettings;
+import akka.kafka.ConsumerMessage;
+import akka.kafka.ConsumerSettings;
 import akka.kafka.ProducerMessage;
 import akka.kafka.ProducerSettings;
+import akka.kafka.Subscriptions;
+import akka.kafka.javadsl.Committer;
+import akka.kafka.javadsl.Consumer;
 import akka.kafka.javadsl.Producer;
 import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
 
 /**
- * Creates Kafka sinks.
+ * Creates Kafka sources and sinks.
  */
 final class DefaultKafkaConnectionFactory implements KafkaConnectionFactory {
 
     private final Connection connection;
-    private final ProducerSettings<String, String> settings;
+    private final ProducerSettings<String, byte[]> settings;
+    private final ConsumerSettings<String, byte[]> consumerSettings;
+    private final CommitterSettings committerSettings;
 
     DefaultKafkaConnectionFactory(final Connection connection,
-            final KafkaConfigReader config) {
+            final KafkaConfigReader config, final ActorSystem actorSystem) {
         this.connection = connection;
         settings = ProducerSettingsFactory.getInstance().createProducerSettings(connection, config);
+        consumerSettings = ConsumerSettingsFactory.getInstance()
+                .createConsumerSettings(connection, config, actorSystem.settings().config());
+        committerSettings = CommitterSettings.create(actorSystem)
+                .withMaxBatch(config.consumerCommitBatchSize())
+                .withMaxInterval(config.consumerCommitInterval());
     }
 
     @Override
@@ -40,8 +64,22 @@ final class DefaultKafkaConnectionFactory implements KafkaConnectionFactory {
     }
 
     @Override
-    public <T> Flow<ProducerMessage.Envelope<String, String, T>, ProducerMessage.Results<String, String, T>, akka.NotUsed> newFlow() {
+    public <T> Flow<ProducerMessage.Envelope<String, byte[], T>, ProducerMessage.Results<String, byte[], T>, akka.NotUsed> newFlow() {
         return Producer.flexiFlow(settings);
     }
 
+    @Override
+    public Source<Pair<TopicPartition, Source<ConsumerMessage.CommittableMessage<String, byte[]>, NotUsed>>, Consumer.Control> newPartitionedSource(
+            final Set<String> topics, final String consumerId) {
+        final String clientId = consumerSettings.getProperty(CommonClientConfigs.CLIENT_ID_CONFIG) + "-" + consumerId;
+        return Consumer.committablePartitionedSource(
+                consumerSettings.withProperty(CommonClientConfigs.CLIENT_ID_CONFIG, clientId),
+                Subscriptions.topics(topics));
+    }
+
+    @Override
+    public Sink<ConsumerMessage.Committable, CompletionStage<Done>> newCommitterSink() {
+        return Committer.sink(committerSettings);
+    }
+
 }
@@ -14,6 +14,7 @@ package org.eclipse.ditto.services.connectivity.messaging.kafka;
 
 import java.text.MessageFormat;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,6 +23,7 @@ import org.eclipse.ditto.model.base.headers.DittoHeaders;
 import org.eclipse.ditto.model.connectivity.Connection;
 import org.eclipse.ditto.model.connectivity.ConnectionConfigurationInvalidException;
 
+import akka.kafka.ConsumerSettings;
 import akka.kafka.ProducerSettings;
 
 /**
@@ -84,8 +86,27 @@ public final class KafkaAuthenticationSpecificConfig implements KafkaSpecificCon
     }
 
     @Override
-    public ProducerSettings<String, String> apply(final ProducerSettings<String, String> producerSettings,
+    public ProducerSettings<String, byte[]> apply(final ProducerSettings<String, byte[]> producerSettings,
             final Connection connection) {
+        ProducerSettings<String, byte[]> settings = producerSettings;
+        for (final Map.Entry<String, String> property : getSaslProperties(connection).entrySet()) {
+            settings = settings.withProperty(property.getKey(), property.getValue());
+        }
+        return settings;
+    }
+
+    @Override
+    public ConsumerSettings<String, byte[]> apply(final ConsumerSettings<String, byte[]> consumerSettings,
+            final Connection connection) {
+        ConsumerSettings<String, byte[]> settings = consumerSettings;
+        for (final Map.Entry<String, String> property : getSaslProperties(connection).entrySet()) {
+            settings = settings.withProperty(property.getKey(), property.getValue());
+        }
+        return settings;
+    }
+
+    private Map<String, String> getSaslProperties(final Connection connection) {
+        final Map<String, String> properties = new LinkedHashMap<>();
         final Optional<String> username = connection.getUsername();
         final Optional<String> password = connection.getPassword();
         // chose to not use isApplicable() but directly check username and password since we need to Optional#get them.
@@ -94,11 +115,10 @@ public final class KafkaAuthenticationSpecificConfig implements KafkaSpecificCon
             final String loginModule = getLoginModuleForSaslMechanism(saslMechanism);
             final String jaasConfig = getJaasConfig(loginModule, username.get(), password.get());
 
-            return producerSettings.withProperty(SaslConfigs.SASL_MECHANISM, saslMechanism)
-                    .withProperty(SaslConfigs.SASL_JAAS_CONFIG, jaasConfig);
+            properties.put(SaslConfigs.SASL_MECHANISM, saslMechanism);
+            properties.put(SaslConfigs.SASL_JAAS_CONFIG, jaasConfig);
         }
-
-        return producerSettings;
+        return properties;
     }
 
     private String getJaasConfig(final String loginModule, final String username, final String password) {
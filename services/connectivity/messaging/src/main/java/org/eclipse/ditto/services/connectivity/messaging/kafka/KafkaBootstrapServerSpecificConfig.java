@@ -26,6 +26,7 @@ import org.eclipse.ditto.model.connectivity.ConnectionConfigurationInvalidExcept
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import akka.kafka.ConsumerSettings;
 import akka.kafka.ProducerSettings;
 
 /**
@@ -79,8 +80,18 @@ public final class KafkaBootstrapServerSpecificConfig implements KafkaSpecificCo
     }
 
     @Override
-    public ProducerSettings<String, String> apply(final ProducerSettings<String, String> producerSettings,
+    public ProducerSettings<String, byte[]> apply(final ProducerSettings<String, byte[]> producerSettings,
             final Connection connection) {
+        return producerSettings.withBootstrapServers(getMergedBootstrapServers(connection));
+    }
+
+    @Override
+    public ConsumerSettings<String, byte[]> apply(final ConsumerSettings<String, byte[]> consumerSettings,
+            final Connection connection) {
+        return consumerSettings.withBootstrapServers(getMergedBootstrapServers(connection));
+    }
+
+    private String getMergedBootstrapServers(final Connection connection) {
         final String mergedBootstrapServers;
         if (isValid(connection)) {
             final String bootstrapServerFromUri = getBootstrapServerFromUri(connection);
@@ -96,7 +107,7 @@ public final class KafkaBootstrapServerSpecificConfig implements KafkaSpecificCo
                             " not have been stored with the invalid pattern.", connection.getId());
             mergedBootstrapServers = getBootstrapServerFromUri(connection);
         }
-        return producerSettings.withBootstrapServers(mergedBootstrapServers);
+        return mergedBootstrapServers;
     }
 
     private String getBootstrapServersFromSpecificConfig(final Connection connection) {
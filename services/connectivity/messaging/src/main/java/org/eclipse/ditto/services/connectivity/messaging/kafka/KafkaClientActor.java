@@ -12,7 +12,9 @@
  */
 package org.eclipse.ditto.services.connectivity.messaging.kafka;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -20,8 +22,10 @@ import java.util.concurrent.CompletionStage;
 
 import javax.annotation.Nullable;
 
+import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.model.connectivity.Connection;
 import org.eclipse.ditto.model.connectivity.ConnectivityStatus;
+import org.eclipse.ditto.model.connectivity.Source;
 import org.eclipse.ditto.services.connectivity.messaging.BaseClientActor;
 import org.eclipse.ditto.services.connectivity.messaging.BaseClientData;
 import org.eclipse.ditto.services.connectivity.messaging.BaseClientState;
@@ -36,6 +40,7 @@ import akka.actor.ActorRef;
 import akka.actor.Props;
 import akka.actor.Status;
 import akka.japi.pf.FSMStateFunctionBuilder;
+import scala.util.Either;
 
 /**
  * Actor which handles connection to Kafka server.
@@ -44,8 +49,10 @@ public final class KafkaClientActor extends BaseClientActor {
 
     private final KafkaPublisherActorFactory publisherActorFactory;
     private ActorRef kafkaPublisherActor;
+    private final List<ActorRef> kafkaConsumerActors;
 
     private final Set<ActorRef> pendingStatusReportsFromStreams;
+    private final KafkaConfigReader configReader;
     private final KafkaConnectionFactory connectionFactory;
 
     private CompletableFuture<Status.Status> testConnectionFuture = null;
@@ -56,10 +63,10 @@ public final class KafkaClientActor extends BaseClientActor {
             final ActorRef conciergeForwarder,
             final KafkaPublisherActorFactory factory) {
         super(connection, desiredConnectionStatus, conciergeForwarder);
-        final KafkaConfigReader configReader =
-                ConnectionConfigReader.fromRawConfig(getContext().system().settings().config()).kafka();
-        this.connectionFactory = KafkaConnectionFactory.of(connection, configReader);
+        configReader = ConnectionConfigReader.fromRawConfig(getContext().system().settings().config()).kafka();
+        this.connectionFactory = KafkaConnectionFactory.of(connection, configReader, getContext().system());
         this.publisherActorFactory = factory;
+        kafkaConsumerActors = new ArrayList<>();
         pendingStatusReportsFromStreams = new HashSet<>();
     }
 
@@ -137,15 +144,31 @@ public final class KafkaClientActor extends BaseClientActor {
     }
 
     /**
-     * Start Kafka publishers, expect "Status.Success" from each of them, then send "ClientConnected" to self.
+     * Start Kafka publishers and consumers, expect "Status.Success" from each of them, then send "ClientConnected" to
+     * self.
      *
      * @param dryRun if set to true, exchange no message between the broker and the Ditto cluster.
      */
     private void connectClient(final boolean dryRun) {
         // start publisher
         startKafkaPublisher(dryRun);
-        startMessageMappingProcessor();
-        // no command consumers as we don't support consuming from sources yet
+        // the message mapping processor has to be started after the publisher and before the consumers
+        final Either<DittoRuntimeException, ActorRef> messageMappingProcessor = startMessageMappingProcessor();
+
+        // start consumers
+        if (isConsuming()) {
+            if (messageMappingProcessor.isLeft()) {
+                final DittoRuntimeException e = messageMappingProcessor.left().get();
+                log.warning("failed to start mapping processor due to {}", e);
+            } else {
+                final ActorRef mappingActor = messageMappingProcessor.right().get();
+                // ensure no previous consumers stay in memory
+                stopKafkaConsumers();
+                connection().getSources().forEach(source -> startKafkaConsumers(source, mappingActor, dryRun));
+            }
+        } else {
+            log.info("Not starting consumption because there is no source.");
+        }
     }
 
     private void startKafkaPublisher(final boolean dryRun) {
@@ -158,13 +181,34 @@ public final class KafkaClientActor extends BaseClientActor {
         pendingStatusReportsFromStreams.add(kafkaPublisherActor);
     }
 
+    private void startKafkaConsumers(final Source source, final ActorRef mappingActor, final boolean dryRun) {
+        for (int i = 0; i < source.getConsumerCount(); i++) {
+            log.debug("Starting {}. consumer actor for source <{}> on connection <{}>.", i, source.getIndex(),
+                    connectionId());
+            final String consumerId = source.getIndex() + "-" + i;
+            final ActorRef kafkaConsumerActor = startChildActorConflictFree(
+                    KafkaConsumerActor.ACTOR_NAME_PREFIX + consumerId,
+                    KafkaConsumerActor.props(connectionId(), consumerId, source, mappingActor, connectionFactory,
+                            configReader, getSelf(), dryRun));
+            kafkaConsumerActors.add(kafkaConsumerActor);
+            pendingStatusReportsFromStreams.add(kafkaConsumerActor);
+        }
+    }
+
     @Override
     protected void cleanupResourcesForConnection() {
 
         pendingStatusReportsFromStreams.clear();
+        stopKafkaConsumers();
         stopKafkaPublisher();
     }
 
+    private void stopKafkaConsumers() {
+        // the consumers commit the offsets of the messages accepted by the mapping before they stop
+        kafkaConsumerActors.forEach(this::stopChildActor);
+        kafkaConsumerActors.clear();
+    }
+
 
     private void stopKafkaPublisher() {
         if (kafkaPublisherActor != null) {
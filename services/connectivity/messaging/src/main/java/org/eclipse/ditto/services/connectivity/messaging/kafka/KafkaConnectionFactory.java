@@ -12,15 +12,26 @@
  */
 package org.eclipse.ditto.services.connectivity.messaging.kafka;
 
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.common.TopicPartition;
 import org.eclipse.ditto.model.connectivity.Connection;
 import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
 
+import akka.Done;
 import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.japi.Pair;
+import akka.kafka.ConsumerMessage;
 import akka.kafka.ProducerMessage;
+import akka.kafka.javadsl.Consumer;
 import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
 
 /**
- * Creates Kafka sinks.
+ * Creates Kafka sources and sinks.
  */
 public interface KafkaConnectionFactory {
 
@@ -36,17 +47,38 @@ public interface KafkaConnectionFactory {
      *
      * @return Akka stream flow that publishes Kafka messages to the broker.
      */
-    <T> Flow<ProducerMessage.Envelope<String, String, T>, ProducerMessage.Results<String, String, T>, NotUsed> newFlow();
+    <T> Flow<ProducerMessage.Envelope<String, byte[], T>, ProducerMessage.Results<String, byte[], T>, NotUsed> newFlow();
+
+    /**
+     * Create an Akka stream source of the partitions assigned to a consumer of the given topics. Each partition is
+     * emitted together with a source of its messages, whose offsets have to be committed via
+     * {@link #newCommitterSink()}.
+     *
+     * @param topics the topics to consume.
+     * @param consumerId identifier of the consumer which is unique within the connection.
+     * @return Akka stream source of the assigned partitions which is controlled by its materialized value.
+     */
+    Source<Pair<TopicPartition, Source<ConsumerMessage.CommittableMessage<String, byte[]>, NotUsed>>, Consumer.Control> newPartitionedSource(
+            Set<String> topics, String consumerId);
+
+    /**
+     * Create an Akka stream sink which commits the offsets of consumed messages in batches.
+     *
+     * @return Akka stream sink of offsets which completes after the last commit.
+     */
+    Sink<ConsumerMessage.Committable, CompletionStage<Done>> newCommitterSink();
 
     /**
      * Create a default Kafka connection factory.
      *
      * @param connection the Kafka connection.
      * @param config the Kafka config reader.
+     * @param actorSystem the actor system whose config contains the defaults of akka-stream-kafka.
      * @return an Kafka connection factory.
      */
-    static KafkaConnectionFactory of(final Connection connection, final KafkaConfigReader config) {
-        return new DefaultKafkaConnectionFactory(connection, config);
+    static KafkaConnectionFactory of(final Connection connection, final KafkaConfigReader config,
+            final ActorSystem actorSystem) {
+        return new DefaultKafkaConnectionFactory(connection, config, actorSystem);
     }
 
 }
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging.kafka;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.Nullable;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.header.Header;
+import org.eclipse.ditto.model.connectivity.ConnectivityModelFactory;
+import org.eclipse.ditto.model.connectivity.ConnectivityStatus;
+import org.eclipse.ditto.model.connectivity.Enforcement;
+import org.eclipse.ditto.model.connectivity.Source;
+import org.eclipse.ditto.model.placeholders.EnforcementFactoryFactory;
+import org.eclipse.ditto.model.placeholders.EnforcementFilterFactory;
+import org.eclipse.ditto.model.placeholders.PlaceholderFactory;
+import org.eclipse.ditto.services.connectivity.messaging.BaseClientData;
+import org.eclipse.ditto.services.connectivity.messaging.BaseConsumerActor;
+import org.eclipse.ditto.services.connectivity.messaging.MessageMappingProcessorRouterActor;
+import org.eclipse.ditto.services.connectivity.messaging.internal.RetrieveAddressStatus;
+import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectivityCounterRegistry;
+import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
+import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.services.utils.config.ConfigUtil;
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
+
+import akka.Done;
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.Pair;
+import akka.kafka.ConsumerMessage;
+import akka.kafka.javadsl.Consumer;
+import akka.pattern.PatternsCS;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Keep;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Actor which consumes the topics of a Kafka source and forwards the messages to the
+ * {@link MessageMappingProcessorRouterActor}. The partitions assigned to the consumer are consumed in parallel,
+ * each with a bounded number of messages waiting for their acceptance by the router. The messages are partitioned for
+ * the mapping by their key or else by their Kafka partition, so that the messages of one key keep their order. The
+ * offset of a message is committed only after the router accepted it or the wait for the acceptance timed out, as the
+ * router queued the message for mapping already; offsets are committed in batches. The consumer stream is restarted
+ * only if consuming or committing fails.
+ * <p>
+ * All consumers of a connection form one consumer group, so the partitions of the source topics are distributed among
+ * the consumers of all client actors of the connection. The lag of the consumer is reported periodically.
+ * </p>
+ */
+public final class KafkaConsumerActor extends BaseConsumerActor {
+
+    static final String ACTOR_NAME_PREFIX = "kafkaConsumer-";
+
+    static final String KAFKA_TOPIC_HEADER = "kafka.topic";
+    static final String KAFKA_KEY_HEADER = "kafka.key";
+    static final String KAFKA_PARTITION_HEADER = "kafka.partition";
+
+    private static final String CONSUMER_FETCH_MANAGER_METRICS = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG = "records-lag";
+    private static final Duration RESTART_DELAY = Duration.ofSeconds(1L);
+
+    private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
+
+    private final String connectionId;
+    private final String consumerId;
+    private final Set<String> topics;
+    private final KafkaConnectionFactory connectionFactory;
+    private final ActorRef kafkaClientActor;
+    private final boolean dryRun;
+    private final EnforcementFilterFactory<Map<String, String>, String> headerEnforcementFilterFactory;
+    private final int maxPartitions;
+    private final int maxInFlightPerPartition;
+    private final Duration acceptanceTimeout;
+    private final Duration lagReportInterval;
+    private final Gauge consumerLag;
+    private final ActorMaterializer materializer;
+
+    @Nullable private Consumer.DrainingControl<Done> control;
+    @Nullable private Cancellable lagReport;
+
+    private KafkaConsumerActor(final String connectionId, final String consumerId, final Source source,
+            final ActorRef messageMappingProcessor, final KafkaConnectionFactory connectionFactory,
+            final KafkaConfigReader config, final ActorRef kafkaClientActor, final boolean dryRun) {
+
+        super(connectionId, String.join(";", source.getAddresses()), messageMappingProcessor,
+                source.getAuthorizationContext(), source.getHeaderMapping().orElse(null));
+        this.connectionId = connectionId;
+        this.consumerId = consumerId;
+        topics = new LinkedHashSet<>(source.getAddresses());
+        this.connectionFactory = connectionFactory;
+        this.kafkaClientActor = kafkaClientActor;
+        this.dryRun = dryRun;
+
+        final Enforcement enforcement = source.getEnforcement().orElse(null);
+        headerEnforcementFilterFactory = enforcement != null ? EnforcementFactoryFactory
+                .newEnforcementFilterFactory(enforcement, PlaceholderFactory.newHeadersPlaceholder()) :
+                input -> null;
+
+        maxPartitions = config.consumerMaxPartitions();
+        maxInFlightPerPartition = config.consumerMaxInFlightPerPartition();
+        acceptanceTimeout = config.consumerAcceptanceTimeout();
+        lagReportInterval = config.consumerLagReportInterval();
+        consumerLag = ConnectivityCounterRegistry.getInboundConsumerLagGauge(connectionId, sourceAddress);
+        // not bound to this actor, so that the stream can be drained after the actor stopped
+        materializer = ActorMaterializer.create(getContext().getSystem());
+    }
+
+    /**
+     * Creates Akka configuration object for this actor.
+     *
+     * @param connectionId ID of the connection this consumer belongs to.
+     * @param consumerId identifier of the consumer which is unique within the connection.
+     * @param source the source whose topics are consumed.
+     * @param messageMappingProcessor the ActorRef to the {@code MessageMappingProcessorRouterActor}.
+     * @param connectionFactory the factory to create Kafka sources and sinks with.
+     * @param config the Kafka config reader.
+     * @param kafkaClientActor the ActorRef to the Kafka client actor which is notified about the consumer state.
+     * @param dryRun whether this consumer is only created for a test or not; it does not consume in dry run mode.
+     * @return the Akka configuration Props object.
+     */
+    static Props props(final String connectionId, final String consumerId, final Source source,
+            final ActorRef messageMappingProcessor, final KafkaConnectionFactory connectionFactory,
+            final KafkaConfigReader config, final ActorRef kafkaClientActor, final boolean dryRun) {
+
+        checkNotNull(source, "source");
+        checkNotNull(connectionFactory, "connectionFactory");
+        checkNotNull(config, "config");
+        return Props.create(KafkaConsumerActor.class, new Creator<KafkaConsumerActor>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public KafkaConsumerActor create() {
+                return new KafkaConsumerActor(connectionId, consumerId, source, messageMappingProcessor,
+                        connectionFactory, config, kafkaClientActor, dryRun);
+            }
+        });
+    }
+
+    @Override
+    public void preStart() {
+        if (dryRun) {
+            logWithConnectionId().info("Not consuming topics <{}> in dry run mode.", topics);
+        } else {
+            startConsumerStream();
+            final FiniteDuration interval = FiniteDuration.fromNanos(lagReportInterval.toNanos());
+            lagReport = getContext().getSystem().scheduler().schedule(interval, interval, getSelf(),
+                    ReportLag.INSTANCE, getContext().getDispatcher(), getSelf());
+        }
+        kafkaClientActor.tell(new Status.Success(Done.done()), getSelf());
+    }
+
+    @Override
+    public void postStop() {
+        if (lagReport != null) {
+            lagReport.cancel();
+        }
+        stopConsumerStream();
+        consumerLag.set(0L);
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .match(RetrieveAddressStatus.class, ram -> getSender().tell(getCurrentSourceStatus(), getSelf()))
+                .match(StreamTerminated.class, this::handleStreamTerminated)
+                .match(AcceptanceTimedOut.class, this::handleAcceptanceTimedOut)
+                .matchEquals(ReportLag.INSTANCE, reportLag -> reportLag())
+                .matchEquals(Restart.INSTANCE, restart -> restartConsumerStream())
+                .matchAny(unhandled -> {
+                    log.info("Unhandled message: {}", unhandled);
+                    unhandled(unhandled);
+                })
+                .build();
+    }
+
+    private void startConsumerStream() {
+        logWithConnectionId().info("Starting Kafka consumer <{}> of topics <{}>.", consumerId, topics);
+        final Pair<Consumer.Control, CompletionStage<Done>> materialized =
+                connectionFactory.newPartitionedSource(topics, consumerId)
+                        .flatMapMerge(maxPartitions, partition -> partition.second()
+                                .mapAsync(maxInFlightPerPartition, this::forwardToMapping))
+                        .toMat(connectionFactory.newCommitterSink(), Keep.both())
+                        .run(materializer);
+        control = Consumer.createDrainingControl(materialized);
+
+        final ActorRef self = getSelf();
+        materialized.second().whenComplete((done, error) -> self.tell(new StreamTerminated(error), self));
+    }
+
+    private void restartConsumerStream() {
+        startConsumerStream();
+        handleAddressStatus(ConnectivityModelFactory.newSourceStatus(ConfigUtil.instanceIdentifier(),
+                ConnectivityStatus.OPEN, sourceAddress, "Restarted at " + Instant.now()));
+    }
+
+    private void stopConsumerStream() {
+        if (control != null) {
+            logWithConnectionId().info("Stopping Kafka consumer <{}>.", consumerId);
+            // commits the offsets of the messages accepted so far before the consumer leaves its group
+            control.drainAndShutdown(getContext().getDispatcher())
+                    .whenComplete((done, error) -> materializer.shutdown());
+            control = null;
+        } else {
+            materializer.shutdown();
+        }
+    }
+
+    /**
+     * Forwards a consumed message to the message mapping. Called from within the consumer stream, so it must not
+     * access mutable state of this actor.
+     *
+     * @param message the consumed message.
+     * @return the offset of the message which completes as soon as the message mapping accepted the message.
+     */
+    private CompletionStage<ConsumerMessage.Committable> forwardToMapping(
+            final ConsumerMessage.CommittableMessage<String, byte[]> message) {
+
+        final ConsumerRecord<String, byte[]> record = message.record();
+        final Map<String, String> headers = extractHeaders(record);
+        final ExternalMessage externalMessage = ExternalMessageFactory.newExternalMessageBuilder(headers)
+                .withBytes(record.value())
+                .withAuthorizationContext(authorizationContext)
+                .withEnforcement(headerEnforcementFilterFactory.getFilter(headers))
+                .withHeaderMapping(headerMapping)
+                .withSourceAddress(sourceAddress)
+                .build();
+        inboundCounter.recordSuccess();
+
+        final ActorRef self = getSelf();
+        return PatternsCS.ask(messageMappingProcessor,
+                MessageMappingProcessorRouterActor.AwaitAcceptance.of(externalMessage, partitionKeyOf(record)),
+                acceptanceTimeout.toMillis())
+                .handle((acceptance, error) -> {
+                    if (error != null) {
+                        // the router queued the message already, asking again would map it twice
+                        self.tell(new AcceptanceTimedOut(record.topic(), record.partition(), record.offset()), self);
+                    }
+                    return message.committableOffset();
+                });
+    }
+
+    /**
+     * Determines the key by which the message mapping partitions a Kafka record: its key or else its topic and
+     * partition.
+     *
+     * @param record the Kafka record.
+     * @return the partition key.
+     */
+    static String partitionKeyOf(final ConsumerRecord<String, byte[]> record) {
+        if (record.key() != null) {
+            return record.key();
+        }
+        return record.topic() + "-" + record.partition();
+    }
+
+    /**
+     * Extracts the headers of an external message from a Kafka record: its headers, decoded as UTF-8, together with
+     * its topic, partition and key.
+     *
+     * @param record the Kafka record.
+     * @return the headers.
+     */
+    static Map<String, String> extractHeaders(final ConsumerRecord<String, byte[]> record) {
+        final Map<String, String> headers = new HashMap<>();
+        for (final Header header : record.headers()) {
+            if (header.value() != null) {
+                headers.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+            }
+        }
+        headers.put(KAFKA_TOPIC_HEADER, record.topic());
+        headers.put(KAFKA_PARTITION_HEADER, String.valueOf(record.partition()));
+        if (record.key() != null) {
+            headers.put(KAFKA_KEY_HEADER, record.key());
+        }
+        return headers;
+    }
+
+    /**
+     * Sums up the lag of all partitions assigned to a consumer.
+     *
+     * @param metrics the metrics of the Kafka consumer.
+     * @return the number of messages available at the broker but not yet consumed.
+     */
+    static long sumRecordsLag(final Map<MetricName, ? extends Metric> metrics) {
+        return metrics.entrySet().stream()
+                .filter(entry -> CONSUMER_FETCH_MANAGER_METRICS.equals(entry.getKey().group()) &&
+                        RECORDS_LAG.equals(entry.getKey().name()))
+                .map(entry -> entry.getValue().metricValue())
+                .filter(Number.class::isInstance)
+                .mapToDouble(value -> ((Number) value).doubleValue())
+                // the lag of a partition is unknown until its first fetch
+                .filter(lag -> !Double.isNaN(lag))
+                .mapToLong(lag -> (long) lag)
+                .sum();
+    }
+
+    private void reportLag() {
+        if (control != null) {
+            // the gauge is thread-safe, so the metrics are not passed back to this actor
+            control.getMetrics().thenAccept(metrics -> consumerLag.set(sumRecordsLag(metrics)));
+        }
+    }
+
+    private void handleStreamTerminated(final StreamTerminated terminated) {
+        if (terminated.error == null) {
+            logWithConnectionId().info("Kafka consumer <{}> completed.", consumerId);
+            return;
+        }
+        if (control == null) {
+            logWithConnectionId().info("Kafka consumer <{}> failed while stopping: {}", consumerId,
+                    terminated.error.getMessage());
+            return;
+        }
+        logWithConnectionId().warning("Kafka consumer <{}> failed, restarting it in <{}>: {}", consumerId,
+                RESTART_DELAY, terminated.error.getMessage());
+        control = null;
+        handleAddressStatus(ConnectivityModelFactory.newSourceStatus(ConfigUtil.instanceIdentifier(),
+                ConnectivityStatus.FAILED, sourceAddress, "Consumer failed: " + terminated.error.getMessage()));
+        getContext().getSystem().scheduler().scheduleOnce(FiniteDuration.fromNanos(RESTART_DELAY.toNanos()),
+                getSelf(), Restart.INSTANCE, getContext().getDispatcher(), getSelf());
+    }
+
+    private void handleAcceptanceTimedOut(final AcceptanceTimedOut timedOut) {
+        logWithConnectionId().warning("Message mapping did not accept the message at offset <{}> of partition <{}> " +
+                        "of topic <{}> within <{}>, consuming the next one.", timedOut.offset, timedOut.partition,
+                timedOut.topic, acceptanceTimeout);
+    }
+
+    private DiagnosticLoggingAdapter logWithConnectionId() {
+        LogUtil.enhanceLogWithCustomField(log, BaseClientData.MDC_CONNECTION_ID, connectionId);
+        return log;
+    }
+
+    private enum ReportLag {
+        INSTANCE
+    }
+
+    private enum Restart {
+        INSTANCE
+    }
+
+    private static final class AcceptanceTimedOut {
+
+        private final String topic;
+        private final int partition;
+        private final long offset;
+
+        private AcceptanceTimedOut(final String topic, final int partition, final long offset) {
+            this.topic = topic;
+            this.partition = partition;
+            this.offset = offset;
+        }
+
+    }
+
+    private static final class StreamTerminated {
+
+        @Nullable private final Throwable error;
+
+        private StreamTerminated(@Nullable final Throwable error) {
+            this.error = error;
+        }
+
+    }
+
+}
@@ -29,11 +29,15 @@ import org.apache.kafka.common.header.internals.RecordHeader;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.services.connectivity.messaging.BaseClientData;
 import org.eclipse.ditto.services.connectivity.messaging.BasePublisherActor;
+import org.eclipse.ditto.services.connectivity.messaging.PublisherQueue;
 import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectionMetricsCollector;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.eclipse.ditto.services.connectivity.util.ConfigKeys;
 import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 
+import com.typesafe.config.Config;
+
 import akka.Done;
 import akka.actor.ActorRef;
 import akka.actor.Props;
@@ -48,6 +52,7 @@ import akka.stream.OverflowStrategy;
 import akka.stream.javadsl.Keep;
 import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
+import akka.stream.javadsl.SourceQueueWithComplete;
 import akka.util.ByteString;
 
 /**
@@ -58,14 +63,19 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
 
     static final String ACTOR_NAME = "kafkaPublisher";
 
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
 
     private final ActorRef kafkaClientActor;
     private final KafkaConnectionFactory connectionFactory;
     private final boolean dryRun;
 
+    private final int queueSize;
+    private final int maxPendingOffers;
+
     private boolean shuttingDown = false;
-    private ActorRef sourceActor;
+    private PublisherQueue<ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector>> publisherQueue;
 
     private KafkaPublisherActor(final String connectionId, final List<Target> targets,
             final KafkaConnectionFactory factory,
@@ -75,6 +85,9 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
         this.kafkaClientActor = kafkaClientActor;
         this.dryRun = dryRun;
         this.connectionFactory = factory;
+        final Config config = getContext().getSystem().settings().config();
+        queueSize = config.getInt(ConfigKeys.Connection.PUBLISHER_QUEUE_SIZE);
+        maxPendingOffers = config.getInt(ConfigKeys.Connection.PUBLISHER_MAX_PENDING);
 
         this.startInternalKafkaProducer();
         this.reportInitialConnectionState();
@@ -103,7 +116,7 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
         });
     }
 
-    private static Sink<ProducerMessage.Results<String, String, ConnectionMetricsCollector>, CompletionStage<Done>> publishSuccessSink() {
+    private static Sink<ProducerMessage.Results<String, byte[], ConnectionMetricsCollector>, CompletionStage<Done>> publishSuccessSink() {
 
         // basically, we don't know if the 'publish' will succeed or fail. We would need to write our own
         // GraphStage actor for Kafka and MQTT, since alpakka doesn't provide this useful information for us.
@@ -142,24 +155,33 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
     private void publishMessage(final KafkaPublishTarget publishTarget, final ExternalMessage message,
             final ConnectionMetricsCollector publishedCounter) {
 
-        final ProducerMessage.Envelope<String, String, ConnectionMetricsCollector> kafkaMessage =
+        final ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector> kafkaMessage =
                 mapExternalMessageToKafkaMessage(publishTarget, message, publishedCounter);
-        sourceActor.tell(kafkaMessage, getSelf());
+        reportAcceptance(publisherQueue.offer(kafkaMessage)).thenAccept(accepted -> {
+            if (!accepted) {
+                publishedCounter.recordFailure();
+            }
+        });
+    }
+
+    @Override
+    protected CompletionStage<Void> whenAccepted() {
+        return publisherQueue.whenAccepted();
     }
 
     private boolean isDryRun() {
         return dryRun;
     }
 
-    private static ProducerMessage.Envelope<String, String, ConnectionMetricsCollector> mapExternalMessageToKafkaMessage(
+    private static ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector> mapExternalMessageToKafkaMessage(
             final KafkaPublishTarget publishTarget,
             final ExternalMessage externalMessage,
             final ConnectionMetricsCollector metricsCollector) {
 
-        final String payload = mapExternalMessagePayload(externalMessage);
+        final byte[] payload = mapExternalMessagePayload(externalMessage);
         final Iterable<Header> headers = mapExternalMessageHeaders(externalMessage);
 
-        final ProducerRecord<String, String> record =
+        final ProducerRecord<String, byte[]> record =
                 new ProducerRecord<>(publishTarget.getTopic(),
                         publishTarget.getPartition().orElse(null),
                         publishTarget.getKey().orElse(null),
@@ -175,18 +197,19 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
                 .collect(Collectors.toList());
     }
 
-    private static String mapExternalMessagePayload(final ExternalMessage externalMessage) {
+    private static byte[] mapExternalMessagePayload(final ExternalMessage externalMessage) {
         if (externalMessage.isTextMessage()) {
             return externalMessage.getTextPayload()
-                    .orElse("");
+                    .map(text -> text.getBytes(StandardCharsets.UTF_8))
+                    .orElse(EMPTY_PAYLOAD);
         } else if (externalMessage.isBytesMessage()) {
             return externalMessage.getBytePayload()
                     .map(ByteString::fromByteBuffer)
-                    .map(ByteString::utf8String)
-                    .orElse("");
+                    .map(ByteString::toArray)
+                    .orElse(EMPTY_PAYLOAD);
 
         }
-        return "";
+        return EMPTY_PAYLOAD;
     }
 
     private Done handleCompletionOrFailure(final Done done, @Nullable final Throwable throwable) {
@@ -226,30 +249,32 @@ public final class KafkaPublisherActor extends BasePublisherActor<KafkaPublishTa
 
     private void startInternalKafkaProducer() {
         logWithConnectionId().info("Starting internal Kafka producer.");
-        this.sourceActor = createInternalKafkaProducer(connectionFactory, this::handleCompletionOrFailure);
+        this.publisherQueue = createInternalKafkaProducer(connectionFactory, this::handleCompletionOrFailure);
     }
 
     private void restartInternalKafkaProducer() {
         logWithConnectionId().info("Restarting internal Kafka producer");
-        this.sourceActor = createInternalKafkaProducer(connectionFactory, this::handleCompletionOrFailure);
+        this.publisherQueue = createInternalKafkaProducer(connectionFactory, this::handleCompletionOrFailure);
     }
 
-    private ActorRef createInternalKafkaProducer(final KafkaConnectionFactory factory,
+    private PublisherQueue<ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector>> createInternalKafkaProducer(
+            final KafkaConnectionFactory factory,
             final BiFunction<Done, Throwable, Done> completionOrFailureHandler) {
-        final Pair<ActorRef, CompletionStage<Done>> materializedFlowedValues =
-                Source.<ProducerMessage.Envelope<String, String, ConnectionMetricsCollector>>actorRef(100,
-                        OverflowStrategy.dropHead())
+        final Pair<SourceQueueWithComplete<ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector>>,
+                CompletionStage<Done>> materializedFlowedValues =
+                Source.<ProducerMessage.Envelope<String, byte[], ConnectionMetricsCollector>>queue(queueSize,
+                        OverflowStrategy.backpressure())
                         .via(factory.newFlow())
                         .toMat(KafkaPublisherActor.publishSuccessSink(), Keep.both())
                         .run(ActorMaterializer.create(getContext()));
         materializedFlowedValues.second().handleAsync(completionOrFailureHandler);
-        return materializedFlowedValues.first();
+        return PublisherQueue.of(materializedFlowedValues.first(), maxPendingOffers, connectionId);
     }
 
     private void stopInternalKafkaProducer() {
         logWithConnectionId().info("Stopping internal Kafka producer.");
-        if (null != sourceActor) {
-            sourceActor.tell(new Status.Success("stopped"), ActorRef.noSender());
+        if (null != publisherQueue) {
+            publisherQueue.complete();
         }
     }
 
@@ -46,7 +46,7 @@ public final class KafkaValidator extends AbstractProtocolValidator {
     private static final String DUMMY_PARTITION = "3";
 
     private static final String INVALID_TOPIC_FORMAT = "The provided topic ''{0}'' is not valid: {1}";
-    private static final String NOT_EMPTY_FORMAT = "The provided {0} in your target address may not be empty.";
+    private static final String NOT_EMPTY_FORMAT = "The provided {0} in your address may not be empty.";
 
     private static final Collection<String> ACCEPTED_SCHEMES =
             Collections.unmodifiableList(Arrays.asList("tcp", "ssl"));
@@ -79,10 +79,14 @@ public final class KafkaValidator extends AbstractProtocolValidator {
     @Override
     protected void validateSource(final Source source, final DittoHeaders dittoHeaders,
             final Supplier<String> sourceDescription) {
-        final String message = "Kafka connectivity currently does not provide sources.";
-        throw ConnectionConfigurationInvalidException.newBuilder(message)
-                .dittoHeaders(dittoHeaders)
-                .build();
+        // source addresses are plain topics without placeholders
+        source.getAddresses().forEach(address -> validateTopic(address, dittoHeaders, DUMMY_TOPIC));
+        source.getEnforcement().ifPresent(enforcement -> {
+            validateTemplate(enforcement.getInput(), dittoHeaders, newHeadersPlaceholder());
+            enforcement.getFilters().forEach(filterTemplate ->
+                    validateTemplate(filterTemplate, dittoHeaders, newThingPlaceholder()));
+        });
+        source.getHeaderMapping().ifPresent(mapping -> validateHeaderMapping(mapping, dittoHeaders));
     }
 
     @Override
@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.eclipse.ditto.model.connectivity.Connection;
@@ -37,15 +38,15 @@ final class ProducerSettingsFactory {
 
     private static final ProducerSettingsFactory INSTANCE = new ProducerSettingsFactory();
     private static final Serializer<String> KEY_SERIALIZER = new StringSerializer();
-    private static final Serializer<String> VALUE_SERIALIZER = KEY_SERIALIZER;
+    private static final Serializer<byte[]> VALUE_SERIALIZER = new ByteArraySerializer();
 
     static ProducerSettingsFactory getInstance() {
         return INSTANCE;
     }
 
-    ProducerSettings<String, String> createProducerSettings(final Connection connection,
+    ProducerSettings<String, byte[]> createProducerSettings(final Connection connection,
             final KafkaConfigReader config) {
-        ProducerSettings<String, String> settings =
+        ProducerSettings<String, byte[]> settings =
                 ProducerSettings.create(config.internalProducerSettings(), KEY_SERIALIZER, VALUE_SERIALIZER);
 
         settings = addMetadata(connection, settings);
@@ -55,51 +56,45 @@ final class ProducerSettingsFactory {
         return settings;
     }
 
-    private ProducerSettings<String, String> addMetadata(final Connection connection,
-            final ProducerSettings<String, String> settings) {
+    private ProducerSettings<String, byte[]> addMetadata(final Connection connection,
+            final ProducerSettings<String, byte[]> settings) {
         // identify the connected Kafka client by the connectionId followed by the instance index
         // (in order to be able to differentiate if a clientCount >1 was configured):
         return settings.withProperty(CommonClientConfigs.CLIENT_ID_CONFIG, connection.getId() + "-" +
                 ConfigUtil.instanceIdentifier());
     }
 
-    private ProducerSettings<String, String> addSpecificConfigs(final ProducerSettings<String, String> settings,
+    private ProducerSettings<String, byte[]> addSpecificConfigs(final ProducerSettings<String, byte[]> settings,
             final Connection connection) {
-        ProducerSettings<String, String> currentSettings = settings;
+        ProducerSettings<String, byte[]> currentSettings = settings;
         for (final KafkaSpecificConfig specificConfig : SPECIFIC_CONFIGS) {
             currentSettings = specificConfig.apply(currentSettings, connection);
         }
         return currentSettings;
     }
 
-    private ProducerSettings<String, String> addSecurityProtocol(final Connection connection,
-            final ProducerSettings<String, String> settings) {
+    private ProducerSettings<String, byte[]> addSecurityProtocol(final Connection connection,
+            final ProducerSettings<String, byte[]> settings) {
+        return settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, getSecurityProtocol(connection));
+    }
+
+    /**
+     * Determines the Kafka security protocol of a connection from its credentials and its protocol.
+     *
+     * @param connection the Kafka connection.
+     * @return the value of the {@code security.protocol} client property.
+     */
+    static String getSecurityProtocol(final Connection connection) {
         if (isAuthenticatedConnection(connection)) {
-            return addAuthenticatedSecurityProtocol(connection, settings);
+            return isSecureConnection(connection) ? "SASL_SSL" : "SASL_PLAINTEXT";
         }
-        return addUnauthenticatedSecurityProtocol(connection, settings);
+        return isSecureConnection(connection) ? "SSL" : "PLAINTEXT";
     }
 
     private static boolean isAuthenticatedConnection(final Connection connection) {
         return KafkaAuthenticationSpecificConfig.getInstance().isApplicable(connection);
     }
 
-    private static ProducerSettings<String, String> addAuthenticatedSecurityProtocol(final Connection connection,
-            final ProducerSettings<String, String> settings) {
-        if (isSecureConnection(connection)) {
-            return settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SASL_SSL");
-        }
-        return settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SASL_PLAINTEXT");
-    }
-
-    private static ProducerSettings<String, String> addUnauthenticatedSecurityProtocol(final Connection connection,
-            final ProducerSettings<String, String> settings) {
-        if (isSecureConnection(connection)) {
-            return settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SSL");
-        }
-        return settings.withProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "PLAINTEXT");
-    }
-
     private static boolean isSecureConnection(final Connection connection) {
         return "ssl".equals(connection.getProtocol());
     }
@@ -46,6 +46,8 @@ import org.eclipse.ditto.model.connectivity.Source;
 import org.eclipse.ditto.model.connectivity.SourceMetrics;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.model.connectivity.TargetMetrics;
+import org.eclipse.ditto.services.utils.metrics.DittoMetrics;
+import org.eclipse.ditto.services.utils.metrics.instruments.gauge.Gauge;
 import org.eclipse.ditto.signals.commands.connectivity.query.RetrieveConnectionMetricsResponse;
 
 /**
@@ -54,10 +56,13 @@ import org.eclipse.ditto.signals.commands.connectivity.query.RetrieveConnectionM
  */
 public final class ConnectivityCounterRegistry {
 
-    private static final ConcurrentMap<MapKey, ConnectionMetricsCollector> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<MapKey, ConnectionMetricsCollector>> counters =
+            new ConcurrentHashMap<>();
 
     private static final MeasurementWindow[] DEFAULT_WINDOWS = {ONE_MINUTE, ONE_HOUR, ONE_DAY};
 
+    private static final String CONSUMER_LAG_METRIC_NAME = "connectivity_consumer_lag";
+
     // artificial internal address for responses
     private static final String RESPONSES_ADDRESS = "_responses";
 
@@ -94,10 +99,7 @@ public final class ConnectivityCounterRegistry {
      */
     public static void resetCountersForConnection(final Connection connection) {
 
-        final String connectionId = connection.getId();
-        counters.keySet().stream()
-                .filter(key -> key.connectionId.equals(connectionId))
-                .forEach(counters::remove);
+        counters.remove(connection.getId());
     }
 
     private static void initCounter(final String connectionId, final MetricDirection metricDirection,
@@ -106,13 +108,22 @@ public final class ConnectivityCounterRegistry {
                 .filter(metricType -> metricType.supportsDirection(metricDirection))
                 .forEach(metricType -> {
                     final MapKey key = new MapKey(connectionId, metricType, metricDirection, address);
-                    counters.computeIfAbsent(key, m -> {
+                    countersOf(connectionId).computeIfAbsent(key, m -> {
                         final SlidingWindowCounter counter = new SlidingWindowCounter(CLOCK_UTC, DEFAULT_WINDOWS);
                         return new ConnectionMetricsCollector(metricDirection, address, metricType, counter);
                     });
                 });
     }
 
+    private static ConcurrentMap<MapKey, ConnectionMetricsCollector> countersOf(final String connectionId) {
+        // ConcurrentHashMap#computeIfAbsent locks the bin even if the key is present, so look up existing ones first
+        final ConcurrentMap<MapKey, ConnectionMetricsCollector> connectionCounters = counters.get(connectionId);
+        if (connectionCounters != null) {
+            return connectionCounters;
+        }
+        return counters.computeIfAbsent(connectionId, id -> new ConcurrentHashMap<>());
+    }
+
     /**
      * Gets the counter for the given parameter from the registry or creates it if it does not yet exist.
      *
@@ -149,7 +160,12 @@ public final class ConnectivityCounterRegistry {
             final String address) {
 
         final MapKey key = new MapKey(connectionId, metricType, metricDirection, address);
-        return counters.computeIfAbsent(key, m -> {
+        final ConcurrentMap<MapKey, ConnectionMetricsCollector> connectionCounters = countersOf(connectionId);
+        final ConnectionMetricsCollector existingCounter = connectionCounters.get(key);
+        if (existingCounter != null) {
+            return existingCounter;
+        }
+        return connectionCounters.computeIfAbsent(key, m -> {
             final SlidingWindowCounter counter = new SlidingWindowCounter(clock, DEFAULT_WINDOWS);
             return new ConnectionMetricsCollector(metricDirection, address, metricType, counter);
         });
@@ -243,6 +259,21 @@ public final class ConnectivityCounterRegistry {
         return getCounter(connectionId, MetricType.DROPPED, MetricDirection.INBOUND, source);
     }
 
+    /**
+     * Gets the gauge of the number of messages of a source which are available at the broker but not yet consumed.
+     * In contrast to the counters, the lag is not part of the connection metrics but reported to the metrics
+     * backend only.
+     *
+     * @param connectionId connection id
+     * @param source the source
+     * @return the consumer lag gauge
+     */
+    public static Gauge getInboundConsumerLagGauge(final String connectionId, final String source) {
+        return DittoMetrics.gauge(CONSUMER_LAG_METRIC_NAME)
+                .tag("connection_id", connectionId)
+                .tag("source", source);
+    }
+
     /**
      * Gets counter for {@link MetricDirection#OUTBOUND}/{@link MetricType#DISPATCHED} messages for responses.
      *
@@ -286,26 +317,28 @@ public final class ConnectivityCounterRegistry {
     private static Stream<ConnectionMetricsCollector> streamFor(final String connectionId,
             final MetricDirection metricDirection) {
 
-        return counters.entrySet()
+        final Map<MapKey, ConnectionMetricsCollector> connectionCounters = counters.get(connectionId);
+        if (connectionCounters == null) {
+            return Stream.empty();
+        }
+        return connectionCounters.values()
                 .stream()
-                .filter(e -> e.getKey().connectionId.equals(connectionId))
-                .filter(e -> metricDirection == e.getValue().getMetricDirection())
-                .map(Map.Entry::getValue);
+                .filter(collector -> metricDirection == collector.getMetricDirection());
     }
 
     private static Map<String, AddressMetric> aggregateMetrics(final String connectionId,
             final MetricDirection metricDirection) {
+        // sum up the counters of each address once and create one AddressMetric per address
+        final Map<String, Set<Measurement>> measurementsByAddress = new HashMap<>();
+        streamFor(connectionId, metricDirection).forEach(collector -> {
+            final Set<Measurement> measurements =
+                    measurementsByAddress.computeIfAbsent(collector.getAddress(), address -> new HashSet<>());
+            measurements.add(collector.toMeasurement(true));
+            measurements.add(collector.toMeasurement(false));
+        });
         final Map<String, AddressMetric> addressMetrics = new HashMap<>();
-        streamFor(connectionId, metricDirection)
-                .forEach(swc -> addressMetrics.compute(swc.getAddress(),
-                        (address, metric) -> {
-                            final Set<Measurement> measurements = new HashSet<>();
-                            measurements.add(swc.toMeasurement(true));
-                            measurements.add(swc.toMeasurement(false));
-                            return metric != null
-                                    ? ConnectivityModelFactory.newAddressMetric(metric, measurements)
-                                    : ConnectivityModelFactory.newAddressMetric(measurements);
-                        }));
+        measurementsByAddress.forEach((address, measurements) ->
+                addressMetrics.put(address, ConnectivityModelFactory.newAddressMetric(measurements)));
         return addressMetrics;
     }
 
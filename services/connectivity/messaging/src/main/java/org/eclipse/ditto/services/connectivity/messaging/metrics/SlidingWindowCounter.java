@@ -15,28 +15,28 @@ package org.eclipse.ditto.services.connectivity.messaging.metrics;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Simple implementation of a sliding window using a map. Depending on the given parameters
- * {@code window} and {@code duration} this implementation holds counter for time slots of size {@code duration} to
- * fill the {@code window}.
+ * Implementation of a sliding window using a fixed ring buffer of time slots per {@link MeasurementWindow}. Depending
+ * on the {@code resolution} of a window this implementation holds counters for time slots of size {@code resolution}
+ * to fill the {@code window}. Incrementing the count of the current time slot does not allocate and scales with the
+ * number of incrementing threads; counts are only summed up on read.
  */
 public final class SlidingWindowCounter {
 
     private final Clock clock;
     private final MeasurementWindow[] windows;
-    private final ConcurrentMap<Long, Long> successMeasurements = new ConcurrentHashMap<>();
-    private final ConcurrentMap<Long, Long> failureMeasurements = new ConcurrentHashMap<>();
+    private final RingBuffer[] successMeasurements;
+    private final RingBuffer[] failureMeasurements;
 
     private final AtomicLong lastSuccessTimestamp = new AtomicLong(Instant.EPOCH.toEpochMilli());
     private final AtomicLong lastFailureTimestamp = new AtomicLong(Instant.EPOCH.toEpochMilli());
-    private final Duration minResolution;
 
     /**
      * Instantiates a new {@link SlidingWindowCounter} that records the measurements for the given time windows.
@@ -46,11 +46,12 @@ public final class SlidingWindowCounter {
     SlidingWindowCounter(final Clock clock, final MeasurementWindow... windows) {
         this.clock = clock;
         this.windows = windows;
-
-        minResolution = Stream.of(windows)
-                .map(MeasurementWindow::getResolution)
-                .min(Duration::compareTo)
-                .orElse(Duration.ofMinutes(5));
+        successMeasurements = new RingBuffer[windows.length];
+        failureMeasurements = new RingBuffer[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            successMeasurements[i] = new RingBuffer(windows[i]);
+            failureMeasurements[i] = new RingBuffer(windows[i]);
+        }
     }
 
     /**
@@ -82,7 +83,7 @@ public final class SlidingWindowCounter {
      * @param success whether to increment success or failure count
      */
     void increment(final boolean success) {
-        increment(success, clock.instant().toEpochMilli());
+        increment(success, clock.millis());
     }
 
     /**
@@ -92,55 +93,27 @@ public final class SlidingWindowCounter {
      * @param ts the timestamp when the operation happened (mostly useful for testing)
      */
     void increment(final boolean success, final long ts) {
-        final long previousTimestamp;
         if (success) {
-            previousTimestamp = updateTimestampAndReturnPrevious(lastSuccessTimestamp, ts);
+            updateTimestamp(lastSuccessTimestamp, ts);
             incrementMeasurements(ts, successMeasurements);
         } else {
-            previousTimestamp = updateTimestampAndReturnPrevious(lastFailureTimestamp, ts);
+            updateTimestamp(lastFailureTimestamp, ts);
             incrementMeasurements(ts, failureMeasurements);
         }
-
-        // if diff between current and last timestamp is too large, cleanup old measurements
-        if (previousTimestamp > ts - minResolution.toMillis()) {
-            cleanUpOldMeasurements();
-        }
     }
 
-    private long updateTimestampAndReturnPrevious(final AtomicLong toUpdate, final long ts) {
-        return toUpdate.getAndUpdate(previous -> Math.max(previous, ts));
-    }
-
-    private void incrementMeasurements(final long ts, final Map<Long, Long> measurements) {
-        for (final MeasurementWindow window : windows) {
-            final long slot = getSlot(ts, window.getResolution().toMillis());
-            measurements.compute(slot, (key, value) -> (value == null) ? 1 : value + 1);
+    private static void updateTimestamp(final AtomicLong toUpdate, final long ts) {
+        // avoid the CAS (and the write to a shared cache line) if a later timestamp is already recorded
+        long previous = toUpdate.get();
+        while (previous < ts && !toUpdate.compareAndSet(previous, ts)) {
+            previous = toUpdate.get();
         }
     }
 
-    private void cleanUpOldMeasurements() {
-        cleanUpOldMeasurements(successMeasurements);
-        cleanUpOldMeasurements(failureMeasurements);
-    }
-
-    private void cleanUpOldMeasurements(final Map<Long, Long> measurements) {
-        measurements.entrySet().removeIf(e -> isOld(e.getKey()));
-    }
-
-    private boolean isOld(long slot) {
-        final long now = clock.instant().toEpochMilli();
-        for (final MeasurementWindow window : windows) {
-            final long resolutionInMs = window.getResolution().toMillis();
-            final long windowInMs = window.getWindow().toMillis();
-            // max slot is the current slot for this window
-            final long max = getSlot(now, resolutionInMs);
-            // min slot is current slot minus window size
-            final long min = getSlot(now - windowInMs, resolutionInMs);
-            if (slot <= max && slot >= min) {
-                return false;
-            }
+    private static void incrementMeasurements(final long ts, final RingBuffer[] measurements) {
+        for (final RingBuffer ringBuffer : measurements) {
+            ringBuffer.increment(ts);
         }
-        return true;
     }
 
     /**
@@ -159,27 +132,14 @@ public final class SlidingWindowCounter {
     /**
      * Gets counts for all measurement windows given.
      *
-     * @param measurements the measurements map to use
+     * @param measurements the ring buffers to sum up
      * @return the counts for all windows
      */
-    private Map<Duration, Long> getCounts(final Map<Long, Long> measurements) {
+    private Map<Duration, Long> getCounts(final RingBuffer[] measurements) {
         final Map<Duration, Long> result = new HashMap<>();
-        final long now = clock.instant().toEpochMilli();
-        for (final MeasurementWindow window : windows) {
-            // min is where we start to sum up the slots
-            final long windowInMs = window.getWindow().toMillis();
-            final long resolutionInMs = window.getResolution().toMillis();
-            final long min = getSlot(now - windowInMs, resolutionInMs);
-            // max is the current active time slot
-            final long max = getSlot(now, resolutionInMs);
-            long sum = 0;
-            for (final Map.Entry<Long, Long> e : measurements.entrySet()) {
-                long slot = e.getKey();
-                if (slot > min && slot <= max) {
-                    sum += e.getValue();
-                }
-            }
-            result.put(window.getWindow(), sum);
+        final long now = clock.millis();
+        for (int i = 0; i < windows.length; i++) {
+            result.put(windows[i].getWindow(), measurements[i].sum(now));
         }
         return result;
     }
@@ -192,22 +152,111 @@ public final class SlidingWindowCounter {
         reset(failureMeasurements);
     }
 
-    private void reset(final Map<Long, Long> measurements) {
-        measurements.clear();
-    }
-
-    private long getSlot(long ts, final long resolutionInMs) {
-        return ts / resolutionInMs;
+    private static void reset(final RingBuffer[] measurements) {
+        for (final RingBuffer ringBuffer : measurements) {
+            ringBuffer.clear();
+        }
     }
 
     @Override
     public String toString() {
         return getClass().getSimpleName() + " [" +
-                ", successMeasurements=" + successMeasurements +
-                ", failureMeasurements=" + failureMeasurements +
+                ", successMeasurements=" + Arrays.toString(successMeasurements) +
+                ", failureMeasurements=" + Arrays.toString(failureMeasurements) +
                 ", lastSuccessTimestamp=" + lastSuccessTimestamp +
                 ", lastFailureTimestamp=" + lastFailureTimestamp +
                 "]";
     }
 
+    /**
+     * Fixed ring of time slots of one {@link MeasurementWindow}. A time slot is replaced by a new one as soon as a
+     * measurement of a later time slot mapping to the same position is recorded. The ring holds twice as many slots
+     * as the window so that measurements slightly ahead of the clock do not overwrite slots which are still counted.
+     */
+    private static final class RingBuffer {
+
+        private final long windowInMs;
+        private final long resolutionInMs;
+        private final AtomicReferenceArray<Slot> slots;
+
+        private RingBuffer(final MeasurementWindow window) {
+            windowInMs = window.getWindow().toMillis();
+            resolutionInMs = window.getResolution().toMillis();
+            slots = new AtomicReferenceArray<>(2 * (int) (windowInMs / resolutionInMs) + 2);
+        }
+
+        private void increment(final long ts) {
+            final long slotNumber = getSlot(ts);
+            final int index = indexOf(slotNumber);
+            while (true) {
+                final Slot slot = slots.get(index);
+                if (slot != null && slot.number == slotNumber) {
+                    slot.count.increment();
+                    return;
+                } else if (slot != null && slot.number > slotNumber) {
+                    // measurement is older than the ring buffer, its slot was already replaced
+                    return;
+                }
+                final Slot newSlot = new Slot(slotNumber);
+                if (slots.compareAndSet(index, slot, newSlot)) {
+                    newSlot.count.increment();
+                    return;
+                }
+            }
+        }
+
+        private long sum(final long now) {
+            // min is where we start to sum up the slots
+            final long min = getSlot(now - windowInMs);
+            // max is the current active time slot
+            final long max = getSlot(now);
+            long sum = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                final Slot slot = slots.get(i);
+                if (slot != null && slot.number > min && slot.number <= max) {
+                    sum += slot.count.sum();
+                }
+            }
+            return sum;
+        }
+
+        private void clear() {
+            for (int i = 0; i < slots.length(); i++) {
+                slots.set(i, null);
+            }
+        }
+
+        private long getSlot(final long ts) {
+            return ts / resolutionInMs;
+        }
+
+        private int indexOf(final long slotNumber) {
+            return (int) Math.floorMod(slotNumber, (long) slots.length());
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < slots.length(); i++) {
+                final Slot slot = slots.get(i);
+                if (slot != null) {
+                    sb.append(sb.length() > 1 ? ", " : "").append(slot.number).append('=').append(slot.count);
+                }
+            }
+            return sb.append('}').toString();
+        }
+
+    }
+
+    private static final class Slot {
+
+        private final long number;
+        private final LongAdder count = new LongAdder();
+
+        private Slot(final long number) {
+            this.number = number;
+        }
+
+    }
+
 }
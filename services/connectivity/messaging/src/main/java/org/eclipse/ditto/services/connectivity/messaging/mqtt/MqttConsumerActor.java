@@ -14,6 +14,7 @@ package org.eclipse.ditto.services.connectivity.messaging.mqtt;
 
 import static org.eclipse.ditto.services.connectivity.messaging.mqtt.MqttClientActor.ConsumerStreamMessage.STREAM_ACK;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Objects;
 
@@ -26,19 +27,25 @@ import org.eclipse.ditto.model.placeholders.EnforcementFilter;
 import org.eclipse.ditto.model.placeholders.EnforcementFilterFactory;
 import org.eclipse.ditto.model.placeholders.PlaceholderFactory;
 import org.eclipse.ditto.services.connectivity.messaging.BaseConsumerActor;
+import org.eclipse.ditto.services.connectivity.messaging.MessageMappingProcessorRouterActor;
 import org.eclipse.ditto.services.connectivity.messaging.internal.RetrieveAddressStatus;
+import org.eclipse.ditto.services.connectivity.util.ConfigKeys;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 
 import akka.actor.ActorRef;
 import akka.actor.Props;
+import akka.actor.Status;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.Creator;
+import akka.pattern.PatternsCS;
 import akka.stream.alpakka.mqtt.MqttMessage;
 
 /**
- * Actor which receives message from a MQTT broker and forwards them to a {@code MessageMappingProcessorActor}.
+ * Actor which receives message from a MQTT broker and forwards them to a {@code MessageMappingProcessorActor}. The
+ * next message is requested from the stream only after the {@link MessageMappingProcessorRouterActor} accepted the
+ * previous one, or after the configured acceptance timeout. Messages of one topic are mapped in order.
  */
 public final class MqttConsumerActor extends BaseConsumerActor {
 
@@ -48,7 +55,9 @@ public final class MqttConsumerActor extends BaseConsumerActor {
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
     private final ActorRef deadLetters;
     private final boolean dryRun;
+    private final Duration acceptanceTimeout;
     @Nullable private final EnforcementFilterFactory<String, String> topicEnforcementFilterFactory;
+    @Nullable private ActorRef awaitingStreamAck;
 
     private MqttConsumerActor(final String connectionId, final ActorRef messageMappingProcessor,
             final AuthorizationContext sourceAuthorizationContext, @Nullable final Enforcement enforcement,
@@ -56,6 +65,8 @@ public final class MqttConsumerActor extends BaseConsumerActor {
         super(connectionId, sourceAddress, messageMappingProcessor, sourceAuthorizationContext, null);
         this.dryRun = dryRun;
         deadLetters = getContext().system().deadLetters();
+        acceptanceTimeout =
+                getContext().getSystem().settings().config().getDuration(ConfigKeys.Mapping.ACCEPTANCE_TIMEOUT);
 
         if (enforcement != null) {
             this.topicEnforcementFilterFactory = EnforcementFactoryFactory.newEnforcementFilterFactory(enforcement,
@@ -100,6 +111,8 @@ public final class MqttConsumerActor extends BaseConsumerActor {
                 .match(MqttMessage.class, this::handleMqttMessage)
                 .match(RetrieveAddressStatus.class, ram -> getSender().tell(getCurrentSourceStatus(), getSelf()))
                 .match(MqttClientActor.ConsumerStreamMessage.class, this::handleConsumerStreamMessage)
+                .match(MessageMappingProcessorRouterActor.Acceptance.class, acceptance -> handleAcceptance())
+                .match(Status.Failure.class, this::handleAcceptanceFailure)
                 .matchAny(unhandled -> {
                     log.info("Unhandled message: {}", unhandled);
                     unhandled(unhandled);
@@ -119,8 +132,12 @@ public final class MqttConsumerActor extends BaseConsumerActor {
                     .withSourceAddress(sourceAddress)
                     .build();
             inboundCounter.recordSuccess();
-            messageMappingProcessor.tell(externalMessage, getSelf());
-            replyStreamAck();
+            awaitingStreamAck = getSender();
+            // the topic as partition key keeps the order of the messages of a device publishing to its own topic
+            PatternsCS.pipe(PatternsCS.ask(messageMappingProcessor,
+                    MessageMappingProcessorRouterActor.AwaitAcceptance.of(externalMessage, message.topic()),
+                    acceptanceTimeout.toMillis()), getContext().dispatcher())
+                    .to(getSelf());
         } catch (final Exception e) {
             inboundCounter.recordFailure();
             log.info("Failed to handle MQTT message: {}", e.getMessage());
@@ -155,8 +172,25 @@ public final class MqttConsumerActor extends BaseConsumerActor {
         }
     }
 
+    private void handleAcceptance() {
+        if (awaitingStreamAck != null) {
+            replyStreamAck(awaitingStreamAck);
+            awaitingStreamAck = null;
+        }
+    }
+
+    private void handleAcceptanceFailure(final Status.Failure failure) {
+        // the message was passed to the mapping already, consume the next one instead of stalling the stream
+        log.warning("Mapping did not accept message within <{}>, consuming the next message anyway: {}",
+                acceptanceTimeout, failure.cause().getMessage());
+        handleAcceptance();
+    }
+
     private void replyStreamAck() {
-        final ActorRef sender = getSender();
+        replyStreamAck(getSender());
+    }
+
+    private void replyStreamAck(final ActorRef sender) {
         // check sender against deadLetters because stream actor terminates itself before waiting for the final ACK
         if (!Objects.equals(sender, deadLetters)) {
             sender.tell(STREAM_ACK, getSelf());
@@ -22,11 +22,15 @@ import javax.annotation.Nullable;
 import org.eclipse.ditto.model.base.common.CharsetDeterminer;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.services.connectivity.messaging.BasePublisherActor;
+import org.eclipse.ditto.services.connectivity.messaging.PublisherQueue;
 import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectionMetricsCollector;
+import org.eclipse.ditto.services.connectivity.util.ConfigKeys;
 import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
 import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 
+import com.typesafe.config.Config;
+
 import akka.Done;
 import akka.actor.ActorRef;
 import akka.actor.Props;
@@ -41,6 +45,7 @@ import akka.stream.alpakka.mqtt.MqttMessage;
 import akka.stream.alpakka.mqtt.MqttQoS;
 import akka.stream.javadsl.Keep;
 import akka.stream.javadsl.Source;
+import akka.stream.javadsl.SourceQueueWithComplete;
 import akka.util.ByteString;
 
 /**
@@ -55,7 +60,7 @@ public final class MqttPublisherActor extends BasePublisherActor<MqttPublishTarg
 
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
 
-    private final ActorRef sourceActor;
+    private final PublisherQueue<MqttMessage> publisherQueue;
     private final ActorRef mqttClientActor;
 
     private final boolean dryRun;
@@ -68,18 +73,17 @@ public final class MqttPublisherActor extends BasePublisherActor<MqttPublishTarg
         this.mqttClientActor = mqttClientActor;
         this.dryRun = dryRun;
 
-        // TODO: as stated in the documentation of Source#actorRef, the ActorRef coming out of this call should be stopped
-        //  by sending a akka.actor.Status.Success or akka.actor.Status.Failure to the actor. Just killing the actor won't
-        //  stop the internal stream. KafkaPublisherActor has the same issue but already uses a special message
-        //  that allows stopping the internal stream before the Actor gets stopped.
-        final Pair<ActorRef, CompletionStage<Done>> materializedValues =
-                Source.<MqttMessage>actorRef(100, OverflowStrategy.dropHead())
+        final Config config = getContext().getSystem().settings().config();
+        final Pair<SourceQueueWithComplete<MqttMessage>, CompletionStage<Done>> materializedValues =
+                Source.<MqttMessage>queue(config.getInt(ConfigKeys.Connection.PUBLISHER_QUEUE_SIZE),
+                        OverflowStrategy.backpressure())
                         .toMat(factory.newSink(), Keep.both())
                         .run(ActorMaterializer.create(getContext()));
 
         materializedValues.second().handle(this::reportReadiness);
 
-        sourceActor = materializedValues.first();
+        publisherQueue = PublisherQueue.of(materializedValues.first(),
+                config.getInt(ConfigKeys.Connection.PUBLISHER_MAX_PENDING), connectionId);
     }
 
     /**
@@ -105,6 +109,13 @@ public final class MqttPublisherActor extends BasePublisherActor<MqttPublishTarg
         });
     }
 
+    @Override
+    public void postStop() throws Exception {
+        // completing the queue stops the internal stream, stopping this actor alone would not
+        publisherQueue.complete();
+        super.postStop();
+    }
+
     @Override
     protected void preEnhancement(final ReceiveBuilder receiveBuilder) {
         receiveBuilder.match(OutboundSignal.WithExternalMessage.class, this::isDryRun,
@@ -144,8 +155,18 @@ public final class MqttPublisherActor extends BasePublisherActor<MqttPublishTarg
             final ConnectionMetricsCollector publishedCounter) {
 
         final MqttMessage mqttMessage = mapExternalMessageToMqttMessage(publishTarget, qos, message);
-        sourceActor.tell(mqttMessage, getSelf());
-        publishedCounter.recordSuccess();
+        reportAcceptance(publisherQueue.offer(mqttMessage)).thenAccept(accepted -> {
+            if (accepted) {
+                publishedCounter.recordSuccess();
+            } else {
+                publishedCounter.recordFailure();
+            }
+        });
+    }
+
+    @Override
+    protected CompletionStage<Void> whenAccepted() {
+        return publisherQueue.whenAccepted();
     }
 
     private boolean isDryRun(final Object message) {
@@ -65,6 +65,15 @@ public abstract class AbstractPublisherActorTest {
 
     @Test
     public void testPublishMessage() throws Exception {
+        testPublishMessage(false);
+    }
+
+    @Test
+    public void testPublishMessageAndAwaitAcceptance() throws Exception {
+        testPublishMessage(true);
+    }
+
+    private void testPublishMessage(final boolean awaitAcceptance) throws Exception {
 
         new TestKit(actorSystem) {{
 
@@ -90,15 +99,19 @@ public abstract class AbstractPublisherActorTest {
 
             publisherCreated(publisherActor);
 
-            publisherActor.tell(mappedOutboundSignal, getRef());
+            if (awaitAcceptance) {
+                publisherActor.tell(BasePublisherActor.AwaitAcceptance.of(mappedOutboundSignal, getRef()),
+                        getRef());
+                expectMsg(BasePublisherActor.Acceptance.ACCEPTED);
+            } else {
+                publisherActor.tell(mappedOutboundSignal, getRef());
+            }
 
             verifyPublishedMessage();
         }};
 
-        
-
     }
-        
+
     protected Target createTestTarget() {
         return ConnectivityModelFactory.newTargetBuilder()
             .address(getOutboundAddress())
@@ -39,6 +39,7 @@ import org.eclipse.ditto.model.connectivity.ConnectionSignalIdEnforcementFailedE
 import org.eclipse.ditto.model.connectivity.ConnectivityModelFactory;
 import org.eclipse.ditto.model.connectivity.Enforcement;
 import org.eclipse.ditto.model.connectivity.MappingContext;
+import org.eclipse.ditto.model.connectivity.MessageSendingFailedException;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.model.connectivity.Topic;
 import org.eclipse.ditto.model.connectivity.UnresolvedPlaceholderException;
@@ -312,6 +313,33 @@ public class MessageMappingProcessorActorTest {
         };
     }
 
+    @Test
+    public void testErrorOfPublisherAwaitingAcceptanceCompletesMapping() {
+        new TestKit(actorSystem) {{
+            final TestKit router = new TestKit(actorSystem);
+            final TestKit publisher = new TestKit(actorSystem);
+            final ActorRef messageMappingProcessorActor = router.childActorOf(MessageMappingProcessorActor.props(
+                    publisher.getRef(), getRef(), getMessageMappingProcessor(null), CONNECTION_ID));
+            final OutboundSignal outboundSignal =
+                    OutboundSignalFactory.newOutboundSignal(createSendMessageCommand("some-subject"),
+                            Collections.singletonList(newTarget("target", "target")));
+
+            messageMappingProcessorActor.tell(new MessageMappingProcessorRouterActor.Routed(outboundSignal),
+                    getRef());
+
+            final BasePublisherActor.AwaitAcceptance awaitAcceptance =
+                    publisher.expectMsgClass(BasePublisherActor.AwaitAcceptance.class);
+            assertThat(awaitAcceptance.getSender()).isEqualTo(getRef());
+            publisher.reply(MessageSendingFailedException.newBuilder()
+                    .message("Failed to send message, no producer available.")
+                    .dittoHeaders(DittoHeaders.empty())
+                    .build());
+
+            router.expectMsg(MessageMappingProcessorRouterActor.MappingDone.INSTANCE);
+            publisher.expectNoMessage();
+        }};
+    }
+
     private ActorRef createMessageMappingProcessorActor(final ActorRef publisherActor) {
         final Props props = MessageMappingProcessorActor.props(
                 publisherActor,
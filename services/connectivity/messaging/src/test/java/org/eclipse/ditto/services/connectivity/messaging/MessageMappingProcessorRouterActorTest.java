@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessageFactory;
+import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
+import org.eclipse.ditto.services.models.connectivity.OutboundSignalFactory;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThing;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.testkit.javadsl.TestKit;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Tests {@link MessageMappingProcessorRouterActor}.
+ */
+public final class MessageMappingProcessorRouterActorTest {
+
+    private static final String CONNECTION_ID = "testConnection";
+    private static final String PARTITION_HEADER = "device_id";
+    private static final FiniteDuration ONE_SECOND = FiniteDuration.apply(1, TimeUnit.SECONDS);
+
+    private static ActorSystem actorSystem;
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", TestConstants.CONFIG);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (actorSystem != null) {
+            TestKit.shutdownActorSystem(actorSystem, scala.concurrent.duration.Duration.apply(5, TimeUnit.SECONDS),
+                    false);
+        }
+    }
+
+    @Test
+    public void messagesOfOnePartitionAreMappedByOneWorkerInOrder() {
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(TestWorker.props(getRef(), true), 4, PARTITION_HEADER,
+                            100, CONNECTION_ID));
+
+            for (int i = 0; i < 10; i++) {
+                underTest.tell(externalMessage("thing:a", i), getRef());
+            }
+
+            final Set<ActorRef> workers = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                final ExternalMessage message = expectMsgClass(ExternalMessage.class);
+                assertThat(message.getTextPayload()).contains("message " + i);
+                workers.add(getLastSender());
+            }
+            assertThat(workers).hasSize(1);
+        }};
+    }
+
+    @Test
+    public void outboundSignalsArePartitionedByThingId() {
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(TestWorker.props(getRef(), true), 4, PARTITION_HEADER,
+                            100, CONNECTION_ID));
+
+            final Set<ActorRef> workers = new HashSet<>();
+            for (int i = 0; i < 5; i++) {
+                underTest.tell(outboundSignal("thing:b"), getRef());
+                expectMsgClass(OutboundSignal.class);
+                workers.add(getLastSender());
+            }
+            assertThat(workers).hasSize(1);
+        }};
+    }
+
+    @Test
+    public void acceptanceIsDelayedUntilWorkerHasCapacity() {
+        new TestKit(actorSystem) {{
+            final TestKit consumer = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(TestWorker.props(getRef(), false), 2, PARTITION_HEADER,
+                            2, CONNECTION_ID));
+
+            underTest.tell(MessageMappingProcessorRouterActor.AwaitAcceptance.of(externalMessage("thing:c", 0)),
+                    consumer.getRef());
+            expectMsgClass(ExternalMessage.class);
+            final ActorRef worker = getLastSender();
+            consumer.expectMsg(MessageMappingProcessorRouterActor.Acceptance.ACCEPTED);
+
+            // the worker is full with 2 messages in flight
+            underTest.tell(MessageMappingProcessorRouterActor.AwaitAcceptance.of(externalMessage("thing:c", 1)),
+                    consumer.getRef());
+            expectMsgClass(ExternalMessage.class);
+            consumer.expectNoMessage(ONE_SECOND);
+
+            worker.tell(MessageMappingProcessorRouterActor.MappingDone.INSTANCE, getRef());
+            consumer.expectMsg(MessageMappingProcessorRouterActor.Acceptance.ACCEPTED);
+        }};
+    }
+
+    @Test
+    public void messagesWithoutPartitionHeaderArePartitionedByConsumerKey() {
+        new TestKit(actorSystem) {{
+            final TestKit consumer = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(TestWorker.props(getRef(), true), 4, PARTITION_HEADER,
+                            100, CONNECTION_ID));
+
+            final Set<ActorRef> workers = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                // the source address differs to tell the consumer key apart from it
+                final ExternalMessage message = externalMessageFromSource("source" + i, i);
+                underTest.tell(MessageMappingProcessorRouterActor.AwaitAcceptance.of(message, "devices/d"),
+                        consumer.getRef());
+            }
+            for (int i = 0; i < 10; i++) {
+                final ExternalMessage message = expectMsgClass(ExternalMessage.class);
+                assertThat(message.getTextPayload()).contains("message " + i);
+                workers.add(getLastSender());
+            }
+            assertThat(workers).hasSize(1);
+        }};
+    }
+
+    @Test
+    public void messagesWithoutPartitionKeyArePartitionedBySourceAddress() {
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(TestWorker.props(getRef(), true), 4, "",
+                            100, CONNECTION_ID));
+
+            final Set<ActorRef> workers = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                underTest.tell(externalMessageFromSource("queue", i), getRef());
+            }
+            for (int i = 0; i < 10; i++) {
+                final ExternalMessage message = expectMsgClass(ExternalMessage.class);
+                assertThat(message.getTextPayload()).contains("message " + i);
+                workers.add(getLastSender());
+            }
+            assertThat(workers).hasSize(1);
+        }};
+    }
+
+    @Test
+    public void workersPublishToReplacedPublisher() {
+        new TestKit(actorSystem) {{
+            final TestKit oldPublisher = new TestKit(actorSystem);
+            final TestKit newPublisher = new TestKit(actorSystem);
+            final MessageMappingProcessor processor = MessageMappingProcessor.of(CONNECTION_ID, null, actorSystem,
+                    Mockito.mock(DiagnosticLoggingAdapter.class));
+            final Props workerProps =
+                    MessageMappingProcessorActor.props(oldPublisher.getRef(), getRef(), processor, CONNECTION_ID);
+            final ActorRef underTest = actorSystem.actorOf(
+                    MessageMappingProcessorRouterActor.props(workerProps, 2, PARTITION_HEADER, 100, CONNECTION_ID));
+
+            underTest.tell(MessageMappingProcessorRouterActor.ReplacePublisher.of(newPublisher.getRef()), getRef());
+            underTest.tell(outboundSignal("thing:d"), getRef());
+
+            final BasePublisherActor.AwaitAcceptance awaitAcceptance =
+                    newPublisher.expectMsgClass(BasePublisherActor.AwaitAcceptance.class);
+            assertThat(awaitAcceptance.getSignal().getSource().getId()).isEqualTo("thing:d");
+            newPublisher.reply(BasePublisherActor.Acceptance.DROPPED);
+            oldPublisher.expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    private static ExternalMessage externalMessageFromSource(final String sourceAddress, final int index) {
+        return ExternalMessageFactory.newExternalMessageBuilder(DittoHeaders.newBuilder()
+                .correlationId("correlation" + index)
+                .build())
+                .withText("message " + index)
+                .withSourceAddress(sourceAddress)
+                .build();
+    }
+
+    private static ExternalMessage externalMessage(final String partitionKey, final int index) {
+        return ExternalMessageFactory.newExternalMessageBuilder(
+                DittoHeaders.newBuilder().putHeader(PARTITION_HEADER, partitionKey).build())
+                .withText("message " + index)
+                .build();
+    }
+
+    private static OutboundSignal outboundSignal(final String thingId) {
+        return OutboundSignalFactory.newOutboundSignal(RetrieveThing.of(thingId, DittoHeaders.empty()),
+                Collections.emptyList());
+    }
+
+    /**
+     * Passes routed messages to a test probe. Completes the mapping immediately or when told so by the probe.
+     */
+    private static final class TestWorker extends AbstractActor {
+
+        private final ActorRef probe;
+        private final boolean completeImmediately;
+
+        private TestWorker(final ActorRef probe, final boolean completeImmediately) {
+            this.probe = probe;
+            this.completeImmediately = completeImmediately;
+        }
+
+        static Props props(final ActorRef probe, final boolean completeImmediately) {
+            return Props.create(TestWorker.class, () -> new TestWorker(probe, completeImmediately));
+        }
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder()
+                    .match(MessageMappingProcessorRouterActor.Routed.class, routed -> {
+                        probe.tell(routed.getMessage(), getSelf());
+                        if (completeImmediately) {
+                            completeMapping();
+                        }
+                    })
+                    .match(MessageMappingProcessorRouterActor.MappingDone.class, done -> completeMapping())
+                    .build();
+        }
+
+        private void completeMapping() {
+            getContext().getParent().tell(MessageMappingProcessorRouterActor.MappingDone.INSTANCE, getSelf());
+        }
+
+    }
+
+}
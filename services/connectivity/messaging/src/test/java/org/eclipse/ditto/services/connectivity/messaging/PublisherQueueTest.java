@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import akka.stream.QueueOfferResult;
+import akka.stream.javadsl.SourceQueueWithComplete;
+
+/**
+ * Tests {@link PublisherQueue}.
+ */
+public final class PublisherQueueTest {
+
+    private static final String CONNECTION_ID = "testConnection";
+
+    private SourceQueueWithComplete<String> queue;
+    private CompletableFuture<QueueOfferResult> firstOffer;
+    private CompletableFuture<QueueOfferResult> secondOffer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        queue = mock(SourceQueueWithComplete.class);
+        firstOffer = new CompletableFuture<>();
+        secondOffer = new CompletableFuture<>();
+        when(queue.offer("first")).thenReturn(firstOffer);
+        when(queue.offer("second")).thenReturn(secondOffer);
+    }
+
+    @Test
+    public void offersOneElementAtATime() {
+        final PublisherQueue<String> underTest = PublisherQueue.of(queue, 10, CONNECTION_ID);
+
+        final CompletionStage<Boolean> first = underTest.offer("first");
+        final CompletionStage<Boolean> second = underTest.offer("second");
+        verify(queue).offer("first");
+        verify(queue, never()).offer("second");
+
+        firstOffer.complete(QueueOfferResult.Enqueued$.MODULE$);
+        assertThat(first.toCompletableFuture()).isCompletedWithValue(true);
+        verify(queue).offer("second");
+        assertThat(second.toCompletableFuture()).isNotDone();
+    }
+
+    @Test
+    public void dropsElementsBeyondMaxPendingOffers() {
+        final PublisherQueue<String> underTest = PublisherQueue.of(queue, 1, CONNECTION_ID);
+
+        underTest.offer("first");
+        final CompletionStage<Boolean> second = underTest.offer("second");
+
+        assertThat(second.toCompletableFuture()).isCompletedWithValue(false);
+        verify(queue, never()).offer("second");
+    }
+
+    @Test
+    public void failedOfferDropsElementAndContinuesWithNext() {
+        final PublisherQueue<String> underTest = PublisherQueue.of(queue, 10, CONNECTION_ID);
+
+        final CompletionStage<Boolean> first = underTest.offer("first");
+        underTest.offer("second");
+        firstOffer.completeExceptionally(new IllegalStateException("stream failed"));
+
+        assertThat(first.toCompletableFuture()).isCompletedWithValue(false);
+        verify(queue).offer("second");
+    }
+
+    @Test
+    public void whenAcceptedCompletesAfterAllOffers() {
+        final PublisherQueue<String> underTest = PublisherQueue.of(queue, 10, CONNECTION_ID);
+
+        underTest.offer("first");
+        underTest.offer("second");
+        final CompletableFuture<Void> accepted = underTest.whenAccepted().toCompletableFuture();
+
+        firstOffer.complete(QueueOfferResult.Enqueued$.MODULE$);
+        assertThat(accepted).isNotDone();
+        secondOffer.complete(QueueOfferResult.Enqueued$.MODULE$);
+        assertThat(accepted).isCompleted();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging.kafka;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.ditto.services.connectivity.messaging.TestConstants.Authorization.AUTHORIZATION_CONTEXT;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.eclipse.ditto.model.connectivity.Connection;
+import org.eclipse.ditto.model.connectivity.ConnectionType;
+import org.eclipse.ditto.model.connectivity.ConnectivityModelFactory;
+import org.eclipse.ditto.model.connectivity.ConnectivityStatus;
+import org.eclipse.ditto.services.connectivity.messaging.TestConstants;
+import org.eclipse.ditto.services.connectivity.util.ConnectionConfigReader;
+import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
+import org.junit.Test;
+
+import akka.kafka.ConsumerSettings;
+
+/**
+ * Unit test for {@link org.eclipse.ditto.services.connectivity.messaging.kafka.ConsumerSettingsFactory}.
+ */
+public class ConsumerSettingsFactoryTest {
+
+    private static final String CONNECTION_ID = "kafka";
+    private static final String USERNAME = "user";
+    @SuppressWarnings("squid:S2068")
+    private static final String PASSWORD = "pw";
+    private static final String URI = "ssl://" + USERNAME + ":" + PASSWORD + "@baz:789";
+    private static final Map<String, String> SPECIFIC_CONFIG = new HashMap<>();
+    private static final KafkaConfigReader CONFIG_READER =
+            ConnectionConfigReader.fromRawConfig(TestConstants.CONFIG).kafka();
+
+    static {
+        SPECIFIC_CONFIG.put("bootstrapServers", "foo:123,bar:456");
+    }
+
+    private final ConsumerSettingsFactory underTest = ConsumerSettingsFactory.getInstance();
+
+    @Test
+    public void addsBootstrapServers() {
+        final ConsumerSettings<String, byte[]> settings = settings();
+
+        final List<String> servers = Arrays.asList(
+                settings.getProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG).split(","));
+        assertThat(servers).containsExactlyInAnyOrder("foo:123", "bar:456", "baz:789");
+    }
+
+    @Test
+    public void consumersOfAConnectionFormOneGroup() {
+        final ConsumerSettings<String, byte[]> settings = settings();
+
+        assertThat(settings.getProperty(ConsumerConfig.GROUP_ID_CONFIG)).isEqualTo(CONNECTION_ID);
+        assertThat(settings.getProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG)).isEqualTo("false");
+    }
+
+    @Test
+    public void addsSecurityProtocolAndAuthentication() {
+        final ConsumerSettings<String, byte[]> settings = settings();
+
+        assertThat(settings.getProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG)).isEqualTo("SASL_SSL");
+        assertThat(settings.getProperty(SaslConfigs.SASL_MECHANISM)).isEqualTo("PLAIN");
+        assertThat(settings.getProperty(SaslConfigs.SASL_JAAS_CONFIG)).contains(USERNAME, PASSWORD);
+    }
+
+    private ConsumerSettings<String, byte[]> settings() {
+        return underTest.createConsumerSettings(connection(), CONFIG_READER, TestConstants.CONFIG);
+    }
+
+    private Connection connection() {
+        return ConnectivityModelFactory.newConnectionBuilder(CONNECTION_ID, ConnectionType.KAFKA,
+                ConnectivityStatus.OPEN, URI)
+                .sources(singletonList(ConnectivityModelFactory.newSource(AUTHORIZATION_CONTEXT, "events")))
+                .specificConfig(SPECIFIC_CONFIG)
+                .build();
+    }
+
+}
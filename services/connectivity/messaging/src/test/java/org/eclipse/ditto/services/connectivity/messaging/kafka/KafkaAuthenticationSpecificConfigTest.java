@@ -23,6 +23,7 @@ import java.util.Map;
 import javax.annotation.Nullable;
 
 import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
 import org.eclipse.ditto.model.connectivity.Connection;
@@ -56,8 +57,8 @@ public class KafkaAuthenticationSpecificConfigTest {
     private static final Map<String, String> DEFAULT_SPECIFIC_CONFIG = new HashMap<>();
     private static final Config CONFIG =
             ConnectionConfigReader.fromRawConfig(TestConstants.CONFIG).kafka().internalProducerSettings();
-    private static final ProducerSettings<String, String> DEFAULT_PRODUCER_SETTINGS =
-            ProducerSettings.create(CONFIG, new StringSerializer(), new StringSerializer());
+    private static final ProducerSettings<String, byte[]> DEFAULT_PRODUCER_SETTINGS =
+            ProducerSettings.create(CONFIG, new StringSerializer(), new ByteArraySerializer());
 
     static {
         DEFAULT_SPECIFIC_CONFIG.put("bootstrapServers", DEFAULT_HOST);
@@ -170,7 +171,7 @@ public class KafkaAuthenticationSpecificConfigTest {
     }
 
     private void shouldNotContainSaslMechanism(final Connection connection) {
-        final ProducerSettings<String, String> settings =
+        final ProducerSettings<String, byte[]> settings =
                 kafkaAuthenticationSpecificConfig.apply(DEFAULT_PRODUCER_SETTINGS, connection);
         assertThat(settings.properties().get(SaslConfigs.SASL_MECHANISM).isDefined()).isFalse();
         assertThat(settings.properties().get(SaslConfigs.SASL_JAAS_CONFIG).isDefined()).isFalse();
@@ -178,7 +179,7 @@ public class KafkaAuthenticationSpecificConfigTest {
 
     private void shouldContainPlainSaslMechanism(final Connection connection) {
 
-        final ProducerSettings<String, String> settings =
+        final ProducerSettings<String, byte[]> settings =
                 kafkaAuthenticationSpecificConfig.apply(DEFAULT_PRODUCER_SETTINGS, connection);
         assertThat(settings.properties().get(SaslConfigs.SASL_MECHANISM).get()).isEqualTo(KNOWN_PLAIN_SASL_MECHANISM);
         assertThat(settings.properties().get(SaslConfigs.SASL_JAAS_CONFIG).get()).isEqualTo(
@@ -189,7 +190,7 @@ public class KafkaAuthenticationSpecificConfigTest {
 
     private void shouldContainScramSaslMechanism(final Connection connection, final String mechanism) {
 
-        final ProducerSettings<String, String> settings =
+        final ProducerSettings<String, byte[]> settings =
                 kafkaAuthenticationSpecificConfig.apply(DEFAULT_PRODUCER_SETTINGS, connection);
         assertThat(settings.properties().get(SaslConfigs.SASL_MECHANISM).get()).isEqualTo(mechanism);
         assertThat(settings.properties().get(SaslConfigs.SASL_JAAS_CONFIG).get()).isEqualTo(
@@ -37,6 +37,7 @@ import org.eclipse.ditto.model.connectivity.ConnectivityStatus;
 import org.eclipse.ditto.model.connectivity.Target;
 import org.eclipse.ditto.model.connectivity.Topic;
 import org.eclipse.ditto.services.connectivity.messaging.BaseClientState;
+import org.eclipse.ditto.services.connectivity.messaging.BasePublisherActor;
 import org.eclipse.ditto.services.connectivity.messaging.TestConstants;
 import org.eclipse.ditto.services.models.connectivity.OutboundSignal;
 import org.eclipse.ditto.signals.commands.connectivity.modify.CloseConnection;
@@ -270,7 +271,7 @@ public class KafkaClientActorTest {
         }
 
         private OutboundSignal.WithExternalMessage expectMessage() {
-            return testProbe.expectMsgClass(OutboundSignal.WithExternalMessage.class);
+            return testProbe.expectMsgClass(BasePublisherActor.AwaitAcceptance.class).getSignal();
         }
 
         private static class ReportActorRef {
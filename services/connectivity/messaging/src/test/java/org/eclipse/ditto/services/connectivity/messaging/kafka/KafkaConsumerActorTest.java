@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.ditto.services.connectivity.messaging.TestConstants.Authorization.AUTHORIZATION_CONTEXT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.ditto.model.connectivity.ConnectivityModelFactory;
+import org.eclipse.ditto.model.connectivity.Source;
+import org.eclipse.ditto.services.connectivity.messaging.MessageMappingProcessorRouterActor;
+import org.eclipse.ditto.services.connectivity.messaging.TestConstants;
+import org.eclipse.ditto.services.connectivity.util.ConnectionConfigReader;
+import org.eclipse.ditto.services.connectivity.util.KafkaConfigReader;
+import org.eclipse.ditto.services.models.connectivity.ExternalMessage;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.Done;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.Status;
+import akka.japi.Pair;
+import akka.kafka.ConsumerMessage;
+import akka.kafka.javadsl.Consumer;
+import akka.stream.javadsl.Sink;
+import akka.testkit.javadsl.TestKit;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Unit test for {@link KafkaConsumerActor}.
+ */
+public final class KafkaConsumerActorTest {
+
+    private static final String CONNECTION_ID = "kafka-consumer-test";
+    private static final String TOPIC = "telemetry";
+    private static final FiniteDuration ONE_SECOND = FiniteDuration.apply(1, TimeUnit.SECONDS);
+    private static final KafkaConfigReader CONFIG_READER =
+            ConnectionConfigReader.fromRawConfig(TestConstants.CONFIG).kafka();
+
+    private static ActorSystem actorSystem;
+
+    private KafkaConnectionFactory connectionFactory;
+    private ConsumerMessage.CommittableOffset offset;
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", TestConstants.CONFIG);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (actorSystem != null) {
+            TestKit.shutdownActorSystem(actorSystem, scala.concurrent.duration.Duration.apply(5, TimeUnit.SECONDS),
+                    false);
+        }
+    }
+
+    @Before
+    public void initConnectionFactory() {
+        final ConsumerRecord<String, byte[]> record =
+                new ConsumerRecord<>(TOPIC, 3, 42L, "key", "payload".getBytes(StandardCharsets.UTF_8));
+        record.headers().add("device_id", "thing:1".getBytes(StandardCharsets.UTF_8));
+        offset = mock(ConsumerMessage.CommittableOffset.class);
+        final ConsumerMessage.CommittableMessage<String, byte[]> message =
+                new ConsumerMessage.CommittableMessage<>(record, offset);
+
+        connectionFactory = mock(KafkaConnectionFactory.class);
+        final Consumer.Control control = mock(Consumer.Control.class);
+        doReturn(CompletableFuture.completedFuture(Done.done())).when(control).drainAndShutdown(any(), any());
+        when(connectionFactory.newPartitionedSource(anySet(), anyString()))
+                .thenReturn(akka.stream.javadsl.Source.single(
+                        Pair.create(new TopicPartition(TOPIC, 3), akka.stream.javadsl.Source.single(message)))
+                        .concat(akka.stream.javadsl.Source.never())
+                        .mapMaterializedValue(notUsed -> control));
+    }
+
+    @Test
+    public void offsetIsCommittedAfterTheMappingAcceptedTheMessage() {
+        new TestKit(actorSystem) {{
+            final TestKit mapping = new TestKit(actorSystem);
+            final TestKit committer = new TestKit(actorSystem);
+            when(connectionFactory.newCommitterSink())
+                    .thenReturn(Sink.foreach(committable -> committer.getRef().tell(committable, ActorRef.noSender())));
+
+            actorSystem.actorOf(consumerProps(mapping.getRef(), getRef(), false));
+            expectMsgClass(Status.Success.class);
+
+            final MessageMappingProcessorRouterActor.AwaitAcceptance awaitAcceptance =
+                    mapping.expectMsgClass(MessageMappingProcessorRouterActor.AwaitAcceptance.class);
+            assertThat(awaitAcceptance.getPartitionKey()).contains("key");
+            final ExternalMessage externalMessage = awaitAcceptance.getMessage();
+            assertThat(externalMessage.getHeaders())
+                    .containsEntry(KafkaConsumerActor.KAFKA_TOPIC_HEADER, TOPIC)
+                    .containsEntry(KafkaConsumerActor.KAFKA_PARTITION_HEADER, "3")
+                    .containsEntry(KafkaConsumerActor.KAFKA_KEY_HEADER, "key")
+                    .containsEntry("device_id", "thing:1");
+            assertThat(externalMessage.getBytePayload().map(bytes -> StandardCharsets.UTF_8.decode(bytes).toString()))
+                    .contains("payload");
+            assertThat(externalMessage.getAuthorizationContext()).contains(AUTHORIZATION_CONTEXT);
+            committer.expectNoMessage(ONE_SECOND);
+
+            mapping.reply(MessageMappingProcessorRouterActor.Acceptance.ACCEPTED);
+            committer.expectMsg(offset);
+        }};
+    }
+
+    @Test
+    public void offsetIsCommittedWhenTheAcceptanceTimedOut() {
+        new TestKit(actorSystem) {{
+            final TestKit mapping = new TestKit(actorSystem);
+            final TestKit committer = new TestKit(actorSystem);
+            when(connectionFactory.newCommitterSink())
+                    .thenReturn(Sink.foreach(committable -> committer.getRef().tell(committable, ActorRef.noSender())));
+            final KafkaConfigReader configReader = ConnectionConfigReader.fromRawConfig(
+                    ConfigFactory.parseString("ditto.connectivity.connection.kafka.consumer.acceptance-timeout = 1s")
+                            .withFallback(TestConstants.CONFIG))
+                    .kafka();
+
+            actorSystem.actorOf(consumerProps(mapping.getRef(), getRef(), configReader, false));
+            expectMsgClass(Status.Success.class);
+
+            // the message is not consumed again, as the router queued it already
+            mapping.expectMsgClass(MessageMappingProcessorRouterActor.AwaitAcceptance.class);
+            committer.expectMsg(offset);
+            mapping.expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    @Test
+    public void recordsWithoutKeyArePartitionedByTopicAndPartition() {
+        final ConsumerRecord<String, byte[]> record =
+                new ConsumerRecord<>(TOPIC, 3, 42L, null, "payload".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(KafkaConsumerActor.partitionKeyOf(record)).isEqualTo(TOPIC + "-3");
+    }
+
+    @Test
+    public void nothingIsConsumedInDryRunMode() {
+        new TestKit(actorSystem) {{
+            final TestKit mapping = new TestKit(actorSystem);
+
+            actorSystem.actorOf(consumerProps(mapping.getRef(), getRef(), true));
+            expectMsgClass(Status.Success.class);
+
+            mapping.expectNoMessage(ONE_SECOND);
+            verify(connectionFactory, never()).newPartitionedSource(anySet(), anyString());
+        }};
+    }
+
+    @Test
+    public void sumsTheLagOfAllPartitions() {
+        final Map<MetricName, Metric> metrics = new HashMap<>();
+        putMetric(metrics, "records-lag", TOPIC, "0", 5.0);
+        putMetric(metrics, "records-lag", TOPIC, "1", 7.0);
+        putMetric(metrics, "records-lag", TOPIC, "2", Double.NaN);
+        putMetric(metrics, "records-lag-max", TOPIC, "0", 7.0);
+
+        assertThat(KafkaConsumerActor.sumRecordsLag(metrics)).isEqualTo(12L);
+    }
+
+    private Props consumerProps(final ActorRef mapping, final ActorRef clientActor, final boolean dryRun) {
+        return consumerProps(mapping, clientActor, CONFIG_READER, dryRun);
+    }
+
+    private Props consumerProps(final ActorRef mapping, final ActorRef clientActor,
+            final KafkaConfigReader configReader, final boolean dryRun) {
+        final Source source = ConnectivityModelFactory.newSource(AUTHORIZATION_CONTEXT, TOPIC);
+        return KafkaConsumerActor.props(CONNECTION_ID, "0-0", source, mapping, connectionFactory, configReader,
+                clientActor, dryRun);
+    }
+
+    private static void putMetric(final Map<MetricName, Metric> metrics, final String name, final String topic,
+            final String partition, final double value) {
+        final Map<String, String> tags = new HashMap<>();
+        tags.put("topic", topic);
+        tags.put("partition", partition);
+        final MetricName metricName = new MetricName(name, "consumer-fetch-manager-metrics", "", tags);
+        final Metric metric = mock(Metric.class);
+        when(metric.metricName()).thenReturn(metricName);
+        when(metric.metricValue()).thenReturn(value);
+        metrics.put(metricName, metric);
+    }
+
+}
@@ -43,12 +43,31 @@ public class KafkaValidatorTest {
     }
 
     @Test
-    public void testSourcesAreInvalid() {
-        verifyConnectionConfigurationInvalidExceptionIsThrownForSource(source());
+    public void testValidSources() {
+        KafkaValidator.newInstance().validateSource(source("events"), DittoHeaders.empty(), () -> "");
+        KafkaValidator.newInstance().validateSource(source("ditto.telemetry"), DittoHeaders.empty(), () -> "");
+        KafkaValidator.newInstance().validateSource(sourceWithEnforcement("{{ header:kafka.key }}"),
+                DittoHeaders.empty(), () -> "");
     }
 
-    private Source source() {
-        return ConnectivityModelFactory.newSource(AUTHORIZATION_CONTEXT, "any");
+    @Test
+    public void testInvalidSources() {
+        verifyConnectionConfigurationInvalidExceptionIsThrownForSource(source(""));
+        verifyConnectionConfigurationInvalidExceptionIsThrownForSource(source("events/"));
+        verifyConnectionConfigurationInvalidExceptionIsThrownForSource(source("ditto*a"));
+        verifyConnectionConfigurationInvalidExceptionIsThrownForSource(sourceWithEnforcement("{{ thing:id }}"));
+    }
+
+    private static Source source(final String address) {
+        return ConnectivityModelFactory.newSource(AUTHORIZATION_CONTEXT, address);
+    }
+
+    private static Source sourceWithEnforcement(final String enforcementInput) {
+        return ConnectivityModelFactory.newSourceBuilder()
+                .address("events")
+                .authorizationContext(AUTHORIZATION_CONTEXT)
+                .enforcement(ConnectivityModelFactory.newEnforcement(enforcementInput, "{{ thing:id }}"))
+                .build();
     }
 
     private void verifyConnectionConfigurationInvalidExceptionIsThrownForSource(final Source source) {
@@ -64,7 +64,7 @@ public class ProducerSettingsFactoryTest {
 
     @Test
     public void addsBootstrapServers() {
-        final ProducerSettings<String, String> settings = settings();
+        final ProducerSettings<String, byte[]> settings = settings();
 
         final List<String> servers = settings.properties().get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG)
                 .map(s -> Arrays.asList(s.split(",")))
@@ -72,7 +72,7 @@ public class ProducerSettingsFactoryTest {
         assertThat(servers).containsExactlyInAnyOrder(BOOTSTRAP_SERVERS);
     }
 
-    private ProducerSettings<String, String> settings() {
+    private ProducerSettings<String, byte[]> settings() {
         return underTest.createProducerSettings(connection(), CONFIG_READER);
     }
 
@@ -16,6 +16,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.Map;
 
 import org.junit.Test;
@@ -63,4 +65,28 @@ public class SlidingWindowCounterTest {
 
     }
 
+    @Test
+    public void testReusedSlotsAndReset() {
+        final long now = Instant.parse("2019-03-01T12:00:00Z").toEpochMilli();
+        final Clock clock = Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC);
+        final SlidingWindowCounter counter = new SlidingWindowCounter(clock, MeasurementWindow.ONE_MINUTE);
+        final long resolution = MeasurementWindow.ONE_MINUTE.getResolution().toMillis();
+
+        // a day ago
+        counter.increment(true, now - Duration.ofDays(1).toMillis());
+        counter.increment(true, now);
+        counter.increment(true, now - resolution);
+        // outside of the window
+        counter.increment(true, now - MeasurementWindow.ONE_MINUTE.getWindow().toMillis());
+        // in the future: recorded but not yet counted
+        counter.increment(true, now + resolution);
+
+        assertThat(counter.getCounts(true)).containsEntry(MeasurementWindow.ONE_MINUTE.getWindow(), 2L);
+        assertThat(counter.getCounts(false)).containsEntry(MeasurementWindow.ONE_MINUTE.getWindow(), 0L);
+
+        counter.reset();
+
+        assertThat(counter.getCounts(true)).containsEntry(MeasurementWindow.ONE_MINUTE.getWindow(), 0L);
+    }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.connectivity.messaging.metrics.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.model.connectivity.SourceMetrics;
+import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectionMetricsCollector;
+import org.eclipse.ditto.services.connectivity.messaging.metrics.ConnectivityCounterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH Benchmark of the connection metrics under contention: many publisher threads record messages of the same
+ * connection address, either alone or while another thread retrieves the metrics of the connection.
+ */
+@State(Scope.Benchmark)
+public class ConnectionMetricsContentionBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+    private static final int PUBLISHER_THREADS = 16;
+
+    private static final String CONNECTION_ID = "benchmark-connection";
+    private static final String SOURCE = "benchmark-source";
+
+    @Setup
+    public void setUp() {
+        // create the counters before measuring
+        ConnectivityCounterRegistry.getInboundConsumedCounter(CONNECTION_ID, SOURCE);
+        ConnectivityCounterRegistry.getInboundMappedCounter(CONNECTION_ID, SOURCE);
+    }
+
+    @Benchmark
+    @Threads(PUBLISHER_THREADS)
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public ConnectionMetricsCollector recordFromManyPublishers() {
+        return recordMessage();
+    }
+
+    @Benchmark
+    @Group("recordWhileRetrieving")
+    @GroupThreads(PUBLISHER_THREADS)
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public ConnectionMetricsCollector record() {
+        return recordMessage();
+    }
+
+    @Benchmark
+    @Group("recordWhileRetrieving")
+    @GroupThreads(1)
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public SourceMetrics retrieve() {
+        return ConnectivityCounterRegistry.aggregateSourceMetrics(CONNECTION_ID);
+    }
+
+    private static ConnectionMetricsCollector recordMessage() {
+        final ConnectionMetricsCollector consumed =
+                ConnectivityCounterRegistry.getInboundConsumedCounter(CONNECTION_ID, SOURCE);
+        consumed.recordSuccess();
+        final ConnectionMetricsCollector mapped =
+                ConnectivityCounterRegistry.getInboundMappedCounter(CONNECTION_ID, SOURCE);
+        mapped.recordSuccess();
+        return mapped;
+    }
+
+}
@@ -135,6 +135,18 @@ public final class ConfigKeys {
          */
         public static final String SUPERVISOR_EXPONENTIAL_BACKOFF_MIN = SUPERVISOR_EXPONENTIAL_BACKOFF + "min";
 
+        private static final String PUBLISHER_PREFIX = PREFIX + "publisher.";
+
+        /**
+         * Number of messages buffered in the publishing stream of MQTT and Kafka publishers.
+         */
+        public static final String PUBLISHER_QUEUE_SIZE = PUBLISHER_PREFIX + "queue-size";
+
+        /**
+         * Maximum number of messages waiting for the publishing stream before further messages are dropped.
+         */
+        public static final String PUBLISHER_MAX_PENDING = PUBLISHER_PREFIX + "max-pending";
+
         private Connection() {
             throw new AssertionError();
         }
@@ -194,6 +206,41 @@ public final class ConfigKeys {
 
     }
 
+    /**
+     * Configuration keys for message mapping.
+     */
+    @Immutable
+    public static final class Mapping {
+
+        private static final String PREFIX = CONNECTIVITY_PREFIX + "mapping.";
+
+        /**
+         * Name of the header of inbound messages whose value selects the mapping worker of a message.
+         */
+        public static final String PARTITION_HEADER = PREFIX + "partition-header";
+
+        /**
+         * Maximum number of messages waiting for or in mapping per mapping worker before consumers are backpressured.
+         */
+        public static final String MAX_IN_FLIGHT = PREFIX + "max-in-flight";
+
+        /**
+         * How long consumers wait for the acceptance of a message by the mapping before they consume the next one.
+         */
+        public static final String ACCEPTANCE_TIMEOUT = PREFIX + "acceptance-timeout";
+
+        /**
+         * How long a mapping worker waits for the acceptance of a mapped message by the publisher before it maps the
+         * next message.
+         */
+        public static final String PUBLISHER_ACCEPTANCE_TIMEOUT = PREFIX + "publisher-acceptance-timeout";
+
+        private Mapping() {
+            throw new AssertionError();
+        }
+
+    }
+
     /*
      * This class is not designed for instantiation.
      */
@@ -12,6 +12,8 @@
  */
 package org.eclipse.ditto.services.connectivity.util;
 
+import java.time.Duration;
+
 import org.eclipse.ditto.services.utils.config.AbstractConfigReader;
 
 import com.typesafe.config.Config;
@@ -40,4 +42,70 @@ public final class KafkaConfigReader extends AbstractConfigReader {
         return getChildOrEmpty("producer.internal");
     }
 
+    /**
+     * Configuration for consumers needed by akka-stream-kafka.
+     *
+     * @see <a href="https://doc.akka.io/docs/akka-stream-kafka/current/consumer.html#settings">akka-stream-kafka Consumer settings</a>
+     * @return internal consumer configuration needed by akka-stream-kafka client.
+     */
+    public Config internalConsumerSettings() {
+        return getChildOrEmpty("consumer.internal");
+    }
+
+    /**
+     * Maximum number of partitions of a source which are consumed in parallel. The default value is 16.
+     *
+     * @return maximum number of partitions consumed in parallel.
+     */
+    public int consumerMaxPartitions() {
+        return getIfPresent("consumer.max-partitions", config::getInt).orElse(16);
+    }
+
+    /**
+     * Maximum number of messages of one partition waiting for the acceptance by the message mapping. The default
+     * value is 10.
+     *
+     * @return maximum number of messages in flight per partition.
+     */
+    public int consumerMaxInFlightPerPartition() {
+        return getIfPresent("consumer.max-in-flight-per-partition", config::getInt).orElse(10);
+    }
+
+    /**
+     * How long a consumer waits for the acceptance of a message by the message mapping before it consumes the next
+     * message. The default value is 30 seconds.
+     *
+     * @return the acceptance timeout.
+     */
+    public Duration consumerAcceptanceTimeout() {
+        return getIfPresent("consumer.acceptance-timeout", config::getDuration).orElse(Duration.ofSeconds(30L));
+    }
+
+    /**
+     * Maximum number of offsets committed in one batch. The default value is 100.
+     *
+     * @return maximum number of offsets per commit.
+     */
+    public long consumerCommitBatchSize() {
+        return getIfPresent("consumer.commit-batch-size", config::getLong).orElse(100L);
+    }
+
+    /**
+     * Maximum time between two commits of accepted offsets. The default value is 1 second.
+     *
+     * @return the maximum commit interval.
+     */
+    public Duration consumerCommitInterval() {
+        return getIfPresent("consumer.commit-interval", config::getDuration).orElse(Duration.ofSeconds(1L));
+    }
+
+    /**
+     * Interval in which consumers report their lag. The default value is 10 seconds.
+     *
+     * @return the lag report interval.
+     */
+    public Duration consumerLagReportInterval() {
+        return getIfPresent("consumer.lag-report-interval", config::getDuration).orElse(Duration.ofSeconds(10L));
+    }
+
 }
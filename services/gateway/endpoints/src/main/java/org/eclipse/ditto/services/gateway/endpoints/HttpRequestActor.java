@@ -35,6 +35,8 @@ import org.eclipse.ditto.model.messages.Message;
 import org.eclipse.ditto.model.messages.MessageTimeoutException;
 import org.eclipse.ditto.protocoladapter.HeaderTranslator;
 import org.eclipse.ditto.services.gateway.starter.service.util.ConfigKeys;
+import org.eclipse.ditto.services.utils.aggregator.StreamThings;
+import org.eclipse.ditto.services.utils.aggregator.StreamedThings;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 import org.eclipse.ditto.signals.base.WithOptionalEntity;
 import org.eclipse.ditto.signals.commands.base.Command;
@@ -44,6 +46,8 @@ import org.eclipse.ditto.signals.commands.base.WithEntity;
 import org.eclipse.ditto.signals.commands.messages.MessageCommand;
 import org.eclipse.ditto.signals.commands.messages.MessageCommandResponse;
 import org.eclipse.ditto.signals.commands.messages.SendMessageAcceptedResponse;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
+import org.eclipse.ditto.signals.commands.thingsearch.query.QueryThings;
 
 import com.typesafe.config.Config;
 
@@ -92,6 +96,7 @@ public final class HttpRequestActor extends AbstractActor {
     private final HeaderTranslator headerTranslator;
     private final CompletableFuture<HttpResponse> httpResponseFuture;
     private final java.time.Duration serverRequestTimeout;
+    private final boolean streamingResponses;
     private final Receive commandResponseAwaiting;
 
     private java.time.Duration messageTimeout;
@@ -109,6 +114,8 @@ public final class HttpRequestActor extends AbstractActor {
         final Config config = getContext().system().settings().config();
         serverRequestTimeout = config.getDuration(ConfigKeys.AKKA_HTTP_SERVER_REQUEST_TIMEOUT);
         getContext().setReceiveTimeout(serverRequestTimeout);
+        streamingResponses = config.hasPath(ConfigKeys.HTTP_STREAMING_RESPONSES_ENABLED) &&
+                config.getBoolean(ConfigKeys.HTTP_STREAMING_RESPONSES_ENABLED);
 
         // wrap JsonRuntimeExceptions
         commandResponseAwaiting = ReceiveBuilder.create()
@@ -123,6 +130,16 @@ public final class HttpRequestActor extends AbstractActor {
                     final HttpResponse httpResponse = handleMessageResponseMessage(cmd);
                     completeWithResult(httpResponse);
                 })
+                .match(StreamedThings.class, streamedThings -> {
+                    LogUtil.enhanceLogWithCorrelationId(logger, streamedThings.getDittoHeaders());
+                    logger.debug("Got <{}> message.", StreamedThings.class.getSimpleName());
+                    final HttpResponse responseWithoutBody = enhanceResponseWithExternalDittoHeaders(
+                            HttpResponse.create().withStatus(HttpStatusCode.OK.toInt()),
+                            streamedThings.getDittoHeaders());
+                    // chunked entity: the Things are written to the response as they arrive
+                    completeWithResult(responseWithoutBody.withEntity(
+                            HttpEntities.create(CONTENT_TYPE_JSON, streamedThings.getJson())));
+                })
                 .match(CommandResponse.class, cR -> cR instanceof WithEntity, commandResponse -> {
                     LogUtil.enhanceLogWithCorrelationId(logger, commandResponse);
                     logger.debug("Got <{}> message.", commandResponse.getType());
@@ -355,7 +372,7 @@ public final class HttpRequestActor extends AbstractActor {
                     LogUtil.enhanceLogWithCorrelationId(logger, command);
                     logger.debug("Got <Command> message, telling the targetActor about it.");
 
-                    proxyActor.tell(command, getSelf());
+                    proxyActor.tell(toProxyRequest(command), getSelf());
 
                     if (!command.getDittoHeaders().isResponseRequired()) {
                         completeWithResult(HttpResponse.create().withStatus(StatusCodes.ACCEPTED));
@@ -372,6 +389,13 @@ public final class HttpRequestActor extends AbstractActor {
                 .build();
     }
 
+    private Object toProxyRequest(final Command<?> command) {
+        if (streamingResponses && (command instanceof RetrieveThings || command instanceof QueryThings)) {
+            return StreamThings.of(command);
+        }
+        return command;
+    }
+
     private HttpResponse handleMessageResponseMessage(final MessageCommandResponse<?, ?> messageCommandResponse) {
         HttpResponse httpResponse;
 
@@ -13,6 +13,7 @@
 package org.eclipse.ditto.services.gateway.proxy.actors;
 
 import org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThings;
+import org.eclipse.ditto.services.utils.aggregator.StreamThings;
 import org.eclipse.ditto.services.utils.aggregator.ThingsAggregatorProxyActor;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 import org.eclipse.ditto.signals.base.Signal;
@@ -63,11 +64,23 @@ public abstract class AbstractThingProxyActor extends AbstractProxyActor {
 
                 .match(QueryThings.class, qt -> {
                             final ActorRef responseActor = getContext()
-                                    .actorOf(QueryThingsPerRequestActor.props(qt, aggregatorProxyActor, getSender()));
+                                    .actorOf(QueryThingsPerRequestActor.props(qt, aggregatorProxyActor, getSender(),
+                                            false));
                             conciergeForwarder.tell(qt, responseActor);
                         }
                 )
 
+                /* streamed responses of RetrieveThings and QueryThings */
+                .match(StreamThings.class, st -> st.getCommand() instanceof QueryThings, st -> {
+                            final QueryThings qt = (QueryThings) st.getCommand();
+                            final ActorRef responseActor = getContext()
+                                    .actorOf(QueryThingsPerRequestActor.props(qt, aggregatorProxyActor, getSender(),
+                                            true));
+                            conciergeForwarder.tell(qt, responseActor);
+                        }
+                )
+                .match(StreamThings.class, st -> aggregatorProxyActor.forward(st, getContext()))
+
                 /* send all other Commands to Concierge Service */
                 .match(Command.class, this::forwardToConciergeService)
 
@@ -19,18 +19,23 @@ import java.util.stream.Collectors;
 import org.eclipse.ditto.model.things.Thing;
 import org.eclipse.ditto.model.thingsearch.SearchResult;
 import org.eclipse.ditto.services.gateway.starter.service.util.ConfigKeys;
+import org.eclipse.ditto.services.utils.aggregator.StreamThings;
+import org.eclipse.ditto.services.utils.aggregator.StreamedThings;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThingsResponse;
 import org.eclipse.ditto.signals.commands.thingsearch.query.QueryThings;
 import org.eclipse.ditto.signals.commands.thingsearch.query.QueryThingsResponse;
 
+import akka.NotUsed;
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.Props;
 import akka.actor.ReceiveTimeout;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.Creator;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 import scala.concurrent.duration.Duration;
 
 /**
@@ -41,6 +46,10 @@ import scala.concurrent.duration.Duration;
  * This is needed in gateway so that we can maintain the max. cluster-message size in Ditto while still being able to
  * respond to searches with max. 200 search results.
  * </p>
+ * <p>
+ * If the search result is to be streamed, the found things are retrieved as {@link StreamedThings} and the
+ * {@code originatingSender} receives the search result as {@link StreamedThings} as well.
+ * </p>
  */
 final class QueryThingsPerRequestActor extends AbstractActor {
 
@@ -49,15 +58,17 @@ final class QueryThingsPerRequestActor extends AbstractActor {
     private final QueryThings queryThings;
     private final ActorRef aggregatorProxyActor;
     private final ActorRef originatingSender;
+    private final boolean streamed;
 
     private QueryThingsResponse queryThingsResponse;
 
     private QueryThingsPerRequestActor(final QueryThings queryThings, final ActorRef aggregatorProxyActor,
-            final ActorRef originatingSender) {
+            final ActorRef originatingSender, final boolean streamed) {
 
         this.queryThings = queryThings;
         this.aggregatorProxyActor = aggregatorProxyActor;
         this.originatingSender = originatingSender;
+        this.streamed = streamed;
         queryThingsResponse = null;
 
         final Duration timeout = Duration.create(getContext().system().settings().config()
@@ -69,16 +80,21 @@ final class QueryThingsPerRequestActor extends AbstractActor {
     /**
      * Creates Akka configuration object Props for this QueryThingsPerRequestActor.
      *
+     * @param queryThings the search command.
+     * @param aggregatorProxyActor the actor to retrieve the found things from.
+     * @param originatingSender the actor to respond to.
+     * @param streamed whether to respond with {@link StreamedThings}.
      * @return the Akka configuration Props object
      */
     static Props props(final QueryThings queryThings, final ActorRef aggregatorProxyActor,
-            final ActorRef originatingSender) {
+            final ActorRef originatingSender, final boolean streamed) {
         return Props.create(QueryThingsPerRequestActor.class, new Creator<QueryThingsPerRequestActor>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public QueryThingsPerRequestActor create() {
-                return new QueryThingsPerRequestActor(queryThings, aggregatorProxyActor, originatingSender);
+                return new QueryThingsPerRequestActor(queryThings, aggregatorProxyActor, originatingSender,
+                        streamed);
             }
         });
     }
@@ -100,7 +116,13 @@ final class QueryThingsPerRequestActor extends AbstractActor {
                             .map(val -> val.asObject().getValue(Thing.JsonFields.ID).orElse(null))
                             .collect(Collectors.toList());
 
-                    if (thingIds.isEmpty()) {
+                    if (thingIds.isEmpty() && streamed) {
+                        // shortcut - for no search results we don't have to lookup the things
+                        originatingSender.tell(streamSearchResult(Source.single(ByteString.fromString("[]")), qtr),
+                                getSelf());
+
+                        stopMyself();
+                    } else if (thingIds.isEmpty()) {
                         // shortcut - for no search results we don't have to lookup the things
                         originatingSender.tell(qtr, getSelf());
 
@@ -111,7 +133,8 @@ final class QueryThingsPerRequestActor extends AbstractActor {
                                 .selectedFields(queryThings.getFields())
                                 .build();
                         // delegate to the ThingsAggregatorProxyActor which receives the results via a cluster stream:
-                        aggregatorProxyActor.tell(retrieveThings, getSelf());
+                        aggregatorProxyActor.tell(streamed ? StreamThings.of(retrieveThings) : retrieveThings,
+                                getSelf());
                     }
                 })
                 .match(RetrieveThingsResponse.class, rtr -> {
@@ -134,6 +157,19 @@ final class QueryThingsPerRequestActor extends AbstractActor {
 
                     stopMyself();
                 })
+                .match(StreamedThings.class, streamedThings -> {
+                    log.debug("Received StreamedThings: {}", streamedThings);
+
+                    if (queryThingsResponse != null) {
+                        originatingSender.tell(streamSearchResult(streamedThings.getJson(), queryThingsResponse),
+                                getSelf());
+                    } else {
+                        log.warning("Did not receive a QueryThingsResponse when StreamedThings occurred: {}",
+                                streamedThings);
+                    }
+
+                    stopMyself();
+                })
                 .matchAny(any -> {
                     // all other messages (e.g. DittoRuntimeExceptions) are directly returned to the sender:
                     originatingSender.tell(any, getSender());
@@ -143,6 +179,16 @@ final class QueryThingsPerRequestActor extends AbstractActor {
                 .build();
     }
 
+    private static StreamedThings streamSearchResult(final Source<ByteString, NotUsed> items,
+            final QueryThingsResponse qtr) {
+
+        // same fields as SearchResult.JsonFields ITEMS and NEXT_PAGE_OFFSET
+        final ByteString start = ByteString.fromString("{\"items\":");
+        final ByteString end = ByteString.fromString(",\"nextPageOffset\":" +
+                qtr.getSearchResult().getNextPageOffset() + "}");
+        return StreamedThings.of(Source.single(start).concat(items).concat(Source.single(end)), qtr.getDittoHeaders());
+    }
+
     private void stopMyself() {
         getContext().stop(getSelf());
     }
@@ -16,6 +16,7 @@ import java.util.Optional;
 
 import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.model.base.headers.WithDittoHeaders;
+import org.eclipse.ditto.model.query.things.ThingPredicateCache;
 import org.eclipse.ditto.services.gateway.streaming.Connect;
 import org.eclipse.ditto.services.gateway.streaming.StartStreaming;
 import org.eclipse.ditto.services.gateway.streaming.StopStreaming;
@@ -33,7 +34,8 @@ import akka.japi.pf.DeciderBuilder;
 import akka.japi.pf.ReceiveBuilder;
 
 /**
- * Parent Actor for {@link StreamingSessionActor}s delegating most of the messages to a specific session.
+ * Parent Actor for {@link StreamingSessionActor}s delegating most of the messages to a specific session. The sessions
+ * receive signals from the cluster through a shared {@link SubscriptionIndexActor}.
  */
 public final class StreamingActor extends AbstractActor {
 
@@ -42,10 +44,16 @@ public final class StreamingActor extends AbstractActor {
      */
     public static final String ACTOR_NAME = "streaming";
 
+    /**
+     * The maximum number of compiled RQL filters shared by the sessions.
+     */
+    private static final int MAX_CACHED_FILTERS = 1000;
+
     private final DiagnosticLoggingAdapter logger = LogUtil.obtain(this);
 
-    private final ActorRef pubSubMediator;
     private final ActorRef commandRouter;
+    private final ActorRef subscriptionIndex;
+    private final ThingPredicateCache thingPredicateCache;
 
     private final SupervisorStrategy strategy = new OneForOneStrategy(true, DeciderBuilder
             .match(Throwable.class, e -> {
@@ -57,8 +65,10 @@ public final class StreamingActor extends AbstractActor {
             }).build());
 
     private StreamingActor(final ActorRef pubSubMediator, final ActorRef commandRouter) {
-        this.pubSubMediator = pubSubMediator;
         this.commandRouter = commandRouter;
+        subscriptionIndex = getContext().actorOf(SubscriptionIndexActor.props(pubSubMediator),
+                SubscriptionIndexActor.ACTOR_NAME);
+        thingPredicateCache = ThingPredicateCache.newInstance(MAX_CACHED_FILTERS);
     }
 
     /**
@@ -93,8 +103,8 @@ public final class StreamingActor extends AbstractActor {
                     eventAndResponsePublisher.forward(connect, getContext());
                     final String connectionCorrelationId = connect.getConnectionCorrelationId();
                     getContext().actorOf(
-                            StreamingSessionActor.props(connectionCorrelationId, connect.getType(), pubSubMediator,
-                                    eventAndResponsePublisher), connectionCorrelationId);
+                            StreamingSessionActor.props(connectionCorrelationId, connect.getType(), subscriptionIndex,
+                                    eventAndResponsePublisher, thingPredicateCache), connectionCorrelationId);
                 })
                 .match(StartStreaming.class,
                         startStreaming -> forwardToSessionActor(startStreaming.getConnectionCorrelationId(),
@@ -12,7 +12,6 @@
  */
 package org.eclipse.ditto.services.gateway.streaming.actors;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashSet;
@@ -21,34 +20,24 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
-import org.eclipse.ditto.model.query.criteria.Criteria;
-import org.eclipse.ditto.model.query.criteria.CriteriaFactory;
-import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
-import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactory;
-import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
-import org.eclipse.ditto.model.query.things.ModelBasedThingsFieldExpressionFactory;
-import org.eclipse.ditto.model.query.things.ThingPredicateVisitor;
+import org.eclipse.ditto.model.query.things.ThingPredicateCache;
 import org.eclipse.ditto.model.things.Thing;
-import org.eclipse.ditto.protocoladapter.TopicPath;
 import org.eclipse.ditto.services.gateway.streaming.StartStreaming;
 import org.eclipse.ditto.services.gateway.streaming.StopStreaming;
 import org.eclipse.ditto.services.gateway.streaming.StreamingAck;
 import org.eclipse.ditto.services.models.concierge.streaming.StreamingType;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 import org.eclipse.ditto.signals.base.Signal;
-import org.eclipse.ditto.signals.base.WithId;
 import org.eclipse.ditto.signals.commands.base.CommandResponse;
-import org.eclipse.ditto.signals.commands.messages.MessageCommand;
-import org.eclipse.ditto.signals.events.base.Event;
 import org.eclipse.ditto.signals.events.things.ThingEvent;
 import org.eclipse.ditto.signals.events.things.ThingEventToThingConverter;
 
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
-import akka.actor.PoisonPill;
 import akka.actor.Props;
 import akka.actor.Terminated;
 import akka.cluster.pubsub.DistributedPubSubMediator;
@@ -73,23 +62,26 @@ final class StreamingSessionActor extends AbstractActor {
 
     private final String connectionCorrelationId;
     private final String type;
-    private final ActorRef pubSubMediator;
+    private final ActorRef subscriptionIndex;
     private final ActorRef eventAndResponsePublisher;
+    private final ThingPredicateCache thingPredicateCache;
     private final Set<StreamingType> outstandingSubscriptionAcks;
 
     private List<String> authorizationSubjects;
     private Map<StreamingType, List<String>> namespacesForStreamingTypes;
-    private Map<StreamingType, Criteria> eventFilterCriteriaForStreamingTypes;
+    private Map<StreamingType, Predicate<Thing>> eventFilterPredicatesForStreamingTypes;
 
     private StreamingSessionActor(final String connectionCorrelationId, final String type,
-            final ActorRef pubSubMediator, final ActorRef eventAndResponsePublisher) {
+            final ActorRef subscriptionIndex, final ActorRef eventAndResponsePublisher,
+            final ThingPredicateCache thingPredicateCache) {
         this.connectionCorrelationId = connectionCorrelationId;
         this.type = type;
-        this.pubSubMediator = pubSubMediator;
+        this.subscriptionIndex = subscriptionIndex;
         this.eventAndResponsePublisher = eventAndResponsePublisher;
+        this.thingPredicateCache = thingPredicateCache;
         outstandingSubscriptionAcks = new HashSet<>();
         namespacesForStreamingTypes = new EnumMap<>(StreamingType.class);
-        eventFilterCriteriaForStreamingTypes = new EnumMap<>(StreamingType.class);
+        eventFilterPredicatesForStreamingTypes = new EnumMap<>(StreamingType.class);
 
         getContext().watch(eventAndResponsePublisher);
     }
@@ -97,19 +89,21 @@ final class StreamingSessionActor extends AbstractActor {
     /**
      * Creates Akka configuration object Props for this StreamingSessionActor.
      *
-     * @param pubSubMediator the PubSub mediator actor
+     * @param subscriptionIndex the {@link SubscriptionIndexActor} of this node.
      * @param eventAndResponsePublisher the {@link EventAndResponsePublisher} actor.
+     * @param thingPredicateCache the cache of the compiled filters of all sessions.
      * @return the Akka configuration Props object.
      */
     static Props props(final String connectionCorrelationId, final String type,
-            final ActorRef pubSubMediator, final ActorRef eventAndResponsePublisher) {
+            final ActorRef subscriptionIndex, final ActorRef eventAndResponsePublisher,
+            final ThingPredicateCache thingPredicateCache) {
         return Props.create(StreamingSessionActor.class, new Creator<StreamingSessionActor>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public StreamingSessionActor create() throws Exception {
-                return new StreamingSessionActor(connectionCorrelationId, type, pubSubMediator,
-                        eventAndResponsePublisher);
+                return new StreamingSessionActor(connectionCorrelationId, type, subscriptionIndex,
+                        eventAndResponsePublisher, thingPredicateCache);
             }
         });
     }
@@ -146,9 +140,9 @@ final class StreamingSessionActor extends AbstractActor {
                     LogUtil.enhanceLogWithCorrelationId(logger, connectionCorrelationId);
 
                     try {
-                        eventFilterCriteriaForStreamingTypes
+                        eventFilterPredicatesForStreamingTypes
                                 .put(startStreaming.getStreamingType(), startStreaming.getFilter()
-                                        .map(f -> parseCriteria(f, DittoHeaders.newBuilder()
+                                        .map(f -> thingPredicateCache.getPredicate(f, DittoHeaders.newBuilder()
                                                 .correlationId(startStreaming.getConnectionCorrelationId())
                                                 .build())
                                         )
@@ -165,11 +159,11 @@ final class StreamingSessionActor extends AbstractActor {
                             type, startStreaming.getStreamingType().name());
 
                     outstandingSubscriptionAcks.add(startStreaming.getStreamingType());
-                    // In Cluster: Subscribe
-                    pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(
-                            startStreaming.getStreamingType().getDistributedPubSubTopic(),
-                            connectionCorrelationId,
-                            getSelf()), getSelf());
+                    // In Cluster: Subscribe via the subscription index of this node
+                    subscriptionIndex.tell(new SubscriptionIndexActor.SubscribeSession(
+                            startStreaming.getStreamingType(),
+                            authorizationSubjects,
+                            startStreaming.getNamespaces()), getSelf());
                 })
                 .match(StopStreaming.class, stopStreaming -> {
                     LogUtil.enhanceLogWithCorrelationId(logger, connectionCorrelationId);
@@ -177,12 +171,12 @@ final class StreamingSessionActor extends AbstractActor {
                             type, stopStreaming.getStreamingType().name());
 
                     namespacesForStreamingTypes.remove(stopStreaming.getStreamingType());
-                    eventFilterCriteriaForStreamingTypes.remove(stopStreaming.getStreamingType());
+                    eventFilterPredicatesForStreamingTypes.remove(stopStreaming.getStreamingType());
 
-                    // In Cluster: Unsubscribe
-                    pubSubMediator.tell(new DistributedPubSubMediator.Unsubscribe(
-                            stopStreaming.getStreamingType().getDistributedPubSubTopic(),
-                            connectionCorrelationId, getSelf()), getSelf());
+                    // In Cluster: Unsubscribe via the subscription index of this node
+                    subscriptionIndex.tell(
+                            new SubscriptionIndexActor.UnsubscribeSession(stopStreaming.getStreamingType()),
+                            getSelf());
                 })
                 .match(DistributedPubSubMediator.SubscribeAck.class, subscribeAck -> {
                     LogUtil.enhanceLogWithCorrelationId(logger, connectionCorrelationId);
@@ -225,18 +219,9 @@ final class StreamingSessionActor extends AbstractActor {
                     LogUtil.enhanceLogWithCorrelationId(logger, connectionCorrelationId);
                     logger.debug("eventAndResponsePublisher was terminated");
                     // In Cluster: Unsubscribe from ThingEvents:
+                    // the subscription index watches this session and removes its subscriptions once it stopped
                     logger.info("<{}> connection was closed, unsubscribing from Streams in Cluster..", type);
-
-                    Arrays.stream(StreamingType.values())
-                            .map(StreamingType::getDistributedPubSubTopic)
-                            .forEach(topic ->
-                                    pubSubMediator.tell(new DistributedPubSubMediator.Unsubscribe(topic,
-                                            connectionCorrelationId, getSelf()), getSelf()));
-
-                    getContext().getSystem()
-                            .scheduler()
-                            .scheduleOnce(FiniteDuration.apply(1, TimeUnit.SECONDS), getSelf(),
-                                    PoisonPill.getInstance(), getContext().dispatcher(), getSelf());
+                    getContext().stop(getSelf());
                 })
                 .matchAny(any -> {
                     LogUtil.enhanceLogWithCorrelationId(logger, connectionCorrelationId);
@@ -276,50 +261,17 @@ final class StreamingSessionActor extends AbstractActor {
     }
 
     private boolean matchesNamespaces(final Signal<?> signal) {
-        final StreamingType streamingType = determineStreamingType(signal);
+        final StreamingType streamingType = SubscriptionIndexActor.determineStreamingType(signal);
 
         final List<String> namespaces = Optional.ofNullable(namespacesForStreamingTypes.get(streamingType))
                 .orElse(Collections.emptyList());
-        return namespaces.isEmpty() || namespaces.contains(namespaceFromId(signal));
-    }
-
-    private static StreamingType determineStreamingType(final Signal<?> signal) {
-        final String channel = signal.getDittoHeaders().getChannel().orElse(TopicPath.Channel.TWIN.getName());
-        final StreamingType streamingType;
-        if (signal instanceof Event) {
-            streamingType = channel.equals(TopicPath.Channel.TWIN.getName()) ?
-                    StreamingType.EVENTS : StreamingType.LIVE_EVENTS;
-        } else if (signal instanceof MessageCommand) {
-            streamingType = StreamingType.MESSAGES;
-        } else {
-            streamingType = StreamingType.LIVE_COMMANDS;
-        }
-        return streamingType;
-    }
-
-    private static String namespaceFromId(final WithId withId) {
-        return withId.getId().split(":", 2)[0];
-    }
-
-    /**
-     * @throws org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException if the filter string cannot be mapped to a
-     * valid criterion
-     */
-    private Criteria parseCriteria(final String filter, final DittoHeaders dittoHeaders) {
-
-        final CriteriaFactory criteriaFactory = new CriteriaFactoryImpl();
-        final ThingsFieldExpressionFactory fieldExpressionFactory =
-                new ModelBasedThingsFieldExpressionFactory();
-        final QueryFilterCriteriaFactory queryFilterCriteriaFactory =
-                new QueryFilterCriteriaFactory(criteriaFactory, fieldExpressionFactory);
-
-        return queryFilterCriteriaFactory.filterCriteria(filter, dittoHeaders);
+        return namespaces.isEmpty() || namespaces.contains(SubscriptionIndexActor.namespaceFromId(signal.getId()));
     }
 
     private boolean matchesFilter(final Signal<?> signal) {
 
         if (signal instanceof ThingEvent) {
-            final StreamingType streamingType = determineStreamingType(signal);
+            final StreamingType streamingType = SubscriptionIndexActor.determineStreamingType(signal);
 
             // currently only ThingEvents may be filtered with RQL
             return ThingEventToThingConverter.thingEventToThing((ThingEvent) signal)
@@ -332,11 +284,11 @@ final class StreamingSessionActor extends AbstractActor {
 
     private boolean doMatchFilter(final StreamingType streamingType, final Thing thing) {
 
-        final Optional<Criteria> criteria =
-                Optional.ofNullable(eventFilterCriteriaForStreamingTypes.get(streamingType));
+        final Optional<Predicate<Thing>> predicate =
+                Optional.ofNullable(eventFilterPredicatesForStreamingTypes.get(streamingType));
 
-        return criteria
-                .map(c -> ThingPredicateVisitor.apply(c).test(thing))
+        return predicate
+                .map(p -> p.test(thing))
                 .orElse(true); // let all events through if there was no criteria/filter set
     }
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.gateway.streaming.actors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.eclipse.ditto.services.models.concierge.streaming.StreamingType;
+
+import akka.actor.ActorRef;
+
+/**
+ * Index of the streaming sessions of one node by streaming type, authorization subject and namespace. A session is
+ * only found for a signal if one of its authorization subjects is a read subject of the signal and if it either
+ * subscribed for all namespaces or for the namespace of the signal.
+ */
+@NotThreadSafe
+final class SubscriptionIndex {
+
+    private final Map<StreamingType, Map<ActorRef, Subscription>> subscriptions;
+    private final Map<StreamingType, Map<String, NamespaceIndex>> subjectIndices;
+
+    /**
+     * Creates an empty index.
+     */
+    SubscriptionIndex() {
+        subscriptions = new EnumMap<>(StreamingType.class);
+        subjectIndices = new EnumMap<>(StreamingType.class);
+    }
+
+    /**
+     * Adds or replaces the subscription of a session for a streaming type.
+     *
+     * @param streamingType the streaming type.
+     * @param session the session actor.
+     * @param authorizationSubjects the authorization subject IDs of the session.
+     * @param namespaces the namespaces the session subscribed for or an empty collection for all namespaces.
+     */
+    void put(final StreamingType streamingType, final ActorRef session,
+            final Collection<String> authorizationSubjects, final Collection<String> namespaces) {
+
+        remove(streamingType, session);
+        final Subscription subscription = new Subscription(authorizationSubjects, namespaces);
+        subscriptions.computeIfAbsent(streamingType, t -> new HashMap<>()).put(session, subscription);
+        final Map<String, NamespaceIndex> subjectIndex =
+                subjectIndices.computeIfAbsent(streamingType, t -> new HashMap<>());
+        for (final String subject : subscription.authorizationSubjects) {
+            subjectIndex.computeIfAbsent(subject, s -> new NamespaceIndex()).add(session, subscription.namespaces);
+        }
+    }
+
+    /**
+     * Removes the subscription of a session for a streaming type.
+     *
+     * @param streamingType the streaming type.
+     * @param session the session actor.
+     * @return whether the session was subscribed for the streaming type.
+     */
+    boolean remove(final StreamingType streamingType, final ActorRef session) {
+        final Map<ActorRef, Subscription> subscriptionsOfType = subscriptions.get(streamingType);
+        final Subscription subscription = null != subscriptionsOfType ? subscriptionsOfType.remove(session) : null;
+        if (null == subscription) {
+            return false;
+        }
+        if (subscriptionsOfType.isEmpty()) {
+            subscriptions.remove(streamingType);
+        }
+        final Map<String, NamespaceIndex> subjectIndex = subjectIndices.get(streamingType);
+        for (final String subject : subscription.authorizationSubjects) {
+            final NamespaceIndex namespaceIndex = subjectIndex.get(subject);
+            namespaceIndex.remove(session, subscription.namespaces);
+            if (namespaceIndex.isEmpty()) {
+                subjectIndex.remove(subject);
+            }
+        }
+        if (subjectIndex.isEmpty()) {
+            subjectIndices.remove(streamingType);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all subscriptions of a session.
+     *
+     * @param session the session actor.
+     * @return the streaming types the session was subscribed for.
+     */
+    List<StreamingType> removeAll(final ActorRef session) {
+        final List<StreamingType> removedTypes = new ArrayList<>();
+        for (final StreamingType streamingType : StreamingType.values()) {
+            if (remove(streamingType, session)) {
+                removedTypes.add(streamingType);
+            }
+        }
+        return removedTypes;
+    }
+
+    /**
+     * Indicates whether any session subscribed for a streaming type.
+     *
+     * @param streamingType the streaming type.
+     * @return {@code true} if some session subscribed for the streaming type.
+     */
+    boolean hasSubscriptions(final StreamingType streamingType) {
+        return subscriptions.containsKey(streamingType);
+    }
+
+    /**
+     * Returns the sessions interested in a signal.
+     *
+     * @param streamingType the streaming type of the signal.
+     * @param readSubjects the read subjects of the signal.
+     * @param namespace the namespace of the ID of the signal.
+     * @return the interested sessions.
+     */
+    Set<ActorRef> getSubscribers(final StreamingType streamingType, final Collection<String> readSubjects,
+            final String namespace) {
+
+        final Map<String, NamespaceIndex> subjectIndex = subjectIndices.get(streamingType);
+        if (null == subjectIndex) {
+            return Collections.emptySet();
+        }
+        final Set<ActorRef> result = new HashSet<>();
+        for (final String readSubject : readSubjects) {
+            final NamespaceIndex namespaceIndex = subjectIndex.get(readSubject);
+            if (null != namespaceIndex) {
+                namespaceIndex.collect(namespace, result);
+            }
+        }
+        return result;
+    }
+
+    private static final class Subscription {
+
+        private final Set<String> authorizationSubjects;
+        private final Set<String> namespaces;
+
+        private Subscription(final Collection<String> authorizationSubjects, final Collection<String> namespaces) {
+            this.authorizationSubjects = new HashSet<>(authorizationSubjects);
+            this.namespaces = new HashSet<>(namespaces);
+        }
+    }
+
+    /**
+     * The sessions of one authorization subject by namespace.
+     */
+    private static final class NamespaceIndex {
+
+        private final Set<ActorRef> allNamespaces = new HashSet<>();
+        private final Map<String, Set<ActorRef>> byNamespace = new HashMap<>();
+
+        private void add(final ActorRef session, final Set<String> namespaces) {
+            if (namespaces.isEmpty()) {
+                allNamespaces.add(session);
+            } else {
+                namespaces.forEach(namespace ->
+                        byNamespace.computeIfAbsent(namespace, ns -> new HashSet<>()).add(session));
+            }
+        }
+
+        private void remove(final ActorRef session, final Set<String> namespaces) {
+            if (namespaces.isEmpty()) {
+                allNamespaces.remove(session);
+            } else {
+                for (final String namespace : namespaces) {
+                    final Set<ActorRef> sessions = byNamespace.get(namespace);
+                    sessions.remove(session);
+                    if (sessions.isEmpty()) {
+                        byNamespace.remove(namespace);
+                    }
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return allNamespaces.isEmpty() && byNamespace.isEmpty();
+        }
+
+        private void collect(final String namespace, final Set<ActorRef> result) {
+            result.addAll(allNamespaces);
+            final Set<ActorRef> sessions = byNamespace.get(namespace);
+            if (null != sessions) {
+                result.addAll(sessions);
+            }
+        }
+    }
+
+}
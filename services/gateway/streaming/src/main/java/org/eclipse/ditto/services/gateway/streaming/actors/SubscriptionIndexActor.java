@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.gateway.streaming.actors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.protocoladapter.TopicPath;
+import org.eclipse.ditto.services.models.concierge.streaming.StreamingType;
+import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.signals.base.Signal;
+import org.eclipse.ditto.signals.commands.messages.MessageCommand;
+import org.eclipse.ditto.signals.events.base.Event;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.actor.Terminated;
+import akka.cluster.Cluster;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+
+/**
+ * Subscribes to the distributed pub/sub topic of a {@link StreamingType} once per node as long as some
+ * {@link StreamingSessionActor} of the node streams that type, and dispatches each received signal only to the
+ * sessions whose authorization subjects and namespaces match the signal. Thus every signal is sent to each gateway
+ * node once instead of once per session.
+ */
+final class SubscriptionIndexActor extends AbstractActor {
+
+    /**
+     * The name of this Actor.
+     */
+    static final String ACTOR_NAME = "subscriptionIndex";
+
+    private final DiagnosticLoggingAdapter logger = LogUtil.obtain(this);
+
+    private final ActorRef pubSubMediator;
+    private final String group;
+    private final SubscriptionIndex subscriptionIndex;
+    private final Set<StreamingType> subscribedTypes;
+    private final Map<StreamingType, List<ActorRef>> sessionsAwaitingSubscribeAck;
+
+    private SubscriptionIndexActor(final ActorRef pubSubMediator) {
+        this.pubSubMediator = pubSubMediator;
+        group = getSelf().path().toStringWithAddress(Cluster.get(getContext().getSystem()).selfAddress());
+        subscriptionIndex = new SubscriptionIndex();
+        subscribedTypes = EnumSet.noneOf(StreamingType.class);
+        sessionsAwaitingSubscribeAck = new EnumMap<>(StreamingType.class);
+    }
+
+    /**
+     * Creates Akka configuration object Props for this SubscriptionIndexActor.
+     *
+     * @param pubSubMediator the PubSub mediator actor
+     * @return the Akka configuration Props object.
+     */
+    static Props props(final ActorRef pubSubMediator) {
+        return Props.create(SubscriptionIndexActor.class, new Creator<SubscriptionIndexActor>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public SubscriptionIndexActor create() {
+                return new SubscriptionIndexActor(pubSubMediator);
+            }
+        });
+    }
+
+    @Override
+    public Receive createReceive() {
+        return ReceiveBuilder.create()
+                .match(Signal.class, this::dispatchSignal)
+                .match(SubscribeSession.class, this::subscribeSession)
+                .match(UnsubscribeSession.class, this::unsubscribeSession)
+                .match(DistributedPubSubMediator.SubscribeAck.class, subscribeAck -> {
+                    final String topic = subscribeAck.subscribe().topic();
+                    final StreamingType streamingType = StreamingType.fromTopic(topic);
+                    logger.debug("Subscribed to Cluster <{}> for node-local sessions", streamingType);
+                    final List<ActorRef> sessions = sessionsAwaitingSubscribeAck.remove(streamingType);
+                    if (subscriptionIndex.hasSubscriptions(streamingType)) {
+                        subscribedTypes.add(streamingType);
+                        if (null != sessions) {
+                            sessions.forEach(session -> session.tell(subscribeAck, getSelf()));
+                        }
+                    }
+                })
+                .match(DistributedPubSubMediator.UnsubscribeAck.class, unsubscribeAck ->
+                        logger.debug("Unsubscribed from Cluster <{}> for node-local sessions",
+                                unsubscribeAck.unsubscribe().topic()))
+                .match(Terminated.class, terminated -> {
+                    final ActorRef session = terminated.getActor();
+                    subscriptionIndex.removeAll(session).forEach(this::unsubscribeIfUnused);
+                })
+                .matchAny(any -> logger.warning("Got unknown message: '{}'", any))
+                .build();
+    }
+
+    private void dispatchSignal(final Signal<?> signal) {
+        final DittoHeaders dittoHeaders = signal.getDittoHeaders();
+        final StreamingType streamingType = determineStreamingType(signal);
+        final Set<ActorRef> sessions = subscriptionIndex.getSubscribers(streamingType,
+                dittoHeaders.getReadSubjects(), namespaceFromId(signal.getId()));
+        sessions.forEach(session -> session.forward(signal, getContext()));
+    }
+
+    private void subscribeSession(final SubscribeSession subscribeSession) {
+        final ActorRef session = getSender();
+        final StreamingType streamingType = subscribeSession.streamingType;
+        getContext().watch(session);
+        subscriptionIndex.put(streamingType, session, subscribeSession.authorizationSubjects,
+                subscribeSession.namespaces);
+
+        final String topic = streamingType.getDistributedPubSubTopic();
+        if (subscribedTypes.contains(streamingType)) {
+            session.tell(new DistributedPubSubMediator.SubscribeAck(
+                    new DistributedPubSubMediator.Subscribe(topic, group, getSelf())), getSelf());
+        } else {
+            final List<ActorRef> awaitingSessions = sessionsAwaitingSubscribeAck.get(streamingType);
+            if (null == awaitingSessions) {
+                final List<ActorRef> newAwaitingSessions = new ArrayList<>();
+                newAwaitingSessions.add(session);
+                sessionsAwaitingSubscribeAck.put(streamingType, newAwaitingSessions);
+                pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(topic, group, getSelf()), getSelf());
+            } else {
+                awaitingSessions.add(session);
+            }
+        }
+    }
+
+    private void unsubscribeSession(final UnsubscribeSession unsubscribeSession) {
+        final ActorRef session = getSender();
+        final StreamingType streamingType = unsubscribeSession.streamingType;
+        subscriptionIndex.remove(streamingType, session);
+        final List<ActorRef> awaitingSessions = sessionsAwaitingSubscribeAck.get(streamingType);
+        if (null != awaitingSessions) {
+            awaitingSessions.remove(session);
+        }
+
+        final String topic = streamingType.getDistributedPubSubTopic();
+        session.tell(new DistributedPubSubMediator.UnsubscribeAck(
+                new DistributedPubSubMediator.Unsubscribe(topic, group, getSelf())), getSelf());
+        unsubscribeIfUnused(streamingType);
+    }
+
+    private void unsubscribeIfUnused(final StreamingType streamingType) {
+        if (!subscriptionIndex.hasSubscriptions(streamingType) &&
+                (subscribedTypes.remove(streamingType) ||
+                        null != sessionsAwaitingSubscribeAck.remove(streamingType))) {
+            pubSubMediator.tell(new DistributedPubSubMediator.Unsubscribe(
+                    streamingType.getDistributedPubSubTopic(), group, getSelf()), getSelf());
+        }
+    }
+
+    /**
+     * Determines the streaming type of a signal like the concierge does when publishing it.
+     *
+     * @param signal the signal.
+     * @return the streaming type.
+     */
+    static StreamingType determineStreamingType(final Signal<?> signal) {
+        final String channel = signal.getDittoHeaders().getChannel().orElse(TopicPath.Channel.TWIN.getName());
+        final StreamingType streamingType;
+        if (signal instanceof Event) {
+            streamingType = channel.equals(TopicPath.Channel.TWIN.getName()) ?
+                    StreamingType.EVENTS : StreamingType.LIVE_EVENTS;
+        } else if (signal instanceof MessageCommand) {
+            streamingType = StreamingType.MESSAGES;
+        } else {
+            streamingType = StreamingType.LIVE_COMMANDS;
+        }
+        return streamingType;
+    }
+
+    /**
+     * Returns the namespace of an entity ID.
+     *
+     * @param id the entity ID.
+     * @return the namespace.
+     */
+    static String namespaceFromId(final String id) {
+        return id.split(":", 2)[0];
+    }
+
+    /**
+     * Message of a session to subscribe for a streaming type. The sender of this message is the session; it is answered
+     * with a {@link DistributedPubSubMediator.SubscribeAck} as soon as the node subscribed for the streaming type.
+     */
+    static final class SubscribeSession {
+
+        private final StreamingType streamingType;
+        private final Collection<String> authorizationSubjects;
+        private final Collection<String> namespaces;
+
+        /**
+         * @param streamingType the streaming type.
+         * @param authorizationSubjects the authorization subject IDs of the session.
+         * @param namespaces the namespaces to subscribe for or an empty collection for all namespaces.
+         */
+        SubscribeSession(final StreamingType streamingType, final Collection<String> authorizationSubjects,
+                final Collection<String> namespaces) {
+            this.streamingType = streamingType;
+            this.authorizationSubjects = authorizationSubjects;
+            this.namespaces = namespaces;
+        }
+    }
+
+    /**
+     * Message of a session to unsubscribe from a streaming type. The sender of this message is the session; it is
+     * answered with a {@link DistributedPubSubMediator.UnsubscribeAck}.
+     */
+    static final class UnsubscribeSession {
+
+        private final StreamingType streamingType;
+
+        /**
+         * @param streamingType the streaming type.
+         */
+        UnsubscribeSession(final StreamingType streamingType) {
+            this.streamingType = streamingType;
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.gateway.streaming.actors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.services.models.concierge.streaming.StreamingType;
+import org.eclipse.ditto.signals.events.things.AttributeModified;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import akka.testkit.javadsl.TestKit;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Tests {@link SubscriptionIndexActor}.
+ */
+public final class SubscriptionIndexActorTest {
+
+    private static final String SUBJECT = "integration:subject";
+    private static final String EVENTS_TOPIC = StreamingType.EVENTS.getDistributedPubSubTopic();
+    private static final FiniteDuration ONE_SECOND = FiniteDuration.apply(1, TimeUnit.SECONDS);
+
+    private static ActorSystem actorSystem;
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", ConfigFactory.load("test.conf"));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (actorSystem != null) {
+            TestKit.shutdownActorSystem(actorSystem, scala.concurrent.duration.Duration.apply(5, TimeUnit.SECONDS),
+                    false);
+        }
+    }
+
+    @Test
+    public void acknowledgesSubscriptionOfSessionsAfterSubscribingOncePerStreamingType() {
+        new TestKit(actorSystem) {{
+            final TestKit session = new TestKit(actorSystem);
+            final TestKit otherSession = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(SubscriptionIndexActor.props(getRef()));
+
+            underTest.tell(subscribeEvents(), session.getRef());
+            final DistributedPubSubMediator.Subscribe subscribe =
+                    expectMsgClass(DistributedPubSubMediator.Subscribe.class);
+            assertThat(subscribe.topic()).isEqualTo(EVENTS_TOPIC);
+            assertThat(subscribe.ref()).isEqualTo(underTest);
+            session.expectNoMessage(ONE_SECOND);
+
+            // a session subscribing while the node subscribes waits for the same acknowledgement
+            underTest.tell(subscribeEvents(), otherSession.getRef());
+            reply(new DistributedPubSubMediator.SubscribeAck(subscribe));
+
+            session.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+            otherSession.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+            expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    @Test
+    public void acknowledgesSubscriptionImmediatelyIfNodeAlreadySubscribed() {
+        new TestKit(actorSystem) {{
+            final TestKit session = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(SubscriptionIndexActor.props(getRef()));
+            subscribeSession(this, underTest, session);
+
+            final TestKit otherSession = new TestKit(actorSystem);
+            underTest.tell(subscribeEvents(), otherSession.getRef());
+
+            otherSession.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+            expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    @Test
+    public void dispatchesSignalOnlyToMatchingSessions() {
+        new TestKit(actorSystem) {{
+            final TestKit session = new TestKit(actorSystem);
+            final TestKit sessionOfOtherNamespace = new TestKit(actorSystem);
+            final TestKit sessionOfOtherSubject = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(SubscriptionIndexActor.props(getRef()));
+            subscribeSession(this, underTest, session);
+            underTest.tell(new SubscriptionIndexActor.SubscribeSession(StreamingType.EVENTS,
+                            Collections.singletonList(SUBJECT), Collections.singletonList("com.example")),
+                    sessionOfOtherNamespace.getRef());
+            sessionOfOtherNamespace.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+            underTest.tell(new SubscriptionIndexActor.SubscribeSession(StreamingType.EVENTS,
+                            Collections.singletonList("integration:other-subject"), Collections.emptyList()),
+                    sessionOfOtherSubject.getRef());
+            sessionOfOtherSubject.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+
+            final AttributeModified event = attributeModified("org.eclipse:thing");
+            underTest.tell(event, getRef());
+
+            assertThat(session.expectMsgClass(AttributeModified.class)).isEqualTo(event);
+            sessionOfOtherNamespace.expectNoMessage(ONE_SECOND);
+            sessionOfOtherSubject.expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    @Test
+    public void unsubscribesNodeWhenLastSessionUnsubscribed() {
+        new TestKit(actorSystem) {{
+            final TestKit session = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(SubscriptionIndexActor.props(getRef()));
+            subscribeSession(this, underTest, session);
+
+            underTest.tell(new SubscriptionIndexActor.UnsubscribeSession(StreamingType.EVENTS), session.getRef());
+
+            session.expectMsgClass(DistributedPubSubMediator.UnsubscribeAck.class);
+            assertThat(expectMsgClass(DistributedPubSubMediator.Unsubscribe.class).topic()).isEqualTo(EVENTS_TOPIC);
+            underTest.tell(attributeModified("org.eclipse:thing"), getRef());
+            session.expectNoMessage(ONE_SECOND);
+        }};
+    }
+
+    @Test
+    public void removesTerminatedSession() {
+        new TestKit(actorSystem) {{
+            final TestKit session = new TestKit(actorSystem);
+            final TestKit otherSession = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(SubscriptionIndexActor.props(getRef()));
+            subscribeSession(this, underTest, session);
+            underTest.tell(subscribeEvents(), otherSession.getRef());
+            otherSession.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+
+            actorSystem.stop(session.getRef());
+            expectNoMessage(ONE_SECOND);
+            underTest.tell(attributeModified("org.eclipse:thing"), getRef());
+            otherSession.expectMsgClass(AttributeModified.class);
+
+            actorSystem.stop(otherSession.getRef());
+            assertThat(expectMsgClass(DistributedPubSubMediator.Unsubscribe.class).topic()).isEqualTo(EVENTS_TOPIC);
+        }};
+    }
+
+    private static void subscribeSession(final TestKit pubSubMediator, final ActorRef underTest,
+            final TestKit session) {
+
+        underTest.tell(subscribeEvents(), session.getRef());
+        final DistributedPubSubMediator.Subscribe subscribe =
+                pubSubMediator.expectMsgClass(DistributedPubSubMediator.Subscribe.class);
+        pubSubMediator.reply(new DistributedPubSubMediator.SubscribeAck(subscribe));
+        session.expectMsgClass(DistributedPubSubMediator.SubscribeAck.class);
+    }
+
+    private static SubscriptionIndexActor.SubscribeSession subscribeEvents() {
+        return new SubscriptionIndexActor.SubscribeSession(StreamingType.EVENTS, Collections.singletonList(SUBJECT),
+                Collections.emptyList());
+    }
+
+    private static AttributeModified attributeModified(final String thingId) {
+        return AttributeModified.of(thingId, JsonPointer.of("foo"), JsonValue.of(42), 1L,
+                DittoHeaders.newBuilder().readSubjects(Collections.singletonList(SUBJECT)).build());
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.gateway.streaming.actors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.services.models.concierge.streaming.StreamingType;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link SubscriptionIndex}.
+ */
+public final class SubscriptionIndexTest {
+
+    private static final String SUBJECT = "integration:subject";
+    private static final String OTHER_SUBJECT = "integration:other-subject";
+    private static final List<String> ALL_NAMESPACES = Collections.emptyList();
+
+    private static ActorSystem actorSystem;
+
+    private ActorRef session;
+    private ActorRef otherSession;
+    private SubscriptionIndex underTest;
+
+    @BeforeClass
+    public static void setUpActorSystem() {
+        actorSystem = ActorSystem.create("AkkaTestSystem");
+    }
+
+    @AfterClass
+    public static void tearDownActorSystem() {
+        if (actorSystem != null) {
+            TestKit.shutdownActorSystem(actorSystem, scala.concurrent.duration.Duration.apply(5, TimeUnit.SECONDS),
+                    false);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        session = new TestKit(actorSystem).getRef();
+        otherSession = new TestKit(actorSystem).getRef();
+        underTest = new SubscriptionIndex();
+    }
+
+    @Test
+    public void emptyIndexHasNoSubscribers() {
+        assertThat(underTest.hasSubscriptions(StreamingType.EVENTS)).isFalse();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT), "org.eclipse"))
+                .isEmpty();
+    }
+
+    @Test
+    public void findsSubscriberByReadSubjectAndStreamingType() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT), ALL_NAMESPACES);
+
+        assertThat(underTest.hasSubscriptions(StreamingType.EVENTS)).isTrue();
+        assertThat(underTest.hasSubscriptions(StreamingType.MESSAGES)).isFalse();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Arrays.asList(OTHER_SUBJECT, SUBJECT),
+                "org.eclipse")).containsExactly(session);
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(OTHER_SUBJECT),
+                "org.eclipse")).isEmpty();
+        assertThat(underTest.getSubscribers(StreamingType.MESSAGES, Collections.singletonList(SUBJECT),
+                "org.eclipse")).isEmpty();
+    }
+
+    @Test
+    public void findsSubscriberOfNamespacesOnlyForThoseNamespaces() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT),
+                Arrays.asList("org.eclipse", "org.eclipse.ditto"));
+        underTest.put(StreamingType.EVENTS, otherSession, Collections.singletonList(SUBJECT), ALL_NAMESPACES);
+
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT),
+                "org.eclipse.ditto")).containsExactlyInAnyOrder(session, otherSession);
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT),
+                "com.example")).containsExactly(otherSession);
+    }
+
+    @Test
+    public void putReplacesPreviousSubscriptionOfSession() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT),
+                Collections.singletonList("org.eclipse"));
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(OTHER_SUBJECT),
+                Collections.singletonList("com.example"));
+
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT),
+                "org.eclipse")).isEmpty();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(OTHER_SUBJECT),
+                "org.eclipse")).isEmpty();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(OTHER_SUBJECT),
+                "com.example")).containsExactly(session);
+    }
+
+    @Test
+    public void removeDropsOnlyTheSubscriptionOfTheStreamingType() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT), ALL_NAMESPACES);
+        underTest.put(StreamingType.MESSAGES, session, Collections.singletonList(SUBJECT), ALL_NAMESPACES);
+
+        assertThat(underTest.remove(StreamingType.EVENTS, session)).isTrue();
+        assertThat(underTest.remove(StreamingType.EVENTS, session)).isFalse();
+
+        assertThat(underTest.hasSubscriptions(StreamingType.EVENTS)).isFalse();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT), "org.eclipse"))
+                .isEmpty();
+        assertThat(underTest.getSubscribers(StreamingType.MESSAGES, Collections.singletonList(SUBJECT),
+                "org.eclipse")).containsExactly(session);
+    }
+
+    @Test
+    public void removeKeepsSubscriptionsOfOtherSessions() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT),
+                Collections.singletonList("org.eclipse"));
+        underTest.put(StreamingType.EVENTS, otherSession, Collections.singletonList(SUBJECT),
+                Collections.singletonList("org.eclipse"));
+
+        underTest.remove(StreamingType.EVENTS, session);
+
+        assertThat(underTest.hasSubscriptions(StreamingType.EVENTS)).isTrue();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Collections.singletonList(SUBJECT),
+                "org.eclipse")).containsExactly(otherSession);
+    }
+
+    @Test
+    public void removeAllDropsEverySubscriptionOfTerminatedSession() {
+        underTest.put(StreamingType.EVENTS, session, Collections.singletonList(SUBJECT), ALL_NAMESPACES);
+        underTest.put(StreamingType.LIVE_EVENTS, session, Collections.singletonList(SUBJECT),
+                Collections.singletonList("org.eclipse"));
+        underTest.put(StreamingType.EVENTS, otherSession, Collections.singletonList(OTHER_SUBJECT), ALL_NAMESPACES);
+
+        assertThat(underTest.removeAll(session))
+                .containsExactlyInAnyOrder(StreamingType.EVENTS, StreamingType.LIVE_EVENTS);
+
+        assertThat(underTest.hasSubscriptions(StreamingType.LIVE_EVENTS)).isFalse();
+        assertThat(underTest.getSubscribers(StreamingType.EVENTS, Arrays.asList(SUBJECT, OTHER_SUBJECT),
+                "org.eclipse")).containsExactly(otherSession);
+        assertThat(underTest.removeAll(session)).isEmpty();
+    }
+
+}
@@ -49,6 +49,12 @@ public final class ConfigKeys {
      */
     public static final String SCHEMA_VERSIONS = HTTP_PREFIX + "schema-versions";
 
+    /**
+     * Whether responses to retrieving several Things and to searches are streamed as chunked HTTP entities.
+     */
+    public static final String HTTP_STREAMING_RESPONSES_ENABLED =
+            HTTP_PREFIX + "streaming-responses." + ENABLED_SUFFIX;
+
     private static final String WEBSOCKET_PREFIX = GATEWAY_PREFIX + "websocket.";
     /**
      * Key of the Websocket subscriber backpressure config.
@@ -13,6 +13,8 @@
 package org.eclipse.ditto.services.things.persistence.actors;
 
 import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -34,6 +36,7 @@ import org.eclipse.ditto.services.things.persistence.actors.strategies.commands.
 import org.eclipse.ditto.services.things.persistence.actors.strategies.commands.DefaultContext;
 import org.eclipse.ditto.services.things.persistence.actors.strategies.events.EventHandleStrategy;
 import org.eclipse.ditto.services.things.persistence.actors.strategies.events.EventStrategy;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchedRecovery;
 import org.eclipse.ditto.services.things.persistence.snapshotting.DittoThingSnapshotter;
 import org.eclipse.ditto.services.things.persistence.snapshotting.ThingSnapshotter;
 import org.eclipse.ditto.services.things.persistence.strategies.AbstractReceiveStrategy;
@@ -54,12 +57,15 @@ import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Cancellable;
 import akka.actor.Props;
+import akka.actor.Status;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.FI;
 import akka.japi.pf.ReceiveBuilder;
+import akka.pattern.PatternsCS;
 import akka.persistence.AbstractPersistentActor;
+import akka.persistence.Recovery;
 import akka.persistence.RecoveryCompleted;
 import akka.persistence.RecoveryTimedOut;
 import akka.persistence.SnapshotOffer;
@@ -74,17 +80,17 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
     /**
      * The prefix of the persistenceId for Things.
      */
-    static final String PERSISTENCE_ID_PREFIX = "thing:";
+    public static final String PERSISTENCE_ID_PREFIX = "thing:";
 
     /**
      * The ID of the journal plugin this persistence actor uses.
      */
-    static final String JOURNAL_PLUGIN_ID = "akka-contrib-mongodb-persistence-things-journal";
+    public static final String JOURNAL_PLUGIN_ID = "akka-contrib-mongodb-persistence-things-journal";
 
     /**
      * The ID of the snapshot plugin this persistence actor uses.
      */
-    static final String SNAPSHOT_PLUGIN_ID = "akka-contrib-mongodb-persistence-things-snapshots";
+    public static final String SNAPSHOT_PLUGIN_ID = "akka-contrib-mongodb-persistence-things-snapshots";
 
     private static final CommandReceiveStrategy COMMAND_RECEIVE_STRATEGY = CommandReceiveStrategy.getInstance();
     private static final CreateThingStrategy CREATE_THING_STRATEGY = CreateThingStrategy.getInstance();
@@ -97,6 +103,7 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
     private final java.time.Duration activityCheckDeletedInterval;
     private final Receive handleThingEvents;
     private final long snapshotThreshold;
+    private final SortedMap<Long, ThingEvent> eventsAwaitingBaseSnapshot;
 
     /**
      * Context for all {@link CommandReceiveStrategy} strategies - contains references to fields of {@code this}
@@ -110,13 +117,25 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
 
     private int firstMessageCounter = 0;
 
+    @Nullable private PrefetchedRecovery prefetchedRecovery;
+
     ThingPersistenceActor(final String thingId, final ActorRef pubSubMediator,
             final ThingSnapshotter.Create thingSnapshotterCreate) {
 
+        this(thingId, pubSubMediator, thingSnapshotterCreate, null);
+    }
+
+    ThingPersistenceActor(final String thingId, final ActorRef pubSubMediator,
+            final ThingSnapshotter.Create thingSnapshotterCreate,
+            @Nullable final PrefetchedRecovery prefetchedRecovery) {
+
         this.thingId = thingId;
         this.pubSubMediator = pubSubMediator;
+        this.prefetchedRecovery =
+                prefetchedRecovery != null && prefetchedRecovery.isAvailable() ? prefetchedRecovery : null;
         log = LogUtil.obtain(this);
         thing = null;
+        eventsAwaitingBaseSnapshot = new TreeMap<>();
 
         final Config config = getContext().system().settings().config();
         activityCheckInterval = config.getDuration(ConfigKeys.Thing.ACTIVITY_CHECK_INTERVAL);
@@ -135,10 +154,8 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
                         becomeDeletedRunnable, this::stopThisActor, this::isFirstMessage);
 
         handleThingEvents = ReceiveBuilder.create()
-                .match(ThingEvent.class, event -> {
-                    final EventStrategy<ThingEvent> eventHandleStrategy = EventHandleStrategy.getInstance();
-                    thing = eventHandleStrategy.handle(event, thing, getRevisionNumber());
-                }).build();
+                .match(ThingEvent.class, event -> applyEvent(event, getRevisionNumber()))
+                .build();
     }
 
     private static long getSnapshotThreshold(final Config config) {
@@ -156,7 +173,11 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
         final java.time.Duration snapshotInterval = config.getDuration(ConfigKeys.Thing.SNAPSHOT_INTERVAL);
         final boolean snapshotDeleteOld = config.getBoolean(ConfigKeys.Thing.SNAPSHOT_DELETE_OLD);
         final boolean eventsDeleteOld = config.getBoolean(ConfigKeys.Thing.EVENTS_DELETE_OLD);
-        return snapshotterCreate.apply(this, pubSubMediator, snapshotDeleteOld, eventsDeleteOld, log, snapshotInterval);
+        final ThingSnapshotter<?, ?> snapshotter =
+                snapshotterCreate.apply(this, pubSubMediator, snapshotDeleteOld, eventsDeleteOld, log,
+                        snapshotInterval);
+        snapshotter.enableDeltaSnapshots(config.getInt(ConfigKeys.Thing.SNAPSHOT_MAX_DELTAS));
+        return snapshotter;
     }
 
     /**
@@ -180,6 +201,32 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
         });
     }
 
+    /**
+     * Creates Akka configuration object {@link Props} for this ThingPersistenceActor which recovers from the
+     * specified prefetched state instead of loading its snapshot and replaying its events.
+     *
+     * @param thingId the Thing ID this Actor manages.
+     * @param pubSubMediator the PubSub mediator actor.
+     * @param thingSnapshotterCreate creator of {@code ThingSnapshotter} objects.
+     * @param prefetchedRecovery the prefetched recovery state; if it is {@code null} or unavailable, the actor
+     * recovers normally.
+     * @return the Akka configuration Props object
+     */
+    public static Props props(final String thingId, final ActorRef pubSubMediator,
+            final ThingSnapshotter.Create thingSnapshotterCreate,
+            @Nullable final PrefetchedRecovery prefetchedRecovery) {
+
+        return Props.create(ThingPersistenceActor.class, new Creator<ThingPersistenceActor>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ThingPersistenceActor create() {
+                return new ThingPersistenceActor(thingId, pubSubMediator, thingSnapshotterCreate,
+                        prefetchedRecovery);
+            }
+        });
+    }
+
     /**
      * Creates a default Akka configuration object {@link Props} for this ThingPersistenceActor using sudo commands
      * for external snapshot requests.
@@ -257,6 +304,12 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
         return SNAPSHOT_PLUGIN_ID;
     }
 
+    @Override
+    public Recovery recovery() {
+        // with prefetched state, only the highest sequence number is read from the journal
+        return prefetchedRecovery != null ? Recovery.none() : super.recovery();
+    }
+
     @Override
     public void postStop() {
         log.debug("Stopping PersistenceActor for Thing with ID - {}", thingId);
@@ -298,7 +351,8 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
     @Override
     public Receive createReceiveRecover() {
         // defines how state is updated during recovery
-        return handleThingEvents.orElse(ReceiveBuilder.create()
+        return ReceiveBuilder.create()
+                .match(ThingEvent.class, event -> recoverEvent(event, getRevisionNumber()))
 
                 // # Snapshot handling
                 .match(SnapshotOffer.class, ss -> {
@@ -312,26 +366,118 @@ public final class ThingPersistenceActor extends AbstractPersistentActor impleme
                 )
                 // # Recovery handling
                 .match(RecoveryCompleted.class, rc -> {
-                    if (thing != null) {
-                        thing = enhanceThingWithLifecycle(thing);
-                        log.debug("Thing <{}> was recovered.", thingId);
-
-                        if (isThingActive()) {
-                            becomeThingCreatedHandler();
-                        } else {
-                            // expect life cycle to be DELETED. if it's not, then act as if this thing is deleted.
-                            if (!isThingDeleted()) {
-                                // life cycle isn't known, act as
-                                log.error("Unknown lifecycle state <{}> for Thing <{}>.", thing.getLifecycle(),
-                                        thingId);
-                            }
-                            becomeThingDeletedHandler();
+                    if (prefetchedRecovery != null) {
+                        final boolean isRecovered = applyPrefetchedRecovery(prefetchedRecovery);
+                        prefetchedRecovery = null;
+                        if (!isRecovered) {
+                            becomeReturningMessagesForNormalRecovery();
+                            return;
                         }
-
+                    }
+                    if (thingSnapshotter.isAwaitingBaseSnapshot()) {
+                        becomeAwaitingBaseSnapshotHandler();
+                    } else {
+                        completeRecovery();
                     }
                 })
                 .matchAny(m -> log.warning("Unknown recover message: {}", m))
-                .build());
+                .build();
+    }
+
+    private void completeRecovery() {
+        if (thing != null) {
+            thing = enhanceThingWithLifecycle(thing);
+            log.debug("Thing <{}> was recovered.", thingId);
+
+            if (isThingActive()) {
+                becomeThingCreatedHandler();
+            } else {
+                // expect life cycle to be DELETED. if it's not, then act as if this thing is deleted.
+                if (!isThingDeleted()) {
+                    // life cycle isn't known, act as
+                    log.error("Unknown lifecycle state <{}> for Thing <{}>.", thing.getLifecycle(),
+                            thingId);
+                }
+                becomeThingDeletedHandler();
+            }
+        }
+    }
+
+    /*
+     * Events replayed after a delta snapshot can only be applied once the base snapshot of the delta snapshot is
+     * loaded.
+     */
+    private void recoverEvent(final ThingEvent event, final long revision) {
+        if (thingSnapshotter.isAwaitingBaseSnapshot()) {
+            eventsAwaitingBaseSnapshot.put(revision, event);
+        } else {
+            applyEvent(event, revision);
+        }
+    }
+
+    /*
+     * Loads the base snapshot of the recovered delta snapshot without blocking the dispatcher. All messages are
+     * stashed until the Thing is recovered. If the base snapshot cannot be loaded, this actor stops like after a
+     * failed recovery.
+     */
+    private void becomeAwaitingBaseSnapshotHandler() {
+        log.debug("Loading base snapshot of the delta snapshot of Thing <{}>.", thingId);
+        PatternsCS.pipe(thingSnapshotter.loadBaseSnapshotOfRecoveredDelta(), getContext().dispatcher())
+                .to(getSelf());
+
+        final Receive receive = ReceiveBuilder.create()
+                .match(ThingSnapshotter.BaseSnapshotLoaded.class, baseSnapshotLoaded -> {
+                    thing = thingSnapshotter.recoverThingFromBaseSnapshot(baseSnapshotLoaded);
+                    eventsAwaitingBaseSnapshot.forEach((revision, event) -> applyEvent(event, revision));
+                    eventsAwaitingBaseSnapshot.clear();
+                    completeRecovery();
+                    unstashAll();
+                })
+                .match(Status.Failure.class, failure -> {
+                    log.error(failure.cause(), "Recovery Failure for Thing with ID {} and cause {}", thingId,
+                            failure.cause().getMessage());
+                    getContext().stop(getSelf());
+                })
+                .matchAny(message -> stash())
+                .build();
+        getContext().become(receive, true);
+    }
+
+    private void applyEvent(final ThingEvent event, final long revision) {
+        final EventStrategy<ThingEvent> eventHandleStrategy = EventHandleStrategy.getInstance();
+        thing = eventHandleStrategy.handle(event, thing, revision);
+    }
+
+    /*
+     * Applies the prefetched snapshot and events as the recovery would have done. If events were persisted after
+     * they were prefetched, nothing is applied; this actor has to be restarted with normal recovery.
+     */
+    private boolean applyPrefetchedRecovery(final PrefetchedRecovery recovery) {
+        if (recovery.getHighestSequenceNr() != lastSequenceNr()) {
+            log.warning("Prefetched recovery of Thing <{}> is outdated: prefetched sequence number is <{}> but " +
+                    "journal has <{}>. Stopping to recover normally.", thingId, recovery.getHighestSequenceNr(),
+                    lastSequenceNr());
+            return false;
+        }
+        log.debug("Recovering Thing <{}> from prefetched state: {}", thingId, recovery);
+        recovery.getSnapshotOffer()
+                .ifPresent(snapshotOffer -> thing = thingSnapshotter.recoverThingFromSnapshotOffer(snapshotOffer));
+        recovery.getEvents().forEach((sequenceNr, event) -> recoverEvent(event, sequenceNr));
+        return true;
+    }
+
+    /*
+     * A recovery cannot be repeated by the same actor. Thus the supervisor is asked to restart this actor with normal
+     * recovery, and all messages received until the supervisor stops this actor, including those stashed during the
+     * recovery, are returned to the supervisor to be handled by the restarted actor.
+     */
+    private void becomeReturningMessagesForNormalRecovery() {
+        final ActorRef supervisor = getContext().getParent();
+        supervisor.tell(ThingSupervisorActor.RecoverNormally.INSTANCE, getSelf());
+        getContext().become(ReceiveBuilder.create()
+                .matchAny(message ->
+                        supervisor.tell(new ThingSupervisorActor.PendingMessage(message, getSender()), getSelf()))
+                .build(), true);
     }
 
     /*
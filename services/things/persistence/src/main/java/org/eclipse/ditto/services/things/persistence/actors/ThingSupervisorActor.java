@@ -18,22 +18,28 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.eclipse.ditto.model.base.headers.WithDittoHeaders;
 import org.eclipse.ditto.services.base.actors.ShutdownNamespaceBehavior;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchRecovery;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchedRecovery;
 import org.eclipse.ditto.services.things.persistence.strategies.AbstractReceiveStrategy;
 import org.eclipse.ditto.services.things.persistence.strategies.ReceiveStrategy;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
 import org.eclipse.ditto.signals.commands.things.exceptions.ThingUnavailableException;
 
-import akka.actor.AbstractActor;
+import akka.actor.AbstractActorWithStash;
 import akka.actor.ActorKilledException;
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.OneForOneStrategy;
 import akka.actor.PoisonPill;
 import akka.actor.Props;
@@ -43,6 +49,7 @@ import akka.cluster.sharding.ShardRegion;
 import akka.event.DiagnosticLoggingAdapter;
 import akka.japi.Creator;
 import akka.japi.pf.DeciderBuilder;
+import akka.japi.pf.ReceiveBuilder;
 import scala.concurrent.duration.FiniteDuration;
 
 /**
@@ -53,35 +60,52 @@ import scala.concurrent.duration.FiniteDuration;
  * Between the termination of the child and the restart, this actor answers to all requests with a
  * {@link ThingUnavailableException} as fail fast strategy.
  * </p>
+ * <p>
+ * If a recovery prefetcher is given, the child is started after its recovery state was prefetched or after the
+ * prefetch timed out. Messages received in the meantime are stashed. Restarts of the child recover normally. If the
+ * prefetched state turns out to be outdated, the child sends {@link RecoverNormally} and returns the messages it did
+ * not handle yet; it is then restarted immediately with normal recovery, without back off and without counting a
+ * restart, and gets the returned messages before any message received in the meantime.
+ * </p>
  */
-public final class ThingSupervisorActor extends AbstractActor {
+public final class ThingSupervisorActor extends AbstractActorWithStash {
 
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
 
     private final String thingId;
+    private final BiFunction<String, PrefetchedRecovery, Props> persistenceActorPropsFactory;
     private final Props persistenceActorProps;
+    @Nullable private final ActorRef recoveryPrefetcher;
+    private final Duration prefetchTimeout;
     private final Duration minBackOff;
     private final Duration maxBackOff;
     private final double randomFactor;
     private final SupervisorStrategy supervisorStrategy;
     private final ShutdownNamespaceBehavior shutdownNamespaceBehavior;
+    private final List<PendingMessage> pendingMessagesOfChild;
 
     private ActorRef child;
     private long restartCount;
+    @Nullable private Cancellable prefetchTimer;
 
     private ThingSupervisorActor(final Duration minBackOff,
             final Duration maxBackOff,
             final double randomFactor,
-            final Function<String, Props> thingPersistenceActorPropsFactory,
+            final BiFunction<String, PrefetchedRecovery, Props> thingPersistenceActorPropsFactory,
             final SupervisorStrategy supervisorStrategy,
-            final ActorRef pubSubMediator) {
+            final ActorRef pubSubMediator,
+            @Nullable final ActorRef recoveryPrefetcher,
+            final Duration prefetchTimeout) {
 
         try {
             thingId = URLDecoder.decode(getSelf().path().name(), StandardCharsets.UTF_8.name());
         } catch (final UnsupportedEncodingException e) {
             throw new IllegalStateException("Unsupported encoding!", e);
         }
-        persistenceActorProps = thingPersistenceActorPropsFactory.apply(thingId);
+        persistenceActorPropsFactory = thingPersistenceActorPropsFactory;
+        persistenceActorProps = thingPersistenceActorPropsFactory.apply(thingId, null);
+        this.recoveryPrefetcher = recoveryPrefetcher;
+        this.prefetchTimeout = prefetchTimeout;
         this.minBackOff = minBackOff;
         this.maxBackOff = maxBackOff;
         this.randomFactor = randomFactor;
@@ -90,6 +114,8 @@ public final class ThingSupervisorActor extends AbstractActor {
         shutdownNamespaceBehavior = ShutdownNamespaceBehavior.fromId(thingId, pubSubMediator, getSelf());
 
         child = null;
+        prefetchTimer = null;
+        pendingMessagesOfChild = new ArrayList<>();
     }
 
     /**
@@ -114,6 +140,36 @@ public final class ThingSupervisorActor extends AbstractActor {
             final double randomFactor,
             final Function<String, Props> thingPersistenceActorPropsFactory) {
 
+        return props(pubSubMediator, minBackOff, maxBackOff, randomFactor,
+                (thingId, prefetchedRecovery) -> thingPersistenceActorPropsFactory.apply(thingId), null,
+                Duration.ZERO);
+    }
+
+    /**
+     * Props for creating a {@code ThingSupervisorActor} which asks a
+     * {@link org.eclipse.ditto.services.things.persistence.recovery.ThingRecoveryPrefetchActor} for the recovery
+     * state of its child before starting it.
+     *
+     * @param pubSubMediator Akka pub-sub mediator.
+     * @param minBackOff minimum (initial) duration until the child actor will started again, if it is terminated.
+     * @param maxBackOff the exponential back-off is capped to this duration.
+     * @param randomFactor after calculation of the exponential back-off an additional random delay based on this factor
+     * is added, e.g. `0.2` adds up to `20%` delay. In order to skip this additional delay pass in `0`.
+     * @param thingPersistenceActorPropsFactory factory for creating Props to be used for creating
+     * {@link ThingPersistenceActor}s from the Thing ID and the prefetched recovery state, which is {@code null} for
+     * normal recovery.
+     * @param recoveryPrefetcher the actor to ask for the recovery state or {@code null} to always recover normally.
+     * @param prefetchTimeout how long to wait for the recovery state before starting the child with normal recovery.
+     * @return the {@link Props} to create this actor.
+     */
+    public static Props props(final ActorRef pubSubMediator,
+            final Duration minBackOff,
+            final Duration maxBackOff,
+            final double randomFactor,
+            final BiFunction<String, PrefetchedRecovery, Props> thingPersistenceActorPropsFactory,
+            @Nullable final ActorRef recoveryPrefetcher,
+            final Duration prefetchTimeout) {
+
         return Props.create(ThingSupervisorActor.class, new Creator<ThingSupervisorActor>() {
             private static final long serialVersionUID = 1L;
 
@@ -126,7 +182,7 @@ public final class ThingSupervisorActor extends AbstractActor {
                         .build());
 
                 return new ThingSupervisorActor(minBackOff, maxBackOff, randomFactor, thingPersistenceActorPropsFactory,
-                        oneForOneStrategy, pubSubMediator);
+                        oneForOneStrategy, pubSubMediator, recoveryPrefetcher, prefetchTimeout);
             }
         });
     }
@@ -149,7 +205,24 @@ public final class ThingSupervisorActor extends AbstractActor {
     @Override
     public void preStart() throws Exception {
         super.preStart();
-        startChild();
+        if (null != recoveryPrefetcher) {
+            recoveryPrefetcher.tell(PrefetchRecovery.of(thingId), getSelf());
+            prefetchTimer = getContext().system()
+                    .scheduler()
+                    .scheduleOnce(new FiniteDuration(prefetchTimeout.toNanos(), TimeUnit.NANOSECONDS), getSelf(),
+                            PrefetchTimeout.INSTANCE, getContext().dispatcher(), null);
+            getContext().become(awaitPrefetchedRecovery());
+        } else {
+            startChild(persistenceActorProps);
+        }
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        if (null != prefetchTimer) {
+            prefetchTimer.cancel();
+        }
+        super.postStop();
     }
 
     @Override
@@ -161,6 +234,11 @@ public final class ThingSupervisorActor extends AbstractActor {
 
         return shutdownNamespaceBehavior.createReceive()
                 .matchEquals(Control.PASSIVATE, this::passivate)
+                .match(RecoverNormally.class, recoverNormally -> null != child && child.equals(getSender()),
+                        recoverNormally -> restartChildWithNormalRecovery())
+                .match(PrefetchedRecovery.class, recovery ->
+                        log.debug("Ignoring prefetched recovery which arrived after the timeout: {}", recovery))
+                .match(PrefetchTimeout.class, timeout -> {})
                 .build()
                 .orElse(strategyAwareReceiveBuilder.build());
     }
@@ -169,10 +247,64 @@ public final class ThingSupervisorActor extends AbstractActor {
         getContext().getParent().tell(new ShardRegion.Passivate(PoisonPill.getInstance()), getSelf());
     }
 
-    private void startChild() {
+    private void restartChildWithNormalRecovery() {
+        log.info("Prefetched recovery state of Thing <{}> was outdated, restarting it with normal recovery.",
+                thingId);
+        // the child returns the messages forwarded to it so far before it stops
+        child.tell(PoisonPill.getInstance(), getSelf());
+        getContext().become(awaitChildStoppedForNormalRecovery());
+    }
+
+    private Receive awaitChildStoppedForNormalRecovery() {
+        return ReceiveBuilder.create()
+                .match(PendingMessage.class, pendingMessagesOfChild::add)
+                .match(Terminated.class, terminated -> terminated.getActor().equals(child), terminated -> {
+                    child = null;
+                    startChild(persistenceActorProps);
+                    pendingMessagesOfChild.forEach(pending -> child.tell(pending.getMessage(), pending.getSender()));
+                    pendingMessagesOfChild.clear();
+                    getContext().become(createReceive());
+                    unstashAll();
+                })
+                .matchAny(message -> stash())
+                .build();
+    }
+
+    private Receive awaitPrefetchedRecovery() {
+        return ReceiveBuilder.create()
+                .match(PrefetchedRecovery.class, recovery -> thingId.equals(recovery.getThingId()),
+                        this::startChildWithPrefetchedRecovery)
+                .match(PrefetchTimeout.class, timeout -> {
+                    log.info("Recovery state of Thing <{}> was not prefetched within <{}>.", thingId,
+                            prefetchTimeout);
+                    startChildAfterPrefetch(persistenceActorProps);
+                })
+                .matchAny(message -> stash())
+                .build();
+    }
+
+    private void startChildWithPrefetchedRecovery(final PrefetchedRecovery recovery) {
+        if (recovery.isAvailable()) {
+            startChildAfterPrefetch(persistenceActorPropsFactory.apply(thingId, recovery));
+        } else {
+            startChildAfterPrefetch(persistenceActorProps);
+        }
+    }
+
+    private void startChildAfterPrefetch(final Props props) {
+        if (null != prefetchTimer) {
+            prefetchTimer.cancel();
+            prefetchTimer = null;
+        }
+        startChild(props);
+        getContext().become(createReceive());
+        unstashAll();
+    }
+
+    private void startChild(final Props props) {
         if (null == child) {
             log.debug("Starting persistence actor for Thing with ID <{}>.", thingId);
-            final ActorRef childRef = getContext().actorOf(persistenceActorProps, "pa");
+            final ActorRef childRef = getContext().actorOf(props, "pa");
             child = getContext().watch(childRef);
         }
     }
@@ -239,6 +371,55 @@ public final class ThingSupervisorActor extends AbstractActor {
         }
     }
 
+    /**
+     * Message that is sent to the actor by itself if the recovery state of the child was not prefetched in time.
+     */
+    private static final class PrefetchTimeout {
+
+        private static final PrefetchTimeout INSTANCE = new PrefetchTimeout();
+
+        private PrefetchTimeout() {
+        }
+    }
+
+    /**
+     * Message of the child to tell that it has to be restarted with normal recovery because its prefetched recovery
+     * state was outdated.
+     */
+    static final class RecoverNormally {
+
+        static final RecoverNormally INSTANCE = new RecoverNormally();
+
+        private RecoverNormally() {
+        }
+    }
+
+    /**
+     * A message which the child received but did not handle before it stopped for normal recovery.
+     */
+    static final class PendingMessage {
+
+        private final Object message;
+        private final ActorRef sender;
+
+        /**
+         * @param message the message.
+         * @param sender the sender of the message.
+         */
+        PendingMessage(final Object message, final ActorRef sender) {
+            this.message = message;
+            this.sender = sender;
+        }
+
+        Object getMessage() {
+            return message;
+        }
+
+        ActorRef getSender() {
+            return sender;
+        }
+    }
+
     /**
      * This strategy handles a {@link StartChild} message by starting the child actor immediately.
      */
@@ -251,7 +432,7 @@ public final class ThingSupervisorActor extends AbstractActor {
 
         @Override
         public void doApply(final StartChild message) {
-            startChild();
+            startChild(persistenceActorProps);
         }
 
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.recovery;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Request to a {@link ThingRecoveryPrefetchActor} to load the recovery state of a Thing. The actor answers with a
+ * {@link PrefetchedRecovery}.
+ */
+@Immutable
+public final class PrefetchRecovery {
+
+    private final String thingId;
+
+    private PrefetchRecovery(final String thingId) {
+        this.thingId = thingId;
+    }
+
+    /**
+     * Returns a request to prefetch the recovery state of a Thing.
+     *
+     * @param thingId the ID of the Thing.
+     * @return the request.
+     * @throws NullPointerException if {@code thingId} is {@code null}.
+     */
+    public static PrefetchRecovery of(final String thingId) {
+        return new PrefetchRecovery(checkNotNull(thingId, "Thing ID"));
+    }
+
+    /**
+     * @return the ID of the Thing.
+     */
+    public String getThingId() {
+        return thingId;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PrefetchRecovery that = (PrefetchRecovery) o;
+        return Objects.equals(thingId, that.thingId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(thingId);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [thingId=" + thingId + "]";
+    }
+
+}
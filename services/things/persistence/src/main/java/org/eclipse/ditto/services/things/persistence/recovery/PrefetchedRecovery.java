@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.recovery;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.signals.events.things.ThingEvent;
+
+import akka.persistence.SnapshotOffer;
+
+/**
+ * The recovery state of a Thing persistence actor which was loaded ahead of the actor's start: the latest snapshot
+ * and the events persisted after it, each with its sequence number. An unavailable instance tells the actor to
+ * recover normally from the snapshot store and the event journal.
+ */
+@Immutable
+public final class PrefetchedRecovery {
+
+    private final String thingId;
+    private final boolean available;
+    @Nullable private final SnapshotOffer snapshotOffer;
+    private final SortedMap<Long, ThingEvent> events;
+
+    private PrefetchedRecovery(final String thingId, final boolean available,
+            @Nullable final SnapshotOffer snapshotOffer, final SortedMap<Long, ThingEvent> events) {
+
+        this.thingId = thingId;
+        this.available = available;
+        this.snapshotOffer = snapshotOffer;
+        this.events = Collections.unmodifiableSortedMap(new TreeMap<>(events));
+    }
+
+    /**
+     * Returns the prefetched recovery state of a Thing.
+     *
+     * @param thingId the ID of the Thing.
+     * @param snapshotOffer the latest snapshot of the Thing or {@code null} if it has no snapshot.
+     * @param events the events persisted after {@code snapshotOffer} by their sequence numbers.
+     * @return the prefetched recovery state.
+     * @throws NullPointerException if {@code thingId} or {@code events} is {@code null}.
+     */
+    public static PrefetchedRecovery of(final String thingId, @Nullable final SnapshotOffer snapshotOffer,
+            final SortedMap<Long, ThingEvent> events) {
+
+        checkNotNull(thingId, "Thing ID");
+        checkNotNull(events, "events");
+        return new PrefetchedRecovery(thingId, true, snapshotOffer, events);
+    }
+
+    /**
+     * Returns a {@code PrefetchedRecovery} which tells that the recovery state of a Thing could not be prefetched.
+     *
+     * @param thingId the ID of the Thing.
+     * @return the unavailable recovery state.
+     * @throws NullPointerException if {@code thingId} is {@code null}.
+     */
+    public static PrefetchedRecovery unavailable(final String thingId) {
+        checkNotNull(thingId, "Thing ID");
+        return new PrefetchedRecovery(thingId, false, null, Collections.emptySortedMap());
+    }
+
+    /**
+     * @return the ID of the Thing.
+     */
+    public String getThingId() {
+        return thingId;
+    }
+
+    /**
+     * @return whether the recovery state was prefetched; if not, the Thing has to be recovered normally.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * @return the latest snapshot of the Thing, if any.
+     */
+    public Optional<SnapshotOffer> getSnapshotOffer() {
+        return Optional.ofNullable(snapshotOffer);
+    }
+
+    /**
+     * @return the unmodifiable events persisted after the snapshot by their sequence numbers in ascending order.
+     */
+    public SortedMap<Long, ThingEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the sequence number of the latest prefetched snapshot or event. It has to be equal to the highest
+     * sequence number in the event journal, otherwise the prefetched state is outdated.
+     *
+     * @return the highest prefetched sequence number or 0 if neither a snapshot nor an event was prefetched.
+     */
+    public long getHighestSequenceNr() {
+        if (!events.isEmpty()) {
+            return events.lastKey();
+        }
+        return snapshotOffer != null ? snapshotOffer.metadata().sequenceNr() : 0L;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PrefetchedRecovery that = (PrefetchedRecovery) o;
+        return available == that.available &&
+                Objects.equals(thingId, that.thingId) &&
+                Objects.equals(snapshotOffer, that.snapshotOffer) &&
+                Objects.equals(events, that.events);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(thingId, available, snapshotOffer, events);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [" +
+                "thingId=" + thingId +
+                ", available=" + available +
+                ", snapshotSequenceNr=" + (snapshotOffer != null ? snapshotOffer.metadata().sequenceNr() : null) +
+                ", events=" + events.size() +
+                "]";
+    }
+
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.recovery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.eclipse.ditto.services.things.persistence.actors.ThingPersistenceActor;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingMongoEventAdapter;
+import org.eclipse.ditto.services.things.starter.util.ConfigKeys;
+import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.services.utils.persistence.mongo.DittoMongoClient;
+import org.eclipse.ditto.services.utils.persistence.mongo.MongoClientWrapper;
+import org.eclipse.ditto.services.utils.persistence.mongo.suffixes.NamespaceSuffixCollectionNames;
+import org.eclipse.ditto.signals.events.things.ThingEvent;
+
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import com.typesafe.config.Config;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.Props;
+import akka.contrib.persistence.mongodb.JournallingFieldNames$;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import akka.persistence.SnapshotMetadata;
+import akka.persistence.SnapshotOffer;
+import akka.persistence.journal.EventSeq;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Node-local actor which loads the recovery state of many Thing persistence actors at once. When a shard is started
+ * on this node, e.g. after a rebalance, the supervisors of all its Things start at the same time and ask this actor
+ * with {@link PrefetchRecovery}. The requests are collected for a short interval or until a batch is full. Per batch,
+ * the latest snapshots and the events persisted after them are read with one aggregation on the snapshot store and
+ * one query on the event journal (per namespace if collection names are suffixed) instead of two queries per Thing.
+ * <p>
+ * Memory is bounded by the batch size, the number of batches loaded in parallel and the maximum number of events per
+ * Thing. Things with more events after their latest snapshot, or which cannot be loaded at all, are answered with an
+ * unavailable {@link PrefetchedRecovery} and recover normally.
+ * </p>
+ */
+public final class ThingRecoveryPrefetchActor extends AbstractActor {
+
+    /**
+     * The name of this Actor in the ActorSystem.
+     */
+    public static final String ACTOR_NAME = "thingRecoveryPrefetch";
+
+    private static final String SUFFIX_BUILDER_PREFIX = "akka.contrib.persistence.mongodb.mongo.suffix-builder.";
+
+    private static final String PROCESSOR_ID = JournallingFieldNames$.MODULE$.PROCESSOR_ID();
+    private static final String SEQUENCE_NUMBER = JournallingFieldNames$.MODULE$.SEQUENCE_NUMBER();
+    private static final String TO = JournallingFieldNames$.MODULE$.TO();
+    private static final String EVENTS = JournallingFieldNames$.MODULE$.EVENTS();
+    private static final String PAYLOAD = JournallingFieldNames$.MODULE$.PayloadKey();
+    private static final String PAYLOAD_TYPE = JournallingFieldNames$.MODULE$.TYPE();
+    private static final String BSON_PAYLOAD_TYPE = "bson";
+
+    // further field names of akka.contrib.persistence.mongodb.SnapshottingFieldNames
+    private static final String SNAPSHOT_TIMESTAMP = "ts";
+    private static final String SNAPSHOT_SERIALIZED = "s2";
+    private static final String LATEST_SNAPSHOT = "latest";
+
+    private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
+
+    private final DittoMongoClient mongoClient;
+    private final ThingMongoEventAdapter eventAdapter;
+    private final ActorMaterializer materializer;
+    private final String journalCollection;
+    private final String snapshotCollection;
+    @Nullable private final NamespaceSuffixCollectionNames suffixBuilder;
+    private final String suffixSeparator;
+    private final int batchSize;
+    private final Duration batchInterval;
+    private final int parallelism;
+    private final int maxEvents;
+
+    private final Map<String, List<ActorRef>> pendingRequests;
+    @Nullable private Cancellable batchTimer;
+    private int batchesInFlight;
+
+    private ThingRecoveryPrefetchActor(final Config config) {
+        mongoClient = MongoClientWrapper.newInstance(config);
+        eventAdapter = new ThingMongoEventAdapter((ExtendedActorSystem) getContext().getSystem());
+        materializer = ActorMaterializer.create(getContext());
+        journalCollection =
+                config.getString(ThingPersistenceActor.JOURNAL_PLUGIN_ID + ".overrides.journal-collection");
+        snapshotCollection =
+                config.getString(ThingPersistenceActor.SNAPSHOT_PLUGIN_ID + ".overrides.snaps-collection");
+        final boolean isSuffixBuilderEnabled = config.hasPath(SUFFIX_BUILDER_PREFIX + "class") &&
+                !config.getString(SUFFIX_BUILDER_PREFIX + "class").trim().isEmpty();
+        suffixBuilder = isSuffixBuilderEnabled ? new NamespaceSuffixCollectionNames() : null;
+        suffixSeparator = config.hasPath(SUFFIX_BUILDER_PREFIX + "separator")
+                ? config.getString(SUFFIX_BUILDER_PREFIX + "separator")
+                : "@";
+        batchSize = config.getInt(ConfigKeys.Thing.RECOVERY_PREFETCH_BATCH_SIZE);
+        batchInterval = config.getDuration(ConfigKeys.Thing.RECOVERY_PREFETCH_BATCH_INTERVAL);
+        parallelism = config.getInt(ConfigKeys.Thing.RECOVERY_PREFETCH_PARALLELISM);
+        maxEvents = config.getInt(ConfigKeys.Thing.RECOVERY_PREFETCH_MAX_EVENTS);
+
+        pendingRequests = new LinkedHashMap<>();
+        batchTimer = null;
+        batchesInFlight = 0;
+    }
+
+    /**
+     * Creates Akka configuration object Props for this actor.
+     *
+     * @param config Configuration with info about event journal, snapshot store, suffix-builder, database and the
+     * recovery prefetch settings.
+     * @return the Akka configuration Props object.
+     */
+    public static Props props(final Config config) {
+        return Props.create(ThingRecoveryPrefetchActor.class, new Creator<ThingRecoveryPrefetchActor>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ThingRecoveryPrefetchActor create() {
+                return new ThingRecoveryPrefetchActor(config);
+            }
+        });
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        if (batchTimer != null) {
+            batchTimer.cancel();
+        }
+        mongoClient.close();
+        super.postStop();
+    }
+
+    @Override
+    public Receive createReceive() {
+        return ReceiveBuilder.create()
+                .match(PrefetchRecovery.class, this::handlePrefetchRecovery)
+                .matchEquals(Control.LOAD_BATCH, control -> loadBatches())
+                .match(BatchLoaded.class, this::handleBatchLoaded)
+                .matchAny(m -> {
+                    log.warning("Unknown message: {}", m);
+                    unhandled(m);
+                })
+                .build();
+    }
+
+    private void handlePrefetchRecovery(final PrefetchRecovery prefetchRecovery) {
+        pendingRequests.computeIfAbsent(prefetchRecovery.getThingId(), thingId -> new ArrayList<>(1))
+                .add(getSender());
+        if (pendingRequests.size() >= batchSize) {
+            loadBatches();
+        } else if (batchTimer == null) {
+            batchTimer = getContext().getSystem().scheduler()
+                    .scheduleOnce(FiniteDuration.create(batchInterval.toMillis(), TimeUnit.MILLISECONDS), getSelf(),
+                            Control.LOAD_BATCH, getContext().dispatcher(), ActorRef.noSender());
+        }
+    }
+
+    private void loadBatches() {
+        if (batchTimer != null) {
+            batchTimer.cancel();
+            batchTimer = null;
+        }
+        while (!pendingRequests.isEmpty() && batchesInFlight < parallelism) {
+            final Map<String, List<ActorRef>> batch = new HashMap<>();
+            final Iterator<Map.Entry<String, List<ActorRef>>> iterator = pendingRequests.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                final Map.Entry<String, List<ActorRef>> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            log.debug("Prefetching recovery state of <{}> Things.", batch.size());
+            batchesInFlight++;
+            final ActorRef self = getSelf();
+            loadBatch(batch.keySet()).whenComplete((recoveries, error) ->
+                    self.tell(new BatchLoaded(batch, error == null ? recoveries : Collections.emptyMap(), error),
+                            ActorRef.noSender()));
+        }
+    }
+
+    private void handleBatchLoaded(final BatchLoaded batchLoaded) {
+        batchesInFlight--;
+        if (batchLoaded.error != null) {
+            log.warning("Prefetching recovery state of <{}> Things failed, they recover normally: {}",
+                    batchLoaded.requesters.size(), batchLoaded.error.getMessage());
+        }
+        batchLoaded.requesters.forEach((thingId, requesters) -> {
+            final PrefetchedRecovery recovery = batchLoaded.recoveries.getOrDefault(thingId,
+                    PrefetchedRecovery.unavailable(thingId));
+            requesters.forEach(requester -> requester.tell(recovery, getSelf()));
+        });
+        if (!pendingRequests.isEmpty()) {
+            loadBatches();
+        }
+    }
+
+    private CompletionStage<Map<String, PrefetchedRecovery>> loadBatch(final Collection<String> thingIds) {
+        final Map<String, List<String>> persistenceIdsByCollectionSuffix = thingIds.stream()
+                .map(thingId -> ThingPersistenceActor.PERSISTENCE_ID_PREFIX + thingId)
+                .collect(Collectors.groupingBy(this::getCollectionSuffix));
+        final MongoDatabase database = mongoClient.getDefaultDatabase();
+        CompletionStage<Map<String, PrefetchedRecovery>> result = CompletableFuture.completedFuture(new HashMap<>());
+        for (final Map.Entry<String, List<String>> entry : persistenceIdsByCollectionSuffix.entrySet()) {
+            final CompletionStage<Map<String, PrefetchedRecovery>> collectionResult =
+                    loadFromCollections(database, entry.getKey(), entry.getValue());
+            result = result.thenCombine(collectionResult, (recoveries, moreRecoveries) -> {
+                recoveries.putAll(moreRecoveries);
+                return recoveries;
+            });
+        }
+        return result;
+    }
+
+    private String getCollectionSuffix(final String persistenceId) {
+        if (suffixBuilder == null) {
+            return "";
+        }
+        final String suffix = suffixBuilder.getSuffixFromPersistenceId(persistenceId);
+        return suffix.isEmpty() ? "" : suffixSeparator + suffix;
+    }
+
+    private CompletionStage<Map<String, PrefetchedRecovery>> loadFromCollections(final MongoDatabase database,
+            final String collectionSuffix, final List<String> persistenceIds) {
+
+        return loadLatestSnapshots(database, snapshotCollection + collectionSuffix, persistenceIds)
+                .thenCompose(snapshots ->
+                        loadEvents(database, journalCollection + collectionSuffix, persistenceIds, snapshots)
+                                .thenApply(events -> toPrefetchedRecoveries(persistenceIds, snapshots, events)));
+    }
+
+    private CompletionStage<Map<String, SnapshotOffer>> loadLatestSnapshots(final MongoDatabase database,
+            final String collection, final List<String> persistenceIds) {
+
+        final List<Bson> pipeline = new ArrayList<>(3);
+        pipeline.add(Aggregates.match(Filters.in(PROCESSOR_ID, persistenceIds)));
+        pipeline.add(Aggregates.sort(Sorts.orderBy(Sorts.ascending(PROCESSOR_ID),
+                Sorts.descending(SEQUENCE_NUMBER))));
+        pipeline.add(Aggregates.group("$" + PROCESSOR_ID, Accumulators.first(LATEST_SNAPSHOT, "$$ROOT")));
+
+        return Source.fromPublisher(database.getCollection(collection, BsonDocument.class)
+                .aggregate(pipeline, BsonDocument.class)
+                .allowDiskUse(true))
+                .map(group -> group.getDocument(LATEST_SNAPSHOT))
+                .runWith(Sink.seq(), materializer)
+                .thenApply(documents -> {
+                    final Map<String, SnapshotOffer> snapshots = new HashMap<>(documents.size());
+                    documents.forEach(document -> {
+                        final String persistenceId = document.getString(PROCESSOR_ID).getValue();
+                        final SnapshotMetadata metadata = new SnapshotMetadata(persistenceId,
+                                document.getNumber(SEQUENCE_NUMBER).longValue(),
+                                document.getNumber(SNAPSHOT_TIMESTAMP).longValue());
+                        snapshots.put(persistenceId, new SnapshotOffer(metadata, document.get(SNAPSHOT_SERIALIZED)));
+                    });
+                    return snapshots;
+                });
+    }
+
+    private CompletionStage<Map<String, SortedMap<Long, ThingEvent>>> loadEvents(final MongoDatabase database,
+            final String collection, final List<String> persistenceIds, final Map<String, SnapshotOffer> snapshots) {
+
+        final List<Bson> filters = persistenceIds.stream()
+                .map(persistenceId -> Filters.and(Filters.eq(PROCESSOR_ID, persistenceId),
+                        Filters.gt(TO, getSnapshotSequenceNr(snapshots.get(persistenceId)))))
+                .collect(Collectors.toList());
+
+        return Source.fromPublisher(database.getCollection(collection, BsonDocument.class)
+                .find(Filters.or(filters), BsonDocument.class)
+                .sort(Sorts.ascending(PROCESSOR_ID, TO)))
+                .runFold(new HashMap<String, SortedMap<Long, ThingEvent>>(), (events, document) -> {
+                    final String persistenceId = document.getString(PROCESSOR_ID).getValue();
+                    final SortedMap<Long, ThingEvent> eventsOfThing =
+                            events.computeIfAbsent(persistenceId, pid -> new TreeMap<>());
+                    if (eventsOfThing.size() <= maxEvents) {
+                        final long snapshotSequenceNr = getSnapshotSequenceNr(snapshots.get(persistenceId));
+                        for (final BsonValue atom : document.getArray(EVENTS)) {
+                            addEvent(atom.asDocument(), snapshotSequenceNr, eventsOfThing);
+                        }
+                    }
+                    return events;
+                }, materializer);
+    }
+
+    private void addEvent(final BsonDocument atom, final long snapshotSequenceNr,
+            final SortedMap<Long, ThingEvent> eventsOfThing) {
+
+        final long sequenceNr = atom.getNumber(SEQUENCE_NUMBER).longValue();
+        if (sequenceNr > snapshotSequenceNr && eventsOfThing.size() <= maxEvents) {
+            final BsonValue payloadType = atom.get(PAYLOAD_TYPE);
+            final BsonValue payload = atom.get(PAYLOAD);
+            final Object event = new BsonString(BSON_PAYLOAD_TYPE).equals(payloadType) && payload != null
+                    ? fromJournal(payload)
+                    : null;
+            // unknown payloads make the Thing unavailable for prefetching, like too many events
+            eventsOfThing.put(sequenceNr, event instanceof ThingEvent ? (ThingEvent) event : null);
+        }
+    }
+
+    @Nullable
+    private Object fromJournal(final BsonValue payload) {
+        final EventSeq eventSeq = eventAdapter.fromJournal(payload, "");
+        return eventSeq.events().size() == 1 ? eventSeq.events().head() : null;
+    }
+
+    private Map<String, PrefetchedRecovery> toPrefetchedRecoveries(final List<String> persistenceIds,
+            final Map<String, SnapshotOffer> snapshots, final Map<String, SortedMap<Long, ThingEvent>> events) {
+
+        final Map<String, PrefetchedRecovery> result = new HashMap<>(persistenceIds.size());
+        for (final String persistenceId : persistenceIds) {
+            final String thingId = persistenceId.substring(ThingPersistenceActor.PERSISTENCE_ID_PREFIX.length());
+            final SnapshotOffer snapshotOffer = snapshots.get(persistenceId);
+            final SortedMap<Long, ThingEvent> eventsOfThing = events.getOrDefault(persistenceId,
+                    Collections.emptySortedMap());
+            final boolean isSnapshotReadable =
+                    snapshotOffer == null || snapshotOffer.snapshot() instanceof BsonDocument;
+            if (isSnapshotReadable && eventsOfThing.size() <= maxEvents && !eventsOfThing.containsValue(null)) {
+                result.put(thingId, PrefetchedRecovery.of(thingId, snapshotOffer, eventsOfThing));
+            } else {
+                result.put(thingId, PrefetchedRecovery.unavailable(thingId));
+            }
+        }
+        return result;
+    }
+
+    private static long getSnapshotSequenceNr(@Nullable final SnapshotOffer snapshotOffer) {
+        return snapshotOffer != null ? snapshotOffer.metadata().sequenceNr() : 0L;
+    }
+
+    private enum Control {
+        LOAD_BATCH
+    }
+
+    /**
+     * Message to self with the loaded recovery states of a batch and the actors which requested them.
+     */
+    private static final class BatchLoaded {
+
+        private final Map<String, List<ActorRef>> requesters;
+        private final Map<String, PrefetchedRecovery> recoveries;
+        @Nullable private final Throwable error;
+
+        private BatchLoaded(final Map<String, List<ActorRef>> requesters,
+                final Map<String, PrefetchedRecovery> recoveries, @Nullable final Throwable error) {
+
+            this.requesters = requesters;
+            this.recoveries = recoveries;
+            this.error = error;
+        }
+
+    }
+
+}
@@ -12,21 +12,28 @@
  */
 package org.eclipse.ditto.services.things.persistence.serializer;
 
+import java.util.Optional;
+
 import javax.annotation.concurrent.ThreadSafe;
 
+import org.bson.BsonDocument;
 import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonParseException;
 import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.json.FieldType;
 import org.eclipse.ditto.model.things.Thing;
 import org.eclipse.ditto.model.things.ThingsModelFactory;
 import org.eclipse.ditto.services.utils.persistence.mongo.AbstractMongoSnapshotAdapter;
+import org.eclipse.ditto.services.utils.persistence.mongo.DittoBsonJson;
 import org.slf4j.LoggerFactory;
 
 /**
  * A {@link org.eclipse.ditto.services.utils.persistence.SnapshotAdapter} for snapshotting a
- * {@link org.eclipse.ditto.model.things.Thing}.
+ * {@link org.eclipse.ditto.model.things.Thing}. Supports delta snapshots as well.
  */
 @ThreadSafe
-public final class ThingMongoSnapshotAdapter extends AbstractMongoSnapshotAdapter<ThingWithSnapshotTag> {
+public final class ThingMongoSnapshotAdapter extends AbstractMongoSnapshotAdapter<ThingWithSnapshotTag>
+        implements ThingSnapshotDeltaAdapter {
 
     /**
      * JSON key for the snapshot tag.
@@ -49,6 +56,9 @@ public final class ThingMongoSnapshotAdapter extends AbstractMongoSnapshotAdapte
 
     @Override
     protected ThingWithSnapshotTag createJsonifiableFrom(final JsonObject jsonObject) {
+        if (jsonObject.contains(ThingSnapshotDelta.BASE_SEQUENCE_NR_JSON_KEY)) {
+            throw new JsonParseException("Delta snapshot cannot be restored without its base snapshot.");
+        }
         final Thing thing = ThingsModelFactory.newThing(jsonObject);
         final SnapshotTag snapshotTag = jsonObject.getValue(TAG_JSON_KEY)
                 .filter(JsonValue::isString)
@@ -58,4 +68,30 @@ public final class ThingMongoSnapshotAdapter extends AbstractMongoSnapshotAdapte
         return ThingWithSnapshotTag.newInstance(thing, snapshotTag);
     }
 
+    @Override
+    public Object toSnapshotStore(final ThingSnapshotDelta delta) {
+        return DittoBsonJson.getInstance().parse(delta.toJson());
+    }
+
+    @Override
+    public Optional<ThingSnapshotDelta> deltaFromSnapshotStore(final Object rawSnapshot) {
+        if (rawSnapshot instanceof BsonDocument) {
+            final BsonDocument bsonDocument = (BsonDocument) rawSnapshot;
+            if (bsonDocument.containsKey(ThingSnapshotDelta.BASE_SEQUENCE_NR_JSON_KEY)) {
+                return ThingSnapshotDelta.fromJson(DittoBsonJson.getInstance().serialize(bsonDocument));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public JsonObject toThingJson(final Thing thing) {
+        return thing.toJson(thing.getImplementedSchemaVersion(), FieldType.regularOrSpecial());
+    }
+
+    @Override
+    public ThingWithSnapshotTag fromThingJson(final JsonObject thingJson, final SnapshotTag snapshotTag) {
+        return ThingWithSnapshotTag.newInstance(ThingsModelFactory.newThing(thingJson), snapshotTag);
+    }
+
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.serializer;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.json.JsonArray;
+import org.eclipse.ditto.json.JsonArrayBuilder;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonField;
+import org.eclipse.ditto.json.JsonKey;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonParseException;
+import org.eclipse.ditto.json.JsonPatch;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+
+/**
+ * A snapshot of a Thing which is persisted as JSON patches against the JSON of a full snapshot, the base snapshot,
+ * instead of the whole Thing. The Thing is restored by applying the patches to the JSON of the base snapshot.
+ */
+@Immutable
+public final class ThingSnapshotDelta {
+
+    /**
+     * JSON key for the sequence number of the base snapshot.
+     */
+    public static final String BASE_SEQUENCE_NR_JSON_KEY = "__deltaBase";
+
+    /**
+     * JSON key for the number of delta snapshots since the base snapshot including this one.
+     */
+    public static final String INDEX_JSON_KEY = "__deltaIndex";
+
+    /**
+     * JSON key for the patches against the JSON of the base snapshot.
+     */
+    public static final String PATCHES_JSON_KEY = "__delta";
+
+    private final long baseSequenceNr;
+    private final int index;
+    private final SnapshotTag snapshotTag;
+    private final List<JsonPatch> patches;
+
+    private ThingSnapshotDelta(final long baseSequenceNr, final int index, final SnapshotTag snapshotTag,
+            final List<JsonPatch> patches) {
+
+        this.baseSequenceNr = baseSequenceNr;
+        this.index = index;
+        this.snapshotTag = snapshotTag;
+        this.patches = Collections.unmodifiableList(patches);
+    }
+
+    /**
+     * Returns a new instance of {@code ThingSnapshotDelta} with the patches which transform the JSON of the base
+     * snapshot into the JSON of the Thing to be snapshotted.
+     *
+     * @param baseSequenceNr the sequence number of the base snapshot.
+     * @param index the number of delta snapshots since the base snapshot including the returned one.
+     * @param baseJson the JSON of the Thing of the base snapshot.
+     * @param thingJson the JSON of the Thing to be snapshotted.
+     * @param snapshotTag the snapshot tag of the returned delta.
+     * @return the instance.
+     * @throws NullPointerException if any argument is {@code null}.
+     */
+    @Nonnull
+    public static ThingSnapshotDelta newInstance(final long baseSequenceNr, final int index, final JsonObject baseJson,
+            final JsonObject thingJson, final SnapshotTag snapshotTag) {
+
+        checkNotNull(baseJson, "base JSON");
+        checkNotNull(thingJson, "Thing JSON");
+        checkNotNull(snapshotTag, "snapshot tag");
+
+        final List<JsonPatch> patches = new ArrayList<>();
+        appendPatches(JsonPointer.empty(), baseJson, thingJson, patches);
+        return new ThingSnapshotDelta(baseSequenceNr, index, snapshotTag, patches);
+    }
+
+    /**
+     * Returns the {@code ThingSnapshotDelta} which is represented by the specified snapshot JSON.
+     *
+     * @param jsonObject the JSON of a snapshot.
+     * @return the delta or an empty Optional if {@code jsonObject} is the JSON of a full snapshot.
+     * @throws NullPointerException if {@code jsonObject} is {@code null}.
+     * @throws JsonParseException if {@code jsonObject} contains a malformed patch.
+     */
+    @Nonnull
+    public static Optional<ThingSnapshotDelta> fromJson(final JsonObject jsonObject) {
+        checkNotNull(jsonObject, "JSON object");
+        final Optional<JsonValue> baseSequenceNr = jsonObject.getValue(BASE_SEQUENCE_NR_JSON_KEY)
+                .filter(JsonValue::isNumber);
+        if (!baseSequenceNr.isPresent()) {
+            return Optional.empty();
+        }
+        final int index = jsonObject.getValue(INDEX_JSON_KEY)
+                .filter(JsonValue::isNumber)
+                .map(JsonValue::asInt)
+                .orElse(1);
+        final SnapshotTag snapshotTag = jsonObject.getValue(ThingMongoSnapshotAdapter.TAG_JSON_KEY)
+                .filter(JsonValue::isString)
+                .map(JsonValue::asString)
+                .flatMap(SnapshotTag::getValueFor)
+                .orElse(SnapshotTag.UNPROTECTED);
+        final JsonArray patchesArray = jsonObject.getValue(PATCHES_JSON_KEY)
+                .filter(JsonValue::isArray)
+                .map(JsonValue::asArray)
+                .orElseGet(JsonFactory::newArray);
+        final List<JsonPatch> patches = new ArrayList<>(patchesArray.getSize());
+        for (final JsonValue patchValue : patchesArray) {
+            patches.add(patchFromJson(patchValue));
+        }
+        return Optional.of(new ThingSnapshotDelta(baseSequenceNr.get().asLong(), index, snapshotTag, patches));
+    }
+
+    private static JsonPatch patchFromJson(final JsonValue patchValue) {
+        if (!patchValue.isObject()) {
+            throw new JsonParseException("Patch of delta snapshot is not a JSON object: " + patchValue);
+        }
+        final JsonObject patchJson = patchValue.asObject();
+        final JsonPatch.Operation operation = JsonPatch.Operation.fromString(
+                patchJson.getValueOrThrow(JsonPatch.JsonFields.OPERATION))
+                .orElseThrow(() -> new JsonParseException("Unknown operation of delta snapshot patch: " + patchJson));
+        final JsonPointer path = JsonFactory.newPointer(patchJson.getValueOrThrow(JsonPatch.JsonFields.PATH));
+        return JsonFactory.newPatch(operation, path, patchJson.getValue(JsonPatch.JsonFields.VALUE).orElse(null));
+    }
+
+    private static void appendPatches(final JsonPointer path, final JsonObject base, final JsonObject target,
+            final List<JsonPatch> patches) {
+
+        for (final JsonField baseField : base) {
+            final JsonKey key = baseField.getKey();
+            if (!target.contains(key)) {
+                patches.add(JsonFactory.newPatch(JsonPatch.Operation.REMOVE, path.addLeaf(key), null));
+            }
+        }
+        for (final JsonField targetField : target) {
+            final JsonKey key = targetField.getKey();
+            final JsonValue targetValue = targetField.getValue();
+            final Optional<JsonValue> baseValue = base.getValue(key);
+            if (!baseValue.isPresent()) {
+                patches.add(JsonFactory.newPatch(JsonPatch.Operation.ADD, path.addLeaf(key), targetValue));
+            } else if (!baseValue.get().equals(targetValue)) {
+                if (baseValue.get().isObject() && targetValue.isObject() && !targetValue.asObject().isEmpty()) {
+                    appendPatches(path.addLeaf(key), baseValue.get().asObject(), targetValue.asObject(), patches);
+                } else {
+                    patches.add(JsonFactory.newPatch(JsonPatch.Operation.REPLACE, path.addLeaf(key), targetValue));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the sequence number of the base snapshot.
+     *
+     * @return the sequence number.
+     */
+    public long getBaseSequenceNr() {
+        return baseSequenceNr;
+    }
+
+    /**
+     * Returns the number of delta snapshots since the base snapshot including this one.
+     *
+     * @return the index of this delta.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the snapshot tag of this delta.
+     *
+     * @return the snapshot tag.
+     */
+    public SnapshotTag getSnapshotTag() {
+        return snapshotTag;
+    }
+
+    /**
+     * Returns the patches against the JSON of the base snapshot.
+     *
+     * @return the unmodifiable list of patches.
+     */
+    public List<JsonPatch> getPatches() {
+        return patches;
+    }
+
+    /**
+     * Applies the patches of this delta to the JSON of the base snapshot.
+     *
+     * @param baseJson the JSON of the Thing of the base snapshot.
+     * @return the JSON of the snapshotted Thing.
+     * @throws NullPointerException if {@code baseJson} is {@code null}.
+     */
+    public JsonObject applyTo(final JsonObject baseJson) {
+        checkNotNull(baseJson, "base JSON");
+        JsonObject result = baseJson;
+        for (final JsonPatch patch : patches) {
+            if (JsonPatch.Operation.REMOVE == patch.getOperation()) {
+                result = result.remove(patch.getPath());
+            } else {
+                result = result.setValue(patch.getPath(), patch.getValue().orElse(JsonFactory.nullLiteral()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the JSON object representation of this delta.
+     *
+     * @return the JSON object.
+     */
+    public JsonObject toJson() {
+        final JsonArrayBuilder patchesBuilder = JsonFactory.newArrayBuilder();
+        patches.forEach(patch -> patchesBuilder.add(patch.toJson()));
+        return JsonFactory.newObjectBuilder()
+                .set(ThingMongoSnapshotAdapter.TAG_JSON_KEY, snapshotTag.name())
+                .set(BASE_SEQUENCE_NR_JSON_KEY, baseSequenceNr)
+                .set(INDEX_JSON_KEY, index)
+                .set(PATCHES_JSON_KEY, patchesBuilder.build())
+                .build();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ThingSnapshotDelta that = (ThingSnapshotDelta) o;
+        return baseSequenceNr == that.baseSequenceNr &&
+                index == that.index &&
+                snapshotTag == that.snapshotTag &&
+                Objects.equals(patches, that.patches);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseSequenceNr, index, snapshotTag, patches);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [" +
+                "baseSequenceNr=" + baseSequenceNr +
+                ", index=" + index +
+                ", snapshotTag=" + snapshotTag +
+                ", patches=" + patches +
+                "]";
+    }
+
+}
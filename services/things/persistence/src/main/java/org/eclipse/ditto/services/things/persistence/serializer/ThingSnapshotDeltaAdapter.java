@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.serializer;
+
+import java.util.Optional;
+
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.model.things.Thing;
+
+/**
+ * Adapter capable of transforming {@link ThingSnapshotDelta}s to and from the representation of the Snapshot-Store.
+ * A {@link org.eclipse.ditto.services.utils.persistence.SnapshotAdapter} implements this interface if it supports
+ * delta snapshots.
+ */
+public interface ThingSnapshotDeltaAdapter {
+
+    /**
+     * Converts a delta snapshot to the Object which should be persisted into the Snapshot-Store.
+     *
+     * @param delta the delta snapshot.
+     * @return the transformed Database type which should be persisted into Snapshot-Store.
+     */
+    Object toSnapshotStore(ThingSnapshotDelta delta);
+
+    /**
+     * Converts a "database snapshot" to a delta snapshot.
+     *
+     * @param rawSnapshot the snapshot as loaded from the database.
+     * @return the delta snapshot or an empty Optional if {@code rawSnapshot} is a full snapshot.
+     */
+    Optional<ThingSnapshotDelta> deltaFromSnapshotStore(Object rawSnapshot);
+
+    /**
+     * Returns the JSON of the specified Thing which is the base of delta snapshots.
+     *
+     * @param thing the Thing.
+     * @return the JSON of {@code thing} as it is contained in a full snapshot.
+     */
+    JsonObject toThingJson(Thing thing);
+
+    /**
+     * Restores a Thing from the JSON of a base snapshot which a delta snapshot was applied to.
+     *
+     * @param thingJson the JSON of the Thing.
+     * @param snapshotTag the snapshot tag of the delta snapshot.
+     * @return the Thing.
+     */
+    ThingWithSnapshotTag fromThingJson(JsonObject thingJson, SnapshotTag snapshotTag);
+
+}
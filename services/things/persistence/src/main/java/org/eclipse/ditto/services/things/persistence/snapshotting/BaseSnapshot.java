@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.snapshotting;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.services.things.persistence.serializer.SnapshotTag;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingSnapshotDeltaAdapter;
+
+/**
+ * A full snapshot which delta snapshots are based on. The JSON of its Thing is computed when the first delta
+ * snapshot is taken. While delta snapshots are disabled, only the sequence number and tag of the full snapshot are
+ * kept so that it can be deleted once it is superseded.
+ */
+@NotThreadSafe
+final class BaseSnapshot {
+
+    private final long sequenceNr;
+    private final SnapshotTag snapshotTag;
+    @Nullable private final Thing thing;
+    @Nullable private JsonObject thingJson;
+
+    /**
+     * Creates a base snapshot.
+     *
+     * @param sequenceNr The sequence number of the full snapshot.
+     * @param snapshotTag Whether the full snapshot is protected or unprotected.
+     * @param thing The Thing of the full snapshot or null if no delta snapshot is to be based on it.
+     */
+    BaseSnapshot(final long sequenceNr, final SnapshotTag snapshotTag, @Nullable final Thing thing) {
+        this.sequenceNr = sequenceNr;
+        this.snapshotTag = snapshotTag;
+        this.thing = thing;
+        thingJson = null;
+    }
+
+    /**
+     * Creates a base snapshot whose JSON is already known.
+     *
+     * @param sequenceNr The sequence number of the full snapshot.
+     * @param snapshotTag Whether the full snapshot is protected or unprotected.
+     * @param thing The Thing of the full snapshot.
+     * @param thingJson The JSON of {@code thing}.
+     */
+    BaseSnapshot(final long sequenceNr, final SnapshotTag snapshotTag, final Thing thing,
+            final JsonObject thingJson) {
+        this(sequenceNr, snapshotTag, thing);
+        this.thingJson = thingJson;
+    }
+
+    /**
+     * @return The sequence number of the full snapshot.
+     */
+    long getSequenceNr() {
+        return sequenceNr;
+    }
+
+    /**
+     * @return Whether the full snapshot is protected or unprotected.
+     */
+    SnapshotTag getSnapshotTag() {
+        return snapshotTag;
+    }
+
+    /**
+     * @return Whether the Thing of the full snapshot is kept, i. e., whether delta snapshots can be based on it.
+     */
+    boolean hasThing() {
+        return null != thing || null != thingJson;
+    }
+
+    /**
+     * @return A base snapshot with the same sequence number and tag which does not keep the Thing.
+     */
+    BaseSnapshot withoutThing() {
+        return new BaseSnapshot(sequenceNr, snapshotTag, null);
+    }
+
+    /**
+     * @param deltaAdapter Converter of the Thing to the JSON of a full snapshot.
+     * @return The JSON of the Thing of the full snapshot.
+     * @throws IllegalStateException if the Thing is not kept.
+     */
+    JsonObject getThingJson(final ThingSnapshotDeltaAdapter deltaAdapter) {
+        if (null == thingJson) {
+            if (null == thing) {
+                throw new IllegalStateException("The Thing of base snapshot <" + sequenceNr + "> is not kept.");
+            }
+            thingJson = deltaAdapter.toThingJson(thing);
+        }
+        return thingJson;
+    }
+
+    @Override
+    public String toString() {
+        return "seqNr=" + sequenceNr + " tag=" + snapshotTag;
+    }
+
+}
@@ -30,6 +30,8 @@ final class SnapshotterState {
     private final boolean inProgress;
     private final long sequenceNr;
     private final SnapshotTag snapshotTag;
+    private final int deltaIndex;
+    @Nullable private final BaseSnapshot baseSnapshot;
     private final ActorRef sender;
     private final DittoHeaders dittoHeaders;
 
@@ -51,9 +53,30 @@ final class SnapshotterState {
      */
     SnapshotterState(final boolean inProgress, final long sequenceNr, final SnapshotTag snapshotTag,
             @Nullable final ActorRef sender, @Nullable final DittoHeaders dittoHeaders) {
+        this(inProgress, sequenceNr, snapshotTag, 0, null, sender, dittoHeaders);
+    }
+
+    /**
+     * Creates a fully specified snapshotter state of a snapshot which may be a delta snapshot.
+     *
+     * @param inProgress Whether we have initiated snapshotting and are waiting for a response from the snapshot store.
+     * @param sequenceNr The sequence number of the latest ongoing snapshot or the last saved snapshot.
+     * @param snapshotTag Whether the snapshot is protected or unprotected.
+     * @param deltaIndex The number of delta snapshots since the base snapshot including this one or 0 for a full
+     * snapshot.
+     * @param baseSnapshot The full snapshot which the snapshot is based on. For a full snapshot this is the snapshot
+     * itself.
+     * @param sender Who to reply to once snapshotting finishes.
+     * @param dittoHeaders Command headers of the response.
+     */
+    SnapshotterState(final boolean inProgress, final long sequenceNr, final SnapshotTag snapshotTag,
+            final int deltaIndex, @Nullable final BaseSnapshot baseSnapshot, @Nullable final ActorRef sender,
+            @Nullable final DittoHeaders dittoHeaders) {
         this.inProgress = inProgress;
         this.sequenceNr = sequenceNr;
         this.snapshotTag = snapshotTag;
+        this.deltaIndex = deltaIndex;
+        this.baseSnapshot = baseSnapshot;
         this.sender = sender;
         this.dittoHeaders = dittoHeaders;
     }
@@ -86,6 +109,21 @@ final class SnapshotterState {
         return snapshotTag == SnapshotTag.PROTECTED;
     }
 
+    /**
+     * @return The number of delta snapshots since the base snapshot including this one or 0 for a full snapshot.
+     */
+    int getDeltaIndex() {
+        return deltaIndex;
+    }
+
+    /**
+     * @return The full snapshot which the snapshot is based on or null if unknown.
+     */
+    @Nullable
+    BaseSnapshot getBaseSnapshot() {
+        return baseSnapshot;
+    }
+
     /**
      * @return Who to reply to once snapshotting finishes.
      */
@@ -106,6 +144,8 @@ final class SnapshotterState {
     public String toString() {
         return "seqNr=" + sequenceNr +
                 " tag=" + snapshotTag +
+                " deltaIndex=" + deltaIndex +
+                " base=<" + baseSnapshot + ">" +
                 " inProcess=" + inProgress +
                 " sender=" + sender +
                 " dittoHeaders=" + dittoHeaders;
@@ -32,6 +32,8 @@ import org.eclipse.ditto.model.things.Thing;
 import org.eclipse.ditto.services.things.persistence.actors.ThingPersistenceActor;
 import org.eclipse.ditto.services.things.persistence.actors.ThingPersistenceActorInterface;
 import org.eclipse.ditto.services.things.persistence.serializer.SnapshotTag;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingSnapshotDelta;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingSnapshotDeltaAdapter;
 import org.eclipse.ditto.services.things.persistence.serializer.ThingWithSnapshotTag;
 import org.eclipse.ditto.services.things.persistence.strategies.AbstractReceiveStrategy;
 import org.eclipse.ditto.services.things.persistence.strategies.ReceiveStrategy;
@@ -54,6 +56,7 @@ import akka.persistence.DeleteSnapshotSuccess;
 import akka.persistence.Persistence;
 import akka.persistence.SaveSnapshotFailure;
 import akka.persistence.SaveSnapshotSuccess;
+import akka.persistence.SelectedSnapshot;
 import akka.persistence.SnapshotMetadata;
 import akka.persistence.SnapshotOffer;
 import akka.persistence.SnapshotProtocol;
@@ -69,9 +72,16 @@ import scala.concurrent.duration.FiniteDuration;
  * <li>Deletes redundant snapshots and events.</li>
  * <li>Handles responses from the snapshot store and the event journal.</li>
  * </ol>
+ * If delta snapshots are enabled and the snapshot adapter supports them, unprotected snapshots are stored as
+ * {@link ThingSnapshotDelta}s against the last full snapshot until the configured number of delta snapshots is
+ * reached. The full snapshot a delta snapshot is based on is not deleted before the next full snapshot was saved.
+ * A delta snapshot offered during recovery cannot be applied before its base snapshot is loaded; the persistence
+ * actor loads it with {@link #loadBaseSnapshotOfRecoveredDelta()} after recovery without blocking.
  */
 public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandResponse<?>> {
 
+    private static final FiniteDuration DEFAULT_LOAD_SNAPSHOT_TIMEOUT = Duration.create(3000, TimeUnit.MILLISECONDS);
+
     // Messages to send to self.
     private static final class TakeSnapshotInternal {}
 
@@ -87,17 +97,20 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
     protected final ThingPersistenceActorInterface persistenceActor;
 
     private final SnapshotAdapter<ThingWithSnapshotTag> snapshotAdapter;
+    @Nullable private final ThingSnapshotDeltaAdapter deltaAdapter;
     private final boolean snapshotDeleteOld;
     private final boolean eventsDeleteOld;
     @Nullable private final DiagnosticLoggingAdapter log;
     @Nullable private final FiniteDuration snapshotInterval;
     @Nullable private final FiniteDuration saveSnapshotTimeout;
-    @Nullable private final FiniteDuration loadSnapshotTimeout;
+    private final FiniteDuration loadSnapshotTimeout;
     @Nullable private final ActorRef snapshotPlugin;
 
     private SnapshotterState snapshotterState;
     private SnapshotterState lastSaneSnapshotterState;
     private boolean shouldTakeMaintenanceSnapshot;
+    private int maxDeltaSnapshots;
+    @Nullable private ThingSnapshotDelta recoveredDelta;
     @Nullable private Cancellable scheduledMaintenanceSnapshot;
     @Nullable private Cancellable scheduledSnapshotTimeout;
 
@@ -111,7 +124,8 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
      * @param log The logger. If null, nothing is logged.
      * @param snapshotInterval How long to wait between scheduled maintenance snapshots.
      * @param saveSnapshotTimeout How long to wait for the snapshot store before giving up.
-     * @param loadSnapshotTimeout How long to wait for {@code snapshotPlugin} before giving up.
+     * @param loadSnapshotTimeout How long to wait for {@code snapshotPlugin} before giving up. If null, 3 seconds are
+     * used.
      * @param snapshotPlugin The actor from whom old snapshots can be retrieved. If null, no snapshot is retrieved.
      */
     protected ThingSnapshotter(final ThingPersistenceActorInterface persistenceActor,
@@ -125,7 +139,7 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
             @Nullable final ActorRef snapshotPlugin) {
 
         this.saveSnapshotTimeout = saveSnapshotTimeout;
-        this.loadSnapshotTimeout = loadSnapshotTimeout;
+        this.loadSnapshotTimeout = loadSnapshotTimeout != null ? loadSnapshotTimeout : DEFAULT_LOAD_SNAPSHOT_TIMEOUT;
 
         snapshotterState = new SnapshotterState();
         lastSaneSnapshotterState = new SnapshotterState();
@@ -137,11 +151,16 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
         this.eventsDeleteOld = eventsDeleteOld;
 
         this.snapshotAdapter = snapshotAdapter;
+        deltaAdapter = snapshotAdapter instanceof ThingSnapshotDeltaAdapter
+                ? (ThingSnapshotDeltaAdapter) snapshotAdapter
+                : null;
         this.snapshotPlugin = snapshotPlugin;
 
         scheduledMaintenanceSnapshot = null;
         scheduledSnapshotTimeout = null;
         shouldTakeMaintenanceSnapshot = false;
+        maxDeltaSnapshots = 0;
+        recoveredDelta = null;
     }
 
     /**
@@ -170,8 +189,7 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
                 // save-snapshot timeout
                 Duration.create(50000, TimeUnit.MILLISECONDS),
 
-                // load-snapshot timeout
-                Duration.create(3000, TimeUnit.MILLISECONDS),
+                DEFAULT_LOAD_SNAPSHOT_TIMEOUT,
 
                 Persistence.get(persistenceActor.getContext().system())
                         .snapshotStoreFor(persistenceActor.snapshotPluginId(), ConfigFactory.empty()));
@@ -235,6 +253,17 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
         resetMaintenanceSnapshotSchedule();
     }
 
+    /**
+     * Enables storing snapshots as deltas against the last full snapshot. Delta snapshots are only stored if the
+     * snapshot adapter supports them. Existing delta snapshots are recovered regardless of this setting.
+     *
+     * @param maxDeltaSnapshots How many delta snapshots to store before the next full snapshot. 0 disables delta
+     * snapshots.
+     */
+    public void enableDeltaSnapshots(final int maxDeltaSnapshots) {
+        this.maxDeltaSnapshots = maxDeltaSnapshots;
+    }
+
     /**
      * Stop taking maintenance snapshots.
      */
@@ -277,56 +306,163 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
      * snapshot plugin (i. e., the actor from whom old snapshots can be retrieved).
      */
     public CompletionStage<Optional<Thing>> loadSnapshot(final long snapshotRevision) {
-
-        if (snapshotPlugin != null && loadSnapshotTimeout != null) {
-
-            final SnapshotProtocol.LoadSnapshot loadSnapshot = new SnapshotProtocol.LoadSnapshot(
-                    persistenceActor.persistenceId(),
-                    SnapshotSelectionCriteria.create(snapshotRevision, Long.MAX_VALUE),
-                    snapshotRevision);
-
-            final CompletionStage<Optional<Thing>> futureThing =
-                    PatternsCS.ask(snapshotPlugin, loadSnapshot, loadSnapshotTimeout.toMillis())
-                            .thenApply(response -> {
-                                if (response instanceof SnapshotProtocol.LoadSnapshotResult) {
-                                    final SnapshotProtocol.LoadSnapshotResult result =
-                                            (SnapshotProtocol.LoadSnapshotResult) response;
-                                    if (result.snapshot().isDefined()) {
-                                        return Optional.ofNullable(
-                                                snapshotAdapter.fromSnapshotStore(result.snapshot().get()));
-                                    }
-                                }
-                                else if (response instanceof  SnapshotProtocol.LoadSnapshotFailed) {
-                                    doLog(logger -> logger.error("Load Snapshot failed with message - {}",
-                                            ((SnapshotProtocol.LoadSnapshotFailed) response).cause().getMessage()));
-                                }
-                                return Optional.empty();
-                            });
-            return futureThing.exceptionally(error -> Optional.empty());
+        return loadSelectedSnapshot(SnapshotSelectionCriteria.create(snapshotRevision, Long.MAX_VALUE),
+                snapshotRevision)
+                .thenCompose(selectedSnapshot -> selectedSnapshot.map(this::restoreThing)
+                        .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty())))
+                .exceptionally(error -> Optional.empty());
+    }
+
+    private CompletionStage<Optional<SelectedSnapshot>> loadSelectedSnapshot(
+            final SnapshotSelectionCriteria criteria, final long toSequenceNr) {
+
+        if (snapshotPlugin != null) {
+
+            final SnapshotProtocol.LoadSnapshot loadSnapshot =
+                    new SnapshotProtocol.LoadSnapshot(persistenceActor.persistenceId(), criteria, toSequenceNr);
+
+            return PatternsCS.ask(snapshotPlugin, loadSnapshot, loadSnapshotTimeout.toMillis())
+                    .thenApply(response -> {
+                        if (response instanceof SnapshotProtocol.LoadSnapshotResult) {
+                            final SnapshotProtocol.LoadSnapshotResult result =
+                                    (SnapshotProtocol.LoadSnapshotResult) response;
+                            if (result.snapshot().isDefined()) {
+                                return Optional.of(result.snapshot().get());
+                            }
+                        }
+                        else if (response instanceof  SnapshotProtocol.LoadSnapshotFailed) {
+                            doLog(logger -> logger.error("Load Snapshot failed with message - {}",
+                                    ((SnapshotProtocol.LoadSnapshotFailed) response).cause().getMessage()));
+                        }
+                        return Optional.empty();
+                    });
         } else {
             return CompletableFuture.completedFuture(Optional.empty());
         }
     }
 
+    private CompletionStage<Optional<Thing>> restoreThing(final SelectedSnapshot selectedSnapshot) {
+        final Optional<ThingSnapshotDelta> delta = getDelta(selectedSnapshot.snapshot());
+        if (delta.isPresent()) {
+            final ThingSnapshotDelta snapshotDelta = delta.get();
+            return loadBaseSnapshot(snapshotDelta.getBaseSequenceNr())
+                    .thenApply(baseSnapshot -> baseSnapshot.map(base -> applyDelta(snapshotDelta, base)));
+        }
+        final Optional<Thing> thing = Optional.ofNullable(snapshotAdapter.fromSnapshotStore(selectedSnapshot));
+        return CompletableFuture.completedFuture(thing);
+    }
+
+    private CompletionStage<Optional<BaseSnapshot>> loadBaseSnapshot(final long baseSequenceNr) {
+        final SnapshotSelectionCriteria criteria =
+                SnapshotSelectionCriteria.create(baseSequenceNr, Long.MAX_VALUE, baseSequenceNr, 0L);
+        return loadSelectedSnapshot(criteria, baseSequenceNr)
+                .thenApply(selectedSnapshot -> selectedSnapshot
+                        .filter(snapshot -> snapshot.metadata().sequenceNr() == baseSequenceNr)
+                        .map(snapshotAdapter::fromSnapshotStore)
+                        .map(thing -> new BaseSnapshot(baseSequenceNr, thing.getSnapshotTag(), thing)));
+    }
+
+    private Optional<ThingSnapshotDelta> getDelta(final Object rawSnapshot) {
+        return deltaAdapter != null ? deltaAdapter.deltaFromSnapshotStore(rawSnapshot) : Optional.empty();
+    }
+
+    private Thing applyDelta(final ThingSnapshotDelta delta, final BaseSnapshot baseSnapshot) {
+        checkNotNull(deltaAdapter, "delta adapter");
+        return deltaAdapter.fromThingJson(delta.applyTo(baseSnapshot.getThingJson(deltaAdapter)),
+                delta.getSnapshotTag());
+    }
+
     /**
-     * Recovers the passed in {@link SnapshotOffer} to a {@link Thing}.
+     * Recovers the passed in {@link SnapshotOffer} to a {@link Thing}. A delta snapshot cannot be recovered before
+     * its base snapshot is loaded; it is kept until {@link #loadBaseSnapshotOfRecoveredDelta()} and
+     * {@link #recoverThingFromBaseSnapshot(BaseSnapshotLoaded)} are called.
      *
      * @param snapshotOffer the snapshot offer
-     * @return the Thing restored from the snapshot offer or {@code null}.
+     * @return the Thing restored from the snapshot offer or {@code null} if the snapshot offer is empty or a delta
+     * snapshot.
      * @throws NullPointerException if {@code snapshotOffer} is {@code null}.
      */
     @Nullable
     public Thing recoverThingFromSnapshotOffer(@Nonnull final SnapshotOffer snapshotOffer) {
         checkNotNull(snapshotOffer, "snapshot offer");
-        final ThingWithSnapshotTag result = snapshotAdapter.fromSnapshotStore(snapshotOffer);
         final SnapshotMetadata metadata = snapshotOffer.metadata();
+        final Optional<ThingSnapshotDelta> delta = getDelta(snapshotOffer.snapshot());
+        if (delta.isPresent()) {
+            final ThingSnapshotDelta snapshotDelta = delta.get();
+            recoveredDelta = snapshotDelta;
+            snapshotterState = new SnapshotterState(false, metadata.sequenceNr(), snapshotDelta.getSnapshotTag(),
+                    snapshotDelta.getIndex(), null, null, null);
+            return null;
+        }
+        recoveredDelta = null;
+        final ThingWithSnapshotTag result = snapshotAdapter.fromSnapshotStore(snapshotOffer);
         final SnapshotTag snapshotTag = Optional.ofNullable(result)
                 .map(ThingWithSnapshotTag::getSnapshotTag)
                 .orElse(SnapshotTag.UNPROTECTED);
-        snapshotterState = new SnapshotterState(false, metadata.sequenceNr(), snapshotTag, null, null);
+        final BaseSnapshot baseSnapshot =
+                result != null ? newBaseSnapshot(metadata.sequenceNr(), snapshotTag, result) : null;
+        snapshotterState = new SnapshotterState(false, metadata.sequenceNr(), snapshotTag, 0, baseSnapshot, null,
+                null);
+        lastSaneSnapshotterState = snapshotterState;
         return result;
     }
 
+    /**
+     * @return Whether the snapshot offered during recovery is a delta snapshot whose base snapshot is not loaded
+     * yet. Events replayed after such a snapshot can only be applied after
+     * {@link #recoverThingFromBaseSnapshot(BaseSnapshotLoaded)}.
+     */
+    public boolean isAwaitingBaseSnapshot() {
+        return recoveredDelta != null;
+    }
+
+    /**
+     * Loads the base snapshot of the delta snapshot offered during recovery from the snapshot plugin without
+     * blocking. The result is meant to be piped to the persistence actor, which passes it to
+     * {@link #recoverThingFromBaseSnapshot(BaseSnapshotLoaded)}.
+     *
+     * @return A future of the loaded base snapshot. It fails with an {@link IllegalStateException} if the base
+     * snapshot cannot be loaded within the load-snapshot timeout.
+     * @throws IllegalStateException if no delta snapshot was offered during recovery.
+     */
+    public CompletionStage<BaseSnapshotLoaded> loadBaseSnapshotOfRecoveredDelta() {
+        final ThingSnapshotDelta delta = recoveredDelta;
+        if (null == delta) {
+            throw new IllegalStateException("No delta snapshot of Thing <" + persistenceActor.getThingId() +
+                    "> awaits its base snapshot.");
+        }
+        final long baseSequenceNr = delta.getBaseSequenceNr();
+        return loadBaseSnapshot(baseSequenceNr).thenApply(baseSnapshot -> baseSnapshot
+                .map(base -> new BaseSnapshotLoaded(delta, base))
+                .orElseThrow(() -> new IllegalStateException(
+                        String.format("Failed to load base snapshot <%d> of Thing <%s>.", baseSequenceNr,
+                                persistenceActor.getThingId()))));
+    }
+
+    /**
+     * Recovers the Thing of the delta snapshot offered during recovery from its loaded base snapshot.
+     *
+     * @param baseSnapshotLoaded The result of {@link #loadBaseSnapshotOfRecoveredDelta()}.
+     * @return The Thing of the delta snapshot.
+     * @throws NullPointerException if {@code baseSnapshotLoaded} is {@code null}.
+     */
+    public Thing recoverThingFromBaseSnapshot(final BaseSnapshotLoaded baseSnapshotLoaded) {
+        checkNotNull(baseSnapshotLoaded, "loaded base snapshot");
+        final ThingSnapshotDelta delta = baseSnapshotLoaded.delta;
+        final BaseSnapshot baseSnapshot = baseSnapshotLoaded.baseSnapshot;
+        final Thing thing = applyDelta(delta, baseSnapshot);
+        snapshotterState = new SnapshotterState(false, snapshotterState.getSequenceNr(), delta.getSnapshotTag(),
+                delta.getIndex(), maxDeltaSnapshots > 0 ? baseSnapshot : baseSnapshot.withoutThing(), null, null);
+        lastSaneSnapshotterState = snapshotterState;
+        recoveredDelta = null;
+        return thing;
+    }
+
+    // Keeps the Thing of a full snapshot only if delta snapshots may be based on it.
+    private BaseSnapshot newBaseSnapshot(final long sequenceNr, final SnapshotTag snapshotTag, final Thing thing) {
+        return new BaseSnapshot(sequenceNr, snapshotTag, maxDeltaSnapshots > 0 ? thing : null);
+    }
+
     /**
      * Strategies related to snapshotting. A {@link ThingPersistenceActor} activates snapshotting functions by
      * including these strategies in its receive function.
@@ -349,8 +485,10 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
 
     // Bookkeeping after saving a snapshot in the snapshot store. Timeout message is scheduled.
     private void saveSnapshotStarted(final long snapshotSequenceNr, final SnapshotTag snapshotTag,
-            final ActorRef sender, final DittoHeaders dittoHeaders) {
-        snapshotterState = new SnapshotterState(true, snapshotSequenceNr, snapshotTag, sender, dittoHeaders);
+            final int deltaIndex, final BaseSnapshot baseSnapshot, final ActorRef sender,
+            final DittoHeaders dittoHeaders) {
+        snapshotterState = new SnapshotterState(true, snapshotSequenceNr, snapshotTag, deltaIndex, baseSnapshot,
+                sender, dittoHeaders);
         scheduleSaveSnapshotTimeout(snapshotSequenceNr, sender);
     }
 
@@ -389,11 +527,28 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
         doLog(logger -> logger.debug("Attempting to take snapshot for Thing with ID <{}> and sequence number <{}>.",
                 persistenceActor.getThingId(), snapshotSequenceNr));
 
-        final ThingWithSnapshotTag thingWithSnapshotTag = ThingWithSnapshotTag.newInstance(thing, snapshotTag);
-        final Object snapshotSubject = snapshotAdapter.toSnapshotStore(thingWithSnapshotTag);
-        persistenceActor.saveSnapshot(snapshotSubject);
+        final BaseSnapshot baseSnapshot = snapshotterState.getBaseSnapshot();
+        if (deltaAdapter != null && baseSnapshot != null && baseSnapshot.hasThing() &&
+                shouldSaveDeltaSnapshot(snapshotTag)) {
+            final int deltaIndex = snapshotterState.getDeltaIndex() + 1;
+            final ThingSnapshotDelta delta = ThingSnapshotDelta.newInstance(baseSnapshot.getSequenceNr(), deltaIndex,
+                    baseSnapshot.getThingJson(deltaAdapter), deltaAdapter.toThingJson(thing), snapshotTag);
+            persistenceActor.saveSnapshot(deltaAdapter.toSnapshotStore(delta));
 
-        saveSnapshotStarted(snapshotSequenceNr, snapshotTag, sender, dittoHeaders);
+            saveSnapshotStarted(snapshotSequenceNr, snapshotTag, deltaIndex, baseSnapshot, sender, dittoHeaders);
+        } else {
+            final ThingWithSnapshotTag thingWithSnapshotTag = ThingWithSnapshotTag.newInstance(thing, snapshotTag);
+            final Object snapshotSubject = snapshotAdapter.toSnapshotStore(thingWithSnapshotTag);
+            persistenceActor.saveSnapshot(snapshotSubject);
+
+            saveSnapshotStarted(snapshotSequenceNr, snapshotTag, 0,
+                    newBaseSnapshot(snapshotSequenceNr, snapshotTag, thingWithSnapshotTag), sender, dittoHeaders);
+        }
+    }
+
+    // Protected snapshots are always full snapshots because the base snapshot of a delta may be deleted.
+    private boolean shouldSaveDeltaSnapshot(final SnapshotTag snapshotTag) {
+        return snapshotTag == SnapshotTag.UNPROTECTED && snapshotterState.getDeltaIndex() < maxDeltaSnapshots;
     }
 
     /**
@@ -572,7 +727,7 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
                     sender.tell(response, persistenceActor.self());
                 }
 
-                deleteOldSnapshot(lastSaneSnapshotterState.getSequenceNr(), lastSaneSnapshotterState.getSnapshotTag());
+                deleteSupersededSnapshots();
                 deleteEventsOlderThan(newSnapshotSequenceNr);
 
                 // will update lastSaneSnapshotterState. Must be called once all access to lastSaneSnapshotterState
@@ -581,6 +736,21 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
             }
         }
 
+        // Deletes the last saved snapshot unless it is the base of the new delta snapshot and, once a new full
+        // snapshot is saved, the base of the last saved snapshot.
+        private void deleteSupersededSnapshots() {
+            final BaseSnapshot newBaseSnapshot = snapshotterState.getBaseSnapshot();
+            final BaseSnapshot oldBaseSnapshot = lastSaneSnapshotterState.getBaseSnapshot();
+            final long lastSequenceNr = lastSaneSnapshotterState.getSequenceNr();
+            if (newBaseSnapshot == null || newBaseSnapshot.getSequenceNr() != lastSequenceNr) {
+                deleteOldSnapshot(lastSequenceNr, lastSaneSnapshotterState.getSnapshotTag());
+            }
+            if (oldBaseSnapshot != null && oldBaseSnapshot != newBaseSnapshot &&
+                    oldBaseSnapshot.getSequenceNr() != lastSequenceNr) {
+                deleteOldSnapshot(oldBaseSnapshot.getSequenceNr(), oldBaseSnapshot.getSnapshotTag());
+            }
+        }
+
         private void deleteOldSnapshot(final long sequenceNr, final SnapshotTag snapshotTag) {
             // only delete if it's necessary & safe to do so.
             if (snapshotDeleteOld && sequenceNr > 0 && snapshotTag == SnapshotTag.UNPROTECTED) {
@@ -607,7 +777,8 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
         // unstashed. Maintenance snapshot schedule is reset.
         private void saveSnapshotSucceeded() {
             snapshotterState = new SnapshotterState(false, snapshotterState.getSequenceNr(),
-                    snapshotterState.getSnapshotTag(), null, null);
+                    snapshotterState.getSnapshotTag(), snapshotterState.getDeltaIndex(),
+                    snapshotterState.getBaseSnapshot(), null, null);
             lastSaneSnapshotterState = snapshotterState;
             persistenceActor.unstashAll();
             cancelSaveSnapshotTimeout();
@@ -788,4 +959,28 @@ public abstract class ThingSnapshotter<T extends Command<?>, R extends CommandRe
 
     }
 
+    /**
+     * The base snapshot of the delta snapshot offered during recovery, loaded by
+     * {@link #loadBaseSnapshotOfRecoveredDelta()}.
+     */
+    public static final class BaseSnapshotLoaded {
+
+        private final ThingSnapshotDelta delta;
+        private final BaseSnapshot baseSnapshot;
+
+        private BaseSnapshotLoaded(final ThingSnapshotDelta delta, final BaseSnapshot baseSnapshot) {
+            this.delta = delta;
+            this.baseSnapshot = baseSnapshot;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [" +
+                    "baseSnapshot=" + baseSnapshot +
+                    ", deltaIndex=" + delta.getIndex() +
+                    "]";
+        }
+
+    }
+
 }
@@ -37,6 +37,7 @@ import org.eclipse.ditto.model.things.ThingRevision;
 import org.eclipse.ditto.model.things.ThingsModelFactory;
 import org.eclipse.ditto.model.things.assertions.DittoThingsAssertions;
 import org.eclipse.ditto.services.things.persistence.serializer.ThingMongoEventAdapter;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingSnapshotDelta;
 import org.eclipse.ditto.services.things.persistence.testhelper.Assertions;
 import org.eclipse.ditto.services.things.persistence.testhelper.ThingsJournalTestHelper;
 import org.eclipse.ditto.services.things.persistence.testhelper.ThingsSnapshotTestHelper;
@@ -113,6 +114,7 @@ public final class ThingPersistenceActorSnapshottingTest extends PersistenceActo
     private ThingMongoEventAdapter eventAdapter;
     private ThingsJournalTestHelper<ThingEvent> journalTestHelper;
     private ThingsSnapshotTestHelper<Thing> snapshotTestHelper;
+    private ThingsSnapshotTestHelper<String> snapshotKindTestHelper;
     private Map<Class<? extends Command>, BiFunction<Command, Long, ThingEvent>> commandToEventMapperRegistry;
 
     @Rule
@@ -128,7 +130,9 @@ public final class ThingPersistenceActorSnapshottingTest extends PersistenceActo
         snapshotTestHelper = new ThingsSnapshotTestHelper<>(actorSystem,
                 ThingPersistenceActorSnapshottingTest::convertSnapshotDataToThing,
                 ThingPersistenceActorSnapshottingTest::convertDomainIdToPersistenceId);
-
+        snapshotKindTestHelper = new ThingsSnapshotTestHelper<>(actorSystem,
+                ThingPersistenceActorSnapshottingTest::convertSnapshotDataToKind,
+                ThingPersistenceActorSnapshottingTest::convertDomainIdToPersistenceId);
 
         commandToEventMapperRegistry = new HashMap<>();
         commandToEventMapperRegistry.put(CreateThing.class, (command, revision) -> {
@@ -776,6 +780,127 @@ public final class ThingPersistenceActorSnapshottingTest extends PersistenceActo
         };
     }
 
+    /**
+     * Checks that unprotected snapshots are saved as deltas against the last full snapshot once delta snapshots are
+     * enabled.
+     */
+    @Test
+    public void deltaSnapshotIsSavedAgainstLastFullSnapshot() {
+        setup(createDeltaSnapshotTestConfig());
+
+        new TestKit(actorSystem) {
+            {
+                final Thing thing = createThingV2WithRandomId();
+                final String thingId = thing.getId().orElseThrow(IllegalStateException::new);
+
+                final ActorRef underTest = createPersistenceActorFor(thingId);
+
+                underTest.tell(CreateThing.of(thing, null, dittoHeadersV2), getRef());
+                expectMsgClass(CreateThingResponse.class);
+                assertSnapshotKinds(thingId, "full 1");
+
+                modifyAttribute(this, underTest, thing, "bar", 2);
+                assertSnapshotKinds(thingId, "full 1", "delta 2 of 1");
+            }
+        };
+    }
+
+    /**
+     * Checks that a superseded delta snapshot is deleted and that the base snapshot is deleted once the next full
+     * snapshot is saved after the maximum number of delta snapshots.
+     */
+    @Test
+    public void supersededSnapshotsAreDeletedWithDeltaSnapshots() {
+        setup(createDeltaSnapshotTestConfig());
+
+        new TestKit(actorSystem) {
+            {
+                final Thing thing = createThingV2WithRandomId();
+                final String thingId = thing.getId().orElseThrow(IllegalStateException::new);
+
+                final ActorRef underTest = createPersistenceActorFor(thingId);
+
+                underTest.tell(CreateThing.of(thing, null, dittoHeadersV2), getRef());
+                expectMsgClass(CreateThingResponse.class);
+                assertSnapshotKinds(thingId, "full 1");
+
+                modifyAttribute(this, underTest, thing, "bar", 2);
+                assertSnapshotKinds(thingId, "full 1", "delta 2 of 1");
+
+                modifyAttribute(this, underTest, thing, "bar2", 3);
+                assertSnapshotKinds(thingId, "full 1", "delta 3 of 1");
+
+                modifyAttribute(this, underTest, thing, "bar3", 4);
+                assertSnapshotKinds(thingId, "full 4");
+            }
+        };
+    }
+
+    /**
+     * Checks that a Thing is recovered from a delta snapshot and its base snapshot and that further delta snapshots
+     * continue the recovered delta snapshots.
+     */
+    @Test
+    public void thingIsRecoveredFromBaseAndDeltaSnapshot() {
+        setup(createDeltaSnapshotTestConfig());
+
+        new TestKit(actorSystem) {
+            {
+                final Thing thing = createThingV2WithRandomId();
+                final String thingId = thing.getId().orElseThrow(IllegalStateException::new);
+
+                ActorRef underTest = createPersistenceActorFor(thingId);
+
+                underTest.tell(CreateThing.of(thing, null, dittoHeadersV2), getRef());
+                expectMsgClass(CreateThingResponse.class);
+                assertSnapshotKinds(thingId, "full 1");
+
+                final Thing modifiedThing = modifyAttribute(this, underTest, thing, "bar", 2);
+                assertSnapshotKinds(thingId, "full 1", "delta 2 of 1");
+
+                watch(underTest);
+                underTest.tell(PoisonPill.getInstance(), getRef());
+                expectTerminated(underTest);
+                underTest = Retry.untilSuccess(() -> createPersistenceActorFor(thingId));
+
+                final RetrieveThing retrieveThing = RetrieveThing.getBuilder(thingId, dittoHeadersV2)
+                        .withSelectedFields(FIELD_SELECTOR)
+                        .build();
+                underTest.tell(retrieveThing, getRef());
+                final RetrieveThingResponse retrieveThingResponse = expectMsgClass(RetrieveThingResponse.class);
+                assertThingInResponse(retrieveThingResponse.getThing(), modifiedThing, 2);
+
+                modifyAttribute(this, underTest, thing, "bar2", 3);
+                assertSnapshotKinds(thingId, "full 1", "delta 3 of 1");
+            }
+        };
+    }
+
+    private static Config createDeltaSnapshotTestConfig() {
+        return createNewDefaultTestConfig()
+                .withValue(ConfigKeys.Thing.SNAPSHOT_THRESHOLD, ConfigValueFactory.fromAnyRef(0))
+                .withValue(ConfigKeys.Thing.SNAPSHOT_MAX_DELTAS, ConfigValueFactory.fromAnyRef(2));
+    }
+
+    private Thing modifyAttribute(final TestKit testKit, final ActorRef underTest, final Thing thing,
+            final String value, final long revision) {
+
+        final String thingId = thing.getId().orElseThrow(IllegalStateException::new);
+        final Thing thingForModify = ThingsModelFactory.newThingBuilder(thing)
+                .setAttribute(JsonFactory.newPointer("/foo"), JsonValue.of(value))
+                .setRevision(revision)
+                .build();
+        underTest.tell(ModifyThing.of(thingId, thingForModify, null, dittoHeadersV2), testKit.getRef());
+        final ModifyThingResponse modifyThingResponse = testKit.expectMsgClass(ModifyThingResponse.class);
+        ThingCommandAssertions.assertThat(modifyThingResponse).hasStatus(HttpStatusCode.NO_CONTENT);
+        return thingForModify;
+    }
+
+    private void assertSnapshotKinds(final String thingId, final String... expectedSnapshotKinds) {
+        retryOnAssertionError(() -> assertThat(snapshotKindTestHelper.getAllSnapshotsAscending(thingId))
+                .containsExactly(expectedSnapshotKinds));
+    }
+
     private static void assertThingInSnapshot(final Thing actualThing, final Thing expectedThing) {
         assertThingInResponse(actualThing, expectedThing, expectedThing.getRevision().map(ThingRevision::toLong)
                 .orElseThrow(IllegalArgumentException::new));
@@ -870,6 +995,14 @@ public final class ThingPersistenceActorSnapshottingTest extends PersistenceActo
         return thing;
     }
 
+    private static String convertSnapshotDataToKind(final BsonDocument dbObject, final long sequenceNumber) {
+        if (dbObject.containsKey(ThingSnapshotDelta.BASE_SEQUENCE_NR_JSON_KEY)) {
+            return "delta " + sequenceNumber + " of " +
+                    dbObject.getNumber(ThingSnapshotDelta.BASE_SEQUENCE_NR_JSON_KEY).longValue();
+        }
+        return "full " + sequenceNumber;
+    }
+
     private static String convertDomainIdToPersistenceId(final String domainId) {
         return ThingPersistenceActor.PERSISTENCE_ID_PREFIX + domainId;
     }
@@ -28,6 +28,8 @@ import static org.eclipse.ditto.services.things.persistence.actors.ETagTestUtils
 import static org.eclipse.ditto.services.things.persistence.actors.ETagTestUtils.retrieveThingResponse;
 
 import java.time.Instant;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -61,6 +63,9 @@ import org.eclipse.ditto.model.things.ThingBuilder;
 import org.eclipse.ditto.model.things.ThingLifecycle;
 import org.eclipse.ditto.model.things.ThingTooLargeException;
 import org.eclipse.ditto.model.things.ThingsModelFactory;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchRecovery;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchedRecovery;
+import org.eclipse.ditto.services.things.persistence.snapshotting.DittoThingSnapshotter;
 import org.eclipse.ditto.services.utils.test.Retry;
 import org.eclipse.ditto.signals.commands.common.Shutdown;
 import org.eclipse.ditto.signals.commands.common.ShutdownReasonFactory;
@@ -116,6 +121,7 @@ import scala.PartialFunction;
 import scala.concurrent.Await;
 import scala.concurrent.Future;
 import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
 import scala.runtime.BoxedUnit;
 
 /**
@@ -523,6 +529,95 @@ public final class ThingPersistenceActorTest extends PersistenceActorTestBase {
         };
     }
 
+    @Test
+    public void recoverFromPrefetchedState() {
+        final Thing thing = createThingV2WithRandomId();
+        final String thingId = thing.getId().orElse(null);
+        final JsonPointer prefetchedAttribute = JsonPointer.of("prefetched");
+
+        new TestKit(actorSystem) {
+            {
+                final ActorRef persistenceActor = watch(createPersistenceActorFor(thing));
+                persistenceActor.tell(CreateThing.of(thing, null, dittoHeadersV2), getRef());
+                expectMsgClass(CreateThingResponse.class);
+                persistenceActor.tell(PoisonPill.getInstance(), getRef());
+                expectTerminated(persistenceActor);
+
+                // the prefetched event differs from the persisted one to tell which one was recovered
+                final Thing prefetchedThing = thing.setAttribute(prefetchedAttribute, JsonValue.of(true));
+                final SortedMap<Long, ThingEvent> events = new TreeMap<>();
+                events.put(1L, ThingCreated.of(prefetchedThing, 1L, dittoHeadersV2));
+                final ActorRef underTest = actorSystem.actorOf(ThingPersistenceActor.props(thingId, pubSubMediator,
+                        DittoThingSnapshotter::getInstance, PrefetchedRecovery.of(thingId, null, events)));
+
+                underTest.tell(RetrieveThing.of(thingId, dittoHeadersV2), getRef());
+                final RetrieveThingResponse response = expectMsgClass(RetrieveThingResponse.class);
+                assertThat(response.getThing()).hasAttribute(prefetchedAttribute, JsonValue.of(true));
+            }
+        };
+    }
+
+    @Test
+    public void outdatedPrefetchedStateReturnsMessagesForNormalRecovery() {
+        final Thing thing = createThingV2WithRandomId();
+        final String thingId = thing.getId().orElse(null);
+
+        new TestKit(actorSystem) {
+            {
+                createThing(this, thing);
+
+                // the journal contains the event of CreateThing which was not prefetched
+                final ActorRef underTest = childActorOf(ThingPersistenceActor.props(thingId, pubSubMediator,
+                        DittoThingSnapshotter::getInstance, PrefetchedRecovery.of(thingId, null, new TreeMap<>())));
+                final RetrieveThing retrieveThing = RetrieveThing.of(thingId, dittoHeadersV2);
+                underTest.tell(retrieveThing, getRef());
+
+                expectMsg(ThingSupervisorActor.RecoverNormally.INSTANCE);
+                final ThingSupervisorActor.PendingMessage pendingMessage =
+                        expectMsgClass(ThingSupervisorActor.PendingMessage.class);
+                Assertions.assertThat(pendingMessage.getMessage()).isEqualTo(retrieveThing);
+                Assertions.assertThat(pendingMessage.getSender()).isEqualTo(getRef());
+            }
+        };
+    }
+
+    @Test
+    public void supervisorRestartsActorWithOutdatedPrefetchedStateImmediately() {
+        final Thing thing = createThingV2WithRandomId();
+        final String thingId = thing.getId().orElse(null);
+
+        new TestKit(actorSystem) {
+            {
+                createThing(this, thing);
+
+                // a restart after a failure would be delayed by the minimal back off
+                final TestKit recoveryPrefetcher = new TestKit(actorSystem);
+                final ActorRef supervisor = actorSystem.actorOf(ThingSupervisorActor.props(pubSubMediator, java.time.Duration.ofSeconds(30),
+                        java.time.Duration.ofSeconds(60), 0.2,
+                        (id, recovery) -> ThingPersistenceActor.props(id, pubSubMediator,
+                                DittoThingSnapshotter::getInstance, recovery),
+                        recoveryPrefetcher.getRef(), java.time.Duration.ofSeconds(30)), thingId);
+                recoveryPrefetcher.expectMsgClass(PrefetchRecovery.class);
+                recoveryPrefetcher.reply(PrefetchedRecovery.of(thingId, null, new TreeMap<>()));
+
+                supervisor.tell(RetrieveThing.of(thingId, dittoHeadersV2), getRef());
+                supervisor.tell(RetrieveThing.of(thingId, dittoHeadersV2), getRef());
+
+                final FiniteDuration timeout = FiniteDuration.apply(10, TimeUnit.SECONDS);
+                assertThat(expectMsgClass(timeout, RetrieveThingResponse.class).getThing()).hasId(thingId);
+                assertThat(expectMsgClass(timeout, RetrieveThingResponse.class).getThing()).hasId(thingId);
+            }
+        };
+    }
+
+    private void createThing(final TestKit testKit, final Thing thing) {
+        final ActorRef persistenceActor = testKit.watch(createPersistenceActorFor(thing));
+        persistenceActor.tell(CreateThing.of(thing, null, dittoHeadersV2), testKit.getRef());
+        testKit.expectMsgClass(CreateThingResponse.class);
+        persistenceActor.tell(PoisonPill.getInstance(), testKit.getRef());
+        testKit.expectTerminated(persistenceActor);
+    }
+
     @Test
     public void retrieveThingsWithoutThingIdOfActor() {
         final Thing thing = createThingV2WithRandomId();
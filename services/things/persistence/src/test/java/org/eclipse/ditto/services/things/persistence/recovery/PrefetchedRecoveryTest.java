@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.recovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.things.TestConstants;
+import org.eclipse.ditto.signals.events.things.ThingCreated;
+import org.eclipse.ditto.signals.events.things.ThingEvent;
+import org.junit.Test;
+
+import akka.persistence.SnapshotMetadata;
+import akka.persistence.SnapshotOffer;
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+/**
+ * Unit test for {@link PrefetchedRecovery}.
+ */
+public final class PrefetchedRecoveryTest {
+
+    private static final String THING_ID = TestConstants.Thing.THING_ID;
+    private static final SnapshotOffer SNAPSHOT_OFFER =
+            new SnapshotOffer(new SnapshotMetadata("thing:" + THING_ID, 5L, 0L), new Object());
+
+    @Test
+    public void testHashCodeAndEquals() {
+        EqualsVerifier.forClass(PrefetchedRecovery.class)
+                .usingGetClass()
+                .withPrefabValues(SnapshotOffer.class, SNAPSHOT_OFFER,
+                        new SnapshotOffer(new SnapshotMetadata("thing:other", 1L, 0L), new Object()))
+                .verify();
+    }
+
+    @Test
+    public void highestSequenceNrOfNothingIsZero() {
+        final PrefetchedRecovery underTest = PrefetchedRecovery.of(THING_ID, null, Collections.emptySortedMap());
+
+        assertThat(underTest.isAvailable()).isTrue();
+        assertThat(underTest.getHighestSequenceNr()).isZero();
+    }
+
+    @Test
+    public void highestSequenceNrIsThatOfSnapshotWithoutEvents() {
+        final PrefetchedRecovery underTest =
+                PrefetchedRecovery.of(THING_ID, SNAPSHOT_OFFER, Collections.emptySortedMap());
+
+        assertThat(underTest.getHighestSequenceNr()).isEqualTo(5L);
+    }
+
+    @Test
+    public void highestSequenceNrIsThatOfLastEvent() {
+        final ThingEvent event = ThingCreated.of(TestConstants.Thing.THING_V2, 1L, DittoHeaders.empty());
+        final SortedMap<Long, ThingEvent> events = new TreeMap<>();
+        events.put(7L, event);
+        events.put(6L, event);
+
+        final PrefetchedRecovery underTest = PrefetchedRecovery.of(THING_ID, SNAPSHOT_OFFER, events);
+
+        assertThat(underTest.getHighestSequenceNr()).isEqualTo(7L);
+        assertThat(underTest.getEvents().keySet()).containsExactly(6L, 7L);
+    }
+
+    @Test
+    public void unavailableRecoveryHasNoState() {
+        final PrefetchedRecovery underTest = PrefetchedRecovery.unavailable(THING_ID);
+
+        assertThat(underTest.isAvailable()).isFalse();
+        assertThat(underTest.getSnapshotOffer()).isEmpty();
+        assertThat(underTest.getEvents()).isEmpty();
+    }
+
+}
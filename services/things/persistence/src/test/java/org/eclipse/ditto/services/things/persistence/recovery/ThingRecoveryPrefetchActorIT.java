@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.recovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.services.things.persistence.actors.ThingPersistenceActor;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingMongoEventAdapter;
+import org.eclipse.ditto.services.utils.persistence.mongo.DittoMongoClient;
+import org.eclipse.ditto.services.utils.persistence.mongo.MongoClientWrapper;
+import org.eclipse.ditto.services.utils.test.mongo.MongoDbResource;
+import org.eclipse.ditto.signals.events.things.AttributeModified;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.ExtendedActorSystem;
+import akka.contrib.persistence.mongodb.JournallingFieldNames$;
+import akka.persistence.SnapshotOffer;
+import akka.persistence.journal.Tagged;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link ThingRecoveryPrefetchActor} against an embedded MongoDB.
+ */
+public final class ThingRecoveryPrefetchActorIT {
+
+    private static final Duration EXPECT_MESSAGE_TIMEOUT = Duration.ofSeconds(10);
+    private static final String DATABASE_NAME = "thingRecoveryPrefetchIT";
+    private static final String JOURNAL_COLLECTION = "things_journal";
+    private static final String SNAPSHOT_COLLECTION = "things_snaps";
+    private static final int MAX_EVENTS = 3;
+
+    private static final String PROCESSOR_ID = JournallingFieldNames$.MODULE$.PROCESSOR_ID();
+    private static final String SEQUENCE_NUMBER = JournallingFieldNames$.MODULE$.SEQUENCE_NUMBER();
+    private static final String FROM = JournallingFieldNames$.MODULE$.FROM();
+    private static final String TO = JournallingFieldNames$.MODULE$.TO();
+    private static final String EVENTS = JournallingFieldNames$.MODULE$.EVENTS();
+    private static final String PAYLOAD = JournallingFieldNames$.MODULE$.PayloadKey();
+    private static final String PAYLOAD_TYPE = JournallingFieldNames$.MODULE$.TYPE();
+
+    private static MongoDbResource mongoResource;
+    private static DittoMongoClient mongoClient;
+
+    private ActorSystem actorSystem;
+    private ActorMaterializer materializer;
+    private ThingMongoEventAdapter eventAdapter;
+
+    @BeforeClass
+    public static void startMongoResource() {
+        mongoResource = new MongoDbResource("localhost");
+        mongoResource.start();
+        mongoClient = MongoClientWrapper.getBuilder()
+                .hostnameAndPort(mongoResource.getBindIp(), mongoResource.getPort())
+                .defaultDatabaseName(DATABASE_NAME)
+                .connectionPoolMaxSize(100)
+                .connectionPoolMaxWaitQueueSize(500_000)
+                .connectionPoolMaxWaitTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @AfterClass
+    public static void stopMongoResource() {
+        try {
+            if (null != mongoClient) {
+                mongoClient.close();
+            }
+            if (null != mongoResource) {
+                mongoResource.stop();
+            }
+        } catch (final IllegalStateException e) {
+            System.err.println("IllegalStateException during shutdown of MongoDB: " + e.getMessage());
+        }
+    }
+
+    @Before
+    public void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", ConfigFactory.load("test"));
+        materializer = ActorMaterializer.create(actorSystem);
+        eventAdapter = new ThingMongoEventAdapter((ExtendedActorSystem) actorSystem);
+    }
+
+    @After
+    public void tearDown() {
+        runBlocking(Source.fromPublisher(mongoClient.getDefaultDatabase().getCollection(JOURNAL_COLLECTION).drop()));
+        runBlocking(Source.fromPublisher(mongoClient.getDefaultDatabase().getCollection(SNAPSHOT_COLLECTION).drop()));
+        if (null != actorSystem) {
+            TestKit.shutdownActorSystem(actorSystem);
+        }
+    }
+
+    @Test
+    public void prefetchesLatestSnapshotAndTheEventsPersistedAfterIt() {
+        final String thingId = "org.eclipse.ditto:prefetched";
+        insertSnapshot(thingId, 1L);
+        insertSnapshot(thingId, 3L);
+        insertEvents(thingId, 1L, 2L);
+        insertEvents(thingId, 3L, 4L, 5L);
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+
+            final PrefetchedRecovery recovery = expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class);
+            assertThat(recovery.getThingId()).isEqualTo(thingId);
+            assertThat(recovery.isAvailable()).isTrue();
+            assertThat(recovery.getSnapshotOffer().map(offer -> offer.metadata().sequenceNr())).contains(3L);
+            assertThat(recovery.getSnapshotOffer().map(SnapshotOffer::snapshot)).contains(snapshotOf(thingId, 3L));
+            assertThat(recovery.getEvents().keySet()).containsExactly(4L, 5L);
+            assertThat(recovery.getEvents().get(5L)).isInstanceOfSatisfying(AttributeModified.class, event ->
+                    assertThat(event.getAttributeValue()).isEqualTo(JsonValue.of(5L)));
+            assertThat(recovery.getHighestSequenceNr()).isEqualTo(5L);
+        }};
+    }
+
+    @Test
+    public void prefetchesEventsOfThingWithoutSnapshot() {
+        final String thingId = "org.eclipse.ditto:withoutSnapshot";
+        insertEvents(thingId, 1L, 2L);
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+
+            final PrefetchedRecovery recovery = expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class);
+            assertThat(recovery.isAvailable()).isTrue();
+            assertThat(recovery.getSnapshotOffer()).isEmpty();
+            assertThat(recovery.getEvents().keySet()).containsExactly(1L, 2L);
+        }};
+    }
+
+    @Test
+    public void answersAllThingsOfOneBatchAndOnlyWithTheirOwnState() {
+        final String thingId = "org.eclipse.ditto:batched";
+        final String otherThingId = "org.eclipse.ditto:batchedOther";
+        insertSnapshot(thingId, 2L);
+        insertEvents(thingId, 1L, 2L, 3L);
+        insertEvents(otherThingId, 1L);
+
+        new TestKit(actorSystem) {{
+            final TestKit otherRequester = new TestKit(actorSystem);
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+            underTest.tell(PrefetchRecovery.of(otherThingId), otherRequester.getRef());
+
+            final PrefetchedRecovery recovery = expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class);
+            assertThat(recovery.getThingId()).isEqualTo(thingId);
+            assertThat(recovery.getEvents().keySet()).containsExactly(3L);
+
+            final PrefetchedRecovery otherRecovery =
+                    otherRequester.expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class);
+            assertThat(otherRecovery.getThingId()).isEqualTo(otherThingId);
+            assertThat(otherRecovery.getSnapshotOffer()).isEmpty();
+            assertThat(otherRecovery.getEvents().keySet()).containsExactly(1L);
+        }};
+    }
+
+    @Test
+    public void thingWithoutPersistedStateIsAvailableAndEmpty() {
+        final String thingId = "org.eclipse.ditto:unknown";
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+
+            final PrefetchedRecovery recovery = expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class);
+            assertThat(recovery.isAvailable()).isTrue();
+            assertThat(recovery.getSnapshotOffer()).isEmpty();
+            assertThat(recovery.getEvents()).isEmpty();
+            assertThat(recovery.getHighestSequenceNr()).isZero();
+        }};
+    }
+
+    @Test
+    public void thingWithTooManyEventsIsUnavailable() {
+        final String thingId = "org.eclipse.ditto:tooManyEvents";
+        insertSnapshot(thingId, 1L);
+        insertEvents(thingId, 2L, 3L);
+        insertEvents(thingId, 4L, 5L, 6L);
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+
+            expectMsg(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.unavailable(thingId));
+        }};
+    }
+
+    @Test
+    public void thingWithUnreadableEventIsUnavailable() {
+        final String thingId = "org.eclipse.ditto:unreadableEvent";
+        insertEvents(thingId, 1L);
+        insertJournalDocument(thingId, 2L, 2L, new BsonArray(Arrays.asList(new BsonDocument()
+                .append(SEQUENCE_NUMBER, new BsonInt64(2L))
+                .append(PAYLOAD_TYPE, new BsonString("repr"))
+                .append(PAYLOAD, new BsonString("not bson")))));
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest = actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(
+                    mongoResource.getPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+
+            expectMsg(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.unavailable(thingId));
+        }};
+    }
+
+    @Test
+    public void failedQueryAnswersAllRequestersWithUnavailable() throws IOException {
+        final String thingId = "org.eclipse.ditto:failedQuery";
+        final String otherThingId = "org.eclipse.ditto:failedQueryOther";
+
+        new TestKit(actorSystem) {{
+            final ActorRef underTest =
+                    actorSystem.actorOf(ThingRecoveryPrefetchActor.props(createConfig(getUnusedPort())));
+
+            underTest.tell(PrefetchRecovery.of(thingId), getRef());
+            underTest.tell(PrefetchRecovery.of(otherThingId), getRef());
+
+            final List<PrefetchedRecovery> recoveries = new ArrayList<>();
+            recoveries.add(expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class));
+            recoveries.add(expectMsgClass(EXPECT_MESSAGE_TIMEOUT, PrefetchedRecovery.class));
+            assertThat(recoveries).containsExactlyInAnyOrder(PrefetchedRecovery.unavailable(thingId),
+                    PrefetchedRecovery.unavailable(otherThingId));
+        }};
+    }
+
+    private static Config createConfig(final int mongoPort) {
+        // fail fast if no MongoDB is listening on the port
+        final String mongoUri = String.format("\"mongodb://%s:%d/%s?serverSelectionTimeoutMS=1000\"",
+                mongoResource.getBindIp(), mongoPort, DATABASE_NAME);
+        return ConfigFactory.parseString("ditto.services-utils-config.mongodb.uri=" + mongoUri + "\n" +
+                ThingPersistenceActor.JOURNAL_PLUGIN_ID + ".overrides.journal-collection=" + JOURNAL_COLLECTION + "\n" +
+                ThingPersistenceActor.SNAPSHOT_PLUGIN_ID + ".overrides.snaps-collection=" + SNAPSHOT_COLLECTION + "\n" +
+                "ditto.things.thing.recovery-prefetch {\n" +
+                "  batch-size = 10\n" +
+                "  batch-interval = 100ms\n" +
+                "  parallelism = 2\n" +
+                "  max-events = " + MAX_EVENTS + "\n" +
+                "}\n");
+    }
+
+    private static int getUnusedPort() throws IOException {
+        try (final ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    private static BsonDocument snapshotOf(final String thingId, final long sequenceNr) {
+        return new BsonDocument()
+                .append("thingId", new BsonString(thingId))
+                .append("_revision", new BsonInt64(sequenceNr));
+    }
+
+    private static AttributeModified attributeModified(final String thingId, final long revision) {
+        return AttributeModified.of(thingId, JsonPointer.of("counter"), JsonValue.of(revision), revision,
+                DittoHeaders.empty());
+    }
+
+    private void insertSnapshot(final String thingId, final long sequenceNr) {
+        final BsonDocument document = new BsonDocument()
+                .append(PROCESSOR_ID, new BsonString(ThingPersistenceActor.PERSISTENCE_ID_PREFIX + thingId))
+                .append(SEQUENCE_NUMBER, new BsonInt64(sequenceNr))
+                .append("ts", new BsonInt64(System.currentTimeMillis()))
+                .append("s2", snapshotOf(thingId, sequenceNr));
+        runBlocking(Source.fromPublisher(mongoClient.getDefaultDatabase()
+                .getCollection(SNAPSHOT_COLLECTION, BsonDocument.class)
+                .insertOne(document)));
+    }
+
+    /**
+     * Inserts one journal document with an atomic write of the passed events, like the persistence plugin does for
+     * {@code persistAll}.
+     */
+    private void insertEvents(final String thingId, final long... sequenceNrs) {
+        final BsonArray events = new BsonArray();
+        for (final long sequenceNr : sequenceNrs) {
+            final BsonValue payload = (BsonValue) ((Tagged) eventAdapter.toJournal(
+                    attributeModified(thingId, sequenceNr))).payload();
+            events.add(new BsonDocument()
+                    .append(SEQUENCE_NUMBER, new BsonInt64(sequenceNr))
+                    .append(PAYLOAD_TYPE, new BsonString("bson"))
+                    .append(PAYLOAD, payload));
+        }
+        insertJournalDocument(thingId, sequenceNrs[0], sequenceNrs[sequenceNrs.length - 1], events);
+    }
+
+    private void insertJournalDocument(final String thingId, final long from, final long to,
+            final BsonArray events) {
+
+        final BsonDocument document = new BsonDocument()
+                .append(PROCESSOR_ID, new BsonString(ThingPersistenceActor.PERSISTENCE_ID_PREFIX + thingId))
+                .append(FROM, new BsonInt64(from))
+                .append(TO, new BsonInt64(to))
+                .append(EVENTS, events);
+        runBlocking(Source.fromPublisher(mongoClient.getDefaultDatabase()
+                .getCollection(JOURNAL_COLLECTION, BsonDocument.class)
+                .insertOne(document)));
+    }
+
+    private void runBlocking(final Source<?, ?> source) {
+        source.runWith(Sink.ignore(), materializer).toCompletableFuture().join();
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.things.TestConstants;
+import org.eclipse.ditto.model.things.Thing;
+import org.junit.Before;
+import org.junit.Test;
+
+import akka.persistence.SnapshotMetadata;
+import akka.persistence.SnapshotOffer;
+
+/**
+ * Unit test for {@link ThingSnapshotDelta}.
+ */
+public final class ThingSnapshotDeltaTest {
+
+    private static final long BASE_SEQUENCE_NR = 42L;
+
+    private ThingMongoSnapshotAdapter snapshotAdapter = null;
+
+    @Before
+    public void setUp() {
+        snapshotAdapter = new ThingMongoSnapshotAdapter();
+    }
+
+    @Test
+    public void applyToBaseRestoresModifiedThing() {
+        final Thing baseThing = TestConstants.Thing.THING_V2;
+        final Thing modifiedThing = baseThing
+                .setAttribute(JsonPointer.of("location/latitude"), JsonValue.of(1.5))
+                .setAttribute(JsonPointer.of("added/nested"), JsonValue.nullLiteral())
+                .removeAttribute(JsonPointer.of("maker"))
+                .setFeatureProperty(TestConstants.Feature.FLUX_CAPACITOR_ID, JsonPointer.of("target_year_1"),
+                        JsonValue.of(2015))
+                .setPolicyId("org.eclipse.ditto:otherPolicy");
+        final JsonObject baseJson = snapshotAdapter.toThingJson(baseThing);
+        final JsonObject modifiedJson = snapshotAdapter.toThingJson(modifiedThing);
+
+        final ThingSnapshotDelta underTest =
+                ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 1, baseJson, modifiedJson, SnapshotTag.UNPROTECTED);
+
+        assertThat(underTest.applyTo(baseJson)).isEqualTo(modifiedJson);
+    }
+
+    @Test
+    public void deltaOfEqualThingsHasNoPatches() {
+        final JsonObject baseJson = snapshotAdapter.toThingJson(TestConstants.Thing.THING_V2);
+
+        final ThingSnapshotDelta underTest =
+                ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 1, baseJson, baseJson, SnapshotTag.UNPROTECTED);
+
+        assertThat(underTest.getPatches()).isEmpty();
+        assertThat(underTest.applyTo(baseJson)).isEqualTo(baseJson);
+    }
+
+    @Test
+    public void roundTripThroughSnapshotStore() {
+        final JsonObject baseJson = snapshotAdapter.toThingJson(TestConstants.Thing.THING_V2);
+        final JsonObject modifiedJson = baseJson.setValue("/attributes/maker", "ACME")
+                .remove("/features/" + TestConstants.Feature.FLUX_CAPACITOR_ID + "/definition");
+        final ThingSnapshotDelta delta =
+                ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 3, baseJson, modifiedJson, SnapshotTag.UNPROTECTED);
+
+        final Object rawSnapshot = snapshotAdapter.toSnapshotStore(delta);
+
+        assertThat(snapshotAdapter.deltaFromSnapshotStore(rawSnapshot)).contains(delta);
+    }
+
+    @Test
+    public void fullSnapshotIsNoDelta() {
+        final Object rawSnapshot = snapshotAdapter.toSnapshotStore(
+                ThingWithSnapshotTag.newInstance(TestConstants.Thing.THING_V2, SnapshotTag.UNPROTECTED));
+
+        assertThat(snapshotAdapter.deltaFromSnapshotStore(rawSnapshot)).isEmpty();
+        assertThat(ThingSnapshotDelta.fromJson(JsonFactory.newObject())).isEmpty();
+    }
+
+    @Test
+    public void deltaSnapshotIsNotRestoredAsThing() {
+        final JsonObject baseJson = snapshotAdapter.toThingJson(TestConstants.Thing.THING_V2);
+        final Object rawSnapshot = snapshotAdapter.toSnapshotStore(
+                ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 1, baseJson, baseJson, SnapshotTag.UNPROTECTED));
+
+        final SnapshotOffer snapshotOffer =
+                new SnapshotOffer(new SnapshotMetadata("thing:delta", BASE_SEQUENCE_NR + 1, 0), rawSnapshot);
+
+        assertThat(snapshotAdapter.fromSnapshotStore(snapshotOffer)).isNull();
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.things.persistence.serializer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonPointer;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.model.things.ThingBuilder;
+import org.eclipse.ditto.model.things.ThingsModelFactory;
+import org.eclipse.ditto.services.things.persistence.serializer.SnapshotTag;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingMongoSnapshotAdapter;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingSnapshotDelta;
+import org.eclipse.ditto.services.things.persistence.serializer.ThingWithSnapshotTag;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import akka.persistence.SelectedSnapshot;
+import akka.persistence.SnapshotMetadata;
+
+/**
+ * JMH Benchmark comparing full snapshots with delta snapshots of a large Thing of which a few feature properties
+ * were modified since the base snapshot. The snapshots are encoded to BSON bytes as they are written to MongoDB; the
+ * write benchmarks report the number of encoded bytes as secondary result {@code bytes}, which divided by the number
+ * of operations is the size of one snapshot.
+ */
+@State(Scope.Benchmark)
+public class ThingSnapshotDeltaBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final String THING_ID = "org.eclipse.ditto.benchmark:myThing";
+    private static final int NUMBER_OF_PROPERTIES = 100;
+    private static final int NUMBER_OF_MODIFIED_PROPERTIES = 10;
+    private static final long BASE_SEQUENCE_NR = 500L;
+
+    @Param({"10", "100", "1000"})
+    public int numberOfFeatures;
+
+    private ThingMongoSnapshotAdapter snapshotAdapter;
+    private JsonObject baseJson;
+    private ThingWithSnapshotTag thing;
+    private SelectedSnapshot fullSnapshot;
+    private SelectedSnapshot baseSnapshot;
+    private SelectedSnapshot deltaSnapshot;
+
+    @Setup
+    public void setUp() {
+        snapshotAdapter = new ThingMongoSnapshotAdapter();
+        final Thing baseThing = createThing(numberOfFeatures);
+        baseJson = snapshotAdapter.toThingJson(baseThing);
+
+        Thing modifiedThing = baseThing;
+        for (int i = 0; i < NUMBER_OF_MODIFIED_PROPERTIES; i++) {
+            modifiedThing = modifiedThing.setFeatureProperty("feature" + (i * numberOfFeatures /
+                            NUMBER_OF_MODIFIED_PROPERTIES), JsonPointer.of("counter" + i), JsonValue.of(-i));
+        }
+        thing = ThingWithSnapshotTag.newInstance(modifiedThing, SnapshotTag.UNPROTECTED);
+
+        final BsonDocument fullDocument = (BsonDocument) snapshotAdapter.toSnapshotStore(thing);
+        final BsonDocument deltaDocument = (BsonDocument) snapshotAdapter.toSnapshotStore(
+                ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 1, baseJson, snapshotAdapter.toThingJson(thing),
+                        SnapshotTag.UNPROTECTED));
+        fullSnapshot = selectedSnapshot(BASE_SEQUENCE_NR + 100L, fullDocument);
+        baseSnapshot = selectedSnapshot(BASE_SEQUENCE_NR,
+                snapshotAdapter.toSnapshotStore(ThingWithSnapshotTag.newInstance(baseThing, SnapshotTag.UNPROTECTED)));
+        deltaSnapshot = selectedSnapshot(BASE_SEQUENCE_NR + 100L, deltaDocument);
+    }
+
+    private static Thing createThing(final int numberOfFeatures) {
+        final ThingBuilder.FromScratch thingBuilder = Thing.newBuilder()
+                .setId(THING_ID)
+                .setPolicyId(THING_ID)
+                .setRevision(BASE_SEQUENCE_NR);
+        for (int i = 0; i < numberOfFeatures; i++) {
+            final JsonObjectBuilder properties = JsonFactory.newObjectBuilder();
+            for (int j = 0; j < NUMBER_OF_PROPERTIES / 2; j++) {
+                properties.set("property" + j, "value-" + i + "-" + j)
+                        .set("counter" + j, i * j);
+            }
+            thingBuilder.setFeature(ThingsModelFactory.newFeature("feature" + i,
+                    ThingsModelFactory.newFeatureProperties(properties.build())));
+        }
+        return thingBuilder.build();
+    }
+
+    private static SelectedSnapshot selectedSnapshot(final long sequenceNr, final Object snapshot) {
+        return SelectedSnapshot.create(new SnapshotMetadata(THING_ID, sequenceNr, 0L), snapshot);
+    }
+
+    private static RawBsonDocument encode(final BsonDocument document) {
+        return new RawBsonDocument(document, new BsonDocumentCodec());
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public RawBsonDocument writeFullSnapshot(final WrittenBytes writtenBytes) {
+        return writtenBytes.count(encode((BsonDocument) snapshotAdapter.toSnapshotStore(thing)));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public RawBsonDocument writeDeltaSnapshot(final WrittenBytes writtenBytes) {
+        final ThingSnapshotDelta delta = ThingSnapshotDelta.newInstance(BASE_SEQUENCE_NR, 1, baseJson,
+                snapshotAdapter.toThingJson(thing), SnapshotTag.UNPROTECTED);
+        return writtenBytes.count(encode((BsonDocument) snapshotAdapter.toSnapshotStore(delta)));
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Thing recoverFromFullSnapshot() {
+        return snapshotAdapter.fromSnapshotStore(fullSnapshot);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Thing recoverFromDeltaSnapshot() {
+        final ThingWithSnapshotTag base = snapshotAdapter.fromSnapshotStore(baseSnapshot);
+        final ThingSnapshotDelta delta = snapshotAdapter.deltaFromSnapshotStore(deltaSnapshot.snapshot())
+                .orElseThrow(IllegalStateException::new);
+        return snapshotAdapter.fromThingJson(delta.applyTo(snapshotAdapter.toThingJson(base)),
+                delta.getSnapshotTag());
+    }
+
+    /**
+     * Counts the encoded bytes of the written snapshots of one iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WrittenBytes {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0L;
+        }
+
+        private RawBsonDocument count(final RawBsonDocument document) {
+            bytes += document.getByteBuffer().remaining();
+            return document;
+        }
+
+    }
+
+}
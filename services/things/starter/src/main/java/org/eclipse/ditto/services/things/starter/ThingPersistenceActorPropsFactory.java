@@ -17,9 +17,11 @@ import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
 
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.eclipse.ditto.services.things.persistence.actors.ThingPersistenceActor;
+import org.eclipse.ditto.services.things.persistence.recovery.PrefetchedRecovery;
 import org.eclipse.ditto.services.things.persistence.snapshotting.ThingSnapshotter;
 
 import akka.actor.ActorRef;
@@ -70,4 +72,20 @@ final class ThingPersistenceActorPropsFactory implements Function<String, Props>
         return ThingPersistenceActor.props(thingId, pubSubMediator, thingSnapshotterCreate);
     }
 
+    /**
+     * Returns the Props of the {@link ThingPersistenceActor} which manages a thing with the specified ID and
+     * recovers from the specified prefetched state.
+     *
+     * @param thingId identifier of the thing the ThingPersistenceActor manages.
+     * @param prefetchedRecovery the prefetched recovery state or {@code null} for normal recovery.
+     * @return the Props.
+     * @throws NullPointerException if {@code thingId} is {@code null}.
+     * @throws IllegalArgumentException if {@code thingId} is empty.
+     */
+    public Props apply(final String thingId, @Nullable final PrefetchedRecovery prefetchedRecovery) {
+        argumentNotEmpty(thingId, "thing ID");
+
+        return ThingPersistenceActor.props(thingId, pubSubMediator, thingSnapshotterCreate, prefetchedRecovery);
+    }
+
 }
@@ -21,6 +21,8 @@ import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletionStage;
 
+import javax.annotation.Nullable;
+
 import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.services.base.config.HealthConfigReader;
 import org.eclipse.ditto.services.base.config.HttpConfigReader;
@@ -29,6 +31,7 @@ import org.eclipse.ditto.services.models.things.ThingsMessagingConstants;
 import org.eclipse.ditto.services.things.persistence.actors.ThingNamespaceOpsActor;
 import org.eclipse.ditto.services.things.persistence.actors.ThingSupervisorActor;
 import org.eclipse.ditto.services.things.persistence.actors.ThingsPersistenceStreamingActorCreator;
+import org.eclipse.ditto.services.things.persistence.recovery.ThingRecoveryPrefetchActor;
 import org.eclipse.ditto.services.things.persistence.snapshotting.ThingSnapshotter;
 import org.eclipse.ditto.services.things.starter.util.ConfigKeys;
 import org.eclipse.ditto.services.utils.akka.LogUtil;
@@ -151,7 +154,11 @@ final class ThingsRootActor extends AbstractActor {
         final int numberOfShards = configReader.cluster().numberOfShards();
         final Config config = configReader.getRawConfig();
 
-        final Props thingSupervisorProps = getThingSupervisorActorProps(config, pubSubMediator, thingSnapshotterCreate);
+        final ActorRef recoveryPrefetcher = config.getBoolean(ConfigKeys.Thing.RECOVERY_PREFETCH_ENABLED)
+                ? startChildActor(ThingRecoveryPrefetchActor.ACTOR_NAME, ThingRecoveryPrefetchActor.props(config))
+                : null;
+        final Props thingSupervisorProps =
+                getThingSupervisorActorProps(config, pubSubMediator, thingSnapshotterCreate, recoveryPrefetcher);
 
         final ClusterShardingSettings shardingSettings =
                 ClusterShardingSettings.create(getContext().system())
@@ -278,14 +285,18 @@ final class ThingsRootActor extends AbstractActor {
     }
 
     private static Props getThingSupervisorActorProps(final Config config, final ActorRef pubSubMediator,
-            final ThingSnapshotter.Create thingSnapshotterCreate) {
+            final ThingSnapshotter.Create thingSnapshotterCreate, @Nullable final ActorRef recoveryPrefetcher) {
 
         final Duration minBackOff = config.getDuration(ConfigKeys.Thing.SUPERVISOR_EXPONENTIAL_BACKOFF_MIN);
         final Duration maxBackOff = config.getDuration(ConfigKeys.Thing.SUPERVISOR_EXPONENTIAL_BACKOFF_MAX);
         final double randomFactor = config.getDouble(ConfigKeys.Thing.SUPERVISOR_EXPONENTIAL_BACKOFF_RANDOM_FACTOR);
 
-        return ThingSupervisorActor.props(pubSubMediator, minBackOff, maxBackOff, randomFactor,
-                ThingPersistenceActorPropsFactory.getInstance(pubSubMediator, thingSnapshotterCreate));
+        final Duration prefetchTimeout = config.getDuration(ConfigKeys.Thing.RECOVERY_PREFETCH_TIMEOUT);
+        final ThingPersistenceActorPropsFactory propsFactory =
+                ThingPersistenceActorPropsFactory.getInstance(pubSubMediator, thingSnapshotterCreate);
+
+        return ThingSupervisorActor.props(pubSubMediator, minBackOff, maxBackOff, randomFactor, propsFactory::apply,
+                recoveryPrefetcher, prefetchTimeout);
     }
 
 }
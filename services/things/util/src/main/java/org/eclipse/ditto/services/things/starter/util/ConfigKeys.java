@@ -49,6 +49,8 @@ public final class ConfigKeys {
 
         private static final String SNAPSHOT_PREFIX = PREFIX + "snapshot.";
 
+        private static final String RECOVERY_PREFETCH_PREFIX = PREFIX + "recovery-prefetch.";
+
         /**
          * The random factor of the exponential back-off strategy.
          */
@@ -85,6 +87,43 @@ public final class ConfigKeys {
          */
         public static final String SNAPSHOT_INTERVAL = SNAPSHOT_PREFIX + "interval";
 
+        /**
+         * How many snapshots are stored as deltas against the last full snapshot before the next full snapshot is
+         * stored. 0 disables delta snapshots.
+         */
+        public static final String SNAPSHOT_MAX_DELTAS = SNAPSHOT_PREFIX + "max-deltas";
+
+        /**
+         * Whether the recovery state of starting Thing persistence actors is loaded in batches ahead of their start.
+         */
+        public static final String RECOVERY_PREFETCH_ENABLED = RECOVERY_PREFETCH_PREFIX + "enabled";
+
+        /**
+         * The maximum number of Things whose recovery state is loaded with one batch of queries.
+         */
+        public static final String RECOVERY_PREFETCH_BATCH_SIZE = RECOVERY_PREFETCH_PREFIX + "batch-size";
+
+        /**
+         * How long requests of starting Things are collected before a batch which is not full is loaded.
+         */
+        public static final String RECOVERY_PREFETCH_BATCH_INTERVAL = RECOVERY_PREFETCH_PREFIX + "batch-interval";
+
+        /**
+         * The maximum number of batches loaded in parallel.
+         */
+        public static final String RECOVERY_PREFETCH_PARALLELISM = RECOVERY_PREFETCH_PREFIX + "parallelism";
+
+        /**
+         * The maximum number of events after the latest snapshot of a Thing to prefetch. Things with more events
+         * recover normally.
+         */
+        public static final String RECOVERY_PREFETCH_MAX_EVENTS = RECOVERY_PREFETCH_PREFIX + "max-events";
+
+        /**
+         * How long a starting Thing waits for its prefetched recovery state before it recovers normally.
+         */
+        public static final String RECOVERY_PREFETCH_TIMEOUT = RECOVERY_PREFETCH_PREFIX + "timeout";
+
         /**
          * The activity interval for things with lifecycle state deleted.
          *
@@ -71,6 +71,11 @@ public final class ConfigKeys {
      */
     public static final String INDEX_INITIALIZATION_ENABLED = SEARCH_PREFIX + "index-initialization." + ENABLED_SUFFIX;
 
+    /**
+     * Key of the maximum number of cached parsed filters and of cached search aggregations.
+     */
+    public static final String QUERY_PLAN_CACHE_MAXIMUM_SIZE = SEARCH_PREFIX + "query-plan-cache.maximum-size";
+
     private static final String DELETION_PREFIX = SEARCH_PREFIX + "deletion.";
 
     /**
@@ -100,11 +105,34 @@ public final class ConfigKeys {
      */
     public static final String EVENT_PROCESSING_ACTIVE = SEARCH_UPDATER_PREFIX + "event-processing.active";
 
+    /**
+     * Controls whether policy events are applied to the search index of all things of a policy at once instead of
+     * being forwarded to the updater of each thing.
+     */
+    public static final String POLICY_INDEX_UPDATE_ACTIVE = SEARCH_UPDATER_PREFIX + "policy-index-update.active";
+
     /**
      * Controls maximum number of events to update in a bulk.
      */
     public static final String MAX_BULK_SIZE = SEARCH_UPDATER_PREFIX + "max-bulk-size";
 
+    private static final String BULK_WRITE_PREFIX = SEARCH_UPDATER_PREFIX + "bulk-write.";
+
+    /**
+     * Controls the maximum number of write models of one bulk write combining the writes of many things.
+     */
+    public static final String BULK_WRITE_MAX_BATCH_SIZE = BULK_WRITE_PREFIX + "max-batch-size";
+
+    /**
+     * Controls how long (as Duration) to wait for the writes of further things before a bulk write is started.
+     */
+    public static final String BULK_WRITE_MAX_BATCH_LATENCY = BULK_WRITE_PREFIX + "max-batch-latency";
+
+    /**
+     * Controls the maximum number of bulk writes in flight per collection.
+     */
+    public static final String BULK_WRITE_PARALLELISM = BULK_WRITE_PREFIX + "parallelism";
+
     /**
      * Controls whether thing and policy cache-updates should be active or not.
      */
@@ -142,6 +170,17 @@ public final class ConfigKeys {
      */
     public static final String THINGS_SYNCER_OUTDATED_ERROR_OFFSET = SYNC_THINGS_PREFIX + "outdated-error-offset";
 
+    /**
+     * Things-Sync: Path to the config of the sync by a change stream on the things journal.
+     */
+    public static final String SYNC_THINGS_CHANGE_STREAM = SYNC_THINGS_PREFIX + "change-stream";
+
+    /**
+     * Things-Sync: Controls whether things are synchronized by a change stream on the things journal instead of
+     * periodic queries by time window.
+     */
+    public static final String THINGS_CHANGE_STREAM_ENABLED = SYNC_THINGS_CHANGE_STREAM + ".enabled";
+
     /**
      * Policies-Sync: Path to the stream consumer config.
      */
@@ -40,6 +40,11 @@ public final class PersistenceConstants {
      */
     public static final String POLICIES_SYNC_STATE_COLLECTION_NAME = "thingsSearchSyncStatePolicies";
 
+    /**
+     * The collection name for the collection storing the policy index updates in progress.
+     */
+    public static final String POLICY_INDEX_UPDATES_COLLECTION_NAME = "thingsSearchPolicyIndexUpdates";
+
     public static final String SLASH = "/";
 
     /**
@@ -13,11 +13,15 @@
 package org.eclipse.ditto.services.thingsearch.persistence.query;
 
 
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 
+import javax.annotation.Nullable;
+
 import org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
 import org.eclipse.ditto.model.query.criteria.Criteria;
 import org.eclipse.ditto.model.query.criteria.CriteriaFactory;
 import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactory;
@@ -60,18 +64,21 @@ public final class AggregationQueryActor extends AbstractActor {
     private final QueryFilterCriteriaFactory queryFilterCriteriaFactory;
     private final AggregationBuilderFactory aggregationBuilderFactory;
     private final RqlOptionParser rqlOptionParser;
+    private final SearchQueryPlanCache planCache;
 
     private AggregationQueryActor(final CriteriaFactory criteriaFactory,
             final ThingsFieldExpressionFactory fieldExpressionFactory,
-            final AggregationBuilderFactory aggregationBuilderFactory) {
+            final AggregationBuilderFactory aggregationBuilderFactory,
+            final SearchQueryPlanCache planCache) {
         this.fieldExpressionFactory = fieldExpressionFactory;
         this.aggregationBuilderFactory = aggregationBuilderFactory;
         this.queryFilterCriteriaFactory = new QueryFilterCriteriaFactory(criteriaFactory, fieldExpressionFactory);
+        this.planCache = planCache;
         rqlOptionParser = new RqlOptionParser();
     }
 
     /**
-     * Creates Akka configuration object Props for this AggregationQueryActor.
+     * Creates Akka configuration object Props for this AggregationQueryActor with its own query plan cache.
      *
      * @param criteriaFactory a factory to create criteria.
      * @param fieldExpressionFactory a factory to retrieve things field expressions.
@@ -81,12 +88,30 @@ public final class AggregationQueryActor extends AbstractActor {
     public static Props props(final CriteriaFactory criteriaFactory,
             final ThingsFieldExpressionFactory fieldExpressionFactory,
             final AggregationBuilderFactory aggregationBuilderFactory) {
+        return props(criteriaFactory, fieldExpressionFactory, aggregationBuilderFactory,
+                SearchQueryPlanCache.of(SearchQueryPlanCache.DEFAULT_MAXIMUM_SIZE));
+    }
+
+    /**
+     * Creates Akka configuration object Props for this AggregationQueryActor.
+     *
+     * @param criteriaFactory a factory to create criteria.
+     * @param fieldExpressionFactory a factory to retrieve things field expressions.
+     * @param aggregationBuilderFactory a factory to create a query builder.
+     * @param planCache the cache of parsed filters and aggregations.
+     * @return the Akka configuration Props object.
+     */
+    public static Props props(final CriteriaFactory criteriaFactory,
+            final ThingsFieldExpressionFactory fieldExpressionFactory,
+            final AggregationBuilderFactory aggregationBuilderFactory,
+            final SearchQueryPlanCache planCache) {
         return Props.create(AggregationQueryActor.class, new Creator<AggregationQueryActor>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public AggregationQueryActor create() {
-                return new AggregationQueryActor(criteriaFactory, fieldExpressionFactory, aggregationBuilderFactory);
+                return new AggregationQueryActor(criteriaFactory, fieldExpressionFactory, aggregationBuilderFactory,
+                        planCache);
             }
         });
     }
@@ -113,51 +138,64 @@ public final class AggregationQueryActor extends AbstractActor {
     }
 
     private void handleCountThings(final CountThings command) {
-        final Criteria filterCriteria;
         final DittoHeaders dittoHeaders = command.getDittoHeaders();
         final Set<String> namespaces = command.getNamespaces().orElse(null);
-
-        if (namespaces == null) {
-            filterCriteria = queryFilterCriteriaFactory.filterCriteria(
-                    command.getFilter().orElse(null), dittoHeaders);
-        } else {
-            filterCriteria = queryFilterCriteriaFactory.filterCriteriaRestrictedByNamespaces(
-                    command.getFilter().orElse(null),
-                    dittoHeaders, namespaces);
-        }
-
-        EnsureMonotonicityVisitor.apply(filterCriteria, dittoHeaders);
-
-        final AggregationBuilder aggregationBuilder = aggregationBuilderFactory.newCountBuilder(filterCriteria)
-                .authorizationSubjects(dittoHeaders.getAuthorizationContext().getAuthorizationSubjectIds());
-
-        getSender().tell(aggregationBuilder.build(), getSelf());
+        final String filter = command.getFilter().orElse(null);
+        final SearchQueryPlanCache.PlanKey planKey = SearchQueryPlanCache.PlanKey.of(true, filter, namespaces, null,
+                dittoHeaders.getSchemaVersion().orElse(JsonSchemaVersion.LATEST));
+        final List<String> authorizationSubjects =
+                dittoHeaders.getAuthorizationContext().getAuthorizationSubjectIds();
+
+        final PolicyRestrictedSearchAggregation aggregation =
+                planCache.getAggregation(planKey, authorizationSubjects, () -> {
+                    final Criteria filterCriteria = getFilterCriteria(filter, namespaces, dittoHeaders);
+                    return aggregationBuilderFactory.newCountBuilder(filterCriteria)
+                            .authorizationSubjects(authorizationSubjects)
+                            .build();
+                });
+
+        getSender().tell(aggregation, getSelf());
     }
 
     private void handleQueryThings(final QueryThings command) {
-        final Criteria filterCriteria;
         final DittoHeaders dittoHeaders = command.getDittoHeaders();
         final Set<String> namespaces = command.getNamespaces().orElse(null);
+        final String filter = command.getFilter().orElse(null);
+        final String options = command.getOptions()
+                .map(optionStrings -> String.join(",", optionStrings))
+                .orElse(null);
+        final SearchQueryPlanCache.PlanKey planKey = SearchQueryPlanCache.PlanKey.of(false, filter, namespaces,
+                options, dittoHeaders.getSchemaVersion().orElse(JsonSchemaVersion.LATEST));
+        final List<String> authorizationSubjects =
+                dittoHeaders.getAuthorizationContext().getAuthorizationSubjectIds();
+
+        final PolicyRestrictedSearchAggregation aggregation =
+                planCache.getAggregation(planKey, authorizationSubjects, () -> {
+                    final Criteria filterCriteria = getFilterCriteria(filter, namespaces, dittoHeaders);
+                    final AggregationBuilder aggregationBuilder = aggregationBuilderFactory.newBuilder(filterCriteria)
+                            .authorizationSubjects(authorizationSubjects);
+                    if (null != options) {
+                        setOptions(options, aggregationBuilder, dittoHeaders);
+                    }
+                    return aggregationBuilder.build();
+                });
+
+        getSender().tell(aggregation, getSelf());
+    }
+
+    private Criteria getFilterCriteria(@Nullable final String filter, @Nullable final Set<String> namespaces,
+            final DittoHeaders dittoHeaders) {
 
+        final Criteria filterCriteria;
         if (namespaces == null) {
-            filterCriteria = queryFilterCriteriaFactory.filterCriteria(
-                    command.getFilter().orElse(null), dittoHeaders);
+            filterCriteria = planCache.getCriteria(filter, dittoHeaders, queryFilterCriteriaFactory);
         } else {
-            filterCriteria = queryFilterCriteriaFactory.filterCriteriaRestrictedByNamespaces(
-                    command.getFilter().orElse(null),
-                    dittoHeaders, namespaces);
+            filterCriteria = queryFilterCriteriaFactory.filterCriteriaRestrictedByNamespaces(filter, dittoHeaders,
+                    namespaces);
         }
 
         EnsureMonotonicityVisitor.apply(filterCriteria, dittoHeaders);
-
-        final AggregationBuilder aggregationBuilder = aggregationBuilderFactory.newBuilder(filterCriteria)
-                .authorizationSubjects(dittoHeaders.getAuthorizationContext().getAuthorizationSubjectIds());
-
-        command.getOptions()
-                .map(optionStrings -> String.join(",", optionStrings))
-                .ifPresent(options -> setOptions(options, aggregationBuilder, dittoHeaders));
-
-        getSender().tell(aggregationBuilder.build(), getSelf());
+        return filterCriteria;
     }
 
     private void handleSudoCountThings(final SudoCountThings command) {
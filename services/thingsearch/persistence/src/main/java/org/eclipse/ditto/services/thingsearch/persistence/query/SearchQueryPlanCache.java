@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.persistence.query;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
+import org.eclipse.ditto.services.thingsearch.persistence.read.PolicyRestrictedSearchAggregation;
+import org.eclipse.ditto.services.utils.cache.Cache;
+import org.eclipse.ditto.services.utils.cache.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded cache of search query plans. Search requests which differ only in their authorization subjects share the
+ * parsed criteria and the aggregation pipeline of the first such request; only the authorization subjects are bound
+ * per request. Hits and misses are reported as cache metrics with the names {@value #CRITERIA_CACHE_NAME} and
+ * {@value #AGGREGATION_CACHE_NAME}.
+ * <p>
+ * Failed parsing is not cached, so that each invalid request gets an error with its own headers.
+ * </p>
+ */
+@ThreadSafe
+public final class SearchQueryPlanCache {
+
+    /**
+     * Name of the cache of parsed filters in the metrics.
+     */
+    public static final String CRITERIA_CACHE_NAME = "things-search_criteria";
+
+    /**
+     * Name of the cache of aggregations in the metrics.
+     */
+    public static final String AGGREGATION_CACHE_NAME = "things-search_aggregations";
+
+    /**
+     * Default maximum number of entries of each cache.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000L;
+
+    private final Cache<String, Criteria> criteriaCache;
+    private final Cache<PlanKey, PolicyRestrictedSearchAggregation> aggregationCache;
+
+    private SearchQueryPlanCache(final long maximumSize) {
+        criteriaCache = CaffeineCache.of(Caffeine.newBuilder().maximumSize(maximumSize), CRITERIA_CACHE_NAME);
+        aggregationCache = CaffeineCache.of(Caffeine.newBuilder().maximumSize(maximumSize), AGGREGATION_CACHE_NAME);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize the maximum number of parsed filters and of aggregations to keep.
+     * @return the cache.
+     * @throws IllegalArgumentException if {@code maximumSize} is negative.
+     */
+    public static SearchQueryPlanCache of(final long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum size must not be negative but was <" + maximumSize + ">!");
+        }
+        return new SearchQueryPlanCache(maximumSize);
+    }
+
+    /**
+     * Returns the criteria of a filter string, parsing it only if it is not cached.
+     *
+     * @param filter the filter string or {@code null} to match everything.
+     * @param dittoHeaders the headers of the command for error information.
+     * @param queryFilterCriteriaFactory the factory to parse the filter with.
+     * @return the criteria.
+     * @throws org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException if the filter string cannot be
+     * mapped to a valid criterion.
+     */
+    public Criteria getCriteria(@Nullable final String filter, final DittoHeaders dittoHeaders,
+            final QueryFilterCriteriaFactory queryFilterCriteriaFactory) {
+
+        if (null == filter) {
+            return queryFilterCriteriaFactory.filterCriteria(null, dittoHeaders);
+        }
+        final Optional<Criteria> cachedCriteria = criteriaCache.getIfPresent(filter).join();
+        if (cachedCriteria.isPresent()) {
+            return cachedCriteria.get();
+        }
+        final Criteria criteria = queryFilterCriteriaFactory.filterCriteria(filter, dittoHeaders);
+        criteriaCache.put(filter, criteria);
+        return criteria;
+    }
+
+    /**
+     * Returns the aggregation of a search request, building it only if no aggregation of a request with the same
+     * plan key is cached.
+     *
+     * @param planKey the key of the request.
+     * @param authorizationSubjects the authorization subjects of the request.
+     * @param aggregationBuilder builds the aggregation for the request if it is not cached; may throw exceptions.
+     * @return the aggregation bound to {@code authorizationSubjects}.
+     */
+    public PolicyRestrictedSearchAggregation getAggregation(final PlanKey planKey,
+            final Collection<String> authorizationSubjects,
+            final Supplier<PolicyRestrictedSearchAggregation> aggregationBuilder) {
+
+        checkNotNull(planKey, "plan key");
+        checkNotNull(authorizationSubjects, "authorization subjects");
+        final Optional<PolicyRestrictedSearchAggregation> cachedAggregation =
+                aggregationCache.getIfPresent(planKey).join();
+        if (cachedAggregation.isPresent()) {
+            return cachedAggregation.get().withAuthorizationSubjects(authorizationSubjects);
+        }
+        final PolicyRestrictedSearchAggregation aggregation = aggregationBuilder.get();
+        aggregationCache.put(planKey, aggregation);
+        return aggregation;
+    }
+
+    /**
+     * Key of a search request without its authorization subjects.
+     */
+    @Immutable
+    public static final class PlanKey {
+
+        private final boolean count;
+        @Nullable private final String filter;
+        @Nullable private final Set<String> namespaces;
+        @Nullable private final String options;
+        private final JsonSchemaVersion schemaVersion;
+
+        private PlanKey(final boolean count, @Nullable final String filter, @Nullable final Set<String> namespaces,
+                @Nullable final String options, final JsonSchemaVersion schemaVersion) {
+
+            this.count = count;
+            this.filter = filter;
+            this.namespaces = namespaces;
+            this.options = options;
+            this.schemaVersion = schemaVersion;
+        }
+
+        /**
+         * Creates the key of a search request. The order of the namespaces is ignored.
+         *
+         * @param count whether the request counts things.
+         * @param filter the filter string of the request or {@code null}.
+         * @param namespaces the namespaces of the request or {@code null} for all namespaces.
+         * @param options the joined options of the request or {@code null}.
+         * @param schemaVersion the schema version of the request.
+         * @return the key.
+         * @throws NullPointerException if {@code schemaVersion} is {@code null}.
+         */
+        public static PlanKey of(final boolean count, @Nullable final String filter,
+                @Nullable final Collection<String> namespaces, @Nullable final String options,
+                final JsonSchemaVersion schemaVersion) {
+
+            checkNotNull(schemaVersion, "schema version");
+            return new PlanKey(count, filter, null != namespaces ? new TreeSet<>(namespaces) : null, options, schemaVersion);
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final PlanKey that = (PlanKey) o;
+            return count == that.count &&
+                    Objects.equals(filter, that.filter) &&
+                    Objects.equals(namespaces, that.namespaces) &&
+                    Objects.equals(options, that.options) &&
+                    schemaVersion == that.schemaVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, filter, namespaces, options, schemaVersion);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + " [" +
+                    "count=" + count +
+                    ", filter=" + filter +
+                    ", namespaces=" + namespaces +
+                    ", options=" + options +
+                    ", schemaVersion=" + schemaVersion +
+                    "]";
+        }
+    }
+
+}
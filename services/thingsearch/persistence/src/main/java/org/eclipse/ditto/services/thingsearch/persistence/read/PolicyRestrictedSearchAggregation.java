@@ -13,6 +13,7 @@
 package org.eclipse.ditto.services.thingsearch.persistence.read;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 
 import org.bson.Document;
@@ -56,6 +57,18 @@ public interface PolicyRestrictedSearchAggregation {
      */
     Criteria getCriteria();
 
+    /**
+     * Returns an aggregation with the criteria and options of this aggregation for other authorization subjects.
+     * Allows to reuse an aggregation for requests which differ only in their authorization subjects.
+     *
+     * @param authorizationSubjects the authorization subjects of the new aggregation.
+     * @return the new aggregation.
+     * @throws NullPointerException if {@code authorizationSubjects} is {@code null}.
+     * @throws IllegalStateException if {@code authorizationSubjects} is empty for a non-sudo aggregation or not
+     * empty for a sudo aggregation.
+     */
+    PolicyRestrictedSearchAggregation withAuthorizationSubjects(Collection<String> authorizationSubjects);
+
     /**
      * Executes this aggregation on the specified collection.
      *
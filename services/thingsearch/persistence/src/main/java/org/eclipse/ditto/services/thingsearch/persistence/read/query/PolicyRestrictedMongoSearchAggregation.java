@@ -61,6 +61,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -70,6 +71,7 @@ import org.bson.BsonDocument;
 import org.bson.BsonInt32;
 import org.bson.BsonNull;
 import org.bson.BsonString;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.eclipse.ditto.model.query.SortDirection;
@@ -124,6 +126,16 @@ final class PolicyRestrictedMongoSearchAggregation implements PolicyRestrictedSe
     private static final Bson LOOKUP_STAGE =
             lookup(POLICIES_BASED_SEARCH_INDEX_COLLECTION_NAME, POLICY_INDEX_ID, FIELD_ID, FIELD_GRANTS);
 
+    /**
+     * Stands in for the authorization subjects in the pipeline template. The random part prevents filters of users
+     * from containing it.
+     */
+    private static final BsonString AUTHORIZATION_SUBJECTS_PLACEHOLDER =
+            new BsonString("\u0000authorizationSubjects:" + UUID.randomUUID());
+
+    private final List<BsonDocument> pipelineTemplate;
+    private final boolean[] isSubjectDependentStage;
+    private final boolean sudo;
     private final List<Bson> aggregationPipeline;
     private final int skip;
     private final int limit;
@@ -135,7 +147,11 @@ final class PolicyRestrictedMongoSearchAggregation implements PolicyRestrictedSe
             throw new IllegalStateException("AuthorizationSubjects are required for non-sudo searches!");
         }
 
-        final Predicate authorizationSubjectsPredicate = CRITERIA_FACTORY.in(builder.authorizationSubjects);
+        // the pipeline is built once with a placeholder for the subjects so that it can be bound to other subjects
+        final List<Object> subjectsOfTemplate = isSudo
+                ? Collections.emptyList()
+                : Collections.singletonList(AUTHORIZATION_SUBJECTS_PLACEHOLDER.getValue());
+        final Predicate authorizationSubjectsPredicate = CRITERIA_FACTORY.in(subjectsOfTemplate);
         final Criteria globalReadsCriteria = createCriteria(isSudo, CRITERIA_FACTORY,
                 authorizationSubjectsPredicate, FIELD_EXPRESSION_FACTORY.filterByGlobalRead());
         final Criteria aclFieldCriteria = createCriteria(isSudo, CRITERIA_FACTORY,
@@ -182,12 +198,79 @@ final class PolicyRestrictedMongoSearchAggregation implements PolicyRestrictedSe
         addProjectionStage2IfCount(pipeline, builder.count);
         addCountStage(pipeline, builder.count);
 
-        aggregationPipeline = pipeline;
+        pipelineTemplate = BsonUtil.toBsonDocuments(pipeline);
+        isSubjectDependentStage = new boolean[pipelineTemplate.size()];
+        for (int i = 0; i < isSubjectDependentStage.length; i++) {
+            isSubjectDependentStage[i] = containsSubjectsPlaceholder(pipelineTemplate.get(i));
+        }
+        sudo = isSudo;
+        aggregationPipeline = bindAuthorizationSubjects(builder.authorizationSubjects);
         skip = builder.skip;
         limit = builder.limit;
         filterCriteria = builder.filterCriteria;
     }
 
+    private PolicyRestrictedMongoSearchAggregation(final PolicyRestrictedMongoSearchAggregation template,
+            final Collection<?> authorizationSubjects) {
+
+        pipelineTemplate = template.pipelineTemplate;
+        isSubjectDependentStage = template.isSubjectDependentStage;
+        sudo = template.sudo;
+        aggregationPipeline = bindAuthorizationSubjects(authorizationSubjects);
+        skip = template.skip;
+        limit = template.limit;
+        filterCriteria = template.filterCriteria;
+    }
+
+    private List<Bson> bindAuthorizationSubjects(final Collection<?> authorizationSubjects) {
+        final BsonArray subjects = new BsonArray();
+        authorizationSubjects.forEach(subject -> subjects.add(new BsonString(subject.toString())));
+        final List<Bson> boundPipeline = new ArrayList<>(pipelineTemplate.size());
+        for (int i = 0; i < pipelineTemplate.size(); i++) {
+            final BsonDocument stage = pipelineTemplate.get(i);
+            boundPipeline.add(isSubjectDependentStage[i] ? bindAuthorizationSubjects(stage, subjects) : stage);
+        }
+        return boundPipeline;
+    }
+
+    private static BsonDocument bindAuthorizationSubjects(final BsonDocument document, final BsonArray subjects) {
+        final BsonDocument result = new BsonDocument();
+        document.forEach((key, value) -> result.append(key, bindAuthorizationSubjects(value, subjects)));
+        return result;
+    }
+
+    private static BsonValue bindAuthorizationSubjects(final BsonValue value, final BsonArray subjects) {
+        if (value.isDocument()) {
+            return bindAuthorizationSubjects(value.asDocument(), subjects);
+        } else if (value.isArray()) {
+            final BsonArray array = value.asArray();
+            if (isSubjectsPlaceholder(array)) {
+                return subjects;
+            }
+            final BsonArray result = new BsonArray();
+            array.forEach(element -> result.add(bindAuthorizationSubjects(element, subjects)));
+            return result;
+        } else {
+            return value;
+        }
+    }
+
+    private static boolean containsSubjectsPlaceholder(final BsonValue value) {
+        if (value.isDocument()) {
+            return value.asDocument().values().stream()
+                    .anyMatch(PolicyRestrictedMongoSearchAggregation::containsSubjectsPlaceholder);
+        } else if (value.isArray()) {
+            return isSubjectsPlaceholder(value.asArray()) || value.asArray().stream()
+                    .anyMatch(PolicyRestrictedMongoSearchAggregation::containsSubjectsPlaceholder);
+        } else {
+            return false;
+        }
+    }
+
+    private static boolean isSubjectsPlaceholder(final BsonArray array) {
+        return 1 == array.size() && AUTHORIZATION_SUBJECTS_PLACEHOLDER.equals(array.get(0));
+    }
+
     private static Bson createGroupStage() {
         return group(new BsonDocument(FIELD_ID, new BsonString(ID_VARIABLE)),
                 new BsonField(FIELD_NAMESPACE, createProjectionDocument(FIRST_PROJECTION, NAMESPACE_VARIABLE)),
@@ -374,6 +457,15 @@ final class PolicyRestrictedMongoSearchAggregation implements PolicyRestrictedSe
         return filterCriteria;
     }
 
+    @Override
+    public PolicyRestrictedSearchAggregation withAuthorizationSubjects(final Collection<String> authorizationSubjects) {
+        checkNotNull(authorizationSubjects, "authorization subjects");
+        if (authorizationSubjects.isEmpty() != sudo) {
+            throw new IllegalStateException("AuthorizationSubjects are required for non-sudo searches!");
+        }
+        return new PolicyRestrictedMongoSearchAggregation(this, authorizationSubjects);
+    }
+
     @Override
     public Source<Document, NotUsed> execute(final MongoCollection<Document> collection, final Duration maxTime) {
         checkNotNull(collection, "collection to be aggregated");
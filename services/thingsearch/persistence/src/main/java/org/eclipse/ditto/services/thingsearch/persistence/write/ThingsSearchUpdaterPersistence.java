@@ -97,6 +97,26 @@ public interface ThingsSearchUpdaterPersistence extends NamespaceOps<String> {
      */
     Source<String, NotUsed> getOutdatedThingIds(PolicyTag policyTag);
 
+    /**
+     * Applies a revision of a policy to the search index of all things of the policy whose index is based on an older
+     * revision. The permissions are evaluated once per indexed path and written to many things at once. The update is
+     * registered as pending before it starts and unregistered after it completed, thus an interrupted update can be
+     * resumed with the policy tags of {@link #getPendingPolicyIndexUpdates()}.
+     *
+     * @param policyTag contains policy ID and policy revision.
+     * @param policyEnforcer the enforcer holding the policy of {@code policyTag}.
+     * @return a {@link Source} emitting the number of updated things after the update completed.
+     */
+    Source<Long, NotUsed> updatePolicyIndex(PolicyTag policyTag, Enforcer policyEnforcer);
+
+    /**
+     * Retrieves the policy index updates started by {@link #updatePolicyIndex(PolicyTag, Enforcer)} which did not
+     * complete.
+     *
+     * @return a {@link Source} holding the publisher to execute the operation.
+     */
+    Source<PolicyTag, NotUsed> getPendingPolicyIndexUpdates();
+
     /**
      * Retrieves the metadata (revision, policyId and policyRevision) how it is persisted in the search index of the
      * passed {@code thingId}.
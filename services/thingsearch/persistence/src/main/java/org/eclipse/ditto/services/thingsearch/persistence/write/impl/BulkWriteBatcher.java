@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.persistence.write.impl;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.bson.Document;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+
+import akka.Done;
+import akka.NotUsed;
+import akka.stream.Materializer;
+import akka.stream.OverflowStrategy;
+import akka.stream.QueueOfferResult;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.SourceQueueWithComplete;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Combines the writes of many things into few {@code bulkWrite} calls on one collection.
+ * <p>
+ * Every submitted request is a list of write models which are executed in order. The requests of all callers are
+ * offered to one queue of {@code maxBatchSize} requests, grouped by number of write models and latency and written
+ * with a bounded number of parallel bulk writes. Such a queue accepts only one offer at a time, so requests wait in
+ * the order they were submitted until the queue accepts them; if {@code maxBatchSize} requests are waiting, further
+ * requests are submitted again after {@code maxBatchLatency}. Thus callers are backpressured while all bulk writes are
+ * in flight instead of failing. A group consisting of single write models only is written unordered. A group
+ * containing a request with several write models is written ordered so that the models of each request keep their
+ * order; after a failed write model the remaining requests of the group are written again with the next bulk write.
+ * </p>
+ * <p>
+ * The outcome of each request is reported separately from the outcomes of its own write models: it completes if all
+ * of them were executed, fails with a {@link MongoWriteException} if one of its write models failed, and fails with
+ * the error of the bulk write if the bulk write failed as a whole. MongoDB reports matched, modified and removed
+ * documents for a bulk write as a whole only, so no counts are reported to the requests. Writes whose callers depend
+ * on such counts must not be submitted to a batcher.
+ * </p>
+ */
+@ThreadSafe
+final class BulkWriteBatcher {
+
+    private final MongoCollection<Document> collection;
+    private final Materializer materializer;
+    private final SourceQueueWithComplete<WriteRequest> requestQueue;
+    private final int maxPendingOffers;
+    private final FiniteDuration resubmitDelay;
+    private final Deque<WriteRequest> pendingOffers;
+
+    private BulkWriteBatcher(final MongoCollection<Document> collection, final int maxBatchSize,
+            final Duration maxBatchLatency, final int parallelism, final Materializer materializer) {
+
+        this.collection = collection;
+        this.materializer = materializer;
+        maxPendingOffers = maxBatchSize;
+        resubmitDelay = FiniteDuration.apply(Math.max(1L, maxBatchLatency.toMillis()), TimeUnit.MILLISECONDS);
+        pendingOffers = new ArrayDeque<>();
+        requestQueue = Source.<WriteRequest>queue(maxBatchSize, OverflowStrategy.backpressure())
+                .groupedWeightedWithin(maxBatchSize, request -> (long) request.writeModels.size(), maxBatchLatency)
+                .mapAsyncUnordered(parallelism, this::execute)
+                .to(Sink.ignore())
+                .run(materializer);
+    }
+
+    /**
+     * Creates a new batcher and starts its stream.
+     *
+     * @param collection the collection to write to.
+     * @param maxBatchSize the maximum number of write models of one bulk write and the maximum number of requests
+     * waiting for a bulk write. A request with more write models is written on its own.
+     * @param maxBatchLatency the maximum time to wait for further requests before a bulk write is started.
+     * @param parallelism the maximum number of bulk writes in flight.
+     * @param materializer the materializer to run the stream with.
+     * @return the batcher.
+     * @throws NullPointerException if any argument is {@code null}.
+     * @throws IllegalArgumentException if {@code maxBatchSize} or {@code parallelism} is not positive.
+     */
+    static BulkWriteBatcher of(final MongoCollection<Document> collection, final int maxBatchSize,
+            final Duration maxBatchLatency, final int parallelism, final Materializer materializer) {
+
+        checkNotNull(collection, "collection");
+        checkNotNull(maxBatchLatency, "max batch latency");
+        checkNotNull(materializer, "materializer");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("The max batch size must be positive but was <" + maxBatchSize + ">!");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism must be positive but was <" + parallelism + ">!");
+        }
+        return new BulkWriteBatcher(collection, maxBatchSize, maxBatchLatency, parallelism, materializer);
+    }
+
+    /**
+     * Submits write models to be executed in order with the next bulk write.
+     *
+     * @param writeModels the write models; must not be empty.
+     * @return a source emitting {@code Done} if all write models were executed or failing with the error of the
+     * request. The write models are offered to the queue of the batcher when the
+     * source is materialized; the source waits while the queue is full.
+     * @throws NullPointerException if {@code writeModels} is {@code null}.
+     * @throws IllegalArgumentException if {@code writeModels} is empty.
+     */
+    Source<Done, NotUsed> submit(final List<? extends WriteModel<Document>> writeModels) {
+        checkNotNull(writeModels, "write models");
+        if (writeModels.isEmpty()) {
+            throw new IllegalArgumentException("The write models must not be empty!");
+        }
+        return Source.single(writeModels).mapAsync(1, models -> {
+            final WriteRequest request = new WriteRequest(models);
+            offer(request);
+            return request.result;
+        });
+    }
+
+    private void offer(final WriteRequest request) {
+        final boolean offerNow;
+        synchronized (this) {
+            if (pendingOffers.size() >= maxPendingOffers) {
+                // backpressure the caller until the queue caught up instead of failing its request
+                materializer.scheduleOnce(resubmitDelay, () -> offer(request));
+                return;
+            }
+            offerNow = pendingOffers.isEmpty();
+            pendingOffers.add(request);
+        }
+        if (offerNow) {
+            offerToStream(request);
+        }
+    }
+
+    private void offerToStream(final WriteRequest request) {
+        CompletionStage<QueueOfferResult> offerResult;
+        try {
+            offerResult = requestQueue.offer(request);
+        } catch (final RuntimeException e) {
+            final CompletableFuture<QueueOfferResult> failedOffer = new CompletableFuture<>();
+            failedOffer.completeExceptionally(e);
+            offerResult = failedOffer;
+        }
+        offerResult.whenComplete((result, error) -> onOfferCompleted(request, result, error));
+    }
+
+    private void onOfferCompleted(final WriteRequest request, final QueueOfferResult offerResult,
+            final Throwable error) {
+
+        if (null != error) {
+            request.fail(error);
+        } else if (offerResult instanceof QueueOfferResult.Failure) {
+            request.fail(((QueueOfferResult.Failure) offerResult).cause());
+        } else if (!(offerResult instanceof QueueOfferResult.Enqueued$)) {
+            // only happens after the stream of the batcher terminated
+            request.fail(new IllegalStateException("The bulk write queue did not accept the request: " +
+                    offerResult));
+        }
+        final WriteRequest nextRequest;
+        synchronized (this) {
+            pendingOffers.poll();
+            nextRequest = pendingOffers.peek();
+        }
+        if (null != nextRequest) {
+            offerToStream(nextRequest);
+        }
+    }
+
+    private CompletionStage<Void> execute(final List<WriteRequest> requests) {
+        try {
+            return executeBulkWrite(requests);
+        } catch (final RuntimeException e) {
+            // keep the stream running for the requests of other callers
+            requests.forEach(request -> request.fail(e));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private CompletionStage<Void> executeBulkWrite(final List<WriteRequest> requests) {
+        final List<WriteModel<Document>> writeModels = new ArrayList<>();
+        final List<WriteRequest> requestOfWriteModel = new ArrayList<>();
+        boolean ordered = false;
+        for (final WriteRequest request : requests) {
+            writeModels.addAll(request.writeModels);
+            request.writeModels.forEach(writeModel -> requestOfWriteModel.add(request));
+            ordered |= 1 < request.writeModels.size();
+        }
+
+        final BulkWriteOptions options = new BulkWriteOptions().ordered(ordered);
+        final boolean isOrdered = ordered;
+        return Source.fromPublisher(collection.bulkWrite(writeModels, options))
+                .runWith(Sink.head(), materializer)
+                .<CompletionStage<Void>>handle((bulkWriteResult, error) -> {
+                    if (null == error) {
+                        succeed(requests);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof MongoBulkWriteException) {
+                        return handleBulkWriteException((MongoBulkWriteException) cause, requests, writeModels,
+                                requestOfWriteModel, isOrdered);
+                    }
+                    requests.forEach(request -> request.fail(cause));
+                    return CompletableFuture.completedFuture(null);
+                })
+                .thenCompose(stage -> stage);
+    }
+
+    private CompletionStage<Void> handleBulkWriteException(final MongoBulkWriteException exception,
+            final List<WriteRequest> requests, final List<WriteModel<Document>> writeModels,
+            final List<WriteRequest> requestOfWriteModel, final boolean ordered) {
+
+        if (null != exception.getWriteConcernError()) {
+            requests.forEach(request -> request.fail(exception));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        for (final BulkWriteError writeError : exception.getWriteErrors()) {
+            requestOfWriteModel.get(writeError.getIndex())
+                    .fail(new MongoWriteException(writeError, exception.getServerAddress()));
+        }
+
+        // an ordered bulk write stops at the first failed write model
+        final int firstUnwrittenWriteModel = ordered && !exception.getWriteErrors().isEmpty()
+                ? exception.getWriteErrors().get(0).getIndex() + 1
+                : writeModels.size();
+        final int firstUnwrittenRequest = firstUnwrittenWriteModel < writeModels.size()
+                ? requests.indexOf(requestOfWriteModel.get(firstUnwrittenWriteModel - 1)) + 1
+                : requests.size();
+        succeed(requests.subList(0, firstUnwrittenRequest));
+
+        if (firstUnwrittenRequest == requests.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return execute(requests.subList(firstUnwrittenRequest, requests.size()));
+    }
+
+    /**
+     * Completes the given requests whose write models were all executed.
+     *
+     * @param requests the requests to complete; requests which already failed are not affected.
+     */
+    private static void succeed(final List<WriteRequest> requests) {
+        requests.forEach(WriteRequest::succeed);
+    }
+
+    /**
+     * Write models to execute in order together with the future of their result. Completing an already completed
+     * result has no effect, so the first reported outcome of a request wins.
+     */
+    private static final class WriteRequest {
+
+        private final List<? extends WriteModel<Document>> writeModels;
+        private final CompletableFuture<Done> result;
+
+        private WriteRequest(final List<? extends WriteModel<Document>> writeModels) {
+            this.writeModels = writeModels;
+            result = new CompletableFuture<>();
+        }
+
+        private void succeed() {
+            result.complete(Done.getInstance());
+        }
+
+        private void fail(final Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+}
@@ -14,6 +14,7 @@ package org.eclipse.ditto.services.thingsearch.persistence.write.impl;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.lte;
 import static com.mongodb.client.model.Filters.or;
@@ -23,15 +24,20 @@ import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceCons
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_NAMESPACE;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_POLICY_ID;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_POLICY_REVISION;
+import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_RESOURCE;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_REVISION;
+import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.FIELD_THING_ID;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.POLICIES_BASED_SEARCH_INDEX_COLLECTION_NAME;
+import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.POLICY_INDEX_UPDATES_COLLECTION_NAME;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.SET;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.THINGS_COLLECTION_NAME;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.UNSET;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -74,10 +80,12 @@ import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
 import com.mongodb.client.model.WriteModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
 
+import akka.Done;
 import akka.NotUsed;
 import akka.event.LoggingAdapter;
 import akka.japi.function.Function;
@@ -93,30 +101,80 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
 
     private static final int MONGO_DUPLICATE_KEY_ERROR_CODE = 11000;
     private static final int MONGO_INDEX_VALUE_ERROR_CODE = 17280;
+
+    /**
+     * Default maximum number of write models of one bulk write combining the writes of many things.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Default maximum time to wait for the writes of further things before a bulk write is started.
+     */
+    public static final Duration DEFAULT_MAX_BATCH_LATENCY = Duration.ofMillis(10L);
+
+    /**
+     * Default maximum number of bulk writes in flight per collection.
+     */
+    public static final int DEFAULT_BATCH_PARALLELISM = 4;
+
     private final MongoDatabase database;
     private final MongoCollection<Document> collection;
     private final MongoCollection<Document> policiesCollection;
+    private final MongoCollection<Document> policyIndexUpdatesCollection;
     private final EventToPersistenceStrategyFactory<Bson, PolicyUpdate>
             persistenceStrategyFactory;
     private final IndexInitializer indexInitializer;
+    private final BulkWriteBatcher thingsBatcher;
+    private final BulkWriteBatcher policiesBatcher;
+    private final int maxBatchSize;
 
     /**
-     * Constructor.
+     * Constructor which combines writes with the default batch settings.
      *
      * @param clientWrapper the client wrapper holding the connection information.
      * @param log the logger to use for logging.
      * @param persistenceStrategyFactory The persistence strategy factory to use.
+     * @param materializer the materializer to run streams with.
      */
     public MongoThingsSearchUpdaterPersistence(final DittoMongoClient clientWrapper,
             final LoggingAdapter log,
             final EventToPersistenceStrategyFactory<Bson, PolicyUpdate> persistenceStrategyFactory,
             final Materializer materializer) {
 
+        this(clientWrapper, log, persistenceStrategyFactory, materializer, DEFAULT_MAX_BATCH_SIZE,
+                DEFAULT_MAX_BATCH_LATENCY, DEFAULT_BATCH_PARALLELISM);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clientWrapper the client wrapper holding the connection information.
+     * @param log the logger to use for logging.
+     * @param persistenceStrategyFactory The persistence strategy factory to use.
+     * @param materializer the materializer to run streams with.
+     * @param maxBatchSize the maximum number of write models of one bulk write combining the writes of many things.
+     * @param maxBatchLatency the maximum time to wait for the writes of further things before a bulk write is started.
+     * @param batchParallelism the maximum number of bulk writes in flight per collection.
+     */
+    public MongoThingsSearchUpdaterPersistence(final DittoMongoClient clientWrapper,
+            final LoggingAdapter log,
+            final EventToPersistenceStrategyFactory<Bson, PolicyUpdate> persistenceStrategyFactory,
+            final Materializer materializer,
+            final int maxBatchSize,
+            final Duration maxBatchLatency,
+            final int batchParallelism) {
+
         super(log);
         database = clientWrapper.getDefaultDatabase();
         collection = database.getCollection(THINGS_COLLECTION_NAME);
         policiesCollection = database.getCollection(POLICIES_BASED_SEARCH_INDEX_COLLECTION_NAME);
+        policyIndexUpdatesCollection = database.getCollection(POLICY_INDEX_UPDATES_COLLECTION_NAME);
         indexInitializer = IndexInitializer.of(database, materializer);
+        thingsBatcher = BulkWriteBatcher.of(collection, maxBatchSize, maxBatchLatency, batchParallelism,
+                materializer);
+        policiesBatcher = BulkWriteBatcher.of(policiesCollection, maxBatchSize, maxBatchLatency, batchParallelism,
+                materializer);
+        this.maxBatchSize = maxBatchSize;
 
         this.persistenceStrategyFactory = persistenceStrategyFactory;
     }
@@ -164,8 +222,10 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
         final Bson filter =
                 filterWithLowerThingRevisionOrLowerPolicyRevision(getThingId(thing), revision, policyRevision);
         final Document document = toUpdate(ThingDocumentMapper.toDocument(thing), revision, policyRevision);
-        return Source.fromPublisher(collection.updateOne(filter, document, new UpdateOptions().upsert(true)))
-                .map(updateResult -> updateResult.getMatchedCount() > 0 || null != updateResult.getUpsertedId());
+        // an executed upsert either matched or inserted the document; a newer revision fails with a duplicate key
+        return thingsBatcher.submit(
+                Collections.singletonList(new UpdateOneModel<>(filter, document, new UpdateOptions().upsert(true))))
+                .map(done -> Boolean.TRUE);
     }
 
     /**
@@ -235,8 +295,9 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
     }
 
     /**
-     * Executes the passed in events using a bulk write operation on MongoDB. The bulk write is performed with the
-     * ordered options which means that if one write fails, the other writes will not be executed.
+     * Executes the passed in events using a bulk write operation on MongoDB. The writes of the events are executed in
+     * order together with the writes of other things which means that if one write fails, the other writes of this
+     * thing will not be executed.
      *
      * @param thingId the id of the thing to update.
      * @param thingEvents the events to persist in this update.
@@ -272,8 +333,17 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
             // add the revision update model
             thingWriteModels.add(createRevisionUpdate(filter, targetRevision));
 
-            return Source.fromPublisher(collection.bulkWrite(thingWriteModels, writeOrdered))
-                    .flatMapConcat(mapCombinedWritesResult(policyWriteModels))
+            if (1 == thingWriteModels.size()) {
+                // a bare revision update does not upsert, thus only the matched count reveals whether it applied
+                return Source.fromPublisher(collection.bulkWrite(thingWriteModels, writeOrdered))
+                        .flatMapConcat(mapCombinedWritesResult(policyWriteModels))
+                        .recoverWithRetries(1, errorRecovery(thingId));
+            }
+
+            // the upserts either match the last known revision or insert the thing, which the revision update then
+            // modifies; any other revision fails the upserts with a duplicate key
+            return thingsBatcher.submit(thingWriteModels)
+                    .flatMapConcat(done -> writePolicies(policyWriteModels))
                     .recoverWithRetries(1, errorRecovery(thingId));
 
         }
@@ -315,16 +385,9 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
 
     private Function<BulkWriteResult, Source<Boolean, NotUsed>> mapCombinedWritesResult(
             final List<WriteModel<Document>> policyWriteModels) {
-        final BulkWriteOptions writeOrdered = new BulkWriteOptions();
-        writeOrdered.ordered(true);
         return bulkWriteResult -> {
             if (bulkWriteResult.getModifiedCount() > 0 || bulkWriteResult.getInsertedCount() > 0) {
-                if (!policyWriteModels.isEmpty()) {
-                    return Source.fromPublisher(policiesCollection.bulkWrite(policyWriteModels, writeOrdered))
-                            .map(policiesWriteResult -> Boolean.TRUE);
-                } else {
-                    return Source.single(Boolean.TRUE);
-                }
+                return writePolicies(policyWriteModels);
             } else {
                 // return false if the previous bulk write did not modify anything
                 return Source.single(Boolean.FALSE);
@@ -332,6 +395,14 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
         };
     }
 
+    private Source<Boolean, NotUsed> writePolicies(final List<WriteModel<Document>> policyWriteModels) {
+        if (policyWriteModels.isEmpty()) {
+            return Source.single(Boolean.TRUE);
+        }
+        return policiesBatcher.submit(policyWriteModels)
+                .map(done -> Boolean.TRUE);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -353,16 +424,13 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
     }
 
     private Function<BulkWriteResult, Source<Boolean, NotUsed>> mapPolicyUpdateResult(final PolicyUpdate policyUpdate) {
-        final BulkWriteOptions writeOrdered = new BulkWriteOptions();
-        writeOrdered.ordered(true);
         return result -> {
             if (result.getMatchedCount() > 0) {
                 final List<WriteModel<Document>> writePolicyIndexModels =
                         createPolicyIndexModels(policyUpdate.getPolicyIndexRemoveFilter(),
                                 policyUpdate.getPolicyIndexInsertEntries());
-                return Source.fromPublisher(
-                        policiesCollection.bulkWrite(writePolicyIndexModels, writeOrdered))
-                        .map(result2 -> Boolean.TRUE);
+                return policiesBatcher.submit(writePolicyIndexModels)
+                        .map(policiesWriteResult -> Boolean.TRUE);
             } else {
                 return Source.single(Boolean.FALSE);
             }
@@ -393,6 +461,69 @@ public final class MongoThingsSearchUpdaterPersistence extends AbstractThingsSea
                 .map(doc -> doc.getString(FIELD_ID));
     }
 
+    /**
+     * Updates the policy index of the outdated things of a policy in batches of at most the maximum batch size of
+     * things. The policy revision of the things is written last in each batch, thus an interrupted update skips the
+     * completed batches when it is resumed.
+     *
+     * @param policyTag contains policy ID and policy revision.
+     * @param policyEnforcer the enforcer holding the policy of {@code policyTag}.
+     * @return a {@link Source} emitting the number of updated things after the update completed.
+     */
+    @Override
+    public final Source<Long, NotUsed> updatePolicyIndex(final PolicyTag policyTag, final Enforcer policyEnforcer) {
+        log.debug("Updating policy index of Things with policy tag: <{}>", policyTag);
+        final PolicyIndexUpdateFactory updateFactory = PolicyIndexUpdateFactory.of(policyTag, policyEnforcer);
+        final Bson pendingUpdateFilter = eq(FIELD_ID, policyTag.getId());
+        final Bson registerPendingUpdate = Updates.max(FIELD_POLICY_REVISION, policyTag.getRevision());
+        // a newer revision registered in the meantime stays pending
+        final Bson completedUpdateFilter =
+                and(pendingUpdateFilter, lte(FIELD_POLICY_REVISION, policyTag.getRevision()));
+
+        return Source.fromPublisher(policyIndexUpdatesCollection.updateOne(pendingUpdateFilter, registerPendingUpdate,
+                new UpdateOptions().upsert(true)))
+                .flatMapConcat(registered -> getOutdatedThingIds(policyTag))
+                .grouped(maxBatchSize)
+                .flatMapConcat(thingIds -> updatePolicyIndexOfThings(thingIds, updateFactory))
+                .fold(0L, Long::sum)
+                .flatMapConcat(updatedThings ->
+                        Source.fromPublisher(policyIndexUpdatesCollection.deleteOne(completedUpdateFilter))
+                                .map(deleted -> updatedThings));
+    }
+
+    private Source<Long, NotUsed> updatePolicyIndexOfThings(final List<String> thingIds,
+            final PolicyIndexUpdateFactory updateFactory) {
+
+        final Bson entriesFilter = in(FIELD_THING_ID, thingIds);
+        return Source.fromPublisher(policiesCollection.find(entriesFilter)
+                .projection(Projections.include(FIELD_ID, FIELD_THING_ID, FIELD_RESOURCE)))
+                .fold(new ArrayList<Document>(), (entries, entry) -> {
+                    entries.add(entry);
+                    return entries;
+                })
+                .flatMapConcat(entries ->
+                        bulkWriteOrdered(policiesCollection, updateFactory.createPolicyIndexUpdates(entries)))
+                .flatMapConcat(done -> bulkWriteOrdered(collection, updateFactory.createThingUpdates(thingIds)))
+                .map(done -> (long) thingIds.size());
+    }
+
+    private static Source<Done, NotUsed> bulkWriteOrdered(final MongoCollection<Document> targetCollection,
+            final List<WriteModel<Document>> writeModels) {
+
+        if (writeModels.isEmpty()) {
+            return Source.single(Done.getInstance());
+        }
+        return Source.fromPublisher(targetCollection.bulkWrite(writeModels, new BulkWriteOptions().ordered(true)))
+                .map(result -> Done.getInstance());
+    }
+
+    @Override
+    public final Source<PolicyTag, NotUsed> getPendingPolicyIndexUpdates() {
+        log.debug("Retrieving pending policy index updates");
+        return Source.fromPublisher(policyIndexUpdatesCollection.find())
+                .map(doc -> PolicyTag.of(doc.getString(FIELD_ID), doc.getLong(FIELD_POLICY_REVISION)));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.persistence.write.impl;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.eclipse.ditto.model.enforcers.EffectedSubjectIds;
+import org.eclipse.ditto.model.enforcers.Enforcer;
+import org.eclipse.ditto.model.policies.PoliciesResourceType;
+import org.eclipse.ditto.model.policies.ResourceKey;
+import org.eclipse.ditto.services.models.policies.Permission;
+import org.eclipse.ditto.services.models.policies.PolicyTag;
+import org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants;
+
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Creates the writes which apply one revision of a policy to the search index of many things at once.
+ * <p>
+ * The permissions of a policy index entry only depend on the policy and on the path of the entry within its thing.
+ * Thus they are evaluated once per path and written to the entries of all things with set-based updates instead of
+ * evaluating and re-inserting the entries of each thing separately.
+ * </p>
+ */
+@NotThreadSafe
+final class PolicyIndexUpdateFactory {
+
+    private final PolicyTag policyTag;
+    private final Enforcer policyEnforcer;
+    @Nullable private final Bson pushGlobalReads;
+    private final Map<String, Bson> permissionUpdatesByPath;
+
+    private PolicyIndexUpdateFactory(final PolicyTag policyTag, final Enforcer policyEnforcer) {
+        this.policyTag = policyTag;
+        this.policyEnforcer = policyEnforcer;
+        pushGlobalReads = PolicyUpdateFactory.createPushGlobalReads(policyEnforcer);
+        permissionUpdatesByPath = new HashMap<>();
+    }
+
+    /**
+     * Returns a factory for the writes of one policy revision.
+     *
+     * @param policyTag ID and revision of the policy.
+     * @param policyEnforcer the enforcer which holds the policy of {@code policyTag}.
+     * @return the factory.
+     */
+    static PolicyIndexUpdateFactory of(final PolicyTag policyTag, final Enforcer policyEnforcer) {
+        return new PolicyIndexUpdateFactory(policyTag, policyEnforcer);
+    }
+
+    /**
+     * Creates the updates of the policy index entries of some things. One update is created for each distinct path
+     * which sets the permissions of the entries of all things at this path.
+     *
+     * @param policyIndexEntries the existing policy index entries of the things with at least their ID, thing ID and
+     * resource.
+     * @return the updates.
+     */
+    List<WriteModel<Document>> createPolicyIndexUpdates(final Collection<Document> policyIndexEntries) {
+        final Map<String, List<String>> entryIdsByPath = new LinkedHashMap<>();
+        for (final Document entry : policyIndexEntries) {
+            final String entryId = entry.getString(PersistenceConstants.FIELD_ID);
+            final String thingId = entry.getString(PersistenceConstants.FIELD_THING_ID);
+            final String resource = entry.getString(PersistenceConstants.FIELD_RESOURCE);
+            final String path = toPath(entryId.substring(thingId.length() + 1), resource);
+            entryIdsByPath.computeIfAbsent(path, p -> new ArrayList<>()).add(entryId);
+        }
+
+        final List<WriteModel<Document>> updates = new ArrayList<>(entryIdsByPath.size());
+        entryIdsByPath.forEach((path, entryIds) ->
+                updates.add(new UpdateManyModel<>(in(PersistenceConstants.FIELD_ID, entryIds),
+                        permissionUpdatesByPath.computeIfAbsent(path, this::createPermissionUpdate))));
+        return updates;
+    }
+
+    /**
+     * Creates the ordered updates of the global reads and of the policy revision of some things. Only things whose
+     * index is based on an older revision of the policy are updated; the policy revision is updated last, thus it
+     * marks the things whose index is up-to-date.
+     *
+     * @param thingIds the IDs of the things.
+     * @return the updates.
+     */
+    List<WriteModel<Document>> createThingUpdates(final Collection<String> thingIds) {
+        final Bson filter = and(in(PersistenceConstants.FIELD_ID, thingIds),
+                eq(PersistenceConstants.FIELD_POLICY_ID, policyTag.getId()),
+                lt(PersistenceConstants.FIELD_POLICY_REVISION, policyTag.getRevision()));
+
+        final List<WriteModel<Document>> updates = new ArrayList<>(4);
+        updates.add(new UpdateManyModel<>(filter, PolicyUpdateFactory.PULL_GLOBAL_READS));
+        if (pushGlobalReads != null) {
+            updates.add(new UpdateManyModel<>(filter, pushGlobalReads));
+        }
+        updates.add(new UpdateManyModel<>(filter, PolicyUpdateFactory.PULL_ACL));
+        updates.add(new UpdateManyModel<>(filter, new Document(PersistenceConstants.SET,
+                new Document(PersistenceConstants.FIELD_POLICY_REVISION, policyTag.getRevision()))));
+        return updates;
+    }
+
+    private Bson createPermissionUpdate(final String path) {
+        final ResourceKey resourceKey = ResourceKey.newInstance(PoliciesResourceType.THING, path);
+        final EffectedSubjectIds effectedSubjectIds =
+                policyEnforcer.getSubjectIdsWithPermission(resourceKey, Permission.READ);
+        return new Document(PersistenceConstants.SET, new Document()
+                .append(PersistenceConstants.FIELD_GRANTED, effectedSubjectIds.getGranted())
+                .append(PersistenceConstants.FIELD_REVOKED, effectedSubjectIds.getRevoked()));
+    }
+
+    /**
+     * Reverts the creation of policy entry IDs and resources by the {@link ResourcePermissions} implementations to
+     * get the path of an entry within its thing.
+     */
+    private static String toPath(final String entryIdWithoutThingId, final String resource) {
+        if (resource.startsWith(PersistenceConstants.FIELD_ATTRIBUTE_PREFIX_WITH_ENDING_SLASH)) {
+            return PersistenceConstants.FIELD_ATTRIBUTES_WITH_PATH +
+                    resource.substring(PersistenceConstants.FIELD_ATTRIBUTE_PREFIX_WITH_ENDING_SLASH.length());
+        } else if (resource.startsWith(PersistenceConstants.FIELD_FEATURE_PROPERTIES_PREFIX_WITH_ENDING_SLASH)) {
+            final String featureId =
+                    entryIdWithoutThingId.substring(0, entryIdWithoutThingId.length() - resource.length());
+            final String propertyPointer =
+                    resource.substring(PersistenceConstants.FIELD_FEATURE_PROPERTIES_PREFIX_WITH_ENDING_SLASH.length());
+            return String.join(PersistenceConstants.SLASH, PersistenceConstants.FIELD_FEATURES, featureId,
+                    PersistenceConstants.FIELD_PROPERTIES, propertyPointer);
+        } else {
+            // feature entries have the resource "features/<featureId>" which is also their path
+            return resource;
+        }
+    }
+
+}
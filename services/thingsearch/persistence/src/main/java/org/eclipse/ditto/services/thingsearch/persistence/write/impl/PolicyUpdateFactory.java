@@ -22,6 +22,7 @@ import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.bson.Document;
@@ -78,17 +79,7 @@ final class PolicyUpdateFactory {
                 .map(features -> createEntriesForFeatures(features, policyEnforcer))
                 .orElseGet(Collections::emptySet));
 
-        final Set<Document> globalReads = getGlobalReadsDocuments(policyEnforcer);
-
-        final Bson pushGlobalReads;
-        if (globalReads.isEmpty()) {
-            // don't create useless update if there are no global reads
-            pushGlobalReads = null;
-        } else {
-            pushGlobalReads = new Document(PersistenceConstants.PUSH,
-                    new Document(PersistenceConstants.FIELD_INTERNAL, new Document(
-                            PersistenceConstants.EACH, globalReads)));
-        }
+        final Bson pushGlobalReads = createPushGlobalReads(policyEnforcer);
 
         final String thingId = thing.getId().orElseThrow(() -> new IllegalStateException("Thing does not have an ID!"));
         final Set<Document> policyEntries = createPolicyEntries(thingId, resourcePermissions);
@@ -98,6 +89,24 @@ final class PolicyUpdateFactory {
         return new PolicyUpdate(policiesFilter, policyEntries, PULL_GLOBAL_READS, pushGlobalReads, PULL_ACL);
     }
 
+    /**
+     * Creates the update which pushes the subjects with partial read permission on the thing to its global reads.
+     *
+     * @param policyEnforcer the enforcer which holds the current policy.
+     * @return the update or {@code null} if there are no global reads.
+     */
+    @Nullable
+    static Bson createPushGlobalReads(final Enforcer policyEnforcer) {
+        final Set<Document> globalReads = getGlobalReadsDocuments(policyEnforcer);
+        if (globalReads.isEmpty()) {
+            // don't create useless update if there are no global reads
+            return null;
+        }
+        return new Document(PersistenceConstants.PUSH,
+                new Document(PersistenceConstants.FIELD_INTERNAL, new Document(
+                        PersistenceConstants.EACH, globalReads)));
+    }
+
     private static Set<Document> getGlobalReadsDocuments(final Enforcer policyEnforcer) {
         final Set<String> subjectIds =
                 policyEnforcer.getSubjectIdsWithPartialPermission(ThingResourceKey.ROOT, Permission.READ);
@@ -13,6 +13,7 @@
 package org.eclipse.ditto.services.thingsearch.persistence;
 
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.POLICIES_BASED_SEARCH_INDEX_COLLECTION_NAME;
+import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.POLICY_INDEX_UPDATES_COLLECTION_NAME;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.THINGS_COLLECTION_NAME;
 import static org.eclipse.ditto.services.thingsearch.persistence.PersistenceConstants.THINGS_SYNC_STATE_COLLECTION_NAME;
 
@@ -90,6 +91,7 @@ public abstract class AbstractThingSearchPersistenceITBase {
     private MongoCollection<Document> thingsCollection;
     private MongoCollection<Document> policiesCollection;
     private MongoCollection<Document> syncCollection;
+    private MongoCollection<Document> policyIndexUpdatesCollection;
 
     private ActorSystem actorSystem;
     private ActorMaterializer actorMaterializer;
@@ -112,6 +114,7 @@ public abstract class AbstractThingSearchPersistenceITBase {
         thingsCollection = mongoClient.getCollection(THINGS_COLLECTION_NAME);
         policiesCollection = mongoClient.getCollection(POLICIES_BASED_SEARCH_INDEX_COLLECTION_NAME);
         syncCollection = mongoClient.getCollection(THINGS_SYNC_STATE_COLLECTION_NAME);
+        policyIndexUpdatesCollection = mongoClient.getCollection(POLICY_INDEX_UPDATES_COLLECTION_NAME);
     }
 
     private MongoThingsSearchPersistence provideReadPersistence() {
@@ -147,7 +150,8 @@ public abstract class AbstractThingSearchPersistenceITBase {
     @After
     public void after() {
         if (null != mongoClient) {
-            dropCollections(Arrays.asList(thingsCollection, policiesCollection, syncCollection));
+            dropCollections(Arrays.asList(thingsCollection, policiesCollection, syncCollection,
+                    policyIndexUpdatesCollection));
         }
         if (null != actorSystem) {
             TestKit.shutdownActorSystem(actorSystem);
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.persistence.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ditto.model.base.exceptions.InvalidRqlExpressionException;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
+import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
+import org.eclipse.ditto.model.query.criteria.Criteria;
+import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactoryImpl;
+import org.eclipse.ditto.model.query.filter.QueryFilterCriteriaFactory;
+import org.eclipse.ditto.services.thingsearch.persistence.read.PolicyRestrictedSearchAggregation;
+import org.junit.Test;
+
+/**
+ * Tests {@link SearchQueryPlanCache}.
+ */
+public final class SearchQueryPlanCacheTest {
+
+    private static final String FILTER = "eq(attributes/manufacturer,\"ACME\")";
+    private static final List<String> SUBJECTS = Collections.singletonList("sid:first");
+
+    private final QueryFilterCriteriaFactory queryFilterCriteriaFactory =
+            new QueryFilterCriteriaFactory(new CriteriaFactoryImpl(), new ThingsFieldExpressionFactoryImpl());
+    private final SearchQueryPlanCache underTest = SearchQueryPlanCache.of(10L);
+
+    @Test
+    public void parsesFilterOnlyOnce() {
+        final Criteria first = underTest.getCriteria(FILTER, DittoHeaders.empty(), queryFilterCriteriaFactory);
+        final Criteria second = underTest.getCriteria(FILTER, DittoHeaders.empty(), queryFilterCriteriaFactory);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void doesNotCacheInvalidFilter() {
+        final DittoHeaders firstHeaders = DittoHeaders.newBuilder().correlationId("first").build();
+        final DittoHeaders secondHeaders = DittoHeaders.newBuilder().correlationId("second").build();
+
+        assertThatExceptionOfType(InvalidRqlExpressionException.class)
+                .isThrownBy(() -> underTest.getCriteria("eq(", firstHeaders, queryFilterCriteriaFactory));
+        assertThatExceptionOfType(InvalidRqlExpressionException.class)
+                .isThrownBy(() -> underTest.getCriteria("eq(", secondHeaders, queryFilterCriteriaFactory))
+                .satisfies(e -> assertThat(e.getDittoHeaders().getCorrelationId()).contains("second"));
+    }
+
+    @Test
+    public void rebindsCachedAggregationToSubjectsOfRequest() {
+        final PolicyRestrictedSearchAggregation cachedAggregation = mock(PolicyRestrictedSearchAggregation.class);
+        final PolicyRestrictedSearchAggregation reboundAggregation = mock(PolicyRestrictedSearchAggregation.class);
+        final List<String> otherSubjects = Collections.singletonList("sid:other");
+        when(cachedAggregation.withAuthorizationSubjects(otherSubjects)).thenReturn(reboundAggregation);
+        final AtomicInteger builds = new AtomicInteger();
+
+        final PolicyRestrictedSearchAggregation first = underTest.getAggregation(planKey(Arrays.asList("a", "b")),
+                SUBJECTS, () -> {
+                    builds.incrementAndGet();
+                    return cachedAggregation;
+                });
+        final PolicyRestrictedSearchAggregation second = underTest.getAggregation(planKey(Arrays.asList("b", "a")),
+                otherSubjects, () -> {
+                    builds.incrementAndGet();
+                    return cachedAggregation;
+                });
+
+        assertThat(first).isSameAs(cachedAggregation);
+        assertThat(second).isSameAs(reboundAggregation);
+        assertThat(builds).hasValue(1);
+        verify(cachedAggregation).withAuthorizationSubjects(otherSubjects);
+    }
+
+    @Test
+    public void distinguishesRequestsWithDifferentOptions() {
+        final SearchQueryPlanCache.PlanKey sortedAscending =
+                SearchQueryPlanCache.PlanKey.of(false, FILTER, null, "sort(+thingId)", JsonSchemaVersion.V_2);
+        final SearchQueryPlanCache.PlanKey sortedDescending =
+                SearchQueryPlanCache.PlanKey.of(false, FILTER, null, "sort(-thingId)", JsonSchemaVersion.V_2);
+        final SearchQueryPlanCache.PlanKey counting =
+                SearchQueryPlanCache.PlanKey.of(true, FILTER, null, "sort(+thingId)", JsonSchemaVersion.V_2);
+
+        assertThat(sortedAscending).isNotEqualTo(sortedDescending).isNotEqualTo(counting);
+    }
+
+    private static SearchQueryPlanCache.PlanKey planKey(final List<String> namespaces) {
+        return SearchQueryPlanCache.PlanKey.of(false, FILTER, namespaces, null, JsonSchemaVersion.V_2);
+    }
+
+}
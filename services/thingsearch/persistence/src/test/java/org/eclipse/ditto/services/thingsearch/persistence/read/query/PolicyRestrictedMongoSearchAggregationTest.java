@@ -13,18 +13,30 @@
 package org.eclipse.ditto.services.thingsearch.persistence.read.query;
 
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+import org.bson.BsonDocument;
 import org.bson.conversions.Bson;
+import org.eclipse.ditto.model.query.SortDirection;
+import org.eclipse.ditto.model.query.SortOption;
 import org.eclipse.ditto.model.query.criteria.Criteria;
 import org.eclipse.ditto.model.query.criteria.CriteriaFactory;
 import org.eclipse.ditto.model.query.criteria.CriteriaFactoryImpl;
 import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactory;
 import org.eclipse.ditto.model.query.expression.ThingsFieldExpressionFactoryImpl;
+import org.eclipse.ditto.services.base.config.DittoLimitsConfigReader;
+import org.eclipse.ditto.services.base.config.LimitsConfigReader;
+import org.eclipse.ditto.services.thingsearch.persistence.read.PolicyRestrictedSearchAggregation;
+import org.eclipse.ditto.services.utils.persistence.mongo.BsonUtil;
 import org.junit.Test;
 
+import com.typesafe.config.ConfigFactory;
+
 /**
  * Tests {@link PolicyRestrictedMongoSearchAggregation}.
  */
@@ -42,4 +54,49 @@ public final class PolicyRestrictedMongoSearchAggregationTest {
         assertThat(actualBson).isEmpty();
     }
 
+    @Test
+    public void aggregationBoundToOtherSubjectsEqualsAggregationBuiltForThem() {
+        final Criteria criteria = cf.and(Arrays.asList(
+                cf.fieldCriteria(tf.filterByAttribute("manufacturer"), cf.eq("ACME")),
+                cf.fieldCriteria(tf.filterByFeatureProperty("lamp", "on"), cf.eq(true))));
+        final List<SortOption> sortOptions =
+                Collections.singletonList(new SortOption(tf.sortByAttribute("manufacturer"), SortDirection.DESC));
+        final List<String> firstSubjects = Arrays.asList("sid:first", "sid:second");
+        final List<String> otherSubjects = Collections.singletonList("sid:other");
+
+        final PolicyRestrictedSearchAggregation boundAggregation = newBuilder(criteria)
+                .sortOptions(sortOptions)
+                .skip(5L)
+                .authorizationSubjects(firstSubjects)
+                .build()
+                .withAuthorizationSubjects(otherSubjects);
+        final PolicyRestrictedSearchAggregation builtAggregation = newBuilder(criteria)
+                .sortOptions(sortOptions)
+                .skip(5L)
+                .authorizationSubjects(otherSubjects)
+                .build();
+
+        assertThat(toBsonDocuments(boundAggregation)).isEqualTo(toBsonDocuments(builtAggregation));
+        assertThat(toBsonDocuments(boundAggregation).toString()).contains("sid:other").doesNotContain("sid:first");
+        assertThat(boundAggregation.getSkip()).isEqualTo(5);
+        assertThat(boundAggregation.getCriteria()).isEqualTo(criteria);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void bindingNonSudoAggregationToNoSubjectsFails() {
+        newBuilder(cf.any())
+                .authorizationSubjects(Collections.singletonList("sid:first"))
+                .build()
+                .withAuthorizationSubjects(Collections.emptyList());
+    }
+
+    private static PolicyRestrictedMongoSearchAggregation.Builder newBuilder(final Criteria criteria) {
+        final LimitsConfigReader limitsConfigReader = DittoLimitsConfigReader.fromRawConfig(ConfigFactory.load("test"));
+        return new PolicyRestrictedMongoSearchAggregation.Builder(limitsConfigReader).filterCriteria(criteria);
+    }
+
+    private static List<BsonDocument> toBsonDocuments(final PolicyRestrictedSearchAggregation aggregation) {
+        return BsonUtil.toBsonDocuments(aggregation.getAggregationPipeline());
+    }
+
 }
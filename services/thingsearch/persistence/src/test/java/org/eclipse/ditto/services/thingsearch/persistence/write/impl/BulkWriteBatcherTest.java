@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.persistence.write.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+
+import akka.Done;
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.AsPublisher;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+
+/**
+ * Tests {@link BulkWriteBatcher} with a mocked collection.
+ */
+public final class BulkWriteBatcherTest {
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+    private static final Duration MAX_BATCH_LATENCY = Duration.ofSeconds(10L);
+
+    private ActorSystem actorSystem;
+    private ActorMaterializer materializer;
+    private MongoCollection<Document> collection;
+    private List<List<WriteModel<Document>>> bulkWrites;
+    private List<Boolean> orderedFlags;
+    private List<Function<List<WriteModel<Document>>, Source<BulkWriteResult, ?>>> bulkWriteResponses;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+        actorSystem = ActorSystem.create("AkkaTestSystem");
+        materializer = ActorMaterializer.create(actorSystem);
+        collection = mock(MongoCollection.class);
+        bulkWrites = Collections.synchronizedList(new ArrayList<>());
+        orderedFlags = Collections.synchronizedList(new ArrayList<>());
+        bulkWriteResponses = Collections.synchronizedList(new ArrayList<>());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            final List<WriteModel<Document>> writeModels = invocation.getArgument(0);
+            bulkWrites.add(writeModels);
+            orderedFlags.add(invocation.<BulkWriteOptions>getArgument(1).isOrdered());
+            return bulkWriteResponses.remove(0)
+                    .apply(writeModels)
+                    .runWith(Sink.asPublisher(AsPublisher.WITHOUT_FANOUT), materializer);
+        });
+    }
+
+    @After
+    public void shutdown() {
+        actorSystem.terminate();
+    }
+
+    @Test
+    public void combinesSingleWritesOfManyThingsIntoOneUnorderedBulkWrite() throws Exception {
+        respondWith(success());
+        final BulkWriteBatcher underTest = BulkWriteBatcher.of(collection, 3, MAX_BATCH_LATENCY, 1, materializer);
+
+        final List<CompletableFuture<Done>> results = Arrays.asList(
+                submit(underTest, insert("a")),
+                submit(underTest, insert("b")),
+                submit(underTest, insert("c")));
+
+        for (final CompletableFuture<Done> result : results) {
+            assertThat(result.get(5L, TimeUnit.SECONDS)).isEqualTo(Done.getInstance());
+        }
+        assertThat(bulkWrites).hasSize(1);
+        assertThat(bulkWrites.get(0)).hasSize(3);
+        assertThat(orderedFlags).containsExactly(false);
+    }
+
+    @Test
+    public void reportsFailedWriteOfUnorderedBulkWriteToItsRequestOnly() throws Exception {
+        final BulkWriteBatcher underTest = BulkWriteBatcher.of(collection, 2, MAX_BATCH_LATENCY, 1, materializer);
+        final WriteModel<Document> failingWrite = insert("b");
+        respondWithDuplicateKeyFor(failingWrite);
+
+        final CompletableFuture<Done> first = submit(underTest, insert("a"));
+        final CompletableFuture<Done> second = submit(underTest, failingWrite);
+
+        assertThat(errorOf(first)).isNull();
+        assertThat(errorOf(second))
+                .isInstanceOf(MongoWriteException.class)
+                .satisfies(error -> assertThat(((MongoWriteException) error).getCode())
+                        .isEqualTo(DUPLICATE_KEY_ERROR_CODE));
+        assertThat(bulkWrites).hasSize(1);
+    }
+
+    @Test
+    public void writesRemainingRequestsAgainAfterFailedWriteOfOrderedBulkWrite() throws Exception {
+        final BulkWriteBatcher underTest = BulkWriteBatcher.of(collection, 4, MAX_BATCH_LATENCY, 1, materializer);
+        final WriteModel<Document> failingWrite = insert("b");
+        respondWithDuplicateKeyFor(failingWrite);
+        respondWith(success());
+
+        final CompletableFuture<Done> first = submit(underTest, insert("a1"), insert("a2"));
+        final CompletableFuture<Done> second = submit(underTest, failingWrite);
+        final CompletableFuture<Done> third = submit(underTest, insert("c"));
+
+        assertThat(errorOf(first)).isNull();
+        assertThat(errorOf(second)).isInstanceOf(MongoWriteException.class);
+        assertThat(errorOf(third)).isNull();
+        assertThat(bulkWrites.get(0)).hasSize(4);
+        assertThat(orderedFlags.get(0)).isTrue();
+        // exactly the write models behind the failed one are written again
+        final int failedIndex = bulkWrites.get(0).indexOf(failingWrite);
+        if (failedIndex < bulkWrites.get(0).size() - 1) {
+            assertThat(bulkWrites).hasSize(2);
+            assertThat(bulkWrites.get(1)).isEqualTo(bulkWrites.get(0).subList(failedIndex + 1, 4));
+        } else {
+            assertThat(bulkWrites).hasSize(1);
+        }
+    }
+
+    @Test
+    public void reportsFailedBulkWriteToAllRequests() throws Exception {
+        final BulkWriteBatcher underTest = BulkWriteBatcher.of(collection, 2, MAX_BATCH_LATENCY, 1, materializer);
+        final IllegalStateException error = new IllegalStateException("db mock error");
+        respondWith(failure(error));
+
+        final CompletableFuture<Done> first = submit(underTest, insert("a"));
+        final CompletableFuture<Done> second = submit(underTest, insert("b"));
+
+        assertThat(errorOf(first)).isSameAs(error);
+        assertThat(errorOf(second)).isSameAs(error);
+    }
+
+    @Test
+    public void reportsOutcomeOfItsOwnWriteModelsToEachRequest() throws Exception {
+        final BulkWriteBatcher underTest = BulkWriteBatcher.of(collection, 3, MAX_BATCH_LATENCY, 1, materializer);
+        final WriteModel<Document> firstFailingWrite = upsert("a");
+        final WriteModel<Document> secondFailingWrite = insert("c");
+        bulkWriteResponses.add(writeModels -> failure(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                Arrays.asList(duplicateKeyErrorAt(writeModels.indexOf(firstFailingWrite)),
+                        duplicateKeyErrorAt(writeModels.indexOf(secondFailingWrite))),
+                null, new ServerAddress())));
+
+        final CompletableFuture<Done> first = submit(underTest, firstFailingWrite);
+        final CompletableFuture<Done> second = submit(underTest, update("b"));
+        final CompletableFuture<Done> third = submit(underTest, secondFailingWrite);
+
+        assertThat(errorOf(first)).isInstanceOf(MongoWriteException.class);
+        assertThat(errorOf(second)).isNull();
+        assertThat(errorOf(third)).isInstanceOf(MongoWriteException.class);
+        assertThat(bulkWrites).hasSize(1);
+    }
+
+    @Test
+    public void backpressuresRequestsWhileQueueIsFull() throws Exception {
+        final BulkWriteBatcher underTest =
+                BulkWriteBatcher.of(collection, 1, Duration.ofMillis(50L), 1, materializer);
+        final CompletableFuture<BulkWriteResult> pendingBulkWrite = new CompletableFuture<>();
+        respondWith(Source.fromCompletionStage(pendingBulkWrite));
+        for (int i = 1; i < 20; i++) {
+            respondWith(success());
+        }
+
+        final List<CompletableFuture<Done>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(submit(underTest, insert(String.valueOf(i))));
+        }
+        TimeUnit.MILLISECONDS.sleep(500L);
+        assertThat(results).noneMatch(CompletableFuture::isDone);
+        assertThat(bulkWrites).hasSize(1);
+
+        pendingBulkWrite.complete(BulkWriteResult.unacknowledged());
+        for (final CompletableFuture<Done> result : results) {
+            assertThat(errorOf(result)).isNull();
+        }
+        assertThat(bulkWrites).hasSize(20);
+    }
+
+    private void respondWith(final Source<BulkWriteResult, ?> response) {
+        bulkWriteResponses.add(writeModels -> response);
+    }
+
+    private void respondWithDuplicateKeyFor(final WriteModel<Document> failingWriteModel) {
+        bulkWriteResponses.add(writeModels -> failure(duplicateKeyAt(writeModels.indexOf(failingWriteModel))));
+    }
+
+    @SafeVarargs
+    private final CompletableFuture<Done> submit(final BulkWriteBatcher underTest,
+            final WriteModel<Document>... writeModels) {
+
+        return underTest.submit(Arrays.asList(writeModels))
+                .runWith(Sink.head(), materializer)
+                .toCompletableFuture();
+    }
+
+    private static Throwable errorOf(final CompletableFuture<Done> result) throws Exception {
+        try {
+            result.get(5L, TimeUnit.SECONDS);
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static WriteModel<Document> insert(final String id) {
+        return new InsertOneModel<>(new Document("_id", id));
+    }
+
+    private static WriteModel<Document> upsert(final String id) {
+        return new UpdateOneModel<>(new Document("_id", id), new Document("$set", new Document("x", 1)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private static WriteModel<Document> update(final String id) {
+        return new UpdateOneModel<>(new Document("_id", id), new Document("$set", new Document("x", 1)));
+    }
+
+    private static Source<BulkWriteResult, ?> success() {
+        return Source.single(BulkWriteResult.unacknowledged());
+    }
+
+    private static Source<BulkWriteResult, ?> failure(final Throwable error) {
+        return Source.failed(error);
+    }
+
+    private static MongoBulkWriteException duplicateKeyAt(final int index) {
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                Collections.singletonList(duplicateKeyErrorAt(index)), null, new ServerAddress());
+    }
+
+    private static BulkWriteError duplicateKeyErrorAt(final int index) {
+        return new BulkWriteError(DUPLICATE_KEY_ERROR_CODE, "duplicate key", new BsonDocument(), index);
+    }
+
+}
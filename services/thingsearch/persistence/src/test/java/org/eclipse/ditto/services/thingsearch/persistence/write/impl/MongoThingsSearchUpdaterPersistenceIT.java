@@ -56,6 +56,7 @@ import org.eclipse.ditto.model.things.Thing;
 import org.eclipse.ditto.model.things.ThingLifecycle;
 import org.eclipse.ditto.model.things.ThingsModelFactory;
 import org.eclipse.ditto.services.models.policies.Permission;
+import org.eclipse.ditto.services.models.policies.PolicyTag;
 import org.eclipse.ditto.services.thingsearch.persistence.AbstractThingSearchPersistenceITBase;
 import org.eclipse.ditto.services.thingsearch.persistence.read.PolicyRestrictedSearchAggregation;
 import org.eclipse.ditto.services.thingsearch.persistence.write.ThingMetadata;
@@ -1474,6 +1475,51 @@ public final class MongoThingsSearchUpdaterPersistenceIT extends AbstractThingSe
                     .isTrue();
         }
 
+        @Test
+        public void updatePolicyIndexOfOutdatedThings() {
+            final Thing thing1 = createThing("test:id1", VALUE1, isV2);
+            final Thing thing2 = createThing("test:id2", VALUE1, isV2);
+            insertBlockingAndResetMocks(isV2, thing1, 1L, 1L, policyEnforcer);
+            insertBlockingAndResetMocks(isV2, thing2, 1L, 1L, policyEnforcer);
+            final Policy policy2 = createPolicy2();
+            final PolicyTag policyTag = PolicyTag.of(policy2.getId().orElseThrow(IllegalStateException::new), 2L);
+
+            final Long updatedThings = runBlockingWithReturn(
+                    writePersistence.updatePolicyIndex(policyTag, PolicyEnforcers.defaultEvaluator(policy2)));
+
+            assertThat(updatedThings).isEqualTo(2L);
+            assertThat(runBlockingWithReturn(writePersistence.getThingMetadata("test:id2")).getPolicyRevision())
+                    .isEqualTo(2L);
+            assertThat(findAll(abf.newBuilder(cf.fieldCriteria(fef.filterByAttribute(KEY1), cf.eq(VALUE1)))
+                    .authorizationSubjects(Collections.singletonList("some:user2"))
+                    .build()))
+                    .containsOnly("test:id1", "test:id2");
+            assertThat(findAll(abf.newBuilder(cf.fieldCriteria(fef.filterByAttribute(KEY1), cf.eq(VALUE1)))
+                    .authorizationSubjects(DEFAULT_POLICY_SUBJECTS)
+                    .build()))
+                    .isEmpty();
+            assertThat(runBlockingWithReturn(
+                    writePersistence.getPendingPolicyIndexUpdates().fold(0, (count, tag) -> count + 1)))
+                    .isZero();
+        }
+
+        @Test
+        public void updatePolicyIndexSkipsUpToDateThings() {
+            final Thing thing = createThing(KNOWN_THING_ID, VALUE1, isV2);
+            insertBlockingAndResetMocks(isV2, thing, 1L, 2L, policyEnforcer);
+            final Policy policy2 = createPolicy2();
+            final PolicyTag policyTag = PolicyTag.of(policy2.getId().orElseThrow(IllegalStateException::new), 2L);
+
+            final Long updatedThings = runBlockingWithReturn(
+                    writePersistence.updatePolicyIndex(policyTag, PolicyEnforcers.defaultEvaluator(policy2)));
+
+            assertThat(updatedThings).isZero();
+            assertThat(findAll(abf.newBuilder(cf.fieldCriteria(fef.filterByAttribute(KEY1), cf.eq(VALUE1)))
+                    .authorizationSubjects(DEFAULT_POLICY_SUBJECTS)
+                    .build()))
+                    .containsOnly(KNOWN_THING_ID);
+        }
+
         @Test
         public void insertWithSameThingRevisionAndSamePolicyRevision() {
             final Thing thing = createThing(KNOWN_THING_ID, VALUE1, isV2);
@@ -34,6 +34,7 @@ import org.eclipse.ditto.services.models.thingsearch.commands.sudo.SudoCountThin
 import org.eclipse.ditto.services.models.thingsearch.commands.sudo.SudoRetrieveNamespaceReport;
 import org.eclipse.ditto.services.thingsearch.common.model.ResultList;
 import org.eclipse.ditto.services.thingsearch.persistence.query.AggregationQueryActor;
+import org.eclipse.ditto.services.thingsearch.persistence.query.SearchQueryPlanCache;
 import org.eclipse.ditto.services.thingsearch.persistence.query.QueryActor;
 import org.eclipse.ditto.services.thingsearch.persistence.read.PolicyRestrictedSearchAggregation;
 import org.eclipse.ditto.services.thingsearch.persistence.read.ThingsSearchPersistence;
@@ -106,16 +107,19 @@ public final class SearchActor extends AbstractActor {
     private final ActorRef aggregationQueryActor;
     private final ActorRef findQueryActor;
     private final ThingsSearchPersistence searchPersistence;
+    private final SearchQueryPlanCache planCache;
     private final ActorMaterializer materializer;
     private final ExecutionContextExecutor dispatcher;
 
     private SearchActor(final ActorRef aggregationQueryActor,
             final ActorRef findQueryActor,
-            final ThingsSearchPersistence searchPersistence) {
+            final ThingsSearchPersistence searchPersistence,
+            final SearchQueryPlanCache planCache) {
 
         this.aggregationQueryActor = aggregationQueryActor;
         this.findQueryActor = findQueryActor;
         this.searchPersistence = searchPersistence;
+        this.planCache = planCache;
         materializer = ActorMaterializer.create(getContext().system());
 
         dispatcher = getContext().system().dispatchers().lookup(SEARCH_DISPATCHER_ID);
@@ -129,18 +133,20 @@ public final class SearchActor extends AbstractActor {
      * @param findQueryActor ActorRef for the {@link QueryActor} to construct find queries.
      * @param searchPersistence the {@link ThingsSearchPersistence} to use in order to execute {@link
      * PolicyRestrictedSearchAggregation}s.
+     * @param planCache the cache of parsed filters, shared with the {@link AggregationQueryActor}.
      * @return the Akka configuration Props object.
      */
     static Props props(final ActorRef aggregationQueryActor,
             final ActorRef findQueryActor,
-            final ThingsSearchPersistence searchPersistence) {
+            final ThingsSearchPersistence searchPersistence,
+            final SearchQueryPlanCache planCache) {
 
         return Props.create(SearchActor.class, new Creator<SearchActor>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public SearchActor create() {
-                return new SearchActor(aggregationQueryActor, findQueryActor, searchPersistence);
+                return new SearchActor(aggregationQueryActor, findQueryActor, searchPersistence, planCache);
             }
         });
     }
@@ -336,9 +342,10 @@ public final class SearchActor extends AbstractActor {
     private ActorRef chooseQueryActor(final JsonSchemaVersion version, final Command<?> command) {
         if (command instanceof ThingSearchQueryCommand<?>) {
             final String filter = ((ThingSearchQueryCommand<?>) command).getFilter().orElse(null);
-            // useless parsing of command just to choose another actor to "parse" the filter string
+            // parsing of command just to choose another actor to "parse" the filter string, cached for both actors
             try {
-                final Criteria criteria = queryFilterCriteriaFactory.filterCriteria(filter, command.getDittoHeaders());
+                final Criteria criteria =
+                        planCache.getCriteria(filter, command.getDittoHeaders(), queryFilterCriteriaFactory);
                 final boolean needToLookupPolicy =
                         JsonSchemaVersion.V_1 != version && criteria.accept(new IsPolicyLookupNeededVisitor());
                 return needToLookupPolicy ? aggregationQueryActor : findQueryActor;
@@ -31,6 +31,7 @@ import org.eclipse.ditto.services.thingsearch.common.util.ConfigKeys;
 import org.eclipse.ditto.services.thingsearch.common.util.RootSupervisorStrategyFactory;
 import org.eclipse.ditto.services.thingsearch.persistence.query.AggregationQueryActor;
 import org.eclipse.ditto.services.thingsearch.persistence.query.QueryActor;
+import org.eclipse.ditto.services.thingsearch.persistence.query.SearchQueryPlanCache;
 import org.eclipse.ditto.services.thingsearch.persistence.read.AggregationBuilderFactory;
 import org.eclipse.ditto.services.thingsearch.persistence.read.MongoThingsSearchPersistence;
 import org.eclipse.ditto.services.thingsearch.persistence.read.ThingsSearchPersistence;
@@ -143,13 +144,18 @@ public final class SearchRootActor extends AbstractActor {
         final AggregationBuilderFactory aggregationBuilderFactory =
                 new MongoAggregationBuilderFactory(configReader.limits());
         final QueryBuilderFactory queryBuilderFactory = new MongoQueryBuilderFactory(configReader.limits());
+        final long planCacheMaximumSize = rawConfig.hasPath(ConfigKeys.QUERY_PLAN_CACHE_MAXIMUM_SIZE)
+                ? rawConfig.getLong(ConfigKeys.QUERY_PLAN_CACHE_MAXIMUM_SIZE)
+                : SearchQueryPlanCache.DEFAULT_MAXIMUM_SIZE;
+        final SearchQueryPlanCache planCache = SearchQueryPlanCache.of(planCacheMaximumSize);
         final ActorRef aggregationQueryActor = startChildActor(AggregationQueryActor.ACTOR_NAME,
-                AggregationQueryActor.props(criteriaFactory, fieldExpressionFactory, aggregationBuilderFactory));
+                AggregationQueryActor.props(criteriaFactory, fieldExpressionFactory, aggregationBuilderFactory,
+                        planCache));
         final ActorRef apiV1QueryActor = startChildActor(QueryActor.ACTOR_NAME,
                 QueryActor.props(criteriaFactory, fieldExpressionFactory, queryBuilderFactory));
 
         return startChildActor(SearchActor.ACTOR_NAME,
-                SearchActor.props(aggregationQueryActor, apiV1QueryActor, thingsSearchPersistence));
+                SearchActor.props(aggregationQueryActor, apiV1QueryActor, thingsSearchPersistence, planCache));
     }
 
     private ActorRef initializeHealthCheckActor(final ServiceConfigReader configReader,
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.updater.actors;
+
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+
+import akka.actor.ActorRef;
+
+/**
+ * Published on the event stream of the local actor system by a {@link ThingUpdater} after it retrieved the policy of
+ * its thing. The {@link ThingsUpdater} forwards the events of the policy to the registered {@code ThingUpdater}s if the
+ * policy index is updated by the {@link PolicyIndexUpdater}, so that they do not keep using an outdated policy.
+ */
+@Immutable
+final class PolicyEnforcerRegistration {
+
+    private final String policyId;
+    private final ActorRef thingUpdater;
+
+    PolicyEnforcerRegistration(final String policyId, final ActorRef thingUpdater) {
+        this.policyId = policyId;
+        this.thingUpdater = thingUpdater;
+    }
+
+    /**
+     * @return the ID of the policy.
+     */
+    String getPolicyId() {
+        return policyId;
+    }
+
+    /**
+     * @return the ThingUpdater which uses the policy.
+     */
+    ActorRef getThingUpdater() {
+        return thingUpdater;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PolicyEnforcerRegistration that = (PolicyEnforcerRegistration) o;
+        return Objects.equals(policyId, that.policyId) && Objects.equals(thingUpdater, that.thingUpdater);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(policyId, thingUpdater);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [policyId=" + policyId + ", thingUpdater=" + thingUpdater + "]";
+    }
+
+}
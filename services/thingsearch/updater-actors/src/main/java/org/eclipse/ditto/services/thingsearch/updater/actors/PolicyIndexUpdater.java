@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.updater.actors;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.enforcers.PolicyEnforcers;
+import org.eclipse.ditto.model.policies.PoliciesModelFactory;
+import org.eclipse.ditto.model.policies.Policy;
+import org.eclipse.ditto.model.policies.PolicyRevision;
+import org.eclipse.ditto.services.models.policies.PolicyTag;
+import org.eclipse.ditto.services.models.policies.commands.sudo.SudoRetrievePolicy;
+import org.eclipse.ditto.services.models.policies.commands.sudo.SudoRetrievePolicyResponse;
+import org.eclipse.ditto.services.thingsearch.persistence.write.ThingsSearchUpdaterPersistence;
+import org.eclipse.ditto.services.utils.akka.LogUtil;
+import org.eclipse.ditto.services.utils.namespaces.BlockNamespaceBehavior;
+import org.eclipse.ditto.services.utils.namespaces.BlockedNamespaces;
+import org.eclipse.ditto.signals.commands.policies.exceptions.PolicyNotAccessibleException;
+import org.eclipse.ditto.signals.events.policies.PolicyEvent;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import akka.event.DiagnosticLoggingAdapter;
+import akka.event.Logging;
+import akka.japi.Creator;
+import akka.japi.pf.ReceiveBuilder;
+import akka.pattern.PatternsCS;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Applies policy changes to the search index of all things of a policy at once instead of forwarding each policy event
+ * to the {@link ThingUpdater} of each thing. The policy is retrieved once per change and written with set-based
+ * updates by {@link ThingsSearchUpdaterPersistence#updatePolicyIndex(PolicyTag,
+ * org.eclipse.ditto.model.enforcers.Enforcer)}.
+ * <p>
+ * This actor runs as cluster singleton so that each policy is updated by one instance only. The updates are executed
+ * one after another; changes of a policy which is waiting for its update are coalesced. Failed updates are retried with
+ * exponential backoff. Updates interrupted by a restart or a hand-over of the singleton are resumed on start.
+ * </p>
+ */
+final class PolicyIndexUpdater extends AbstractActor {
+
+    /**
+     * The name of this Actor in the ActorSystem.
+     */
+    static final String ACTOR_NAME = "policyIndexUpdater";
+
+    private static final String UPDATER_GROUP = "policyIndexUpdaterGroup";
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(1L);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(10L);
+
+    private final DiagnosticLoggingAdapter log = Logging.apply(this);
+
+    private final ActorRef policiesShardRegion;
+    private final ThingsSearchUpdaterPersistence searchUpdaterPersistence;
+    private final BlockNamespaceBehavior namespaceBlockingBehavior;
+    private final Materializer materializer;
+    private final Map<String, Long> queuedRevisions;
+    private final Map<String, Integer> failedAttempts;
+
+    @Nullable private PolicyTag activeUpdate;
+
+    private PolicyIndexUpdater(final ActorRef pubSubMediator,
+            final ActorRef policiesShardRegion,
+            final ThingsSearchUpdaterPersistence searchUpdaterPersistence,
+            final BlockedNamespaces blockedNamespaces) {
+
+        this.policiesShardRegion = policiesShardRegion;
+        this.searchUpdaterPersistence = searchUpdaterPersistence;
+        namespaceBlockingBehavior = BlockNamespaceBehavior.of(blockedNamespaces);
+        materializer = ActorMaterializer.create(getContext());
+        queuedRevisions = new LinkedHashMap<>();
+        failedAttempts = new HashMap<>();
+        activeUpdate = null;
+
+        pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(PolicyEvent.TYPE_PREFIX, UPDATER_GROUP, getSelf()),
+                getSelf());
+    }
+
+    /**
+     * Creates Akka configuration object for this actor.
+     *
+     * @param pubSubMediator Akka pub-sub mediator to subscribe for policy events.
+     * @param policiesShardRegion the ActorRef to the Policies shard region.
+     * @param searchUpdaterPersistence persistence to write the policy index updates to.
+     * @param blockedNamespaces cache of namespaces to block.
+     * @return the Akka configuration Props object
+     */
+    static Props props(final ActorRef pubSubMediator,
+            final ActorRef policiesShardRegion,
+            final ThingsSearchUpdaterPersistence searchUpdaterPersistence,
+            final BlockedNamespaces blockedNamespaces) {
+
+        return Props.create(PolicyIndexUpdater.class, new Creator<PolicyIndexUpdater>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public PolicyIndexUpdater create() {
+                return new PolicyIndexUpdater(pubSubMediator, policiesShardRegion, searchUpdaterPersistence,
+                        blockedNamespaces);
+            }
+        });
+    }
+
+    @Override
+    public void preStart() {
+        resumePendingUpdates(1);
+    }
+
+    @Override
+    public Receive createReceive() {
+        return ReceiveBuilder.create()
+                .match(PolicyEvent.class, this::processPolicyEvent)
+                .match(PolicyTag.class, this::enqueue)
+                .match(PolicyIndexUpdated.class, this::policyIndexUpdated)
+                .match(ResumePendingUpdates.class, resume -> resumePendingUpdates(resume.attempt))
+                .match(PendingUpdatesNotResumed.class, this::pendingUpdatesNotResumed)
+                .match(DistributedPubSubMediator.SubscribeAck.class, subscribeAck ->
+                        log.debug("Successfully subscribed to distributed pub/sub on topic '{}'",
+                                subscribeAck.subscribe().topic()))
+                .matchAny(m -> {
+                    log.warning("Unknown message: {}", m);
+                    unhandled(m);
+                }).build();
+    }
+
+    private void resumePendingUpdates(final int attempt) {
+        final ActorRef self = getSelf();
+        searchUpdaterPersistence.getPendingPolicyIndexUpdates()
+                .runForeach(policyTag -> self.tell(policyTag, ActorRef.noSender()), materializer)
+                .whenComplete((done, error) -> {
+                    if (error != null) {
+                        self.tell(new PendingUpdatesNotResumed(attempt, error), ActorRef.noSender());
+                    }
+                });
+    }
+
+    private void pendingUpdatesNotResumed(final PendingUpdatesNotResumed notResumed) {
+        final Duration retryDelay = getRetryDelay(notResumed.attempt);
+        log.error(notResumed.error, "Failed to retrieve the pending policy index updates, retrying in <{}>",
+                retryDelay);
+        scheduleToSelf(new ResumePendingUpdates(notResumed.attempt + 1), retryDelay);
+    }
+
+    private void processPolicyEvent(final PolicyEvent<?> policyEvent) {
+        LogUtil.enhanceLogWithCorrelationId(log, policyEvent);
+        final ActorRef self = getSelf();
+        namespaceBlockingBehavior.block(policyEvent)
+                .thenAccept(event -> self.tell(PolicyTag.of(event.getPolicyId(), event.getRevision()),
+                        ActorRef.noSender()))
+                .exceptionally(error -> {
+                    LogUtil.enhanceLogWithCorrelationId(log, policyEvent);
+                    log.info("Policy event ''{}'' not applied due to ''{}''", policyEvent, error);
+                    return null;
+                });
+    }
+
+    private void enqueue(final PolicyTag policyTag) {
+        queuedRevisions.merge(policyTag.getId(), policyTag.getRevision(), Math::max);
+        updateNextPolicyIndex();
+    }
+
+    private void updateNextPolicyIndex() {
+        if (activeUpdate != null || queuedRevisions.isEmpty()) {
+            return;
+        }
+        final Iterator<Map.Entry<String, Long>> queue = queuedRevisions.entrySet().iterator();
+        final Map.Entry<String, Long> next = queue.next();
+        queue.remove();
+
+        final PolicyTag queuedTag = PolicyTag.of(next.getKey(), next.getValue());
+        activeUpdate = queuedTag;
+        log.debug("Updating the policy index of policy <{}>", queuedTag);
+
+        final ActorRef self = getSelf();
+        retrievePolicy(queuedTag)
+                .thenCompose(policy -> {
+                    // the retrieved policy may be newer than the queued revision
+                    final long revision = policy.getRevision().map(PolicyRevision::toLong)
+                            .orElse(queuedTag.getRevision());
+                    final PolicyTag policyTag = PolicyTag.of(queuedTag.getId(), revision);
+                    return searchUpdaterPersistence
+                            .updatePolicyIndex(policyTag, PolicyEnforcers.defaultEvaluator(policy))
+                            .runWith(Sink.last(), materializer);
+                })
+                .whenComplete((updatedThings, error) ->
+                        self.tell(new PolicyIndexUpdated(queuedTag, updatedThings, error), ActorRef.noSender()));
+    }
+
+    private CompletionStage<Policy> retrievePolicy(final PolicyTag policyTag) {
+        final DittoHeaders dittoHeaders = DittoHeaders.newBuilder()
+                .correlationId("policyIndexUpdater-sudoRetrievePolicy-" + UUID.randomUUID())
+                .build();
+        final SudoRetrievePolicy retrievePolicy = SudoRetrievePolicy.of(policyTag.getId(), dittoHeaders);
+        return PatternsCS.ask(policiesShardRegion, retrievePolicy, ThingUpdater.DEFAULT_THINGS_TIMEOUT.toMillis())
+                .thenCompose(response -> {
+                    final CompletableFuture<Policy> policy = new CompletableFuture<>();
+                    if (response instanceof SudoRetrievePolicyResponse) {
+                        policy.complete(((SudoRetrievePolicyResponse) response).getPolicy());
+                    } else if (response instanceof PolicyNotAccessibleException) {
+                        // a deleted policy grants nothing: make its things invisible to every subject
+                        policy.complete(PoliciesModelFactory.newPolicyBuilder(policyTag.getId())
+                                .setRevision(policyTag.getRevision())
+                                .build());
+                    } else {
+                        policy.completeExceptionally(new IllegalStateException(
+                                "Unexpected response to SudoRetrievePolicy: " + response));
+                    }
+                    return policy;
+                });
+    }
+
+    private void policyIndexUpdated(final PolicyIndexUpdated policyIndexUpdated) {
+        final PolicyTag policyTag = policyIndexUpdated.policyTag;
+        if (policyIndexUpdated.error == null) {
+            failedAttempts.remove(policyTag.getId());
+            log.info("Updated the policy index of <{}> things of policy <{}>", policyIndexUpdated.updatedThings,
+                    policyTag);
+        } else {
+            // the update stays pending until it succeeds; further changes of the policy are applied meanwhile
+            final Duration retryDelay = getRetryDelay(failedAttempts.merge(policyTag.getId(), 1, Integer::sum));
+            log.error(policyIndexUpdated.error, "Failed to update the policy index of policy <{}>, retrying in <{}>",
+                    policyTag, retryDelay);
+            scheduleToSelf(policyTag, retryDelay);
+        }
+        activeUpdate = null;
+        updateNextPolicyIndex();
+    }
+
+    private void scheduleToSelf(final Object message, final Duration delay) {
+        getContext().getSystem().scheduler()
+                .scheduleOnce(FiniteDuration.create(delay.toMillis(), TimeUnit.MILLISECONDS), getSelf(), message,
+                        getContext().dispatcher(), ActorRef.noSender());
+    }
+
+    /**
+     * Doubles the retry delay with each failed attempt up to {@link #MAX_RETRY_DELAY}.
+     *
+     * @param attempt the number of failed attempts, starting at 1.
+     * @return the delay before the next attempt.
+     */
+    private static Duration getRetryDelay(final int attempt) {
+        final int doublings = Math.min(attempt - 1, 30);
+        final Duration delay = MIN_RETRY_DELAY.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+    }
+
+    /**
+     * Tells this actor to retry resuming the pending policy index updates.
+     */
+    private static final class ResumePendingUpdates {
+
+        private final int attempt;
+
+        private ResumePendingUpdates(final int attempt) {
+            this.attempt = attempt;
+        }
+
+    }
+
+    /**
+     * Tells this actor that resuming the pending policy index updates failed.
+     */
+    private static final class PendingUpdatesNotResumed {
+
+        private final int attempt;
+        private final Throwable error;
+
+        private PendingUpdatesNotResumed(final int attempt, final Throwable error) {
+            this.attempt = attempt;
+            this.error = error;
+        }
+
+    }
+
+    /**
+     * Tells this actor that an update of the policy index completed.
+     */
+    private static final class PolicyIndexUpdated {
+
+        private final PolicyTag policyTag;
+        @Nullable private final Long updatedThings;
+        @Nullable private final Throwable error;
+
+        private PolicyIndexUpdated(final PolicyTag policyTag, @Nullable final Long updatedThings,
+                @Nullable final Throwable error) {
+
+            this.policyTag = policyTag;
+            this.updatedThings = updatedThings;
+            this.error = error;
+        }
+
+    }
+
+}
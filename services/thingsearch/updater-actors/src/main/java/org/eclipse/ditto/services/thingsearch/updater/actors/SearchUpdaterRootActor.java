@@ -120,17 +120,32 @@ public final class SearchUpdaterRootActor extends AbstractActor {
                 ? config.getInt(ConfigKeys.MAX_BULK_SIZE)
                 : ThingUpdater.UNLIMITED_MAX_BULK_SIZE;
 
+        final boolean policyIndexUpdateActive = config.hasPath(ConfigKeys.POLICY_INDEX_UPDATE_ACTIVE) &&
+                config.getBoolean(ConfigKeys.POLICY_INDEX_UPDATE_ACTIVE);
+
         final BlockedNamespaces blockedNamespaces = BlockedNamespaces.of(actorSystem);
         thingsUpdaterActor = startChildActor(ThingsUpdater.ACTOR_NAME,
                 ThingsUpdater.props(numberOfShards, shardRegionFactory, searchUpdaterPersistence, circuitBreaker,
-                        eventProcessingActive, thingUpdaterActivityCheckInterval, maxBulkSize, blockedNamespaces));
+                        eventProcessingActive, thingUpdaterActivityCheckInterval, maxBulkSize, blockedNamespaces,
+                        policyIndexUpdateActive));
+
+        if (eventProcessingActive && policyIndexUpdateActive) {
+            // one instance in the cluster updates the policy index so that no policy is updated concurrently
+            startClusterSingletonActor(PolicyIndexUpdater.ACTOR_NAME,
+                    PolicyIndexUpdater.props(pubSubMediator, shardRegionFactory.getPoliciesShardRegion(numberOfShards),
+                            searchUpdaterPersistence, blockedNamespaces));
+        }
 
         // start namespace ops actor as cluster singleton
         startClusterSingletonActor(ThingsSearchNamespaceOpsActor.ACTOR_NAME,
                 ThingsSearchNamespaceOpsActor.props(pubSubMediator, searchUpdaterPersistence));
 
         final boolean thingsSynchronizationActive = config.getBoolean(ConfigKeys.THINGS_SYNCER_ACTIVE);
-        if (thingsSynchronizationActive) {
+        if (thingsSynchronizationActive && config.getBoolean(ConfigKeys.THINGS_CHANGE_STREAM_ENABLED)) {
+            startClusterSingletonActor(ThingsChangeStreamSyncActor.ACTOR_NAME,
+                    ThingsChangeStreamSyncActor.props(thingsUpdaterActor, mongoClient, thingsSyncPersistence,
+                            config.getConfig(ConfigKeys.SYNC_THINGS_CHANGE_STREAM)));
+        } else if (thingsSynchronizationActive) {
             final StreamConsumerSettings streamConsumerSettings = createThingsStreamConsumerSettings(config);
 
             startClusterSingletonActor(ThingsStreamSupervisorCreator.ACTOR_NAME,
@@ -163,9 +178,20 @@ public final class SearchUpdaterRootActor extends AbstractActor {
     private ThingsSearchUpdaterPersistence inizializeThingsSearchUpdaterPersistence(final DittoMongoClient mongoClient,
             final ActorMaterializer materializer, final Config rawConfig) {
 
+        final int maxBatchSize = rawConfig.hasPath(ConfigKeys.BULK_WRITE_MAX_BATCH_SIZE)
+                ? rawConfig.getInt(ConfigKeys.BULK_WRITE_MAX_BATCH_SIZE)
+                : MongoThingsSearchUpdaterPersistence.DEFAULT_MAX_BATCH_SIZE;
+        final Duration maxBatchLatency = rawConfig.hasPath(ConfigKeys.BULK_WRITE_MAX_BATCH_LATENCY)
+                ? rawConfig.getDuration(ConfigKeys.BULK_WRITE_MAX_BATCH_LATENCY)
+                : MongoThingsSearchUpdaterPersistence.DEFAULT_MAX_BATCH_LATENCY;
+        final int batchParallelism = rawConfig.hasPath(ConfigKeys.BULK_WRITE_PARALLELISM)
+                ? rawConfig.getInt(ConfigKeys.BULK_WRITE_PARALLELISM)
+                : MongoThingsSearchUpdaterPersistence.DEFAULT_BATCH_PARALLELISM;
+
         final ThingsSearchUpdaterPersistence searchUpdaterPersistence =
                 new MongoThingsSearchUpdaterPersistence(mongoClient, log,
-                        MongoEventToPersistenceStrategyFactory.getInstance(), materializer);
+                        MongoEventToPersistenceStrategyFactory.getInstance(), materializer, maxBatchSize,
+                        maxBatchLatency, batchParallelism);
 
         final boolean indexInitializationEnabled = rawConfig.getBoolean(ConfigKeys.INDEX_INITIALIZATION_ENABLED);
         if (indexInitializationEnabled) {
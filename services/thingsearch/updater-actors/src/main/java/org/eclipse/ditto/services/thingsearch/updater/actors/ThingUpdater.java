@@ -821,6 +821,7 @@ final class ThingUpdater extends AbstractActorWithDiscardOldStash
             policyRevision = policy.getRevision().map(PolicyRevision::toLong).orElse(UNKNOWN_REVISION);
             final Enforcer thePolicyEnforcer = PolicyEnforcers.defaultEvaluator(policy);
             this.policyEnforcer = thePolicyEnforcer;
+            getContext().getSystem().eventStream().publish(new PolicyEnforcerRegistration(policyId, getSelf()));
             updateSearchIndexWithPolicy(syncedThing, thePolicyEnforcer);
         } else {
             log.warning("Received policy ID <{0}> is not expected ID <{1}>!", policy.getId(), policyId);
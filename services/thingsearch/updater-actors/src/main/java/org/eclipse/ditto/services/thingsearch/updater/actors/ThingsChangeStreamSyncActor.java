@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.updater.actors;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.eclipse.ditto.services.models.things.ThingTag;
+import org.eclipse.ditto.services.utils.akka.streaming.StreamAck;
+import org.eclipse.ditto.services.utils.akka.streaming.TimestampPersistence;
+import org.eclipse.ditto.services.utils.persistence.mongo.DittoMongoClient;
+import org.eclipse.ditto.services.utils.persistence.mongo.streaming.JournalChange;
+import org.eclipse.ditto.services.utils.persistence.mongo.streaming.MongoJournalChangeStream;
+import org.eclipse.ditto.services.utils.persistence.mongo.streaming.PidWithSeqNr;
+
+import com.typesafe.config.Config;
+
+import akka.NotUsed;
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.japi.Creator;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import akka.pattern.PatternsCS;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.RestartSource;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+
+/**
+ * Cluster singleton actor which synchronizes the search index by a MongoDB change stream on the things journal:
+ * for each journal entry written, a {@link ThingTag} is sent to the things updater. Unlike the periodic queries by
+ * time window of the things stream supervisor, no query over the journal is needed and things are synchronized
+ * shortly after they were modified.
+ * <p>
+ * At most {@code parallelism} things are synchronized concurrently. Since acknowledgements are awaited in order,
+ * the change stream is back-pressured by slow synchronizations. The cluster time of the last acknowledged journal
+ * entry is persisted every {@code progress-interval}; after a restart, the change stream resumes from there. If the
+ * journal is idle, the progress is advanced to the majority-committed cluster time of the database anyway so that
+ * the sync does not appear outdated.
+ * </p>
+ */
+public final class ThingsChangeStreamSyncActor extends AbstractActor {
+
+    /**
+     * The name of this Actor.
+     */
+    static final String ACTOR_NAME = "thingsChangeStreamSync";
+
+    private static final String THING_PERSISTENCE_ID_PREFIX = "thing:";
+    private static final int MAX_ACKS_PER_PROGRESS = 1000;
+    private static final double BACKOFF_RANDOM_FACTOR = 0.2;
+
+    private final LoggingAdapter log = Logging.getLogger(getContext().getSystem(), this);
+
+    private final ActorRef thingsUpdater;
+    private final Function<Optional<Instant>, Source<JournalChange, NotUsed>> changeSource;
+    private final Source<Optional<Instant>, NotUsed> clusterTimeSource;
+    private final TimestampPersistence syncPersistence;
+    private final int parallelism;
+    private final Duration ackTimeout;
+    private final Duration progressInterval;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final Materializer materializer;
+
+    private ThingsChangeStreamSyncActor(final ActorRef thingsUpdater,
+            final Function<Optional<Instant>, Source<JournalChange, NotUsed>> changeSource,
+            final Source<Optional<Instant>, NotUsed> clusterTimeSource,
+            final TimestampPersistence syncPersistence,
+            final Config changeStreamConfig) {
+
+        this.thingsUpdater = thingsUpdater;
+        this.changeSource = changeSource;
+        this.clusterTimeSource = clusterTimeSource;
+        this.syncPersistence = syncPersistence;
+        parallelism = changeStreamConfig.getInt("parallelism");
+        ackTimeout = changeStreamConfig.getDuration("ack-timeout");
+        progressInterval = changeStreamConfig.getDuration("progress-interval");
+        minBackoff = changeStreamConfig.getDuration("min-backoff");
+        maxBackoff = changeStreamConfig.getDuration("max-backoff");
+        materializer = ActorMaterializer.create(getContext());
+    }
+
+    /**
+     * Creates Akka configuration object Props for this Actor.
+     *
+     * @param thingsUpdater the things updater to send {@link ThingTag}s to.
+     * @param mongoClient the MongoDB client with access to the database of the things journal.
+     * @param syncPersistence the persistence of the sync progress.
+     * @param changeStreamConfig the config of the change stream sync relative to {@code sync.things.change-stream}.
+     * @return the Akka configuration Props object.
+     */
+    public static Props props(final ActorRef thingsUpdater, final DittoMongoClient mongoClient,
+            final TimestampPersistence syncPersistence, final Config changeStreamConfig) {
+
+        final MongoJournalChangeStream changeStream =
+                MongoJournalChangeStream.of(mongoClient.getDatabase(changeStreamConfig.getString("journal-database")),
+                        changeStreamConfig.getString("journal-collection"));
+
+        return props(thingsUpdater, start -> changeStream.watchFrom(start.orElse(null)),
+                changeStream.getMajorityCommittedTime(), syncPersistence, changeStreamConfig);
+    }
+
+    static Props props(final ActorRef thingsUpdater,
+            final Function<Optional<Instant>, Source<JournalChange, NotUsed>> changeSource,
+            final Source<Optional<Instant>, NotUsed> clusterTimeSource,
+            final TimestampPersistence syncPersistence,
+            final Config changeStreamConfig) {
+
+        return Props.create(ThingsChangeStreamSyncActor.class, new Creator<ThingsChangeStreamSyncActor>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ThingsChangeStreamSyncActor create() {
+                return new ThingsChangeStreamSyncActor(thingsUpdater, changeSource, clusterTimeSource,
+                        syncPersistence, changeStreamConfig);
+            }
+        });
+    }
+
+    @Override
+    public void preStart() {
+        RestartSource.withBackoff(minBackoff, maxBackoff, BACKOFF_RANDOM_FACTOR, this::resumeSync)
+                .runWith(Sink.ignore(), materializer);
+    }
+
+    @Override
+    public Receive createReceive() {
+        return receiveBuilder()
+                .matchAny(m -> log.warning("Got unknown message: <{}>", m))
+                .build();
+    }
+
+    private Source<NotUsed, NotUsed> resumeSync() {
+        return syncPersistence.getTimestampAsync()
+                .flatMapConcat(start -> {
+                    log.info("Resuming things synchronization by change stream from <{}>.", start.orElse(null));
+                    return changeSource.apply(start);
+                })
+                .<Optional<JournalChange>>map(Optional::of)
+                .keepAlive(progressInterval, Optional::empty)
+                .mapAsync(parallelism, this::sync)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .groupedWithin(MAX_ACKS_PER_PROGRESS, progressInterval)
+                .map(ThingsChangeStreamSyncActor::getLast)
+                .flatMapConcat(syncPersistence::setTimestamp)
+                .log(ACTOR_NAME, log);
+    }
+
+    /**
+     * Synchronizes the Thing of a journal entry.
+     *
+     * @param change the journal entry or empty if no journal entry was written for {@code progressInterval}.
+     * @return future of the point in time up to which all journal entries are synchronized, or of an empty optional
+     * if it is unknown.
+     */
+    private CompletionStage<Optional<Instant>> sync(final Optional<JournalChange> change) {
+        if (!change.isPresent()) {
+            return getIdleProgress();
+        }
+        final PidWithSeqNr pidWithSeqNr = change.get().getPidWithSeqNr();
+        final ThingTag thingTag = ThingTag.of(toThingId(pidWithSeqNr.getPersistenceId()), pidWithSeqNr.getSequenceNr());
+        return PatternsCS.ask(thingsUpdater, thingTag, ackTimeout.toMillis())
+                .thenApply(reply -> {
+                    if (!StreamAck.success(thingTag.asIdentifierString()).equals(reply)) {
+                        throw new IllegalStateException("Synchronization of <" + thingTag + "> failed: " + reply);
+                    }
+                    return Optional.of(change.get().getClusterTime());
+                });
+    }
+
+    /**
+     * Determines the progress while the journal is idle from the cluster time of the database, never from the local
+     * clock. Journal entries committed within the last {@code progressInterval} may not have been reported by the
+     * change stream yet, so the progress stays behind the majority-committed cluster time by that interval.
+     *
+     * @return future of the progress, or of an empty optional if the cluster time cannot be determined.
+     */
+    private CompletionStage<Optional<Instant>> getIdleProgress() {
+        return clusterTimeSource.runWith(Sink.head(), materializer)
+                .thenApply(clusterTime -> clusterTime.map(time -> time.minus(progressInterval)))
+                .exceptionally(error -> {
+                    log.warning("Failed to retrieve the cluster time, not advancing the sync progress: {}", error);
+                    return Optional.empty();
+                });
+    }
+
+    private static String toThingId(final String persistenceId) {
+        return persistenceId.startsWith(THING_PERSISTENCE_ID_PREFIX)
+                ? persistenceId.substring(THING_PERSISTENCE_ID_PREFIX.length())
+                : persistenceId;
+    }
+
+    private static Instant getLast(final List<Instant> timestamps) {
+        return timestamps.get(timestamps.size() - 1);
+    }
+
+}
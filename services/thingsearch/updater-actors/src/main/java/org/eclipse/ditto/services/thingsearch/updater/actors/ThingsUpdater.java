@@ -13,6 +13,10 @@
 package org.eclipse.ditto.services.thingsearch.updater.actors;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
@@ -42,6 +46,7 @@ import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Props;
+import akka.actor.Terminated;
 import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 import akka.cluster.sharding.ShardRegion;
@@ -59,6 +64,12 @@ import akka.stream.javadsl.Sink;
  * This Actor subscribes to messages the Things service emits, when it starts a new ThingActor (a Thing becomes "hot").
  * If we receive such a message, we start a corresponding ThingUpdater actor that itself consumes the events the
  * ThingActor emits and thus handles the specific events for that Thing.
+ * <p>
+ * If the policy index update is active, policy events are not forwarded to the ThingUpdaters of all things of the
+ * policy. The {@link PolicyIndexUpdater} applies them to the search index of all things at once and every instance of
+ * this actor forwards them to the ThingUpdaters of its node which registered for the policy with a
+ * {@link PolicyEnforcerRegistration}.
+ * </p>
  */
 final class ThingsUpdater extends AbstractActor {
 
@@ -74,6 +85,9 @@ final class ThingsUpdater extends AbstractActor {
     private final Materializer materializer;
     private final RetrieveStatisticsDetailsResponseSupplier retrieveStatisticsDetailsResponseSupplier;
     private final BlockNamespaceBehavior namespaceBlockingBehavior;
+    private final boolean policyIndexUpdateActive;
+    private final Map<String, Set<ActorRef>> thingUpdatersByPolicyId;
+    private final Map<ActorRef, String> policyIdsByThingUpdater;
 
     private ThingsUpdater(final int numberOfShards,
             final ShardRegionFactory shardRegionFactory,
@@ -82,7 +96,8 @@ final class ThingsUpdater extends AbstractActor {
             final boolean eventProcessingActive,
             final Duration thingUpdaterActivityCheckInterval,
             final int maxBulkSize,
-            final BlockedNamespaces blockedNamespaces) {
+            final BlockedNamespaces blockedNamespaces,
+            final boolean policyIndexUpdateActive) {
 
         final ActorSystem actorSystem = context().system();
 
@@ -105,11 +120,22 @@ final class ThingsUpdater extends AbstractActor {
         retrieveStatisticsDetailsResponseSupplier = RetrieveStatisticsDetailsResponseSupplier.of(shardRegion,
                 ThingsSearchConstants.SHARD_REGION, log);
 
+        this.policyIndexUpdateActive = policyIndexUpdateActive;
+        thingUpdatersByPolicyId = new HashMap<>();
+        policyIdsByThingUpdater = new HashMap<>();
+
         if (eventProcessingActive) {
             pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(ThingEvent.TYPE_PREFIX, UPDATER_GROUP, self()),
                     self());
-            pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(PolicyEvent.TYPE_PREFIX, UPDATER_GROUP, self()),
-                    self());
+            if (policyIndexUpdateActive) {
+                // every node forwards policy events to its own hot ThingUpdaters
+                pubSubMediator.tell(new DistributedPubSubMediator.Subscribe(PolicyEvent.TYPE_PREFIX, self()), self());
+                actorSystem.eventStream().subscribe(self(), PolicyEnforcerRegistration.class);
+            } else {
+                pubSubMediator.tell(
+                        new DistributedPubSubMediator.Subscribe(PolicyEvent.TYPE_PREFIX, UPDATER_GROUP, self()),
+                        self());
+            }
         }
 
         namespaceBlockingBehavior = BlockNamespaceBehavior.of(blockedNamespaces);
@@ -124,6 +150,8 @@ final class ThingsUpdater extends AbstractActor {
      * actively updated
      * @param maxBulkSize maximum number of events to update in a bulk.
      * @param blockedNamespaces cache of namespaces to block.
+     * @param policyIndexUpdateActive whether policy events are applied to the search index of all things of a policy
+     * at once by the {@link PolicyIndexUpdater} instead of being forwarded to the ThingUpdaters of all things.
      * @return the Akka configuration Props object
      */
     static Props props(final int numberOfShards,
@@ -133,7 +161,8 @@ final class ThingsUpdater extends AbstractActor {
             final boolean eventProcessingActive,
             final Duration thingUpdaterActivityCheckInterval,
             final int maxBulkSize,
-            final BlockedNamespaces blockedNamespaces) {
+            final BlockedNamespaces blockedNamespaces,
+            final boolean policyIndexUpdateActive) {
 
         return Props.create(ThingsUpdater.class, new Creator<ThingsUpdater>() {
             private static final long serialVersionUID = 1L;
@@ -141,7 +170,8 @@ final class ThingsUpdater extends AbstractActor {
             @Override
             public ThingsUpdater create() {
                 return new ThingsUpdater(numberOfShards, shardRegionFactory, searchUpdaterPersistence, circuitBreaker,
-                        eventProcessingActive, thingUpdaterActivityCheckInterval, maxBulkSize, blockedNamespaces);
+                        eventProcessingActive, thingUpdaterActivityCheckInterval, maxBulkSize, blockedNamespaces,
+                        policyIndexUpdateActive);
             }
         });
     }
@@ -153,7 +183,15 @@ final class ThingsUpdater extends AbstractActor {
                         shardRegion.forward(getShardRegionState, getContext()))
                 .match(RetrieveStatisticsDetails.class, this::handleRetrieveStatisticsDetails)
                 .match(ThingEvent.class, this::processThingEvent)
-                .match(PolicyEvent.class, this::processPolicyEvent)
+                .match(PolicyEvent.class, policyEvent -> {
+                    if (policyIndexUpdateActive) {
+                        forwardPolicyEventToRegisteredThingUpdaters(policyEvent);
+                    } else {
+                        processPolicyEvent(policyEvent);
+                    }
+                })
+                .match(PolicyEnforcerRegistration.class, this::registerThingUpdater)
+                .match(Terminated.class, terminated -> unregisterThingUpdater(terminated.getActor()))
                 .match(ThingTag.class, this::processThingTag)
                 .match(PolicyReferenceTag.class, this::processPolicyReferenceTag)
                 .match(DistributedPubSubMediator.SubscribeAck.class, this::subscribeAck)
@@ -203,6 +241,43 @@ final class ThingsUpdater extends AbstractActor {
                 });
     }
 
+    private void forwardPolicyEventToRegisteredThingUpdaters(final PolicyEvent<?> policyEvent) {
+        final Set<ActorRef> thingUpdaters =
+                thingUpdatersByPolicyId.getOrDefault(policyEvent.getPolicyId(), Collections.emptySet());
+        log.debug("Forwarding incoming PolicyEvent for policyId '{}' to <{}> registered ThingUpdaters",
+                policyEvent.getPolicyId(), thingUpdaters.size());
+        thingUpdaters.forEach(thingUpdater -> thingUpdater.tell(policyEvent, getSender()));
+    }
+
+    private void registerThingUpdater(final PolicyEnforcerRegistration registration) {
+        final ActorRef thingUpdater = registration.getThingUpdater();
+        final String previousPolicyId = policyIdsByThingUpdater.put(thingUpdater, registration.getPolicyId());
+        if (previousPolicyId == null) {
+            getContext().watch(thingUpdater);
+        } else {
+            removeThingUpdater(previousPolicyId, thingUpdater);
+        }
+        thingUpdatersByPolicyId.computeIfAbsent(registration.getPolicyId(), policyId -> new HashSet<>())
+                .add(thingUpdater);
+    }
+
+    private void unregisterThingUpdater(final ActorRef thingUpdater) {
+        final String policyId = policyIdsByThingUpdater.remove(thingUpdater);
+        if (policyId != null) {
+            removeThingUpdater(policyId, thingUpdater);
+        }
+    }
+
+    private void removeThingUpdater(final String policyId, final ActorRef thingUpdater) {
+        final Set<ActorRef> thingUpdaters = thingUpdatersByPolicyId.get(policyId);
+        if (thingUpdaters != null) {
+            thingUpdaters.remove(thingUpdater);
+            if (thingUpdaters.isEmpty()) {
+                thingUpdatersByPolicyId.remove(policyId);
+            }
+        }
+    }
+
     private CompletionStage<Set<String>> thingIdsForPolicy(final String policyId) {
         return searchUpdaterPersistence.getThingIdsForPolicy(policyId).runWith(Sink.last(), materializer);
     }
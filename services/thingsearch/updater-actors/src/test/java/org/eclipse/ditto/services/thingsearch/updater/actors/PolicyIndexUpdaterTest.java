@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.updater.actors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Objects;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
+import org.eclipse.ditto.model.enforcers.Enforcer;
+import org.eclipse.ditto.model.policies.PoliciesModelFactory;
+import org.eclipse.ditto.model.policies.Policy;
+import org.eclipse.ditto.model.policies.Subject;
+import org.eclipse.ditto.model.policies.SubjectId;
+import org.eclipse.ditto.services.models.policies.Permission;
+import org.eclipse.ditto.services.models.policies.PolicyTag;
+import org.eclipse.ditto.services.models.policies.commands.sudo.SudoRetrievePolicy;
+import org.eclipse.ditto.services.models.policies.commands.sudo.SudoRetrievePolicyResponse;
+import org.eclipse.ditto.services.thingsearch.persistence.write.ThingsSearchUpdaterPersistence;
+import org.eclipse.ditto.services.utils.ddata.DistributedDataConfigReader;
+import org.eclipse.ditto.services.utils.namespaces.BlockedNamespaces;
+import org.eclipse.ditto.signals.events.policies.PolicyModified;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.typesafe.config.ConfigFactory;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.cluster.pubsub.DistributedPubSubMediator;
+import akka.stream.javadsl.Source;
+import akka.testkit.TestProbe;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link PolicyIndexUpdater}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public final class PolicyIndexUpdaterTest {
+
+    private static final String POLICY_ID = "namespace:aPolicy";
+    private static final DittoHeaders KNOWN_HEADERS =
+            DittoHeaders.newBuilder().schemaVersion(JsonSchemaVersion.V_2).build();
+
+    @Mock
+    private ThingsSearchUpdaterPersistence persistence;
+
+    private ActorSystem actorSystem;
+    private TestProbe pubSubMediator;
+    private TestProbe policiesShardRegion;
+    private BlockedNamespaces blockedNamespaces;
+
+    @Before
+    public void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", ConfigFactory.load("test"));
+        pubSubMediator = TestProbe.apply(actorSystem);
+        policiesShardRegion = TestProbe.apply(actorSystem);
+        blockedNamespaces =
+                BlockedNamespaces.of(DistributedDataConfigReader.of(actorSystem, "replicator", ""), actorSystem);
+    }
+
+    @After
+    public void tearDown() {
+        if (Objects.nonNull(actorSystem)) {
+            TestKit.shutdownActorSystem(actorSystem);
+        }
+    }
+
+    @Test
+    public void policyEventIsAppliedToPolicyIndexOnce() {
+        final Policy policy = createPolicy(5L);
+        when(persistence.getPendingPolicyIndexUpdates()).thenReturn(Source.empty());
+        when(persistence.updatePolicyIndex(any(PolicyTag.class), any(Enforcer.class))).thenReturn(Source.single(3L));
+
+        createPolicyIndexUpdater();
+        final DistributedPubSubMediator.Subscribe subscribe =
+                pubSubMediator.expectMsgClass(DistributedPubSubMediator.Subscribe.class);
+        assertThat(subscribe.group().isDefined()).isTrue();
+        subscribe.ref().tell(PolicyModified.of(policy, 5L, KNOWN_HEADERS), ActorRef.noSender());
+
+        expectPolicyRetrievalAndReply(policy);
+        waitUntil().updatePolicyIndex(eq(PolicyTag.of(POLICY_ID, 5L)), any(Enforcer.class));
+    }
+
+    @Test
+    public void pendingPolicyIndexUpdateIsResumedOnStart() {
+        final Policy policy = createPolicy(7L);
+        when(persistence.getPendingPolicyIndexUpdates()).thenReturn(Source.single(PolicyTag.of(POLICY_ID, 6L)));
+        when(persistence.updatePolicyIndex(any(PolicyTag.class), any(Enforcer.class))).thenReturn(Source.single(1L));
+
+        createPolicyIndexUpdater();
+
+        // the update is executed with the revision of the retrieved policy
+        expectPolicyRetrievalAndReply(policy);
+        waitUntil().updatePolicyIndex(eq(PolicyTag.of(POLICY_ID, 7L)), any(Enforcer.class));
+    }
+
+    @Test
+    public void failedPolicyIndexUpdateIsRetried() {
+        final Policy policy = createPolicy(8L);
+        when(persistence.getPendingPolicyIndexUpdates()).thenReturn(Source.single(PolicyTag.of(POLICY_ID, 8L)));
+        when(persistence.updatePolicyIndex(any(PolicyTag.class), any(Enforcer.class)))
+                .thenReturn(Source.failed(new IllegalStateException("update failed")))
+                .thenReturn(Source.single(2L));
+
+        createPolicyIndexUpdater();
+
+        expectPolicyRetrievalAndReply(policy);
+        // retried after the minimum retry delay
+        expectPolicyRetrievalAndReply(policy);
+        verify(persistence, Mockito.timeout(2000L).times(2))
+                .updatePolicyIndex(eq(PolicyTag.of(POLICY_ID, 8L)), any(Enforcer.class));
+    }
+
+    @Test
+    public void retrievalOfPendingPolicyIndexUpdatesIsRetried() {
+        final Policy policy = createPolicy(9L);
+        when(persistence.getPendingPolicyIndexUpdates())
+                .thenReturn(Source.failed(new IllegalStateException("retrieval failed")))
+                .thenReturn(Source.single(PolicyTag.of(POLICY_ID, 9L)));
+        when(persistence.updatePolicyIndex(any(PolicyTag.class), any(Enforcer.class))).thenReturn(Source.single(1L));
+
+        createPolicyIndexUpdater();
+
+        expectPolicyRetrievalAndReply(policy);
+        waitUntil().updatePolicyIndex(eq(PolicyTag.of(POLICY_ID, 9L)), any(Enforcer.class));
+    }
+
+    private void createPolicyIndexUpdater() {
+        actorSystem.actorOf(PolicyIndexUpdater.props(pubSubMediator.ref(), policiesShardRegion.ref(), persistence,
+                blockedNamespaces));
+    }
+
+    private void expectPolicyRetrievalAndReply(final Policy policy) {
+        final SudoRetrievePolicy retrievePolicy = policiesShardRegion.expectMsgClass(SudoRetrievePolicy.class);
+        assertThat(retrievePolicy.getId()).isEqualTo(POLICY_ID);
+        policiesShardRegion.reply(SudoRetrievePolicyResponse.of(POLICY_ID, policy, DittoHeaders.empty()));
+    }
+
+    private static Policy createPolicy(final long revision) {
+        return PoliciesModelFactory.newPolicyBuilder(POLICY_ID)
+                .forLabel("someLabel")
+                .setSubject(Subject.newInstance(SubjectId.newInstance("some:subject")))
+                .setGrantedPermissions("thing", "/", Permission.READ)
+                .setRevision(revision)
+                .build();
+    }
+
+    private ThingsSearchUpdaterPersistence waitUntil() {
+        return verify(persistence, Mockito.timeout(2000L));
+    }
+
+}
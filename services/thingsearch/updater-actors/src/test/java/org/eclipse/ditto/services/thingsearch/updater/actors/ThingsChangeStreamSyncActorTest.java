@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.thingsearch.updater.actors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.ditto.services.models.things.ThingTag;
+import org.eclipse.ditto.services.utils.akka.streaming.StreamAck;
+import org.eclipse.ditto.services.utils.akka.streaming.TimestampPersistence;
+import org.eclipse.ditto.services.utils.persistence.mongo.streaming.JournalChange;
+import org.eclipse.ditto.services.utils.persistence.mongo.streaming.PidWithSeqNr;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import akka.NotUsed;
+import akka.actor.ActorSystem;
+import akka.stream.javadsl.Source;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link ThingsChangeStreamSyncActor}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public final class ThingsChangeStreamSyncActorTest {
+
+    private static final Config CHANGE_STREAM_CONFIG = ConfigFactory.parseString("parallelism = 2\n" +
+            "ack-timeout = 3s\n" +
+            "progress-interval = 200ms\n" +
+            "min-backoff = 100ms\n" +
+            "max-backoff = 1s");
+
+    private static final Instant FIRST_CLUSTER_TIME = Instant.ofEpochSecond(1_500_000_000L);
+    private static final Instant SECOND_CLUSTER_TIME = FIRST_CLUSTER_TIME.plusSeconds(1L);
+    private static final ThingTag FIRST_THING_TAG = ThingTag.of("org.eclipse.ditto:thing1", 3L);
+    private static final ThingTag SECOND_THING_TAG = ThingTag.of("org.eclipse.ditto:thing2", 1L);
+    private static final List<JournalChange> CHANGES = Arrays.asList(
+            new JournalChange(new PidWithSeqNr("thing:" + FIRST_THING_TAG.getId(), 3L), FIRST_CLUSTER_TIME),
+            new JournalChange(new PidWithSeqNr("thing:" + SECOND_THING_TAG.getId(), 1L), SECOND_CLUSTER_TIME));
+
+    @Mock
+    private TimestampPersistence syncPersistence;
+
+    private ActorSystem actorSystem;
+
+    @Before
+    public void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem", ConfigFactory.load("test"));
+    }
+
+    @After
+    public void tearDown() {
+        if (actorSystem != null) {
+            TestKit.shutdownActorSystem(actorSystem);
+        }
+    }
+
+    @Test
+    public void changesAreSyncedInOrderAndProgressIsPersisted() {
+        when(syncPersistence.getTimestampAsync()).thenReturn(Source.single(Optional.empty()));
+        when(syncPersistence.setTimestamp(any())).thenReturn(Source.single(NotUsed.getInstance()));
+        new TestKit(actorSystem) {{
+            actorSystem.actorOf(ThingsChangeStreamSyncActor.props(getRef(), start -> changeSource(),
+                    Source.single(Optional.empty()), syncPersistence, CHANGE_STREAM_CONFIG));
+
+            expectMsg(FIRST_THING_TAG);
+            reply(StreamAck.success(FIRST_THING_TAG.asIdentifierString()));
+            expectMsg(SECOND_THING_TAG);
+            reply(StreamAck.success(SECOND_THING_TAG.asIdentifierString()));
+
+            verify(syncPersistence, timeout(3000L)).setTimestamp(SECOND_CLUSTER_TIME);
+        }};
+    }
+
+    @Test
+    public void changeStreamResumesFromPersistedProgress() {
+        final AtomicReference<Optional<Instant>> resumedFrom = new AtomicReference<>();
+        when(syncPersistence.getTimestampAsync()).thenReturn(Source.single(Optional.of(FIRST_CLUSTER_TIME)));
+        new TestKit(actorSystem) {{
+            actorSystem.actorOf(ThingsChangeStreamSyncActor.props(getRef(), start -> {
+                resumedFrom.set(start);
+                return changeSource();
+            }, Source.single(Optional.empty()), syncPersistence, CHANGE_STREAM_CONFIG));
+
+            expectMsg(FIRST_THING_TAG);
+            assertThat(resumedFrom.get()).contains(FIRST_CLUSTER_TIME);
+        }};
+    }
+
+    @Test
+    public void failedSyncRestartsChangeStream() {
+        when(syncPersistence.getTimestampAsync()).thenReturn(Source.single(Optional.empty()));
+        when(syncPersistence.setTimestamp(any())).thenReturn(Source.single(NotUsed.getInstance()));
+        new TestKit(actorSystem) {{
+            actorSystem.actorOf(ThingsChangeStreamSyncActor.props(getRef(), start -> changeSource(),
+                    Source.single(Optional.empty()), syncPersistence, CHANGE_STREAM_CONFIG));
+
+            expectMsg(FIRST_THING_TAG);
+            reply(StreamAck.failure(FIRST_THING_TAG.asIdentifierString()));
+
+            // the change stream is resumed and the failed Thing is synchronized again
+            fishForMessage(duration("3s"), "first thing tag again", FIRST_THING_TAG::equals);
+            reply(StreamAck.success(FIRST_THING_TAG.asIdentifierString()));
+            verify(syncPersistence, timeout(3000L)).setTimestamp(FIRST_CLUSTER_TIME);
+        }};
+    }
+
+    @Test
+    public void idleProgressFollowsClusterTimeOfDatabase() {
+        final Instant clusterTime = SECOND_CLUSTER_TIME.plusSeconds(60L);
+        when(syncPersistence.getTimestampAsync()).thenReturn(Source.single(Optional.empty()));
+        when(syncPersistence.setTimestamp(any())).thenReturn(Source.single(NotUsed.getInstance()));
+        new TestKit(actorSystem) {{
+            actorSystem.actorOf(ThingsChangeStreamSyncActor.props(getRef(), start -> idleChangeSource(),
+                    Source.single(Optional.of(clusterTime)), syncPersistence, CHANGE_STREAM_CONFIG));
+
+            // the progress stays behind the cluster time by the progress interval
+            verify(syncPersistence, timeout(3000L).atLeastOnce())
+                    .setTimestamp(clusterTime.minus(Duration.ofMillis(200L)));
+        }};
+    }
+
+    @Test
+    public void idleProgressIsNotAdvancedWithoutClusterTime() {
+        when(syncPersistence.getTimestampAsync()).thenReturn(Source.single(Optional.empty()));
+        new TestKit(actorSystem) {{
+            actorSystem.actorOf(ThingsChangeStreamSyncActor.props(getRef(), start -> idleChangeSource(),
+                    Source.single(Optional.empty()), syncPersistence, CHANGE_STREAM_CONFIG));
+
+            expectNoMessage(duration("1s"));
+            verify(syncPersistence, never()).setTimestamp(any());
+        }};
+    }
+
+    private static Source<JournalChange, NotUsed> changeSource() {
+        // the change stream does not complete on its own
+        return Source.from(CHANGES).concat(Source.<JournalChange>maybe());
+    }
+
+    private static Source<JournalChange, NotUsed> idleChangeSource() {
+        return Source.<JournalChange>maybe().mapMaterializedValue(promise -> NotUsed.getInstance());
+    }
+
+}
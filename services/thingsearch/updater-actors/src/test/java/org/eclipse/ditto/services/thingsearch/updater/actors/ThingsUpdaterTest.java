@@ -14,6 +14,7 @@ package org.eclipse.ditto.services.thingsearch.updater.actors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -129,6 +130,27 @@ public final class ThingsUpdaterTest {
         }};
     }
 
+    @Test
+    public void policyEventIsForwardedToRegisteredThingUpdatersIfPolicyIndexUpdateIsActive() {
+        final PolicyEvent event = PolicyDeleted.of(KNOWN_POLICY_ID, KNOWN_REVISION, Instant.now(), KNOWN_HEADERS);
+        new TestKit(actorSystem) {{
+            when(persistence.getPendingPolicyIndexUpdates()).thenReturn(Source.empty());
+            final TestProbe thingUpdater = TestProbe.apply(actorSystem);
+            final TestProbe otherThingUpdater = TestProbe.apply(actorSystem);
+
+            final ActorRef underTest = createThingsUpdater(true);
+            underTest.tell(new PolicyEnforcerRegistration(KNOWN_POLICY_ID, thingUpdater.ref()), getRef());
+            underTest.tell(new PolicyEnforcerRegistration("namespace:otherPolicy", otherThingUpdater.ref()),
+                    getRef());
+            underTest.tell(event, getRef());
+
+            thingUpdater.expectMsg(event);
+            otherThingUpdater.expectNoMessage(FiniteDuration.create(1L, TimeUnit.SECONDS));
+            shardMessageReceiver.expectNoMessage(FiniteDuration.create(1L, TimeUnit.SECONDS));
+            verify(persistence, never()).getThingIdsForPolicy(anyString());
+        }};
+    }
+
     @Test
     public void thingTagIsForwarded() {
         final EntityIdWithRevision event = ThingTag.of(KNOWN_THING_ID, KNOWN_REVISION);
@@ -221,6 +243,10 @@ public final class ThingsUpdaterTest {
     }
 
     private ActorRef createThingsUpdater() {
+        return createThingsUpdater(false);
+    }
+
+    private ActorRef createThingsUpdater(final boolean policyIndexUpdateActive) {
         final CircuitBreaker circuitBreaker =
                 new CircuitBreaker(actorSystem.dispatcher(),
                         actorSystem.scheduler(),
@@ -237,7 +263,8 @@ public final class ThingsUpdaterTest {
                 eventProcessingActive,
                 activityCheckInterval,
                 Integer.MAX_VALUE,
-                blockedNamespaces));
+                blockedNamespaces,
+                policyIndexUpdateActive));
     }
 
     private ThingsSearchUpdaterPersistence waitUntil() {
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.aggregator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import akka.NotUsed;
+import akka.japi.function.Function;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Source;
+
+/**
+ * Restores the requested order of entities which are retrieved concurrently. Each entity is held back until all
+ * entities requested before it were emitted. At most {@code capacity} entities are held back: if one more arrives, the
+ * first requested of them is emitted anyway and entities requested before it are emitted as soon as they arrive.
+ * Entities which are never retrieved, e. g. because they do not exist, therefore delay the stream by at most
+ * {@code capacity} entities.
+ *
+ * @param <T> the type of the entities.
+ */
+@NotThreadSafe
+final class ReorderBuffer<T> implements Function<Optional<T>, Iterable<T>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Integer> requestedIndexes;
+    private final Function<T, String> idExtractor;
+    private final int capacity;
+    private final PriorityQueue<Entry<T>> buffer;
+
+    private int nextIndex = 0;
+    private long arrivals = 0L;
+
+    private ReorderBuffer(final Map<String, Integer> requestedIndexes, final Function<T, String> idExtractor,
+            final int capacity) {
+
+        this.requestedIndexes = requestedIndexes;
+        this.idExtractor = idExtractor;
+        this.capacity = capacity;
+        buffer = new PriorityQueue<>(Comparator.<Entry<T>>comparingInt(entry -> entry.index)
+                .thenComparingLong(entry -> entry.arrival));
+    }
+
+    /**
+     * Returns a flow which emits the entities in the order of their IDs in {@code requestedIds}. Entities whose IDs
+     * were not requested are emitted immediately.
+     *
+     * @param requestedIds the IDs of the entities in the requested order.
+     * @param idExtractor extracts the ID of an entity.
+     * @param capacity the maximum number of entities to hold back.
+     * @param <T> the type of the entities.
+     * @return the flow.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    static <T> Flow<T, T, NotUsed> flow(final List<String> requestedIds, final Function<T, String> idExtractor,
+            final int capacity) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive but was " + capacity);
+        }
+        final Map<String, Integer> requestedIndexes = new HashMap<>(requestedIds.size());
+        for (int i = 0; i < requestedIds.size(); i++) {
+            requestedIndexes.putIfAbsent(requestedIds.get(i), i);
+        }
+        // an empty element marks the end of the stream so that the buffer is flushed
+        return Flow.<T>create()
+                .map(Optional::of)
+                .concat(Source.single(Optional.<T>empty()))
+                .statefulMapConcat(() -> new ReorderBuffer<>(requestedIndexes, idExtractor, capacity));
+    }
+
+    @Override
+    public Iterable<T> apply(final Optional<T> element) throws Exception {
+        if (!element.isPresent()) {
+            final List<T> remaining = new ArrayList<>(buffer.size());
+            while (!buffer.isEmpty()) {
+                remaining.add(buffer.poll().element);
+            }
+            return remaining;
+        }
+
+        final T entity = element.get();
+        final int index = requestedIndexes.getOrDefault(idExtractor.apply(entity), -1);
+        if (index <= nextIndex && buffer.isEmpty()) {
+            // fast path for entities arriving in order
+            nextIndex = Math.max(nextIndex, index + 1);
+            return Collections.singletonList(entity);
+        }
+
+        buffer.add(new Entry<>(index, arrivals++, entity));
+        final List<T> ready = new ArrayList<>();
+        pollReady(ready);
+        if (buffer.size() > capacity) {
+            poll(ready);
+            pollReady(ready);
+        }
+        return ready;
+    }
+
+    private void pollReady(final List<T> ready) {
+        while (!buffer.isEmpty() && buffer.peek().index <= nextIndex) {
+            poll(ready);
+        }
+    }
+
+    private void poll(final List<T> ready) {
+        final Entry<T> entry = buffer.poll();
+        nextIndex = Math.max(nextIndex, entry.index + 1);
+        ready.add(entry.element);
+    }
+
+    private static final class Entry<T> {
+
+        private final int index;
+        private final long arrival;
+        private final T element;
+
+        private Entry(final int index, final long arrival, final T element) {
+            this.index = index;
+            this.arrival = arrival;
+            this.element = element;
+        }
+
+    }
+
+}
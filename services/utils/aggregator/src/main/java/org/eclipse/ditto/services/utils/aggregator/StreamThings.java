@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.aggregator;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.signals.commands.base.Command;
+
+/**
+ * Wraps a command retrieving several Things whose sender wants to receive the retrieved Things as a
+ * {@link StreamedThings} response instead of one command response containing all of them. It is used for
+ * {@link org.eclipse.ditto.signals.commands.things.query.RetrieveThings} and
+ * {@link org.eclipse.ditto.services.models.things.commands.sudo.SudoRetrieveThings} sent to a
+ * {@link ThingsAggregatorProxyActor}; proxies of other retrieving commands may accept it as well.
+ * <p>
+ * As the response is not serializable, this message must only be sent to actors in the same JVM.
+ * </p>
+ */
+@Immutable
+public final class StreamThings {
+
+    private final Command<?> command;
+
+    private StreamThings(final Command<?> command) {
+        this.command = command;
+    }
+
+    /**
+     * Returns a request to stream the Things retrieved by the given command.
+     *
+     * @param command the command retrieving the Things.
+     * @return the request.
+     * @throws NullPointerException if {@code command} is {@code null}.
+     */
+    public static StreamThings of(final Command<?> command) {
+        return new StreamThings(checkNotNull(command, "command"));
+    }
+
+    /**
+     * @return the command retrieving the Things.
+     */
+    public Command<?> getCommand() {
+        return command;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final StreamThings that = (StreamThings) o;
+        return Objects.equals(command, that.command);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(command);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [command=" + command + "]";
+    }
+
+}
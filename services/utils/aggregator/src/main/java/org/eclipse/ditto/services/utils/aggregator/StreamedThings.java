@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.aggregator;
+
+import static org.eclipse.ditto.model.base.common.ConditionChecker.checkNotNull;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.headers.WithDittoHeaders;
+
+import akka.NotUsed;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+
+/**
+ * Response to {@link StreamThings}: the JSON representation of the retrieved Things as a stream of UTF-8 encoded
+ * chunks which are emitted as soon as the Things arrive. The stream can be materialized only once.
+ */
+@Immutable
+public final class StreamedThings implements WithDittoHeaders<StreamedThings> {
+
+    private final Source<ByteString, NotUsed> json;
+    private final DittoHeaders dittoHeaders;
+
+    private StreamedThings(final Source<ByteString, NotUsed> json, final DittoHeaders dittoHeaders) {
+        this.json = json;
+        this.dittoHeaders = dittoHeaders;
+    }
+
+    /**
+     * Returns a new {@code StreamedThings} response.
+     *
+     * @param json the chunks of the JSON representation of the retrieved Things.
+     * @param dittoHeaders the headers of the response.
+     * @return the response.
+     * @throws NullPointerException if any argument is {@code null}.
+     */
+    public static StreamedThings of(final Source<ByteString, NotUsed> json, final DittoHeaders dittoHeaders) {
+        checkNotNull(json, "json");
+        checkNotNull(dittoHeaders, "dittoHeaders");
+        return new StreamedThings(json, dittoHeaders);
+    }
+
+    /**
+     * @return the chunks of the JSON representation of the retrieved Things.
+     */
+    public Source<ByteString, NotUsed> getJson() {
+        return json;
+    }
+
+    @Override
+    public DittoHeaders getDittoHeaders() {
+        return dittoHeaders;
+    }
+
+    @Override
+    public StreamedThings setDittoHeaders(final DittoHeaders dittoHeaders) {
+        return of(json, dittoHeaders);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [dittoHeaders=" + dittoHeaders + "]";
+    }
+
+}
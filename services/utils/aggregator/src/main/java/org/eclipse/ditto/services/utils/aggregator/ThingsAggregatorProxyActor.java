@@ -45,6 +45,7 @@ import org.eclipse.ditto.signals.commands.things.query.RetrieveThingResponse;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThingsResponse;
 
+import akka.NotUsed;
 import akka.actor.AbstractActor;
 import akka.actor.ActorRef;
 import akka.actor.Props;
@@ -58,12 +59,17 @@ import akka.stream.ActorMaterializer;
 import akka.stream.SourceRef;
 import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 
 /**
  * Acts as a client for {@code org.eclipse.ditto.services.concierge.starter.actors.ThingsAggregatorActor} which responds
  * to a {@link RetrieveThings} command via a {@link SourceRef} which is a pointer in the cluster emitting the retrieved
  * {@link Thing}s one after one in a stream. That ensures that the cluster messages size must not be increased when
  * streaming a larger amount of Things in the cluster.
+ * <p>
+ * Commands wrapped in {@link StreamThings} are answered with {@link StreamedThings}: the Things are passed on as a
+ * JSON array as soon as they arrive, held back in a bounded buffer only as far as needed to keep the requested order.
+ * </p>
  */
 public final class ThingsAggregatorProxyActor extends AbstractActor {
 
@@ -76,6 +82,12 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
 
     private static final int ASK_TIMEOUT = 60;
 
+    private static final int REORDER_BUFFER_SIZE = 64;
+
+    private static final ByteString JSON_ARRAY_START = ByteString.fromString("[");
+    private static final ByteString JSON_ARRAY_SEPARATOR = ByteString.fromString(",");
+    private static final ByteString JSON_ARRAY_END = ByteString.fromString("]");
+
     private final DiagnosticLoggingAdapter log = LogUtil.obtain(this);
 
     private final ActorRef targetActor;
@@ -112,6 +124,7 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
         return ReceiveBuilder.create()
                 .match(RetrieveThings.class, rt -> handleRetrieveThings(rt, rt))
                 .match(SudoRetrieveThings.class, srt -> handleSudoRetrieveThings(srt, srt))
+                .match(StreamThings.class, this::handleStreamThings)
                 .match(DistributedPubSubMediator.Send.class, send -> {
                     final Object msg = send.msg();
                     if (msg instanceof RetrieveThings) {
@@ -137,7 +150,7 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
                 RetrieveThings.class.getSimpleName(), thingIds.size());
 
         final ActorRef sender = getSender();
-        askTargetActor(rt, thingIds, msgToAsk, sender);
+        askTargetActor(rt, thingIds, msgToAsk, sender, false);
     }
 
     private void handleSudoRetrieveThings(final SudoRetrieveThings srt, final Object msgToAsk) {
@@ -147,14 +160,35 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
                 SudoRetrieveThings.class.getSimpleName(), thingIds.size());
 
         final ActorRef sender = getSender();
-        askTargetActor(srt, thingIds, msgToAsk, sender);
+        askTargetActor(srt, thingIds, msgToAsk, sender, false);
+    }
+
+    private void handleStreamThings(final StreamThings streamThings) {
+        final Command<?> command = streamThings.getCommand();
+        final List<String> thingIds;
+        if (command instanceof RetrieveThings) {
+            thingIds = ((RetrieveThings) command).getThingIds();
+        } else if (command instanceof SudoRetrieveThings) {
+            thingIds = ((SudoRetrieveThings) command).getThingIds();
+        } else {
+            log.warning("Got unknown command to stream: {}", command);
+            unhandled(streamThings);
+            return;
+        }
+        LogUtil.enhanceLogWithCorrelationId(log, command.getDittoHeaders().getCorrelationId());
+        log.info("Got '{}' message. Streaming requested '{}' Things..", command.getType(), thingIds.size());
+
+        final ActorRef sender = getSender();
+        askTargetActor(command, thingIds, command, sender, true);
     }
 
     private void askTargetActor(final Command<?> command, final List<String> thingIds,
-            final Object msgToAsk, final ActorRef sender) {
+            final Object msgToAsk, final ActorRef sender, final boolean streamed) {
         PatternsCS.ask(targetActor, msgToAsk, Duration.ofSeconds(ASK_TIMEOUT))
                 .thenAccept(response -> {
-                    if (response instanceof SourceRef){
+                    if (response instanceof SourceRef && streamed) {
+                        streamSourceRef((SourceRef<?>) response, thingIds, command, sender);
+                    } else if (response instanceof SourceRef) {
                         handleSourceRef((SourceRef) response, thingIds, command, sender);
                     } else if (response instanceof DittoRuntimeException) {
                         sender.tell(response, getSelf());
@@ -173,22 +207,18 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
 
     private void handleSourceRef(final SourceRef sourceRef, final List<String> thingIds,
             final Command<?> originatingCommand, final ActorRef originatingSender) {
-        final Function<Jsonifiable<?>, PlainJson> thingPlainJsonSupplier;
+        final Function<Jsonifiable<?>, PlainJson> thingPlainJsonSupplier = supplyPlainJson(originatingCommand);
         final Function<List<PlainJson>, CommandResponse<?>> overallResponseSupplier;
         final Function<List<PlainJson>, List<PlainJson>> plainJsonSorter = supplyPlainJsonSorter(thingIds);
 
         if (originatingCommand instanceof SudoRetrieveThings) {
-            thingPlainJsonSupplier = supplyPlainJsonFromSudoRetrieveThingResponse();
             overallResponseSupplier = supplySudoRetrieveThingsResponse(originatingCommand.getDittoHeaders());
         } else {
-            thingPlainJsonSupplier = supplyPlainJsonFromRetrieveThingResponse();
             final String namespace = ((RetrieveThings) originatingCommand).getNamespace().orElse(null);
             overallResponseSupplier = supplyRetrieveThingsResponse(originatingCommand.getDittoHeaders(), namespace);
         }
 
-        final StartedTimer timer = DittoMetrics.expiringTimer(TRACE_AGGREGATOR_RETRIEVE_THINGS)
-                .tag("size", Integer.toString(thingIds.size()))
-                .build();
+        final StartedTimer timer = startTimer(thingIds);
 
         final CompletionStage<List<PlainJson>> o =
                 (CompletionStage<List<PlainJson>>) sourceRef.getSource()
@@ -214,6 +244,38 @@ public final class ThingsAggregatorProxyActor extends AbstractActor {
         PatternsCS.pipe(commandResponseCompletionStage, getContext().dispatcher()).to(originatingSender);
     }
 
+    private void streamSourceRef(final SourceRef<?> sourceRef, final List<String> thingIds,
+            final Command<?> originatingCommand, final ActorRef originatingSender) {
+        final Function<Jsonifiable<?>, PlainJson> thingPlainJsonSupplier = supplyPlainJson(originatingCommand);
+        final StartedTimer timer = startTimer(thingIds);
+
+        final Source<ByteString, NotUsed> jsonArray = sourceRef.getSource()
+                .filterNot(el -> el instanceof DittoRuntimeException)
+                .map(param -> thingPlainJsonSupplier.apply((Jsonifiable<?>) param))
+                .via(ReorderBuffer.flow(thingIds, PlainJson::getId, REORDER_BUFFER_SIZE))
+                .map(plainJson -> ByteString.fromString(plainJson.getJson()))
+                .intersperse(JSON_ARRAY_START, JSON_ARRAY_SEPARATOR, JSON_ARRAY_END)
+                .watchTermination((notUsed, done) -> {
+                    done.whenComplete((d, error) -> stopTimer(timer));
+                    return notUsed;
+                });
+
+        originatingSender.tell(StreamedThings.of(jsonArray, originatingCommand.getDittoHeaders()), getSelf());
+    }
+
+    private static StartedTimer startTimer(final List<String> thingIds) {
+        return DittoMetrics.expiringTimer(TRACE_AGGREGATOR_RETRIEVE_THINGS)
+                .tag("size", Integer.toString(thingIds.size()))
+                .build();
+    }
+
+    private Function<Jsonifiable<?>, PlainJson> supplyPlainJson(final Command<?> originatingCommand) {
+        if (originatingCommand instanceof SudoRetrieveThings) {
+            return supplyPlainJsonFromSudoRetrieveThingResponse();
+        }
+        return supplyPlainJsonFromRetrieveThingResponse();
+    }
+
     private Function<Jsonifiable<?>, PlainJson> supplyPlainJsonFromRetrieveThingResponse() {
         return jsonifiable -> {
             if (jsonifiable instanceof RetrieveThingResponse) {
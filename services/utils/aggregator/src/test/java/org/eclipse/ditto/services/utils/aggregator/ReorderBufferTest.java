@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.aggregator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.testkit.javadsl.TestKit;
+
+/**
+ * Tests {@link ReorderBuffer}.
+ */
+public final class ReorderBufferTest {
+
+    private static final List<String> REQUESTED_IDS = Arrays.asList("a", "b", "c", "d", "e");
+
+    private static ActorSystem actorSystem;
+    private static ActorMaterializer materializer;
+
+    @BeforeClass
+    public static void setUp() {
+        actorSystem = ActorSystem.create("AkkaTestSystem");
+        materializer = ActorMaterializer.create(actorSystem);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        TestKit.shutdownActorSystem(actorSystem);
+    }
+
+    @Test
+    public void restoresRequestedOrder() throws Exception {
+        assertThat(reorder(Arrays.asList("c", "a", "e", "b", "d"), 10))
+                .containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    public void emitsRemainingEntitiesInOrderIfSomeAreMissing() throws Exception {
+        assertThat(reorder(Arrays.asList("e", "c", "b"), 10))
+                .containsExactly("b", "c", "e");
+    }
+
+    @Test
+    public void emitsFirstRequestedEntityIfCapacityIsExceeded() throws Exception {
+        assertThat(reorder(Arrays.asList("c", "d", "e", "a", "b"), 2))
+                .containsExactly("c", "d", "e", "a", "b");
+    }
+
+    @Test
+    public void emitsUnknownAndDuplicateEntitiesImmediately() throws Exception {
+        assertThat(reorder(Arrays.asList("x", "a", "a", "b"), 10))
+                .containsExactly("x", "a", "a", "b");
+    }
+
+    @Test
+    public void capacityMustBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ReorderBuffer.<String>flow(REQUESTED_IDS, id -> id, 0));
+    }
+
+    private static List<String> reorder(final List<String> arrivals, final int capacity) throws Exception {
+        return Source.from(arrivals)
+                .via(ReorderBuffer.flow(REQUESTED_IDS, id -> id, capacity))
+                .runWith(Sink.seq(), materializer)
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -12,12 +12,21 @@
  */
 package org.eclipse.ditto.services.utils.aggregator;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.ditto.json.JsonFactory;
 import org.eclipse.ditto.model.base.common.HttpStatusCode;
 import org.eclipse.ditto.model.base.exceptions.DittoRuntimeException;
 import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.Jsonifiable;
 import org.eclipse.ditto.signals.commands.base.exceptions.GatewayInternalErrorException;
+import org.eclipse.ditto.signals.commands.things.exceptions.ThingNotAccessibleException;
+import org.eclipse.ditto.signals.commands.things.query.RetrieveThingResponse;
 import org.eclipse.ditto.signals.commands.things.query.RetrieveThings;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -26,9 +35,16 @@ import org.junit.Test;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Props;
+import akka.pattern.PatternsCS;
+import akka.stream.ActorMaterializer;
+import akka.stream.SourceRef;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.StreamRefs;
 import akka.testkit.TestActor.AutoPilot;
 import akka.testkit.TestProbe;
 import akka.testkit.javadsl.TestKit;
+import akka.util.ByteString;
 
 /**
  * Tests {@link ThingsAggregatorProxyActor}.
@@ -77,6 +93,57 @@ public class ThingsAggregatorProxyActorTest {
         }};
     }
 
+    @Test
+    public void testStreamThingsInRequestedOrder() throws Exception {
+        new TestKit(actorSystem) {{
+            final TestProbe targetActor = new TestProbe(actorSystem);
+            targetActor.setAutoPilot(new AutoPilotAnsweringWithSourceRef(
+                    retrieveThingResponse("ditto:thing2"),
+                    ThingNotAccessibleException.newBuilder("ditto:thing3").dittoHeaders(DITTO_HEADERS).build(),
+                    retrieveThingResponse("ditto:thing1")));
+
+            final Props props = ThingsAggregatorProxyActor.props(targetActor.ref());
+            final ActorRef proxyActor = actorSystem.actorOf(props);
+
+            final RetrieveThings retrieveThings =
+                    RetrieveThings.getBuilder("ditto:thing1", "ditto:thing2", "ditto:thing3")
+                            .dittoHeaders(DITTO_HEADERS)
+                            .build();
+            proxyActor.tell(StreamThings.of(retrieveThings), getRef());
+
+            final StreamedThings streamedThings = expectMsgClass(StreamedThings.class);
+            assertThat(streamedThings.getDittoHeaders()).isEqualTo(DITTO_HEADERS);
+            final String json = streamedThings.getJson()
+                    .runWith(Sink.fold(ByteString.empty(), ByteString::concat), ActorMaterializer.create(actorSystem))
+                    .toCompletableFuture()
+                    .get(5, TimeUnit.SECONDS)
+                    .utf8String();
+            assertThat(json).isEqualTo("[{\"thingId\":\"ditto:thing1\"},{\"thingId\":\"ditto:thing2\"}]");
+        }};
+    }
+
+    private static RetrieveThingResponse retrieveThingResponse(final String thingId) {
+        return RetrieveThingResponse.of(thingId, JsonFactory.newObjectBuilder().set("thingId", thingId).build(),
+                DITTO_HEADERS);
+    }
+
+    private static class AutoPilotAnsweringWithSourceRef extends AutoPilot {
+
+        private final Jsonifiable<?>[] elements;
+
+        private AutoPilotAnsweringWithSourceRef(final Jsonifiable<?>... elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public AutoPilot run(final ActorRef sender, final Object msg) {
+            final CompletionStage<SourceRef<Jsonifiable<?>>> sourceRef = Source.from(Arrays.asList(elements))
+                    .runWith(StreamRefs.sourceRef(), ActorMaterializer.create(actorSystem));
+            PatternsCS.pipe(sourceRef, actorSystem.dispatcher()).to(sender);
+            return keepRunning();
+        }
+    }
+
     private static class AutoPilotAnsweringWithException extends AutoPilot {
 
         private final Exception exceptionToRespond;
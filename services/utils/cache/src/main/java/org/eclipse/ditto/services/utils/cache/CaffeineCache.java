@@ -32,6 +32,11 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
 
 /**
  * A caffeine-backed cache implementation.
+ * <p>
+ * Caffeine 2.x puts the value of a background refresh into the cache even if the entry was invalidated while the
+ * refresh was running, which would resurrect outdated values. Hence refreshed values are only put into the cache if
+ * the entry still holds the value the refresh started from; invalidations and these puts are serialized per key.
+ * </p>
  *
  * @param <K> the type of the key.
  * @param <V> the type of the value.
@@ -40,6 +45,9 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
 
     private static final AsyncCacheLoader<?, ?> NULL_CACHE_LOADER =
             (k, executor) -> CompletableFuture.completedFuture(null);
+    private static final int INVALIDATION_LOCK_STRIPES = 64;
+
+    private final Object[] invalidationLocks;
     @Nullable
     private final MetricsStatsCounter metricStatsCounter;
     private AsyncLoadingCache<K, V> asyncLoadingCache;
@@ -50,14 +58,19 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
             final AsyncCacheLoader<K, V> loader,
             @Nullable final String cacheName) {
 
+        invalidationLocks = new Object[INVALIDATION_LOCK_STRIPES];
+        for (int i = 0; i < INVALIDATION_LOCK_STRIPES; i++) {
+            invalidationLocks[i] = new Object();
+        }
         if (cacheName != null) {
             this.metricStatsCounter = MetricsStatsCounter.of(cacheName);
             caffeine.recordStats(() -> metricStatsCounter);
-            this.asyncLoadingCache = caffeine.buildAsync(loader);
+            this.asyncLoadingCache =
+                    caffeine.buildAsync(guardingRefreshes(countingRefreshes(loader, metricStatsCounter)));
             this.synchronousCacheView = asyncLoadingCache.synchronous();
             metricStatsCounter.configureCache(this.synchronousCacheView);
         } else {
-            this.asyncLoadingCache = caffeine.buildAsync(loader);
+            this.asyncLoadingCache = caffeine.buildAsync(guardingRefreshes(loader));
             this.synchronousCacheView = asyncLoadingCache.synchronous();
             this.metricStatsCounter = null;
         }
@@ -211,8 +224,11 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
     public boolean invalidate(final K key) {
         requireNonNull(key);
 
-        final boolean currentlyExisting = asyncLoadingCache.getIfPresent(key) != null;
-        synchronousCacheView.invalidate(key);
+        final boolean currentlyExisting;
+        synchronized (invalidationLockOf(key)) {
+            currentlyExisting = asyncLoadingCache.getIfPresent(key) != null;
+            synchronousCacheView.invalidate(key);
+        }
 
         if (metricStatsCounter != null) {
             if (currentlyExisting) {
@@ -224,10 +240,13 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
         return currentlyExisting;
     }
 
-    // optimized batch invalidation method for caffeine
     @Override
     public void invalidateAll(final Collection<K> keys) {
-        synchronousCacheView.invalidateAll(keys);
+        keys.forEach(key -> {
+            synchronized (invalidationLockOf(key)) {
+                synchronousCacheView.invalidate(key);
+            }
+        });
     }
 
     @Override
@@ -245,6 +264,60 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
         return synchronousCacheView.asMap();
     }
 
+    private Object invalidationLockOf(final Object key) {
+        return invalidationLocks[Math.floorMod(key.hashCode(), INVALIDATION_LOCK_STRIPES)];
+    }
+
+    private AsyncCacheLoader<K, V> guardingRefreshes(final AsyncCacheLoader<K, V> loader) {
+        return new AsyncCacheLoader<K, V>() {
+            @Override
+            public CompletableFuture<V> asyncLoad(final K key, final Executor executor) {
+                return loader.asyncLoad(key, executor);
+            }
+
+            @Override
+            public CompletableFuture<V> asyncReload(final K key, final V oldValue, final Executor executor) {
+                // the refreshed value is put here and Caffeine gets null, so that Caffeine keeps the value put or
+                // removes the entry if it still holds the old value, but never re-inserts an invalidated entry
+                return loader.asyncReload(key, oldValue, executor).thenApply(newValue -> {
+                    putIfUnchanged(key, oldValue, newValue);
+                    return null;
+                });
+            }
+        };
+    }
+
+    private void putIfUnchanged(final K key, final V oldValue, @Nullable final V newValue) {
+        if (newValue == null) {
+            return;
+        }
+        synchronized (invalidationLockOf(key)) {
+            final CompletableFuture<V> current = asyncLoadingCache.getIfPresent(key);
+            if (current != null && current.isDone() && !current.isCompletedExceptionally() &&
+                    current.getNow(null) == oldValue) {
+                asyncLoadingCache.put(key, CompletableFuture.completedFuture(newValue));
+            }
+        }
+    }
+
+    private static <K, V> AsyncCacheLoader<K, V> countingRefreshes(final AsyncCacheLoader<K, V> loader,
+            final MetricsStatsCounter metricStatsCounter) {
+
+        // asyncLoadAll must not be overridden: Caffeine would assume bulk loading support of every loader
+        return new AsyncCacheLoader<K, V>() {
+            @Override
+            public CompletableFuture<V> asyncLoad(final K key, final Executor executor) {
+                return loader.asyncLoad(key, executor);
+            }
+
+            @Override
+            public CompletableFuture<V> asyncReload(final K key, final V oldValue, final Executor executor) {
+                metricStatsCounter.recordRefresh();
+                return loader.asyncReload(key, oldValue, executor);
+            }
+        };
+    }
+
     // TODO: replace uses of this method by AsyncCache without loader once Caffeine releases it.
     private static <K, V> AsyncCacheLoader<K, V> getTypedNullCacheLoader() {
         @SuppressWarnings("unchecked") final AsyncCacheLoader<K, V> nullCacheLoader =
@@ -70,6 +70,11 @@ public final class MetricsStatsCounter implements StatsCounter {
          * Number of failed loads.
          */
         LOADS_FAILURE(CACHE_PREFIX + "_loads-failure"),
+        /**
+         * Number of background reloads of entries which are still served while being reloaded. Their outcome is
+         * counted by {@link #LOADS_SUCCESS} and {@link #LOADS_FAILURE}.
+         */
+        REFRESHES(CACHE_PREFIX + "_refreshes"),
         /**
          * Number of cache evictions, e.g. when the cache grows to large. Manual cache invalidation is NOT included,
          * it is counted by {@link #ESTIMATED_INVALIDATIONS}.
@@ -126,6 +131,7 @@ public final class MetricsStatsCounter implements StatsCounter {
     private final Counter missCount;
     private final Counter loadSuccessCount;
     private final Counter loadFailureCount;
+    private final Counter refreshCount;
     private final PreparedTimer totalLoadTime;
     private final Counter evictionCount;
     private final Counter evictionWeight;
@@ -142,6 +148,7 @@ public final class MetricsStatsCounter implements StatsCounter {
         totalLoadTime = DittoMetrics.timer(MetricName.TOTAL_LOAD_TIME.getValue()).tag(CACHE_NAME_TAG, cacheName);
         loadSuccessCount = DittoMetrics.counter(MetricName.LOADS_SUCCESS.getValue()).tag(CACHE_NAME_TAG, cacheName);
         loadFailureCount = DittoMetrics.counter(MetricName.LOADS_FAILURE.getValue()).tag(CACHE_NAME_TAG, cacheName);
+        refreshCount = DittoMetrics.counter(MetricName.REFRESHES.getValue()).tag(CACHE_NAME_TAG, cacheName);
         evictionCount = DittoMetrics.counter(MetricName.EVICTIONS.getValue()).tag(CACHE_NAME_TAG, cacheName);
         evictionWeight = DittoMetrics.counter(MetricName.EVICTIONS_WEIGHT.getValue()).tag(CACHE_NAME_TAG, cacheName);
         estimatedSize = DittoMetrics.gauge(MetricName.ESTIMATED_SIZE.getValue()).tag(CACHE_NAME_TAG, cacheName);
@@ -212,6 +219,13 @@ public final class MetricsStatsCounter implements StatsCounter {
         updateCacheSizeMetrics();
     }
 
+    /**
+     * Records the start of a background reload of an entry in the cache.
+     */
+    public void recordRefresh() {
+        refreshCount.increment();
+    }
+
     /**
      * Records the invalidation of an entry in the cache.
      */
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Tests the background refresh of {@link CaffeineCache}.
+ */
+public final class CaffeineCacheTest {
+
+    private static final String KEY = "key";
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CompletableFuture<String> pendingReload;
+    private CaffeineCache<String, String> underTest;
+
+    @Before
+    public void setUp() {
+        pendingReload = new CompletableFuture<>();
+        final AsyncCacheLoader<String, String> loader = new AsyncCacheLoader<String, String>() {
+            @Override
+            public CompletableFuture<String> asyncLoad(final String key, final Executor executor) {
+                return CompletableFuture.completedFuture("loaded" + loads.incrementAndGet());
+            }
+
+            @Override
+            public CompletableFuture<String> asyncReload(final String key, final String oldValue,
+                    final Executor executor) {
+                return pendingReload;
+            }
+        };
+        final Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .refreshAfterWrite(1, TimeUnit.MINUTES)
+                .ticker(ticker::get)
+                .executor(Runnable::run);
+        underTest = CaffeineCache.of(caffeine, loader);
+    }
+
+    @Test
+    public void refreshedValueReplacesOldValue() {
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+
+        startRefresh();
+        pendingReload.complete("refreshed");
+
+        assertThat(underTest.get(KEY).join()).contains("refreshed");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void refreshRunningConcurrentlyWithInvalidationIsDiscarded() {
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+
+        startRefresh();
+        underTest.invalidate(KEY);
+        pendingReload.complete("outdated");
+
+        assertThat(underTest.getIfPresent(KEY).join()).isEmpty();
+        assertThat(underTest.get(KEY).join()).contains("loaded2");
+    }
+
+    @Test
+    public void refreshRunningConcurrentlyWithInvalidationOfSeveralKeysIsDiscarded() {
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+
+        startRefresh();
+        underTest.invalidateAll(Collections.singletonList(KEY));
+        pendingReload.complete("outdated");
+
+        assertThat(underTest.getIfPresent(KEY).join()).isEmpty();
+    }
+
+    @Test
+    public void refreshRunningConcurrentlyWithInvalidationAndReloadKeepsReloadedValue() {
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+
+        startRefresh();
+        underTest.invalidate(KEY);
+        assertThat(underTest.get(KEY).join()).contains("loaded2");
+        pendingReload.complete("outdated");
+
+        assertThat(underTest.get(KEY).join()).contains("loaded2");
+    }
+
+    @Test
+    public void refreshOfConcurrentlyInvalidatedEntryOnOtherThreadIsDiscarded() throws Exception {
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+
+        startRefresh();
+        final Thread invalidation = new Thread(() -> underTest.invalidate(KEY));
+        final Thread refresh = new Thread(() -> pendingReload.complete("outdated"));
+        invalidation.start();
+        refresh.start();
+        invalidation.join();
+        refresh.join();
+
+        final Optional<String> cached = underTest.getIfPresent(KEY).join();
+        assertThat(cached).isEmpty();
+    }
+
+    private void startRefresh() {
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2L));
+        // serves the cached value and starts the refresh in the background
+        assertThat(underTest.get(KEY).join()).contains("loaded1");
+    }
+
+}
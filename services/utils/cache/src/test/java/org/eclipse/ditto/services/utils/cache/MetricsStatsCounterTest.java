@@ -16,6 +16,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.awaitility.Awaitility;
 import org.awaitility.core.ThrowingRunnable;
@@ -64,6 +65,9 @@ public final class MetricsStatsCounterTest {
     private final Gauge maxSize = DittoMetrics
             .gauge(MetricsStatsCounter.MetricName.MAX_SIZE.getValue())
             .tag("cache_name", TEST_CACHE_NAME);
+    private final Counter refreshCount = DittoMetrics
+            .counter(MetricsStatsCounter.MetricName.REFRESHES.getValue())
+            .tag("cache_name", TEST_CACHE_NAME);
     private final Counter estimatedInvalidations = DittoMetrics
             .counter(MetricsStatsCounter.MetricName.ESTIMATED_INVALIDATIONS.getValue())
             .tag("cache_name", TEST_CACHE_NAME);
@@ -80,6 +84,7 @@ public final class MetricsStatsCounterTest {
         estimatedSize.reset();
         maxSize.reset();
         estimatedInvalidations.reset();
+        refreshCount.reset();
     }
 
     @Test
@@ -170,6 +175,32 @@ public final class MetricsStatsCounterTest {
         });
     }
 
+    @Test
+    public void refreshes() {
+        // GIVEN
+        final AtomicLong nanoTime = new AtomicLong();
+        final Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .refreshAfterWrite(1, TimeUnit.MINUTES)
+                .ticker(nanoTime::get);
+        final AsyncCacheLoader<Integer, Integer> loader = (key, executor) -> CompletableFuture.completedFuture(key);
+        final CaffeineCache<Integer, Integer> cache = CaffeineCache.of(caffeine, loader, TEST_CACHE_NAME);
+
+        final int knownKey = 0;
+        cache.get(knownKey).join();
+
+        // WHEN
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cache.get(knownKey).join();
+
+        // THEN
+        waitUntilAsserted(() -> {
+            assertThat(refreshCount.getCount()).isEqualTo(1);
+            assertThat(loadSuccessCount.getCount()).isEqualTo(2);
+            assertThat(missCount.getCount()).isEqualTo(1);
+        });
+    }
+
     private CaffeineCache<Integer, Integer> createCaffeineCache() {
         final Caffeine<Object, Object> caffeine = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE);
         final AsyncCacheLoader<Integer, Integer> loader = (key, executor) -> CompletableFuture.completedFuture(key);
@@ -20,6 +20,10 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -56,6 +60,12 @@ import akka.serialization.SerializerWithStringManifest;
 /**
  * Abstract {@link SerializerWithStringManifest} which handles serializing and deserializing {@link Jsonifiable}s
  * {@link WithDittoHeaders}.
+ * <p>
+ * By default messages are serialized as UTF-8 encoded JSON. For the manifests configured at
+ * {@value #CONFIG_BINARY_MANIFESTS} the compact binary encoding of {@link BinaryJsonCodec} is used instead. As
+ * deserialization always accepts both encodings, the binary encoding can be enabled manifest by manifest once all
+ * cluster members run a version which is able to read it.
+ * </p>
  */
 public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends SerializerWithStringManifest
         implements ByteBufferSerializer {
@@ -73,16 +83,25 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
     private static final String CONFIG_DIRECT_BUFFER_SIZE = "akka.actor.serializers-json.direct-buffer-size";
     private static final String CONFIG_DIRECT_BUFFER_POOL_LIMIT =
             "akka.actor.serializers-json.direct-buffer-pool-limit";
+    private static final String CONFIG_BINARY_MANIFESTS = "akka.actor.serializers-json.binary-manifests";
+
+    /**
+     * Configured as binary manifest this enables the binary encoding for all manifests.
+     */
+    private static final String ALL_MANIFESTS = "*";
 
     private static final Config FALLBACK_CONF = ConfigFactory.empty()
             .withValue(CONFIG_DIRECT_BUFFER_SIZE, ConfigValueFactory.fromAnyRef("64 KiB"))
-            .withValue(CONFIG_DIRECT_BUFFER_POOL_LIMIT, ConfigValueFactory.fromAnyRef("500"));
+            .withValue(CONFIG_DIRECT_BUFFER_POOL_LIMIT, ConfigValueFactory.fromAnyRef("500"))
+            .withValue(CONFIG_BINARY_MANIFESTS, ConfigValueFactory.fromIterable(Collections.emptyList()));
 
     private final int identifier;
     private final MappingStrategies mappingStrategies;
     private final Function<Object, String> manifestProvider;
     private final BufferPool byteBufferPool;
     private final Long defaultBufferSize;
+    private final Collection<String> binaryManifests;
+    private final boolean binaryForAllManifests;
 
     /**
      * Constructs a new {@code AbstractJsonifiableWithDittoHeadersSerializer} object.
@@ -100,6 +119,10 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
         defaultBufferSize = config.withFallback(FALLBACK_CONF).getBytes(CONFIG_DIRECT_BUFFER_SIZE);
         final int maxPoolEntries = config.withFallback(FALLBACK_CONF).getInt(CONFIG_DIRECT_BUFFER_POOL_LIMIT);
         byteBufferPool = new DirectByteBufferPool(defaultBufferSize.intValue(), maxPoolEntries);
+        final List<String> configuredBinaryManifests =
+                config.withFallback(FALLBACK_CONF).getStringList(CONFIG_BINARY_MANIFESTS);
+        binaryForAllManifests = configuredBinaryManifests.contains(ALL_MANIFESTS);
+        binaryManifests = Collections.unmodifiableSet(new HashSet<>(configuredBinaryManifests));
     }
 
     @Override
@@ -115,21 +138,16 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
     @Override
     public void toBinary(final Object object, final ByteBuffer buf) {
         if (object instanceof Jsonifiable) {
-            final JsonObjectBuilder jsonObjectBuilder = JsonObject.newBuilder();
             final DittoHeaders dittoHeaders = getDittoHeadersOrEmpty(object);
-            jsonObjectBuilder.set(JSON_DITTO_HEADERS, dittoHeaders.toJson());
+            final JsonValue jsonValue = getPayloadJson((Jsonifiable) object, dittoHeaders);
 
-            final JsonValue jsonValue;
-
-            if (object instanceof Jsonifiable.WithPredicate) {
-                final JsonSchemaVersion schemaVersion =
-                        dittoHeaders.getSchemaVersion().orElse(JsonSchemaVersion.LATEST);
-
-                jsonValue = ((Jsonifiable.WithPredicate) object).toJson(schemaVersion, FieldType.regularOrSpecial());
-            } else {
-                jsonValue = ((Jsonifiable) object).toJson();
+            if (isBinaryEncodingEnabledFor(object)) {
+                BinaryJsonCodec.write(dittoHeaders, jsonValue, buf);
+                return;
             }
 
+            final JsonObjectBuilder jsonObjectBuilder = JsonObject.newBuilder();
+            jsonObjectBuilder.set(JSON_DITTO_HEADERS, dittoHeaders.toJson());
             jsonObjectBuilder.set(JSON_PAYLOAD, jsonValue);
             final String jsonStr = jsonObjectBuilder.build().toString();
 
@@ -147,6 +165,22 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
         }
     }
 
+    private static JsonValue getPayloadJson(final Jsonifiable jsonifiable, final DittoHeaders dittoHeaders) {
+        final JsonValue result;
+        if (jsonifiable instanceof Jsonifiable.WithPredicate) {
+            final JsonSchemaVersion schemaVersion = dittoHeaders.getSchemaVersion().orElse(JsonSchemaVersion.LATEST);
+
+            result = ((Jsonifiable.WithPredicate) jsonifiable).toJson(schemaVersion, FieldType.regularOrSpecial());
+        } else {
+            result = jsonifiable.toJson();
+        }
+        return result;
+    }
+
+    private boolean isBinaryEncodingEnabledFor(final Object object) {
+        return binaryForAllManifests || (!binaryManifests.isEmpty() && binaryManifests.contains(manifest(object)));
+    }
+
     @Override
     public byte[] toBinary(final Object object) {
         final ByteBuffer buf = byteBufferPool.acquire();
@@ -180,6 +214,13 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
 
     @Override
     public Object fromBinary(final ByteBuffer buf, final String manifest) {
+        if (BinaryJsonCodec.isBinaryEncoded(buf)) {
+            try {
+                return tryToCreateKnownJsonifiableFromBinary(manifest, buf);
+            } catch (final NotSerializableException e) {
+                return e;
+            }
+        }
         final String json = UTF8_CHARSET.decode(buf).toString();
         try {
             return tryToCreateKnownJsonifiableFrom(manifest, json);
@@ -204,15 +245,34 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
         }
     }
 
-    private Jsonifiable createJsonifiableFrom(final String manifest, final String json)
+    private Jsonifiable tryToCreateKnownJsonifiableFromBinary(final String manifest, final ByteBuffer buf)
             throws NotSerializableException {
+        try {
+            final MappingStrategy mappingStrategy = getMappingStrategyOrThrow(manifest);
+            final DittoHeaders dittoHeaders = BinaryJsonCodec.readHeaders(buf);
+            final JsonValue payloadJson = BinaryJsonCodec.readPayload(buf);
+            return mappingStrategy.map(toPayloadObject(payloadJson), dittoHeaders);
+        } catch (final DittoRuntimeException | JsonRuntimeException e) {
+            LOG.error("Got <{}> during fromBinary(ByteBuffer,String) deserialization of binary encoding for " +
+                    "manifest <{}>", e.getClass().getSimpleName(), manifest, e);
+            throw new NotSerializableException(manifest);
+        }
+    }
 
+    private MappingStrategy getMappingStrategyOrThrow(final String manifest) throws NotSerializableException {
         final Optional<MappingStrategy> mappingStrategy = this.mappingStrategies.getMappingStrategyFor(manifest);
 
         if (!mappingStrategy.isPresent()) {
             LOG.warn("No strategy found to map manifest <{}> to a Jsonifiable.WithPredicate!", manifest);
             throw new NotSerializableException(manifest);
         }
+        return mappingStrategy.get();
+    }
+
+    private Jsonifiable createJsonifiableFrom(final String manifest, final String json)
+            throws NotSerializableException {
+
+        final MappingStrategy mappingStrategy = getMappingStrategyOrThrow(manifest);
 
         final JsonObject jsonObject = JsonFactory.newObject(json);
 
@@ -222,7 +282,7 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
                 .map(DittoHeaders::newBuilder)
                 .orElseGet(DittoHeaders::newBuilder);
 
-        return mappingStrategy.get().map(payload, dittoHeadersBuilder.build());
+        return mappingStrategy.map(payload, dittoHeadersBuilder.build());
     }
 
     private static JsonObject getPayload(final JsonObject sourceJsonObject) {
@@ -230,15 +290,7 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
 
         final Optional<JsonValue> payloadJsonOptional = sourceJsonObject.getValue(JSON_PAYLOAD);
         if (payloadJsonOptional.isPresent()) {
-            final JsonValue payloadJson = payloadJsonOptional.get();
-            if (!payloadJson.isObject()) {
-                final String msgPattern = "Value <{0}> for <{1}> was not of type <{2}>!";
-                final String simpleName = JSON_PAYLOAD.getValueType().getSimpleName();
-                final String msg = MessageFormat.format(msgPattern, payloadJson, JSON_PAYLOAD.getPointer(), simpleName);
-                throw new DittoJsonException(new IllegalArgumentException(msg));
-            } else {
-                result = payloadJson.asObject();
-            }
+            result = toPayloadObject(payloadJsonOptional.get());
         } else {
             result = JsonFactory.newObject();
         }
@@ -246,4 +298,14 @@ public abstract class AbstractJsonifiableWithDittoHeadersSerializer extends Seri
         return result;
     }
 
+    private static JsonObject toPayloadObject(final JsonValue payloadJson) {
+        if (!payloadJson.isObject()) {
+            final String msgPattern = "Value <{0}> for <{1}> was not of type <{2}>!";
+            final String simpleName = JSON_PAYLOAD.getValueType().getSimpleName();
+            final String msg = MessageFormat.format(msgPattern, payloadJson, JSON_PAYLOAD.getPointer(), simpleName);
+            throw new DittoJsonException(new IllegalArgumentException(msg));
+        }
+        return payloadJson.asObject();
+    }
+
 }
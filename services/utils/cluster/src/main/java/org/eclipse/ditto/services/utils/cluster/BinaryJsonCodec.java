@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.cluster;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.ditto.json.JsonArray;
+import org.eclipse.ditto.json.JsonArrayBuilder;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonField;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.json.JsonParseException;
+import org.eclipse.ditto.json.JsonValue;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+
+/**
+ * Compact tag-length-value encoding of {@link DittoHeaders} and {@link JsonValue}s which is written directly into and
+ * read directly from a {@link ByteBuffer} without an intermediate JSON string.
+ * <p>
+ * The layout of an encoded message is:
+ * <pre>
+ *    MARKER VERSION headerCount (key value)* payloadValue
+ * </pre>
+ * {@link #MARKER} can never be the first byte of a UTF-8 encoded JSON document, thus readers are able to distinguish
+ * both formats by looking at the first byte only. Counts and lengths are encoded as unsigned variable length integers.
+ * </p>
+ */
+@Immutable
+final class BinaryJsonCodec {
+
+    /**
+     * First byte of every binary encoded message.
+     */
+    static final byte MARKER = (byte) 0xD1;
+
+    private static final byte VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_ARRAY = 7;
+    private static final byte TAG_OBJECT = 8;
+
+    private BinaryJsonCodec() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Indicates whether the remaining content of the given buffer is binary encoded. The position of the buffer is
+     * not changed.
+     *
+     * @param buf the buffer to check.
+     * @return {@code true} if the next byte of {@code buf} is the {@link #MARKER}.
+     */
+    static boolean isBinaryEncoded(final ByteBuffer buf) {
+        return buf.hasRemaining() && MARKER == buf.get(buf.position());
+    }
+
+    /**
+     * Writes the given headers and payload into the given buffer.
+     *
+     * @param dittoHeaders the headers to be written.
+     * @param payload the payload to be written.
+     * @param buf the buffer to write to.
+     * @throws java.nio.BufferOverflowException if {@code buf} has not enough space left.
+     */
+    static void write(final DittoHeaders dittoHeaders, final JsonValue payload, final ByteBuffer buf) {
+        buf.put(MARKER);
+        buf.put(VERSION);
+        writeVarInt(dittoHeaders.size(), buf);
+        for (final Map.Entry<String, String> header : dittoHeaders.entrySet()) {
+            writeString(header.getKey(), buf);
+            writeString(header.getValue(), buf);
+        }
+        writeValue(payload, buf);
+    }
+
+    /**
+     * Reads the headers from the given buffer which must be positioned at the {@link #MARKER}. After this method
+     * returned the buffer is positioned at the payload which can be read with {@link #readPayload(ByteBuffer)}.
+     *
+     * @param buf the buffer to read from.
+     * @return the headers.
+     * @throws JsonParseException if the buffer does not contain a supported binary encoding.
+     */
+    static DittoHeaders readHeaders(final ByteBuffer buf) {
+        try {
+            final byte marker = buf.get();
+            final byte version = buf.get();
+            if (MARKER != marker || VERSION != version) {
+                throw JsonParseException.newBuilder()
+                        .message(MessageFormat.format("Unsupported binary encoding <{0}> of version <{1}>!", marker,
+                                version))
+                        .build();
+            }
+            final int headerCount = readVarInt(buf);
+            final Map<String, String> headers = new HashMap<>(headerCount * 4 / 3 + 1);
+            for (int i = 0; i < headerCount; i++) {
+                final String key = readString(buf);
+                headers.put(key, readString(buf));
+            }
+            return DittoHeaders.of(headers);
+        } catch (final BufferUnderflowException e) {
+            throw newUnexpectedEndException(e);
+        }
+    }
+
+    /**
+     * Reads the payload from the given buffer which must be positioned after the headers.
+     *
+     * @param buf the buffer to read from.
+     * @return the payload.
+     * @throws JsonParseException if the buffer does not contain a valid payload.
+     */
+    static JsonValue readPayload(final ByteBuffer buf) {
+        try {
+            return readValue(buf);
+        } catch (final BufferUnderflowException e) {
+            throw newUnexpectedEndException(e);
+        }
+    }
+
+    private static JsonParseException newUnexpectedEndException(final Throwable cause) {
+        return JsonParseException.newBuilder()
+                .message("Unexpected end of binary encoded message!")
+                .cause(cause)
+                .build();
+    }
+
+    private static void writeValue(final JsonValue value, final ByteBuffer buf) {
+        if (value.isNull()) {
+            buf.put(TAG_NULL);
+        } else if (value.isBoolean()) {
+            buf.put(value.asBoolean() ? TAG_TRUE : TAG_FALSE);
+        } else if (value.isInt()) {
+            buf.put(TAG_INT);
+            buf.putInt(value.asInt());
+        } else if (value.isLong()) {
+            buf.put(TAG_LONG);
+            buf.putLong(value.asLong());
+        } else if (value.isNumber()) {
+            buf.put(TAG_DOUBLE);
+            buf.putDouble(value.asDouble());
+        } else if (value.isString()) {
+            buf.put(TAG_STRING);
+            writeString(value.asString(), buf);
+        } else if (value.isArray()) {
+            final JsonArray jsonArray = value.asArray();
+            buf.put(TAG_ARRAY);
+            writeVarInt(jsonArray.getSize(), buf);
+            for (final JsonValue element : jsonArray) {
+                writeValue(element, buf);
+            }
+        } else if (value.isObject()) {
+            final JsonObject jsonObject = value.asObject();
+            buf.put(TAG_OBJECT);
+            writeVarInt(jsonObject.getSize(), buf);
+            for (final JsonField field : jsonObject) {
+                writeString(field.getKeyName(), buf);
+                writeValue(field.getValue(), buf);
+            }
+        } else {
+            throw new IllegalArgumentException(MessageFormat.format("Unsupported JSON value <{0}>!", value));
+        }
+    }
+
+    private static JsonValue readValue(final ByteBuffer buf) {
+        final byte tag = buf.get();
+        switch (tag) {
+            case TAG_NULL:
+                return JsonFactory.nullLiteral();
+            case TAG_FALSE:
+                return JsonFactory.newValue(false);
+            case TAG_TRUE:
+                return JsonFactory.newValue(true);
+            case TAG_INT:
+                return JsonFactory.newValue(buf.getInt());
+            case TAG_LONG:
+                return JsonFactory.newValue(buf.getLong());
+            case TAG_DOUBLE:
+                return JsonFactory.newValue(buf.getDouble());
+            case TAG_STRING:
+                return JsonFactory.newValue(readString(buf));
+            case TAG_ARRAY:
+                final int size = readVarInt(buf);
+                final JsonArrayBuilder arrayBuilder = JsonFactory.newArrayBuilder();
+                for (int i = 0; i < size; i++) {
+                    arrayBuilder.add(readValue(buf));
+                }
+                return arrayBuilder.build();
+            case TAG_OBJECT:
+                final int fieldCount = readVarInt(buf);
+                final JsonObjectBuilder objectBuilder = JsonFactory.newObjectBuilder();
+                for (int i = 0; i < fieldCount; i++) {
+                    final String key = readString(buf);
+                    objectBuilder.set(key, readValue(buf));
+                }
+                return objectBuilder.build();
+            default:
+                throw JsonParseException.newBuilder()
+                        .message(MessageFormat.format("Unknown binary JSON tag <{0}>!", tag))
+                        .build();
+        }
+    }
+
+    private static void writeString(final String s, final ByteBuffer buf) {
+        writeVarInt(utf8Length(s), buf);
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buf.put((byte) (0xF0 | (codePoint >> 18)));
+                buf.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buf.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate: encode as '?' like the JDK's UTF-8 encoder does
+                buf.put((byte) '?');
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)));
+                buf.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int utf8Length(final String s) {
+        final int length = s.length();
+        int result = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    result += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length &&
+                        Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // 2 chars are encoded as 4 bytes
+                    result += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    result += 2;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String readString(final ByteBuffer buf) {
+        final int byteLength = readVarInt(buf);
+        if (byteLength > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String result;
+        if (buf.hasArray()) {
+            final int offset = buf.arrayOffset() + buf.position();
+            result = new String(buf.array(), offset, byteLength, StandardCharsets.UTF_8);
+            buf.position(buf.position() + byteLength);
+        } else {
+            final byte[] bytes = new byte[byteLength];
+            buf.get(bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    private static void writeVarInt(final int value, final ByteBuffer buf) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buf.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buf.put((byte) remaining);
+    }
+
+    private static int readVarInt(final ByteBuffer buf) {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw JsonParseException.newBuilder().message("Malformed variable length integer!").build();
+            }
+            b = buf.get();
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mutabilitydetector.unittesting.MutabilityAssert.assertInstancesOf;
+import static org.mutabilitydetector.unittesting.MutabilityMatchers.areImmutable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.ditto.json.JsonArray;
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObject;
+import org.eclipse.ditto.json.JsonParseException;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link BinaryJsonCodec}.
+ */
+public final class BinaryJsonCodecTest {
+
+    private static final DittoHeaders DITTO_HEADERS = DittoHeaders.newBuilder()
+            .authorizationSubjects("authSubject")
+            .correlationId("correlationId")
+            .putHeader("custom-üñíçödé", "😀 value")
+            .build();
+
+    private static final JsonObject PAYLOAD = JsonFactory.newObjectBuilder()
+            .set("string", "Grüße 😀")
+            .set("int", 42)
+            .set("long", Long.MAX_VALUE)
+            .set("double", 23.5)
+            .set("true", true)
+            .set("false", false)
+            .set("null", JsonFactory.nullLiteral())
+            .set("array", JsonArray.of("[1, \"two\", {\"three\": 3}, []]"))
+            .set("object", JsonFactory.newObject("{\"nested\": {\"deeply\": [null]}}"))
+            .set("empty", JsonFactory.newObject())
+            .build();
+
+    @Test
+    public void assertImmutability() {
+        assertInstancesOf(BinaryJsonCodec.class, areImmutable());
+    }
+
+    @Test
+    public void writtenHeadersAndPayloadAreReadAsEqual() {
+        final ByteBuffer buf = ByteBuffer.allocate(4096);
+
+        BinaryJsonCodec.write(DITTO_HEADERS, PAYLOAD, buf);
+        buf.flip();
+
+        assertThat(BinaryJsonCodec.isBinaryEncoded(buf)).isTrue();
+        assertThat(BinaryJsonCodec.readHeaders(buf)).isEqualTo(DITTO_HEADERS);
+        assertThat(BinaryJsonCodec.readPayload(buf)).isEqualTo(PAYLOAD);
+        assertThat(buf.hasRemaining()).isFalse();
+    }
+
+    @Test
+    public void binaryEncodingIsReadFromDirectBuffer() {
+        final ByteBuffer buf = ByteBuffer.allocateDirect(4096);
+
+        BinaryJsonCodec.write(DITTO_HEADERS, PAYLOAD, buf);
+        buf.flip();
+
+        assertThat(BinaryJsonCodec.readHeaders(buf)).isEqualTo(DITTO_HEADERS);
+        assertThat(BinaryJsonCodec.readPayload(buf)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    public void jsonIsNotRecognizedAsBinaryEncoded() {
+        final ByteBuffer buf = ByteBuffer.wrap(PAYLOAD.toString().getBytes());
+
+        assertThat(BinaryJsonCodec.isBinaryEncoded(buf)).isFalse();
+    }
+
+    @Test
+    public void truncatedBinaryEncodingCausesJsonParseException() {
+        final ByteBuffer buf = ByteBuffer.allocate(4096);
+        BinaryJsonCodec.write(DITTO_HEADERS, PAYLOAD, buf);
+        buf.flip();
+        final ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(buf.array(), buf.limit() - 10));
+        BinaryJsonCodec.readHeaders(truncated);
+
+        assertThatExceptionOfType(JsonParseException.class)
+                .isThrownBy(() -> BinaryJsonCodec.readPayload(truncated));
+    }
+
+}
@@ -14,6 +14,7 @@ package org.eclipse.ditto.services.utils.cluster;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Collections;
 import java.util.UUID;
 
 import org.assertj.core.api.Assertions;
@@ -141,6 +142,55 @@ public final class JsonifiableSerializerTest {
                 .isEqualTo(shardedMessageEnvelope.getDittoHeaders());
     }
 
+    @Test
+    public void binaryEncodedThingCommandSerializationWorksAsExpected() {
+        final JsonifiableSerializer underTest = createSerializerWithBinaryManifests(CreateThing.TYPE);
+        final CreateThing createThing = CreateThing.of(THING, null, DITTO_HEADERS);
+
+        final byte[] serialized = underTest.toBinary(createThing);
+        final Object deserialized = underTest.fromBinary(serialized, underTest.manifest(createThing));
+
+        assertThat(serialized[0]).isEqualTo(BinaryJsonCodec.MARKER);
+        assertThat(deserialized)
+                .isInstanceOf(CreateThing.class)
+                .isEqualTo(createThing);
+    }
+
+    @Test
+    public void binaryEncodingIsOnlyUsedForConfiguredManifests() {
+        final JsonifiableSerializer underTest = createSerializerWithBinaryManifests(CreateThing.TYPE);
+        final CreateThingResponse createThingResponse = CreateThingResponse.of(THING, DITTO_HEADERS);
+
+        final byte[] serialized = underTest.toBinary(createThingResponse);
+
+        assertThat(serialized[0]).isEqualTo((byte) '{');
+    }
+
+    @Test
+    public void jsonAndBinaryEncodingAreReadableByEachOther() {
+        final JsonifiableSerializer binarySerializer = createSerializerWithBinaryManifests("*");
+        final CreateThingResponse createThingResponse = CreateThingResponse.of(THING, DITTO_HEADERS);
+        final String manifest = binarySerializer.manifest(createThingResponse);
+
+        final Object fromJson =
+                binarySerializer.fromBinary(underTestForThingCommands.toBinary(createThingResponse), manifest);
+        final Object fromBinary =
+                underTestForThingCommands.fromBinary(binarySerializer.toBinary(createThingResponse), manifest);
+
+        assertThat(fromJson).isEqualTo(createThingResponse);
+        assertThat(fromBinary).isEqualTo(createThingResponse);
+    }
+
+    private static JsonifiableSerializer createSerializerWithBinaryManifests(final String binaryManifest) {
+        final ExtendedActorSystem actorSystem =
+                (ExtendedActorSystem) ExtendedActorSystem.create("test", ConfigFactory.empty()
+                        .withValue("ditto.mapping-strategy.implementation",
+                                ConfigValueFactory.fromAnyRef(ThingCommandsStrategy.class.getName()))
+                        .withValue("akka.actor.serializers-json.binary-manifests",
+                                ConfigValueFactory.fromIterable(Collections.singletonList(binaryManifest))));
+        return new JsonifiableSerializer(actorSystem);
+    }
+
     static final class ThingCommandsStrategy extends AbstractMappingStrategies {
 
         protected ThingCommandsStrategy() {
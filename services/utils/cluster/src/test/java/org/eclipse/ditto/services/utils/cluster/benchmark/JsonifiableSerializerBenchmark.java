@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.cluster.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ditto.json.JsonFactory;
+import org.eclipse.ditto.json.JsonObjectBuilder;
+import org.eclipse.ditto.model.base.headers.DittoHeaders;
+import org.eclipse.ditto.model.base.json.JsonSchemaVersion;
+import org.eclipse.ditto.model.things.Thing;
+import org.eclipse.ditto.model.things.ThingBuilder;
+import org.eclipse.ditto.model.things.ThingsModelFactory;
+import org.eclipse.ditto.services.utils.cluster.AbstractMappingStrategies;
+import org.eclipse.ditto.services.utils.cluster.JsonifiableSerializer;
+import org.eclipse.ditto.services.utils.cluster.MappingStrategiesBuilder;
+import org.eclipse.ditto.signals.base.GlobalErrorRegistry;
+import org.eclipse.ditto.signals.commands.base.GlobalCommandRegistry;
+import org.eclipse.ditto.signals.commands.things.modify.ModifyThing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+import akka.actor.ActorSystem;
+import akka.actor.ExtendedActorSystem;
+
+/**
+ * JMH Benchmark comparing the JSON encoding of {@link JsonifiableSerializer} with its binary encoding for
+ * {@link ModifyThing} commands of different sizes.
+ */
+@State(Scope.Benchmark)
+public class JsonifiableSerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int WARMUP_TIME = 1000;
+    private static final int MEASUREMENT_TIME = 1000;
+
+    private static final String THING_ID = "org.eclipse.ditto.benchmark:myThing";
+
+    @Param({"1", "10", "100"})
+    public int numberOfFeatures;
+
+    private ActorSystem jsonActorSystem;
+    private ActorSystem binaryActorSystem;
+    private JsonifiableSerializer jsonSerializer;
+    private JsonifiableSerializer binarySerializer;
+    private ModifyThing modifyThing;
+    private String manifest;
+    private ByteBuffer buffer;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        jsonActorSystem = ActorSystem.create("json", ConfigFactory.empty()
+                .withValue("ditto.mapping-strategy.implementation",
+                        ConfigValueFactory.fromAnyRef(BenchmarkMappingStrategies.class.getName())));
+        binaryActorSystem = ActorSystem.create("binary", jsonActorSystem.settings().config()
+                .withValue("akka.actor.serializers-json.binary-manifests",
+                        ConfigValueFactory.fromIterable(Collections.singletonList("*"))));
+        jsonSerializer = new JsonifiableSerializer((ExtendedActorSystem) jsonActorSystem);
+        binarySerializer = new JsonifiableSerializer((ExtendedActorSystem) binaryActorSystem);
+
+        modifyThing = ModifyThing.of(THING_ID, createThing(numberOfFeatures), null, DittoHeaders.newBuilder()
+                .correlationId("benchmark-correlation-id")
+                .authorizationSubjects("issuer:benchmark-subject")
+                .schemaVersion(JsonSchemaVersion.LATEST)
+                .build());
+        manifest = jsonSerializer.manifest(modifyThing);
+        buffer = ByteBuffer.allocateDirect(4 * 1024 * 1024);
+        jsonBytes = jsonSerializer.toBinary(modifyThing);
+        binaryBytes = binarySerializer.toBinary(modifyThing);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonActorSystem.terminate();
+        binaryActorSystem.terminate();
+    }
+
+    private static Thing createThing(final int numberOfFeatures) {
+        final ThingBuilder.FromScratch thingBuilder = Thing.newBuilder()
+                .setId(THING_ID)
+                .setPolicyId(THING_ID)
+                .setAttributes(JsonFactory.newObject("{\"manufacturer\": \"ACME\", \"location\": " +
+                        "{\"latitude\": 47.68, \"longitude\": 9.38}, \"serial\": 1234567890123}"));
+        for (int i = 0; i < numberOfFeatures; i++) {
+            final JsonObjectBuilder properties = JsonFactory.newObjectBuilder();
+            for (int j = 0; j < 10; j++) {
+                properties.set("property" + j, "value-" + i + "-" + j)
+                        .set("counter" + j, i * j)
+                        .set("temperature" + j, 20.5 + j);
+            }
+            thingBuilder.setFeature(ThingsModelFactory.newFeature("feature" + i,
+                    ThingsModelFactory.newFeatureProperties(properties.build())));
+        }
+        return thingBuilder.build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public ByteBuffer toBinaryJson() {
+        return toBinary(jsonSerializer);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public ByteBuffer toBinaryBinary() {
+        return toBinary(binarySerializer);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Object fromBinaryJson() {
+        return jsonSerializer.fromBinary(ByteBuffer.wrap(jsonBytes), manifest);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS, time = WARMUP_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS, time = MEASUREMENT_TIME, timeUnit = TimeUnit.MILLISECONDS)
+    public Object fromBinaryBinary() {
+        return binarySerializer.fromBinary(ByteBuffer.wrap(binaryBytes), manifest);
+    }
+
+    private ByteBuffer toBinary(final JsonifiableSerializer serializer) {
+        buffer.clear();
+        serializer.toBinary(modifyThing, buffer);
+        return buffer;
+    }
+
+    /**
+     * Mapping strategies for the commands used in this benchmark.
+     */
+    public static final class BenchmarkMappingStrategies extends AbstractMappingStrategies {
+
+        public BenchmarkMappingStrategies() {
+            super(MappingStrategiesBuilder.newInstance()
+                    .add(GlobalErrorRegistry.getInstance())
+                    .add(GlobalCommandRegistry.getInstance())
+                    .build()
+                    .getStrategies());
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.persistence.mongo.streaming;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An event journal entry which was written to the journal and reported by a {@link MongoJournalChangeStream}.
+ */
+@Immutable
+public final class JournalChange {
+
+    private final PidWithSeqNr pidWithSeqNr;
+    private final Instant clusterTime;
+
+    /**
+     * Creates a journal change.
+     *
+     * @param pidWithSeqNr persistence ID and highest sequence number of the written journal entry.
+     * @param clusterTime the time at which the journal entry was written.
+     */
+    public JournalChange(final PidWithSeqNr pidWithSeqNr, final Instant clusterTime) {
+        this.pidWithSeqNr = pidWithSeqNr;
+        this.clusterTime = clusterTime;
+    }
+
+    /**
+     * Retrieve persistence ID and highest sequence number of the written journal entry.
+     *
+     * @return The persistence ID and sequence number.
+     */
+    public PidWithSeqNr getPidWithSeqNr() {
+        return pidWithSeqNr;
+    }
+
+    /**
+     * Retrieve the time at which the journal entry was written. MongoDB reports it with a precision of seconds.
+     *
+     * @return The cluster time of the write.
+     */
+    public Instant getClusterTime() {
+        return clusterTime;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
+        } else {
+            final JournalChange that = (JournalChange) o;
+            return Objects.equals(pidWithSeqNr, that.pidWithSeqNr) &&
+                    Objects.equals(clusterTime, that.clusterTime);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pidWithSeqNr, clusterTime);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " ["
+                + "pidWithSeqNr=" + pidWithSeqNr
+                + ", clusterTime=" + clusterTime
+                + "]";
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.ditto.services.utils.persistence.mongo.streaming;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.eclipse.ditto.utils.jsr305.annotations.AllValuesAreNonnullByDefault;
+
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.reactivestreams.client.ChangeStreamPublisher;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import akka.NotUsed;
+import akka.contrib.persistence.mongodb.JournallingFieldNames$;
+import akka.stream.javadsl.Source;
+
+/**
+ * Watches the event journal of com.github.scullxbones.akka-persistence-mongo plugin for written entries by a MongoDB
+ * change stream. In contrast to {@link MongoReadJournal}, no query over a time window is necessary: every journal
+ * entry is reported once after it was written, as long as the stream is consumed.
+ * <p>
+ * Change streams are only available if MongoDB runs as a replica set (a single-node replica set suffices); resuming
+ * from a point in time requires MongoDB 4.0 or newer. The point in time to resume from has to be within the oplog
+ * window of the replica set.
+ * </p>
+ */
+@AllValuesAreNonnullByDefault
+public final class MongoJournalChangeStream {
+
+    private static final String PROCESSOR_ID = JournallingFieldNames$.MODULE$.PROCESSOR_ID();
+    private static final String TO = JournallingFieldNames$.MODULE$.TO();
+
+    private static final String OPERATION_TYPE = "operationType";
+    private static final String OPERATION_TYPE_INSERT = "insert";
+    private static final String NAMESPACE_COLLECTION = "ns.coll";
+    private static final String FULL_DOCUMENT_PREFIX = "fullDocument.";
+    private static final String OPERATION_TIME = "operationTime";
+
+    private final MongoDatabase database;
+    private final String journalCollectionPrefix;
+    private final List<Bson> pipeline;
+
+    private MongoJournalChangeStream(final MongoDatabase database, final String journalCollectionPrefix) {
+        this.database = database;
+        this.journalCollectionPrefix = journalCollectionPrefix;
+        pipeline = Arrays.asList(
+                Aggregates.match(Filters.and(
+                        Filters.eq(OPERATION_TYPE, OPERATION_TYPE_INSERT),
+                        Filters.regex(NAMESPACE_COLLECTION, "^" + Pattern.quote(journalCollectionPrefix)))),
+                // events may be large, only persistence ID and sequence number are of interest
+                Aggregates.project(Projections.include("_id", OPERATION_TYPE, "ns", "documentKey", "clusterTime",
+                        FULL_DOCUMENT_PREFIX + PROCESSOR_ID, FULL_DOCUMENT_PREFIX + TO))
+        );
+    }
+
+    /**
+     * Creates a new {@code MongoJournalChangeStream}.
+     *
+     * @param database the database containing the event journal.
+     * @param journalCollectionPrefix the name of the event journal collection (e.g. "things_journal"); collections
+     * with namespace suffix are watched as well.
+     * @return the change stream.
+     */
+    public static MongoJournalChangeStream of(final MongoDatabase database, final String journalCollectionPrefix) {
+        return new MongoJournalChangeStream(database, journalCollectionPrefix);
+    }
+
+    /**
+     * Watch the event journal for written entries. The returned source does not complete on its own; it fails if the
+     * change stream cannot be opened or is interrupted, e.g. because {@code start} is outside the oplog window.
+     * Because the cluster time has a precision of seconds, entries written within the second of {@code start} may be
+     * reported again.
+     *
+     * @param start the point in time to resume from, or {@code null} to report only entries written from now on.
+     * @return source of the written journal entries in the order they were written.
+     */
+    public Source<JournalChange, NotUsed> watchFrom(@Nullable final Instant start) {
+        return Source.lazily(() -> {
+            final ChangeStreamPublisher<Document> publisher = database.watch(pipeline, Document.class);
+            if (start != null) {
+                publisher.startAtOperationTime(new BsonTimestamp((int) start.getEpochSecond(), 0));
+            }
+            return Source.fromPublisher(publisher);
+        })
+                .mapMaterializedValue(whatever -> NotUsed.getInstance())
+                .map(MongoJournalChangeStream::toJournalChange);
+    }
+
+    /**
+     * Retrieve the cluster time up to which writes are majority-committed, i.e. visible to change streams. It is the
+     * operation time of a majority read on the event journal.
+     *
+     * @return source of the cluster time with a precision of seconds, or of an empty optional if the database does
+     * not report it, e.g. because it is no replica set.
+     */
+    public Source<Optional<Instant>, NotUsed> getMajorityCommittedTime() {
+        return Source.lazily(() -> {
+            final BsonDocument majorityRead = new BsonDocument()
+                    .append("find", new BsonString(journalCollectionPrefix))
+                    .append("projection", new BsonDocument("_id", new BsonInt32(1)))
+                    .append("limit", new BsonInt32(1))
+                    .append("singleBatch", BsonBoolean.TRUE)
+                    .append("readConcern", new BsonDocument("level", new BsonString("majority")));
+            return Source.fromPublisher(database.runCommand(majorityRead, BsonDocument.class));
+        })
+                .mapMaterializedValue(whatever -> NotUsed.getInstance())
+                .map(response -> {
+                    final BsonValue operationTime = response.get(OPERATION_TIME);
+                    return operationTime != null && operationTime.isTimestamp()
+                            ? Optional.of(Instant.ofEpochSecond(operationTime.asTimestamp().getTime()))
+                            : Optional.<Instant>empty();
+                });
+    }
+
+    private static JournalChange toJournalChange(final ChangeStreamDocument<Document> changeStreamDocument) {
+        final Document journalEntry = changeStreamDocument.getFullDocument();
+        final PidWithSeqNr pidWithSeqNr =
+                new PidWithSeqNr(journalEntry.getString(PROCESSOR_ID), journalEntry.getLong(TO));
+        final BsonTimestamp clusterTime = changeStreamDocument.getClusterTime();
+        return new JournalChange(pidWithSeqNr, Instant.ofEpochSecond(clusterTime.getTime()));
+    }
+
+}